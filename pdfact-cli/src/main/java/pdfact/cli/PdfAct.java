@@ -1,19 +1,33 @@
 package pdfact.cli;
 
-import static org.apache.logging.log4j.Level.DEBUG;
-import static org.apache.logging.log4j.Level.ERROR;
+import static pdfact.cli.PdfActCliSettings.DEFAULT_EXTRACTION_UNITS;
+import static pdfact.cli.PdfActCliSettings.DEFAULT_PRETTY_PRINT;
+import static pdfact.cli.PdfActCliSettings.DEFAULT_SEMANTIC_ROLES;
+import static pdfact.cli.PdfActCliSettings.DEFAULT_SERIALIZE_FORMAT;
+import static pdfact.cli.PdfActCliSettings.DEFAULT_WITH_PAGE_BOUNDARIES;
+
+import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.EnumSet;
 import java.util.Set;
-import org.apache.logging.log4j.core.config.Configurator;
+import java.util.TreeSet;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import pdfact.cli.model.ExtractionUnit;
 import pdfact.cli.model.SerializationFormat;
 import pdfact.cli.pipes.PdfActServicePipe;
 import pdfact.cli.pipes.PlainPdfActServicePipe;
+import pdfact.cli.util.cache.BuildFingerprint;
+import pdfact.cli.util.cache.ResultCache;
+import pdfact.cli.util.io.TeeOutputStream;
 import pdfact.core.model.Document;
 import pdfact.core.model.SemanticRole;
+import pdfact.core.util.cache.PageCache;
 import pdfact.core.util.exception.PdfActException;
+import pdfact.core.util.trace.TraceChannel;
 
 /**
  * The main class of PdfAct.
@@ -21,6 +35,11 @@ import pdfact.core.util.exception.PdfActException;
  * @author Claudius Korzen
  */
 public class PdfAct {
+  /**
+   * The logger.
+   */
+  protected static Logger log = LogManager.getLogger(PdfAct.class);
+
   /**
    * The serialization format.
    */
@@ -114,6 +133,32 @@ public class PdfAct {
    */
   protected boolean isPdfJsMode;
 
+  /**
+   * A boolean flag indicating whether or not the JSON serialization should be pretty-printed.
+   */
+  protected boolean prettyPrint = DEFAULT_PRETTY_PRINT;
+
+  /**
+   * A boolean flag indicating whether or not the TXT serialization should contain a page boundary
+   * ("^L") after the elements of each page.
+   */
+  protected boolean withPageBoundaries = DEFAULT_WITH_PAGE_BOUNDARIES;
+
+  /**
+   * The path to the file to which a checkpoint of the parsed PDF document should be written.
+   */
+  protected Path checkpointPath;
+
+  /**
+   * The cache of the serializations of already processed PDF files.
+   */
+  protected ResultCache resultCache;
+
+  /**
+   * The cache of already parsed pages.
+   */
+  protected PageCache pageCache;
+
   // ==============================================================================================
 
   /**
@@ -130,7 +175,15 @@ public class PdfAct {
   }
 
   /**
-   * Parses the PDF file given by the path.
+   * Parses the PDF file given by the path. The path may also point to a checkpoint of a parsed
+   * PDF file (see {@link #setCheckpointPath(Path)}), in which case the PDF file is not parsed
+   * again, but loaded from the checkpoint.
+   *
+   * <p>
+   * If a result cache is given (see {@link #setResultCache(ResultCache)}) and the serialization of
+   * a PDF file with the same bytes was already computed under the same configuration, the
+   * serialization is served from the cache and the PDF file is not parsed at all. In this case,
+   * the returned document doesn't contain any pages.
    *
    * @param pdfPath The path to the PDF file to parse.
    *
@@ -139,17 +192,33 @@ public class PdfAct {
    * @throws PdfActException If something went wrong on parsing the PDF.
    */
   public Document parse(Path pdfPath) throws PdfActException {
-    // Set the different debug levels according to the given debug flags.
-    Configurator.setLevel("pdf-parsing", this.isDebugPdfParsing ? DEBUG : ERROR);
-    Configurator.setLevel("char-extraction", this.isDebugCharacterExtraction ? DEBUG : ERROR);
-    Configurator.setLevel("splitting-ligatures", this.isDebugSplittingLigatures ? DEBUG : ERROR);
-    Configurator.setLevel("merging-diacritics", this.isDebugMergingDiacritics ? DEBUG : ERROR);
-    Configurator.setLevel("line-detection", this.isDebugTextLineDetection ? DEBUG : ERROR);
-    Configurator.setLevel("word-detection", this.isDebugWordDetection ? DEBUG : ERROR);
-    Configurator.setLevel("block-detection", this.isDebugTextBlockDetection ? DEBUG : ERROR);
-    Configurator.setLevel("role-detection", this.isDebugRoleDetection ? DEBUG : ERROR);
-    Configurator.setLevel("paragraph-detection", this.isDebugParagraphDetection ? DEBUG : ERROR);
-    Configurator.setLevel("word-dehyphenation", this.isDebugWordDehyphenation ? DEBUG : ERROR);
+    // Enable the different trace channels according to the given debug flags.
+    Set<TraceChannel> channels = EnumSet.noneOf(TraceChannel.class);
+    addTraceChannel(channels, TraceChannel.PDF_PARSING, this.isDebugPdfParsing);
+    addTraceChannel(channels, TraceChannel.CHAR_EXTRACTION, this.isDebugCharacterExtraction);
+    addTraceChannel(channels, TraceChannel.SPLITTING_LIGATURES, this.isDebugSplittingLigatures);
+    addTraceChannel(channels, TraceChannel.MERGING_DIACRITICS, this.isDebugMergingDiacritics);
+    addTraceChannel(channels, TraceChannel.LINE_DETECTION, this.isDebugTextLineDetection);
+    addTraceChannel(channels, TraceChannel.WORD_DETECTION, this.isDebugWordDetection);
+    addTraceChannel(channels, TraceChannel.BLOCK_DETECTION, this.isDebugTextBlockDetection);
+    addTraceChannel(channels, TraceChannel.ROLE_DETECTION, this.isDebugRoleDetection);
+    addTraceChannel(channels, TraceChannel.PARAGRAPH_DETECTION, this.isDebugParagraphDetection);
+    addTraceChannel(channels, TraceChannel.WORD_DEHYPHENATION, this.isDebugWordDehyphenation);
+
+    // Create the PDF document from the given path.
+    Document pdf = new Document(pdfPath);
+    pdf.setTraceChannels(channels);
+
+    // Serve the serialization from the cache, if possible.
+    String cacheKey = computeCacheKey(pdfPath, channels);
+    if (cacheKey != null && serveFromCache(cacheKey)) {
+      return pdf;
+    }
+    ResultCache.Entry cacheEntry = openCacheEntry(cacheKey);
+    OutputStream serializationStream = this.serializationStream;
+    if (cacheEntry != null && serializationStream != null) {
+      serializationStream = new TeeOutputStream(serializationStream, cacheEntry);
+    }
 
     // Create a service pipe.
     PdfActServicePipe service = new PlainPdfActServicePipe();
@@ -165,8 +234,8 @@ public class PdfAct {
     }
 
     // Pass the serialization stream, if there is any.
-    if (this.serializationStream != null) {
-      service.setSerializationStream(this.serializationStream);
+    if (serializationStream != null) {
+      service.setSerializationStream(serializationStream);
     }
 
     // Pass the path to the visualization file.
@@ -186,18 +255,182 @@ public class PdfAct {
 
     service.setInsertControlCharacters(this.insertControlCharacters);
     service.setIsPdfJsMode(this.isPdfJsMode);
-
-    // Create the PDF document from the given path.
-    Document pdf = new Document(pdfPath);
+    service.setPrettyPrint(this.prettyPrint);
+    service.setWithPageBoundaries(this.withPageBoundaries);
+    service.setCheckpointPath(this.checkpointPath);
+    service.setPageCache(this.pageCache);
 
     // Run PdfAct.
-    service.execute(pdf);
+    try {
+      service.execute(pdf);
+      commitCacheEntry(cacheEntry);
+    } finally {
+      closeCacheEntry(cacheEntry);
+    }
 
     return pdf;
   }
 
   // ==============================================================================================
 
+  /**
+   * Computes the key of the given PDF file in the result cache.
+   *
+   * @param pdfPath  The path to the PDF file.
+   * @param channels The enabled trace channels.
+   *
+   * @return The key, or null if the result cache is not used for the PDF file (because there is no
+   *         cache, because the run has other effects than writing the serialization, or because
+   *         the fingerprint of the code is unknown).
+   */
+  protected String computeCacheKey(Path pdfPath, Set<TraceChannel> channels) {
+    if (this.resultCache == null || !channels.isEmpty() || this.visualizationPath != null
+        || this.checkpointPath != null) {
+      return null;
+    }
+    if (this.serializationPath == null && this.serializationStream == null) {
+      return null;
+    }
+    String configuration = getConfigurationFingerprint();
+    if (configuration == null) {
+      return null;
+    }
+    try {
+      return this.resultCache.computeKey(pdfPath, configuration);
+    } catch (IOException e) {
+      // Let the parsing step report the error (e.g., if the file doesn't exist).
+      return null;
+    }
+  }
+
+  /**
+   * Returns a fingerprint of all settings that affect the serialization, including the code
+   * itself (see {@link BuildFingerprint}).
+   *
+   * @return The fingerprint, or null if the fingerprint of the code is unknown.
+   */
+  protected String getConfigurationFingerprint() {
+    SerializationFormat format = this.serializationFormat;
+    Set<ExtractionUnit> units = this.extractionUnits;
+    Set<SemanticRole> roles = this.semanticRoles;
+
+    Set<String> unitNames = new TreeSet<>();
+    for (ExtractionUnit unit : units != null ? units : DEFAULT_EXTRACTION_UNITS) {
+      unitNames.add(unit.name());
+    }
+    Set<String> roleNames = new TreeSet<>();
+    for (SemanticRole role : roles != null ? roles : DEFAULT_SEMANTIC_ROLES) {
+      roleNames.add(role.name());
+    }
+    String build = BuildFingerprint.get();
+    if (build == null) {
+      return null;
+    }
+
+    return String.join(";", "build=" + build,
+        "format=" + (format != null ? format : DEFAULT_SERIALIZE_FORMAT).name(),
+        "units=" + String.join(",", unitNames), "roles=" + String.join(",", roleNames),
+        "controlCharacters=" + this.insertControlCharacters, "pdfJsMode=" + this.isPdfJsMode,
+        "prettyPrint=" + this.prettyPrint, "pageBoundaries=" + this.withPageBoundaries);
+  }
+
+  /**
+   * Writes the cached serialization with the given key to the serialization target(s), if there
+   * is such a serialization.
+   *
+   * @param key The key of the serialization.
+   *
+   * @return True, if the serialization was served from the cache; false otherwise.
+   */
+  protected boolean serveFromCache(String key) {
+    try {
+      if (this.serializationPath != null) {
+        if (!this.resultCache.get(key, this.serializationPath)) {
+          return false;
+        }
+        if (this.serializationStream != null) {
+          Files.copy(this.serializationPath, this.serializationStream);
+        }
+        return true;
+      }
+      return this.resultCache.get(key, this.serializationStream);
+    } catch (IOException e) {
+      log.warn("Couldn't read from the result cache: " + e.getMessage());
+      return false;
+    }
+  }
+
+  /**
+   * Opens an entry of the result cache to which the serialization should be written.
+   *
+   * @param key The key of the serialization (may be null).
+   *
+   * @return The entry, or null if the serialization should not be cached.
+   */
+  protected ResultCache.Entry openCacheEntry(String key) {
+    if (key == null) {
+      return null;
+    }
+    try {
+      return this.resultCache.put(key);
+    } catch (IOException e) {
+      log.warn("Couldn't write to the result cache: " + e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Adds the given entry to the result cache, after the serialization was written successfully.
+   *
+   * @param entry The entry (may be null).
+   */
+  protected void commitCacheEntry(ResultCache.Entry entry) {
+    if (entry == null) {
+      return;
+    }
+    try {
+      // The serialization was written to the entry while serializing, if it was written to a
+      // stream. Otherwise, copy it from the serialization file.
+      if (this.serializationStream == null) {
+        Files.copy(this.serializationPath, entry);
+      }
+      entry.commit();
+    } catch (IOException e) {
+      log.warn("Couldn't write to the result cache: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Closes the given entry of the result cache (discarding it, if it wasn't committed).
+   *
+   * @param entry The entry (may be null).
+   */
+  protected void closeCacheEntry(ResultCache.Entry entry) {
+    if (entry == null) {
+      return;
+    }
+    try {
+      entry.close();
+    } catch (IOException e) {
+      log.warn("Couldn't discard an entry of the result cache: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Adds the given trace channel to the given set of channels if the given flag is true.
+   *
+   * @param channels The set of channels.
+   * @param channel  The channel to add.
+   * @param flag     The flag indicating whether or not to add the channel.
+   */
+  protected void addTraceChannel(Set<TraceChannel> channels, TraceChannel channel, boolean flag) {
+    if (flag) {
+      channels.add(channel);
+    }
+  }
+
+  // ==============================================================================================
+
   /**
    * Returns true if debug info about the PDF parsing step should be printed, false otherwise.
    */
@@ -497,5 +730,95 @@ public class PdfAct {
   public void setIsPdfJsMode(boolean isPdfJsMode) {
     this.isPdfJsMode = isPdfJsMode;
   }
-}
 
+  // ==============================================================================================
+
+  /**
+   * Returns the boolean flag indicating whether or not the JSON serialization is pretty-printed.
+   */
+  public boolean isPrettyPrint() {
+    return this.prettyPrint;
+  }
+
+  /**
+   * Sets the boolean flag indicating whether or not the JSON serialization should be
+   * pretty-printed (indented, with line breaks).
+   */
+  public void setPrettyPrint(boolean prettyPrint) {
+    this.prettyPrint = prettyPrint;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the boolean flag indicating whether or not the TXT serialization contains a page
+   * boundary ("^L") after the elements of each page.
+   */
+  public boolean isWithPageBoundaries() {
+    return this.withPageBoundaries;
+  }
+
+  /**
+   * Sets the boolean flag indicating whether or not the TXT serialization should contain a page
+   * boundary ("^L") after the elements of each page.
+   */
+  public void setWithPageBoundaries(boolean withPageBoundaries) {
+    this.withPageBoundaries = withPageBoundaries;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the path to the file to which a checkpoint of the parsed PDF document should be
+   * written (null if no checkpoint should be written).
+   */
+  public Path getCheckpointPath() {
+    return this.checkpointPath;
+  }
+
+  /**
+   * Sets the path to the file to which a checkpoint of the parsed PDF document should be written
+   * (null if no checkpoint should be written). The checkpoint can be passed to
+   * {@link #parse(Path)} instead of the PDF file later, to skip the parsing of the PDF file.
+   */
+  public void setCheckpointPath(Path checkpointPath) {
+    this.checkpointPath = checkpointPath;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the cache of the serializations of already processed PDF files (null if no cache is
+   * used).
+   */
+  public ResultCache getResultCache() {
+    return this.resultCache;
+  }
+
+  /**
+   * Sets the cache of the serializations of already processed PDF files (null if no cache should
+   * be used). The cache is not used on runs that visualize the PDF file, write a checkpoint or
+   * print debug info, since these runs have other effects than writing the serialization.
+   */
+  public void setResultCache(ResultCache resultCache) {
+    this.resultCache = resultCache;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the cache of already parsed pages (null if pages are not cached).
+   */
+  public PageCache getPageCache() {
+    return this.pageCache;
+  }
+
+  /**
+   * Sets the cache of already parsed pages (null if pages should not be cached). Pages with the
+   * same content streams and resources as a page in the cache are not parsed again, but loaded
+   * from the cache. The cache can be shared by multiple instances of PdfAct.
+   */
+  public void setPageCache(PageCache pageCache) {
+    this.pageCache = pageCache;
+  }
+}
@@ -1,5 +1,7 @@
 package pdfact.cli;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -18,8 +20,10 @@ import net.sourceforge.argparse4j.inf.ArgumentParser;
 import net.sourceforge.argparse4j.inf.ArgumentParserException;
 import pdfact.cli.model.ExtractionUnit;
 import pdfact.cli.model.SerializationFormat;
+import pdfact.cli.util.cache.ResultCache;
 import pdfact.cli.util.exception.PdfActParseCommandLineException;
 import pdfact.core.model.SemanticRole;
+import pdfact.core.util.cache.PageCache;
 import pdfact.core.util.exception.PdfActException;
 
 /**
@@ -28,12 +32,26 @@ import pdfact.core.util.exception.PdfActException;
  * @author Claudius Korzen
  */
 public class PdfActCli {
+  /**
+   * The result cache, shared by all runs of this command line interface (e.g., in batch mode).
+   */
+  protected ResultCache resultCache;
+
+  /**
+   * The page cache, shared by all runs of this command line interface (e.g., in batch mode).
+   */
+  protected PageCache pageCache;
+
+  // ==============================================================================================
+
   /**
    * Starts this command line interface.
    *
    * @param args The command line arguments.
+   *
+   * @return The status code (0 on success, the exit code of the error otherwise).
    */
-  protected void start(String[] args) {
+  protected int start(String[] args) {
     int statusCode = 0;
     String errorMessage = null;
     Throwable cause = null;
@@ -104,6 +122,29 @@ public class PdfActCli {
       // Set the "pdf.js mode" flag.
       pdfAct.setIsPdfJsMode(parser.isPdfJsMode);
 
+      // Set the "compact" flag.
+      pdfAct.setPrettyPrint(!parser.isCompact);
+
+      // Set the "with page boundaries" flag.
+      pdfAct.setWithPageBoundaries(parser.withPageBoundaries);
+
+      // Pass the target of the checkpoint.
+      String checkpointPathStr = parser.checkpointPath;
+      if (checkpointPathStr != null) {
+        pdfAct.setCheckpointPath(Paths.get(checkpointPathStr));
+      }
+
+      // Pass the result cache.
+      String cacheDirStr = parser.cacheDir;
+      if (cacheDirStr != null) {
+        pdfAct.setResultCache(getResultCache(Paths.get(cacheDirStr), parser.cacheSize));
+      }
+
+      // Pass the page cache.
+      if (parser.pageCacheSize > 0) {
+        pdfAct.setPageCache(getPageCache(parser.pageCacheSize));
+      }
+
       // Run PdfAct.
       pdfAct.parse(parser.pdfPath);
     } catch (PdfActException e) {
@@ -120,16 +161,91 @@ public class PdfActCli {
         cause.printStackTrace();
       }
     }
+    return statusCode;
+  }
+
+  /**
+   * Returns the result cache in the given directory. The cache is created on the first call and
+   * reused on subsequent calls with the same directory, so that its statistics cover all runs.
+   *
+   * @param directory The directory of the cache.
+   * @param maxSizeMb The maximum size of the cache, in megabytes.
+   *
+   * @return The result cache.
+   *
+   * @throws PdfActException If the directory of the cache couldn't be created.
+   */
+  protected synchronized ResultCache getResultCache(Path directory, long maxSizeMb)
+      throws PdfActException {
+    long maxSize = maxSizeMb * 1024 * 1024;
+    if (this.resultCache == null || !this.resultCache.getDirectory().equals(directory)
+        || this.resultCache.getMaxSize() != maxSize) {
+      try {
+        this.resultCache = new ResultCache(directory, maxSize);
+      } catch (IOException e) {
+        throw new PdfActParseCommandLineException(
+            "Couldn't create the cache directory '" + directory + "'.", e);
+      }
+    }
+    return this.resultCache;
+  }
+
+  /**
+   * Returns the page cache with the given maximum size. The cache is created on the first call and
+   * reused on subsequent calls with the same size, so that the pages of all runs are cached.
+   *
+   * @param maxSizeMb The maximum size of the cache, in megabytes.
+   *
+   * @return The page cache.
+   */
+  protected synchronized PageCache getPageCache(long maxSizeMb) {
+    long maxSize = maxSizeMb * 1024 * 1024;
+    if (this.pageCache == null || this.pageCache.getMaxSize() != maxSize) {
+      this.pageCache = new PageCache(maxSize);
+    }
+    return this.pageCache;
+  }
+
+  /**
+   * Returns the page cache used by the last runs (null if no cache was used).
+   *
+   * @return The page cache.
+   */
+  public PageCache getPageCache() {
+    return this.pageCache;
+  }
+
+  /**
+   * Returns the result cache used by the last runs (null if no cache was used).
+   *
+   * @return The result cache.
+   */
+  public ResultCache getResultCache() {
+    return this.resultCache;
   }
 
   // ==============================================================================================
 
   /**
-   * The main method to run the command line interface.
+   * The main method to run the command line interface. If the first argument is "serve", "worker"
+   * or "watch", PdfAct is run as a server (see {@link PdfActServerCli}), as a worker (see
+   * {@link PdfActWorkerCli}) or as a watcher of a directory (see {@link PdfActWatchCli}) instead.
    *
    * @param args The command line arguments.
    */
   public static void main(String[] args) {
+    if (args.length > 0 && args[0].equals(PdfActServerCli.COMMAND)) {
+      PdfActServerCli.main(Arrays.copyOfRange(args, 1, args.length));
+      return;
+    }
+    if (args.length > 0 && args[0].equals(PdfActWorkerCli.COMMAND)) {
+      PdfActWorkerCli.main(Arrays.copyOfRange(args, 1, args.length));
+      return;
+    }
+    if (args.length > 0 && args[0].equals(PdfActWatchCli.COMMAND)) {
+      PdfActWatchCli.main(Arrays.copyOfRange(args, 1, args.length));
+      return;
+    }
     new PdfActCli().start(args);
   }
 
@@ -140,7 +256,7 @@ public class PdfActCli {
    *
    * @author Claudius Korzen
    */
-  class PdfActCommandLineParser {
+  public class PdfActCommandLineParser {
     /**
      * The command line argument parser.
      */
@@ -405,6 +521,82 @@ public class PdfActCli {
 
     // ============================================================================================
 
+    /**
+     * The name of the option to write the JSON serialization without indentation.
+     */
+    public static final String COMPACT = "compact";
+
+    /**
+     * The boolean flag indicating whether or not to write the JSON serialization without
+     * indentation and line breaks.
+     */
+    @Arg(dest = COMPACT)
+    public boolean isCompact = false;
+
+    // ============================================================================================
+
+    /**
+     * The name of the option to write page boundaries into the TXT serialization.
+     */
+    public static final String WITH_PAGE_BOUNDARIES = "with-page-boundaries";
+
+    /**
+     * The flag indicating whether or not to write a page boundary after the elements of each page
+     * into the TXT serialization output.
+     */
+    @Arg(dest = WITH_PAGE_BOUNDARIES)
+    public boolean withPageBoundaries = false;
+
+    // ============================================================================================
+
+    /**
+     * The name of the option to define the target path for the checkpoint of the parsed PDF.
+     */
+    public static final String CHECKPOINT_PATH = "checkpoint";
+
+    /**
+     * The target path for the checkpoint of the parsed PDF.
+     */
+    @Arg(dest = CHECKPOINT_PATH)
+    public String checkpointPath;
+
+    // ============================================================================================
+
+    /**
+     * The name of the option to define the directory of the result cache.
+     */
+    public static final String CACHE_DIR = "cache";
+
+    /**
+     * The directory of the result cache.
+     */
+    @Arg(dest = CACHE_DIR)
+    public String cacheDir;
+
+    /**
+     * The name of the option to define the maximum size of the result cache.
+     */
+    public static final String CACHE_SIZE = "cache-size";
+
+    /**
+     * The maximum size of the result cache, in megabytes.
+     */
+    @Arg(dest = CACHE_SIZE)
+    public long cacheSize = ResultCache.DEFAULT_MAX_SIZE / (1024 * 1024);
+
+    /**
+     * The name of the option to define the maximum size of the page cache.
+     */
+    public static final String PAGE_CACHE_SIZE = "page-cache-size";
+
+    /**
+     * The maximum size of the page cache, in megabytes (0 to disable the page cache).
+     */
+    @Arg(dest = PAGE_CACHE_SIZE)
+    public long pageCacheSize = 0;
+
+    // ============================================================================================
+
     /**
      * Creates a new command line argument parser.
      */
@@ -418,7 +610,8 @@ public class PdfActCli {
       this.parser.addArgument(PDF_PATH).dest(PDF_PATH)
         .required(true)
         .metavar("<pdf-file>")
-        .help("The path to the PDF file to be processed.");
+        .help("The path to the PDF file to be processed (or to a checkpoint of a parsed PDF "
+            + "file, see --" + CHECKPOINT_PATH + ").");
 
       // Add an argument to define the target path to the output file.
       this.parser.addArgument(SERIALIZE_PATH).dest(SERIALIZE_PATH)
@@ -442,7 +635,11 @@ public class PdfActCli {
             + "In case of txt, the text elements will be extracted as plain text, in the "
             + "format: one text element per line. In case of xml or json, the text elements "
             + "will be extracted together with their layout information, e.g., their positions "
-            + "in the PDF file, their fonts and their colors.");
+            + "in the PDF file, their fonts and their colors. In case of jsonl, they will be "
+            + "extracted like in case of json, but as one JSON record per page (plus a final "
+            + "record with the fonts and colors), each on a single line. In case of bin, they "
+            + "will be extracted in a compact binary columnar format, readable by the reader of "
+            + "the module pdfact-format.");
 
       // Add an option to define the text units.
       choicesStr = String.join(", ", ExtractionUnit.getPluralNames());
@@ -598,6 +795,63 @@ public class PdfActCli {
         .setDefault(this.isPdfJsMode)
         .help("Enables the pdf.js mode, that is: a mode that outputs the text in a format as "
               + "required by the tool from Robin that improves the search functionality of pdf.js");
+
+      // Add an option to write the JSON serialization without indentation.
+      this.parser.addArgument("--" + COMPACT).dest(COMPACT)
+        .required(false)
+        .action(Arguments.storeTrue())
+        .setDefault(this.isCompact)
+        .help("Write the JSON serialization without indentation and line breaks.");
+
+      // Add an option to write page boundaries into the TXT serialization output.
+      this.parser.addArgument("--" + WITH_PAGE_BOUNDARIES).dest(WITH_PAGE_BOUNDARIES)
+        .required(false)
+        .action(Arguments.storeTrue())
+        .setDefault(this.withPageBoundaries)
+        .help("Add a \"^L\" (\"form feed\") after the elements of each page (including pages "
+            + "without any extracted elements) to the TXT serialization output, so that the k-th "
+            + "section of the output contains the elements of the k-th page.");
+
+      // Add an option to define the target path for the checkpoint of the parsed PDF.
+      this.parser.addArgument("--" + CHECKPOINT_PATH).dest(CHECKPOINT_PATH)
+        .required(false)
+        .type(String.class)
+        .metavar("<path>")
+        .help("The path to a file to which a checkpoint of the parsed PDF file (the characters, "
+            + "figures, shapes, fonts and colors, before any further processing) should be "
+            + "written. The checkpoint can be given instead of the PDF file on later runs (for "
+            + "example, with other options), to skip the parsing of the PDF file.");
+
+      // Add an option to define the directory of the result cache.
+      this.parser.addArgument("--" + CACHE_DIR).dest(CACHE_DIR)
+        .required(false)
+        .type(String.class)
+        .metavar("<dir>")
+        .help("The path to a directory in which the serializations should be cached, keyed by a "
+            + "hash of the bytes of the PDF file and the given options. If the PDF file was "
+            + "already processed with the same options (possibly under another name), the "
+            + "serialization is served from the cache. The directory can be shared by multiple "
+            + "processes.");
+
+      // Add an option to define the maximum size of the result cache.
+      this.parser.addArgument("--" + CACHE_SIZE).dest(CACHE_SIZE)
+        .required(false)
+        .type(Long.class)
+        .metavar("<mb>")
+        .setDefault(this.cacheSize)
+        .help("The maximum size of the result cache in megabytes. If the cache exceeds this size, "
+            + "the least recently used serializations are removed.");
+
+      // Add an option to enable the page cache.
+      this.parser.addArgument("--" + PAGE_CACHE_SIZE).dest(PAGE_CACHE_SIZE)
+        .required(false)
+        .type(Long.class)
+        .metavar("<mb>")
+        .setDefault(this.pageCacheSize)
+        .help("The maximum size in megabytes of an in-memory cache of parsed pages, keyed by a "
+            + "hash of the content streams and resources of a page. Pages that occur in multiple "
+            + "documents (or multiple times in a document), like license pages or blank pages, "
+            + "are parsed only once. Default: 0 (no page cache).");
     }
 
     /**
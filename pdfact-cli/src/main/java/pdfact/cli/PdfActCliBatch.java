@@ -2,16 +2,57 @@ package pdfact.cli;
 
 import java.io.File;
 import java.io.FilenameFilter;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import me.tongfei.progressbar.*;
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.helper.HelpScreenException;
+import net.sourceforge.argparse4j.impl.Arguments;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.inf.Namespace;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.config.Configurator;
+import pdfact.cli.util.batch.BatchScheduler;
+import pdfact.cli.util.batch.CoordinatedBatch;
+import pdfact.cli.util.batch.FileLeaseCoordinator;
+import pdfact.cli.util.batch.PdfCostEstimator;
 
 public class PdfActCliBatch {
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws InterruptedException, IOException {
+        // Log the estimated and actual costs of the PDF files (to tune the estimation of the costs).
+        Configurator.setLevel(BatchScheduler.class.getPackage().getName(), Level.INFO);
 
-        String dir = args[0];
+        ArgumentParser parser = createParser();
+        Namespace ns;
+        try {
+            ns = parser.parseArgs(args);
+        } catch (HelpScreenException e) {
+            return;
+        } catch (ArgumentParserException e) {
+            System.err.println(e.getMessage() + "\n\n" + parser.formatUsage());
+            return;
+        }
+
+        String dir = ns.getString("dir");
+        String cacheDir = ns.getString("cache");
+        Long pageCacheSizeMb = ns.getLong("page-cache-size");
+        String pageCacheSize = pageCacheSizeMb != null ? String.valueOf(pageCacheSizeMb) : null;
+        int numThreads = ns.getInt("threads");
+        Long heapBudgetMb = ns.getLong("heap-budget");
+        long heapBudget = heapBudgetMb != null ? heapBudgetMb * 1024 * 1024
+                : Runtime.getRuntime().maxMemory() / 4 * 3;
+        boolean isShortestJobFirst = ns.getBoolean("shortest-job-first");
+        Long leaseTimeout = ns.getLong("lease-timeout");
+        FileLeaseCoordinator coordinator = leaseTimeout != null
+                ? new FileLeaseCoordinator(Paths.get(dir), leaseTimeout * 1000) : null;
 
         PdfActCli pdfActCli = new PdfActCli();
 
@@ -26,16 +67,52 @@ public class PdfActCliBatch {
 
         System.out.println("Beginning process " + dir + " with " + pdfFilesToProcess.length + " files.");
 
-        List<String> errorsList=new ArrayList<String>();
+        // Estimate the costs of the files up front, to schedule them under the heap budget.
+        PdfCostEstimator estimator = new PdfCostEstimator();
+        List<PdfCostEstimator.Estimate> estimates = new ArrayList<>();
         for (String pdfFile : pdfFilesToProcess) {
-            try {
-                pdfActCli.start(new String[]{dir + "/" + pdfFile, "--format", "json", dir + "/" + pdfFile + ".json"});
-            } catch (IllegalArgumentException illegalArgumentException) {
-                errorsList.add(pdfFile);
+            estimates.add(estimator.estimate(new File(dir, pdfFile).toPath()));
+        }
+
+        List<String> errorsList = Collections.synchronizedList(new ArrayList<String>());
+        BatchScheduler scheduler = new BatchScheduler(numThreads, heapBudget, isShortestJobFirst);
+        if (coordinator == null) {
+            scheduler.run(estimates, estimate -> {
+                String pdfFile = estimate.getPdfPath().getFileName().toString();
+                String jsonFile = dir + "/" + pdfFile + ".json";
+                int statusCode = process(pdfActCli, dir + "/" + pdfFile, jsonFile, cacheDir,
+                        pageCacheSize);
+                if (statusCode != 0) {
+                    errorsList.add(pdfFile);
+                }
+                synchronized (pb) {
+                    pb.step();
+                }
+            });
+        } else {
+            // Drain the directory together with the other processes.
+            CoordinatedBatch batch = new CoordinatedBatch(scheduler, coordinator);
+            List<Path> failed = batch.run(estimates, (pdfPath, outputPath) -> process(pdfActCli,
+                    pdfPath.toString(), outputPath.toString(), cacheDir, pageCacheSize),
+                    estimate -> {
+                        synchronized (pb) {
+                            pb.step();
+                        }
+                    });
+            for (Path pdfPath : failed) {
+                errorsList.add(pdfPath.getFileName().toString());
             }
-            pb.step();
+            coordinator.close();
+        }
 
+        if (pdfActCli.getResultCache() != null) {
+            System.out.println(pdfActCli.getResultCache());
         }
+        if (pdfActCli.getPageCache() != null) {
+            System.out.println(pdfActCli.getPageCache());
+        }
+        System.out.println(String.format("Peak estimated heap: %d MB (budget: %d MB)",
+                scheduler.getPeakUsedHeapBudget() >> 20, scheduler.getHeapBudget() >> 20));
 
         if (errorsList.size() > 0) {
             System.out.println(errorsList.size() + " error found on the following documents");
@@ -47,4 +124,84 @@ public class PdfActCliBatch {
         }
 
     }
+
+    /**
+     * Creates the parser of the command line arguments.
+     *
+     * @return The parser.
+     */
+    private static ArgumentParser createParser() {
+        ArgumentParser parser = ArgumentParsers.newFor("PdfActCliBatch")
+                .terminalWidthDetection(false)
+                .defaultFormatWidth(100).build();
+        parser.description("Converts all PDF files in a directory (without a JSON file next to "
+                + "them) to JSON files.");
+
+        parser.addArgument("dir").dest("dir")
+                .metavar("<dir>")
+                .help("The directory with the PDF files.");
+
+        parser.addArgument("--cache").dest("cache")
+                .metavar("<dir>")
+                .help("The directory of a result cache, to serve duplicate PDF files from the "
+                        + "cache. Default: no result cache.");
+
+        parser.addArgument("--page-cache-size").dest("page-cache-size")
+                .type(Long.class)
+                .metavar("<mb>")
+                .help("The maximum size in megabytes of a page cache, to parse pages shared by "
+                        + "several PDF files only once. Default: no page cache.");
+
+        parser.addArgument("--threads").dest("threads")
+                .type(Integer.class)
+                .metavar("<num>")
+                .setDefault(1)
+                .help("The number of PDF files to process in parallel. Default: 1.");
+
+        parser.addArgument("--heap-budget").dest("heap-budget")
+                .type(Long.class)
+                .metavar("<mb>")
+                .help("The budget in megabytes of the estimated heap of the PDF files processed "
+                        + "in parallel. Default: 3/4 of the maximum heap.");
+
+        parser.addArgument("--shortest-job-first").dest("shortest-job-first")
+                .action(Arguments.storeTrue())
+                .help("Process the PDF files in the order of their estimated costs.");
+
+        parser.addArgument("--lease-timeout").dest("lease-timeout")
+                .type(Long.class)
+                .metavar("<seconds>")
+                .help("Drain the directory together with other processes (possibly on other "
+                        + "hosts sharing the directory), by leasing each PDF file for the given "
+                        + "number of seconds (renewed while the PDF file is in process). Default: "
+                        + "no coordination.");
+
+        return parser;
+    }
+
+    /**
+     * Processes the given PDF file.
+     *
+     * @return The status code of the command line interface.
+     */
+    private static int process(PdfActCli pdfActCli, String pdfFile, String jsonFile,
+            String cacheDir, String pageCacheSize) {
+        try {
+            List<String> cliArgs = new ArrayList<String>(Arrays.asList(
+                    pdfFile, "--format", "json", jsonFile));
+            if (cacheDir != null) {
+                cliArgs.add("--cache");
+                cliArgs.add(cacheDir);
+            }
+            if (pageCacheSize != null) {
+                cliArgs.add("--page-cache-size");
+                cliArgs.add(pageCacheSize);
+            }
+            return pdfActCli.start(cliArgs.toArray(new String[0]));
+        } catch (RuntimeException e) {
+            // For example, an error of the PDF library on a malformed PDF file.
+            System.err.println("Couldn't process " + pdfFile + ": " + e);
+            return -1;
+        }
+    }
 }
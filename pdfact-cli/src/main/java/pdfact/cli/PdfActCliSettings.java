@@ -45,4 +45,16 @@ public class PdfActCliSettings {
    * occurs in the PDF and "^A" in front of headings.
    */
   public static final boolean DEFAULT_WITH_CONTROL_CHARACTERS = false;
+
+  /**
+   * The default boolean flag indicating whether or not the JSON serialization should be
+   * pretty-printed (indented, with line breaks).
+   */
+  public static final boolean DEFAULT_PRETTY_PRINT = true;
+
+  /**
+   * The default boolean flag indicating whether or not the TXT serialization should contain a
+   * page boundary ("^L") after the elements of each page.
+   */
+  public static final boolean DEFAULT_WITH_PAGE_BOUNDARIES = false;
 }
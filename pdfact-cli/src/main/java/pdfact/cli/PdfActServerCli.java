@@ -0,0 +1,181 @@
+package pdfact.cli;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.annotation.Arg;
+import net.sourceforge.argparse4j.helper.HelpScreenException;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import pdfact.cli.server.PdfActEngine;
+import pdfact.cli.server.PdfActServer;
+import pdfact.core.util.cache.PageCache;
+
+/**
+ * The command line interface to run PdfAct as a server ("pdfact serve ..."), see
+ * {@link PdfActServer}.
+ *
+ * @author Claudius Korzen
+ */
+public class PdfActServerCli {
+  /**
+   * The name of the command to run PdfAct as a server.
+   */
+  public static final String COMMAND = "serve";
+
+  /**
+   * The host to bind the server to.
+   */
+  @Arg(dest = "host")
+  public String host = "localhost";
+
+  /**
+   * The port to bind the server to.
+   */
+  @Arg(dest = "port")
+  public int port = 8080;
+
+  /**
+   * The number of the workers processing PDF files in parallel.
+   */
+  @Arg(dest = "threads")
+  public int numThreads = Runtime.getRuntime().availableProcessors();
+
+  /**
+   * The number of the requests that may wait for a worker.
+   */
+  @Arg(dest = "queue-size")
+  public int queueSize = 16;
+
+  /**
+   * The maximum processing time of a request, in seconds.
+   */
+  @Arg(dest = "timeout")
+  public int timeout = 60;
+
+  /**
+   * The maximum size of a PDF file sent with a request, in megabytes.
+   */
+  @Arg(dest = "max-body-size")
+  public long maxBodySize = PdfActServer.DEFAULT_MAX_BODY_SIZE / (1024 * 1024);
+
+  /**
+   * The maximum size of the page cache, in megabytes (0 to disable the page cache).
+   */
+  @Arg(dest = "page-cache-size")
+  public long pageCacheSize = 0;
+
+  // ==============================================================================================
+
+  /**
+   * Starts the server.
+   *
+   * @param args The command line arguments (without the name of the command).
+   */
+  protected void start(String[] args) {
+    ArgumentParser parser = createParser();
+    try {
+      parser.parseArgs(args, this);
+    } catch (HelpScreenException e) {
+      return;
+    } catch (ArgumentParserException e) {
+      // Print the error message (regardless of the log level).
+      System.err.println(e.getMessage() + "\n\n" + parser.formatUsage());
+      return;
+    }
+
+    PageCache pageCache = null;
+    if (this.pageCacheSize > 0) {
+      pageCache = new PageCache(this.pageCacheSize * 1024 * 1024);
+    }
+
+    try {
+      PdfActServer server = new PdfActServer(new InetSocketAddress(this.host, this.port),
+          this.numThreads, this.queueSize, this.timeout * 1000L, this.maxBodySize * 1024 * 1024,
+          new PdfActEngine(pageCache));
+      Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(1)));
+      server.start();
+      System.err.println("PdfAct is listening on http://" + this.host + ":"
+          + server.getAddress().getPort() + PdfActServer.EXTRACT_PATH);
+    } catch (IOException | IllegalArgumentException e) {
+      System.err.println("Couldn't start the server: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Creates the parser of the command line arguments.
+   *
+   * @return The parser.
+   */
+  protected ArgumentParser createParser() {
+    ArgumentParser parser = ArgumentParsers.newFor("pdfact " + COMMAND)
+        .terminalWidthDetection(false)
+        .defaultFormatWidth(100).build();
+    parser.description("Runs PdfAct as a HTTP server. PDF files are sent as the body of a POST "
+        + "request to " + PdfActServer.EXTRACT_PATH + ", with the options of the command line "
+        + "interface as query parameters (for example: curl --data-binary @paper.pdf "
+        + "\"http://localhost:8080" + PdfActServer.EXTRACT_PATH + "?format=json&units=words\"). "
+        + "The metrics of the server are available at " + PdfActServer.METRICS_PATH + ".");
+
+    parser.addArgument("--host").dest("host")
+        .metavar("<host>")
+        .setDefault(this.host)
+        .help("The host to bind the server to. Default: \"" + this.host + "\".");
+
+    parser.addArgument("--port").dest("port")
+        .type(Integer.class)
+        .metavar("<port>")
+        .setDefault(this.port)
+        .help("The port to bind the server to. Default: " + this.port + ".");
+
+    parser.addArgument("--threads").dest("threads")
+        .type(Integer.class)
+        .metavar("<num>")
+        .setDefault(this.numThreads)
+        .help("The number of PDF files to process in parallel. Default: the number of available "
+            + "processors (" + this.numThreads + ").");
+
+    parser.addArgument("--queue-size").dest("queue-size")
+        .type(Integer.class)
+        .metavar("<num>")
+        .setDefault(this.queueSize)
+        .help("The number of requests that may wait for processing. Further requests are "
+            + "rejected with status 503 until a request is finished. Default: " + this.queueSize
+            + ".");
+
+    parser.addArgument("--timeout").dest("timeout")
+        .type(Integer.class)
+        .metavar("<seconds>")
+        .setDefault(this.timeout)
+        .help("The maximum time in seconds to wait for the processing of a PDF file (including "
+            + "the waiting time for processing). Requests exceeding this time are answered with "
+            + "status 504. Default: " + this.timeout + ".");
+
+    parser.addArgument("--max-body-size").dest("max-body-size")
+        .type(Long.class)
+        .metavar("<mb>")
+        .setDefault(this.maxBodySize)
+        .help("The maximum size in megabytes of a PDF file sent with a request. Larger files are "
+            + "rejected with status 413. Default: " + this.maxBodySize + ".");
+
+    parser.addArgument("--page-cache-size").dest("page-cache-size")
+        .type(Long.class)
+        .metavar("<mb>")
+        .setDefault(this.pageCacheSize)
+        .help("The maximum size in megabytes of an in-memory cache of parsed pages, shared by all "
+            + "requests. Default: 0 (no page cache).");
+
+    return parser;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * The main method to run PdfAct as a server.
+   *
+   * @param args The command line arguments (without the name of the command).
+   */
+  public static void main(String[] args) {
+    new PdfActServerCli().start(args);
+  }
+}
@@ -0,0 +1,180 @@
+package pdfact.cli;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.annotation.Arg;
+import net.sourceforge.argparse4j.helper.HelpScreenException;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.config.Configurator;
+import pdfact.cli.server.ExtractionOptions;
+import pdfact.cli.server.PdfActEngine;
+import pdfact.cli.server.PdfActFolderWatcher;
+import pdfact.core.util.cache.PageCache;
+
+/**
+ * The command line interface to run PdfAct as a watcher of a directory that processes new PDF
+ * files continuously ("pdfact watch ..."), see {@link PdfActFolderWatcher}.
+ *
+ * @author Claudius Korzen
+ */
+public class PdfActWatchCli {
+  /**
+   * The name of the command to run PdfAct as a watcher.
+   */
+  public static final String COMMAND = "watch";
+
+  /**
+   * The directory to watch for PDF files.
+   */
+  @Arg(dest = "input-dir")
+  public String inputDir;
+
+  /**
+   * The directory to write the outputs to (null to write the outputs to the input directory).
+   */
+  @Arg(dest = "output-dir")
+  public String outputDir;
+
+  /**
+   * The options of the serialization, as a query string.
+   */
+  @Arg(dest = "options")
+  public String options;
+
+  /**
+   * The number of the PDF files to process in parallel.
+   */
+  @Arg(dest = "threads")
+  public int numThreads = Runtime.getRuntime().availableProcessors();
+
+  /**
+   * The time in milliseconds a PDF file must stay unchanged before it is processed.
+   */
+  @Arg(dest = "settle-time")
+  public long settleTime = 2000;
+
+  /**
+   * The maximum size of the page cache, in megabytes (0 to disable the page cache).
+   */
+  @Arg(dest = "page-cache-size")
+  public long pageCacheSize = 0;
+
+  // ==============================================================================================
+
+  /**
+   * Starts the watcher.
+   *
+   * @param args The command line arguments (without the name of the command).
+   */
+  protected void start(String[] args) {
+    ArgumentParser parser = createParser();
+    try {
+      parser.parseArgs(args, this);
+    } catch (HelpScreenException e) {
+      return;
+    } catch (ArgumentParserException e) {
+      // Print the error message (regardless of the log level).
+      System.err.println(e.getMessage() + "\n\n" + parser.formatUsage());
+      return;
+    }
+
+    PageCache pageCache = null;
+    if (this.pageCacheSize > 0) {
+      pageCache = new PageCache(this.pageCacheSize * 1024 * 1024);
+    }
+
+    try {
+      Path inputPath = Paths.get(this.inputDir);
+      Path outputPath = this.outputDir != null ? Paths.get(this.outputDir) : inputPath;
+      PdfActFolderWatcher watcher = new PdfActFolderWatcher(new PdfActEngine(pageCache),
+          ExtractionOptions.fromQuery(this.options), inputPath, outputPath, this.numThreads,
+          this.settleTime);
+
+      // On shutdown, finish the queued PDF files before exiting.
+      Thread mainThread = Thread.currentThread();
+      Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+        watcher.stop();
+        try {
+          mainThread.join();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }));
+      System.err.println("PdfAct is watching " + inputPath + " (outputs are written to "
+          + outputPath + ").");
+      watcher.run();
+    } catch (IOException | IllegalArgumentException e) {
+      System.err.println("Couldn't watch the directory: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Creates the parser of the command line arguments.
+   *
+   * @return The parser.
+   */
+  protected ArgumentParser createParser() {
+    ArgumentParser parser = ArgumentParsers.newFor("pdfact " + COMMAND)
+        .terminalWidthDetection(false)
+        .defaultFormatWidth(100).build();
+    parser.description("Runs PdfAct as a watcher of a directory. PDF files that are added to the "
+        + "directory (and PDF files without output on startup) are processed as soon as they are "
+        + "completely written. The output of a PDF file <name>.pdf is written to "
+        + "<name>.pdf.<format> in the output directory, atomically.");
+
+    parser.addArgument("input-dir").dest("input-dir")
+        .metavar("<input-dir>")
+        .help("The directory to watch for PDF files.");
+
+    parser.addArgument("--output-dir").dest("output-dir")
+        .metavar("<output-dir>")
+        .help("The directory to write the outputs to. Default: the input directory.");
+
+    parser.addArgument("--options").dest("options")
+        .metavar("<query>")
+        .help("The options of the command line interface to apply to each PDF file, as a query "
+            + "string (for example: \"format=json&units=words,paragraphs\"). Default: the "
+            + "defaults of the command line interface.");
+
+    parser.addArgument("--threads").dest("threads")
+        .type(Integer.class)
+        .metavar("<num>")
+        .setDefault(this.numThreads)
+        .help("The number of PDF files to process in parallel. Default: the number of available "
+            + "processors (" + this.numThreads + ").");
+
+    parser.addArgument("--settle-time").dest("settle-time")
+        .type(Long.class)
+        .metavar("<ms>")
+        .setDefault(this.settleTime)
+        .help("The time in milliseconds a PDF file must stay unchanged (in size and modification "
+            + "time) before it is considered to be completely written. Default: "
+            + this.settleTime + ".");
+
+    parser.addArgument("--page-cache-size").dest("page-cache-size")
+        .type(Long.class)
+        .metavar("<mb>")
+        .setDefault(this.pageCacheSize)
+        .help("The maximum size in megabytes of an in-memory cache of parsed pages, shared by all "
+            + "PDF files. Default: 0 (no page cache).");
+
+    return parser;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * The main method to run PdfAct as a watcher.
+   *
+   * @param args The command line arguments (without the name of the command).
+   */
+  public static void main(String[] args) {
+    // Log the processed PDF files.
+    Configurator.setLevel(PdfActFolderWatcher.class.getName(), Level.INFO);
+    new PdfActWatchCli().start(args);
+  }
+}
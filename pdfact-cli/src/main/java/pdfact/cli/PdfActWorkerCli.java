@@ -0,0 +1,118 @@
+package pdfact.cli;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.annotation.Arg;
+import net.sourceforge.argparse4j.helper.HelpScreenException;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import pdfact.cli.server.PdfActEngine;
+import pdfact.cli.server.PdfActWorker;
+import pdfact.core.util.cache.PageCache;
+
+/**
+ * The command line interface to run PdfAct as a worker that reads requests from stdin and writes
+ * the responses to stdout ("pdfact worker ..."), see {@link PdfActWorker}.
+ *
+ * @author Claudius Korzen
+ */
+public class PdfActWorkerCli {
+  /**
+   * The name of the command to run PdfAct as a worker.
+   */
+  public static final String COMMAND = "worker";
+
+  /**
+   * The number of the requests to process concurrently.
+   */
+  @Arg(dest = "threads")
+  public int numThreads = Runtime.getRuntime().availableProcessors();
+
+  /**
+   * The maximum size of the page cache, in megabytes (0 to disable the page cache).
+   */
+  @Arg(dest = "page-cache-size")
+  public long pageCacheSize = 0;
+
+  // ==============================================================================================
+
+  /**
+   * Starts the worker.
+   *
+   * @param args The command line arguments (without the name of the command).
+   */
+  protected void start(String[] args) {
+    // Reserve stdout for the responses; anything else written to stdout (like log messages) is
+    // redirected to stderr. This must happen before any logger is created.
+    PrintStream stdout = System.out;
+    System.setOut(System.err);
+
+    ArgumentParser parser = createParser();
+    try {
+      parser.parseArgs(args, this);
+    } catch (HelpScreenException e) {
+      return;
+    } catch (ArgumentParserException e) {
+      // Print the error message (regardless of the log level).
+      System.err.println(e.getMessage() + "\n\n" + parser.formatUsage());
+      return;
+    }
+
+    PageCache pageCache = null;
+    if (this.pageCacheSize > 0) {
+      pageCache = new PageCache(this.pageCacheSize * 1024 * 1024);
+    }
+
+    try {
+      new PdfActWorker(new PdfActEngine(pageCache), this.numThreads).run(System.in, stdout);
+    } catch (IOException | IllegalArgumentException e) {
+      System.err.println("Couldn't run the worker: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Creates the parser of the command line arguments.
+   *
+   * @return The parser.
+   */
+  protected ArgumentParser createParser() {
+    ArgumentParser parser = ArgumentParsers.newFor("pdfact " + COMMAND)
+        .terminalWidthDetection(false)
+        .defaultFormatWidth(100).build();
+    parser.description("Runs PdfAct as a worker that reads requests from stdin and writes the "
+        + "responses to stdout, one JSON object per line. A request has the form {\"id\": ..., "
+        + "\"path\": \"<pdf-file>\", \"options\": {\"format\": \"json\", \"units\": [\"words\"]}}, "
+        + "with \"data\" (the content of the PDF file in Base64) instead of \"path\" and an "
+        + "optional \"output\" (the path to a file to write the result to). The response has the "
+        + "form {\"id\": ..., \"status\": \"ok\", \"result\": ...} or {\"id\": ..., \"status\": "
+        + "\"error\", \"code\": ..., \"error\": ...}. The worker exits at the end of stdin.");
+
+    parser.addArgument("--threads").dest("threads")
+        .type(Integer.class)
+        .metavar("<num>")
+        .setDefault(this.numThreads)
+        .help("The number of requests to process concurrently. Default: the number of available "
+            + "processors (" + this.numThreads + ").");
+
+    parser.addArgument("--page-cache-size").dest("page-cache-size")
+        .type(Long.class)
+        .metavar("<mb>")
+        .setDefault(this.pageCacheSize)
+        .help("The maximum size in megabytes of an in-memory cache of parsed pages, shared by all "
+            + "requests. Default: 0 (no page cache).");
+
+    return parser;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * The main method to run PdfAct as a worker.
+   *
+   * @param args The command line arguments (without the name of the command).
+   */
+  public static void main(String[] args) {
+    new PdfActWorkerCli().start(args);
+  }
+}
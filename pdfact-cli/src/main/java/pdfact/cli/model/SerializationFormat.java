@@ -24,7 +24,17 @@ public enum SerializationFormat {
   /**
    * The serialization format "JSON".
    */
-  JSON("json");
+  JSON("json"),
+
+  /**
+   * The serialization format "JSON Lines" (one JSON record per page).
+   */
+  JSONL("jsonl"),
+
+  /**
+   * The binary columnar serialization format of PdfAct (see pdfact-format).
+   */
+  BIN("bin");
 
   // ==============================================================================================
 
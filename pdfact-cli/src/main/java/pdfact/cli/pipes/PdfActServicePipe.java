@@ -6,6 +6,7 @@ import java.util.Set;
 import pdfact.cli.model.ExtractionUnit;
 import pdfact.cli.model.SerializationFormat;
 import pdfact.core.model.SemanticRole;
+import pdfact.core.util.cache.PageCache;
 import pdfact.core.util.pipeline.Pipe;
 
 /**
@@ -152,4 +153,57 @@ public interface PdfActServicePipe extends Pipe {
    * Sets the boolean flag indicating whether or not the pdf.js mode is enabled.
    */
   public void setIsPdfJsMode(boolean isPdfJsMode);
+
+  // ==============================================================================================
+
+  /**
+   * Returns the boolean flag indicating whether or not the JSON serialization is pretty-printed.
+   */
+  public boolean isPrettyPrint();
+
+  /**
+   * Sets the boolean flag indicating whether or not the JSON serialization should be
+   * pretty-printed (indented, with line breaks).
+   */
+  public void setPrettyPrint(boolean prettyPrint);
+
+  // ==============================================================================================
+
+  /**
+   * Returns the boolean flag indicating whether or not the TXT serialization contains a page
+   * boundary ("^L") after the elements of each page.
+   */
+  public boolean isWithPageBoundaries();
+
+  /**
+   * Sets the boolean flag indicating whether or not the TXT serialization should contain a page
+   * boundary ("^L") after the elements of each page.
+   */
+  public void setWithPageBoundaries(boolean withPageBoundaries);
+
+  // ==============================================================================================
+
+  /**
+   * Returns the path to the file to which a checkpoint of the parsed PDF document should be
+   * written (null if no checkpoint should be written).
+   */
+  public Path getCheckpointPath();
+
+  /**
+   * Sets the path to the file to which a checkpoint of the parsed PDF document should be written
+   * (null if no checkpoint should be written).
+   */
+  public void setCheckpointPath(Path checkpointPath);
+
+  // ==============================================================================================
+
+  /**
+   * Returns the cache of already parsed pages (null if pages are not cached).
+   */
+  public PageCache getPageCache();
+
+  /**
+   * Sets the cache of already parsed pages (null if pages should not be cached).
+   */
+  public void setPageCache(PageCache pageCache);
 }
@@ -1,6 +1,8 @@
 package pdfact.cli.pipes;
 
 import static pdfact.cli.PdfActCliSettings.DEFAULT_EXTRACTION_UNITS;
+import static pdfact.cli.PdfActCliSettings.DEFAULT_PRETTY_PRINT;
+import static pdfact.cli.PdfActCliSettings.DEFAULT_WITH_PAGE_BOUNDARIES;
 import static pdfact.cli.PdfActCliSettings.DEFAULT_SEMANTIC_ROLES;
 import static pdfact.cli.PdfActCliSettings.DEFAULT_SERIALIZE_FORMAT;
 import java.io.OutputStream;
@@ -19,6 +21,7 @@ import pdfact.cli.pipes.visualize.VisualizePdfPipe;
 import pdfact.core.model.Document;
 import pdfact.core.model.SemanticRole;
 import pdfact.core.pipes.PlainPdfActCorePipe;
+import pdfact.core.util.cache.PageCache;
 import pdfact.core.util.exception.PdfActException;
 import pdfact.core.util.pipeline.Pipeline;
 import pdfact.core.util.pipeline.PlainPipeline;
@@ -87,6 +90,27 @@ public class PlainPdfActServicePipe implements PdfActServicePipe {
    */
   protected boolean isPdfJsMode;
 
+  /**
+   * The boolean flag indicating whether or not the JSON serialization should be pretty-printed.
+   */
+  protected boolean prettyPrint;
+
+  /**
+   * The boolean flag indicating whether or not the TXT serialization should contain a page
+   * boundary ("^L") after the elements of each page.
+   */
+  protected boolean withPageBoundaries;
+
+  /**
+   * The path to the file to which a checkpoint of the parsed PDF document should be written.
+   */
+  protected Path checkpointPath;
+
+  /**
+   * The cache of already parsed pages.
+   */
+  protected PageCache pageCache;
+
   // ==============================================================================================
 
   /**
@@ -96,6 +120,8 @@ public class PlainPdfActServicePipe implements PdfActServicePipe {
     this.serializationFormat = DEFAULT_SERIALIZE_FORMAT;
     this.extractionUnits = DEFAULT_EXTRACTION_UNITS;
     this.roles = DEFAULT_SEMANTIC_ROLES;
+    this.prettyPrint = DEFAULT_PRETTY_PRINT;
+    this.withPageBoundaries = DEFAULT_WITH_PAGE_BOUNDARIES;
   }
 
   // ==============================================================================================
@@ -118,8 +144,11 @@ public class PlainPdfActServicePipe implements PdfActServicePipe {
 
     Pipeline pipeline = new PlainPipeline();
 
-    // Parse the PDF document.
-    pipeline.addPipe(new PlainPdfActCorePipe());
+    // Parse the PDF document (or load it from a checkpoint).
+    PlainPdfActCorePipe corePipe = new PlainPdfActCorePipe();
+    corePipe.setCheckpointPath(this.checkpointPath);
+    corePipe.setPageCache(this.pageCache);
+    pipeline.addPipe(corePipe);
 
     // Validate the target path for the serialization if there is any given.
     if (this.serializationPath != null) {
@@ -138,6 +167,8 @@ public class PlainPdfActServicePipe implements PdfActServicePipe {
       serializePipe.setTargetStream(this.serializationStream);
       serializePipe.setWithControlCharacters(this.withControlCharacters);
       serializePipe.setIsPdfJsMode(this.isPdfJsMode);
+      serializePipe.setPrettyPrint(this.prettyPrint);
+      serializePipe.setWithPageBoundaries(this.withPageBoundaries);
       pipeline.addPipe(serializePipe);
     }
 
@@ -291,4 +322,73 @@ public class PlainPdfActServicePipe implements PdfActServicePipe {
   public void setIsPdfJsMode(boolean isPdfJsMode) {
     this.isPdfJsMode = isPdfJsMode;
   }
-}
\ No newline at end of file
+
+  // ==============================================================================================
+
+  /**
+   * Returns the boolean flag indicating whether or not the JSON serialization is pretty-printed.
+   */
+  public boolean isPrettyPrint() {
+    return this.prettyPrint;
+  }
+
+  /**
+   * Sets the boolean flag indicating whether or not the JSON serialization should be
+   * pretty-printed (indented, with line breaks).
+   */
+  public void setPrettyPrint(boolean prettyPrint) {
+    this.prettyPrint = prettyPrint;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the boolean flag indicating whether or not the TXT serialization contains a page
+   * boundary ("^L") after the elements of each page.
+   */
+  public boolean isWithPageBoundaries() {
+    return this.withPageBoundaries;
+  }
+
+  /**
+   * Sets the boolean flag indicating whether or not the TXT serialization should contain a page
+   * boundary ("^L") after the elements of each page.
+   */
+  public void setWithPageBoundaries(boolean withPageBoundaries) {
+    this.withPageBoundaries = withPageBoundaries;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the path to the file to which a checkpoint of the parsed PDF document should be
+   * written (null if no checkpoint should be written).
+   */
+  public Path getCheckpointPath() {
+    return this.checkpointPath;
+  }
+
+  /**
+   * Sets the path to the file to which a checkpoint of the parsed PDF document should be written
+   * (null if no checkpoint should be written).
+   */
+  public void setCheckpointPath(Path checkpointPath) {
+    this.checkpointPath = checkpointPath;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the cache of already parsed pages (null if pages are not cached).
+   */
+  public PageCache getPageCache() {
+    return this.pageCache;
+  }
+
+  /**
+   * Sets the cache of already parsed pages (null if pages should not be cached).
+   */
+  public void setPageCache(PageCache pageCache) {
+    this.pageCache = pageCache;
+  }
+}
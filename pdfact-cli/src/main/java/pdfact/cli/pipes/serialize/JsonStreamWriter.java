@@ -0,0 +1,583 @@
+package pdfact.cli.pipes.serialize;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A writer that writes JSON directly to an output stream, without building a document model of
+ * the JSON first. The output is formatted exactly like the output of org.json (version 20160810)
+ * with the same indentation factor: an object (array) with a single member (element) is written
+ * on a single line, the members (elements) of larger objects (arrays) are written on separate
+ * lines, numbers are formatted like {@code JSONObject.numberToString()} and strings are escaped
+ * like {@code JSONObject.quote()}.
+ *
+ * <p>
+ * The number of members of an object (elements of an array) must be known on opening the object
+ * (array), since the formatting depends on it. The members of an object are written in the order
+ * given by the caller; to get the same order as org.json (which stores the members of an object
+ * in a hash map), see {@link #getHashOrder(String...)}.
+ *
+ * @author Claudius Korzen
+ */
+public class JsonStreamWriter {
+  /**
+   * The size of the internal buffer (in characters).
+   */
+  protected static final int BUFFER_SIZE = 8192;
+
+  /**
+   * The whitespaces to write as indentation.
+   */
+  protected static final char[] SPACES = new char[256];
+
+  static {
+    Arrays.fill(SPACES, ' ');
+  }
+
+  /**
+   * The hexadecimal digits, to escape characters.
+   */
+  protected static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+  /**
+   * The largest number of tenths that is formatted without Float.toString() (floats below 10^6 are
+   * formatted by Float.toString() in plain notation with at most one decimal place, if they are
+   * equal to a multiple of 0.1 rounded to a float).
+   */
+  protected static final int MAX_FAST_TENTHS = 10_000_000;
+
+  /**
+   * The writer to which the characters are flushed.
+   */
+  protected final Writer writer;
+
+  /**
+   * The internal buffer.
+   */
+  protected final char[] buffer = new char[BUFFER_SIZE];
+
+  /**
+   * The number of characters in the internal buffer.
+   */
+  protected int bufferLength;
+
+  /**
+   * The number of whitespaces per indentation level (0 to write compact JSON).
+   */
+  protected final int indentFactor;
+
+  /**
+   * The number of members (elements) of the open objects (arrays), from the outermost to the
+   * innermost.
+   */
+  protected int[] sizes = new int[16];
+
+  /**
+   * The number of members (elements) written so far to the open objects (arrays).
+   */
+  protected int[] counts = new int[16];
+
+  /**
+   * The indentation of the open objects (arrays).
+   */
+  protected int[] indents = new int[16];
+
+  /**
+   * The number of open objects and arrays.
+   */
+  protected int depth;
+
+  /**
+   * The indentation of the next value.
+   */
+  protected int indent;
+
+  /**
+   * The bits of the last float formatted by Float.toString() (or Double.toString()).
+   */
+  protected int lastFloatBits = -1;
+
+  /**
+   * Whether the last float was formatted as a double.
+   */
+  protected boolean lastFloatAsDouble;
+
+  /**
+   * The formatted last float.
+   */
+  protected String lastFloatString;
+
+  // ==============================================================================================
+  // Constructors.
+
+  /**
+   * Creates a new writer that writes JSON to the given stream.
+   *
+   * @param stream       The stream to write to.
+   * @param encoding     The encoding of the characters.
+   * @param indentFactor The number of whitespaces per indentation level (0 to write compact JSON).
+   */
+  public JsonStreamWriter(OutputStream stream, Charset encoding, int indentFactor) {
+    this.writer = new OutputStreamWriter(stream, encoding);
+    this.indentFactor = indentFactor;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Opens an object with the given number of members.
+   *
+   * @param numMembers The number of members of the object.
+   *
+   * @throws IOException If writing failed.
+   */
+  public void beginObject(int numMembers) throws IOException {
+    write('{');
+    push(numMembers);
+  }
+
+  /**
+   * Writes the name of the next member of the current object.
+   *
+   * @param name The name.
+   *
+   * @throws IOException If writing failed.
+   */
+  public void name(String name) throws IOException {
+    beginValue();
+    writeQuoted(name);
+    write(':');
+    if (this.indentFactor > 0) {
+      write(' ');
+    }
+  }
+
+  /**
+   * Closes the current object.
+   *
+   * @throws IOException If writing failed.
+   */
+  public void endObject() throws IOException {
+    pop();
+    write('}');
+  }
+
+  /**
+   * Opens an array with the given number of elements.
+   *
+   * @param numElements The number of elements of the array.
+   *
+   * @throws IOException If writing failed.
+   */
+  public void beginArray(int numElements) throws IOException {
+    write('[');
+    push(numElements);
+  }
+
+  /**
+   * Prepares the next element of the current array. Must be called before each element.
+   *
+   * @throws IOException If writing failed.
+   */
+  public void element() throws IOException {
+    beginValue();
+  }
+
+  /**
+   * Closes the current array.
+   *
+   * @throws IOException If writing failed.
+   */
+  public void endArray() throws IOException {
+    pop();
+    write(']');
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Writes the given string value (or null).
+   *
+   * @param value The value to write.
+   *
+   * @throws IOException If writing failed.
+   */
+  public void value(CharSequence value) throws IOException {
+    if (value == null) {
+      write("null");
+    } else {
+      writeQuoted(value);
+    }
+  }
+
+  /**
+   * Writes the given int value.
+   *
+   * @param value The value to write.
+   *
+   * @throws IOException If writing failed.
+   */
+  public void value(int value) throws IOException {
+    writeInt(value);
+  }
+
+  /**
+   * Writes the given boolean value.
+   *
+   * @param value The value to write.
+   *
+   * @throws IOException If writing failed.
+   */
+  public void value(boolean value) throws IOException {
+    write(value ? "true" : "false");
+  }
+
+  /**
+   * Writes the given float value, formatted like org.json formats a {@link Float}: like
+   * Float.toString(), but with trailing zeros (and a trailing decimal point) removed. Floats with
+   * at most one decimal place (like the coordinates in PDF documents) are formatted without
+   * allocating.
+   *
+   * @param value The value to write.
+   *
+   * @throws IOException If writing failed.
+   */
+  public void value(float value) throws IOException {
+    int tenths = Math.round(value * 10);
+    if (tenths / 10f == value && tenths > -MAX_FAST_TENTHS && tenths < MAX_FAST_TENTHS
+        && (value != 0 || Float.floatToRawIntBits(value) == 0)) {
+      if (tenths < 0) {
+        write('-');
+        tenths = -tenths;
+      }
+      writeInt(tenths / 10);
+      if (tenths % 10 != 0) {
+        write('.');
+        write((char) ('0' + tenths % 10));
+      }
+    } else {
+      writeNumber(value, false);
+    }
+  }
+
+  /**
+   * Writes the given float value, formatted like org.json formats a float that was passed as a
+   * double: like Double.toString() of the widened value, with trailing zeros (and a trailing
+   * decimal point) removed.
+   *
+   * @param value The value to write.
+   *
+   * @throws IOException If writing failed.
+   */
+  public void valueAsDouble(float value) throws IOException {
+    writeNumber(value, true);
+  }
+
+  /**
+   * Writes a line break after a complete JSON value (to separate the records of JSON Lines).
+   *
+   * @throws IOException If writing failed.
+   */
+  public void newLine() throws IOException {
+    if (this.depth > 0) {
+      throw new IllegalStateException("There are open objects or arrays.");
+    }
+    write('\n');
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Flushes the written characters to the underlying stream (without closing it).
+   *
+   * @throws IOException If writing failed.
+   */
+  public void flush() throws IOException {
+    flushBuffer();
+    this.writer.flush();
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the given names of the members of an object in the order in which org.json writes
+   * them, when they are added to a JSONObject in the given order (which stores its members in a
+   * hash map of default capacity). The order of any subset of the names is the same as the order
+   * of the names in the returned array, as long as there are at most 12 names (so the hash map is
+   * not resized).
+   *
+   * @param names The names, in the order in which they are added.
+   *
+   * @return The names in the order in which org.json writes them.
+   */
+  public static String[] getHashOrder(String... names) {
+    Map<String, Boolean> map = new HashMap<>();
+    for (String name : names) {
+      map.put(name, Boolean.TRUE);
+    }
+    return map.keySet().toArray(new String[0]);
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Opens an object or array with the given number of members or elements.
+   *
+   * @param size The number of members or elements.
+   */
+  protected void push(int size) {
+    if (this.depth == this.sizes.length) {
+      this.sizes = Arrays.copyOf(this.sizes, 2 * this.depth);
+      this.counts = Arrays.copyOf(this.counts, 2 * this.depth);
+      this.indents = Arrays.copyOf(this.indents, 2 * this.depth);
+    }
+    this.sizes[this.depth] = size;
+    this.counts[this.depth] = 0;
+    this.indents[this.depth] = this.indent;
+    this.depth++;
+  }
+
+  /**
+   * Closes the current object or array.
+   *
+   * @throws IOException If writing failed.
+   */
+  protected void pop() throws IOException {
+    this.depth--;
+    this.indent = this.indents[this.depth];
+    if (this.sizes[this.depth] > 1 && this.indentFactor > 0) {
+      write('\n');
+      writeIndent(this.indent);
+    }
+  }
+
+  /**
+   * Writes the separator and the indentation in front of the next member or element of the
+   * current object or array.
+   *
+   * @throws IOException If writing failed.
+   */
+  protected void beginValue() throws IOException {
+    int d = this.depth - 1;
+    if (this.sizes[d] > 1) {
+      if (this.counts[d] > 0) {
+        write(',');
+      }
+      this.indent = this.indents[d] + this.indentFactor;
+      if (this.indentFactor > 0) {
+        write('\n');
+        writeIndent(this.indent);
+      }
+    }
+    this.counts[d]++;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Writes the given number as org.json's numberToString() would do.
+   *
+   * @param value    The value to write.
+   * @param asDouble Whether the value should be formatted as a double.
+   *
+   * @throws IOException If writing failed.
+   */
+  protected void writeNumber(float value, boolean asDouble) throws IOException {
+    int bits = Float.floatToRawIntBits(value);
+    if (this.lastFloatString == null || bits != this.lastFloatBits
+        || asDouble != this.lastFloatAsDouble) {
+      String str = asDouble ? Double.toString(value) : Float.toString(value);
+      if (str.indexOf('.') > 0 && str.indexOf('e') < 0 && str.indexOf('E') < 0) {
+        int end = str.length();
+        while (str.charAt(end - 1) == '0') {
+          end--;
+        }
+        if (str.charAt(end - 1) == '.') {
+          end--;
+        }
+        str = str.substring(0, end);
+      }
+      if (Float.isNaN(value) || Float.isInfinite(value)) {
+        // Not a valid JSON number, so write it as a string.
+        StringBuilder quoted = new StringBuilder();
+        quoted.append('"').append(str).append('"');
+        str = quoted.toString();
+      }
+      this.lastFloatBits = bits;
+      this.lastFloatAsDouble = asDouble;
+      this.lastFloatString = str;
+    }
+    write(this.lastFloatString);
+  }
+
+  /**
+   * Writes the given int value.
+   *
+   * @param value The value to write.
+   *
+   * @throws IOException If writing failed.
+   */
+  protected void writeInt(int value) throws IOException {
+    if (value == Integer.MIN_VALUE) {
+      write(Integer.toString(value));
+      return;
+    }
+    if (value < 0) {
+      write('-');
+      value = -value;
+    }
+    if (this.bufferLength + 10 > this.buffer.length) {
+      flushBuffer();
+    }
+    int numDigits = 1;
+    for (int v = value; v >= 10; v /= 10) {
+      numDigits++;
+    }
+    int pos = this.bufferLength + numDigits;
+    for (int i = 0; i < numDigits; i++) {
+      this.buffer[--pos] = (char) ('0' + value % 10);
+      value /= 10;
+    }
+    this.bufferLength += numDigits;
+  }
+
+  /**
+   * Writes the given string in quotes, escaped as org.json's quote() would do.
+   *
+   * @param str The string to write.
+   *
+   * @throws IOException If writing failed.
+   */
+  protected void writeQuoted(CharSequence str) throws IOException {
+    write('"');
+    char c = 0;
+    for (int i = 0; i < str.length(); i++) {
+      char b = c;
+      c = str.charAt(i);
+      switch (c) {
+        case '\\':
+        case '"':
+          write('\\');
+          write(c);
+          break;
+        case '/':
+          if (b == '<') {
+            write('\\');
+          }
+          write(c);
+          break;
+        case '\b':
+          write("\\b");
+          break;
+        case '\t':
+          write("\\t");
+          break;
+        case '\n':
+          write("\\n");
+          break;
+        case '\f':
+          write("\\f");
+          break;
+        case '\r':
+          write("\\r");
+          break;
+        default:
+          if (c < ' ' || (c >= 0x80 && c < 0xA0) || (c >= 0x2000 && c < 0x2100)) {
+            write("\\u");
+            write(HEX_DIGITS[(c >> 12) & 0xF]);
+            write(HEX_DIGITS[(c >> 8) & 0xF]);
+            write(HEX_DIGITS[(c >> 4) & 0xF]);
+            write(HEX_DIGITS[c & 0xF]);
+          } else {
+            write(c);
+          }
+      }
+    }
+    write('"');
+  }
+
+  /**
+   * Writes the given number of whitespaces.
+   *
+   * @param num The number of whitespaces.
+   *
+   * @throws IOException If writing failed.
+   */
+  protected void writeIndent(int num) throws IOException {
+    while (num > 0) {
+      int n = Math.min(num, SPACES.length);
+      write(SPACES, n);
+      num -= n;
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Writes the given character to the internal buffer.
+   *
+   * @param c The character to write.
+   *
+   * @throws IOException If writing failed.
+   */
+  protected void write(char c) throws IOException {
+    if (this.bufferLength == this.buffer.length) {
+      flushBuffer();
+    }
+    this.buffer[this.bufferLength++] = c;
+  }
+
+  /**
+   * Writes the given string to the internal buffer.
+   *
+   * @param str The string to write.
+   *
+   * @throws IOException If writing failed.
+   */
+  protected void write(String str) throws IOException {
+    int len = str.length();
+    if (this.bufferLength + len > this.buffer.length) {
+      flushBuffer();
+      if (len > this.buffer.length) {
+        this.writer.write(str);
+        return;
+      }
+    }
+    str.getChars(0, len, this.buffer, this.bufferLength);
+    this.bufferLength += len;
+  }
+
+  /**
+   * Writes the first characters of the given array to the internal buffer.
+   *
+   * @param chars The characters to write.
+   * @param len   The number of characters to write.
+   *
+   * @throws IOException If writing failed.
+   */
+  protected void write(char[] chars, int len) throws IOException {
+    if (this.bufferLength + len > this.buffer.length) {
+      flushBuffer();
+    }
+    System.arraycopy(chars, 0, this.buffer, this.bufferLength, len);
+    this.bufferLength += len;
+  }
+
+  /**
+   * Flushes the internal buffer to the underlying writer.
+   *
+   * @throws IOException If writing failed.
+   */
+  protected void flushBuffer() throws IOException {
+    if (this.bufferLength > 0) {
+      this.writer.write(this.buffer, 0, this.bufferLength);
+      this.bufferLength = 0;
+    }
+  }
+}
@@ -0,0 +1,406 @@
+package pdfact.cli.pipes.serialize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import pdfact.cli.model.ExtractionUnit;
+import pdfact.cli.util.exception.PdfActSerializeException;
+import pdfact.core.model.Color;
+import pdfact.core.model.Document;
+import pdfact.core.model.Element;
+import pdfact.core.model.Font;
+import pdfact.core.model.FontFace;
+import pdfact.core.model.HasColor;
+import pdfact.core.model.HasFontFace;
+import pdfact.core.model.HasPosition;
+import pdfact.core.model.HasPositions;
+import pdfact.core.model.HasSemanticRole;
+import pdfact.core.model.HasText;
+import pdfact.core.model.Page;
+import pdfact.core.model.Paragraph;
+import pdfact.core.model.Position;
+import pdfact.core.model.Rectangle;
+import pdfact.core.model.SemanticRole;
+import pdfact.core.model.TextBlock;
+import pdfact.core.model.Word;
+import pdfact.core.util.exception.PdfActException;
+import pdfact.format.PdfActBinaryFormat;
+import pdfact.format.PdfActBinaryWriter;
+
+/**
+ * A serializer to serialize a document in the binary columnar format of PdfAct (see
+ * {@link PdfActBinaryFormat}), which can be read without PdfAct by the reader of the module
+ * pdfact-format.
+ *
+ * <p>
+ * The serialization contains the same elements as the JSON serialization (the same units, the
+ * same semantic roles), grouped by the page of their first position and, within a page, by unit.
+ * The fonts and colors are stored in tables of the file; the metadata of the pages (number, width
+ * and height) is always contained.
+ *
+ * @author Claudius Korzen
+ */
+public class PdfBinarySerializer implements PdfSerializer {
+  /**
+   * The units that are serialized, in the order in which their sections are written.
+   */
+  protected static final ExtractionUnit[] UNITS = { ExtractionUnit.CHARACTER, ExtractionUnit.WORD,
+      ExtractionUnit.PARAGRAPH, ExtractionUnit.TEXT_BLOCK, ExtractionUnit.FIGURE,
+      ExtractionUnit.SHAPE };
+
+  /**
+   * The units to serialize.
+   */
+  protected Set<ExtractionUnit> extractionUnits;
+
+  /**
+   * The semantic roles to consider on serializing.
+   */
+  protected Set<SemanticRole> semanticRolesToInclude;
+
+  // ==============================================================================================
+  // Constructors.
+
+  /**
+   * Creates a new serializer that serializes a PDF document in the binary format.
+   */
+  public PdfBinarySerializer() {
+  }
+
+  /**
+   * Creates a new serializer that serializes a PDF document in the binary format.
+   *
+   * @param extractionUnits The units to serialize.
+   * @param roles           The semantic roles to include.
+   */
+  public PdfBinarySerializer(Set<ExtractionUnit> extractionUnits, Set<SemanticRole> roles) {
+    this();
+    this.extractionUnits = extractionUnits;
+    this.semanticRolesToInclude = roles;
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public byte[] serialize(Document pdf) throws PdfActException {
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    serialize(pdf, stream);
+    return stream.toByteArray();
+  }
+
+  @Override
+  public void serialize(Document pdf, OutputStream stream) throws PdfActException {
+    if (pdf == null) {
+      return;
+    }
+
+    try {
+      PdfActBinaryWriter writer = new PdfActBinaryWriter();
+      serialize(pdf, writer);
+      writer.writeTo(stream);
+      stream.flush();
+    } catch (IOException e) {
+      throw new PdfActSerializeException("Couldn't write the binary serialization.", e);
+    }
+  }
+
+  /**
+   * Serializes the given PDF document to the given writer.
+   *
+   * @param pdf    The PDF document to serialize.
+   * @param writer The writer of the binary format.
+   */
+  protected void serialize(Document pdf, PdfActBinaryWriter writer) {
+    List<Page> pages = new ArrayList<>();
+    Map<Integer, Integer> pageIndexes = new HashMap<>();
+    if (pdf.getPages() != null) {
+      for (Page page : pdf.getPages()) {
+        if (page != null) {
+          pageIndexes.put(page.getPageNumber(), pages.size());
+          pages.add(page);
+        }
+      }
+    }
+    if (pages.isEmpty()) {
+      return;
+    }
+
+    // Distribute the elements to serialize to the pages, per unit.
+    List<List<List<Element>>> elementsPerPage = new ArrayList<>();
+    for (int i = 0; i < pages.size(); i++) {
+      List<List<Element>> elementsPerUnit = new ArrayList<>();
+      for (int j = 0; j < UNITS.length; j++) {
+        elementsPerUnit.add(new ArrayList<>());
+      }
+      elementsPerPage.add(elementsPerUnit);
+    }
+    for (int j = 0; j < UNITS.length; j++) {
+      if (this.extractionUnits == null || !this.extractionUnits.contains(UNITS[j])) {
+        continue;
+      }
+      for (Element element : collectPdfElements(pdf, UNITS[j])) {
+        // Elements without a (known) page are assigned to the first page.
+        Integer pageIndex = pageIndexes.get(getPageNumber(element));
+        elementsPerPage.get(pageIndex != null ? pageIndex : 0).get(j).add(element);
+      }
+    }
+
+    for (int i = 0; i < pages.size(); i++) {
+      Page page = pages.get(i);
+      writer.beginPage(page.getPageNumber(), page.getWidth(), page.getHeight());
+      for (int j = 0; j < UNITS.length; j++) {
+        List<Element> elements = elementsPerPage.get(i).get(j);
+        if (!elements.isEmpty()) {
+          writer.beginSection(getUnitCode(UNITS[j]));
+          for (Element element : elements) {
+            serializePdfElement(element, writer);
+          }
+          writer.endSection();
+        }
+      }
+      writer.endPage();
+    }
+  }
+
+  /**
+   * Serializes the given PDF element (and its positions) to the current section of the given
+   * writer.
+   *
+   * @param element The element to serialize.
+   * @param writer  The writer of the binary format.
+   */
+  protected void serializePdfElement(Element element, PdfActBinaryWriter writer) {
+    String text = null;
+    if (element instanceof HasText) {
+      CharSequence textView = ((HasText) element).getTextView();
+      text = textView != null ? textView.toString() : null;
+    }
+
+    int roleCode = 0;
+    if (element instanceof HasSemanticRole) {
+      SemanticRole role = ((HasSemanticRole) element).getSemanticRole();
+      if (role != null) {
+        roleCode = writer.addRole(role.getName());
+      }
+    }
+
+    int fontIndex = -1;
+    float fontSize = 0;
+    if (element instanceof HasFontFace) {
+      FontFace fontFace = ((HasFontFace) element).getFontFace();
+      if (fontFace != null) {
+        Font font = fontFace.getFont();
+        if (font != null && font.getId() != null && fontFace.getFontSize() > 0) {
+          fontIndex = writer.addFont(font.getId(), font.getNormalizedName(), font.isBold(),
+              font.isItalic(), font.isType3Font());
+          fontSize = fontFace.getFontSize();
+        }
+      }
+    }
+
+    int colorIndex = -1;
+    if (element instanceof HasColor) {
+      Color color = ((HasColor) element).getColor();
+      if (color != null && color.getId() != null) {
+        int[] rgb = color.getRGB();
+        if (rgb != null && rgb.length == 3) {
+          colorIndex = writer.addColor(color.getId(), rgb[0], rgb[1], rgb[2]);
+        }
+      }
+    }
+
+    writer.addElement(text, roleCode, fontIndex, fontSize, colorIndex);
+
+    for (Position position : getPositions(element)) {
+      if (isSerializable(position)) {
+        Rectangle rect = position.getRectangle();
+        writer.addPosition(position.getPage().getPageNumber(), rect.getMinX(), rect.getMinY(),
+            rect.getMaxX(), rect.getMaxY());
+      }
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Collects the PDF elements of the given unit to serialize.
+   *
+   * @param pdf  The PDF document to process.
+   * @param unit The unit of the elements to collect.
+   *
+   * @return The elements to serialize.
+   */
+  protected List<Element> collectPdfElements(Document pdf, ExtractionUnit unit) {
+    List<Element> result = new ArrayList<>();
+
+    switch (unit) {
+      case CHARACTER:
+      case WORD:
+      case PARAGRAPH:
+        for (Paragraph paragraph : pdf.getParagraphs()) {
+          // Ignore the paragraph if its role should not be extracted.
+          if (!hasRelevantRole(paragraph)) {
+            continue;
+          }
+          if (unit == ExtractionUnit.PARAGRAPH) {
+            result.add(paragraph);
+            continue;
+          }
+          for (Word word : paragraph.getWords()) {
+            if (unit == ExtractionUnit.WORD) {
+              result.add(word);
+              continue;
+            }
+            result.addAll(word.getCharacters());
+          }
+        }
+        break;
+      case TEXT_BLOCK:
+        for (Page page : pdf.getPages()) {
+          for (TextBlock block : page.getTextBlocks()) {
+            // Ignore the block if its role should not be extracted.
+            if (hasRelevantRole(block)) {
+              result.add(block);
+            }
+          }
+        }
+        break;
+      case FIGURE:
+        for (Page page : pdf.getPages()) {
+          result.addAll(page.getFigures());
+        }
+        break;
+      case SHAPE:
+        for (Page page : pdf.getPages()) {
+          result.addAll(page.getShapes());
+        }
+        break;
+      default:
+        break;
+    }
+
+    return result;
+  }
+
+  /**
+   * Returns the code of the given unit in the binary format.
+   *
+   * @param unit The unit.
+   *
+   * @return The code of the unit or 0 if the unit has no sections in the binary format.
+   */
+  protected int getUnitCode(ExtractionUnit unit) {
+    switch (unit) {
+      case CHARACTER:
+        return PdfActBinaryFormat.UNIT_CHARACTER;
+      case WORD:
+        return PdfActBinaryFormat.UNIT_WORD;
+      case PARAGRAPH:
+        return PdfActBinaryFormat.UNIT_PARAGRAPH;
+      case TEXT_BLOCK:
+        return PdfActBinaryFormat.UNIT_TEXT_BLOCK;
+      case FIGURE:
+        return PdfActBinaryFormat.UNIT_FIGURE;
+      case SHAPE:
+        return PdfActBinaryFormat.UNIT_SHAPE;
+      default:
+        return 0;
+    }
+  }
+
+  /**
+   * Returns the positions of the given element.
+   *
+   * @param element The element to process.
+   *
+   * @return The positions of the given element (an empty list if it has no positions).
+   */
+  protected List<Position> getPositions(Element element) {
+    // The single position of an element overrides its list of positions.
+    if (element instanceof HasPosition) {
+      return Collections.singletonList(((HasPosition) element).getPosition());
+    }
+    if (element instanceof HasPositions) {
+      List<Position> positions = ((HasPositions) element).getPositions();
+      if (positions != null) {
+        return positions;
+      }
+    }
+    return Collections.emptyList();
+  }
+
+  /**
+   * Returns the number of the page of the first serialized position of the given element.
+   *
+   * @param element The element to process.
+   *
+   * @return The page number or -1 if the element has no serialized position.
+   */
+  protected int getPageNumber(Element element) {
+    for (Position position : getPositions(element)) {
+      if (isSerializable(position)) {
+        return position.getPage().getPageNumber();
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Checks if the given position is serialized, that is: if it has a page number and a
+   * rectangle.
+   *
+   * @param position The position to check.
+   *
+   * @return True, if the given position is serialized; false otherwise.
+   */
+  protected boolean isSerializable(Position position) {
+    return position != null && position.getPage().getPageNumber() > 0
+        && position.getRectangle() != null;
+  }
+
+  /**
+   * Checks if the given element has a semantic role that should be serialized.
+   *
+   * @param element The element to check.
+   *
+   * @return True, if the given element has a semantic role that should be serialized.
+   */
+  protected boolean hasRelevantRole(HasSemanticRole element) {
+    if (element == null || element.getSemanticRole() == null) {
+      return false;
+    }
+    return this.semanticRolesToInclude != null
+        && this.semanticRolesToInclude.contains(element.getSemanticRole());
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public Set<ExtractionUnit> getExtractionUnits() {
+    return this.extractionUnits;
+  }
+
+  @Override
+  public void setExtractionUnits(Set<ExtractionUnit> extractionUnits) {
+    this.extractionUnits = extractionUnits;
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public Set<SemanticRole> getSemanticRolesToInclude() {
+    return this.semanticRolesToInclude;
+  }
+
+  @Override
+  public void setSemanticRolesToInclude(Set<SemanticRole> roles) {
+    this.semanticRolesToInclude = roles;
+  }
+}
@@ -0,0 +1,275 @@
+package pdfact.cli.pipes.serialize;
+
+import static pdfact.cli.pipes.serialize.PdfSerializerConstants.COLORS;
+import static pdfact.cli.pipes.serialize.PdfSerializerConstants.DOCUMENT;
+import static pdfact.cli.pipes.serialize.PdfSerializerConstants.FONTS;
+import static pdfact.cli.pipes.serialize.PdfSerializerConstants.PAGE;
+import static pdfact.cli.pipes.serialize.PdfSerializerConstants.PAGES;
+import static pdfact.cli.pipes.serialize.PdfSerializerConstants.ROLES;
+import static pdfact.cli.pipes.serialize.PdfSerializerConstants.TYPE;
+import static pdfact.core.PdfActCoreSettings.DEFAULT_ENCODING;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import pdfact.cli.model.ExtractionUnit;
+import pdfact.cli.util.exception.PdfActSerializeException;
+import pdfact.core.model.Color;
+import pdfact.core.model.Document;
+import pdfact.core.model.Element;
+import pdfact.core.model.Font;
+import pdfact.core.model.Page;
+import pdfact.core.model.Position;
+import pdfact.core.model.SemanticRole;
+import pdfact.core.util.exception.PdfActException;
+
+/**
+ * A serializer to serialize a document in JSON Lines format: one compact JSON record per line.
+ *
+ * <p>
+ * There is one record per page, which is written (and flushed) as soon as it is complete, so that
+ * a consumer can process the first pages while the later pages are still serialized. A page
+ * record has the type "page" and contains the page number, one section per extraction unit (with
+ * the elements whose first position is on the page, serialized like in the JSON format) and the
+ * ids of the fonts and colors that are referenced for the first time on the page (so the union
+ * of the ids of all records read so far are the ids seen so far). The last record has the type
+ * "document" and contains the font and color tables, the names of the semantic roles of the
+ * serialized elements and (if pages are extracted) the metadata of the pages.
+ *
+ * @author Claudius Korzen
+ */
+public class PdfJsonLinesSerializer extends PdfJsonSerializer {
+  /**
+   * The number of the page to which elements without a position are assigned.
+   */
+  protected static final int NO_PAGE = -1;
+
+  /**
+   * The names of the semantic roles of the serialized elements.
+   */
+  protected Set<String> usedRoles;
+
+  // ==============================================================================================
+  // Constructors.
+
+  /**
+   * Creates a new serializer that serializes a PDF document in JSON Lines format.
+   */
+  public PdfJsonLinesSerializer() {
+    super();
+    this.usedRoles = new LinkedHashSet<>();
+  }
+
+  /**
+   * Creates a new serializer that serializes a PDF document in JSON Lines format.
+   *
+   * @param extractionUnits The units to serialize.
+   * @param roles           The semantic roles to include.
+   */
+  public PdfJsonLinesSerializer(Set<ExtractionUnit> extractionUnits, Set<SemanticRole> roles) {
+    super(extractionUnits, roles);
+    this.usedRoles = new LinkedHashSet<>();
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public void serialize(Document pdf, OutputStream stream) throws PdfActException {
+    if (pdf == null) {
+      return;
+    }
+
+    try {
+      // The records must not contain line breaks, so they are never pretty-printed.
+      JsonStreamWriter json = new JsonStreamWriter(stream, DEFAULT_ENCODING, 0);
+      serialize(pdf, json);
+      json.flush();
+    } catch (IOException e) {
+      throw new PdfActSerializeException("Couldn't write the JSON Lines serialization.", e);
+    }
+  }
+
+  @Override
+  protected void serialize(Document pdf, JsonStreamWriter json) throws IOException {
+    this.usedFonts.clear();
+    this.usedColors.clear();
+    this.usedRoles.clear();
+
+    List<Page> pages = new ArrayList<>();
+    if (pdf.getPages() != null) {
+      for (Page page : pdf.getPages()) {
+        if (page != null) {
+          pages.add(page);
+        }
+      }
+    }
+
+    // Collect the elements to serialize per unit and distribute them to the pages.
+    List<String> names = new ArrayList<>();
+    List<Map<Integer, List<Element>>> sections = new ArrayList<>();
+    for (ExtractionUnit unit : this.extractionUnits) {
+      String name = getSectionName(unit);
+      if (name != null) {
+        Map<Integer, List<Element>> elementsPerPage = new HashMap<>();
+        for (Element element : collectPdfElements(pdf, unit)) {
+          elementsPerPage.computeIfAbsent(getPageNumber(element), k -> new ArrayList<>())
+              .add(element);
+        }
+        names.add(name);
+        sections.add(elementsPerPage);
+      }
+    }
+
+    // Elements without a position are written with the first page.
+    for (int i = 0; i < pages.size(); i++) {
+      int pageNumber = pages.get(i).getPageNumber();
+      List<List<Element>> pageSections = new ArrayList<>();
+      for (Map<Integer, List<Element>> elementsPerPage : sections) {
+        List<Element> elements = new ArrayList<>();
+        if (i == 0) {
+          elements.addAll(elementsPerPage.getOrDefault(NO_PAGE, Collections.emptyList()));
+        }
+        elements.addAll(elementsPerPage.getOrDefault(pageNumber, Collections.emptyList()));
+        pageSections.add(elements);
+      }
+      serializePageRecord(pageNumber, names, pageSections, json);
+      json.newLine();
+      json.flush();
+    }
+
+    serializeDocumentRecord(pdf, pages, json);
+    json.newLine();
+  }
+
+  /**
+   * Serializes the record of a page.
+   *
+   * @param pageNumber The number of the page.
+   * @param names      The names of the sections.
+   * @param sections   The elements of the sections in the page.
+   * @param json       The JSON writer.
+   *
+   * @throws IOException If writing failed.
+   */
+  protected void serializePageRecord(int pageNumber, List<String> names,
+      List<List<Element>> sections, JsonStreamWriter json) throws IOException {
+    // Collect the fonts and colors that are referenced for the first time.
+    List<String> newFonts = new ArrayList<>();
+    List<String> newColors = new ArrayList<>();
+    for (List<Element> elements : sections) {
+      for (Element element : elements) {
+        Font font = getSerializableFont(element);
+        if (font != null && this.usedFonts.add(font)) {
+          newFonts.add(font.getId());
+        }
+        Color color = getSerializableColor(element);
+        if (color != null && this.usedColors.add(color)) {
+          newColors.add(color.getId());
+        }
+        SemanticRole role = getSemanticRole(element);
+        if (role != null) {
+          this.usedRoles.add(role.getName());
+        }
+      }
+    }
+
+    int numMembers = 2 + names.size() + (newFonts.isEmpty() ? 0 : 1)
+        + (newColors.isEmpty() ? 0 : 1);
+    json.beginObject(numMembers);
+    json.name(TYPE);
+    json.value(PAGE);
+    json.name(PAGE);
+    json.value(pageNumber);
+    for (int i = 0; i < names.size(); i++) {
+      json.name(names.get(i));
+      serializePdfElements(names.get(i), sections.get(i), json);
+    }
+    if (!newFonts.isEmpty()) {
+      json.name(FONTS);
+      serializeIds(newFonts, json);
+    }
+    if (!newColors.isEmpty()) {
+      json.name(COLORS);
+      serializeIds(newColors, json);
+    }
+    json.endObject();
+  }
+
+  /**
+   * Serializes the final record with the data of the whole document.
+   *
+   * @param pdf   The PDF document.
+   * @param pages The pages of the document.
+   * @param json  The JSON writer.
+   *
+   * @throws IOException If writing failed.
+   */
+  protected void serializeDocumentRecord(Document pdf, List<Page> pages, JsonStreamWriter json)
+      throws IOException {
+    int numColors = 0;
+    for (Color color : this.usedColors) {
+      numColors += isSerializable(color) ? 1 : 0;
+    }
+    boolean withPages = this.extractionUnits.contains(ExtractionUnit.PAGE) && !pages.isEmpty();
+
+    json.beginObject(4 + (withPages ? 1 : 0));
+    json.name(TYPE);
+    json.value(DOCUMENT);
+    json.name(FONTS);
+    serializeFonts(this.usedFonts, this.usedFonts.size(), json);
+    json.name(COLORS);
+    serializeColors(this.usedColors, numColors, json);
+    json.name(ROLES);
+    serializeIds(new ArrayList<>(this.usedRoles), json);
+    if (withPages) {
+      json.name(PAGES);
+      serializePages(pages, json);
+    }
+    json.endObject();
+  }
+
+  /**
+   * Serializes the given ids (or names) as an array of strings.
+   *
+   * @param ids  The ids to serialize.
+   * @param json The JSON writer.
+   *
+   * @throws IOException If writing failed.
+   */
+  protected void serializeIds(List<String> ids, JsonStreamWriter json) throws IOException {
+    json.beginArray(ids.size());
+    for (String id : ids) {
+      json.element();
+      json.value(id);
+    }
+    json.endArray();
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the number of the page of the first serialized position of the given element.
+   *
+   * @param element The element to process.
+   *
+   * @return The page number or {@link #NO_PAGE} if the element has no serialized position.
+   */
+  protected int getPageNumber(Element element) {
+    List<Position> positions = getPositions(element);
+    if (positions != null) {
+      for (Position position : positions) {
+        if (isSerializable(position)) {
+          return position.getPage().getPageNumber();
+        }
+      }
+    }
+    return NO_PAGE;
+  }
+}
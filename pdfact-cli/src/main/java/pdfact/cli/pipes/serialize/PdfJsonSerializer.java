@@ -33,26 +33,25 @@ import static pdfact.cli.pipes.serialize.PdfSerializerConstants.SHAPES;
 import static pdfact.cli.pipes.serialize.PdfSerializerConstants.TEXT;
 import static pdfact.cli.pipes.serialize.PdfSerializerConstants.TEXT_BLOCK;
 import static pdfact.cli.pipes.serialize.PdfSerializerConstants.TEXT_BLOCKS;
-import static pdfact.cli.pipes.serialize.PdfSerializerConstants.TEXT_LINE;
 import static pdfact.cli.pipes.serialize.PdfSerializerConstants.WIDTH;
 import static pdfact.cli.pipes.serialize.PdfSerializerConstants.WORD;
 import static pdfact.cli.pipes.serialize.PdfSerializerConstants.WORDS;
 import static pdfact.core.PdfActCoreSettings.DEFAULT_ENCODING;
 
-import java.util.Arrays;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
-import org.json.JSONArray;
-import org.json.JSONObject;
-
 import pdfact.cli.model.ExtractionUnit;
-import pdfact.core.model.Character;
+import pdfact.cli.util.exception.PdfActSerializeException;
 import pdfact.core.model.Color;
 import pdfact.core.model.Document;
 import pdfact.core.model.Element;
-import pdfact.core.model.Figure;
 import pdfact.core.model.Font;
 import pdfact.core.model.FontFace;
 import pdfact.core.model.HasColor;
@@ -66,14 +65,20 @@ import pdfact.core.model.Paragraph;
 import pdfact.core.model.Position;
 import pdfact.core.model.Rectangle;
 import pdfact.core.model.SemanticRole;
-import pdfact.core.model.Shape;
 import pdfact.core.model.TextBlock;
-import pdfact.core.model.TextLine;
 import pdfact.core.model.Word;
+import pdfact.core.util.exception.PdfActException;
 
 /**
  * A serializer to serialize a document in JSON format.
  *
+ * <p>
+ * The serialization is written directly to the target stream by a {@link JsonStreamWriter}, while
+ * walking the document (instead of building a JSON object of the whole document first). The output
+ * is the same as the output of org.json (the members of each object are written in the order in
+ * which org.json writes them). Since the fonts and colors section may precede the sections of the
+ * elements, the elements to serialize and their fonts and colors are collected in a pre-pass.
+ *
  * @author Claudius Korzen
  */
 public class PdfJsonSerializer implements PdfSerializer {
@@ -82,6 +87,39 @@ public class PdfJsonSerializer implements PdfSerializer {
    */
   protected static final int INDENT_LENGTH = 2;
 
+  /**
+   * The names of the members of a serialized element, in the order in which they are written.
+   */
+  protected static final String[] ELEMENT_MEMBERS =
+      JsonStreamWriter.getHashOrder(POSITIONS, ROLE, FONT, COLOR, TEXT);
+
+  /**
+   * The names of the members of a serialized position, in the order in which they are written.
+   */
+  protected static final String[] POSITION_MEMBERS =
+      JsonStreamWriter.getHashOrder(PAGE, MIN_X, MIN_Y, MAX_X, MAX_Y);
+
+  /**
+   * The names of the members of a serialized font face, in the order in which they are written.
+   */
+  protected static final String[] FONT_FACE_MEMBERS = JsonStreamWriter.getHashOrder(ID, FONTSIZE);
+
+  /**
+   * The names of the members of a serialized font, in the order in which they are written.
+   */
+  protected static final String[] FONT_MEMBERS =
+      JsonStreamWriter.getHashOrder(ID, NAME, IS_BOLD, IS_ITALIC, IS_TYPE3);
+
+  /**
+   * The names of the members of a serialized color, in the order in which they are written.
+   */
+  protected static final String[] COLOR_MEMBERS = JsonStreamWriter.getHashOrder(ID, R, G, B);
+
+  /**
+   * The names of the members of a serialized page, in the order in which they are written.
+   */
+  protected static final String[] PAGE_MEMBERS = JsonStreamWriter.getHashOrder(ID, WIDTH, HEIGHT);
+
   // ==============================================================================================
 
   /**
@@ -104,6 +142,12 @@ public class PdfJsonSerializer implements PdfSerializer {
    */
   protected Set<Color> usedColors;
 
+  /**
+   * The boolean flag indicating whether or not the JSON should be pretty-printed (indented, with
+   * line breaks).
+   */
+  protected boolean prettyPrint = true;
+
   // ==============================================================================================
   // Constructors.
 
@@ -130,566 +174,619 @@ public class PdfJsonSerializer implements PdfSerializer {
   // ==============================================================================================
 
   @Override
-  public byte[] serialize(Document pdf) {
-    // The serialization to return.
-    String result = "";
+  public byte[] serialize(Document pdf) throws PdfActException {
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    serialize(pdf, stream);
+    return stream.toByteArray();
+  }
 
-    if (pdf != null) {
-      // The JSON object to fill.
-      JSONObject json = new JSONObject();
+  @Override
+  public void serialize(Document pdf, OutputStream stream) throws PdfActException {
+    if (pdf == null) {
+      return;
+    }
 
-      // Create the section that contains all serialized PDF elements.
-      serializePdfElements(pdf, json);
+    try {
+      JsonStreamWriter json = new JsonStreamWriter(stream, DEFAULT_ENCODING,
+          this.prettyPrint ? INDENT_LENGTH : 0);
+      serialize(pdf, json);
+      json.flush();
+    } catch (IOException e) {
+      throw new PdfActSerializeException("Couldn't write the JSON serialization.", e);
+    }
+  }
 
-      // Create the section that contains the used fonts.
-      JSONArray fontsJson = serializeFonts(this.usedFonts);
-      if (fontsJson != null && fontsJson.length() > 0) {
-        json.put(FONTS, fontsJson);
+  /**
+   * Serializes the given PDF document to the given JSON writer.
+   *
+   * @param pdf  The PDF document to serialize.
+   * @param json The JSON writer.
+   *
+   * @throws IOException If writing failed.
+   */
+  protected void serialize(Document pdf, JsonStreamWriter json) throws IOException {
+    // Collect the elements to serialize per unit (and the fonts and colors used by them).
+    List<String> names = new ArrayList<>();
+    List<List<? extends Element>> sections = new ArrayList<>();
+    for (ExtractionUnit unit : this.extractionUnits) {
+      String name = getSectionName(unit);
+      if (name != null) {
+        List<? extends Element> elements = collectPdfElements(pdf, unit);
+        for (Element element : elements) {
+          collectFontAndColor(element);
+        }
+        names.add(name);
+        sections.add(elements);
       }
+    }
 
-      // Create the section that contains the used colors.
-      JSONArray colorsJson = serializeColors(this.usedColors);
-      if (colorsJson != null && colorsJson.length() > 0) {
-        json.put(COLORS, colorsJson);
-      }
+    // The section that contains the used fonts.
+    int numFonts = 0;
+    for (Font font : this.usedFonts) {
+      numFonts += font != null ? 1 : 0;
+    }
+    if (numFonts > 0) {
+      names.add(FONTS);
+    }
+
+    // The section that contains the used colors.
+    int numColors = 0;
+    for (Color color : this.usedColors) {
+      numColors += isSerializable(color) ? 1 : 0;
+    }
+    if (numColors > 0) {
+      names.add(COLORS);
+    }
 
-      // Create the section that contains the metadata about the used pages.
-      if (this.extractionUnits.contains(ExtractionUnit.PAGE)) {
-        JSONArray pagesJson = serializePages(pdf.getPages());
-        if (pagesJson != null && pagesJson.length() > 0) {
-          json.put(PAGES, pagesJson);
+    // The section that contains the metadata about the used pages.
+    List<Page> pages = Collections.emptyList();
+    if (this.extractionUnits.contains(ExtractionUnit.PAGE) && pdf.getPages() != null) {
+      pages = new ArrayList<>();
+      for (Page page : pdf.getPages()) {
+        if (page != null) {
+          pages.add(page);
         }
       }
-
-      // Serialize the JSON object.
-      result = json.toString(INDENT_LENGTH);
+      if (!pages.isEmpty()) {
+        names.add(PAGES);
+      }
     }
-    return result.getBytes(DEFAULT_ENCODING);
-  }
-
-  // ==============================================================================================
 
-  /**
-   * Serializes the elements of the given PDF document.
-   *
-   * @param pdf  The PDF document to process.
-   * @param json The JSON object to which the serialization should be appended.
-   */
-  public void serializePdfElements(Document pdf, JSONObject json) {
-    for (ExtractionUnit unit : this.extractionUnits) {
-      switch (unit) {
-        case CHARACTER:
-          serializeCharacters(pdf, json);
-          break;
-        case WORD:
-          serializeWords(pdf, json);
+    String[] order = JsonStreamWriter.getHashOrder(names.toArray(new String[0]));
+    json.beginObject(order.length);
+    for (String name : order) {
+      json.name(name);
+      switch (name) {
+        case FONTS:
+          serializeFonts(this.usedFonts, numFonts, json);
           break;
-        case TEXT_BLOCK:
-          serializeTextBlocks(pdf, json);
+        case COLORS:
+          serializeColors(this.usedColors, numColors, json);
           break;
-        case PARAGRAPH:
-          serializeParagraphs(pdf, json);
-          break;
-        case FIGURE:
-          serializeFigures(pdf, json);
-          break;
-        case SHAPE:
-          serializeShapes(pdf, json);
+        case PAGES:
+          serializePages(pages, json);
           break;
         default:
+          serializePdfElements(name, sections.get(names.indexOf(name)), json);
           break;
       }
     }
+    json.endObject();
   }
 
   // ==============================================================================================
 
   /**
-   * Serializes the paragraphs of the given PDF document.
-   *
-   * @param pdf  The PDF document to process.
-   * @param json The JSON object to which the serialization should be appended.
-   */
-  protected void serializeParagraphs(Document pdf, JSONObject json) {
-    JSONArray result = new JSONArray();
-
-    if (pdf != null) {
-      for (Paragraph paragraph : pdf.getParagraphs()) {
-        // Ignore the paragraph if its role should not be extracted.
-        if (!hasRelevantRole(paragraph)) {
-          continue;
-        }
-
-        JSONObject paragraphJson = serializeParagraph(paragraph);
-        if (paragraphJson != null) {
-          result.put(paragraphJson);
-        }
-      }
+   * Returns the name of the section that contains the elements of the given unit.
+   *
+   * @param unit The unit.
+   *
+   * @return The name of the section or null if the unit is not serialized as a section of
+   *         elements.
+   */
+  protected String getSectionName(ExtractionUnit unit) {
+    switch (unit) {
+      case CHARACTER:
+        return CHARACTERS;
+      case WORD:
+        return WORDS;
+      case TEXT_BLOCK:
+        return TEXT_BLOCKS;
+      case PARAGRAPH:
+        return PARAGRAPHS;
+      case FIGURE:
+        return FIGURES;
+      case SHAPE:
+        return SHAPES;
+      default:
+        return null;
     }
-
-    json.put(PARAGRAPHS, result);
   }
 
   /**
-   * Serializes the given paragraph.
+   * Returns the name of the object that wraps a serialized element in the section with the given
+   * name.
    *
-   * @param paragraph The paragraph to serialize.
+   * @param sectionName The name of the section.
    *
-   * @return A JSON object that represents the serialization.
+   * @return The name of the wrapping object or null if there is no such section.
    */
-  protected JSONObject serializeParagraph(Paragraph paragraph) {
-    JSONObject result = new JSONObject();
-    JSONObject paragraphJson = serializePdfElement(paragraph);
-    // Wrap the JSON object with a JSON object that describes a paragraph.
-    if (paragraphJson != null && paragraphJson.length() > 0) {
-      result.put(PARAGRAPH, paragraphJson);
+  protected String getElementName(String sectionName) {
+    switch (sectionName) {
+      case CHARACTERS:
+        return CHARACTER;
+      case WORDS:
+        return WORD;
+      case TEXT_BLOCKS:
+        return TEXT_BLOCK;
+      case PARAGRAPHS:
+        return PARAGRAPH;
+      case FIGURES:
+        return FIGURE;
+      case SHAPES:
+        return SHAPE;
+      default:
+        return null;
     }
-    return result;
   }
 
-  // ==============================================================================================
-
   /**
-   * Serializes the text blocks of the given PDF document.
+   * Collects the elements of the given unit to serialize.
    *
    * @param pdf  The PDF document to process.
-   * @param json The JSON object to which the serialization should be appended.
+   * @param unit The unit.
+   *
+   * @return The elements to serialize.
    */
-  protected void serializeTextBlocks(Document pdf, JSONObject json) {
-    JSONArray result = new JSONArray();
+  protected List<? extends Element> collectPdfElements(Document pdf, ExtractionUnit unit) {
+    List<Element> result = new ArrayList<>();
 
-    if (pdf != null) {
-      for (Page page : pdf.getPages()) {
-        for (TextBlock block : page.getTextBlocks()) {
+    switch (unit) {
+      case CHARACTER:
+      case WORD:
+      case PARAGRAPH:
+        for (Paragraph paragraph : pdf.getParagraphs()) {
           // Ignore the paragraph if its role should not be extracted.
-          if (!hasRelevantRole(block)) {
+          if (!hasRelevantRole(paragraph)) {
             continue;
           }
-          JSONObject blockJson = serializeTextBlock(block);
-          if (blockJson != null) {
-            result.put(blockJson);
+          if (unit == ExtractionUnit.PARAGRAPH) {
+            result.add(paragraph);
+            continue;
+          }
+          for (Word word : paragraph.getWords()) {
+            if (unit == ExtractionUnit.WORD) {
+              result.add(word);
+              continue;
+            }
+            result.addAll(word.getCharacters());
           }
         }
-      }
+        break;
+      case TEXT_BLOCK:
+        for (Page page : pdf.getPages()) {
+          for (TextBlock block : page.getTextBlocks()) {
+            // Ignore the block if its role should not be extracted.
+            if (hasRelevantRole(block)) {
+              result.add(block);
+            }
+          }
+        }
+        break;
+      case FIGURE:
+        for (Page page : pdf.getPages()) {
+          result.addAll(page.getFigures());
+        }
+        break;
+      case SHAPE:
+        for (Page page : pdf.getPages()) {
+          result.addAll(page.getShapes());
+        }
+        break;
+      default:
+        break;
     }
 
-    json.put(TEXT_BLOCKS, result);
+    return result;
   }
 
   /**
-   * Serializes the given text block.
-   *
-   * @param block The text block to serialize.
+   * Adds the font and the color of the given element to the used fonts and colors, if they are
+   * serialized.
    *
-   * @return A JSON object that represents the serialization.
+   * @param element The element to process.
    */
-  protected JSONObject serializeTextBlock(TextBlock block) {
-    JSONObject result = new JSONObject();
-    JSONObject blockJson = serializePdfElement(block);
-    // Wrap the JSON object with a JSON object that describes a text block.
-    if (blockJson != null && blockJson.length() > 0) {
-      result.put(TEXT_BLOCK, blockJson);
+  protected void collectFontAndColor(Element element) {
+    Font font = getSerializableFont(element);
+    if (font != null) {
+      this.usedFonts.add(font);
+    }
+    Color color = getSerializableColor(element);
+    if (color != null) {
+      this.usedColors.add(color);
     }
-    return result;
   }
 
   // ==============================================================================================
 
   /**
-   * Serializes the words of the given PDF document.
+   * Serializes the given elements as a section with the given name.
    *
-   * @param pdf  The PDF document to process.
-   * @param json The JSON object to which the serialization should be appended.
+   * @param sectionName The name of the section.
+   * @param elements    The elements to serialize.
+   * @param json        The JSON writer.
+   *
+   * @throws IOException If writing failed.
    */
-  protected void serializeWords(Document pdf, JSONObject json) {
-    JSONArray result = new JSONArray();
-
-    if (pdf != null) {
-      for (Paragraph paragraph : pdf.getParagraphs()) {
-        // Ignore the paragraph if its role should not be extracted.
-        if (!hasRelevantRole(paragraph)) {
-          continue;
-        }
+  protected void serializePdfElements(String sectionName, List<? extends Element> elements,
+      JsonStreamWriter json) throws IOException {
+    String elementName = getElementName(sectionName);
+    json.beginArray(elements.size());
+    for (Element element : elements) {
+      json.element();
+      // Wrap the serialized element with an object that describes the type of the element.
+      int numMembers = countMembers(element);
+      json.beginObject(numMembers > 0 ? 1 : 0);
+      if (numMembers > 0) {
+        json.name(elementName);
+        serializePdfElement(element, numMembers, json);
+      }
+      json.endObject();
+    }
+    json.endArray();
+  }
 
-        for (Word word : paragraph.getWords()) {
-          JSONObject wordJson = serializeWord(word);
-          if (wordJson != null) {
-            result.put(wordJson);
+  /**
+   * Serializes the given PDF element.
+   *
+   * @param element    The element to serialize.
+   * @param numMembers The number of members of the serialization (see
+   *                   {@link #countMembers(Element)}).
+   * @param json       The JSON writer.
+   *
+   * @throws IOException If writing failed.
+   */
+  protected void serializePdfElement(Element element, int numMembers, JsonStreamWriter json)
+      throws IOException {
+    json.beginObject(numMembers);
+    for (String member : ELEMENT_MEMBERS) {
+      switch (member) {
+        case POSITIONS:
+          List<Position> positions = getPositions(element);
+          int numPositions = countSerializablePositions(positions);
+          if (numPositions > 0) {
+            json.name(POSITIONS);
+            serializePositions(positions, numPositions, json);
           }
-        }
+          break;
+        case ROLE:
+          SemanticRole role = getSemanticRole(element);
+          if (role != null) {
+            json.name(ROLE);
+            json.value(role.getName());
+          }
+          break;
+        case FONT:
+          Font font = getSerializableFont(element);
+          if (font != null) {
+            json.name(FONT);
+            serializeFontFace(((HasFontFace) element).getFontFace(), json);
+          }
+          break;
+        case COLOR:
+          Color color = getSerializableColor(element);
+          if (color != null) {
+            json.name(COLOR);
+            json.beginObject(1);
+            json.name(ID);
+            json.value(color.getId());
+            json.endObject();
+          }
+          break;
+        case TEXT:
+          CharSequence text = getText(element);
+          if (text != null) {
+            json.name(TEXT);
+            json.value(text);
+          }
+          break;
+        default:
+          break;
       }
     }
-
-    json.put(WORDS, result);
+    json.endObject();
   }
 
   /**
-   * Serializes the given word.
+   * Counts the members of the serialization of the given element.
    *
-   * @param word The word to serialize.
+   * @param element The element to process.
    *
-   * @return A JSON object that represents the serialization.
+   * @return The number of members of the serialization of the given element.
    */
-  protected JSONObject serializeWord(Word word) {
-    JSONObject result = new JSONObject();
-    JSONObject wordJson = serializePdfElement(word);
-    // Wrap the JSON object with a JSON object that describes a word.
-    if (wordJson != null && wordJson.length() > 0) {
-      result.put(WORD, wordJson);
+  protected int countMembers(Element element) {
+    int numMembers = 0;
+    if (countSerializablePositions(getPositions(element)) > 0) {
+      numMembers++;
     }
-    return result;
+    if (getSemanticRole(element) != null) {
+      numMembers++;
+    }
+    if (getSerializableFont(element) != null) {
+      numMembers++;
+    }
+    if (getSerializableColor(element) != null) {
+      numMembers++;
+    }
+    if (getText(element) != null) {
+      numMembers++;
+    }
+    return numMembers;
   }
 
   // ==============================================================================================
 
   /**
-   * Serializes the characters of the given PDF document.
+   * Returns the positions of the given element.
    *
-   * @param pdf  The PDF document to process.
-   * @param json The JSON object to which the serialization should be appended.
+   * @param element The element to process.
+   *
+   * @return The positions of the given element or null if it has no positions.
    */
-  protected void serializeCharacters(Document pdf, JSONObject json) {
-    JSONArray result = new JSONArray();
-
-    if (pdf != null) {
-      for (Paragraph paragraph : pdf.getParagraphs()) {
-        // Ignore the paragraph if its role should not be extracted.
-        if (!hasRelevantRole(paragraph)) {
-          continue;
-        }
-
-        for (Word word : paragraph.getWords()) {
-          for (Character character : word.getCharacters()) {
-            JSONObject characterJson = serializeCharacter(character);
-            if (characterJson != null) {
-              result.put(characterJson);
-            }
-          }
-        }
-      }
+  protected List<Position> getPositions(Element element) {
+    // The single position of an element overrides its list of positions.
+    if (element instanceof HasPosition) {
+      return Collections.singletonList(((HasPosition) element).getPosition());
     }
-
-    json.put(CHARACTERS, result);
+    if (element instanceof HasPositions) {
+      return ((HasPositions) element).getPositions();
+    }
+    return null;
   }
 
   /**
-   * Serializes the given character.
+   * Returns the semantic role of the given element.
    *
-   * @param character The character to serialize.
+   * @param element The element to process.
    *
-   * @return A JSON object that represents the serialization.
+   * @return The semantic role of the given element or null if it has no semantic role.
    */
-  protected JSONObject serializeCharacter(Character character) {
-    JSONObject result = new JSONObject();
-    JSONObject characterJson = serializePdfElement(character);
-    // Wrap the JSON object with a JSON object that describes a character.
-    if (characterJson != null && characterJson.length() > 0) {
-      result.put(CHARACTER, characterJson);
+  protected SemanticRole getSemanticRole(Element element) {
+    if (element instanceof HasSemanticRole) {
+      return ((HasSemanticRole) element).getSemanticRole();
     }
-    return result;
+    return null;
   }
 
-  // ==============================================================================================
-
   /**
-   * Serializes the figures of the given PDF document.
+   * Returns the font of the given element, if the font face of the element is serialized.
    *
-   * @param pdf  The PDF document to process.
-   * @param json The JSON object to which the serialization should be appended.
+   * @param element The element to process.
+   *
+   * @return The font of the given element or null if the font face of the element is not
+   *         serialized.
    */
-  protected void serializeFigures(Document pdf, JSONObject json) {
-    JSONArray result = new JSONArray();
-
-    if (pdf != null) {
-      for (Page page : pdf.getPages()) {
-        for (Figure figure : page.getFigures()) {
-          JSONObject figureJson = serializeFigure(figure);
-          if (figureJson != null) {
-            result.put(figureJson);
-          }
+  protected Font getSerializableFont(Element element) {
+    if (element instanceof HasFontFace) {
+      FontFace fontFace = ((HasFontFace) element).getFontFace();
+      if (fontFace != null) {
+        Font font = fontFace.getFont();
+        if (font != null && font.getId() != null && fontFace.getFontSize() > 0) {
+          return font;
         }
       }
     }
-
-    json.put(FIGURES, result);
+    return null;
   }
 
   /**
-   * Serializes the given figure.
+   * Returns the color of the given element, if it is serialized.
    *
-   * @param character The figure to serialize.
+   * @param element The element to process.
    *
-   * @return A JSON object that represents the serialization.
+   * @return The color of the given element or null if the color of the element is not serialized.
    */
-  protected JSONObject serializeFigure(Figure figure) {
-    JSONObject result = new JSONObject();
-    JSONObject figureJson = serializePdfElement(figure);
-    // Wrap the JSON object with a JSON object that describes a character.
-    if (figureJson != null && figureJson.length() > 0) {
-      result.put(FIGURE, figureJson);
-    }
-    return result;
-  }
-
-  // ==============================================================================================
-
-  /**
-   * Serializes the shapes of the given PDF document.
-   *
-   * @param pdf  The PDF document to process.
-   * @param json The JSON object to which the serialization should be appended.
-   */
-  protected void serializeShapes(Document pdf, JSONObject json) {
-    JSONArray result = new JSONArray();
-
-    if (pdf != null) {
-      for (Page page : pdf.getPages()) {
-        for (Shape shape : page.getShapes()) {
-          JSONObject shapeJson = serializeShape(shape);
-          if (shapeJson != null) {
-            result.put(shapeJson);
-          }
-        }
+  protected Color getSerializableColor(Element element) {
+    if (element instanceof HasColor) {
+      Color color = ((HasColor) element).getColor();
+      if (color != null && color.getId() != null) {
+        return color;
       }
     }
-
-    json.put(SHAPES, result);
+    return null;
   }
 
   /**
-   * Serializes the given shape.
+   * Returns the text of the given element.
    *
-   * @param shape The shape to serialize.
+   * @param element The element to process.
    *
-   * @return A JSON object that represents the serialization.
+   * @return The text of the given element or null if it has no text.
    */
-  protected JSONObject serializeShape(Shape shape) {
-    JSONObject result = new JSONObject();
-    JSONObject shapeJson = serializePdfElement(shape);
-    // Wrap the JSON object with a JSON object that describes a character.
-    if (shapeJson != null && shapeJson.length() > 0) {
-      result.put(SHAPE, shapeJson);
+  protected CharSequence getText(Element element) {
+    if (element instanceof HasText) {
+      return ((HasText) element).getTextView();
     }
-    return result;
+    return null;
   }
 
   // ==============================================================================================
 
   /**
-   * Serializes the given PDF element.
+   * Serializes the given font face.
    *
-   * @param element The element to serialize.
+   * @param fontFace The font face to serialize.
+   * @param json     The JSON writer.
    *
-   * @return A JSON object that represents the serialization.
+   * @throws IOException If writing failed.
    */
-  protected JSONObject serializePdfElement(Element element) {
-    JSONObject result = new JSONObject();
-
-    if (element != null) {
-      // Serialize the list of positions of the element, if there is any.
-      if (element instanceof HasPositions) {
-        HasPositions hasPositions = (HasPositions) element;
-        List<Position> positions = hasPositions.getPositions();
-
-        JSONArray serialized = serializePositions(positions);
-        if (serialized != null && serialized.length() > 0) {
-          result.put(POSITIONS, serialized);
-        }
-      }
-
-      // Serialize the single position of the element, if there is any.
-      if (element instanceof HasPosition) {
-        HasPosition hasPosition = (HasPosition) element;
-        Position position = hasPosition.getPosition();
-
-        JSONArray serialized = serializePositions(position);
-        if (serialized != null && serialized.length() > 0) {
-          result.put(POSITIONS, serialized);
-        }
-      }
-
-      // Serialize the role of the element, if there is any.
-      if (element instanceof HasSemanticRole) {
-        HasSemanticRole hasRole = (HasSemanticRole) element;
-        SemanticRole role = hasRole.getSemanticRole();
-
-        if (role != null) {
-          result.put(ROLE, role.getName());
-        }
-      }
-
-      // Serialize the font face of the element, if there is any.
-      if (element instanceof HasFontFace) {
-        HasFontFace hasFontFace = (HasFontFace) element;
-        FontFace fontFace = hasFontFace.getFontFace();
-
-        if (fontFace != null) {
-          Font font = fontFace.getFont();
-          if (font != null) {
-            String fontId = font.getId();
-            float size = fontFace.getFontSize();
-            if (fontId != null && size > 0) {
-              JSONObject fontJson = new JSONObject();
-              fontJson.put(ID, fontId);
-              fontJson.put(FONTSIZE, size);
-              result.put(FONT, fontJson);
-              this.usedFonts.add(font);
-            }
-          }
-        }
-      }
-
-      // Serialize the color of the element, if there is any.
-      if (element instanceof HasColor) {
-        HasColor hasColor = (HasColor) element;
-        Color color = hasColor.getColor();
-
-        if (color != null) {
-          String colorId = color.getId();
-          if (colorId != null) {
-            JSONObject colorJson = new JSONObject();
-            colorJson.put(ID, colorId);
-            result.put(COLOR, colorJson);
-            this.usedColors.add(color);
-          }
-        }
-      }
-
-      // Serialize the text of the element, if there is any.
-      if (element instanceof HasText) {
-        HasText hasText = (HasText) element;
-        String text = hasText.getText();
-
-        if (text != null) {
-          result.put(TEXT, text);
-        }
+  protected void serializeFontFace(FontFace fontFace, JsonStreamWriter json) throws IOException {
+    json.beginObject(FONT_FACE_MEMBERS.length);
+    for (String member : FONT_FACE_MEMBERS) {
+      json.name(member);
+      if (member.equals(ID)) {
+        json.value(fontFace.getFont().getId());
+      } else {
+        json.valueAsDouble(fontFace.getFontSize());
       }
     }
-
-    return result;
+    json.endObject();
   }
 
   // ==============================================================================================
 
   /**
-   * Serializes the given PDF positions.
+   * Serializes the given list of PDF positions.
    *
-   * @param positions The positions to serialize.
+   * @param positions    The list of positions to serialize.
+   * @param numPositions The number of serializable positions in the list.
+   * @param json         The JSON writer.
    *
-   * @return A JSON array that represents the serialization.
+   * @throws IOException If writing failed.
    */
-  protected JSONArray serializePositions(Position... positions) {
-    return serializePositions(Arrays.asList(positions));
+  protected void serializePositions(List<Position> positions, int numPositions,
+      JsonStreamWriter json) throws IOException {
+    json.beginArray(numPositions);
+    for (Position position : positions) {
+      if (isSerializable(position)) {
+        json.element();
+        serializePosition(position, json);
+      }
+    }
+    json.endArray();
   }
 
   /**
-   * Serializes the given list of PDF positions.
-   *
-   * @param positions The list of positions to serialize.
+   * Serializes the given PDF position.
    *
-   * @return A JSON array that represents the serialization.
-   */
-  protected JSONArray serializePositions(List<Position> positions) {
-    JSONArray result = new JSONArray();
-    if (positions != null) {
-      for (Position position : positions) {
-        JSONObject positionJson = serializePosition(position);
-        if (positionJson != null && positionJson.length() > 0) {
-          result.put(positionJson);
-        }
+   * @param position The position to serialize.
+   * @param json     The JSON writer.
+   *
+   * @throws IOException If writing failed.
+   */
+  protected void serializePosition(Position position, JsonStreamWriter json) throws IOException {
+    Rectangle rect = position.getRectangle();
+    json.beginObject(POSITION_MEMBERS.length);
+    for (String member : POSITION_MEMBERS) {
+      json.name(member);
+      switch (member) {
+        case PAGE:
+          json.value(position.getPage().getPageNumber());
+          break;
+        case MIN_X:
+          json.value(rect.getMinX());
+          break;
+        case MIN_Y:
+          json.value(rect.getMinY());
+          break;
+        case MAX_X:
+          json.value(rect.getMaxX());
+          break;
+        default:
+          json.value(rect.getMaxY());
+          break;
       }
     }
-    return result;
+    json.endObject();
   }
 
   /**
-   * Serializes the given PDF position.
+   * Counts the positions in the given list that are serialized.
    *
-   * @param position The position to serialize.
+   * @param positions The positions to process.
    *
-   * @return A JSON object that represents the serialization.
+   * @return The number of positions that are serialized.
    */
-  protected JSONObject serializePosition(Position position) {
-    JSONObject positionJson = new JSONObject();
-
-    if (position != null) {
-      Page page = position.getPage();
-      int pageNumber = page.getPageNumber();
-      Rectangle rect = position.getRectangle();
-
-      if (pageNumber > 0 && rect != null) {
-        positionJson.put(PAGE, pageNumber);
-
-        // If we pass primitive floats here, the values would be casted to
-        // double values (yielding in inaccurate numbers). So transform the
-        // values to Float objects.
-        positionJson.put(MIN_X, Float.valueOf(rect.getMinX()));
-        positionJson.put(MIN_Y, Float.valueOf(rect.getMinY()));
-        positionJson.put(MAX_X, Float.valueOf(rect.getMaxX()));
-        positionJson.put(MAX_Y, Float.valueOf(rect.getMaxY()));
+  protected int countSerializablePositions(List<Position> positions) {
+    int numPositions = 0;
+    if (positions != null) {
+      for (Position position : positions) {
+        if (isSerializable(position)) {
+          numPositions++;
+        }
       }
     }
-    return positionJson;
+    return numPositions;
   }
 
-  // ==============================================================================================
-
   /**
-   * Serializes the given fonts.
+   * Checks if the given position is serialized, that is: if it has a page number and a
+   * rectangle.
    *
-   * @param fonts The fonts to serialize.
+   * @param position The position to check.
    *
-   * @return A JSON array that represents the serialization.
+   * @return True, if the given position is serialized; false otherwise.
    */
-  protected JSONArray serializeFonts(Font... fonts) {
-    return serializeFonts(new HashSet<>(Arrays.asList(fonts)));
+  protected boolean isSerializable(Position position) {
+    return position != null && position.getPage().getPageNumber() > 0
+        && position.getRectangle() != null;
   }
 
+  // ==============================================================================================
+
   /**
    * Serializes the given fonts.
    *
-   * @param fonts The fonts to serialize.
+   * @param fonts    The fonts to serialize.
+   * @param numFonts The number of fonts to serialize (the fonts that are not null).
+   * @param json     The JSON writer.
    *
-   * @return A JSON array that represents the serialization.
+   * @throws IOException If writing failed.
    */
-  protected JSONArray serializeFonts(Set<Font> fonts) {
-    JSONArray result = new JSONArray();
-    if (fonts != null) {
-      for (Font font : fonts) {
-        JSONObject fontJson = serializeFont(font);
-        if (fontJson != null && fontJson.length() > 0) {
-          result.put(fontJson);
-        }
+  protected void serializeFonts(Set<Font> fonts, int numFonts, JsonStreamWriter json)
+      throws IOException {
+    json.beginArray(numFonts);
+    for (Font font : fonts) {
+      if (font != null) {
+        json.element();
+        serializeFont(font, json);
       }
     }
-    return result;
+    json.endArray();
   }
 
   /**
    * Serializes the given font.
    *
    * @param font The font to serialize.
+   * @param json The JSON writer.
    *
-   * @return A JSON object that represents the serialization.
+   * @throws IOException If writing failed.
    */
-  protected JSONObject serializeFont(Font font) {
-    JSONObject fontJson = new JSONObject();
-    if (font != null) {
-      String fontId = font.getId();
-      if (fontId != null) {
-        fontJson.put(ID, fontId);
-      }
+  protected void serializeFont(Font font, JsonStreamWriter json) throws IOException {
+    String fontId = font.getId();
+    String fontName = font.getNormalizedName();
 
-      String fontName = font.getNormalizedName();
-      if (fontName != null) {
-        fontJson.put(NAME, fontName);
+    json.beginObject(3 + (fontId != null ? 1 : 0) + (fontName != null ? 1 : 0));
+    for (String member : FONT_MEMBERS) {
+      switch (member) {
+        case ID:
+          if (fontId != null) {
+            json.name(ID);
+            json.value(fontId);
+          }
+          break;
+        case NAME:
+          if (fontName != null) {
+            json.name(NAME);
+            json.value(fontName);
+          }
+          break;
+        case IS_BOLD:
+          json.name(IS_BOLD);
+          json.value(font.isBold());
+          break;
+        case IS_ITALIC:
+          json.name(IS_ITALIC);
+          json.value(font.isItalic());
+          break;
+        default:
+          json.name(IS_TYPE3);
+          json.value(font.isType3Font());
+          break;
       }
-
-      fontJson.put(IS_BOLD, font.isBold());
-      fontJson.put(IS_ITALIC, font.isItalic());
-      fontJson.put(IS_TYPE3, font.isType3Font());
     }
-    return fontJson;
+    json.endObject();
   }
 
   // ==============================================================================================
@@ -698,113 +795,115 @@ public class PdfJsonSerializer implements PdfSerializer {
   /**
    * Serializes the given colors.
    *
-   * @param colors The color to serialize.
+   * @param colors    The colors to serialize.
+   * @param numColors The number of serializable colors.
+   * @param json      The JSON writer.
    *
-   * @return A JSON array that represents the serialization.
+   * @throws IOException If writing failed.
    */
-  protected JSONArray serializeColors(Color... colors) {
-    return serializeColors(new HashSet<>(Arrays.asList(colors)));
-  }
-
-  /**
-   * Serializes the given colors.
-   *
-   * @param colors The colors to serialize.
-   *
-   * @return A JSON array that represents the serialization.
-   */
-  protected JSONArray serializeColors(Set<Color> colors) {
-    JSONArray result = new JSONArray();
-
-    if (colors != null) {
-      for (Color color : colors) {
-        if (color != null) {
-          JSONObject colorJson = serializeColor(color);
-          if (colorJson != null && colorJson.length() > 0) {
-            result.put(colorJson);
-          }
-        }
+  protected void serializeColors(Set<Color> colors, int numColors, JsonStreamWriter json)
+      throws IOException {
+    json.beginArray(numColors);
+    for (Color color : colors) {
+      if (isSerializable(color)) {
+        json.element();
+        serializeColor(color, json);
       }
     }
-    return result;
+    json.endArray();
   }
 
   /**
    * Serializes the given color.
    *
    * @param color The color to serialize.
-   *
-   * @return A JSON object that represents the serialization.
-   */
-  protected JSONObject serializeColor(Color color) {
-    JSONObject colorJson = new JSONObject();
-    if (color != null) {
-      String colorId = color.getId();
-      int[] rgb = color.getRGB();
-
-      if (colorId != null && rgb != null && rgb.length == 3) {
-        colorJson.put(ID, colorId);
-        colorJson.put(R, rgb[0]);
-        colorJson.put(G, rgb[1]);
-        colorJson.put(B, rgb[2]);
+   * @param json  The JSON writer.
+   *
+   * @throws IOException If writing failed.
+   */
+  protected void serializeColor(Color color, JsonStreamWriter json) throws IOException {
+    int[] rgb = color.getRGB();
+    json.beginObject(COLOR_MEMBERS.length);
+    for (String member : COLOR_MEMBERS) {
+      json.name(member);
+      switch (member) {
+        case ID:
+          json.value(color.getId());
+          break;
+        case R:
+          json.value(rgb[0]);
+          break;
+        case G:
+          json.value(rgb[1]);
+          break;
+        default:
+          json.value(rgb[2]);
+          break;
       }
     }
-    return colorJson;
+    json.endObject();
   }
 
-  // ==============================================================================================
-  // Methods to serialize the metadata of pages.
-
   /**
-   * Serializes the metadata of the given pages.
+   * Checks if the given color is serialized, that is: if it has an id and a RGB value.
    *
-   * @param pages The pages to serialize.
+   * @param color The color to check.
    *
-   * @return A JSON array that represents the serialization.
+   * @return True, if the given color is serialized; false otherwise.
    */
-  protected JSONArray serializePages(Page... pages) {
-    return serializePages(Arrays.asList(pages));
+  protected boolean isSerializable(Color color) {
+    if (color == null || color.getId() == null) {
+      return false;
+    }
+    int[] rgb = color.getRGB();
+    return rgb != null && rgb.length == 3;
   }
 
+  // ==============================================================================================
+  // Methods to serialize the metadata of pages.
+
   /**
    * Serializes the given pages.
    *
    * @param pages The pages to serialize.
+   * @param json  The JSON writer.
    *
-   * @return A JSON array that represents the serialization.
+   * @throws IOException If writing failed.
    */
-  protected JSONArray serializePages(List<Page> pages) {
-    JSONArray result = new JSONArray();
-
-    if (pages != null) {
-      for (Page page : pages) {
-        if (page != null) {
-          JSONObject pageJson = serializePage(page);
-          if (pageJson != null && pageJson.length() > 0) {
-            result.put(pageJson);
-          }
-        }
-      }
+  protected void serializePages(List<Page> pages, JsonStreamWriter json) throws IOException {
+    json.beginArray(pages.size());
+    for (Page page : pages) {
+      json.element();
+      serializePage(page, json);
     }
-
-    return result;
+    json.endArray();
   }
 
   /**
    * Serializes the given page.
    *
    * @param page The page to serialize.
+   * @param json The JSON writer.
    *
-   * @return A JSON object that represents the serialization.
+   * @throws IOException If writing failed.
    */
-  protected JSONObject serializePage(Page page) {
-    JSONObject pageJson = new JSONObject();
-    if (page != null) {
-      pageJson.put(ID, page.getPageNumber());
-      pageJson.put(WIDTH, page.getWidth());
-      pageJson.put(HEIGHT, page.getHeight());
+  protected void serializePage(Page page, JsonStreamWriter json) throws IOException {
+    json.beginObject(PAGE_MEMBERS.length);
+    for (String member : PAGE_MEMBERS) {
+      json.name(member);
+      switch (member) {
+        case ID:
+          json.value(page.getPageNumber());
+          break;
+        case WIDTH:
+          json.valueAsDouble(page.getWidth());
+          break;
+        default:
+          json.valueAsDouble(page.getHeight());
+          break;
+      }
     }
-    return pageJson;
+    json.endObject();
   }
 
   // ==============================================================================================
@@ -833,6 +932,27 @@ public class PdfJsonSerializer implements PdfSerializer {
 
   // ==============================================================================================
 
+  /**
+   * Returns the boolean flag indicating whether or not the JSON is pretty-printed.
+   *
+   * @return True, if the JSON is pretty-printed; false otherwise.
+   */
+  public boolean isPrettyPrint() {
+    return this.prettyPrint;
+  }
+
+  /**
+   * Sets the boolean flag indicating whether or not the JSON should be pretty-printed (indented,
+   * with line breaks). If false, the JSON is written without any whitespace between its tokens.
+   *
+   * @param prettyPrint True, if the JSON should be pretty-printed; false otherwise.
+   */
+  public void setPrettyPrint(boolean prettyPrint) {
+    this.prettyPrint = prettyPrint;
+  }
+
+  // ==============================================================================================
+
   /**
    * Checks if the semantic role of the given element is relevant, that is: if it is included in
    * this.semanticRolesToInclude.
@@ -858,24 +978,4 @@ public class PdfJsonSerializer implements PdfSerializer {
 
     return this.semanticRolesToInclude.contains(role);
   }
-
-  // ==============================================================================================
-  // Remaining methods.
-
-  /**
-   * Serializes the given text line.
-   *
-   * @param line The text line to serialize.
-   *
-   * @return A JSON object that represents the serialization.
-   */
-  protected JSONObject serializeTextLine(TextLine line) {
-    JSONObject result = new JSONObject();
-    JSONObject lineJson = serializePdfElement(line);
-    // Wrap the JSON object with a JSON object that describes a text line.
-    if (lineJson != null && lineJson.length() > 0) {
-      result.put(TEXT_LINE, lineJson);
-    }
-    return result;
-  }
 }
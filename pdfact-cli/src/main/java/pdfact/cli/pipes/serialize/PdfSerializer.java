@@ -1,7 +1,10 @@
 package pdfact.cli.pipes.serialize;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Set;
 import pdfact.cli.model.ExtractionUnit;
+import pdfact.cli.util.exception.PdfActSerializeException;
 import pdfact.core.model.Document;
 import pdfact.core.model.SemanticRole;
 import pdfact.core.util.exception.PdfActException;
@@ -23,6 +26,27 @@ public interface PdfSerializer {
    */
   byte[] serialize(Document pdf) throws PdfActException;
 
+  /**
+   * Serializes the given PDF document to the given stream. The stream is flushed, but not closed.
+   * By default, the serialization is created by {@link #serialize(Document)} and written at once;
+   * serializers that can write the serialization while walking the document override this method.
+   * 
+   * @param pdf
+   *        The PDF document to serialize.
+   * @param stream
+   *        The stream to write the serialization to.
+   * @throws PdfActException
+   *         If the serialization failed.
+   */
+  default void serialize(Document pdf, OutputStream stream) throws PdfActException {
+    try {
+      stream.write(serialize(pdf));
+      stream.flush();
+    } catch (IOException e) {
+      throw new PdfActSerializeException("Couldn't write to output stream.", e);
+    }
+  }
+
   // ==============================================================================================
 
   /**
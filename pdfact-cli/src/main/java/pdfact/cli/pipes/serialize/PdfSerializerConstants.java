@@ -69,6 +69,8 @@ public class PdfSerializerConstants {
   static final String R = "r";
   /** The constant 'ROLE'. */
   static final String ROLE = "role";
+  /** The constant 'ROLES'. */
+  static final String ROLES = "roles";
   /** The constant 'SHAPE'. */
   static final String SHAPE = "shape";
   /** The constant 'SHAPES'. */
@@ -83,6 +85,8 @@ public class PdfSerializerConstants {
   static final String TEXT_LINE = "text-line";
   /** The constant 'TEXT_LINES'. */
   static final String TEXT_LINES = "text-lines";
+  /** The constant 'TYPE'. */
+  static final String TYPE = "type";
   /** The constant 'WIDTH'. */
   static final String WIDTH = "width";
   /** The constant 'WORD'. */
@@ -1,11 +1,16 @@
 package pdfact.cli.pipes.serialize;
 
 import static pdfact.core.PdfActCoreSettings.DEFAULT_ENCODING;
-import java.util.ArrayList;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.util.Arrays;
-import java.util.List;
 import java.util.Set;
 import pdfact.cli.model.ExtractionUnit;
+import pdfact.cli.util.exception.PdfActSerializeException;
 import pdfact.core.model.Character;
 import pdfact.core.model.Color;
 import pdfact.core.model.Document;
@@ -21,11 +26,20 @@ import pdfact.core.model.SemanticRole;
 import pdfact.core.model.TextBlock;
 import pdfact.core.model.TextLine;
 import pdfact.core.model.Word;
-import pdfact.core.util.PdfActUtils;
+import pdfact.core.util.exception.PdfActException;
+import pdfact.core.util.text.TextView;
 
 /**
  * An implementation of {@link PdfSerializer} that serializes a PDF document in TXT format.
  *
+ * <p>
+ * The serialized elements are written to a buffered writer one by one, as soon as they are
+ * serialized, and the writer is flushed each time the elements of a page are complete, so that
+ * the consumer of the target stream can process the serialization page by page. Optionally, a
+ * page boundary (a form feed) is written after the elements of each page (including pages
+ * without any serialized elements), so that the k-th section of the serialization contains the
+ * elements of the k-th page.
+ *
  * @author Claudius Korzen
  */
 public class PdfTxtSerializer implements PdfSerializer {
@@ -48,6 +62,12 @@ public class PdfTxtSerializer implements PdfSerializer {
    */
   protected boolean withControlCharacters;
 
+  /**
+   * The boolean flag indicating whether or not this serializer should write a page boundary
+   * ("^L") after the elements of each page.
+   */
+  protected boolean withPageBoundaries;
+
   /**
    * The units to serialize.
    */
@@ -63,6 +83,11 @@ public class PdfTxtSerializer implements PdfSerializer {
    */
   protected Position prevPosition;
 
+  /**
+   * The number of the page whose elements are currently written.
+   */
+  protected int pageNumber;
+
   /**
    * The delimiter to use on joining the serialized elements.
    */
@@ -96,51 +121,51 @@ public class PdfTxtSerializer implements PdfSerializer {
   // ==============================================================================================
 
   @Override
-  public byte[] serialize(Document pdf) {
-    this.prevPosition = null;
-
-    // The serialization to return.
-    String result = "";
-
-    if (pdf != null) {
-      List<String> lines = new ArrayList<>();
+  public byte[] serialize(Document pdf) throws PdfActException {
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    serialize(pdf, stream);
+    return stream.toByteArray();
+  }
 
-      // Create the section that contains all serialized PDF elements.
-      List<String> elementsLines = serializePdfElements(pdf);
-      if (elementsLines != null) {
-        lines.addAll(elementsLines);
-      }
-      lines.add("");
+  @Override
+  public void serialize(Document pdf, OutputStream stream) throws PdfActException {
+    this.prevPosition = null;
 
-      result = PdfActUtils.join(lines, TYPES_DELIMITER);
+    if (pdf == null) {
+      return;
     }
 
-    return result.getBytes(DEFAULT_ENCODING);
+    try {
+      Writer writer = new BufferedWriter(new OutputStreamWriter(stream, DEFAULT_ENCODING));
+      serializePdfElements(pdf, writer);
+      writer.flush();
+    } catch (IOException e) {
+      throw new PdfActSerializeException("Couldn't write the TXT serialization.", e);
+    }
   }
 
   /**
    * Serializes the elements of the given PDF document.
    * 
-   * @param pdf The PDF document to process.
+   * @param pdf    The PDF document to process.
+   * @param writer The writer to write the serialization to.
    *
-   * @return A list of strings that represent the lines of the serialization.
+   * @throws IOException If writing failed.
    */
-  protected List<String> serializePdfElements(Document pdf) {
-    List<String> lines = new ArrayList<>();
+  protected void serializePdfElements(Document pdf, Writer writer) throws IOException {
     for (ExtractionUnit unit : this.extractionUnits) {
       switch (unit) {
         case CHARACTER:
-          lines.addAll(serializeCharacters(pdf));
+          serializeCharacters(pdf, writer);
           break;
         case WORD:
-          lines.addAll(serializeWords(pdf));
+          serializeWords(pdf, writer);
           break;
         case PARAGRAPH:
         default:
-          lines.addAll(serializeParagraphs(pdf));
+          serializeParagraphs(pdf, writer);
       }
     }
-    return lines;
   }
 
   // ==============================================================================================
@@ -148,46 +173,48 @@ public class PdfTxtSerializer implements PdfSerializer {
   /**
    * Serializes the paragraphs of the given PDF document.
    * 
-   * @param pdf The PDF document to process.
-   * 
-   * @return A list of strings that represent the lines of the serialization.
+   * @param pdf    The PDF document to process.
+   * @param writer The writer to write the serialization to.
+   *
+   * @throws IOException If writing failed.
    */
-  protected List<String> serializeParagraphs(Document pdf) {
-    List<String> result = new ArrayList<>();
-
-    if (pdf != null) {
-      for (Paragraph paragraph : pdf.getParagraphs()) {
-        // Ignore the paragraph if its role should not be extracted.
-        if (!hasRelevantRole(paragraph)) {
-          continue;
-        }
+  protected void serializeParagraphs(Document pdf, Writer writer) throws IOException {
+    this.pageNumber = 1;
+    for (Paragraph paragraph : pdf.getParagraphs()) {
+      // Ignore the paragraph if its role should not be extracted.
+      if (!hasRelevantRole(paragraph)) {
+        continue;
+      }
 
-        Position position = paragraph.getFirstPosition();
-        String paragraphStr = serializeParagraph(paragraph);
-                
-        if (paragraphStr != null) {
-          // Check if we have to insert control characters.
-          if (withControlCharacters) {
-            // Check if we have to insert the control character that identifies a heading.
-            if (!paragraphStr.isEmpty() && paragraph.getSemanticRole() == SemanticRole.HEADING) {
-              paragraphStr = HEADING_CONTROL_CHARACTER + paragraphStr;
-            }
+      Position position = paragraph.getFirstPosition();
+      CharSequence paragraphStr = serializeParagraph(paragraph);
 
-            // Check if we have to insert the control character that identifies a page break.
-            if (prevPosition != null && position != null) {
-              if (prevPosition.getPageNumber() != position.getPageNumber()) {
-                result.add(java.lang.Character.toString(PAGE_BREAK_CONTROL_CHARACTER));
-              }
+      if (paragraphStr != null) {
+        advanceToPage(position, writer);
+
+        // Check if we have to insert control characters.
+        if (withControlCharacters) {
+          // Check if we have to insert the control character that identifies a page break (the
+          // page boundaries already identify all page breaks).
+          if (!withPageBoundaries && prevPosition != null && position != null) {
+            if (prevPosition.getPageNumber() != position.getPageNumber()) {
+              writer.write(PAGE_BREAK_CONTROL_CHARACTER);
+              writer.write(TYPES_DELIMITER);
             }
           }
-          result.add(paragraphStr);
+
+          // Check if we have to insert the control character that identifies a heading.
+          if (paragraphStr.length() > 0 && paragraph.getSemanticRole() == SemanticRole.HEADING) {
+            writer.write(HEADING_CONTROL_CHARACTER);
+          }
         }
-        // Keep track of the position of this element, for deciding if a page break occured between
-        // this paragraph and the next paragraph.
-        this.prevPosition = position;
+        write(paragraphStr, writer);
       }
+      // Keep track of the position of this element, for deciding if a page break occured between
+      // this paragraph and the next paragraph.
+      this.prevPosition = position;
     }
-    return result;
+    finishPages(pdf, writer);
   }
 
   /**
@@ -195,9 +222,9 @@ public class PdfTxtSerializer implements PdfSerializer {
    * 
    * @param paragraph The paragraph to serialize.
    * 
-   * @return A list of strings that represent the lines of the serialization.
+   * @return The serialized paragraph.
    */
-  protected String serializeParagraph(Paragraph paragraph) {
+  protected CharSequence serializeParagraph(Paragraph paragraph) {
     return serializePdfElement(paragraph);
   }
 
@@ -206,30 +233,28 @@ public class PdfTxtSerializer implements PdfSerializer {
   /**
    * Serializes the words of the given PDF document.
    * 
-   * @param pdf The PDF document to process.
-   * 
-   * @return A list of strings that represent the lines of the serialization.
+   * @param pdf    The PDF document to process.
+   * @param writer The writer to write the serialization to.
+   *
+   * @throws IOException If writing failed.
    */
-  protected List<String> serializeWords(Document pdf) {
-    List<String> result = new ArrayList<>();
-
-    if (pdf != null) {
-      for (Paragraph paragraph : pdf.getParagraphs()) {
-        // Ignore the paragraph if its role should not be extracted.
-        if (!hasRelevantRole(paragraph)) {
-          continue;
-        }
+  protected void serializeWords(Document pdf, Writer writer) throws IOException {
+    this.pageNumber = 1;
+    for (Paragraph paragraph : pdf.getParagraphs()) {
+      // Ignore the paragraph if its role should not be extracted.
+      if (!hasRelevantRole(paragraph)) {
+        continue;
+      }
 
-        for (Word word : paragraph.getWords()) {
-          String wordStr = serializeWord(word);
-          if (wordStr != null) {
-            result.add(wordStr);
-          }
+      for (Word word : paragraph.getWords()) {
+        CharSequence wordStr = serializeWord(word);
+        if (wordStr != null) {
+          advanceToPage(getPosition(word), writer);
+          write(wordStr, writer);
         }
       }
     }
-
-    return result;
+    finishPages(pdf, writer);
   }
 
   /**
@@ -237,9 +262,9 @@ public class PdfTxtSerializer implements PdfSerializer {
    * 
    * @param word The word to serialize.
    * 
-   * @return A list of strings that represent the lines of the serialization.
+   * @return The serialized word.
    */
-  protected String serializeWord(Word word) {
+  protected CharSequence serializeWord(Word word) {
     return serializePdfElement(word);
   }
 
@@ -248,32 +273,30 @@ public class PdfTxtSerializer implements PdfSerializer {
   /**
    * Serializes the characters of the given PDF document.
    * 
-   * @param pdf The PDF document to process.
-   * 
-   * @return A list of strings that represent the lines of the serialization.
+   * @param pdf    The PDF document to process.
+   * @param writer The writer to write the serialization to.
+   *
+   * @throws IOException If writing failed.
    */
-  protected List<String> serializeCharacters(Document pdf) {
-    List<String> result = new ArrayList<>();
-
-    if (pdf != null) {
-      for (Paragraph paragraph : pdf.getParagraphs()) {
-        // Ignore the paragraph if its role should not be extracted.
-        if (!hasRelevantRole(paragraph)) {
-          continue;
-        }
+  protected void serializeCharacters(Document pdf, Writer writer) throws IOException {
+    this.pageNumber = 1;
+    for (Paragraph paragraph : pdf.getParagraphs()) {
+      // Ignore the paragraph if its role should not be extracted.
+      if (!hasRelevantRole(paragraph)) {
+        continue;
+      }
 
-        for (Word word : paragraph.getWords()) {
-          for (Character character : word.getCharacters()) {
-            String characterStr = serializeCharacter(character);
-            if (characterStr != null) {
-              result.add(characterStr);
-            }
+      for (Word word : paragraph.getWords()) {
+        for (Character character : word.getCharacters()) {
+          CharSequence characterStr = serializeCharacter(character);
+          if (characterStr != null) {
+            advanceToPage(getPosition(character), writer);
+            write(characterStr, writer);
           }
         }
       }
     }
-
-    return result;
+    finishPages(pdf, writer);
   }
 
   /**
@@ -281,9 +304,9 @@ public class PdfTxtSerializer implements PdfSerializer {
    * 
    * @param character The character to serialize.
    *
-   * @return A list of strings that represent the lines of the serialization.
+   * @return The serialized character.
    */
-  protected String serializeCharacter(Character character) {
+  protected CharSequence serializeCharacter(Character character) {
     return serializePdfElement(character);
   }
 
@@ -294,25 +317,18 @@ public class PdfTxtSerializer implements PdfSerializer {
    * 
    * @param element The PDF element to serialize.
    *
-   * @return A list of strings that represent the lines of the serialization.
+   * @return The serialized element, or null if the element has no text.
    */
-  protected String serializePdfElement(Element element) {
-    Position position = null;
-    Color color = null;
-
+  protected CharSequence serializePdfElement(Element element) {
     if (element instanceof HasText) {
       HasText hasText = (HasText) element;
-      String text = hasText.getText();
+      CharSequence text = hasText.getTextView();
 
       // Determine the (first) position of the element.
-      if (element instanceof HasPositions) {
-        position = ((HasPositions) element).getFirstPosition();
-      }
-      if (element instanceof HasPosition) {
-        position = ((HasPosition) element).getPosition();
-      }
+      Position position = getPosition(element);
 
       // Determine the color of the element.
+      Color color = null;
       if (element instanceof HasColor) {
         color = ((HasColor) element).getColor();
       }
@@ -327,6 +343,96 @@ public class PdfTxtSerializer implements PdfSerializer {
     return null;
   }
 
+  /**
+   * Returns the (first) position of the given element.
+   * 
+   * @param element The element.
+   * 
+   * @return The (first) position of the given element, or null if it has no position.
+   */
+  protected Position getPosition(Element element) {
+    Position position = null;
+    if (element instanceof HasPositions) {
+      position = ((HasPositions) element).getFirstPosition();
+    }
+    if (element instanceof HasPosition) {
+      position = ((HasPosition) element).getPosition();
+    }
+    return position;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Writes the given serialized element, followed by the delimiter.
+   * 
+   * @param str    The serialized element.
+   * @param writer The writer to write the element to.
+   *
+   * @throws IOException If writing failed.
+   */
+  protected void write(CharSequence str, Writer writer) throws IOException {
+    if (str instanceof TextView) {
+      ((TextView) str).writeTo(writer);
+    } else {
+      writer.write(String.valueOf(str));
+    }
+    writer.write(TYPES_DELIMITER);
+  }
+
+  /**
+   * Handles the transition to the page of the given position, before an element with this
+   * position is written: flushes the writer, so that the elements of the previous pages reach the
+   * target stream, and writes the page boundaries of the previous pages (if enabled).
+   * 
+   * @param position The position of the element to write next.
+   * @param writer   The writer.
+   *
+   * @throws IOException If writing failed.
+   */
+  protected void advanceToPage(Position position, Writer writer) throws IOException {
+    if (position == null || position.getPageNumber() <= this.pageNumber) {
+      return;
+    }
+    while (this.pageNumber < position.getPageNumber()) {
+      writePageBoundary(writer);
+      this.pageNumber++;
+    }
+    writer.flush();
+  }
+
+  /**
+   * Writes the page boundaries of the remaining pages of the given document (if enabled) after
+   * the last element was written and flushes the writer.
+   * 
+   * @param pdf    The PDF document.
+   * @param writer The writer.
+   *
+   * @throws IOException If writing failed.
+   */
+  protected void finishPages(Document pdf, Writer writer) throws IOException {
+    int numPages = pdf.getPages() != null ? pdf.getPages().size() : 0;
+    while (this.pageNumber <= numPages) {
+      writePageBoundary(writer);
+      this.pageNumber++;
+    }
+    writer.flush();
+  }
+
+  /**
+   * Writes a page boundary, if page boundaries are enabled.
+   * 
+   * @param writer The writer.
+   *
+   * @throws IOException If writing failed.
+   */
+  protected void writePageBoundary(Writer writer) throws IOException {
+    if (this.withPageBoundaries) {
+      writer.write(PAGE_BREAK_CONTROL_CHARACTER);
+      writer.write(TYPES_DELIMITER);
+    }
+  }
+
   // ==============================================================================================
 
   /**
@@ -347,6 +453,22 @@ public class PdfTxtSerializer implements PdfSerializer {
     this.withControlCharacters = withControlCharacters;
   }
 
+  /**
+   * Returns the boolean flag indicating whether or not this serializer should write a page
+   * boundary ("^L") after the elements of each page.
+   */
+  public boolean isWithPageBoundaries() {
+    return this.withPageBoundaries;
+  }
+
+  /**
+   * Sets the boolean flag indicating whether or not this serializer should write a page boundary
+   * ("^L") after the elements of each page.
+   */
+  public void setWithPageBoundaries(boolean withPageBoundaries) {
+    this.withPageBoundaries = withPageBoundaries;
+  }
+
   // ==============================================================================================
 
   @Override
@@ -407,9 +529,9 @@ public class PdfTxtSerializer implements PdfSerializer {
    * 
    * @param block The text block to serialize.
    * 
-   * @return A list of strings that represent the lines of the serialization.
+   * @return The serialized text block.
    */
-  protected String serializeTextBlock(TextBlock block) {
+  protected CharSequence serializeTextBlock(TextBlock block) {
     return serializePdfElement(block);
   }
 
@@ -419,9 +541,9 @@ public class PdfTxtSerializer implements PdfSerializer {
    * 
    * @param line The text line to serialize.
    * 
-   * @return A list of strings that represent the lines of the serialization.
+   * @return The serialized text line.
    */
-  protected String serializeTextLine(TextLine line) {
+  protected CharSequence serializeTextLine(TextLine line) {
     return serializePdfElement(line);
   }
 }
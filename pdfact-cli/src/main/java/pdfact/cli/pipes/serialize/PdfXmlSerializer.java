@@ -39,12 +39,12 @@ import static pdfact.cli.pipes.serialize.PdfSerializerConstants.WIDTH;
 import static pdfact.cli.pipes.serialize.PdfSerializerConstants.WORD;
 import static pdfact.cli.pipes.serialize.PdfSerializerConstants.WORDS;
 import static pdfact.core.PdfActCoreSettings.DEFAULT_ENCODING;
-import java.util.ArrayList;
-import java.util.Arrays;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import org.apache.commons.lang3.StringEscapeUtils;
 import pdfact.cli.model.ExtractionUnit;
 import pdfact.cli.util.exception.PdfActSerializeException;
 import pdfact.core.model.Character;
@@ -69,11 +69,17 @@ import pdfact.core.model.Shape;
 import pdfact.core.model.TextBlock;
 import pdfact.core.model.TextLine;
 import pdfact.core.model.Word;
-import pdfact.core.util.PdfActUtils;
+import pdfact.core.util.exception.PdfActException;
 
 /**
  * An implementation of {@link PdfXmlSerializer} that serializes a PDF document in XML format.
  *
+ * <p>
+ * The serialization is written directly to the target stream by a {@link XmlStreamWriter}, while
+ * walking the document (instead of collecting the lines of the serialization first). The fonts
+ * and colors of the serialized elements are collected while the elements are written, since the
+ * sections of the fonts and colors follow the sections of the elements.
+ *
  * @author Claudius Korzen
  */
 public class PdfXmlSerializer implements PdfSerializer {
@@ -135,59 +141,62 @@ public class PdfXmlSerializer implements PdfSerializer {
   // ==============================================================================================
 
   @Override
-  public byte[] serialize(Document pdf) throws PdfActSerializeException {
-    // The current indentation level.
-    int level = 0;
-    // The serialization to return.
-    String result = "";
-
-    if (pdf != null) {
-      // The individual lines of the serialization.
-      List<String> resultLines = new ArrayList<>();
-
-      // Start the XML document.
-      resultLines.add(start(DOCUMENT, level));
-
-      // Create the section that contains all serialized PDF elements.
-      List<String> elementsLines = serializePdfElements(level + 1, pdf);
-      if (elementsLines != null && !elementsLines.isEmpty()) {
-        resultLines.addAll(elementsLines);
-      }
-
-      // Create the section that contains the used fonts.
-      List<String> fontsLines = serializeFonts(level + 2, this.usedFonts);
-      if (fontsLines != null && !fontsLines.isEmpty()) {
-        resultLines.add(start(FONTS, level + 1));
-        resultLines.addAll(fontsLines);
-        resultLines.add(end(FONTS, level + 1));
-      }
-
-      // Create the section that contains the used colors.
-      List<String> colorsLines = serializeColors(level + 2, this.usedColors);
-      if (colorsLines != null && !colorsLines.isEmpty()) {
-        resultLines.add(start(COLORS, level + 1));
-        resultLines.addAll(colorsLines);
-        resultLines.add(end(COLORS, level + 1));
-      }
+  public byte[] serialize(Document pdf) throws PdfActException {
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    serialize(pdf, stream);
+    return stream.toByteArray();
+  }
 
-      if (this.extractionUnits.contains(ExtractionUnit.PAGE)) {
-        // Create the section that contains information about the pages.
-        List<String> pagesLines = serializePages(level + 2, pdf.getPages());
-        if (pagesLines != null && !pagesLines.isEmpty()) {
-          resultLines.add(start(PAGES, level + 1));
-          resultLines.addAll(pagesLines);
-          resultLines.add(end(PAGES, level + 1));
-        }
-      }
+  @Override
+  public void serialize(Document pdf, OutputStream stream) throws PdfActException {
+    if (pdf == null) {
+      return;
+    }
 
-      // End the XML document.
-      resultLines.add(end(DOCUMENT, level));
+    try {
+      XmlStreamWriter xml = new XmlStreamWriter(stream, DEFAULT_ENCODING, INDENT_LENGTH,
+          LINE_DELIMITER);
+      serialize(pdf, xml);
+      xml.flush();
+    } catch (IOException e) {
+      throw new PdfActSerializeException("Couldn't write the XML serialization.", e);
+    }
+  }
 
-      // Join the lines to a single string.
-      result = PdfActUtils.join(resultLines, LINE_DELIMITER);
+  /**
+   * Serializes the given PDF document to the given XML writer.
+   *
+   * @param pdf The PDF document to serialize.
+   * @param xml The XML writer.
+   *
+   * @throws IOException If writing failed.
+   */
+  protected void serialize(Document pdf, XmlStreamWriter xml) throws IOException {
+    // Start the XML document.
+    xml.startElement(DOCUMENT);
+
+    // Create the sections that contain the serialized PDF elements.
+    serializePdfElements(pdf, xml);
+
+    // Create the section that contains the used fonts.
+    xml.startElement(FONTS, true);
+    serializeFonts(this.usedFonts, xml);
+    xml.endElement();
+
+    // Create the section that contains the used colors.
+    xml.startElement(COLORS, true);
+    serializeColors(this.usedColors, xml);
+    xml.endElement();
+
+    if (this.extractionUnits.contains(ExtractionUnit.PAGE)) {
+      // Create the section that contains information about the pages.
+      xml.startElement(PAGES, true);
+      serializePages(pdf.getPages(), xml);
+      xml.endElement();
     }
 
-    return result.getBytes(DEFAULT_ENCODING);
+    // End the XML document.
+    xml.endElement();
   }
 
   // ==============================================================================================
@@ -195,35 +204,33 @@ public class PdfXmlSerializer implements PdfSerializer {
   /**
    * Serializes the elements of the given PDF document.
    * 
-   * @param level The current indentation level.
-   * @param pdf   The PDF document to process.
+   * @param pdf The PDF document to process.
+   * @param xml The XML writer.
    *
-   * @return A list of strings that represent the serialized elements.
+   * @throws IOException If writing failed.
    */
-  protected List<String> serializePdfElements(int level, Document pdf) {
-    List<String> lines = new ArrayList<>();
+  protected void serializePdfElements(Document pdf, XmlStreamWriter xml) throws IOException {
     for (ExtractionUnit unit : this.extractionUnits) {
       switch (unit) {
         case CHARACTER:
-          lines.addAll(serializeCharacters(level, pdf));
+          serializeCharacters(pdf, xml);
           break;
         case WORD:
-          lines.addAll(serializeWords(level, pdf));
+          serializeWords(pdf, xml);
           break;
         case PARAGRAPH:
-          lines.addAll(serializeParagraphs(level, pdf));
+          serializeParagraphs(pdf, xml);
           break;
         case FIGURE:
-          lines.addAll(serializeFigures(level, pdf));
+          serializeFigures(pdf, xml);
           break;
         case SHAPE:
-          lines.addAll(serializeShapes(level, pdf));
+          serializeShapes(pdf, xml);
           break;
         default:
           break;
       }
     }
-    return lines;
   }
 
   // ==============================================================================================
@@ -231,51 +238,36 @@ public class PdfXmlSerializer implements PdfSerializer {
   /**
    * Serializes the paragraphs of the given PDF document.
    * 
-   * @param level The current indentation level.
-   * @param pdf   The PDF document to process.
-   * 
-   * @return A list of strings that represent the lines of the serialization.
-   */
-  protected List<String> serializeParagraphs(int level, Document pdf) {
-    List<String> result = new ArrayList<>();
-
-    if (pdf != null) {
-      result.add(start(PARAGRAPHS, level));
-      for (Paragraph paragraph : pdf.getParagraphs()) {
-        // Ignore the paragraph if its role should not be extracted.
-        if (!hasRelevantRole(paragraph)) {
-          continue;
-        }
-
-        List<String> paragraphLines = serializeParagraph(level + 1, paragraph);
-        if (paragraphLines != null) {
-          result.addAll(paragraphLines);
-        }
+   * @param pdf The PDF document to process.
+   * @param xml The XML writer.
+   *
+   * @throws IOException If writing failed.
+   */
+  protected void serializeParagraphs(Document pdf, XmlStreamWriter xml) throws IOException {
+    xml.startElement(PARAGRAPHS);
+    for (Paragraph paragraph : pdf.getParagraphs()) {
+      // Ignore the paragraph if its role should not be extracted.
+      if (!hasRelevantRole(paragraph)) {
+        continue;
       }
-      result.add(end(PARAGRAPHS, level));
+      serializeParagraph(paragraph, xml);
     }
-
-    return result;
+    xml.endElement();
   }
 
   /**
    * Serializes the given paragraph.
    * 
-   * @param level     The current indentation level.
    * @param paragraph The paragraph to serialize.
-   * 
-   * @return A list of strings that represent the lines of the serialization.
+   * @param xml       The XML writer.
+   *
+   * @throws IOException If writing failed.
    */
-  protected List<String> serializeParagraph(int level, Paragraph paragraph) {
-    List<String> result = new ArrayList<>();
-    List<String> paragraphLines = serializePdfElement(level + 1, paragraph);
-    // Wrap the serialized lines with a tag that describes a paragraph.
-    if (paragraphLines != null && !paragraphLines.isEmpty()) {
-      result.add(start(PARAGRAPH, level));
-      result.addAll(paragraphLines);
-      result.add(end(PARAGRAPH, level));
-    }
-    return result;
+  protected void serializeParagraph(Paragraph paragraph, XmlStreamWriter xml) throws IOException {
+    // Wrap the serialization with a tag that describes a paragraph (if it is not empty).
+    xml.startElement(PARAGRAPH, true);
+    serializePdfElement(paragraph, xml);
+    xml.endElement();
   }
 
   // ==============================================================================================
@@ -283,53 +275,39 @@ public class PdfXmlSerializer implements PdfSerializer {
   /**
    * Serializes the words of the given PDF document.
    * 
-   * @param level The current indentation level.
-   * @param pdf   The PDF document to process.
-   * 
-   * @return A list of strings that represent the lines of the serialization.
-   */
-  protected List<String> serializeWords(int level, Document pdf) {
-    List<String> result = new ArrayList<>();
-
-    if (pdf != null) {
-      result.add(start(WORDS, level));
-      for (Paragraph paragraph : pdf.getParagraphs()) {
-        // Ignore the paragraph if its role should not be extracted.
-        if (!hasRelevantRole(paragraph)) {
-          continue;
-        }
+   * @param pdf The PDF document to process.
+   * @param xml The XML writer.
+   *
+   * @throws IOException If writing failed.
+   */
+  protected void serializeWords(Document pdf, XmlStreamWriter xml) throws IOException {
+    xml.startElement(WORDS);
+    for (Paragraph paragraph : pdf.getParagraphs()) {
+      // Ignore the paragraph if its role should not be extracted.
+      if (!hasRelevantRole(paragraph)) {
+        continue;
+      }
 
-        for (Word word : paragraph.getWords()) {
-          List<String> wordLines = serializeWord(level + 1, word);
-          if (wordLines != null) {
-            result.addAll(wordLines);
-          }
-        }
+      for (Word word : paragraph.getWords()) {
+        serializeWord(word, xml);
       }
-      result.add(end(WORDS, level));
     }
-
-    return result;
+    xml.endElement();
   }
 
   /**
    * Serializes the given word.
    * 
-   * @param level The current indentation level.
-   * @param word  The word to serialize.
-   * 
-   * @return A list of strings that represent the lines of the serialization.
+   * @param word The word to serialize.
+   * @param xml  The XML writer.
+   *
+   * @throws IOException If writing failed.
    */
-  protected List<String> serializeWord(int level, Word word) {
-    List<String> result = new ArrayList<>();
-    List<String> wordLines = serializePdfElement(level + 1, word);
-    // Wrap the serialized lines with a tag that describes a word.
-    if (wordLines != null && !wordLines.isEmpty()) {
-      result.add(start(WORD, level));
-      result.addAll(wordLines);
-      result.add(end(WORD, level));
-    }
-    return result;
+  protected void serializeWord(Word word, XmlStreamWriter xml) throws IOException {
+    // Wrap the serialization with a tag that describes a word (if it is not empty).
+    xml.startElement(WORD, true);
+    serializePdfElement(word, xml);
+    xml.endElement();
   }
 
   // ==============================================================================================
@@ -337,56 +315,41 @@ public class PdfXmlSerializer implements PdfSerializer {
   /**
    * Serializes the characters of the given PDF document.
    * 
-   * @param level The current indentation level.
-   * @param pdf   The PDF document to process.
-   * 
-   * @return A list of strings that represent the lines of the serialization.
-   */
-  protected List<String> serializeCharacters(int level, Document pdf) {
-    List<String> result = new ArrayList<>();
-
-
-    if (pdf != null) {
-      result.add(start(CHARACTERS, level));
-      for (Paragraph paragraph : pdf.getParagraphs()) {
-        // Ignore the paragraph if its role should not be extracted.
-        if (!hasRelevantRole(paragraph)) {
-          continue;
-        }
+   * @param pdf The PDF document to process.
+   * @param xml The XML writer.
+   *
+   * @throws IOException If writing failed.
+   */
+  protected void serializeCharacters(Document pdf, XmlStreamWriter xml) throws IOException {
+    xml.startElement(CHARACTERS);
+    for (Paragraph paragraph : pdf.getParagraphs()) {
+      // Ignore the paragraph if its role should not be extracted.
+      if (!hasRelevantRole(paragraph)) {
+        continue;
+      }
 
-        for (Word word : paragraph.getWords()) {
-          for (Character character : word.getCharacters()) {
-            List<String> characterLines = serializeCharacter(level + 1, character);
-            if (characterLines != null) {
-              result.addAll(characterLines);
-            }
-          }
+      for (Word word : paragraph.getWords()) {
+        for (Character character : word.getCharacters()) {
+          serializeCharacter(character, xml);
         }
       }
-      result.add(end(CHARACTERS, level));
     }
-
-    return result;
+    xml.endElement();
   }
 
   /**
    * Serializes the given character.
    * 
-   * @param level     The current indentation level.
    * @param character The character to serialize.
+   * @param xml       The XML writer.
    *
-   * @return A list of strings that represent the lines of the serialization.
+   * @throws IOException If writing failed.
    */
-  protected List<String> serializeCharacter(int level, Character character) {
-    List<String> result = new ArrayList<>();
-    List<String> characterLines = serializePdfElement(level + 1, character);
-    // Wrap the serialized lines with a tag that describes a character.
-    if (characterLines != null && !characterLines.isEmpty()) {
-      result.add(start(CHARACTER, level));
-      result.addAll(characterLines);
-      result.add(end(CHARACTER, level));
-    }
-    return result;
+  protected void serializeCharacter(Character character, XmlStreamWriter xml) throws IOException {
+    // Wrap the serialization with a tag that describes a character (if it is not empty).
+    xml.startElement(CHARACTER, true);
+    serializePdfElement(character, xml);
+    xml.endElement();
   }
 
   // ==============================================================================================
@@ -394,48 +357,34 @@ public class PdfXmlSerializer implements PdfSerializer {
   /**
    * Serializes the figures of the given PDF document.
    * 
-   * @param level The current indentation level.
-   * @param pdf   The PDF document to process.
-   * 
-   * @return A list of strings that represent the lines of the serialization.
+   * @param pdf The PDF document to process.
+   * @param xml The XML writer.
+   *
+   * @throws IOException If writing failed.
    */
-  protected List<String> serializeFigures(int level, Document pdf) {
-    List<String> result = new ArrayList<>();
-
-    if (pdf != null) {
-      result.add(start(FIGURES, level));
-      for (Page page : pdf.getPages()) {
-        for (Figure figure : page.getFigures()) {
-          List<String> figureLines = serializeFigure(level + 1, figure);
-          if (figureLines != null) {
-            result.addAll(figureLines);
-          }
-        }
+  protected void serializeFigures(Document pdf, XmlStreamWriter xml) throws IOException {
+    xml.startElement(FIGURES);
+    for (Page page : pdf.getPages()) {
+      for (Figure figure : page.getFigures()) {
+        serializeFigure(figure, xml);
       }
-      result.add(end(FIGURES, level));
     }
-
-    return result;
+    xml.endElement();
   }
 
   /**
    * Serializes the given figure.
    * 
-   * @param level  The current indentation level.
    * @param figure The figure to serialize.
+   * @param xml    The XML writer.
    *
-   * @return A list of strings that represent the lines of the serialization.
+   * @throws IOException If writing failed.
    */
-  protected List<String> serializeFigure(int level, Figure figure) {
-    List<String> result = new ArrayList<>();
-    List<String> figureLines = serializePdfElement(level + 1, figure);
-    // Wrap the serialized lines with a tag that describes a figure.
-    if (figureLines != null && !figureLines.isEmpty()) {
-      result.add(start(FIGURE, level));
-      result.addAll(figureLines);
-      result.add(end(FIGURE, level));
-    }
-    return result;
+  protected void serializeFigure(Figure figure, XmlStreamWriter xml) throws IOException {
+    // Wrap the serialization with a tag that describes a figure (if it is not empty).
+    xml.startElement(FIGURE, true);
+    serializePdfElement(figure, xml);
+    xml.endElement();
   }
 
   // ==============================================================================================
@@ -443,48 +392,34 @@ public class PdfXmlSerializer implements PdfSerializer {
   /**
    * Serializes the shapes of the given PDF document.
    * 
-   * @param level The current indentation level.
-   * @param pdf   The PDF document to process.
-   * 
-   * @return A list of strings that represent the lines of the serialization.
+   * @param pdf The PDF document to process.
+   * @param xml The XML writer.
+   *
+   * @throws IOException If writing failed.
    */
-  protected List<String> serializeShapes(int level, Document pdf) {
-    List<String> result = new ArrayList<>();
-
-    if (pdf != null) {
-      result.add(start(SHAPES, level));
-      for (Page page : pdf.getPages()) {
-        for (Shape shape : page.getShapes()) {
-          List<String> shapeLines = serializeShape(level + 1, shape);
-          if (shapeLines != null) {
-            result.addAll(shapeLines);
-          }
-        }
+  protected void serializeShapes(Document pdf, XmlStreamWriter xml) throws IOException {
+    xml.startElement(SHAPES);
+    for (Page page : pdf.getPages()) {
+      for (Shape shape : page.getShapes()) {
+        serializeShape(shape, xml);
       }
-      result.add(end(SHAPES, level));
     }
-
-    return result;
+    xml.endElement();
   }
 
   /**
    * Serializes the given shape.
    * 
-   * @param level  The current indentation level.
    * @param shape The shape to serialize.
+   * @param xml   The XML writer.
    *
-   * @return A list of strings that represent the lines of the serialization.
+   * @throws IOException If writing failed.
    */
-  protected List<String> serializeShape(int level, Shape shape) {
-    List<String> result = new ArrayList<>();
-    List<String> shapeLines = serializePdfElement(level + 1, shape);
-    // Wrap the serialized lines with a tag that describes a shape.
-    if (shapeLines != null && !shapeLines.isEmpty()) {
-      result.add(start(SHAPE, level));
-      result.addAll(shapeLines);
-      result.add(end(SHAPE, level));
-    }
-    return result;
+  protected void serializeShape(Shape shape, XmlStreamWriter xml) throws IOException {
+    // Wrap the serialization with a tag that describes a shape (if it is not empty).
+    xml.startElement(SHAPE, true);
+    serializePdfElement(shape, xml);
+    xml.endElement();
   }
 
   // ==============================================================================================
@@ -492,101 +427,92 @@ public class PdfXmlSerializer implements PdfSerializer {
   /**
    * Serializes the given PDF element.
    * 
-   * @param level   The current indentation level.
    * @param element The PDF element to serialize.
-   * 
-   * @return A list of strings that represent the lines of the serialization.
+   * @param xml     The XML writer.
+   *
+   * @throws IOException If writing failed.
    */
-  protected List<String> serializePdfElement(int level, Element element) {
-    List<String> result = new ArrayList<>();
-
-    if (element != null) {
-      // Serialize the list of positions of the element, if there is any.
-      if (element instanceof HasPositions) {
-        HasPositions hasPositions = (HasPositions) element;
-        List<Position> positions = hasPositions.getPositions();
-
-        List<String> serialized = serializePositions(level + 1, positions);
-        if (serialized != null && !serialized.isEmpty()) {
-          result.add(start(POSITIONS, level));
-          result.addAll(serialized);
-          result.add(end(POSITIONS, level));
-        }
-      }
+  protected void serializePdfElement(Element element, XmlStreamWriter xml) throws IOException {
+    if (element == null) {
+      return;
+    }
 
-      // Serialize the single position of the element, if there is any.
-      if (element instanceof HasPosition) {
-        HasPosition hasPosition = (HasPosition) element;
-        Position position = hasPosition.getPosition();
+    // Serialize the list of positions of the element, if there is any.
+    if (element instanceof HasPositions) {
+      HasPositions hasPositions = (HasPositions) element;
+      List<Position> positions = hasPositions.getPositions();
 
-        List<String> serialized = serializePosition(level + 1, position);
-        if (serialized != null) {
-          result.add(start(POSITIONS, level));
-          result.addAll(serialized);
-          result.add(end(POSITIONS, level));
-        }
-      }
+      xml.startElement(POSITIONS, true);
+      serializePositions(positions, xml);
+      xml.endElement();
+    }
 
-      // Serialize the role of the element, if there is any.
-      if (element instanceof HasSemanticRole) {
-        HasSemanticRole hasRole = (HasSemanticRole) element;
-        SemanticRole role = hasRole.getSemanticRole();
+    // Serialize the single position of the element, if there is any.
+    if (element instanceof HasPosition) {
+      HasPosition hasPosition = (HasPosition) element;
+      Position position = hasPosition.getPosition();
 
-        if (role != null) {
-          result.add(start(ROLE, level) + text(role.getName()) + end(ROLE));
-        }
+      xml.startElement(POSITIONS);
+      serializePosition(position, xml);
+      xml.endElement();
+    }
+
+    // Serialize the role of the element, if there is any.
+    if (element instanceof HasSemanticRole) {
+      HasSemanticRole hasRole = (HasSemanticRole) element;
+      SemanticRole role = hasRole.getSemanticRole();
+
+      if (role != null) {
+        xml.element(ROLE, role.getName());
       }
+    }
 
-      // Serialize the font face of the element, if there is any.
-      if (element instanceof HasFontFace) {
-        HasFontFace hasFontFace = (HasFontFace) element;
-        FontFace fontFace = hasFontFace.getFontFace();
-
-        if (fontFace != null) {
-          Font font = fontFace.getFont();
-          if (font != null) {
-            String fontId = font.getId();
-            float size = fontFace.getFontSize();
-            if (fontId != null && size > 0) {
-              result.add(start(FONT, level++));
-              result.add(start(ID, level) + text(fontId) + end(ID));
-              result.add(start(FONTSIZE, level) + text(size) + end(FONTSIZE));
-              result.add(end(FONT, --level));
-              this.usedFonts.add(font);
-            }
+    // Serialize the font face of the element, if there is any.
+    if (element instanceof HasFontFace) {
+      HasFontFace hasFontFace = (HasFontFace) element;
+      FontFace fontFace = hasFontFace.getFontFace();
+
+      if (fontFace != null) {
+        Font font = fontFace.getFont();
+        if (font != null) {
+          String fontId = font.getId();
+          float size = fontFace.getFontSize();
+          if (fontId != null && size > 0) {
+            xml.startElement(FONT);
+            xml.element(ID, fontId);
+            xml.element(FONTSIZE, size);
+            xml.endElement();
+            this.usedFonts.add(font);
           }
         }
       }
+    }
 
-      // Serialize the color of the element, if there is any.
-      if (element instanceof HasColor) {
-        HasColor hasColor = (HasColor) element;
-        Color color = hasColor.getColor();
-
-        if (color != null) {
-          String colorId = color.getId();
-          if (colorId != null) {
-            result.add(start(COLOR, level++));
-            result.add(start(ID, level) + text(colorId) + end(ID));
-            result.add(end(COLOR, --level));
-            this.usedColors.add(color);
-          }
+    // Serialize the color of the element, if there is any.
+    if (element instanceof HasColor) {
+      HasColor hasColor = (HasColor) element;
+      Color color = hasColor.getColor();
+
+      if (color != null) {
+        String colorId = color.getId();
+        if (colorId != null) {
+          xml.startElement(COLOR);
+          xml.element(ID, colorId);
+          xml.endElement();
+          this.usedColors.add(color);
         }
       }
+    }
 
-      // Serialize the text of the element, if there is any.
-      if (element instanceof HasText) {
-        HasText hasText = (HasText) element;
-        String text = hasText.getText();
+    // Serialize the text of the element, if there is any.
+    if (element instanceof HasText) {
+      HasText hasText = (HasText) element;
+      CharSequence text = hasText.getTextView();
 
-        if (text != null) {
-          result.add(start(TEXT, level) + text(text) + end(TEXT));
-        }
+      if (text != null) {
+        xml.element(TEXT, text);
       }
-      
     }
-
-    return result;
   }
 
   // ==============================================================================================
@@ -594,132 +520,89 @@ public class PdfXmlSerializer implements PdfSerializer {
   /**
    * Serializes the given list of PDF positions.
    * 
-   * @param level The current indentation level.
-   * @param pos   The positions to serialize.
-   * 
-   * @return A list of strings that represent the lines of the serialization.
-   */
-  protected List<String> serializePositions(int level, Position... pos) {
-    return serializePositions(level, Arrays.asList(pos));
-  }
-
-  /**
-   * Serializes the given list of PDF positions.
-   * 
-   * @param level The current indentation level.
-   * @param pos   The list of positions to serialize.
-   * 
-   * @return A list of strings that represent the lines of the serialization.
+   * @param pos The positions to serialize.
+   * @param xml The XML writer.
+   *
+   * @throws IOException If writing failed.
    */
-  protected List<String> serializePositions(int level, List<Position> pos) {
-    List<String> result = new ArrayList<>();
+  protected void serializePositions(List<Position> pos, XmlStreamWriter xml) throws IOException {
     if (pos != null) {
       for (Position position : pos) {
-        List<String> positionLines = serializePosition(level, position);
-        if (positionLines != null) {
-          result.addAll(positionLines);
-        }
+        serializePosition(position, xml);
       }
     }
-    return result;
   }
 
   /**
    * Serializes the given PDF position.
    * 
-   * @param level    The current indentation level.
    * @param position The position to serialize.
-   * 
-   * @return A list of strings that represent the lines of the serialization.
+   * @param xml      The XML writer.
+   *
+   * @throws IOException If writing failed.
    */
-  protected List<String> serializePosition(int level, Position position) {
-    List<String> result = new ArrayList<>();
-
+  protected void serializePosition(Position position, XmlStreamWriter xml) throws IOException {
     if (position != null) {
       Page page = position.getPage();
       int pageNumber = page.getPageNumber();
       Rectangle rect = position.getRectangle();
 
       if (pageNumber > 0 && rect != null) {
-        result.add(start(POSITION, level++));
-
-        result.add(start(PAGE, level) + text(pageNumber) + end(PAGE));
-        result.add(start(MIN_X, level) + text(rect.getMinX()) + end(MIN_X));
-        result.add(start(MIN_Y, level) + text(rect.getMinY()) + end(MIN_Y));
-        result.add(start(MAX_X, level) + text(rect.getMaxX()) + end(MAX_X));
-        result.add(start(MAX_Y, level) + text(rect.getMaxY()) + end(MAX_Y));
-
-        result.add(end(POSITION, --level));
+        xml.startElement(POSITION);
+        xml.element(PAGE, pageNumber);
+        xml.element(MIN_X, rect.getMinX());
+        xml.element(MIN_Y, rect.getMinY());
+        xml.element(MAX_X, rect.getMaxX());
+        xml.element(MAX_Y, rect.getMaxY());
+        xml.endElement();
       }
     }
-
-    return result;
   }
 
   // ==============================================================================================
 
-  /**
-   * Serializes the given fonts.
-   * 
-   * @param level The current indentation level.
-   * @param fonts The fonts to serialize.
-   * 
-   * @return A list of strings that represent the lines of the serialization.
-   */
-  protected List<String> serializeFonts(int level, Font... fonts) {
-    return serializeFonts(level, new HashSet<>(Arrays.asList(fonts)));
-  }
-
   /**
    * Serializes the given fonts.
    *
-   * @param level The current indentation level.
    * @param fonts The fonts to serialize.
-   * 
-   * @return A list of strings that represent the lines of the serialization.
+   * @param xml   The XML writer.
+   *
+   * @throws IOException If writing failed.
    */
-  protected List<String> serializeFonts(int level, Set<Font> fonts) {
-    List<String> result = new ArrayList<>();
+  protected void serializeFonts(Set<Font> fonts, XmlStreamWriter xml) throws IOException {
     if (fonts != null) {
       for (Font font : fonts) {
-        List<String> fontLines = serializeFont(level, font);
-        if (fontLines != null) {
-          result.addAll(fontLines);
-        }
+        serializeFont(font, xml);
       }
     }
-    return result;
   }
 
   /**
    * Serializes the given font.
    * 
-   * @param level The current indentation level.
-   * @param font  The font to serialize.
-   * 
-   * @return A list of strings that represent the lines of the serialization.
+   * @param font The font to serialize.
+   * @param xml  The XML writer.
+   *
+   * @throws IOException If writing failed.
    */
-  protected List<String> serializeFont(int level, Font font) {
-    List<String> result = new ArrayList<>();
+  protected void serializeFont(Font font, XmlStreamWriter xml) throws IOException {
     if (font != null) {
+      xml.startElement(FONT);
       String fontId = font.getId();
-      result.add(start(FONT, level++));
       if (fontId != null) {
-        result.add(start(ID, level) + text(fontId) + end(ID));
+        xml.element(ID, fontId);
       }
 
       String fontName = font.getNormalizedName();
       if (fontName != null) {
-        result.add(start(NAME, level) + text(fontName) + end(NAME));
+        xml.element(NAME, fontName);
       }
 
-      result.add(start(IS_BOLD, level) + text(font.isBold()) + end(IS_BOLD));
-      result.add(start(IS_ITALIC, level) + text(font.isItalic()) + end(IS_ITALIC));
-      result.add(start(IS_TYPE3, level) + text(font.isType3Font()) + end(IS_TYPE3));
-
-      result.add(end(FONT, --level));
+      xml.element(IS_BOLD, font.isBold());
+      xml.element(IS_ITALIC, font.isItalic());
+      xml.element(IS_TYPE3, font.isType3Font());
+      xml.endElement();
     }
-    return result;
   }
 
   // ==============================================================================================
@@ -728,62 +611,40 @@ public class PdfXmlSerializer implements PdfSerializer {
   /**
    * Serializes the given colors.
    * 
-   * @param level  The current indentation level.
-   * @param colors The colors to serialize.
-   * 
-   * @return A list of strings that represent the lines of the serialization.
-   */
-  protected List<String> serializeColors(int level, Color... colors) {
-    return serializeColors(level, new HashSet<>(Arrays.asList(colors)));
-  }
-
-  /**
-   * Serializes the given colors.
-   * 
-   * @param level  The current indentation level.
    * @param colors The colors to serialize.
-   * 
-   * @return A list of strings that represent the lines of the serialization.
+   * @param xml    The XML writer.
+   *
+   * @throws IOException If writing failed.
    */
-  protected List<String> serializeColors(int level, Set<Color> colors) {
-    List<String> result = new ArrayList<>();
-
+  protected void serializeColors(Set<Color> colors, XmlStreamWriter xml) throws IOException {
     if (colors != null) {
       for (Color color : colors) {
-        if (color != null) {
-          List<String> colorLines = serializeColor(level, color);
-          if (colorLines != null) {
-            result.addAll(colorLines);
-          }
-        }
+        serializeColor(color, xml);
       }
     }
-    return result;
   }
 
   /**
    * Serializes the given color.
    * 
-   * @param level The current indentation level.
    * @param color The color to serialize.
-   * 
-   * @return A list of strings that represent the lines of the serialization.
+   * @param xml   The XML writer.
+   *
+   * @throws IOException If writing failed.
    */
-  protected List<String> serializeColor(int level, Color color) {
-    List<String> result = new ArrayList<>();
+  protected void serializeColor(Color color, XmlStreamWriter xml) throws IOException {
     if (color != null) {
       int[] rgb = color.getRGB();
 
       if (rgb != null && rgb.length == 3) {
-        result.add(start(COLOR, level++));
-        result.add(start(ID, level) + text(color.getId()) + end(ID));
-        result.add(start(R, level) + text(rgb[0]) + end(R));
-        result.add(start(G, level) + text(rgb[1]) + end(G));
-        result.add(start(B, level) + text(rgb[2]) + end(B));
-        result.add(end(COLOR, --level));
+        xml.startElement(COLOR);
+        xml.element(ID, color.getId());
+        xml.element(R, rgb[0]);
+        xml.element(G, rgb[1]);
+        xml.element(B, rgb[2]);
+        xml.endElement();
       }
     }
-    return result;
   }
 
   // ==============================================================================================
@@ -792,133 +653,35 @@ public class PdfXmlSerializer implements PdfSerializer {
   /**
    * Serializes the metadata of the given pages.
    * 
-   * @param level The current indentation level.
-   * @param pages The pages to serialize.
-   * 
-   * @return A list of strings that represent the lines of the serialization.
-   */
-  protected List<String> serializePages(int level, Page... pages) {
-    return serializePages(level, Arrays.asList(pages));
-  }
-
-  /**
-   * Serializes the metadata of the given pages.
-   * 
-   * @param level The current indentation level.
    * @param pages The pages to serialize.
-   * 
-   * @return A list of strings that represent the lines of the serialization.
+   * @param xml   The XML writer.
+   *
+   * @throws IOException If writing failed.
    */
-  protected List<String> serializePages(int level, List<Page> pages) {
-    List<String> result = new ArrayList<>();
-
+  protected void serializePages(List<Page> pages, XmlStreamWriter xml) throws IOException {
     if (pages != null) {
       for (Page page : pages) {
-        if (page != null) {
-          List<String> pageLines = serializePage(level, page);
-          if (pageLines != null) {
-            result.addAll(pageLines);
-          }
-        }
+        serializePage(page, xml);
       }
     }
-    return result;
   }
 
   /**
    * Serializes the metadata of the given page.
    * 
-   * @param level The current indentation level.
-   * @param page  The page to serialize.
-   * 
-   * @return A list of strings that represent the lines of the serialization.
+   * @param page The page to serialize.
+   * @param xml  The XML writer.
+   *
+   * @throws IOException If writing failed.
    */
-  protected List<String> serializePage(int level, Page page) {
-    List<String> result = new ArrayList<>();
+  protected void serializePage(Page page, XmlStreamWriter xml) throws IOException {
     if (page != null) {
-      result.add(start(PAGE, level++));
-      result.add(start(ID, level) + text(page.getPageNumber()) + end(ID));
-      result.add(start(WIDTH, level) + text(page.getWidth()) + end(WIDTH));
-      result.add(start(HEIGHT, level) + text(page.getHeight()) + end(HEIGHT));
-      result.add(end(PAGE, --level));
+      xml.startElement(PAGE);
+      xml.element(ID, page.getPageNumber());
+      xml.element(WIDTH, page.getWidth());
+      xml.element(HEIGHT, page.getHeight());
+      xml.endElement();
     }
-    return result;
-  }
-
-  // ==============================================================================================
-
-  /**
-   * Wraps the given text in an XML start tag.
-   * 
-   * @param text The text to wrap.
-   * 
-   * @return The given text wrapped in an XML start tag.
-   */
-  protected String startTag(String text) {
-    return start(text, 0);
-  }
-
-  /**
-   * Wraps the given text in an XML start tag and indents it by the given indentation level.
-   * 
-   * @param text  The text to wrap.
-   * @param level The indentation level.
-   * 
-   * @return The given text wrapped in an XML start tag, indented by the given indentation level.
-   */
-  protected String start(String text, int level) {
-    String indent = repeat(" ", level * INDENT_LENGTH);
-    return indent + "<" + text + ">";
-  }
-
-  /**
-   * Wraps the given text in an XML end tag.
-   * 
-   * @param text The text to wrap.
-   * 
-   * @return The given text wrapped in an XML end tag.
-   */
-  protected String end(String text) {
-    return end(text, 0);
-  }
-
-  /**
-   * Wraps the given text in an XML end tag and indents it by the given indentation level.
-   * 
-   * @param text  The text to wrap.
-   * @param level The indentation level.
-   * 
-   * @return The given text wrapped in an XML end tag, indented by the given indentation level.
-   */
-  protected String end(String text, int level) {
-    String indent = repeat(" ", level * INDENT_LENGTH);
-    return indent + "</" + text + ">";
-  }
-
-  /**
-   * Transform the given object to an XML escaped string.
-   * 
-   * @param obj The object to process.
-   * 
-   * @return The XML escaped string.
-   */
-  protected String text(Object obj) {
-    return text(obj, 0);
-  }
-
-  /**
-   * Transform the given object to an XML escaped string and indents it by the given indentation
-   * level.
-   * 
-   * @param obj   The object to process.
-   * @param level The indentation level.
-   *
-   * @return The XML escaped string, indented by the given indentation level.
-   */
-  protected String text(Object obj, int level) {
-    String indent = repeat(" ", level * INDENT_LENGTH);
-    String text = StringEscapeUtils.escapeXml11(obj.toString());
-    return indent + text;
   }
 
   // ==============================================================================================
@@ -975,60 +738,33 @@ public class PdfXmlSerializer implements PdfSerializer {
 
   // ==============================================================================================
 
-  /**
-   * Repeats the given string $repeats-times.
-   * 
-   * @param string  The string to repeat.
-   * @param repeats The number of repeats.
-   * @return The string containing the given string $repeats-times.
-   */
-  public static String repeat(String string, int repeats) {
-    StringBuilder sb = new StringBuilder();
-    for (int i = 0; i < repeats; i++) {
-      sb.append(string);
-    }
-    return sb.toString();
-  }
-
-  // ==============================================================================================
-
   /**
    * Serializes the given text block.
    * 
-   * @param level The current indentation level.
    * @param block The text block to serialize.
-   * 
-   * @return A list of strings that represent the lines of the serialization.
+   * @param xml   The XML writer.
+   *
+   * @throws IOException If writing failed.
    */
-  protected List<String> serializeTextBlock(int level, TextBlock block) {
-    List<String> result = new ArrayList<>();
-    List<String> blockLines = serializePdfElement(level + 1, block);
-    // Wrap the serialized lines with a tag that describe a text block.
-    if (blockLines != null && !blockLines.isEmpty()) {
-      result.add(start(TEXT_BLOCK, level));
-      result.addAll(blockLines);
-      result.add(end(TEXT_BLOCK, level));
-    }
-    return result;
+  protected void serializeTextBlock(TextBlock block, XmlStreamWriter xml) throws IOException {
+    // Wrap the serialization with a tag that describes a text block (if it is not empty).
+    xml.startElement(TEXT_BLOCK, true);
+    serializePdfElement(block, xml);
+    xml.endElement();
   }
 
   /**
    * Serializes the given text line.
    * 
-   * @param level The current indentation level.
-   * @param line  The text line to serialize.
-   * 
-   * @return A list of strings that represent the lines of the serialization.
+   * @param line The text line to serialize.
+   * @param xml  The XML writer.
+   *
+   * @throws IOException If writing failed.
    */
-  protected List<String> serializeTextLine(int level, TextLine line) {
-    List<String> result = new ArrayList<>();
-    List<String> lineLines = serializePdfElement(level + 1, line);
-    // Wrap the serialized lines with a tag that describes a text line.
-    if (lineLines != null && !lineLines.isEmpty()) {
-      result.add(start(TEXT_LINE, level));
-      result.addAll(lineLines);
-      result.add(end(TEXT_LINE, level));
-    }
-    return result;
+  protected void serializeTextLine(TextLine line, XmlStreamWriter xml) throws IOException {
+    // Wrap the serialization with a tag that describes a text line (if it is not empty).
+    xml.startElement(TEXT_LINE, true);
+    serializePdfElement(line, xml);
+    xml.endElement();
   }
 }
@@ -1,9 +1,12 @@
 package pdfact.cli.pipes.serialize;
 
 import static pdfact.cli.PdfActCliSettings.DEFAULT_EXTRACTION_UNITS;
+import static pdfact.cli.PdfActCliSettings.DEFAULT_PRETTY_PRINT;
 import static pdfact.cli.PdfActCliSettings.DEFAULT_SEMANTIC_ROLES;
 import static pdfact.cli.PdfActCliSettings.DEFAULT_SERIALIZE_FORMAT;
 import static pdfact.cli.PdfActCliSettings.DEFAULT_WITH_CONTROL_CHARACTERS;
+import static pdfact.cli.PdfActCliSettings.DEFAULT_WITH_PAGE_BOUNDARIES;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.file.Files;
@@ -14,6 +17,7 @@ import org.apache.logging.log4j.Logger;
 import pdfact.cli.model.ExtractionUnit;
 import pdfact.cli.model.SerializationFormat;
 import pdfact.cli.util.exception.PdfActSerializeException;
+import pdfact.cli.util.io.TeeOutputStream;
 import pdfact.core.model.Document;
 import pdfact.core.model.SemanticRole;
 import pdfact.core.util.exception.PdfActException;
@@ -66,6 +70,17 @@ public class PlainSerializePdfPipe implements SerializePdfPipe {
    */
   protected boolean isPdfJsMode;
 
+  /**
+   * The boolean flag indicating whether or not the JSON serialization should be pretty-printed.
+   */
+  protected boolean prettyPrint;
+
+  /**
+   * The boolean flag indicating whether or not the TXT serialization should contain a page
+   * boundary ("^L") after the elements of each page.
+   */
+  protected boolean withPageBoundaries;
+
   // ==============================================================================================
 
   /**
@@ -76,6 +91,8 @@ public class PlainSerializePdfPipe implements SerializePdfPipe {
     this.extractionUnits = DEFAULT_EXTRACTION_UNITS;
     this.semanticRolesToInclude = DEFAULT_SEMANTIC_ROLES;
     this.withControlCharacters = DEFAULT_WITH_CONTROL_CHARACTERS;
+    this.prettyPrint = DEFAULT_PRETTY_PRINT;
+    this.withPageBoundaries = DEFAULT_WITH_PAGE_BOUNDARIES;
   }
 
   // ==============================================================================================
@@ -112,11 +129,22 @@ public class PlainSerializePdfPipe implements SerializePdfPipe {
         serializer = new PdfXmlSerializer(this.extractionUnits, this.semanticRolesToInclude);
         break;
       case JSON:
-        serializer = new PdfJsonSerializer(this.extractionUnits, this.semanticRolesToInclude);
+        PdfJsonSerializer jsonSerializer =
+            new PdfJsonSerializer(this.extractionUnits, this.semanticRolesToInclude);
+        jsonSerializer.setPrettyPrint(this.prettyPrint);
+        serializer = jsonSerializer;
+        break;
+      case JSONL:
+        serializer = new PdfJsonLinesSerializer(this.extractionUnits, this.semanticRolesToInclude);
         break;
       case TXT:
-        serializer = new PdfTxtSerializer(this.withControlCharacters, this.extractionUnits,
-                this.semanticRolesToInclude);
+        PdfTxtSerializer txtSerializer = new PdfTxtSerializer(this.withControlCharacters,
+                this.extractionUnits, this.semanticRolesToInclude);
+        txtSerializer.setWithPageBoundaries(this.withPageBoundaries);
+        serializer = txtSerializer;
+        break;
+      case BIN:
+        serializer = new PdfBinarySerializer(this.extractionUnits, this.semanticRolesToInclude);
         break;
       default:
         throw new PdfActSerializeException(
@@ -128,47 +156,20 @@ public class PlainSerializePdfPipe implements SerializePdfPipe {
       serializer = new PdfJsSerializer();
     }
 
-    // Serialize the PDF document.
-    byte[] serialization = serializer.serialize(pdf);
-
-    // If the target is given as a stream, write the serialization it.
-    if (this.targetStream != null) {
-      writeToStream(serialization, this.targetStream);
-    }
-
-    // If the target is given as a file, open it and write the serialization.
+    // Serialize the PDF document directly to the target(s). If the target is given as a stream
+    // and as a file, write the serialization to both at once.
     if (this.targetPath != null) {
-      writeToPath(serialization, this.targetPath);
-    }
-  }
-
-  /**
-   * Writes the given bytes to the given output stream.
-   *
-   * @param bytes  The bytes to write.
-   * @param stream The stream to write to.
-   * @throws PdfActSerializeException If something went wrong while writing the bytes to the stream.
-   */
-  protected void writeToStream(byte[] bytes, OutputStream stream) throws PdfActSerializeException {
-    try {
-      stream.write(bytes);
-    } catch (IOException e) {
-      throw new PdfActSerializeException("Couldn't write to output stream.", e);
-    }
-  }
-
-  /**
-   * Writes the given bytes to the given file.
-   *
-   * @param bytes The bytes to write.
-   * @param path  The file to write to.
-   * @throws PdfActSerializeException If something went wrong while writing the bytes to the stream.
-   */
-  protected void writeToPath(byte[] bytes, Path path) throws PdfActSerializeException {
-    try (OutputStream os = Files.newOutputStream(path)) {
-      os.write(bytes);
-    } catch (IOException e) {
-      throw new PdfActSerializeException("Couldn't write to file.");
+      try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(this.targetPath))) {
+        OutputStream target = os;
+        if (this.targetStream != null) {
+          target = new TeeOutputStream(this.targetStream, os);
+        }
+        serializer.serialize(pdf, target);
+      } catch (IOException e) {
+        throw new PdfActSerializeException("Couldn't write to file.", e);
+      }
+    } else if (this.targetStream != null) {
+      serializer.serialize(pdf, this.targetStream);
     }
   }
 
@@ -255,4 +256,28 @@ public class PlainSerializePdfPipe implements SerializePdfPipe {
   public void setIsPdfJsMode(boolean isPdfJsMode) {
     this.isPdfJsMode = isPdfJsMode;
   }
+
+  // ==============================================================================================
+
+  @Override
+  public boolean isPrettyPrint() {
+    return this.prettyPrint;
+  }
+
+  @Override
+  public void setPrettyPrint(boolean prettyPrint) {
+    this.prettyPrint = prettyPrint;
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public boolean isWithPageBoundaries() {
+    return this.withPageBoundaries;
+  }
+
+  @Override
+  public void setWithPageBoundaries(boolean withPageBoundaries) {
+    this.withPageBoundaries = withPageBoundaries;
+  }
 }
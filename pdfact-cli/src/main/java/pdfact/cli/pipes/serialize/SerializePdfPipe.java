@@ -119,4 +119,31 @@ public interface SerializePdfPipe extends Pipe {
    * Sets the boolean flag indicating whether or not the pdf.js mode is enabled.
    */
   public void setIsPdfJsMode(boolean isPdfJsMode);
+
+  // ==============================================================================================
+
+  /**
+   * Returns the boolean flag indicating whether or not the JSON serialization is pretty-printed.
+   */
+  public boolean isPrettyPrint();
+
+  /**
+   * Sets the boolean flag indicating whether or not the JSON serialization should be
+   * pretty-printed (indented, with line breaks).
+   */
+  public void setPrettyPrint(boolean prettyPrint);
+
+  // ==============================================================================================
+
+  /**
+   * Returns the boolean flag indicating whether or not the TXT serialization contains a page
+   * boundary ("^L") after the elements of each page.
+   */
+  public boolean isWithPageBoundaries();
+
+  /**
+   * Sets the boolean flag indicating whether or not the TXT serialization should contain a page
+   * boundary ("^L") after the elements of each page.
+   */
+  public void setWithPageBoundaries(boolean withPageBoundaries);
 }
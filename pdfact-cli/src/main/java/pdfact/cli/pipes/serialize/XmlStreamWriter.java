@@ -0,0 +1,488 @@
+package pdfact.cli.pipes.serialize;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import org.apache.commons.lang3.StringEscapeUtils;
+
+/**
+ * A writer that writes XML directly to an output stream, line by line, without building the
+ * lines as strings first. Each start tag, end tag and leaf element (an element with a text only)
+ * is written on a separate line, indented by the number of open elements; the lines are separated
+ * by a line delimiter (there is no delimiter after the last line). Texts are escaped like
+ * {@link StringEscapeUtils#escapeXml11(String)}.
+ *
+ * <p>
+ * The start tag of an element can be deferred until the first content is written to the
+ * element, so that elements without any content are omitted from the output.
+ *
+ * @author Claudius Korzen
+ */
+public class XmlStreamWriter {
+  /**
+   * The size of the internal buffer (in characters).
+   */
+  protected static final int BUFFER_SIZE = 8192;
+
+  /**
+   * The whitespaces to write as indentation.
+   */
+  protected static final char[] SPACES = new char[256];
+
+  static {
+    Arrays.fill(SPACES, ' ');
+  }
+
+  /**
+   * The largest number of tenths that is formatted without Float.toString() (floats below 10^6 are
+   * formatted by Float.toString() in plain notation with one decimal place, if they are equal to a
+   * multiple of 0.1 rounded to a float).
+   */
+  protected static final int MAX_FAST_TENTHS = 10_000_000;
+
+  /**
+   * The writer to which the characters are flushed.
+   */
+  protected final Writer writer;
+
+  /**
+   * The internal buffer.
+   */
+  protected final char[] buffer = new char[BUFFER_SIZE];
+
+  /**
+   * The number of characters in the internal buffer.
+   */
+  protected int bufferLength;
+
+  /**
+   * The number of whitespaces per indentation level.
+   */
+  protected final int indentLength;
+
+  /**
+   * The delimiter to write between two lines.
+   */
+  protected final String lineDelimiter;
+
+  /**
+   * The names of the open elements, from the outermost to the innermost.
+   */
+  protected String[] names = new String[16];
+
+  /**
+   * The number of open elements.
+   */
+  protected int depth;
+
+  /**
+   * The number of open elements whose start tags were already written (the start tags of the
+   * innermost depth - writtenDepth elements are deferred).
+   */
+  protected int writtenDepth;
+
+  /**
+   * Whether no line was written so far.
+   */
+  protected boolean isFirstLine = true;
+
+  // ==============================================================================================
+  // Constructors.
+
+  /**
+   * Creates a new writer that writes XML to the given stream.
+   *
+   * @param stream        The stream to write to.
+   * @param encoding      The encoding of the characters.
+   * @param indentLength  The number of whitespaces per indentation level.
+   * @param lineDelimiter The delimiter to write between two lines.
+   */
+  public XmlStreamWriter(OutputStream stream, Charset encoding, int indentLength,
+      String lineDelimiter) {
+    this.writer = new OutputStreamWriter(stream, encoding);
+    this.indentLength = indentLength;
+    this.lineDelimiter = lineDelimiter;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Opens an element with the given name and writes its start tag.
+   *
+   * @param name The name of the element.
+   *
+   * @throws IOException If writing failed.
+   */
+  public void startElement(String name) throws IOException {
+    startElement(name, false);
+  }
+
+  /**
+   * Opens an element with the given name.
+   *
+   * @param name        The name of the element.
+   * @param omitIfEmpty Whether the start tag should be deferred until the first content is written
+   *                    to the element (if no content is written, neither the start tag nor the
+   *                    end tag is written).
+   *
+   * @throws IOException If writing failed.
+   */
+  public void startElement(String name, boolean omitIfEmpty) throws IOException {
+    if (this.depth == this.names.length) {
+      this.names = Arrays.copyOf(this.names, 2 * this.depth);
+    }
+    this.names[this.depth++] = name;
+    if (!omitIfEmpty) {
+      writeDeferredStartTags();
+    }
+  }
+
+  /**
+   * Closes the current element and writes its end tag (if its start tag was written).
+   *
+   * @throws IOException If writing failed.
+   */
+  public void endElement() throws IOException {
+    this.depth--;
+    if (this.writtenDepth > this.depth) {
+      this.writtenDepth = this.depth;
+      beginLine(this.depth);
+      write("</");
+      write(this.names[this.depth]);
+      write('>');
+    }
+    this.names[this.depth] = null;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Writes an element with the given name and the given text on a single line.
+   *
+   * @param name The name of the element.
+   * @param text The text of the element.
+   *
+   * @throws IOException If writing failed.
+   */
+  public void element(String name, CharSequence text) throws IOException {
+    beginLeaf(name);
+    writeEscaped(text);
+    endLeaf(name);
+  }
+
+  /**
+   * Writes an element with the given name and the given int value on a single line.
+   *
+   * @param name  The name of the element.
+   * @param value The value of the element.
+   *
+   * @throws IOException If writing failed.
+   */
+  public void element(String name, int value) throws IOException {
+    beginLeaf(name);
+    writeInt(value);
+    endLeaf(name);
+  }
+
+  /**
+   * Writes an element with the given name and the given float value (formatted like
+   * Float.toString()) on a single line.
+   *
+   * @param name  The name of the element.
+   * @param value The value of the element.
+   *
+   * @throws IOException If writing failed.
+   */
+  public void element(String name, float value) throws IOException {
+    beginLeaf(name);
+    writeFloat(value);
+    endLeaf(name);
+  }
+
+  /**
+   * Writes an element with the given name and the given boolean value on a single line.
+   *
+   * @param name  The name of the element.
+   * @param value The value of the element.
+   *
+   * @throws IOException If writing failed.
+   */
+  public void element(String name, boolean value) throws IOException {
+    beginLeaf(name);
+    write(value ? "true" : "false");
+    endLeaf(name);
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Flushes the written characters to the underlying stream (without closing it).
+   *
+   * @throws IOException If writing failed.
+   */
+  public void flush() throws IOException {
+    flushBuffer();
+    this.writer.flush();
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Writes the deferred start tags of the open elements.
+   *
+   * @throws IOException If writing failed.
+   */
+  protected void writeDeferredStartTags() throws IOException {
+    while (this.writtenDepth < this.depth) {
+      beginLine(this.writtenDepth);
+      write('<');
+      write(this.names[this.writtenDepth]);
+      write('>');
+      this.writtenDepth++;
+    }
+  }
+
+  /**
+   * Starts a new line with the indentation of the given level.
+   *
+   * @param level The indentation level.
+   *
+   * @throws IOException If writing failed.
+   */
+  protected void beginLine(int level) throws IOException {
+    if (!this.isFirstLine) {
+      write(this.lineDelimiter);
+    }
+    this.isFirstLine = false;
+    writeIndent(level * this.indentLength);
+  }
+
+  /**
+   * Starts a new line with the start tag of a leaf element.
+   *
+   * @param name The name of the element.
+   *
+   * @throws IOException If writing failed.
+   */
+  protected void beginLeaf(String name) throws IOException {
+    writeDeferredStartTags();
+    beginLine(this.depth);
+    write('<');
+    write(name);
+    write('>');
+  }
+
+  /**
+   * Writes the end tag of a leaf element.
+   *
+   * @param name The name of the element.
+   *
+   * @throws IOException If writing failed.
+   */
+  protected void endLeaf(String name) throws IOException {
+    write("</");
+    write(name);
+    write('>');
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Writes the given float value, formatted like Float.toString(). Floats with at most one decimal
+   * place (like the coordinates in PDF documents) are formatted without allocating.
+   *
+   * @param value The value to write.
+   *
+   * @throws IOException If writing failed.
+   */
+  protected void writeFloat(float value) throws IOException {
+    int tenths = Math.round(value * 10);
+    if (tenths / 10f == value && tenths > -MAX_FAST_TENTHS && tenths < MAX_FAST_TENTHS
+        && (value != 0 || Float.floatToRawIntBits(value) == 0)) {
+      if (tenths < 0) {
+        write('-');
+        tenths = -tenths;
+      }
+      writeInt(tenths / 10);
+      write('.');
+      write((char) ('0' + tenths % 10));
+    } else {
+      write(Float.toString(value));
+    }
+  }
+
+  /**
+   * Writes the given int value.
+   *
+   * @param value The value to write.
+   *
+   * @throws IOException If writing failed.
+   */
+  protected void writeInt(int value) throws IOException {
+    if (value == Integer.MIN_VALUE) {
+      write(Integer.toString(value));
+      return;
+    }
+    if (value < 0) {
+      write('-');
+      value = -value;
+    }
+    if (this.bufferLength + 10 > this.buffer.length) {
+      flushBuffer();
+    }
+    int numDigits = 1;
+    for (int v = value; v >= 10; v /= 10) {
+      numDigits++;
+    }
+    int pos = this.bufferLength + numDigits;
+    for (int i = 0; i < numDigits; i++) {
+      this.buffer[--pos] = (char) ('0' + value % 10);
+      value /= 10;
+    }
+    this.bufferLength += numDigits;
+  }
+
+  /**
+   * Writes the given text, escaped like {@link StringEscapeUtils#escapeXml11(String)}. Texts that
+   * contain only characters that are either written as they are or replaced by one of the five
+   * predefined entities are escaped while writing; other texts (containing control characters,
+   * surrogates or non-characters) are escaped by StringEscapeUtils.
+   *
+   * @param text The text to write.
+   *
+   * @throws IOException If writing failed.
+   */
+  protected void writeEscaped(CharSequence text) throws IOException {
+    int length = text.length();
+    for (int i = 0; i < length; i++) {
+      if (isSpecialChar(text.charAt(i))) {
+        write(StringEscapeUtils.escapeXml11(text.toString()));
+        return;
+      }
+    }
+
+    for (int i = 0; i < length; i++) {
+      char c = text.charAt(i);
+      switch (c) {
+        case '&':
+          write("&amp;");
+          break;
+        case '<':
+          write("&lt;");
+          break;
+        case '>':
+          write("&gt;");
+          break;
+        case '"':
+          write("&quot;");
+          break;
+        case '\'':
+          write("&apos;");
+          break;
+        default:
+          write(c);
+      }
+    }
+  }
+
+  /**
+   * Checks if the given character is escaped by {@link StringEscapeUtils#escapeXml11(String)} in
+   * another way than by one of the five predefined entities.
+   *
+   * @param c The character to check.
+   *
+   * @return True, if the given character is a control character (other than a tab, a line feed
+   *         or a carriage return), a surrogate or a non-character; false otherwise.
+   */
+  protected static boolean isSpecialChar(char c) {
+    if (c < 0x20) {
+      return c != '\t' && c != '\n' && c != '\r';
+    }
+    if (c >= 0x7F && c <= 0x9F) {
+      return c != 0x85;
+    }
+    return (c >= 0xD800 && c <= 0xDFFF) || c >= 0xFFFE;
+  }
+
+  /**
+   * Writes the given number of whitespaces.
+   *
+   * @param num The number of whitespaces.
+   *
+   * @throws IOException If writing failed.
+   */
+  protected void writeIndent(int num) throws IOException {
+    while (num > 0) {
+      int n = Math.min(num, SPACES.length);
+      write(SPACES, n);
+      num -= n;
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Writes the given character to the internal buffer.
+   *
+   * @param c The character to write.
+   *
+   * @throws IOException If writing failed.
+   */
+  protected void write(char c) throws IOException {
+    if (this.bufferLength == this.buffer.length) {
+      flushBuffer();
+    }
+    this.buffer[this.bufferLength++] = c;
+  }
+
+  /**
+   * Writes the given string to the internal buffer.
+   *
+   * @param str The string to write.
+   *
+   * @throws IOException If writing failed.
+   */
+  protected void write(String str) throws IOException {
+    int len = str.length();
+    if (this.bufferLength + len > this.buffer.length) {
+      flushBuffer();
+      if (len > this.buffer.length) {
+        this.writer.write(str);
+        return;
+      }
+    }
+    str.getChars(0, len, this.buffer, this.bufferLength);
+    this.bufferLength += len;
+  }
+
+  /**
+   * Writes the first characters of the given array to the internal buffer.
+   *
+   * @param chars The characters to write.
+   * @param len   The number of characters to write.
+   *
+   * @throws IOException If writing failed.
+   */
+  protected void write(char[] chars, int len) throws IOException {
+    if (this.bufferLength + len > this.buffer.length) {
+      flushBuffer();
+    }
+    System.arraycopy(chars, 0, this.buffer, this.bufferLength, len);
+    this.bufferLength += len;
+  }
+
+  /**
+   * Flushes the internal buffer to the underlying writer.
+   *
+   * @throws IOException If writing failed.
+   */
+  protected void flushBuffer() throws IOException {
+    if (this.bufferLength > 0) {
+      this.writer.write(this.buffer, 0, this.bufferLength);
+      this.bufferLength = 0;
+    }
+  }
+}
@@ -0,0 +1,306 @@
+package pdfact.cli.server;
+
+import static pdfact.cli.PdfActCliSettings.DEFAULT_EXTRACTION_UNITS;
+import static pdfact.cli.PdfActCliSettings.DEFAULT_SERIALIZE_FORMAT;
+
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import pdfact.cli.PdfActCli.PdfActCommandLineParser;
+import pdfact.cli.model.ExtractionUnit;
+import pdfact.cli.model.SerializationFormat;
+import pdfact.cli.pipes.serialize.PlainSerializePdfPipe;
+import pdfact.cli.pipes.serialize.SerializePdfPipe;
+import pdfact.core.model.SemanticRole;
+
+/**
+ * The options of a single extraction request to a long-running PdfAct process. The names and
+ * values of the options mirror the options of the command line interface (for example,
+ * "format=json", "units=words,paragraphs" or "compact").
+ *
+ * @author Claudius Korzen
+ */
+public class ExtractionOptions {
+  /**
+   * The serialization format.
+   */
+  protected SerializationFormat serializationFormat = DEFAULT_SERIALIZE_FORMAT;
+
+  /**
+   * The units of text to extract.
+   */
+  protected Set<ExtractionUnit> extractionUnits = DEFAULT_EXTRACTION_UNITS;
+
+  /**
+   * The semantic roles of the text units to extract.
+   */
+  protected Set<SemanticRole> semanticRoles = new HashSet<>(Arrays.asList(SemanticRole.values()));
+
+  /**
+   * The boolean flag indicating whether or not to insert control characters into the TXT
+   * serialization.
+   */
+  protected boolean withControlCharacters;
+
+  /**
+   * The boolean flag indicating whether or not the pdf.js mode is enabled.
+   */
+  protected boolean isPdfJsMode;
+
+  /**
+   * The boolean flag indicating whether or not the JSON serialization should be written without
+   * indentation.
+   */
+  protected boolean isCompact;
+
+  /**
+   * The boolean flag indicating whether or not the TXT serialization should contain page
+   * boundaries.
+   */
+  protected boolean withPageBoundaries;
+
+  // ==============================================================================================
+
+  /**
+   * Creates the options from the given (raw, URL-encoded) query string of a URL, for example
+   * "format=json&amp;units=words,paragraphs&amp;compact".
+   *
+   * @param query The query string (may be null).
+   *
+   * @return The options.
+   *
+   * @throws IllegalArgumentException If a parameter is unknown or has an invalid value.
+   */
+  public static ExtractionOptions fromQuery(String query) {
+    Map<String, List<String>> params = new LinkedHashMap<>();
+    if (query != null) {
+      for (String param : query.split("&")) {
+        if (param.isEmpty()) {
+          continue;
+        }
+        int index = param.indexOf('=');
+        String name = decode(index < 0 ? param : param.substring(0, index));
+        String value = index < 0 ? "" : decode(param.substring(index + 1));
+        params.computeIfAbsent(name, k -> new ArrayList<>()).add(value);
+      }
+    }
+    return fromParameters(params);
+  }
+
+  /**
+   * Creates the options from the given parameters (each with a list of values). Values that are
+   * lists (like the units) may be given as multiple values or as one comma-separated value. Flags
+   * are enabled if they are given without a value or with the value "true" (or "1").
+   *
+   * @param params The parameters.
+   *
+   * @return The options.
+   *
+   * @throws IllegalArgumentException If a parameter is unknown or has an invalid value.
+   */
+  public static ExtractionOptions fromParameters(Map<String, List<String>> params) {
+    ExtractionOptions options = new ExtractionOptions();
+    List<String> excludedRoles = Collections.emptyList();
+    for (Map.Entry<String, List<String>> param : params.entrySet()) {
+      String name = param.getKey();
+      List<String> values = param.getValue();
+      switch (name) {
+        case PdfActCommandLineParser.SERIALIZE_FORMAT:
+          options.serializationFormat = SerializationFormat.fromString(getValue(name, values));
+          break;
+        case PdfActCommandLineParser.EXTRACTION_UNITS:
+          options.extractionUnits = ExtractionUnit.fromStrings(split(values));
+          break;
+        case PdfActCommandLineParser.INCLUDE_SEMANTIC_ROLES:
+          options.semanticRoles = SemanticRole.fromStrings(split(values));
+          break;
+        case PdfActCommandLineParser.EXCLUDE_SEMANTIC_ROLES:
+          excludedRoles = split(values);
+          break;
+        case PdfActCommandLineParser.WITH_CONTROL_CHARACTERS:
+          options.withControlCharacters = isEnabled(name, values);
+          break;
+        case PdfActCommandLineParser.PDFJS_MODE:
+          options.isPdfJsMode = isEnabled(name, values);
+          break;
+        case PdfActCommandLineParser.COMPACT:
+          options.isCompact = isEnabled(name, values);
+          break;
+        case PdfActCommandLineParser.WITH_PAGE_BOUNDARIES:
+          options.withPageBoundaries = isEnabled(name, values);
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown option '" + name + "'.");
+      }
+    }
+    options.semanticRoles.removeAll(SemanticRole.fromStrings(excludedRoles));
+    return options;
+  }
+
+  /**
+   * Decodes the given URL-encoded string.
+   *
+   * @param str The string to decode.
+   *
+   * @return The decoded string.
+   */
+  protected static String decode(String str) {
+    try {
+      return URLDecoder.decode(str, "UTF-8");
+    } catch (UnsupportedEncodingException e) {
+      // Every implementation of the Java platform is required to support UTF-8.
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Returns the single value of the given parameter.
+   *
+   * @param name   The name of the parameter.
+   * @param values The values of the parameter.
+   *
+   * @return The value.
+   */
+  protected static String getValue(String name, List<String> values) {
+    if (values == null || values.size() != 1 || values.get(0).isEmpty()) {
+      throw new IllegalArgumentException("The option '" + name + "' requires a single value.");
+    }
+    return values.get(0);
+  }
+
+  /**
+   * Splits the given values at commas.
+   *
+   * @param values The values.
+   *
+   * @return The split values (without empty values).
+   */
+  protected static List<String> split(List<String> values) {
+    List<String> result = new ArrayList<>();
+    if (values != null) {
+      for (String value : values) {
+        for (String part : value.split(",")) {
+          if (!part.trim().isEmpty()) {
+            result.add(part.trim());
+          }
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Checks if the given flag is enabled.
+   *
+   * @param name   The name of the flag.
+   * @param values The values of the flag.
+   *
+   * @return True, if the flag is enabled; false otherwise.
+   */
+  protected static boolean isEnabled(String name, List<String> values) {
+    if (values == null || values.isEmpty()) {
+      return true;
+    }
+    String value = values.get(values.size() - 1).toLowerCase();
+    switch (value) {
+      case "":
+      case "true":
+      case "1":
+        return true;
+      case "false":
+      case "0":
+        return false;
+      default:
+        throw new IllegalArgumentException("The option '" + name + "' requires a boolean value.");
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Creates a pipe that serializes a PDF document according to these options.
+   *
+   * @param stream The stream to which the serialization should be written.
+   *
+   * @return The pipe.
+   */
+  public SerializePdfPipe createSerializePipe(OutputStream stream) {
+    SerializePdfPipe pipe = new PlainSerializePdfPipe();
+    pipe.setSerializationFormat(this.serializationFormat);
+    pipe.setExtractionUnits(this.extractionUnits);
+    pipe.setSemanticRolesToInclude(this.semanticRoles);
+    pipe.setWithControlCharacters(this.withControlCharacters);
+    pipe.setIsPdfJsMode(this.isPdfJsMode);
+    pipe.setPrettyPrint(!this.isCompact);
+    pipe.setWithPageBoundaries(this.withPageBoundaries);
+    pipe.setTargetStream(stream);
+    return pipe;
+  }
+
+  /**
+   * Returns the media type of the serialization.
+   *
+   * @return The media type.
+   */
+  public String getMediaType() {
+    if (this.isPdfJsMode) {
+      return "application/json";
+    }
+    switch (this.serializationFormat) {
+      case JSON:
+        return "application/json";
+      case JSONL:
+        return "application/x-ndjson";
+      case XML:
+        return "application/xml";
+      case BIN:
+        return "application/octet-stream";
+      case TXT:
+      default:
+        return "text/plain; charset=utf-8";
+    }
+  }
+
+  /**
+   * Returns the file extension of the serialization.
+   *
+   * @return The file extension (without the leading dot).
+   */
+  public String getFileExtension() {
+    if (this.isPdfJsMode) {
+      return "json";
+    }
+    return this.serializationFormat.name().toLowerCase();
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the serialization format.
+   */
+  public SerializationFormat getSerializationFormat() {
+    return this.serializationFormat;
+  }
+
+  /**
+   * Returns the units of text to extract.
+   */
+  public Set<ExtractionUnit> getExtractionUnits() {
+    return this.extractionUnits;
+  }
+
+  /**
+   * Returns the semantic roles of the text units to extract.
+   */
+  public Set<SemanticRole> getSemanticRoles() {
+    return this.semanticRoles;
+  }
+}
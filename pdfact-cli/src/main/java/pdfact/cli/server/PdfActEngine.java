@@ -0,0 +1,84 @@
+package pdfact.cli.server;
+
+import java.io.OutputStream;
+import java.nio.file.Path;
+import pdfact.cli.PdfAct;
+import pdfact.core.model.Document;
+import pdfact.core.util.cache.PageCache;
+import pdfact.core.util.exception.PdfActException;
+
+/**
+ * The engine of a long-running PdfAct process, which processes PDF files on behalf of multiple
+ * requests. The parsing of a PDF file is separated from its serialization, so that a caller can
+ * react to a PDF file that couldn't be parsed before writing any output. The engine is
+ * thread-safe; all requests share the same (optional) page cache.
+ *
+ * @author Claudius Korzen
+ */
+public class PdfActEngine {
+  /**
+   * The page cache shared by all requests (null if no page cache should be used).
+   */
+  protected PageCache pageCache;
+
+  // ==============================================================================================
+  // Constructors.
+
+  /**
+   * Creates a new engine without a page cache.
+   */
+  public PdfActEngine() {
+    this(null);
+  }
+
+  /**
+   * Creates a new engine.
+   *
+   * @param pageCache The page cache shared by all requests (null if no page cache should be used).
+   */
+  public PdfActEngine(PageCache pageCache) {
+    this.pageCache = pageCache;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Parses the given PDF file (and identifies its text units and their semantic roles).
+   *
+   * @param pdfPath The path to the PDF file.
+   *
+   * @return The parsed PDF document.
+   *
+   * @throws PdfActException If the PDF file couldn't be parsed.
+   */
+  public Document parse(Path pdfPath) throws PdfActException {
+    PdfAct pdfAct = new PdfAct();
+    pdfAct.setPageCache(this.pageCache);
+    return pdfAct.parse(pdfPath);
+  }
+
+  /**
+   * Serializes the given (parsed) PDF document according to the given options.
+   *
+   * @param pdf     The PDF document.
+   * @param options The options.
+   * @param stream  The stream to which the serialization should be written.
+   *
+   * @throws PdfActException If the PDF document couldn't be serialized.
+   */
+  public void serialize(Document pdf, ExtractionOptions options, OutputStream stream)
+      throws PdfActException {
+    options.createSerializePipe(stream).execute(pdf);
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the page cache shared by all requests (null if no page cache is used).
+   *
+   * @return The page cache.
+   */
+  public PageCache getPageCache() {
+    return this.pageCache;
+  }
+}
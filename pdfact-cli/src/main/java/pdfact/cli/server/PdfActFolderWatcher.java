@@ -0,0 +1,461 @@
+package pdfact.cli.server;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pdfact.core.model.Document;
+import pdfact.core.util.exception.PdfActException;
+
+/**
+ * A long-running PdfAct process that watches a directory for new PDF files (by a
+ * {@link WatchService}, instead of listing the whole directory repeatedly) and processes each PDF
+ * file as soon as it was completely written.
+ *
+ * <ul>
+ * <li>On startup, the directory is scanned once for PDF files that were added while the process
+ * wasn't running (and on an overflow of the events of the watch service, too).</li>
+ * <li>A PDF file is considered to be completely written when its size and its modification time
+ * didn't change for a given time (the settle time).</li>
+ * <li>The PDF files are processed in parallel by a fixed number of threads.</li>
+ * <li>The serialization is written to a temporary file in the output directory first, which is
+ * then moved atomically to the output file, so that consumers never see partial outputs.</li>
+ * <li>The modification time of an output file is set to the modification time of the processed
+ * version of the PDF file. A PDF file is processed if its output file doesn't exist or has another
+ * modification time (so that a PDF file that is modified or replaced, even while it is processed,
+ * is processed again). A PDF file that couldn't be processed is not processed again until it is
+ * modified.</li>
+ * </ul>
+ *
+ * @author Claudius Korzen
+ */
+public class PdfActFolderWatcher {
+  /**
+   * The logger.
+   */
+  protected static Logger log = LogManager.getLogger(PdfActFolderWatcher.class);
+
+  /**
+   * The engine processing the PDF files.
+   */
+  protected PdfActEngine engine;
+
+  /**
+   * The options of the serialization.
+   */
+  protected ExtractionOptions options;
+
+  /**
+   * The directory to watch for PDF files.
+   */
+  protected Path inputDir;
+
+  /**
+   * The directory to write the outputs to.
+   */
+  protected Path outputDir;
+
+  /**
+   * The number of the PDF files to process in parallel.
+   */
+  protected int numThreads;
+
+  /**
+   * The time in milliseconds a PDF file must stay unchanged before it is processed.
+   */
+  protected long settleMillis;
+
+  /**
+   * The PDF files that wait until they are completely written, in the order they were found. Only
+   * accessed by the thread that watches the directory.
+   */
+  protected Map<Path, FileState> pendingFiles = new LinkedHashMap<>();
+
+  /**
+   * The PDF files that are queued or in process.
+   */
+  protected Set<Path> filesInProcess = ConcurrentHashMap.newKeySet();
+
+  /**
+   * The PDF files that couldn't be processed, with their modification times.
+   */
+  protected Map<Path, FileTime> failedFiles = new ConcurrentHashMap<>();
+
+  /**
+   * The number of the processed PDF files.
+   */
+  protected AtomicInteger numProcessedFiles = new AtomicInteger();
+
+  /**
+   * The number of the PDF files that couldn't be processed.
+   */
+  protected AtomicInteger numFailedFiles = new AtomicInteger();
+
+  /**
+   * The watch service (null if this watcher isn't running).
+   */
+  protected volatile WatchService watchService;
+
+  /**
+   * The boolean flag indicating whether or not this watcher was stopped.
+   */
+  protected volatile boolean isStopped;
+
+  // ==============================================================================================
+  // Constructors.
+
+  /**
+   * Creates a new watcher.
+   *
+   * @param engine       The engine processing the PDF files.
+   * @param options      The options of the serialization.
+   * @param inputDir     The directory to watch for PDF files.
+   * @param outputDir    The directory to write the outputs to.
+   * @param numThreads   The number of the PDF files to process in parallel.
+   * @param settleMillis The time in milliseconds a PDF file must stay unchanged before it is
+   *                     processed.
+   */
+  public PdfActFolderWatcher(PdfActEngine engine, ExtractionOptions options, Path inputDir,
+      Path outputDir, int numThreads, long settleMillis) {
+    if (numThreads < 1 || settleMillis < 0) {
+      throw new IllegalArgumentException("The number of threads must be positive and the settle "
+          + "time must not be negative.");
+    }
+    this.engine = engine;
+    this.options = options;
+    this.inputDir = inputDir;
+    this.outputDir = outputDir;
+    this.numThreads = numThreads;
+    this.settleMillis = settleMillis;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Watches the directory and processes the PDF files, until this watcher is stopped (see
+   * {@link #stop()}). On return, all PDF files queued for processing are processed.
+   *
+   * @throws IOException If the directory couldn't be watched.
+   */
+  public void run() throws IOException {
+    Files.createDirectories(this.outputDir);
+    ExecutorService threads = Executors.newFixedThreadPool(this.numThreads);
+    // Check the pending files a few times per settle time.
+    long tickMillis = Math.max(10, this.settleMillis / 4);
+
+    try (WatchService watchService = this.inputDir.getFileSystem().newWatchService()) {
+      this.watchService = watchService;
+      // Register the directory before scanning it, so that no file is missed in between.
+      this.inputDir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+      scan();
+
+      while (!this.isStopped) {
+        WatchKey key = watchService.poll(tickMillis, TimeUnit.MILLISECONDS);
+        if (key != null) {
+          for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+              // Events were lost.
+              scan();
+            } else {
+              offer(this.inputDir.resolve((Path) event.context()));
+            }
+          }
+          if (!key.reset()) {
+            log.error("The directory '" + this.inputDir + "' isn't accessible anymore.");
+            break;
+          }
+        }
+        submitSettledFiles(threads);
+      }
+    } catch (ClosedWatchServiceException e) {
+      // This watcher was stopped.
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      this.watchService = null;
+      // Wait until the queued PDF files are processed.
+      threads.shutdown();
+      try {
+        threads.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * Stops this watcher. PDF files that are queued for processing are still processed.
+   */
+  public void stop() {
+    this.isStopped = true;
+    WatchService watchService = this.watchService;
+    if (watchService != null) {
+      try {
+        watchService.close();
+      } catch (IOException e) {
+        log.warn("Couldn't close the watch service.", e);
+      }
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Scans the directory for PDF files that need to be processed.
+   *
+   * @throws IOException If the directory couldn't be read.
+   */
+  protected void scan() throws IOException {
+    int numFiles = 0;
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.inputDir)) {
+      for (Path path : stream) {
+        if (isPdfFile(path) && needsProcessing(path, readAttributes(path))) {
+          offer(path);
+          numFiles++;
+        }
+      }
+    }
+    log.info("Found " + numFiles + " PDF files to process in '" + this.inputDir + "'.");
+  }
+
+  /**
+   * Adds the given file to the pending files (if it is a PDF file), or marks it as changed if it is
+   * already pending.
+   *
+   * @param path The path to the file.
+   */
+  protected void offer(Path path) {
+    if (isPdfFile(path)) {
+      this.pendingFiles.computeIfAbsent(path, p -> new FileState()).lastChangeMillis =
+          System.currentTimeMillis();
+    }
+  }
+
+  /**
+   * Submits the pending PDF files that didn't change for the settle time to the given threads.
+   *
+   * @param threads The threads processing the PDF files.
+   */
+  protected void submitSettledFiles(ExecutorService threads) {
+    long now = System.currentTimeMillis();
+    Iterator<Map.Entry<Path, FileState>> itr = this.pendingFiles.entrySet().iterator();
+    while (itr.hasNext()) {
+      Map.Entry<Path, FileState> entry = itr.next();
+      Path path = entry.getKey();
+      FileState state = entry.getValue();
+      if (this.filesInProcess.contains(path)) {
+        // Wait until the previous version of the file is processed.
+        continue;
+      }
+
+      BasicFileAttributes attrs = readAttributes(path);
+      if (attrs == null) {
+        // The file was deleted.
+        itr.remove();
+        continue;
+      }
+      long size = attrs.size();
+      long modified = attrs.lastModifiedTime().toMillis();
+      if (size != state.size || modified != state.modifiedMillis) {
+        // The file is still being written.
+        state.size = size;
+        state.modifiedMillis = modified;
+        state.lastChangeMillis = now;
+        continue;
+      }
+      if (now - Math.max(state.lastChangeMillis, modified) < this.settleMillis) {
+        continue;
+      }
+
+      itr.remove();
+      if (needsProcessing(path, attrs)) {
+        this.filesInProcess.add(path);
+        threads.execute(() -> {
+          try {
+            process(path, attrs.lastModifiedTime());
+          } finally {
+            this.filesInProcess.remove(path);
+          }
+        });
+      }
+    }
+  }
+
+  /**
+   * Processes the given PDF file and writes its output atomically.
+   *
+   * @param pdfPath  The path to the PDF file.
+   * @param modified The modification time of the version of the PDF file to process.
+   */
+  protected void process(Path pdfPath, FileTime modified) {
+    long start = System.currentTimeMillis();
+    Path outputPath = getOutputPath(pdfPath);
+    Path tmpPath = null;
+    try {
+      Document pdf = this.engine.parse(pdfPath);
+      // Write the output to a (hidden) temporary file in the output directory, so that it can be
+      // moved atomically. Files.createTempFile() isn't used, as it restricts the permissions.
+      tmpPath = this.outputDir.resolve("." + outputPath.getFileName() + "."
+          + UUID.randomUUID() + ".tmp");
+      try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmpPath,
+          StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE))) {
+        this.engine.serialize(pdf, this.options, out);
+      }
+      // Mark the output with the version of the PDF file it was created from (the modification
+      // time is preserved by the move).
+      Files.setLastModifiedTime(tmpPath, modified);
+      Files.move(tmpPath, outputPath, StandardCopyOption.ATOMIC_MOVE);
+      this.failedFiles.remove(pdfPath);
+      this.numProcessedFiles.incrementAndGet();
+      log.info("Processed '" + pdfPath + "' in " + (System.currentTimeMillis() - start) + " ms.");
+    } catch (PdfActException | IOException | RuntimeException e) {
+      this.failedFiles.put(pdfPath, modified);
+      this.numFailedFiles.incrementAndGet();
+      log.error("Couldn't process '" + pdfPath + "': " + e.getMessage(), e);
+    } finally {
+      if (tmpPath != null) {
+        try {
+          Files.deleteIfExists(tmpPath);
+        } catch (IOException e) {
+          log.warn("Couldn't delete '" + tmpPath + "'.", e);
+        }
+      }
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Checks if the given PDF file needs to be processed, that is: if its output doesn't exist or
+   * wasn't created from the current version of the PDF file (has another modification time), and
+   * the PDF file didn't fail to be processed in its current version.
+   *
+   * @param pdfPath The path to the PDF file.
+   * @param attrs   The attributes of the PDF file (may be null).
+   *
+   * @return True, if the PDF file needs to be processed; false otherwise.
+   */
+  protected boolean needsProcessing(Path pdfPath, BasicFileAttributes attrs) {
+    if (attrs == null || !attrs.isRegularFile()) {
+      return false;
+    }
+    if (attrs.lastModifiedTime().equals(this.failedFiles.get(pdfPath))) {
+      return false;
+    }
+    BasicFileAttributes outputAttrs = readAttributes(getOutputPath(pdfPath));
+    // Compare in milliseconds, as the input and output directories may store the times in different
+    // precisions.
+    return outputAttrs == null
+        || outputAttrs.lastModifiedTime().toMillis() != attrs.lastModifiedTime().toMillis();
+  }
+
+  /**
+   * Returns the path to the output of the given PDF file.
+   *
+   * @param pdfPath The path to the PDF file.
+   *
+   * @return The path to the output.
+   */
+  protected Path getOutputPath(Path pdfPath) {
+    return this.outputDir.resolve(pdfPath.getFileName() + "." + this.options.getFileExtension());
+  }
+
+  /**
+   * Checks if the given path is the path to a (non-hidden) PDF file.
+   *
+   * @param path The path.
+   *
+   * @return True, if the path is the path to a PDF file; false otherwise.
+   */
+  protected static boolean isPdfFile(Path path) {
+    String name = path.getFileName().toString();
+    return !name.startsWith(".") && name.toLowerCase().endsWith(".pdf");
+  }
+
+  /**
+   * Reads the attributes of the given file.
+   *
+   * @param path The path to the file.
+   *
+   * @return The attributes, or null if the file doesn't exist or couldn't be read.
+   */
+  protected static BasicFileAttributes readAttributes(Path path) {
+    try {
+      return Files.readAttributes(path, BasicFileAttributes.class);
+    } catch (NoSuchFileException e) {
+      return null;
+    } catch (IOException e) {
+      log.warn("Couldn't read the attributes of '" + path + "'.", e);
+      return null;
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the number of the processed PDF files.
+   *
+   * @return The number of the processed PDF files.
+   */
+  public int getNumProcessedFiles() {
+    return this.numProcessedFiles.get();
+  }
+
+  /**
+   * Returns the number of the PDF files that couldn't be processed.
+   *
+   * @return The number of the PDF files that couldn't be processed.
+   */
+  public int getNumFailedFiles() {
+    return this.numFailedFiles.get();
+  }
+
+  // ==============================================================================================
+
+  /**
+   * The last observed state of a pending PDF file.
+   */
+  protected static class FileState {
+    /**
+     * The size of the file, in bytes (-1 if not observed yet).
+     */
+    protected long size = -1;
+
+    /**
+     * The modification time of the file, in milliseconds (-1 if not observed yet).
+     */
+    protected long modifiedMillis = -1;
+
+    /**
+     * The time of the last observed change of the file, in milliseconds.
+     */
+    protected long lastChangeMillis;
+  }
+}
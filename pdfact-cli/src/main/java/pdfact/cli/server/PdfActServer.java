@@ -0,0 +1,596 @@
+package pdfact.cli.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pdfact.core.model.Document;
+import pdfact.core.util.exception.PdfActParseException;
+import pdfact.core.util.exception.PdfActValidateException;
+
+/**
+ * A long-running PdfAct process that serves extraction requests over HTTP, based on the HTTP
+ * server of the JDK. The server provides the following endpoints:
+ *
+ * <ul>
+ * <li>POST /extract: Extracts the text, structure and layout from the PDF file given as the body
+ * of the request. The options are given as query parameters, with the names and values of the
+ * options of the command line interface (for example, "/extract?format=json&amp;units=words").
+ * The serialization is streamed back in the requested format.</li>
+ * <li>GET /metrics: Returns the metrics of the server, in the text format of Prometheus.</li>
+ * </ul>
+ *
+ * <p>
+ * The PDF files are processed by a fixed number of workers. The number of the admitted requests
+ * (in process or waiting for a worker) is bounded; requests exceeding this bound are rejected
+ * immediately with status 503, so that clients can back off instead of piling up on the server.
+ * If the processing of a request (parsing and serializing the PDF file) takes longer than a given
+ * timeout, the request is answered with status 504. Requests with a body larger than a given
+ * maximum size are answered with status 413.
+ *
+ * @author Claudius Korzen
+ */
+public class PdfActServer {
+  /**
+   * The logger.
+   */
+  protected static Logger log = LogManager.getLogger(PdfActServer.class);
+
+  /**
+   * The path of the endpoint to extract from a PDF file.
+   */
+  public static final String EXTRACT_PATH = "/extract";
+
+  /**
+   * The path of the endpoint to get the metrics.
+   */
+  public static final String METRICS_PATH = "/metrics";
+
+  /**
+   * The number of the threads answering requests that don't need a worker (like rejected requests
+   * or requests to the metrics), in addition to the threads waiting for the admitted requests.
+   */
+  protected static final int NUM_EXTRA_HTTP_THREADS = 4;
+
+  /**
+   * The number of seconds a client should wait before retrying a rejected request.
+   */
+  protected static final int RETRY_AFTER_SECONDS = 1;
+
+  /**
+   * The default maximum size of the body of a request (that is, of a PDF file), in bytes.
+   */
+  public static final long DEFAULT_MAX_BODY_SIZE = 100L * 1024 * 1024;
+
+  /**
+   * The HTTP server.
+   */
+  protected HttpServer server;
+
+  /**
+   * The threads handling the HTTP exchanges.
+   */
+  protected ExecutorService httpThreads;
+
+  /**
+   * The workers processing the PDF files.
+   */
+  protected ExecutorService workers;
+
+  /**
+   * The permits of the admitted requests, one for each worker and one for each slot in the queue.
+   */
+  protected Semaphore permits;
+
+  /**
+   * The maximum processing time of a request, in milliseconds.
+   */
+  protected long timeoutMillis;
+
+  /**
+   * The maximum size of the body of a request, in bytes.
+   */
+  protected long maxBodySize;
+
+  /**
+   * The engine processing the PDF files.
+   */
+  protected PdfActEngine engine;
+
+  /**
+   * The metrics of this server.
+   */
+  protected PdfActServerMetrics metrics = new PdfActServerMetrics();
+
+  // ==============================================================================================
+  // Constructors.
+
+  /**
+   * Creates a new server. The server is not started until {@link #start()} is called.
+   *
+   * @param address       The address to bind the server to (with port 0, to bind to any free
+   *                      port).
+   * @param numWorkers    The number of the workers processing the PDF files in parallel.
+   * @param queueSize     The number of the admitted requests that may wait for a worker.
+   * @param timeoutMillis The maximum processing time of a request, in milliseconds.
+   * @param engine        The engine processing the PDF files.
+   *
+   * @throws IOException If the server couldn't be bound to the given address.
+   */
+  public PdfActServer(InetSocketAddress address, int numWorkers, int queueSize,
+      long timeoutMillis, PdfActEngine engine) throws IOException {
+    this(address, numWorkers, queueSize, timeoutMillis, DEFAULT_MAX_BODY_SIZE, engine);
+  }
+
+  /**
+   * Creates a new server. The server is not started until {@link #start()} is called.
+   *
+   * @param address       The address to bind the server to (with port 0, to bind to any free
+   *                      port).
+   * @param numWorkers    The number of the workers processing the PDF files in parallel.
+   * @param queueSize     The number of the admitted requests that may wait for a worker.
+   * @param timeoutMillis The maximum processing time of a request, in milliseconds.
+   * @param maxBodySize   The maximum size of the body of a request, in bytes.
+   * @param engine        The engine processing the PDF files.
+   *
+   * @throws IOException If the server couldn't be bound to the given address.
+   */
+  public PdfActServer(InetSocketAddress address, int numWorkers, int queueSize,
+      long timeoutMillis, long maxBodySize, PdfActEngine engine) throws IOException {
+    if (numWorkers < 1 || queueSize < 0 || timeoutMillis < 1 || maxBodySize < 1) {
+      throw new IllegalArgumentException("The number of workers, the timeout and the maximum "
+          + "body size must be positive and the size of the queue must not be negative.");
+    }
+    this.permits = new Semaphore(numWorkers + queueSize);
+    this.timeoutMillis = timeoutMillis;
+    this.maxBodySize = maxBodySize;
+    this.engine = engine;
+    this.workers = Executors.newFixedThreadPool(numWorkers);
+    // Each admitted request occupies a HTTP thread while waiting for its result, so there are
+    // enough threads to wait for all admitted requests and to answer the others immediately.
+    this.httpThreads = Executors.newFixedThreadPool(
+        numWorkers + queueSize + NUM_EXTRA_HTTP_THREADS);
+
+    this.server = HttpServer.create(address, 0);
+    this.server.setExecutor(this.httpThreads);
+    this.server.createContext(EXTRACT_PATH, this::handleExtract);
+    this.server.createContext(METRICS_PATH, this::handleMetrics);
+    this.server.createContext("/", e -> sendText(e, 404, "Not found."));
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Starts this server.
+   */
+  public void start() {
+    this.server.start();
+    log.info("Listening on " + getAddress() + ".");
+  }
+
+  /**
+   * Stops this server, waiting at most the given number of seconds for the running requests.
+   *
+   * @param delaySeconds The maximum number of seconds to wait for the running requests.
+   */
+  public void stop(int delaySeconds) {
+    this.server.stop(delaySeconds);
+    this.workers.shutdownNow();
+    this.httpThreads.shutdownNow();
+  }
+
+  /**
+   * Returns the address this server is bound to.
+   *
+   * @return The address.
+   */
+  public InetSocketAddress getAddress() {
+    return this.server.getAddress();
+  }
+
+  /**
+   * Returns the metrics of this server.
+   *
+   * @return The metrics.
+   */
+  public PdfActServerMetrics getMetrics() {
+    return this.metrics;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Handles a request to extract from a PDF file.
+   *
+   * @param exchange The HTTP exchange.
+   *
+   * @throws IOException If the response couldn't be sent.
+   */
+  protected void handleExtract(HttpExchange exchange) throws IOException {
+    long start = System.currentTimeMillis();
+    int status = extract(exchange);
+    this.metrics.recordRequest(status, System.currentTimeMillis() - start);
+  }
+
+  /**
+   * Extracts from the PDF file sent with the given request and sends the response.
+   *
+   * @param exchange The HTTP exchange.
+   *
+   * @return The HTTP status code of the response.
+   *
+   * @throws IOException If the response couldn't be sent.
+   */
+  protected int extract(HttpExchange exchange) throws IOException {
+    if (!"POST".equals(exchange.getRequestMethod())) {
+      exchange.getResponseHeaders().set("Allow", "POST");
+      return sendText(exchange, 405, "The PDF file must be sent with a POST request.");
+    }
+
+    ExtractionOptions options;
+    try {
+      options = ExtractionOptions.fromQuery(exchange.getRequestURI().getRawQuery());
+    } catch (IllegalArgumentException e) {
+      return sendText(exchange, 400, e.getMessage());
+    }
+
+    // Reject the request immediately (without reading the PDF file) if the PDF file is too large
+    // (according to the declared length; the actual length is checked while reading) or if the
+    // server is overloaded.
+    String contentLength = exchange.getRequestHeaders().getFirst("Content-Length");
+    if (contentLength != null && isTooLarge(contentLength)) {
+      return sendTooLarge(exchange);
+    }
+    if (!this.permits.tryAcquire()) {
+      this.metrics.recordRejected();
+      exchange.getResponseHeaders().set("Retry-After", String.valueOf(RETRY_AFTER_SECONDS));
+      return sendText(exchange, 503, "The server is overloaded. Please try again later.");
+    }
+
+    Path pdfPath = null;
+    Job job = null;
+    try {
+      pdfPath = Files.createTempFile("pdfact-server-", ".pdf");
+      long size;
+      try (InputStream body = exchange.getRequestBody()) {
+        size = copy(body, pdfPath, this.maxBodySize);
+      }
+      if (size < 0) {
+        return sendTooLarge(exchange);
+      }
+      if (size == 0) {
+        return sendText(exchange, 400, "The request doesn't contain a PDF file.");
+      }
+
+      job = new Job(pdfPath, options);
+      this.metrics.getNumQueued().incrementAndGet();
+      this.workers.execute(job);
+
+      // The timeout starts with the submission of the job, so that a slow upload of the PDF file
+      // doesn't count towards the time for processing it.
+      if (!job.await(this.timeoutMillis)) {
+        job.abandon();
+        this.metrics.recordTimedOut();
+        return sendText(exchange, 504, "The processing of the PDF file timed out.");
+      }
+
+      if (job.error != null) {
+        return sendError(exchange, job.error);
+      }
+
+      // Send the serialization, which was written to a temporary file by the worker.
+      exchange.getResponseHeaders().set("Content-Type", options.getMediaType());
+      exchange.sendResponseHeaders(200, Files.size(job.outputPath));
+      try (OutputStream os = exchange.getResponseBody()) {
+        Files.copy(job.outputPath, os);
+      }
+      return 200;
+    } catch (InterruptedException e) {
+      job.abandon();
+      Thread.currentThread().interrupt();
+      return sendText(exchange, 503, "The server is shutting down.");
+    } finally {
+      if (job != null) {
+        job.release();
+      } else {
+        this.permits.release();
+        if (pdfPath != null) {
+          Files.deleteIfExists(pdfPath);
+        }
+      }
+    }
+  }
+
+  /**
+   * Checks if the given declared length of the body of a request exceeds the maximum body size.
+   *
+   * @param contentLength The value of the "Content-Length" header.
+   *
+   * @return True, if the declared length exceeds the maximum body size; false otherwise (also if
+   *         the value is not a number, in which case the actual length is checked on reading).
+   */
+  protected boolean isTooLarge(String contentLength) {
+    try {
+      return Long.parseLong(contentLength.trim()) > this.maxBodySize;
+    } catch (NumberFormatException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Copies the given stream to the given file, reading at most the given number of bytes.
+   *
+   * @param in      The stream to copy.
+   * @param target  The file to copy the stream to.
+   * @param maxSize The maximum number of bytes to copy.
+   *
+   * @return The number of copied bytes, or -1 if the stream contains more than the given maximum
+   *         number of bytes (then, the content of the file is undefined).
+   *
+   * @throws IOException If the stream couldn't be copied.
+   */
+  protected static long copy(InputStream in, Path target, long maxSize) throws IOException {
+    long size = 0;
+    byte[] buffer = new byte[8192];
+    try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(target))) {
+      int n;
+      while ((n = in.read(buffer)) > 0) {
+        size += n;
+        if (size > maxSize) {
+          return -1;
+        }
+        out.write(buffer, 0, n);
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Handles a request to get the metrics of this server.
+   *
+   * @param exchange The HTTP exchange.
+   *
+   * @throws IOException If the response couldn't be sent.
+   */
+  protected void handleMetrics(HttpExchange exchange) throws IOException {
+    if (!"GET".equals(exchange.getRequestMethod())) {
+      exchange.getResponseHeaders().set("Allow", "GET");
+      sendText(exchange, 405, "The metrics must be requested with a GET request.");
+      return;
+    }
+    exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4");
+    send(exchange, 200, this.metrics.toPrometheusText(this.engine.getPageCache()));
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Sends a response for the given error that occurred while processing a PDF file.
+   *
+   * @param exchange The HTTP exchange.
+   * @param error    The error.
+   *
+   * @return The HTTP status code of the response.
+   *
+   * @throws IOException If the response couldn't be sent.
+   */
+  protected int sendError(HttpExchange exchange, Exception error) throws IOException {
+    if (error instanceof PdfActParseException || error instanceof PdfActValidateException) {
+      // The given file is not a (valid) PDF file.
+      return sendText(exchange, 422, error.getMessage());
+    }
+    log.error("Couldn't process the PDF file.", error);
+    return sendText(exchange, 500, "Couldn't process the PDF file: " + error.getMessage());
+  }
+
+  /**
+   * Sends the response to a request whose body exceeds the maximum body size.
+   *
+   * @param exchange The HTTP exchange.
+   *
+   * @return The HTTP status code of the response.
+   *
+   * @throws IOException If the response couldn't be sent.
+   */
+  protected int sendTooLarge(HttpExchange exchange) throws IOException {
+    // Don't read the rest of the body, but close the connection after the response.
+    exchange.getResponseHeaders().set("Connection", "close");
+    return sendText(exchange, 413, "The PDF file exceeds the maximum size of " + this.maxBodySize
+        + " bytes.");
+  }
+
+  /**
+   * Sends a plain text response with the given status code.
+   *
+   * @param exchange The HTTP exchange.
+   * @param status   The HTTP status code.
+   * @param text     The text to send.
+   *
+   * @return The HTTP status code.
+   *
+   * @throws IOException If the response couldn't be sent.
+   */
+  protected static int sendText(HttpExchange exchange, int status, String text)
+      throws IOException {
+    exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+    return send(exchange, status, text + "\n");
+  }
+
+  /**
+   * Sends a response with the given status code and the given body.
+   *
+   * @param exchange The HTTP exchange.
+   * @param status   The HTTP status code.
+   * @param body     The body to send.
+   *
+   * @return The HTTP status code.
+   *
+   * @throws IOException If the response couldn't be sent.
+   */
+  protected static int send(HttpExchange exchange, int status, String body) throws IOException {
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.sendResponseHeaders(status, bytes.length);
+    try (OutputStream os = exchange.getResponseBody()) {
+      os.write(bytes);
+    }
+    return status;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * The processing of a PDF file by a worker, on behalf of an admitted request: the PDF file is
+   * parsed and its serialization is written to a temporary file, so that both steps count towards
+   * the timeout of the request (and run on the bounded workers, not on the HTTP threads).
+   *
+   * <p>
+   * The job holds the permit of the request and the temporary files until both the worker and the
+   * request are finished with them. In particular, a request that timed out doesn't
+   * release its permit while the worker is still processing the PDF file (which can't be aborted),
+   * so that the number of the PDF files in process never exceeds the number of the permits.
+   */
+  protected class Job implements Runnable {
+    /**
+     * The path to the (temporary) PDF file.
+     */
+    protected Path pdfPath;
+
+    /**
+     * The options of the serialization.
+     */
+    protected ExtractionOptions options;
+
+    /**
+     * The path to the (temporary) file with the serialization.
+     */
+    protected volatile Path outputPath;
+
+    /**
+     * The time at which the job was created.
+     */
+    protected long created = System.currentTimeMillis();
+
+    /**
+     * The latch to signal that the worker is finished.
+     */
+    protected CountDownLatch done = new CountDownLatch(1);
+
+    /**
+     * The number of the parties (the worker and the request) not yet finished with this job.
+     */
+    protected AtomicInteger numReferences = new AtomicInteger(2);
+
+    /**
+     * The boolean flag indicating whether or not the request gave up waiting for this job.
+     */
+    protected volatile boolean isAbandoned;
+
+    /**
+     * The error that occurred while parsing or serializing the PDF file.
+     */
+    protected Exception error;
+
+    /**
+     * Creates a new job.
+     *
+     * @param pdfPath The path to the (temporary) PDF file.
+     * @param options The options of the serialization.
+     */
+    public Job(Path pdfPath, ExtractionOptions options) {
+      this.pdfPath = pdfPath;
+      this.options = options;
+    }
+
+    @Override
+    public void run() {
+      metrics.getNumQueued().decrementAndGet();
+      metrics.recordQueueTime(System.currentTimeMillis() - this.created);
+      try {
+        // Don't process the PDF file if the request already timed out while waiting in the queue.
+        if (this.isAbandoned) {
+          return;
+        }
+        metrics.getNumInFlight().incrementAndGet();
+        try {
+          Document pdf = engine.parse(this.pdfPath);
+          Path outputPath = Files.createTempFile("pdfact-server-", "."
+              + this.options.getFileExtension());
+          this.outputPath = outputPath;
+          try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(outputPath))) {
+            engine.serialize(pdf, this.options, os);
+          }
+        } catch (Exception e) {
+          this.error = e;
+        } finally {
+          metrics.getNumInFlight().decrementAndGet();
+        }
+      } finally {
+        this.done.countDown();
+        release();
+      }
+    }
+
+    /**
+     * Waits until the worker is finished with this job.
+     *
+     * @param timeoutMillis The maximum time to wait, in milliseconds.
+     *
+     * @return True, if the worker is finished; false if the timeout elapsed.
+     *
+     * @throws InterruptedException If the waiting thread was interrupted.
+     */
+    public boolean await(long timeoutMillis) throws InterruptedException {
+      return timeoutMillis > 0 && this.done.await(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Marks this job as abandoned by the request.
+     */
+    public void abandon() {
+      this.isAbandoned = true;
+    }
+
+    /**
+     * Releases the reference of a party to this job. When the last reference is released, the
+     * permit of the request is released and the temporary files are deleted.
+     */
+    public void release() {
+      if (this.numReferences.decrementAndGet() > 0) {
+        return;
+      }
+      permits.release();
+      delete(this.pdfPath);
+      delete(this.outputPath);
+    }
+
+    /**
+     * Deletes the given temporary file, if it exists.
+     *
+     * @param path The path to the temporary file (may be null).
+     */
+    protected void delete(Path path) {
+      if (path == null) {
+        return;
+      }
+      try {
+        Files.deleteIfExists(path);
+      } catch (IOException e) {
+        log.warn("Couldn't delete the temporary file '" + path + "'.", e);
+      }
+    }
+  }
+}
@@ -0,0 +1,205 @@
+package pdfact.cli.server;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import pdfact.core.util.cache.PageCache;
+
+/**
+ * The metrics of a {@link PdfActServer}, which can be written in the text format of Prometheus.
+ *
+ * @author Claudius Korzen
+ */
+public class PdfActServerMetrics {
+  /**
+   * The number of the finished requests, per HTTP status code.
+   */
+  protected Map<Integer, AtomicLong> numRequestsPerStatus = new ConcurrentSkipListMap<>();
+
+  /**
+   * The number of the requests rejected because the server was overloaded.
+   */
+  protected AtomicLong numRejected = new AtomicLong();
+
+  /**
+   * The number of the requests that timed out.
+   */
+  protected AtomicLong numTimedOut = new AtomicLong();
+
+  /**
+   * The number of the admitted requests waiting for a worker.
+   */
+  protected AtomicInteger numQueued = new AtomicInteger();
+
+  /**
+   * The number of the admitted requests processed by a worker.
+   */
+  protected AtomicInteger numInFlight = new AtomicInteger();
+
+  /**
+   * The total processing time of the finished requests, in milliseconds.
+   */
+  protected AtomicLong processingTimeMillis = new AtomicLong();
+
+  /**
+   * The total time the admitted requests waited for a worker, in milliseconds.
+   */
+  protected AtomicLong queueTimeMillis = new AtomicLong();
+
+  // ==============================================================================================
+
+  /**
+   * Records a finished request.
+   *
+   * @param status         The HTTP status code of the response.
+   * @param durationMillis The processing time of the request, in milliseconds.
+   */
+  public void recordRequest(int status, long durationMillis) {
+    this.numRequestsPerStatus.computeIfAbsent(status, k -> new AtomicLong()).incrementAndGet();
+    this.processingTimeMillis.addAndGet(durationMillis);
+  }
+
+  /**
+   * Records a request rejected because the server was overloaded.
+   */
+  public void recordRejected() {
+    this.numRejected.incrementAndGet();
+  }
+
+  /**
+   * Records a request that timed out.
+   */
+  public void recordTimedOut() {
+    this.numTimedOut.incrementAndGet();
+  }
+
+  /**
+   * Records the time an admitted request waited for a worker.
+   *
+   * @param durationMillis The waiting time, in milliseconds.
+   */
+  public void recordQueueTime(long durationMillis) {
+    this.queueTimeMillis.addAndGet(durationMillis);
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the number of the finished requests with the given HTTP status code.
+   *
+   * @param status The HTTP status code.
+   *
+   * @return The number of the requests.
+   */
+  public long getNumRequests(int status) {
+    AtomicLong num = this.numRequestsPerStatus.get(status);
+    return num != null ? num.get() : 0;
+  }
+
+  /**
+   * Returns the number of the requests rejected because the server was overloaded.
+   */
+  public long getNumRejected() {
+    return this.numRejected.get();
+  }
+
+  /**
+   * Returns the number of the requests that timed out.
+   */
+  public long getNumTimedOut() {
+    return this.numTimedOut.get();
+  }
+
+  /**
+   * Returns the counter of the admitted requests waiting for a worker.
+   */
+  public AtomicInteger getNumQueued() {
+    return this.numQueued;
+  }
+
+  /**
+   * Returns the counter of the admitted requests processed by a worker.
+   */
+  public AtomicInteger getNumInFlight() {
+    return this.numInFlight;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the metrics in the text format of Prometheus.
+   *
+   * @param pageCache The page cache of the server (null if there is no page cache).
+   *
+   * @return The metrics.
+   */
+  public String toPrometheusText(PageCache pageCache) {
+    StringBuilder sb = new StringBuilder();
+    long numRequests = 0;
+    appendHeader(sb, "pdfact_requests_total", "counter", "The number of finished requests.");
+    for (Map.Entry<Integer, AtomicLong> entry : this.numRequestsPerStatus.entrySet()) {
+      sb.append("pdfact_requests_total{status=\"").append(entry.getKey()).append("\"} ")
+          .append(entry.getValue().get()).append("\n");
+      numRequests += entry.getValue().get();
+    }
+    appendMetric(sb, "pdfact_requests_rejected_total", "counter",
+        "The number of requests rejected because the server was overloaded.", this.numRejected);
+    appendMetric(sb, "pdfact_requests_timed_out_total", "counter",
+        "The number of requests that timed out.", this.numTimedOut);
+    appendMetric(sb, "pdfact_requests_queued", "gauge",
+        "The number of admitted requests waiting for a worker.", this.numQueued);
+    appendMetric(sb, "pdfact_requests_in_flight", "gauge",
+        "The number of admitted requests processed by a worker.", this.numInFlight);
+    appendHeader(sb, "pdfact_request_duration_seconds", "summary",
+        "The processing time of finished requests.");
+    sb.append("pdfact_request_duration_seconds_sum ")
+        .append(this.processingTimeMillis.get() / 1000.0).append("\n");
+    sb.append("pdfact_request_duration_seconds_count ").append(numRequests).append("\n");
+    appendMetric(sb, "pdfact_queue_wait_seconds_total", "counter",
+        "The total time admitted requests waited for a worker.",
+        this.queueTimeMillis.get() / 1000.0);
+
+    if (pageCache != null) {
+      appendMetric(sb, "pdfact_page_cache_hits_total", "counter",
+          "The number of page lookups served from the page cache.", pageCache.getNumHits());
+      appendMetric(sb, "pdfact_page_cache_misses_total", "counter",
+          "The number of page lookups not served from the page cache.", pageCache.getNumMisses());
+      appendMetric(sb, "pdfact_page_cache_evictions_total", "counter",
+          "The number of pages evicted from the page cache.", pageCache.getNumEvictions());
+      appendMetric(sb, "pdfact_page_cache_entries", "gauge",
+          "The number of pages in the page cache.", pageCache.getNumEntries());
+      appendMetric(sb, "pdfact_page_cache_bytes", "gauge",
+          "The size of the page cache in bytes.", pageCache.getSize());
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Appends a metric with a single value to the given string builder.
+   *
+   * @param sb    The string builder.
+   * @param name  The name of the metric.
+   * @param type  The type of the metric.
+   * @param help  The description of the metric.
+   * @param value The value of the metric.
+   */
+  protected static void appendMetric(StringBuilder sb, String name, String type, String help,
+      Object value) {
+    appendHeader(sb, name, type, help);
+    sb.append(name).append(" ").append(value).append("\n");
+  }
+
+  /**
+   * Appends the header of a metric to the given string builder.
+   *
+   * @param sb   The string builder.
+   * @param name The name of the metric.
+   * @param type The type of the metric.
+   * @param help The description of the metric.
+   */
+  protected static void appendHeader(StringBuilder sb, String name, String type, String help) {
+    sb.append("# HELP ").append(name).append(" ").append(help).append("\n");
+    sb.append("# TYPE ").append(name).append(" ").append(type).append("\n");
+  }
+}
@@ -0,0 +1,319 @@
+package pdfact.cli.server;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import pdfact.cli.model.SerializationFormat;
+import pdfact.cli.util.exception.PdfActParseCommandLineException;
+import pdfact.cli.util.io.JsonStringOutputStream;
+import pdfact.core.model.Document;
+import pdfact.core.util.exception.PdfActException;
+
+/**
+ * A long-running PdfAct process that reads extraction requests from an input stream (usually
+ * stdin) and writes the responses to an output stream (usually stdout), one JSON object per line.
+ * The process can be embedded in other runtimes (for example, as a pool of warm worker processes
+ * in Python), without paying the startup costs of the JVM per PDF file.
+ *
+ * <p>
+ * A request is given in the form:
+ *
+ * <pre>
+ * {"id": "1", "path": "/path/to/file.pdf", "options": {"format": "json", "units": ["words"]}}
+ * </pre>
+ *
+ * where "id" is an arbitrary value to identify the response to the request, "path" is the path to
+ * the PDF file (alternatively, "data" is the content of the PDF file, encoded in Base64), and
+ * "options" are the options with the names and values of the options of the command line
+ * interface. If "output" is given, the serialization is written to the file with this path;
+ * otherwise, it is contained in the response (encoded in Base64 in case of the binary format):
+ *
+ * <pre>
+ * {"id": "1", "status": "ok", "result": "..."}
+ * {"id": "2", "status": "error", "code": 20, "error": "Couldn't parse the PDF."}
+ * </pre>
+ *
+ * <p>
+ * Multiple requests are processed concurrently, up to a given limit; further requests are not read
+ * until a request is finished. Hence, the responses may be written in another order than the
+ * requests were read.
+ *
+ * @author Claudius Korzen
+ */
+public class PdfActWorker {
+  /**
+   * The logger.
+   */
+  protected static Logger log = LogManager.getLogger(PdfActWorker.class);
+
+  /**
+   * The code of an error that is not caused by the request or the PDF file.
+   */
+  public static final int INTERNAL_ERROR_CODE = 1;
+
+  /**
+   * The engine processing the PDF files.
+   */
+  protected PdfActEngine engine;
+
+  /**
+   * The number of the requests to process concurrently.
+   */
+  protected int numThreads;
+
+  /**
+   * The stream to which the responses are written.
+   */
+  protected OutputStream out;
+
+  // ==============================================================================================
+  // Constructors.
+
+  /**
+   * Creates a new worker.
+   *
+   * @param engine     The engine processing the PDF files.
+   * @param numThreads The number of the requests to process concurrently.
+   */
+  public PdfActWorker(PdfActEngine engine, int numThreads) {
+    if (numThreads < 1) {
+      throw new IllegalArgumentException("The number of threads must be positive.");
+    }
+    this.engine = engine;
+    this.numThreads = numThreads;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Reads the requests from the given input stream and writes the responses to the given output
+   * stream, until the end of the input stream is reached and all requests are processed.
+   *
+   * @param in  The input stream to read the requests from.
+   * @param out The output stream to write the responses to.
+   *
+   * @throws IOException If reading the requests fails.
+   */
+  public void run(InputStream in, OutputStream out) throws IOException {
+    this.out = out;
+    ExecutorService threads = Executors.newFixedThreadPool(this.numThreads);
+    Semaphore permits = new Semaphore(this.numThreads);
+
+    try (BufferedReader reader = new BufferedReader(
+        new InputStreamReader(in, StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.trim().isEmpty()) {
+          continue;
+        }
+        // Don't read further requests until a thread is available.
+        permits.acquireUninterruptibly();
+        final String request = line;
+        threads.execute(() -> {
+          try {
+            write(handle(request));
+          } finally {
+            permits.release();
+          }
+        });
+      }
+    } finally {
+      // Wait until all requests are processed.
+      permits.acquireUninterruptibly(this.numThreads);
+      threads.shutdown();
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Processes the given request.
+   *
+   * @param line The request, as a JSON string.
+   *
+   * @return The buffer with the response, as a line of UTF-8 encoded JSON.
+   */
+  protected ByteArrayOutputStream handle(String line) {
+    Object id = JSONObject.NULL;
+    Path tmpPath = null;
+    try {
+      JSONObject request;
+      try {
+        request = new JSONObject(line);
+      } catch (JSONException e) {
+        throw new PdfActParseCommandLineException("Invalid request: " + e.getMessage(), e);
+      }
+      id = request.opt("id") != null ? request.opt("id") : JSONObject.NULL;
+
+      ExtractionOptions options;
+      try {
+        options = ExtractionOptions.fromParameters(toParameters(request.optJSONObject("options")));
+      } catch (IllegalArgumentException e) {
+        throw new PdfActParseCommandLineException(e.getMessage(), e);
+      }
+
+      // Get the path to the PDF file (or write the given content to a temporary file).
+      Path pdfPath;
+      if (request.has("path")) {
+        pdfPath = Paths.get(request.getString("path"));
+      } else if (request.has("data")) {
+        byte[] data;
+        try {
+          data = Base64.getMimeDecoder().decode(request.getString("data"));
+        } catch (IllegalArgumentException e) {
+          throw new PdfActParseCommandLineException("Invalid Base64 data.", e);
+        }
+        tmpPath = Files.createTempFile("pdfact-worker-", ".pdf");
+        Files.write(tmpPath, data);
+        pdfPath = tmpPath;
+      } else {
+        throw new PdfActParseCommandLineException("The request contains neither a path nor data.");
+      }
+
+      Document pdf = this.engine.parse(pdfPath);
+
+      JSONObject response = new JSONObject();
+      response.put("id", id);
+      response.put("status", "ok");
+      if (request.has("output")) {
+        String outputPath = request.getString("output");
+        try (OutputStream os = new BufferedOutputStream(
+            Files.newOutputStream(Paths.get(outputPath)))) {
+          this.engine.serialize(pdf, options, os);
+        }
+        response.put("output", outputPath);
+        return toLine(response);
+      }
+
+      boolean isBinary = options.getSerializationFormat() == SerializationFormat.BIN;
+      if (isBinary) {
+        response.put("encoding", "base64");
+      }
+      // Serialize the PDF file directly into the response, as the (encoded) value of the last
+      // field, so that the serialization isn't copied into intermediate strings.
+      String head = response.toString();
+      ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+      buffer.write(head.substring(0, head.length() - 1).getBytes(StandardCharsets.UTF_8));
+      buffer.write(",\"result\":\"".getBytes(StandardCharsets.UTF_8));
+      try (OutputStream os = isBinary ? Base64.getEncoder().wrap(buffer)
+          : new JsonStringOutputStream(buffer)) {
+        this.engine.serialize(pdf, options, os);
+      }
+      buffer.write("\"}\n".getBytes(StandardCharsets.UTF_8));
+      return buffer;
+    } catch (PdfActException e) {
+      return toLine(createErrorResponse(id, e.getExitCode(), e.getMessage()));
+    } catch (Throwable e) {
+      // Answer the request even on errors (e.g., if the heap is exhausted by a large PDF file), so
+      // that the caller doesn't wait for the response forever.
+      log.error("Couldn't process the request.", e);
+      return toLine(createErrorResponse(id, INTERNAL_ERROR_CODE, String.valueOf(e.getMessage())));
+    } finally {
+      if (tmpPath != null) {
+        try {
+          Files.deleteIfExists(tmpPath);
+        } catch (IOException e) {
+          log.warn("Couldn't delete the temporary file '" + tmpPath + "'.", e);
+        }
+      }
+    }
+  }
+
+  /**
+   * Creates a response for a failed request.
+   *
+   * @param id      The id of the request.
+   * @param code    The code of the error (the exit code of the command line interface).
+   * @param message The error message.
+   *
+   * @return The response.
+   */
+  protected static JSONObject createErrorResponse(Object id, int code, String message) {
+    JSONObject response = new JSONObject();
+    response.put("id", id);
+    response.put("status", "error");
+    response.put("code", code);
+    response.put("error", message);
+    return response;
+  }
+
+  /**
+   * Encodes the given response as a line of UTF-8 encoded JSON.
+   *
+   * @param response The response.
+   *
+   * @return The buffer with the line.
+   */
+  protected static ByteArrayOutputStream toLine(JSONObject response) {
+    byte[] line = (response.toString() + "\n").getBytes(StandardCharsets.UTF_8);
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream(line.length);
+    buffer.write(line, 0, line.length);
+    return buffer;
+  }
+
+  /**
+   * Translates the given options of a request to parameters, as expected by
+   * {@link ExtractionOptions#fromParameters(Map)}. The values of the options can be strings,
+   * booleans, numbers or arrays of them.
+   *
+   * @param options The options (may be null).
+   *
+   * @return The parameters.
+   */
+  protected static Map<String, List<String>> toParameters(JSONObject options) {
+    Map<String, List<String>> params = new LinkedHashMap<>();
+    if (options != null) {
+      for (String name : options.keySet()) {
+        List<String> values = new ArrayList<>();
+        Object value = options.get(name);
+        if (value instanceof JSONArray) {
+          JSONArray array = (JSONArray) value;
+          for (int i = 0; i < array.length(); i++) {
+            values.add(String.valueOf(array.get(i)));
+          }
+        } else {
+          values.add(String.valueOf(value));
+        }
+        params.put(name, values);
+      }
+    }
+    return params;
+  }
+
+  /**
+   * Writes the given response line (without copying the buffer).
+   *
+   * @param line The buffer with the response, as a line of UTF-8 encoded JSON.
+   */
+  protected void write(ByteArrayOutputStream line) {
+    synchronized (this.out) {
+      try {
+        line.writeTo(this.out);
+        this.out.flush();
+      } catch (IOException e) {
+        log.error("Couldn't write the response.", e);
+      }
+    }
+  }
+}
@@ -0,0 +1,348 @@
+package pdfact.cli.util.batch;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pdfact.cli.util.batch.PdfCostEstimator.Estimate;
+
+/**
+ * A scheduler that processes a batch of PDF files in parallel, while keeping the estimated heap
+ * needed by the PDF files in process under a given budget (see {@link PdfCostEstimator}). A PDF
+ * file is only started when its estimated heap fits into the remaining budget; the estimated heap
+ * of a PDF file that exceeds the whole budget is capped to the budget, so that the PDF file is
+ * processed alone. This prevents a few large PDF files that are processed at the same time from
+ * exhausting the heap.
+ *
+ * <p>
+ * The PDF files are started in the given order, or, optionally, in the order of their estimated
+ * costs (shortest job first), which maximizes the number of finished PDF files per minute. When a
+ * thread is free, the first waiting PDF file that fits into the remaining budget is started, so a
+ * large PDF file waiting for budget doesn't block the smaller PDF files behind it (it is started
+ * as soon as enough budget is released, at the latest when all other PDF files are finished).
+ *
+ * <p>
+ * The estimated and the actual costs of each PDF file are logged, so that the estimation can be
+ * tuned. The actual costs are the processing time, the peak live heap (the maximum heap in use
+ * after the garbage collections during the processing, which is what the estimation predicts, but
+ * includes the heap of the other PDF files in process) and the bytes allocated in total (which
+ * are usually many times larger than the live heap).
+ *
+ * @author Claudius Korzen
+ */
+public class BatchScheduler {
+  /**
+   * The logger.
+   */
+  protected static Logger log = LogManager.getLogger(BatchScheduler.class);
+
+  /**
+   * The number of the PDF files to process in parallel.
+   */
+  protected int numThreads;
+
+  /**
+   * The budget of the estimated heap of the PDF files in process, in bytes.
+   */
+  protected long heapBudget;
+
+  /**
+   * The boolean flag indicating whether or not the PDF files should be processed in the order of
+   * their estimated costs.
+   */
+  protected boolean isShortestJobFirst;
+
+  /**
+   * The estimated heap of the PDF files in process, in bytes.
+   */
+  protected long usedHeapBudget;
+
+  /**
+   * The maximum estimated heap of the PDF files in process, in bytes.
+   */
+  protected long peakUsedHeapBudget;
+
+  /**
+   * The number of the PDF files in process.
+   */
+  protected int numInProcess;
+
+  /**
+   * The peak live heap of each PDF file in process, in bytes (-1 if no garbage collection happened
+   * during its processing so far).
+   */
+  protected Map<Estimate, Long> peakLiveHeaps = new ConcurrentHashMap<>();
+
+  // ==============================================================================================
+  // Constructors.
+
+  /**
+   * Creates a new scheduler.
+   *
+   * @param numThreads         The number of the PDF files to process in parallel.
+   * @param heapBudget         The budget of the estimated heap of the PDF files in process, in
+   *                           bytes.
+   * @param isShortestJobFirst The boolean flag indicating whether or not the PDF files should be
+   *                           processed in the order of their estimated costs.
+   */
+  public BatchScheduler(int numThreads, long heapBudget, boolean isShortestJobFirst) {
+    if (numThreads < 1 || heapBudget < 1) {
+      throw new IllegalArgumentException("The number of threads and the budget must be positive.");
+    }
+    this.numThreads = numThreads;
+    this.heapBudget = heapBudget;
+    this.isShortestJobFirst = isShortestJobFirst;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Processes the given PDF files and waits until all PDF files are processed.
+   *
+   * @param estimates The estimated costs of the PDF files to process.
+   * @param processor The processor of a single PDF file.
+   *
+   * @throws InterruptedException If the thread was interrupted while waiting.
+   */
+  public void run(List<Estimate> estimates, Consumer<Estimate> processor)
+      throws InterruptedException {
+    run(estimates, estimate -> true, processor);
+  }
+
+  /**
+   * Processes the given PDF files and waits until all PDF files are processed. A PDF file is only
+   * processed if the given claim (which is called when the PDF file is about to be started, for
+   * example to check that it wasn't processed by another process in the meantime) succeeds.
+   *
+   * @param estimates The estimated costs of the PDF files to process.
+   * @param claim     The claim of a single PDF file.
+   * @param processor The processor of a single PDF file.
+   *
+   * @throws InterruptedException If the thread was interrupted while waiting.
+   */
+  public void run(List<Estimate> estimates, Predicate<Estimate> claim,
+      Consumer<Estimate> processor) throws InterruptedException {
+    List<Estimate> queue = new LinkedList<>(estimates);
+    if (this.isShortestJobFirst) {
+      queue.sort(Comparator.comparingLong(Estimate::getHeapBytes));
+    }
+    for (Estimate estimate : queue) {
+      if (estimate.getHeapBytes() > this.heapBudget) {
+        log.warn(String.format("The estimated heap of '%s' (%.1f MB) exceeds the budget (%.1f MB). "
+            + "Processing it alone.", estimate.getPdfPath(), estimate.getHeapBytes() / 1048576.0,
+            this.heapBudget / 1048576.0));
+      }
+    }
+
+    List<NotificationEmitter> emitters = new ArrayList<>();
+    NotificationListener listener = (notification, handback) -> recordLiveHeap(notification);
+    for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+      if (bean instanceof NotificationEmitter) {
+        ((NotificationEmitter) bean).addNotificationListener(listener, null, null);
+        emitters.add((NotificationEmitter) bean);
+      }
+    }
+
+    ExecutorService threads = Executors.newFixedThreadPool(this.numThreads);
+    try {
+      while (!queue.isEmpty()) {
+        Estimate estimate = acquireNext(queue);
+        threads.execute(() -> {
+          try {
+            if (claim.test(estimate)) {
+              process(estimate, processor);
+            }
+          } finally {
+            release(estimate);
+          }
+        });
+      }
+      awaitAll();
+    } finally {
+      threads.shutdown();
+      for (NotificationEmitter emitter : emitters) {
+        try {
+          emitter.removeNotificationListener(listener);
+        } catch (ListenerNotFoundException e) {
+          // Nothing to do.
+        }
+      }
+    }
+  }
+
+  /**
+   * Processes the given PDF file and logs its estimated and its actual costs.
+   *
+   * @param estimate  The estimated costs of the PDF file.
+   * @param processor The processor of a single PDF file.
+   */
+  protected void process(Estimate estimate, Consumer<Estimate> processor) {
+    long start = System.currentTimeMillis();
+    long allocatedBefore = getAllocatedBytes();
+    this.peakLiveHeaps.put(estimate, -1L);
+    try {
+      processor.accept(estimate);
+    } catch (RuntimeException e) {
+      log.error("Couldn't process '" + estimate.getPdfPath() + "'.", e);
+    }
+    long peakLiveHeap = this.peakLiveHeaps.remove(estimate);
+    long allocated = getAllocatedBytes() - allocatedBefore;
+    long time = System.currentTimeMillis() - start;
+    log.info(String.format("file: %s; pages: %d; size: %d bytes; estimated heap: %.1f MB; "
+        + "time: %d ms; peak live heap: %.1f MB; allocated in total: %.1f MB",
+        estimate.getPdfPath(), estimate.getNumPages(), estimate.getFileSize(),
+        estimate.getHeapBytes() / 1048576.0, time,
+        peakLiveHeap >= 0 ? peakLiveHeap / 1048576.0 : Double.NaN,
+        allocatedBefore >= 0 ? allocated / 1048576.0 : Double.NaN));
+  }
+
+  /**
+   * Records the heap in use after the garbage collection of the given notification as the live
+   * heap of all PDF files in process (if it exceeds their peak live heap so far).
+   *
+   * @param notification The notification of a garbage collection.
+   */
+  protected void recordLiveHeap(Notification notification) {
+    if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(
+        notification.getType())) {
+      return;
+    }
+    GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from(
+        (CompositeData) notification.getUserData());
+    Set<String> heapPools = new HashSet<>();
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP) {
+        heapPools.add(pool.getName());
+      }
+    }
+    long used = 0;
+    for (Map.Entry<String, MemoryUsage> usage : info.getGcInfo().getMemoryUsageAfterGc()
+        .entrySet()) {
+      if (heapPools.contains(usage.getKey())) {
+        used += usage.getValue().getUsed();
+      }
+    }
+    long liveHeap = used;
+    this.peakLiveHeaps.replaceAll((estimate, peak) -> Math.max(peak, liveHeap));
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Waits until a thread is free and a PDF file in the given queue fits into the remaining budget,
+   * removes the first such PDF file from the queue and reserves a thread and its estimated heap.
+   *
+   * @param queue The queue of the waiting PDF files (must not be empty).
+   *
+   * @return The estimated costs of the PDF file to start.
+   *
+   * @throws InterruptedException If the thread was interrupted while waiting.
+   */
+  protected synchronized Estimate acquireNext(List<Estimate> queue) throws InterruptedException {
+    while (true) {
+      if (this.numInProcess < this.numThreads) {
+        Iterator<Estimate> itr = queue.iterator();
+        while (itr.hasNext()) {
+          Estimate estimate = itr.next();
+          long heapBytes = getCappedHeapBytes(estimate);
+          if (this.usedHeapBudget + heapBytes <= this.heapBudget) {
+            itr.remove();
+            this.numInProcess++;
+            this.usedHeapBudget += heapBytes;
+            this.peakUsedHeapBudget = Math.max(this.peakUsedHeapBudget, this.usedHeapBudget);
+            return estimate;
+          }
+        }
+      }
+      wait();
+    }
+  }
+
+  /**
+   * Releases the thread and the estimated heap reserved for the given PDF file.
+   *
+   * @param estimate The estimated costs of the PDF file.
+   */
+  protected synchronized void release(Estimate estimate) {
+    this.numInProcess--;
+    this.usedHeapBudget -= getCappedHeapBytes(estimate);
+    notifyAll();
+  }
+
+  /**
+   * Waits until no PDF file is in process.
+   *
+   * @throws InterruptedException If the thread was interrupted while waiting.
+   */
+  protected synchronized void awaitAll() throws InterruptedException {
+    while (this.numInProcess > 0) {
+      wait();
+    }
+  }
+
+  /**
+   * Returns the estimated heap of the given PDF file, capped to the budget.
+   *
+   * @param estimate The estimated costs of the PDF file.
+   *
+   * @return The estimated heap, in bytes.
+   */
+  protected long getCappedHeapBytes(Estimate estimate) {
+    return Math.min(estimate.getHeapBytes(), this.heapBudget);
+  }
+
+  /**
+   * Returns the number of bytes allocated by the current thread so far.
+   *
+   * @return The number of bytes, or -1 if the JVM doesn't support measuring the allocated bytes.
+   */
+  protected static long getAllocatedBytes() {
+    ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (bean instanceof com.sun.management.ThreadMXBean) {
+      com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+      if (sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled()) {
+        return sunBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+      }
+    }
+    return -1;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the maximum estimated heap of the PDF files in process, in bytes.
+   */
+  public synchronized long getPeakUsedHeapBudget() {
+    return this.peakUsedHeapBudget;
+  }
+
+  /**
+   * Returns the budget of the estimated heap of the PDF files in process, in bytes.
+   */
+  public long getHeapBudget() {
+    return this.heapBudget;
+  }
+}
@@ -0,0 +1,216 @@
+package pdfact.cli.util.batch;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pdfact.cli.util.batch.FileLeaseCoordinator.Lease;
+import pdfact.cli.util.batch.PdfCostEstimator.Estimate;
+
+/**
+ * A batch of PDF files in a shared directory, which is drained together with other processes
+ * (possibly on other hosts sharing the directory), coordinated by a {@link FileLeaseCoordinator}.
+ * The PDF files that are neither done nor leased by another process are processed (scheduled by a
+ * {@link BatchScheduler}), and this is repeated until all PDF files are done. A PDF file leased by
+ * another process is taken over if that process dies.
+ *
+ * <p>
+ * The output of a PDF file is the JSON file next to it. A PDF file whose processing fails (with a
+ * non-zero status code or an exception) is marked as failed, so that it is done and no process
+ * tries it again.
+ *
+ * @author Claudius Korzen
+ */
+public class CoordinatedBatch {
+  /**
+   * The logger.
+   */
+  protected static Logger log = LogManager.getLogger(CoordinatedBatch.class);
+
+  /**
+   * The scheduler of the PDF files.
+   */
+  protected BatchScheduler scheduler;
+
+  /**
+   * The coordinator of the processes.
+   */
+  protected FileLeaseCoordinator coordinator;
+
+  // ==============================================================================================
+  // Constructors.
+
+  /**
+   * Creates a new batch.
+   *
+   * @param scheduler   The scheduler of the PDF files.
+   * @param coordinator The coordinator of the processes.
+   */
+  public CoordinatedBatch(BatchScheduler scheduler, FileLeaseCoordinator coordinator) {
+    this.scheduler = scheduler;
+    this.coordinator = coordinator;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Processes the given PDF files together with the other processes and waits until all PDF files
+   * are done.
+   *
+   * @param estimates The estimated costs of the PDF files to process.
+   * @param processor The processor of a single PDF file.
+   * @param onDone    The callback to call for each PDF file that is done (processed by this or by
+   *                  another process).
+   *
+   * @return The paths to the PDF files which couldn't be processed by this process.
+   *
+   * @throws InterruptedException If the thread was interrupted while waiting.
+   */
+  public List<Path> run(List<Estimate> estimates, FileProcessor processor,
+      Consumer<Estimate> onDone) throws InterruptedException {
+    List<Path> failed = Collections.synchronizedList(new ArrayList<>());
+    List<Estimate> remaining = estimates;
+    while (!remaining.isEmpty()) {
+      Map<Estimate, Lease> leases = new ConcurrentHashMap<>();
+      this.scheduler.run(remaining, estimate -> {
+        Lease lease = tryClaim(estimate);
+        if (lease != null) {
+          leases.put(estimate, lease);
+        }
+        return lease != null;
+      }, estimate -> {
+        if (!process(estimate, leases.remove(estimate), processor)) {
+          failed.add(estimate.getPdfPath());
+        }
+      });
+
+      List<Estimate> notDone = new ArrayList<>();
+      for (Estimate estimate : remaining) {
+        if (isDone(estimate)) {
+          onDone.accept(estimate);
+        } else {
+          notDone.add(estimate);
+        }
+      }
+      if (!notDone.isEmpty()) {
+        // The remaining PDF files are leased by other processes; wait for them.
+        Thread.sleep(this.coordinator.getLeaseTimeoutMillis() / 4);
+      }
+      remaining = notDone;
+    }
+    return failed;
+  }
+
+  /**
+   * Tries to claim the given PDF file.
+   *
+   * @param estimate The estimated costs of the PDF file.
+   *
+   * @return The lease of the PDF file, or null if the PDF file is done, leased by another process
+   *         or couldn't be claimed.
+   */
+  protected Lease tryClaim(Estimate estimate) {
+    try {
+      return this.coordinator.tryClaim(getName(estimate), getOutputPath(estimate));
+    } catch (IOException e) {
+      log.error("Couldn't claim '" + estimate.getPdfPath() + "'.", e);
+      return null;
+    }
+  }
+
+  /**
+   * Processes the given claimed PDF file and finishes it: commits its output on success and marks
+   * it as failed otherwise.
+   *
+   * @param estimate  The estimated costs of the PDF file.
+   * @param lease     The lease of the PDF file.
+   * @param processor The processor of a single PDF file.
+   *
+   * @return True, if the PDF file was processed successfully; false otherwise.
+   */
+  protected boolean process(Estimate estimate, Lease lease, FileProcessor processor) {
+    Path tmpPath = lease.getTempOutputPath();
+    String error = null;
+    try {
+      int statusCode = processor.process(estimate.getPdfPath(), tmpPath);
+      if (statusCode != 0) {
+        error = "status code: " + statusCode;
+      }
+    } catch (IOException | RuntimeException e) {
+      // An exception must finish the PDF file as well, or it would be retried forever.
+      log.error("Couldn't process '" + estimate.getPdfPath() + "'.", e);
+      error = e.toString();
+    }
+
+    try {
+      if (error == null) {
+        lease.commit(tmpPath, getOutputPath(estimate));
+        return true;
+      }
+      lease.fail(error);
+    } catch (IOException e) {
+      log.error("Couldn't finish '" + estimate.getPdfPath() + "'.", e);
+    } finally {
+      lease.release();
+    }
+    return false;
+  }
+
+  /**
+   * Checks if the given PDF file is done.
+   *
+   * @param estimate The estimated costs of the PDF file.
+   *
+   * @return True, if the PDF file is done; false otherwise.
+   */
+  protected boolean isDone(Estimate estimate) {
+    return this.coordinator.isDone(getName(estimate), getOutputPath(estimate));
+  }
+
+  /**
+   * Returns the name of the given PDF file.
+   *
+   * @param estimate The estimated costs of the PDF file.
+   *
+   * @return The name of the PDF file.
+   */
+  protected static String getName(Estimate estimate) {
+    return estimate.getPdfPath().getFileName().toString();
+  }
+
+  /**
+   * Returns the path to the output of the given PDF file.
+   *
+   * @param estimate The estimated costs of the PDF file.
+   *
+   * @return The path to the output.
+   */
+  protected static Path getOutputPath(Estimate estimate) {
+    return estimate.getPdfPath().resolveSibling(getName(estimate) + ".json");
+  }
+
+  // ==============================================================================================
+
+  /**
+   * A processor of a single PDF file.
+   */
+  public interface FileProcessor {
+    /**
+     * Processes the given PDF file.
+     *
+     * @param pdfPath    The path to the PDF file.
+     * @param outputPath The path to which the output should be written.
+     *
+     * @return The status code of the processing (0 on success).
+     *
+     * @throws IOException If the PDF file couldn't be read or the output couldn't be written.
+     */
+    int process(Path pdfPath, Path outputPath) throws IOException;
+  }
+}
@@ -0,0 +1,701 @@
+package pdfact.cli.util.batch;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A coordinator of multiple processes (possibly on multiple hosts) that process the files of a
+ * shared directory (for example, on a NFS share), so that each file is processed exactly once. The
+ * coordination is based on the file system only, by lease files in a subdirectory of the shared
+ * directory:
+ *
+ * <ul>
+ * <li>A process claims a file by creating a lease file for it, which contains the id of the
+ * process. The lease file is written under a unique name first and then linked to its final name,
+ * which fails atomically if another process already holds a lease for the file.</li>
+ * <li>While a process holds a lease, it renews the lease periodically (a heartbeat), by updating
+ * the modification time of the lease file.</li>
+ * <li>A lease that wasn't renewed for a given time is expired (for example, because the process
+ * holding it crashed) and may be stolen by another process. A process steals a lease by renaming
+ * the lease file to a unique name, which succeeds for one process only.</li>
+ * <li>A process finishes a file by moving its output (written to a temporary file) atomically to
+ * the target path, or by writing a marker for a file that couldn't be processed, and deletes the
+ * lease file afterwards. A file is done if its output or its marker exists.</li>
+ * <li>Before a process finishes a file or releases a lease, it renames the lease file to a name
+ * that is unique for the process and checks the owner of the renamed file. This makes the check
+ * and the following action atomic: once renamed, the lease can't be stolen anymore, and a lease
+ * that turns out to be held by another process is restored. While doing so, the process holds an
+ * end marker for the file (created exclusively), so that a process that claims the file in the
+ * meantime (the lease file is missing after the renaming) backs off until the output exists.</li>
+ * </ul>
+ *
+ * <p>
+ * The lease file of a lease that is checked by another process (that is, stolen or renamed before
+ * an action) is missing for a short time. A missing lease file is therefore re-read a few times
+ * before the lease is considered as missing, and a lease is only considered as lost if its lease
+ * file names another process.
+ *
+ * <p>
+ * The expiry of leases is based on the clocks of the processes, which therefore must be roughly
+ * synchronized (the lease timeout should be much larger than the possible clock skew).
+ *
+ * @author Claudius Korzen
+ */
+public class FileLeaseCoordinator implements AutoCloseable {
+  /**
+   * The logger.
+   */
+  protected static Logger log = LogManager.getLogger(FileLeaseCoordinator.class);
+
+  /**
+   * The name of the subdirectory of the shared directory that contains the lease files.
+   */
+  public static final String LEASE_DIR_NAME = ".pdfact-leases";
+
+  /**
+   * The file extension of lease files.
+   */
+  protected static final String LEASE_EXTENSION = ".lease";
+
+  /**
+   * The file extension of the markers of files that couldn't be processed.
+   */
+  protected static final String FAILED_EXTENSION = ".failed";
+
+  /**
+   * The file extension of the markers of files whose leases are ended at the moment.
+   */
+  protected static final String ENDING_EXTENSION = ".ending";
+
+  /**
+   * The number of times a missing lease file is re-read before it is considered as missing.
+   */
+  protected static final int NUM_RETRIES = 10;
+
+  /**
+   * The time to wait before a missing lease file is re-read, in milliseconds.
+   */
+  protected static final long RETRY_INTERVAL_MILLIS = 50;
+
+  /**
+   * The directory that contains the lease files.
+   */
+  protected Path leaseDir;
+
+  /**
+   * The id of this process.
+   */
+  protected String ownerId;
+
+  /**
+   * The time after which a lease that wasn't renewed expires, in milliseconds.
+   */
+  protected long leaseTimeoutMillis;
+
+  /**
+   * The leases held by this process.
+   */
+  protected Set<Lease> leases = ConcurrentHashMap.newKeySet();
+
+  /**
+   * The executor of the heartbeats.
+   */
+  protected ScheduledExecutorService heartbeat;
+
+  // ==============================================================================================
+  // Constructors.
+
+  /**
+   * Creates a new coordinator, which renews its leases four times per lease timeout.
+   *
+   * @param dir                The shared directory.
+   * @param leaseTimeoutMillis The time after which a lease that wasn't renewed expires, in
+   *                           milliseconds.
+   *
+   * @throws IOException If the directory of the lease files couldn't be created.
+   */
+  public FileLeaseCoordinator(Path dir, long leaseTimeoutMillis) throws IOException {
+    this(dir, leaseTimeoutMillis, leaseTimeoutMillis / 4);
+  }
+
+  /**
+   * Creates a new coordinator.
+   *
+   * @param dir                     The shared directory.
+   * @param leaseTimeoutMillis      The time after which a lease that wasn't renewed expires, in
+   *                                milliseconds.
+   * @param heartbeatIntervalMillis The interval in which the leases are renewed, in milliseconds.
+   *
+   * @throws IOException If the directory of the lease files couldn't be created.
+   */
+  public FileLeaseCoordinator(Path dir, long leaseTimeoutMillis, long heartbeatIntervalMillis)
+      throws IOException {
+    if (heartbeatIntervalMillis < 1 || heartbeatIntervalMillis >= leaseTimeoutMillis) {
+      throw new IllegalArgumentException("The heartbeat interval must be positive and smaller "
+          + "than the lease timeout.");
+    }
+    this.leaseDir = Files.createDirectories(dir.resolve(LEASE_DIR_NAME));
+    this.leaseTimeoutMillis = leaseTimeoutMillis;
+    // The id consists of the process id and the host name, plus a random part (to distinguish
+    // multiple coordinators in the same process).
+    String name = ManagementFactory.getRuntimeMXBean().getName();
+    String random = UUID.randomUUID().toString().substring(0, 8);
+    this.ownerId = (name + "-" + random).replaceAll("[^A-Za-z0-9.-]", "_");
+
+    this.heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, "pdfact-lease-heartbeat");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.heartbeat.scheduleWithFixedDelay(this::renewLeases, heartbeatIntervalMillis,
+        heartbeatIntervalMillis, TimeUnit.MILLISECONDS);
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Tries to claim the given file.
+   *
+   * @param name       The name of the file (in the shared directory).
+   * @param outputPath The path to the output of the file; the file is done if the output exists.
+   *
+   * @return The lease of the file, or null if the file is done or if another process holds a
+   *         (non-expired) lease for it.
+   *
+   * @throws IOException If the lease file couldn't be read or written.
+   */
+  public Lease tryClaim(String name, Path outputPath) throws IOException {
+    if (isDone(name, outputPath)) {
+      return null;
+    }
+    Path leasePath = this.leaseDir.resolve(name + LEASE_EXTENSION);
+    // Try twice: once directly and once after stealing an expired lease.
+    for (int i = 0; i < 2; i++) {
+      if (createLeaseFile(leasePath)) {
+        // The file may be finished by another process at the moment or may have been finished
+        // between the check and the claim (the end marker must be checked first, since it is
+        // deleted after the output was moved).
+        if (isEnding(name) || isDone(name, outputPath)) {
+          // The lease file was just created, so it can't have been stolen yet.
+          Files.deleteIfExists(leasePath);
+          return null;
+        }
+        Lease lease = new Lease(name, leasePath);
+        this.leases.add(lease);
+        return lease;
+      }
+      if (!stealIfExpired(leasePath)) {
+        return null;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Checks if the given file is done, that is: if its output or the marker of a failure exists.
+   *
+   * @param name       The name of the file.
+   * @param outputPath The path to the output of the file.
+   *
+   * @return True, if the file is done; false otherwise.
+   */
+  public boolean isDone(String name, Path outputPath) {
+    return Files.exists(outputPath) || Files.exists(this.leaseDir.resolve(name + FAILED_EXTENSION));
+  }
+
+  /**
+   * Checks if the lease of the given file is ended at the moment, that is: if a non-expired end
+   * marker exists for the file.
+   *
+   * @param name The name of the file.
+   *
+   * @return True, if the lease of the file is ended at the moment; false otherwise.
+   *
+   * @throws IOException If the end marker couldn't be read.
+   */
+  protected boolean isEnding(String name) throws IOException {
+    try {
+      return !isExpired(this.leaseDir.resolve(name + ENDING_EXTENSION));
+    } catch (NoSuchFileException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Returns the id of this process.
+   *
+   * @return The id.
+   */
+  public String getOwnerId() {
+    return this.ownerId;
+  }
+
+  /**
+   * Returns the time after which a lease that wasn't renewed expires, in milliseconds.
+   *
+   * @return The time in milliseconds.
+   */
+  public long getLeaseTimeoutMillis() {
+    return this.leaseTimeoutMillis;
+  }
+
+  @Override
+  public void close() {
+    this.heartbeat.shutdownNow();
+    for (Lease lease : this.leases) {
+      lease.release();
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Creates the given lease file, with the id of this process as content, if it doesn't exist yet.
+   *
+   * @param leasePath The path to the lease file.
+   *
+   * @return True, if the lease file was created; false if it already exists.
+   *
+   * @throws IOException If the lease file couldn't be written.
+   */
+  protected boolean createLeaseFile(Path leasePath) throws IOException {
+    Path tmpPath = getUniquePath(leasePath, ".tmp");
+    Files.write(tmpPath, this.ownerId.getBytes(StandardCharsets.UTF_8));
+    try {
+      // Creating a link fails atomically if the target exists (unlike renaming, which replaces
+      // the target), also on NFS.
+      Files.createLink(leasePath, tmpPath);
+      return true;
+    } catch (FileAlreadyExistsException e) {
+      return false;
+    } catch (UnsupportedOperationException e) {
+      // The file system doesn't support links; create the lease file exclusively instead.
+      try {
+        Files.write(leasePath, this.ownerId.getBytes(StandardCharsets.UTF_8),
+            StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        return true;
+      } catch (FileAlreadyExistsException e2) {
+        return false;
+      }
+    } finally {
+      Files.deleteIfExists(tmpPath);
+    }
+  }
+
+  /**
+   * Steals the given lease file, if it is expired.
+   *
+   * @param leasePath The path to the lease file.
+   *
+   * @return True, if the lease file was stolen (or doesn't exist anymore); false if the lease is
+   *         not expired or was stolen by another process.
+   *
+   * @throws IOException If the lease file couldn't be read or written.
+   */
+  protected boolean stealIfExpired(Path leasePath) throws IOException {
+    try {
+      if (!isExpired(leasePath)) {
+        return false;
+      }
+      // Only one process can rename the lease file.
+      Path stalePath = getUniquePath(leasePath, ".stale");
+      Files.move(leasePath, stalePath, StandardCopyOption.ATOMIC_MOVE);
+      if (!isExpired(stalePath)) {
+        // The lease was renewed in the meantime; restore it.
+        try {
+          Files.createLink(leasePath, stalePath);
+        } catch (FileAlreadyExistsException e) {
+          // Another process created a new lease in the meantime.
+        }
+        Files.delete(stalePath);
+        return false;
+      }
+      log.info("Stealing the expired lease '" + leasePath + "' of "
+          + new String(Files.readAllBytes(stalePath), StandardCharsets.UTF_8) + ".");
+      Files.delete(stalePath);
+      return true;
+    } catch (NoSuchFileException e) {
+      // The lease was released or stolen by another process in the meantime.
+      return true;
+    }
+  }
+
+  /**
+   * Reads the id of the owner of the given lease file. If the lease file doesn't exist, it is
+   * re-read a few times, since it may be renamed temporarily by another process.
+   *
+   * @param leasePath The path to the lease file.
+   *
+   * @return The id of the owner, or null if the lease file doesn't exist.
+   *
+   * @throws IOException If the lease file couldn't be read.
+   */
+  protected String readOwner(Path leasePath) throws IOException {
+    for (int i = 0;; i++) {
+      try {
+        return new String(Files.readAllBytes(leasePath), StandardCharsets.UTF_8);
+      } catch (NoSuchFileException e) {
+        if (i >= NUM_RETRIES || !pause()) {
+          return null;
+        }
+      }
+    }
+  }
+
+  /**
+   * Creates the given end marker exclusively. An expired end marker (of a process that crashed
+   * while ending a lease) is replaced.
+   *
+   * @param endingPath The path to the end marker.
+   *
+   * @return True, if the end marker was created; false if it is held by another process.
+   *
+   * @throws IOException If the end marker couldn't be written.
+   */
+  protected boolean createEndMarker(Path endingPath) throws IOException {
+    for (int i = 0;; i++) {
+      try {
+        Files.write(endingPath, this.ownerId.getBytes(StandardCharsets.UTF_8),
+            StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        return true;
+      } catch (FileAlreadyExistsException e) {
+        try {
+          if (isExpired(endingPath)) {
+            Files.deleteIfExists(endingPath);
+            continue;
+          }
+        } catch (NoSuchFileException e2) {
+          continue;
+        }
+        if (i >= NUM_RETRIES || !pause()) {
+          return false;
+        }
+      }
+    }
+  }
+
+  /**
+   * Waits before a missing lease file is accessed again.
+   *
+   * @return True, if the waiting wasn't interrupted; false otherwise.
+   */
+  protected static boolean pause() {
+    try {
+      Thread.sleep(RETRY_INTERVAL_MILLIS);
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  /**
+   * Checks if the given lease file is expired.
+   *
+   * @param leasePath The path to the lease file.
+   *
+   * @return True, if the lease file is expired; false otherwise.
+   *
+   * @throws IOException If the modification time of the lease file couldn't be read.
+   */
+  protected boolean isExpired(Path leasePath) throws IOException {
+    long lastRenewed = Files.getLastModifiedTime(leasePath).toMillis();
+    return System.currentTimeMillis() - lastRenewed > this.leaseTimeoutMillis;
+  }
+
+  /**
+   * Renews the leases held by this process.
+   */
+  protected void renewLeases() {
+    for (Lease lease : this.leases) {
+      lease.renew();
+    }
+  }
+
+  /**
+   * Returns a path next to the given path, which is unique for this process.
+   *
+   * @param path      The path.
+   * @param extension The extension of the unique path.
+   *
+   * @return The unique path.
+   */
+  protected Path getUniquePath(Path path, String extension) {
+    return path.resolveSibling(path.getFileName() + "." + this.ownerId + "."
+        + Thread.currentThread().getId() + extension);
+  }
+
+  // ==============================================================================================
+
+  /**
+   * A lease of a file, held by this process.
+   */
+  public class Lease {
+    /**
+     * The name of the file.
+     */
+    protected String name;
+
+    /**
+     * The path to the lease file.
+     */
+    protected Path leasePath;
+
+    /**
+     * The boolean flag indicating whether or not the lease was lost, that is: whether the lease
+     * file names another process (for example, because the lease couldn't be renewed in time and
+     * was stolen by another process).
+     */
+    protected volatile boolean isLost;
+
+    /**
+     * The boolean flag indicating whether or not the lease was released.
+     */
+    protected volatile boolean isReleased;
+
+    /**
+     * Creates a new lease.
+     *
+     * @param name      The name of the file.
+     * @param leasePath The path to the lease file.
+     */
+    protected Lease(String name, Path leasePath) {
+      this.name = name;
+      this.leasePath = leasePath;
+    }
+
+    /**
+     * Returns the path to which the output of the file should be written, before it is committed
+     * (see {@link #commit(Path, Path)}).
+     *
+     * @return The path.
+     */
+    public Path getTempOutputPath() {
+      return this.leasePath.resolveSibling(this.name + "." + ownerId + ".out");
+    }
+
+    /**
+     * Checks if this process still holds this lease. Note that the result may be outdated
+     * immediately; actions that depend on holding the lease must use {@link #acquire()}.
+     *
+     * @return True, if this process still holds this lease; false otherwise (also if the lease
+     *         file is missing or couldn't be read).
+     */
+    public boolean isHeld() {
+      if (this.isLost) {
+        return false;
+      }
+      try {
+        String owner = readOwner(this.leasePath);
+        if (owner != null && !owner.equals(ownerId)) {
+          this.isLost = true;
+        }
+        return ownerId.equals(owner);
+      } catch (IOException e) {
+        log.warn("Couldn't read the lease '" + this.leasePath + "'.", e);
+        return false;
+      }
+    }
+
+    /**
+     * Renews this lease.
+     */
+    protected void renew() {
+      if (this.isReleased) {
+        return;
+      }
+      if (!isHeld()) {
+        if (this.isLost) {
+          log.warn("Lost the lease '" + this.leasePath + "'.");
+          leases.remove(this);
+        }
+        // Otherwise, the lease file is missing or couldn't be read; try again on the next beat.
+        return;
+      }
+      try {
+        Files.setLastModifiedTime(this.leasePath, FileTime.fromMillis(System.currentTimeMillis()));
+      } catch (NoSuchFileException e) {
+        // The lease file is checked by another process at the moment; try again on the next beat.
+      } catch (IOException e) {
+        log.warn("Couldn't renew the lease '" + this.leasePath + "'.", e);
+      }
+    }
+
+    /**
+     * Starts to end this lease: creates the end marker of the file, renames the lease file to a
+     * path that is unique for this process (so that no other process can steal the lease
+     * anymore) and checks if the renamed lease file names this process. If it names another
+     * process, the lease file is restored. If the lease is held, the caller must finish the file
+     * and call {@link #end(Path)} afterwards.
+     *
+     * @return The path to the renamed lease file; or null if this lease was released before, was
+     *         lost or the lease file is missing.
+     *
+     * @throws IOException If the lease file couldn't be renamed or read.
+     */
+    protected Path acquire() throws IOException {
+      if (this.isReleased) {
+        return null;
+      }
+      this.isReleased = true;
+      leases.remove(this);
+      if (this.isLost) {
+        return null;
+      }
+      this.isLost = true;
+
+      Path endingPath = leaseDir.resolve(this.name + ENDING_EXTENSION);
+      if (!createEndMarker(endingPath)) {
+        log.warn("Couldn't end the lease '" + this.leasePath + "'.");
+        return null;
+      }
+      Path ownPath = getUniquePath(this.leasePath, ".end");
+      try {
+        for (int i = 0;; i++) {
+          try {
+            Files.move(this.leasePath, ownPath, StandardCopyOption.ATOMIC_MOVE);
+            break;
+          } catch (NoSuchFileException e) {
+            if (i >= NUM_RETRIES || !pause()) {
+              Files.deleteIfExists(endingPath);
+              return null;
+            }
+          }
+        }
+        if (ownerId.equals(readOwner(ownPath))) {
+          return ownPath;
+        }
+        // The lease file names another process; restore it.
+        try {
+          Files.createLink(this.leasePath, ownPath);
+        } catch (FileAlreadyExistsException e) {
+          // Another process created a new lease in the meantime.
+        }
+        end(ownPath);
+        return null;
+      } catch (IOException e) {
+        end(ownPath);
+        throw e;
+      }
+    }
+
+    /**
+     * Finishes the ending of this lease, by deleting the renamed lease file and the end marker.
+     *
+     * @param ownPath The path to the renamed lease file (see {@link #acquire()}).
+     *
+     * @throws IOException If the files couldn't be deleted.
+     */
+    protected void end(Path ownPath) throws IOException {
+      try {
+        Files.deleteIfExists(ownPath);
+      } finally {
+        Files.deleteIfExists(leaseDir.resolve(this.name + ENDING_EXTENSION));
+      }
+    }
+
+    /**
+     * Finishes the file by moving the given output atomically to the given target path, and
+     * releases this lease. If this lease was lost in the meantime or the output already exists,
+     * the given output is discarded.
+     *
+     * @param tmpOutputPath The path to the output (see {@link #getTempOutputPath()}).
+     * @param outputPath    The target path of the output.
+     *
+     * @return True, if the output was committed; false if this lease was lost or the output
+     *         already exists.
+     *
+     * @throws IOException If the output couldn't be moved (then, the file is marked as failed).
+     */
+    public boolean commit(Path tmpOutputPath, Path outputPath) throws IOException {
+      Path ownPath = acquire();
+      try {
+        if (ownPath == null || Files.exists(outputPath)) {
+          Files.deleteIfExists(tmpOutputPath);
+          return false;
+        }
+        try {
+          Files.move(tmpOutputPath, outputPath, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+          // Mark the file as failed, so that it isn't retried forever.
+          writeFailedMarker("Couldn't commit the output: " + e);
+          Files.deleteIfExists(tmpOutputPath);
+          throw e;
+        }
+        return true;
+      } finally {
+        if (ownPath != null) {
+          end(ownPath);
+        }
+      }
+    }
+
+    /**
+     * Finishes the file by writing a marker that the file couldn't be processed (so that no other
+     * process tries again), and releases this lease.
+     *
+     * @param message The error message, written to the marker.
+     *
+     * @throws IOException If the marker couldn't be written.
+     */
+    public void fail(String message) throws IOException {
+      Path ownPath = acquire();
+      try {
+        if (ownPath != null) {
+          writeFailedMarker(message);
+        }
+      } finally {
+        Files.deleteIfExists(getTempOutputPath());
+        if (ownPath != null) {
+          end(ownPath);
+        }
+      }
+    }
+
+    /**
+     * Writes the marker that the file couldn't be processed. Must only be called while this lease
+     * is ended (see {@link #acquire()}).
+     *
+     * @param message The error message, written to the marker.
+     *
+     * @throws IOException If the marker couldn't be written.
+     */
+    protected void writeFailedMarker(String message) throws IOException {
+      Path failedPath = leaseDir.resolve(this.name + FAILED_EXTENSION);
+      Path tmpPath = getUniquePath(failedPath, ".tmp");
+      Files.write(tmpPath, String.valueOf(message).getBytes(StandardCharsets.UTF_8));
+      Files.move(tmpPath, failedPath, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Releases this lease (without finishing the file), so that the file can be claimed by other
+     * processes.
+     */
+    public void release() {
+      try {
+        Path ownPath = acquire();
+        if (ownPath != null) {
+          end(ownPath);
+        }
+      } catch (IOException e) {
+        log.warn("Couldn't release the lease '" + this.leasePath + "'.", e);
+      }
+    }
+  }
+}
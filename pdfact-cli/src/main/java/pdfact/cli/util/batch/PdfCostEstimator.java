@@ -0,0 +1,186 @@
+package pdfact.cli.util.batch;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * An estimator of the costs of processing PDF files, computed up front from the size of a PDF
+ * file and its number of pages (see {@link PdfPageCounter}). The main cost is the heap needed
+ * while processing a PDF file, which grows with the number of pages (all characters, figures and
+ * shapes of a document are kept in memory) and the size of the file (decoded streams, fonts and
+ * images).
+ *
+ * <p>
+ * The coefficients of the estimation can be tuned by comparing the estimated costs with the actual
+ * costs logged by the {@link BatchScheduler}.
+ *
+ * @author Claudius Korzen
+ */
+public class PdfCostEstimator {
+  /**
+   * The logger.
+   */
+  protected static Logger log = LogManager.getLogger(PdfCostEstimator.class);
+
+  /**
+   * The default heap needed to process any PDF file, in bytes.
+   */
+  public static final long DEFAULT_BASE_BYTES = 16L * 1024 * 1024;
+
+  /**
+   * The default heap needed per page, in bytes.
+   */
+  public static final long DEFAULT_BYTES_PER_PAGE = 512L * 1024;
+
+  /**
+   * The default heap needed per byte of the PDF file.
+   */
+  public static final double DEFAULT_BYTES_PER_FILE_BYTE = 24;
+
+  /**
+   * The average size of a page in a PDF file, in bytes, to guess the number of pages of a PDF file
+   * whose pages couldn't be counted.
+   */
+  protected static final long AVERAGE_PAGE_SIZE = 50 * 1024;
+
+  /**
+   * The counter of the pages of PDF files.
+   */
+  protected PdfPageCounter pageCounter = new PdfPageCounter();
+
+  /**
+   * The heap needed to process any PDF file, in bytes.
+   */
+  protected long baseBytes;
+
+  /**
+   * The heap needed per page, in bytes.
+   */
+  protected long bytesPerPage;
+
+  /**
+   * The heap needed per byte of the PDF file.
+   */
+  protected double bytesPerFileByte;
+
+  // ==============================================================================================
+  // Constructors.
+
+  /**
+   * Creates a new estimator with the default coefficients.
+   */
+  public PdfCostEstimator() {
+    this(DEFAULT_BASE_BYTES, DEFAULT_BYTES_PER_PAGE, DEFAULT_BYTES_PER_FILE_BYTE);
+  }
+
+  /**
+   * Creates a new estimator.
+   *
+   * @param baseBytes        The heap needed to process any PDF file, in bytes.
+   * @param bytesPerPage     The heap needed per page, in bytes.
+   * @param bytesPerFileByte The heap needed per byte of the PDF file.
+   */
+  public PdfCostEstimator(long baseBytes, long bytesPerPage, double bytesPerFileByte) {
+    this.baseBytes = baseBytes;
+    this.bytesPerPage = bytesPerPage;
+    this.bytesPerFileByte = bytesPerFileByte;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Estimates the costs of processing the given PDF file.
+   *
+   * @param pdfPath The path to the PDF file.
+   *
+   * @return The estimated costs.
+   */
+  public Estimate estimate(Path pdfPath) {
+    long fileSize = 0;
+    int numPages;
+    try {
+      fileSize = Files.size(pdfPath);
+      numPages = this.pageCounter.count(pdfPath);
+    } catch (IOException | RuntimeException e) {
+      // The PDF file will probably fail to be processed anyway; guess the number of pages.
+      log.debug("Couldn't count the pages of '" + pdfPath + "'.", e);
+      numPages = (int) Math.max(1, fileSize / AVERAGE_PAGE_SIZE);
+    }
+    long heapBytes = this.baseBytes + numPages * this.bytesPerPage
+        + (long) (fileSize * this.bytesPerFileByte);
+    return new Estimate(pdfPath, fileSize, numPages, heapBytes);
+  }
+
+  // ==============================================================================================
+
+  /**
+   * The estimated costs of processing a PDF file.
+   */
+  public static class Estimate {
+    /**
+     * The path to the PDF file.
+     */
+    protected Path pdfPath;
+
+    /**
+     * The size of the PDF file, in bytes.
+     */
+    protected long fileSize;
+
+    /**
+     * The number of pages of the PDF file.
+     */
+    protected int numPages;
+
+    /**
+     * The estimated heap needed to process the PDF file, in bytes.
+     */
+    protected long heapBytes;
+
+    /**
+     * Creates a new estimate.
+     *
+     * @param pdfPath   The path to the PDF file.
+     * @param fileSize  The size of the PDF file, in bytes.
+     * @param numPages  The number of pages of the PDF file.
+     * @param heapBytes The estimated heap needed to process the PDF file, in bytes.
+     */
+    public Estimate(Path pdfPath, long fileSize, int numPages, long heapBytes) {
+      this.pdfPath = pdfPath;
+      this.fileSize = fileSize;
+      this.numPages = numPages;
+      this.heapBytes = heapBytes;
+    }
+
+    /**
+     * Returns the path to the PDF file.
+     */
+    public Path getPdfPath() {
+      return this.pdfPath;
+    }
+
+    /**
+     * Returns the size of the PDF file, in bytes.
+     */
+    public long getFileSize() {
+      return this.fileSize;
+    }
+
+    /**
+     * Returns the number of pages of the PDF file.
+     */
+    public int getNumPages() {
+      return this.numPages;
+    }
+
+    /**
+     * Returns the estimated heap needed to process the PDF file, in bytes.
+     */
+    public long getHeapBytes() {
+      return this.heapBytes;
+    }
+  }
+}
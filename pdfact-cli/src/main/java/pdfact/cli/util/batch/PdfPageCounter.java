@@ -0,0 +1,337 @@
+package pdfact.cli.util.batch;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+
+/**
+ * A counter of the pages of PDF files, which reads only the trailer, the cross-reference tables,
+ * the document catalog and the root of the page tree of a PDF file, instead of parsing the whole
+ * file. PDF files that can't be read this way (for example, files with cross-reference streams,
+ * whose objects may be stored in compressed object streams) are loaded with PDFBox instead.
+ *
+ * @author Claudius Korzen
+ */
+public class PdfPageCounter {
+  /**
+   * The number of bytes to read from the end of a file to find the offset of the last
+   * cross-reference table.
+   */
+  protected static final int TAIL_LENGTH = 2048;
+
+  /**
+   * The number of bytes to read at once at the beginning of an object (or of a trailer).
+   */
+  protected static final int CHUNK_LENGTH = 4096;
+
+  /**
+   * The maximum number of bytes to read of an object.
+   */
+  protected static final int MAX_OBJECT_LENGTH = 1024 * 1024;
+
+  /**
+   * The length of an entry in a cross-reference table.
+   */
+  protected static final int XREF_ENTRY_LENGTH = 20;
+
+  /**
+   * The maximum number of cross-reference tables to follow (to not run into endless loops on
+   * malformed files).
+   */
+  protected static final int MAX_NUM_XREF_TABLES = 1000;
+
+  /**
+   * The pattern to find the offset of the last cross-reference table.
+   */
+  protected static final Pattern STARTXREF = Pattern.compile("startxref\\s+(\\d+)");
+
+  /**
+   * The pattern to find the header of a subsection of a cross-reference table.
+   */
+  protected static final Pattern XREF_SUBSECTION = Pattern.compile("\\G\\s*(\\d+)\\s+(\\d+)\\s*");
+
+  /**
+   * The pattern to find the reference to the document catalog in a trailer.
+   */
+  protected static final Pattern ROOT = Pattern.compile("/Root\\s+(\\d+)\\s+\\d+\\s+R");
+
+  /**
+   * The pattern to find the offset of the previous cross-reference table in a trailer.
+   */
+  protected static final Pattern PREV = Pattern.compile("/Prev\\s+(\\d+)");
+
+  /**
+   * The pattern to find the reference to the root of the page tree in the document catalog.
+   */
+  protected static final Pattern PAGES = Pattern.compile("/Pages\\s+(\\d+)\\s+\\d+\\s+R");
+
+  /**
+   * The pattern to find the number of pages in the root of the page tree.
+   */
+  protected static final Pattern COUNT = Pattern.compile("/Count\\s+(\\d+)");
+
+  // ==============================================================================================
+
+  /**
+   * Counts the pages of the given PDF file.
+   *
+   * @param pdfPath The path to the PDF file.
+   *
+   * @return The number of pages.
+   *
+   * @throws IOException If the PDF file couldn't be read.
+   */
+  public int count(Path pdfPath) throws IOException {
+    try (RandomAccessFile file = new RandomAccessFile(pdfPath.toFile(), "r")) {
+      int numPages = countFromPageTree(file);
+      if (numPages >= 0) {
+        return numPages;
+      }
+    }
+    try (PDDocument pdf = PDDocument.load(pdfPath.toFile(),
+        MemoryUsageSetting.setupTempFileOnly())) {
+      return pdf.getNumberOfPages();
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Reads the number of pages from the root of the page tree of the given PDF file.
+   *
+   * @param file The PDF file.
+   *
+   * @return The number of pages, or -1 if the number of pages couldn't be read this way.
+   *
+   * @throws IOException If the PDF file couldn't be read.
+   */
+  protected int countFromPageTree(RandomAccessFile file) throws IOException {
+    // Find the offset of the most recent cross-reference table.
+    String tail = read(file, Math.max(0, file.length() - TAIL_LENGTH), TAIL_LENGTH);
+    Matcher m = STARTXREF.matcher(tail);
+    long xrefOffset = -1;
+    while (m.find()) {
+      xrefOffset = Long.parseLong(m.group(1));
+    }
+    XrefTable xref = xrefOffset >= 0 ? readXrefTable(file, xrefOffset) : null;
+    if (xref == null || xref.rootNum < 0) {
+      // Probably a cross-reference stream.
+      return -1;
+    }
+
+    String catalog = readObject(file, findOffset(file, xref, xref.rootNum), xref.rootNum);
+    m = catalog != null ? PAGES.matcher(catalog) : null;
+    if (m == null || !m.find()) {
+      return -1;
+    }
+    int pagesNum = Integer.parseInt(m.group(1));
+    String pages = readObject(file, findOffset(file, xref, pagesNum), pagesNum);
+    m = pages != null ? COUNT.matcher(pages) : null;
+    if (m == null || !m.find()) {
+      return -1;
+    }
+    return Integer.parseInt(m.group(1));
+  }
+
+  /**
+   * Finds the offset of the object with the given number, by following the chain of the
+   * cross-reference tables from the given (most recent) table.
+   *
+   * @param file The PDF file.
+   * @param xref The most recent cross-reference table.
+   * @param num  The number of the object.
+   *
+   * @return The offset, or -1 if the offset couldn't be found.
+   *
+   * @throws IOException If the PDF file couldn't be read.
+   */
+  protected long findOffset(RandomAccessFile file, XrefTable xref, int num) throws IOException {
+    for (int i = 0; i < MAX_NUM_XREF_TABLES && xref != null; i++) {
+      long offset = xref.getOffset(file, num);
+      if (offset >= 0) {
+        return offset;
+      }
+      xref = xref.prevOffset >= 0 ? readXrefTable(file, xref.prevOffset) : null;
+    }
+    return -1;
+  }
+
+  /**
+   * Reads the (classic) cross-reference table at the given offset.
+   *
+   * @param file   The PDF file.
+   * @param offset The offset of the table.
+   *
+   * @return The table, or null if there is no cross-reference table at the given offset.
+   *
+   * @throws IOException If the PDF file couldn't be read.
+   */
+  protected XrefTable readXrefTable(RandomAccessFile file, long offset) throws IOException {
+    String chunk = read(file, offset, CHUNK_LENGTH);
+    if (!chunk.startsWith("xref")) {
+      return null;
+    }
+    XrefTable xref = new XrefTable();
+    // Read the headers of the subsections (the entries are read on demand).
+    long pos = offset + 4;
+    while (true) {
+      String header = read(file, pos, 64);
+      Matcher m = XREF_SUBSECTION.matcher(header);
+      if (!m.find()) {
+        break;
+      }
+      int first = Integer.parseInt(m.group(1));
+      int count = Integer.parseInt(m.group(2));
+      xref.addSubsection(first, count, pos + m.end());
+      pos += m.end() + (long) count * XREF_ENTRY_LENGTH;
+    }
+
+    String trailer = read(file, pos, CHUNK_LENGTH);
+    if (!trailer.trim().startsWith("trailer")) {
+      return null;
+    }
+    int end = trailer.indexOf("startxref");
+    if (end >= 0) {
+      trailer = trailer.substring(0, end);
+    }
+    Matcher m = ROOT.matcher(trailer);
+    if (m.find()) {
+      xref.rootNum = Integer.parseInt(m.group(1));
+    }
+    m = PREV.matcher(trailer);
+    if (m.find()) {
+      xref.prevOffset = Long.parseLong(m.group(1));
+    }
+    return xref;
+  }
+
+  /**
+   * Reads the beginning of the object with the given number at the given offset.
+   *
+   * @param file   The PDF file.
+   * @param offset The offset of the object (-1 if unknown).
+   * @param num    The number of the object.
+   *
+   * @return The beginning of the object (up to "endobj"), or null if there is no object with the
+   *         given number at the given offset.
+   *
+   * @throws IOException If the PDF file couldn't be read.
+   */
+  protected String readObject(RandomAccessFile file, long offset, int num) throws IOException {
+    if (offset < 0 || offset >= file.length()) {
+      return null;
+    }
+    String chunk = read(file, offset, CHUNK_LENGTH);
+    if (!chunk.matches("(?s)\\s*" + num + "\\s+\\d+\\s+obj.*")) {
+      return null;
+    }
+    // Read further chunks until the end of the object (the root of the page tree may contain
+    // thousands of references to its kids).
+    int end;
+    while ((end = chunk.indexOf("endobj")) < 0 && chunk.length() < MAX_OBJECT_LENGTH
+        && offset + chunk.length() < file.length()) {
+      chunk = read(file, offset, 2 * chunk.length());
+    }
+    return end >= 0 ? chunk.substring(0, end) : chunk;
+  }
+
+  /**
+   * Reads (at most) the given number of bytes at the given offset.
+   *
+   * @param file   The PDF file.
+   * @param offset The offset.
+   * @param length The number of bytes to read.
+   *
+   * @return The read bytes, as a string.
+   *
+   * @throws IOException If the PDF file couldn't be read.
+   */
+  protected static String read(RandomAccessFile file, long offset, int length)
+      throws IOException {
+    byte[] bytes = new byte[(int) Math.max(0, Math.min(length, file.length() - offset))];
+    file.seek(offset);
+    file.readFully(bytes);
+    return new String(bytes, StandardCharsets.ISO_8859_1);
+  }
+
+  // ==============================================================================================
+
+  /**
+   * A classic cross-reference table.
+   */
+  protected static class XrefTable {
+    /**
+     * The numbers of the first objects of the subsections.
+     */
+    protected int[] firsts = new int[0];
+
+    /**
+     * The numbers of the entries of the subsections.
+     */
+    protected int[] counts = new int[0];
+
+    /**
+     * The offsets of the first entries of the subsections.
+     */
+    protected long[] offsets = new long[0];
+
+    /**
+     * The number of the document catalog (-1 if the trailer doesn't contain a reference to it).
+     */
+    protected int rootNum = -1;
+
+    /**
+     * The offset of the previous cross-reference table (-1 if there is no such table).
+     */
+    protected long prevOffset = -1;
+
+    /**
+     * Adds a subsection.
+     *
+     * @param first  The number of the first object of the subsection.
+     * @param count  The number of the entries of the subsection.
+     * @param offset The offset of the first entry of the subsection.
+     */
+    protected void addSubsection(int first, int count, long offset) {
+      int n = this.firsts.length;
+      this.firsts = Arrays.copyOf(this.firsts, n + 1);
+      this.counts = Arrays.copyOf(this.counts, n + 1);
+      this.offsets = Arrays.copyOf(this.offsets, n + 1);
+      this.firsts[n] = first;
+      this.counts[n] = count;
+      this.offsets[n] = offset;
+    }
+
+    /**
+     * Returns the offset of the object with the given number.
+     *
+     * @param file The PDF file.
+     * @param num  The number of the object.
+     *
+     * @return The offset, or -1 if this table doesn't contain an entry of an object in use with
+     *         the given number.
+     *
+     * @throws IOException If the PDF file couldn't be read.
+     */
+    protected long getOffset(RandomAccessFile file, int num) throws IOException {
+      for (int i = 0; i < this.firsts.length; i++) {
+        if (num >= this.firsts[i] && num < this.firsts[i] + this.counts[i]) {
+          long pos = this.offsets[i] + (long) (num - this.firsts[i]) * XREF_ENTRY_LENGTH;
+          String entry = read(file, pos, XREF_ENTRY_LENGTH).trim();
+          String[] fields = entry.split("\\s+");
+          if (fields.length == 3 && fields[2].equals("n")) {
+            return Long.parseLong(fields[0]);
+          }
+          return -1;
+        }
+      }
+      return -1;
+    }
+  }
+}
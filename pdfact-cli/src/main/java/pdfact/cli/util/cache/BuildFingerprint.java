@@ -0,0 +1,146 @@
+package pdfact.cli.util.cache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A fingerprint of the code that computes the serializations, so that the entries of a result
+ * cache become outdated when the code changes (for example, on an upgrade of PdfAct). The
+ * fingerprint is a hash of the code sources (the jar files or the class directories) of PdfAct and
+ * of the PDF library.
+ *
+ * @author Claudius Korzen
+ */
+public class BuildFingerprint {
+  /**
+   * The logger.
+   */
+  protected static Logger log = LogManager.getLogger(BuildFingerprint.class);
+
+  /**
+   * The classes whose code sources are hashed.
+   */
+  protected static final String[] CLASS_NAMES = { "pdfact.cli.PdfAct",
+      "pdfact.core.pipes.PdfActCorePipe", "pdfact.format.PdfActBinaryFormat",
+      "org.apache.pdfbox.pdmodel.PDDocument" };
+
+  /**
+   * The fingerprint, computed on first use.
+   */
+  protected static String fingerprint;
+
+  /**
+   * The boolean flag indicating whether or not the fingerprint was computed.
+   */
+  protected static boolean isComputed;
+
+  // ==============================================================================================
+
+  /**
+   * Returns the fingerprint of the code.
+   *
+   * @return The fingerprint, or null if the code sources couldn't be determined or read.
+   */
+  public static synchronized String get() {
+    if (!isComputed) {
+      isComputed = true;
+      try {
+        fingerprint = compute();
+      } catch (IOException e) {
+        log.warn("Couldn't compute the fingerprint of the code.", e);
+      }
+      if (fingerprint == null) {
+        log.warn("The fingerprint of the code is unknown; the result cache is not used.");
+      }
+    }
+    return fingerprint;
+  }
+
+  /**
+   * Computes the fingerprint of the code.
+   *
+   * @return The fingerprint, or null if the code sources couldn't be determined.
+   *
+   * @throws IOException If a code source couldn't be read.
+   */
+  protected static String compute() throws IOException {
+    Set<Path> sources = new TreeSet<>();
+    for (String className : CLASS_NAMES) {
+      Path source = getCodeSource(className);
+      if (source == null) {
+        return null;
+      }
+      sources.add(source);
+    }
+
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      return null;
+    }
+    for (Path source : sources) {
+      List<Path> files;
+      if (Files.isDirectory(source)) {
+        try (Stream<Path> stream = Files.walk(source)) {
+          files = stream.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+      } else {
+        files = Collections.singletonList(source);
+      }
+      for (Path file : files) {
+        digest.update(source.relativize(file).toString().getBytes(StandardCharsets.UTF_8));
+        byte[] buffer = new byte[8192];
+        try (InputStream in = Files.newInputStream(file)) {
+          int n;
+          while ((n = in.read(buffer)) > 0) {
+            digest.update(buffer, 0, n);
+          }
+        }
+      }
+    }
+
+    StringBuilder sb = new StringBuilder();
+    for (byte b : digest.digest()) {
+      sb.append(String.format("%02x", b));
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Returns the code source (the jar file or the class directory) of the given class.
+   *
+   * @param className The name of the class.
+   *
+   * @return The path to the code source, or null if the class or its code source is unknown.
+   */
+  protected static Path getCodeSource(String className) {
+    try {
+      CodeSource source = Class.forName(className).getProtectionDomain().getCodeSource();
+      URL location = source != null ? source.getLocation() : null;
+      if (location == null || !"file".equals(location.getProtocol())) {
+        return null;
+      }
+      return Paths.get(location.toURI());
+    } catch (ClassNotFoundException | SecurityException | URISyntaxException e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,460 @@
+package pdfact.cli.util.cache;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * An on-disk cache of the results (the serializations) of PdfAct, keyed by a hash of the bytes of
+ * the PDF file plus a fingerprint of the configuration of PdfAct. Exact duplicates of a PDF file
+ * (for example, the same file under different names) are served from the cache without parsing
+ * them again.
+ *
+ * <p>
+ * Each entry is stored in a file of its own. Entries are written to a temporary file first, which
+ * is then moved to the entry file, so that multiple processes can share the same cache directory
+ * without ever reading a partial entry. The last access time of an entry is recorded as the
+ * modification time of its file; if the total size of the entries exceeds the maximum size, the
+ * least recently used entries are evicted.
+ *
+ * @author Claudius Korzen
+ */
+public class ResultCache {
+  /**
+   * The logger.
+   */
+  protected static Logger log = LogManager.getLogger(ResultCache.class);
+
+  /**
+   * The version of the cache. Must be increased on each change of the layout of the cache, so that
+   * outdated entries are not served.
+   */
+  public static final int VERSION = 1;
+
+  /**
+   * The file extension of the entries.
+   */
+  protected static final String ENTRY_EXTENSION = ".entry";
+
+  /**
+   * The file extension of the temporary files.
+   */
+  protected static final String TEMP_EXTENSION = ".tmp";
+
+  /**
+   * The default maximum size of the cache, in bytes.
+   */
+  public static final long DEFAULT_MAX_SIZE = 1024L * 1024 * 1024;
+
+  /**
+   * The directory of the cache.
+   */
+  protected Path directory;
+
+  /**
+   * The maximum size of the cache, in bytes.
+   */
+  protected long maxSize;
+
+  /**
+   * The number of lookups that were served from the cache.
+   */
+  protected AtomicLong numHits = new AtomicLong();
+
+  /**
+   * The number of lookups that were not served from the cache.
+   */
+  protected AtomicLong numMisses = new AtomicLong();
+
+  /**
+   * The number of entries written to the cache.
+   */
+  protected AtomicLong numPuts = new AtomicLong();
+
+  /**
+   * The number of entries evicted from the cache.
+   */
+  protected AtomicLong numEvictions = new AtomicLong();
+
+  // ==============================================================================================
+  // Constructors.
+
+  /**
+   * Creates a new cache in the given directory, with the default maximum size.
+   *
+   * @param directory The directory of the cache (is created if it doesn't exist).
+   *
+   * @throws IOException If the directory couldn't be created.
+   */
+  public ResultCache(Path directory) throws IOException {
+    this(directory, DEFAULT_MAX_SIZE);
+  }
+
+  /**
+   * Creates a new cache in the given directory.
+   *
+   * @param directory The directory of the cache (is created if it doesn't exist).
+   * @param maxSize   The maximum size of the cache, in bytes.
+   *
+   * @throws IOException If the directory couldn't be created.
+   */
+  public ResultCache(Path directory, long maxSize) throws IOException {
+    this.directory = Files.createDirectories(directory);
+    this.maxSize = maxSize;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Computes the key of the result of the given PDF file under the given configuration.
+   *
+   * @param pdfPath     The path to the PDF file.
+   * @param fingerprint The fingerprint of the configuration of PdfAct.
+   *
+   * @return The key (a hex-encoded SHA-256 hash).
+   *
+   * @throws IOException If the PDF file couldn't be read.
+   */
+  public String computeKey(Path pdfPath, String fingerprint) throws IOException {
+    MessageDigest digest = newDigest();
+    byte[] buffer = new byte[64 * 1024];
+    try (InputStream is = Files.newInputStream(pdfPath)) {
+      int n;
+      while ((n = is.read(buffer)) > 0) {
+        digest.update(buffer, 0, n);
+      }
+    }
+    digest.update((byte) 0);
+    digest.update(String.valueOf(VERSION).getBytes(StandardCharsets.UTF_8));
+    digest.update((byte) 0);
+    digest.update(fingerprint.getBytes(StandardCharsets.UTF_8));
+    return toHex(digest.digest());
+  }
+
+  /**
+   * Writes the entry with the given key to the given stream, if there is such an entry.
+   *
+   * @param key    The key of the entry.
+   * @param stream The stream to write the entry to (is not closed).
+   *
+   * @return True, if the entry was written to the stream; false if there is no such entry.
+   *
+   * @throws IOException If writing to the stream failed.
+   */
+  public boolean get(String key, OutputStream stream) throws IOException {
+    Path entry = getEntryPath(key);
+    InputStream is;
+    try {
+      is = Files.newInputStream(entry);
+    } catch (NoSuchFileException e) {
+      // The entry doesn't exist (or was evicted in the meantime by another process).
+      this.numMisses.incrementAndGet();
+      return false;
+    }
+    try (InputStream in = is) {
+      byte[] buffer = new byte[64 * 1024];
+      int n;
+      while ((n = in.read(buffer)) > 0) {
+        stream.write(buffer, 0, n);
+      }
+    }
+    this.numHits.incrementAndGet();
+    touch(entry);
+    return true;
+  }
+
+  /**
+   * Writes the entry with the given key to the given file, if there is such an entry.
+   *
+   * @param key    The key of the entry.
+   * @param target The path to the file to write the entry to.
+   *
+   * @return True, if the entry was written to the file; false if there is no such entry.
+   *
+   * @throws IOException If writing to the file failed.
+   */
+  public boolean get(String key, Path target) throws IOException {
+    Path entry = getEntryPath(key);
+    try {
+      Files.copy(entry, target, StandardCopyOption.REPLACE_EXISTING);
+    } catch (NoSuchFileException e) {
+      if (Files.exists(entry)) {
+        throw e;
+      }
+      // The entry doesn't exist (or was evicted in the meantime by another process).
+      this.numMisses.incrementAndGet();
+      return false;
+    }
+    this.numHits.incrementAndGet();
+    touch(entry);
+    return true;
+  }
+
+  /**
+   * Opens a stream to write the entry with the given key. The entry is added to the cache only
+   * when {@link Entry#commit()} is called; closing the stream without committing discards the
+   * written bytes.
+   *
+   * @param key The key of the entry.
+   *
+   * @return The stream to write the entry to.
+   *
+   * @throws IOException If the stream couldn't be opened.
+   */
+  public Entry put(String key) throws IOException {
+    Path tmp = Files.createTempFile(this.directory, key, TEMP_EXTENSION);
+    return new Entry(key, tmp);
+  }
+
+  /**
+   * Evicts the least recently used entries until the total size of the entries doesn't exceed the
+   * maximum size of the cache.
+   *
+   * @throws IOException If the directory of the cache couldn't be read.
+   */
+  public void evict() throws IOException {
+    List<Path> entries = new ArrayList<>();
+    List<BasicFileAttributes> attrs = new ArrayList<>();
+    long size = 0;
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.directory,
+        "*" + ENTRY_EXTENSION)) {
+      for (Path entry : stream) {
+        try {
+          BasicFileAttributes attr = Files.readAttributes(entry, BasicFileAttributes.class);
+          entries.add(entry);
+          attrs.add(attr);
+          size += attr.size();
+        } catch (NoSuchFileException e) {
+          // The entry was evicted in the meantime by another process.
+        }
+      }
+    }
+    if (size <= this.maxSize) {
+      return;
+    }
+
+    // Evict the entries in the order of their last access times, oldest first.
+    List<Integer> order = new ArrayList<>();
+    for (int i = 0; i < entries.size(); i++) {
+      order.add(i);
+    }
+    order.sort(Comparator.comparing(i -> attrs.get(i).lastModifiedTime()));
+    for (int i : order) {
+      if (size <= this.maxSize) {
+        break;
+      }
+      if (Files.deleteIfExists(entries.get(i))) {
+        log.debug("Evicted entry " + entries.get(i) + " from the cache.");
+        this.numEvictions.incrementAndGet();
+      }
+      size -= attrs.get(i).size();
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the path to the file of the entry with the given key.
+   *
+   * @param key The key of the entry.
+   *
+   * @return The path to the file of the entry.
+   */
+  protected Path getEntryPath(String key) {
+    return this.directory.resolve(key + ENTRY_EXTENSION);
+  }
+
+  /**
+   * Sets the modification time of the given entry to the current time, to record the access.
+   *
+   * @param entry The path to the file of the entry.
+   */
+  protected void touch(Path entry) {
+    try {
+      Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+    } catch (IOException e) {
+      // The entry was evicted in the meantime by another process; nothing to do.
+    }
+  }
+
+  /**
+   * Creates a new SHA-256 message digest.
+   *
+   * @return The message digest.
+   */
+  protected static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      // Every implementation of the Java platform is required to support SHA-256.
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Encodes the given bytes as a hex string.
+   *
+   * @param bytes The bytes to encode.
+   *
+   * @return The hex string.
+   */
+  protected static String toHex(byte[] bytes) {
+    StringBuilder sb = new StringBuilder(bytes.length * 2);
+    for (byte b : bytes) {
+      sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+      sb.append(Character.forDigit(b & 0xF, 16));
+    }
+    return sb.toString();
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the directory of the cache.
+   */
+  public Path getDirectory() {
+    return this.directory;
+  }
+
+  /**
+   * Returns the maximum size of the cache, in bytes.
+   */
+  public long getMaxSize() {
+    return this.maxSize;
+  }
+
+  /**
+   * Returns the number of lookups that were served from the cache.
+   */
+  public long getNumHits() {
+    return this.numHits.get();
+  }
+
+  /**
+   * Returns the number of lookups that were not served from the cache.
+   */
+  public long getNumMisses() {
+    return this.numMisses.get();
+  }
+
+  /**
+   * Returns the number of entries written to the cache.
+   */
+  public long getNumPuts() {
+    return this.numPuts.get();
+  }
+
+  /**
+   * Returns the number of entries evicted from the cache.
+   */
+  public long getNumEvictions() {
+    return this.numEvictions.get();
+  }
+
+  /**
+   * Returns the ratio of the lookups that were served from the cache (0 if there was no lookup).
+   */
+  public double getHitRate() {
+    long hits = getNumHits();
+    long lookups = hits + getNumMisses();
+    return lookups > 0 ? (double) hits / lookups : 0;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("ResultCache(hits: %d, misses: %d, hit rate: %.1f%%, puts: %d, "
+        + "evictions: %d)", getNumHits(), getNumMisses(), 100 * getHitRate(), getNumPuts(),
+        getNumEvictions());
+  }
+
+  // ==============================================================================================
+
+  /**
+   * A stream to write an entry of the cache.
+   *
+   * @author Claudius Korzen
+   */
+  public class Entry extends FilterOutputStream {
+    /**
+     * The key of the entry.
+     */
+    protected final String key;
+
+    /**
+     * The temporary file to which the entry is written.
+     */
+    protected final Path tmp;
+
+    /**
+     * A boolean flag indicating whether or not the entry was committed.
+     */
+    protected boolean isCommitted;
+
+    /**
+     * Creates a new stream to write the entry with the given key to the given temporary file.
+     *
+     * @param key The key of the entry.
+     * @param tmp The temporary file.
+     *
+     * @throws IOException If the temporary file couldn't be opened.
+     */
+    protected Entry(String key, Path tmp) throws IOException {
+      super(Files.newOutputStream(tmp));
+      this.key = key;
+      this.tmp = tmp;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+      this.out.write(bytes, offset, length);
+    }
+
+    /**
+     * Adds the written bytes to the cache (replacing an existing entry with the same key) and
+     * evicts the least recently used entries if the cache exceeds its maximum size.
+     *
+     * @throws IOException If the entry couldn't be added to the cache.
+     */
+    public void commit() throws IOException {
+      this.out.close();
+      Path entry = getEntryPath(this.key);
+      try {
+        Files.move(this.tmp, entry, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(this.tmp, entry, StandardCopyOption.REPLACE_EXISTING);
+      }
+      this.isCommitted = true;
+      numPuts.incrementAndGet();
+      evict();
+    }
+
+    /**
+     * Closes the stream. Discards the written bytes if the entry wasn't committed.
+     */
+    @Override
+    public void close() throws IOException {
+      if (!this.isCommitted) {
+        this.out.close();
+        Files.deleteIfExists(this.tmp);
+      }
+    }
+  }
+}
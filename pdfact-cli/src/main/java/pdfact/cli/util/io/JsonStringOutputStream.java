@@ -0,0 +1,124 @@
+package pdfact.cli.util.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * An output stream that writes UTF-8 encoded text as the content of a JSON string to another
+ * output stream, that is: with the quotation marks, the backslashes and the control characters
+ * escaped (for example, to embed a serialization into a JSON object without decoding it into a
+ * string first). The enclosing quotation marks are not written.
+ *
+ * @author Claudius Korzen
+ */
+public class JsonStringOutputStream extends OutputStream {
+  /**
+   * The hexadecimal digits, for escaping control characters.
+   */
+  protected static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes();
+
+  /**
+   * The stream to write to.
+   */
+  protected final OutputStream stream;
+
+  // ==============================================================================================
+  // Constructors.
+
+  /**
+   * Creates a new output stream that writes the escaped bytes to the given stream.
+   *
+   * @param stream The stream to write to.
+   */
+  public JsonStringOutputStream(OutputStream stream) {
+    this.stream = stream;
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public void write(int b) throws IOException {
+    if (needsEscaping(b)) {
+      writeEscaped(b);
+    } else {
+      this.stream.write(b);
+    }
+  }
+
+  @Override
+  public void write(byte[] bytes, int offset, int length) throws IOException {
+    // Write the runs of bytes that don't need to be escaped at once.
+    int start = offset;
+    int end = offset + length;
+    for (int i = offset; i < end; i++) {
+      if (needsEscaping(bytes[i])) {
+        this.stream.write(bytes, start, i - start);
+        writeEscaped(bytes[i]);
+        start = i + 1;
+      }
+    }
+    this.stream.write(bytes, start, end - start);
+  }
+
+  @Override
+  public void flush() throws IOException {
+    this.stream.flush();
+  }
+
+  /**
+   * Flushes the stream, but does not close it (the stream is owned by the caller).
+   */
+  @Override
+  public void close() throws IOException {
+    flush();
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Checks if the given byte needs to be escaped in a JSON string. The bytes of multi-byte UTF-8
+   * sequences are written as they are.
+   *
+   * @param b The byte.
+   *
+   * @return True, if the byte needs to be escaped; false otherwise.
+   */
+  protected static boolean needsEscaping(int b) {
+    b &= 0xFF;
+    return b < 0x20 || b == '"' || b == '\\';
+  }
+
+  /**
+   * Writes the escape sequence of the given byte.
+   *
+   * @param b The byte.
+   *
+   * @throws IOException If writing to the stream fails.
+   */
+  protected void writeEscaped(int b) throws IOException {
+    b &= 0xFF;
+    this.stream.write('\\');
+    switch (b) {
+      case '"':
+      case '\\':
+        this.stream.write(b);
+        break;
+      case '\n':
+        this.stream.write('n');
+        break;
+      case '\r':
+        this.stream.write('r');
+        break;
+      case '\t':
+        this.stream.write('t');
+        break;
+      default:
+        this.stream.write('u');
+        this.stream.write('0');
+        this.stream.write('0');
+        this.stream.write(HEX_DIGITS[b >> 4]);
+        this.stream.write(HEX_DIGITS[b & 0xF]);
+        break;
+    }
+  }
+}
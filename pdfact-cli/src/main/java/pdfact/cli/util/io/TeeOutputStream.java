@@ -0,0 +1,65 @@
+package pdfact.cli.util.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * An output stream that writes all bytes to two output streams (for example, to write a
+ * serialization to the standard output and to a file at the same time, without buffering the
+ * serialization).
+ *
+ * @author Claudius Korzen
+ */
+public class TeeOutputStream extends OutputStream {
+  /**
+   * The first stream to write to.
+   */
+  protected final OutputStream stream1;
+
+  /**
+   * The second stream to write to.
+   */
+  protected final OutputStream stream2;
+
+  // ==============================================================================================
+  // Constructors.
+
+  /**
+   * Creates a new output stream that writes all bytes to the two given streams.
+   *
+   * @param stream1 The first stream to write to.
+   * @param stream2 The second stream to write to.
+   */
+  public TeeOutputStream(OutputStream stream1, OutputStream stream2) {
+    this.stream1 = stream1;
+    this.stream2 = stream2;
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public void write(int b) throws IOException {
+    this.stream1.write(b);
+    this.stream2.write(b);
+  }
+
+  @Override
+  public void write(byte[] bytes, int offset, int length) throws IOException {
+    this.stream1.write(bytes, offset, length);
+    this.stream2.write(bytes, offset, length);
+  }
+
+  @Override
+  public void flush() throws IOException {
+    this.stream1.flush();
+    this.stream2.flush();
+  }
+
+  /**
+   * Flushes both streams, but does not close them (the streams are owned by the caller).
+   */
+  @Override
+  public void close() throws IOException {
+    flush();
+  }
+}
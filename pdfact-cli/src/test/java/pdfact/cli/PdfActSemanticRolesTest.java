@@ -0,0 +1,72 @@
+package pdfact.cli;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Assert;
+import org.junit.Test;
+import pdfact.core.model.Document;
+import pdfact.core.model.Page;
+import pdfact.core.model.TextBlock;
+import pdfact.core.pipes.semanticize.FusedDetectSemanticsPipe;
+import pdfact.core.pipes.semanticize.PlainDetectSemanticsPipe;
+import pdfact.core.util.exception.PdfActException;
+import pdfact.core.util.pipeline.Pipe;
+
+/**
+ * A class that tests the semantic roles detected in a PDF document.
+ */
+public class PdfActSemanticRolesTest {
+  /**
+   * Tests if the {@link FusedDetectSemanticsPipe} (used by the core pipeline) assigns the same
+   * primary and secondary roles to each text block as the {@link PlainDetectSemanticsPipe}, which
+   * runs the detection modules one after another.
+   */
+  @Test
+  public void testFusedRolesEqualPlainRoles() throws PdfActException {
+    Document pdf = new PdfAct().parse("src/test/resources/ACL_2004.pdf");
+
+    List<String> plainRoles = detectRoles(new PlainDetectSemanticsPipe(), pdf);
+    List<String> fusedRoles = detectRoles(new FusedDetectSemanticsPipe(), pdf);
+    Assert.assertEquals(plainRoles, fusedRoles);
+
+    // Make sure that the comparison is not trivial.
+    Set<String> distinctRoles = new HashSet<>();
+    for (String roles : plainRoles) {
+      distinctRoles.add(roles.substring(0, roles.indexOf(' ')));
+    }
+    Assert.assertTrue(distinctRoles.size() >= 5);
+  }
+
+  /**
+   * Resets the roles of the text blocks of the given PDF document, detects them by the given pipe
+   * and returns them.
+   *
+   * @param pipe The pipe to detect the roles.
+   * @param pdf  The PDF document.
+   *
+   * @return The primary and secondary role of each text block, with the position of the block.
+   *
+   * @throws PdfActException If detecting the roles failed.
+   */
+  protected static List<String> detectRoles(Pipe pipe, Document pdf) throws PdfActException {
+    for (Page page : pdf.getPages()) {
+      for (TextBlock block : page.getTextBlocks()) {
+        block.setSemanticRole(null);
+        block.setSecondarySemanticRole(null);
+      }
+    }
+    pipe.execute(pdf);
+
+    List<String> roles = new ArrayList<>();
+    for (Page page : pdf.getPages()) {
+      int i = 0;
+      for (TextBlock block : page.getTextBlocks()) {
+        roles.add(block.getSemanticRole() + " " + block.getSecondarySemanticRole() + " (page "
+            + page.getPageNumber() + ", block " + i++ + ")");
+      }
+    }
+    return roles;
+  }
+}
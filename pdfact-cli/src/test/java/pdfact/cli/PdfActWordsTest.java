@@ -0,0 +1,45 @@
+package pdfact.cli;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Assert;
+import org.junit.Test;
+import pdfact.core.model.Document;
+import pdfact.core.model.Page;
+import pdfact.core.model.TextLine;
+import pdfact.core.model.Word;
+import pdfact.core.util.exception.PdfActException;
+
+/**
+ * A class that tests the order of the characters in the words extracted from a PDF document.
+ */
+public class PdfActWordsTest {
+  /**
+   * Tests if the characters of words are ordered by their minX values, where characters with
+   * equal minX values are ordered by their extraction ranks (and hence, the text of a word doesn't
+   * depend on the order in which its characters were processed by the XY-cut).
+   */
+  @Test
+  public void testCharacterOrder() throws PdfActException {
+    Document pdf = new PdfAct().parse("src/test/resources/ACL_2004.pdf");
+
+    Set<String> words = new HashSet<>();
+    for (Page page : pdf.getPages()) {
+      for (TextLine line : page.getTextLines()) {
+        for (Word word : line.getWords()) {
+          words.add(word.getText());
+        }
+      }
+    }
+
+    // Words with characters of equal minX values, ordered by their extraction ranks.
+    Assert.assertTrue(words.contains("(intro"));
+    Assert.assertTrue(words.contains("andCora"));
+    Assert.assertTrue(words.contains("datasetHa.s"));
+    Assert.assertTrue(words.contains("tahbestract."));
+    Assert.assertFalse(words.contains("i(ntro"));
+    Assert.assertFalse(words.contains("anCdora"));
+    // Characters with (almost) equal minX values, ordered by their exact minX values.
+    Assert.assertTrue(words.contains("λσkk2"));
+  }
+}
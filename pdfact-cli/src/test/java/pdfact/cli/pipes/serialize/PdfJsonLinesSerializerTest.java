@@ -0,0 +1,51 @@
+package pdfact.cli.pipes.serialize;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import org.json.JSONObject;
+import org.junit.Assert;
+import org.junit.Test;
+import pdfact.cli.PdfAct;
+import pdfact.cli.model.ExtractionUnit;
+import pdfact.core.model.Document;
+import pdfact.core.model.SemanticRole;
+import pdfact.core.util.exception.PdfActException;
+
+/**
+ * A class that tests the {@link PdfJsonLinesSerializer}.
+ */
+public class PdfJsonLinesSerializerTest {
+  /**
+   * Tests if a PDF document is serialized to one record per page, followed by the record of the
+   * document with the included roles.
+   */
+  @Test
+  public void testSerialization() throws PdfActException {
+    // Parse a PDF document.
+    Document pdf = new PdfAct().parse("src/test/resources/ACL_2004.pdf");
+
+    Set<ExtractionUnit> units = new HashSet<>();
+    units.add(ExtractionUnit.PARAGRAPH);
+
+    Set<SemanticRole> roles = new HashSet<>();
+    roles.add(SemanticRole.TITLE);
+
+    PdfJsonLinesSerializer serializer = new PdfJsonLinesSerializer(units, roles);
+    String serialization = new String(serializer.serialize(pdf), StandardCharsets.UTF_8);
+    String[] lines = serialization.split("\n");
+
+    // One record per page, plus the record of the document.
+    Assert.assertEquals(pdf.getPages().size() + 1, lines.length);
+
+    JSONObject first = new JSONObject(lines[0]);
+    Assert.assertEquals("page", first.getString("type"));
+    Assert.assertEquals(1, first.getInt("page"));
+    Assert.assertEquals(1, first.getJSONArray("paragraphs").length());
+    Assert.assertEquals(0, new JSONObject(lines[1]).getJSONArray("paragraphs").length());
+
+    JSONObject last = new JSONObject(lines[lines.length - 1]);
+    Assert.assertEquals("document", last.getString("type"));
+    Assert.assertEquals("title", last.getJSONArray("roles").getString(0));
+  }
+}
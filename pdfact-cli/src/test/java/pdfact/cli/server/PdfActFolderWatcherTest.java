@@ -0,0 +1,118 @@
+package pdfact.cli.server;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.stream.Stream;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * A class that tests the {@link PdfActFolderWatcher}.
+ */
+public class PdfActFolderWatcherTest {
+  /**
+   * The path to the PDF file to process.
+   */
+  protected static final Path PDF_PATH = Paths.get("src/test/resources/ACL_2004.pdf");
+
+  /**
+   * The temporary directory with the input and output directories (deleted after each test).
+   */
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  /**
+   * Tests if the PDF files that exist on startup and the PDF files that are added later are
+   * processed (only when they are completely written), if other files are ignored, if PDF files
+   * that couldn't be processed are counted and if no temporary files are left.
+   */
+  @Test
+  public void testWatch() throws Exception {
+    byte[] pdf = Files.readAllBytes(PDF_PATH);
+    Path inputDir = folder.newFolder("in").toPath();
+    Path outputDir = folder.getRoot().toPath().resolve("out");
+
+    // A PDF file added before the watcher is started is found by the catch-up scan.
+    Files.write(inputDir.resolve("a.pdf"), pdf);
+    Files.write(inputDir.resolve("b.txt"), pdf);
+
+    PdfActFolderWatcher watcher = new PdfActFolderWatcher(new PdfActEngine(),
+        ExtractionOptions.fromQuery("format=txt&include-roles=title"), inputDir, outputDir, 2, 300);
+    Thread thread = new Thread(() -> {
+      try {
+        watcher.run();
+      } catch (Exception e) {
+        throw new RuntimeException(e);
+      }
+    });
+    thread.start();
+
+    // A PDF file that is written slowly must not be processed before it is complete.
+    try (OutputStream out = Files.newOutputStream(inputDir.resolve("c.pdf"))) {
+      for (int i = 0; i < pdf.length; i += pdf.length / 4) {
+        out.write(Arrays.copyOfRange(pdf, i, Math.min(pdf.length, i + pdf.length / 4)));
+        out.flush();
+        Thread.sleep(100);
+      }
+    }
+    Files.write(inputDir.resolve("d.pdf"), "no pdf".getBytes());
+
+    for (int i = 0; i < 600 && watcher.getNumProcessedFiles() + watcher.getNumFailedFiles() < 3;
+        i++) {
+      Thread.sleep(100);
+    }
+    watcher.stop();
+    thread.join();
+
+    Assert.assertEquals(2, watcher.getNumProcessedFiles());
+    Assert.assertEquals(1, watcher.getNumFailedFiles());
+    String title = "Accurate Information Extraction from Research Papers";
+    for (String name : Arrays.asList("a.pdf.txt", "c.pdf.txt")) {
+      Assert.assertTrue(new String(Files.readAllBytes(outputDir.resolve(name))).startsWith(title));
+    }
+    // No temporary files are left.
+    try (Stream<Path> files = Files.list(outputDir)) {
+      Assert.assertEquals(2, files.count());
+    }
+  }
+
+  /**
+   * Tests if a PDF file is processed again when its current version differs from the version its
+   * output was created from, even if the output is newer than the PDF file.
+   */
+  @Test
+  public void testNeedsProcessing() throws Exception {
+    Path inputDir = folder.newFolder("in").toPath();
+    Path outputDir = folder.newFolder("out").toPath();
+    Path pdfPath = Files.write(inputDir.resolve("a.pdf"), Files.readAllBytes(PDF_PATH));
+    FileTime modified = FileTime.fromMillis(System.currentTimeMillis() - 60000);
+    Files.setLastModifiedTime(pdfPath, modified);
+
+    PdfActFolderWatcher watcher = new PdfActFolderWatcher(new PdfActEngine(),
+        ExtractionOptions.fromQuery("format=txt"), inputDir, outputDir, 1, 0);
+    Assert.assertTrue(watcher.needsProcessing(pdfPath,
+        PdfActFolderWatcher.readAttributes(pdfPath)));
+    watcher.process(pdfPath, modified);
+    Assert.assertEquals(1, watcher.getNumProcessedFiles());
+    Assert.assertFalse(watcher.needsProcessing(pdfPath,
+        PdfActFolderWatcher.readAttributes(pdfPath)));
+
+    // The PDF file is replaced by a version with an older modification time (e.g., a copy that
+    // preserves the time of the original).
+    Files.setLastModifiedTime(pdfPath, FileTime.fromMillis(modified.toMillis() - 60000));
+    Assert.assertTrue(watcher.needsProcessing(pdfPath,
+        PdfActFolderWatcher.readAttributes(pdfPath)));
+
+    // The PDF file was modified while its previous version was processed.
+    watcher.process(pdfPath, modified);
+    Files.setLastModifiedTime(pdfPath, FileTime.fromMillis(modified.toMillis() + 1000));
+    Assert.assertTrue(watcher.needsProcessing(pdfPath,
+        PdfActFolderWatcher.readAttributes(pdfPath)));
+  }
+}
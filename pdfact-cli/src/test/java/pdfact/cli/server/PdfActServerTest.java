@@ -0,0 +1,290 @@
+package pdfact.cli.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import pdfact.core.model.Document;
+import pdfact.core.util.exception.PdfActException;
+
+/**
+ * A class that tests the {@link PdfActServer}.
+ */
+public class PdfActServerTest {
+  /**
+   * The path to the PDF file to send with the requests.
+   */
+  protected static final Path PDF_PATH = Paths.get("src/test/resources/ACL_2004.pdf");
+
+  /**
+   * The server under test, with one worker, one slot in the queue and a timeout of one minute.
+   */
+  protected PdfActServer server;
+
+  /**
+   * Starts the server under test.
+   */
+  @Before
+  public void setUp() throws IOException {
+    this.server = new PdfActServer(new InetSocketAddress("localhost", 0), 1, 1, 60000,
+        new PdfActEngine());
+    this.server.start();
+  }
+
+  /**
+   * Stops the server under test.
+   */
+  @After
+  public void tearDown() {
+    this.server.stop(0);
+  }
+
+  /**
+   * Tests if a PDF file is extracted, if invalid options and invalid PDF files are answered with
+   * client errors, if requests beyond the capacity are rejected and if the metrics are recorded.
+   */
+  @Test
+  public void testExtract() throws IOException {
+    byte[] pdf = Files.readAllBytes(PDF_PATH);
+    HttpURLConnection conn = post("/extract?format=json&units=paragraphs&include-roles=title", pdf);
+    Assert.assertEquals(200, conn.getResponseCode());
+    Assert.assertEquals("application/json", conn.getContentType());
+    JSONObject json = new JSONObject(read(conn.getInputStream()));
+    Assert.assertEquals(1, json.getJSONArray("paragraphs").length());
+
+    Assert.assertEquals(400, post("/extract?format=foo", pdf).getResponseCode());
+    Assert.assertEquals(422, post("/extract", "foo".getBytes(StandardCharsets.UTF_8))
+        .getResponseCode());
+
+    // Occupy all permits, so that further requests are rejected.
+    this.server.permits.acquireUninterruptibly(2);
+    HttpURLConnection rejected = post("/extract", pdf);
+    Assert.assertEquals(503, rejected.getResponseCode());
+    Assert.assertNotNull(rejected.getHeaderField("Retry-After"));
+    this.server.permits.release(2);
+
+    HttpURLConnection metrics = open("/metrics");
+    Assert.assertEquals(200, metrics.getResponseCode());
+    String text = read(metrics.getInputStream());
+    Assert.assertTrue(text.contains("pdfact_requests_total{status=\"200\"} 1"));
+    Assert.assertTrue(text.contains("pdfact_requests_rejected_total 1"));
+  }
+
+  /**
+   * Tests if a request body larger than the maximum size is rejected, both with and without a
+   * declared length.
+   */
+  @Test
+  public void testMaxBodySize() throws IOException {
+    PdfActServer small = new PdfActServer(new InetSocketAddress("localhost", 0), 1, 1, 60000,
+        1024, new PdfActEngine());
+    small.start();
+    try {
+      byte[] body = new byte[2048];
+      String path = "http://localhost:" + small.getAddress().getPort() + "/extract";
+
+      // The declared length exceeds the maximum size.
+      HttpURLConnection conn = (HttpURLConnection) new URL(path).openConnection();
+      conn.setRequestMethod("POST");
+      conn.setDoOutput(true);
+      conn.setFixedLengthStreamingMode(body.length);
+      try (OutputStream os = conn.getOutputStream()) {
+        os.write(body);
+      }
+      Assert.assertEquals(413, conn.getResponseCode());
+
+      // The length is not declared, but the read body exceeds the maximum size.
+      conn = (HttpURLConnection) new URL(path).openConnection();
+      conn.setRequestMethod("POST");
+      conn.setDoOutput(true);
+      conn.setChunkedStreamingMode(512);
+      try (OutputStream os = conn.getOutputStream()) {
+        os.write(body);
+      }
+      Assert.assertEquals(413, conn.getResponseCode());
+    } finally {
+      small.stop(0);
+    }
+  }
+
+  /**
+   * Tests if a request whose processing exceeds the timeout is answered with status 504 and if a
+   * job that timed out while waiting in the queue is skipped by the worker.
+   */
+  @Test
+  public void testTimeout() throws Exception {
+    BlockingEngine engine = new BlockingEngine();
+    PdfActServer server = new PdfActServer(new InetSocketAddress("localhost", 0), 1, 1, 200,
+        engine);
+    server.start();
+    try {
+      byte[] pdf = Files.readAllBytes(PDF_PATH);
+
+      // The first request occupies the worker, the second waits in the queue. Both time out.
+      Assert.assertEquals(504, post(server, "/extract", pdf).getResponseCode());
+      Assert.assertEquals(504, post(server, "/extract", pdf).getResponseCode());
+      Assert.assertEquals(2, server.getMetrics().getNumTimedOut());
+
+      // Let the worker finish the first job; the permits are released after the worker is done.
+      engine.latch.countDown();
+      while (server.permits.availablePermits() < 2) {
+        Thread.sleep(10);
+      }
+      // The second job was abandoned before the worker took it, so it wasn't parsed.
+      Assert.assertEquals(1, engine.numParsed.get());
+    } finally {
+      server.stop(0);
+    }
+  }
+
+  /**
+   * Tests if the upload of the request body doesn't count towards the timeout of the processing.
+   */
+  @Test
+  public void testSlowUpload() throws Exception {
+    Document document = new PdfActEngine().parse(PDF_PATH);
+    PdfActEngine engine = new PdfActEngine() {
+      @Override
+      public Document parse(Path pdfPath) {
+        return document;
+      }
+    };
+    PdfActServer server = new PdfActServer(new InetSocketAddress("localhost", 0), 1, 1, 1000,
+        engine);
+    server.start();
+    try {
+      // Upload the body in two chunks, with a pause longer than the timeout in between.
+      HttpURLConnection conn = open(server, "/extract");
+      conn.setRequestMethod("POST");
+      conn.setDoOutput(true);
+      conn.setChunkedStreamingMode(512);
+      try (OutputStream os = conn.getOutputStream()) {
+        os.write(new byte[512]);
+        os.flush();
+        Thread.sleep(1500);
+        os.write(new byte[512]);
+      }
+      Assert.assertEquals(200, conn.getResponseCode());
+    } finally {
+      server.stop(0);
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * An engine whose parsing blocks until a latch is released.
+   */
+  protected static class BlockingEngine extends PdfActEngine {
+    /**
+     * The latch to release the blocked parsing.
+     */
+    protected CountDownLatch latch = new CountDownLatch(1);
+
+    /**
+     * The number of the PDF files whose parsing was started.
+     */
+    protected AtomicInteger numParsed = new AtomicInteger();
+
+    @Override
+    public Document parse(Path pdfPath) throws PdfActException {
+      this.numParsed.incrementAndGet();
+      try {
+        this.latch.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return super.parse(pdfPath);
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Opens a connection to the given path of the server under test.
+   *
+   * @param path The path, including the query.
+   *
+   * @return The connection.
+   */
+  protected HttpURLConnection open(String path) throws IOException {
+    return open(this.server, path);
+  }
+
+  /**
+   * Opens a connection to the given path of the given server.
+   *
+   * @param server The server.
+   * @param path   The path, including the query.
+   *
+   * @return The connection.
+   */
+  protected static HttpURLConnection open(PdfActServer server, String path) throws IOException {
+    URL url = new URL("http://localhost:" + server.getAddress().getPort() + path);
+    return (HttpURLConnection) url.openConnection();
+  }
+
+  /**
+   * Sends a POST request with the given body to the given path of the server under test.
+   *
+   * @param path The path, including the query.
+   * @param body The body of the request.
+   *
+   * @return The connection.
+   */
+  protected HttpURLConnection post(String path, byte[] body) throws IOException {
+    return post(this.server, path, body);
+  }
+
+  /**
+   * Sends a POST request with the given body to the given path of the given server.
+   *
+   * @param server The server.
+   * @param path   The path, including the query.
+   * @param body   The body of the request.
+   *
+   * @return The connection.
+   */
+  protected static HttpURLConnection post(PdfActServer server, String path, byte[] body)
+      throws IOException {
+    HttpURLConnection conn = open(server, path);
+    conn.setRequestMethod("POST");
+    conn.setDoOutput(true);
+    try (OutputStream os = conn.getOutputStream()) {
+      os.write(body);
+    }
+    return conn;
+  }
+
+  /**
+   * Reads the given stream into a string and closes the stream.
+   *
+   * @param is The stream.
+   *
+   * @return The content of the stream, decoded as UTF-8.
+   */
+  protected static String read(InputStream is) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    byte[] buffer = new byte[8192];
+    int n;
+    while ((n = is.read(buffer)) > 0) {
+      bytes.write(buffer, 0, n);
+    }
+    is.close();
+    return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,128 @@
+package pdfact.cli.server;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import org.json.JSONObject;
+import org.junit.Assert;
+import org.junit.Test;
+import pdfact.core.model.Document;
+import pdfact.core.util.exception.PdfActException;
+import pdfact.format.PdfActBinaryReader;
+
+/**
+ * A class that tests the {@link PdfActWorker}.
+ */
+public class PdfActWorkerTest {
+  /**
+   * The path to the PDF file to process.
+   */
+  protected static final String PDF_PATH = "src/test/resources/ACL_2004.pdf";
+
+  /**
+   * Tests if the requests with a path and with data are answered with the serialization, if
+   * invalid requests are answered with errors and if empty lines are skipped.
+   */
+  @Test
+  public void testRequests() throws Exception {
+    String pdfPath = PDF_PATH;
+    String data = Base64.getEncoder().encodeToString(Files.readAllBytes(Paths.get(pdfPath)));
+    String requests = ""
+        + "{\"id\": 1, \"path\": \"" + pdfPath + "\", "
+        + "\"options\": {\"include-roles\": \"title\"}}\n"
+        + "{\"id\": 2, \"data\": \"" + data + "\", \"options\": {\"format\": \"json\", "
+        + "\"units\": [\"paragraphs\"], \"include-roles\": [\"title\"], \"compact\": true}}\n"
+        + "\n"
+        + "{\"id\": 3, \"path\": \"" + pdfPath + "\", \"options\": {\"format\": \"foo\"}}\n"
+        + "foo\n";
+
+    PdfActEngine engine = new PdfActEngine();
+    Map<Object, JSONObject> responses = run(engine, requests);
+    Assert.assertEquals(4, responses.size());
+
+    String title = "Accurate Information Extraction from Research Papers";
+    Assert.assertEquals("ok", responses.get(1).getString("status"));
+    Assert.assertTrue(responses.get(1).getString("result").startsWith(title));
+    // The result is escaped correctly (the serialization contains line breaks, for example).
+    ByteArrayOutputStream expected = new ByteArrayOutputStream();
+    engine.serialize(engine.parse(Paths.get(pdfPath)),
+        ExtractionOptions.fromQuery("include-roles=title"), expected);
+    Assert.assertEquals(new String(expected.toByteArray(), StandardCharsets.UTF_8),
+        responses.get(1).getString("result"));
+
+    Assert.assertEquals("ok", responses.get(2).getString("status"));
+    JSONObject result = new JSONObject(responses.get(2).getString("result"));
+    Assert.assertEquals(1, result.getJSONArray("paragraphs").length());
+
+    Assert.assertEquals("error", responses.get(3).getString("status"));
+    Assert.assertEquals("error", responses.get(JSONObject.NULL).getString("status"));
+  }
+
+  /**
+   * Tests if the serialization in the binary format is contained in the response, encoded in
+   * Base64.
+   */
+  @Test
+  public void testBinaryResult() throws Exception {
+    String requests = "{\"id\": 1, \"path\": \"" + PDF_PATH + "\", "
+        + "\"options\": {\"format\": \"bin\"}}\n";
+    JSONObject response = run(new PdfActEngine(), requests).get(1);
+
+    Assert.assertEquals("ok", response.getString("status"));
+    Assert.assertEquals("base64", response.getString("encoding"));
+    byte[] result = Base64.getDecoder().decode(response.getString("result"));
+    Assert.assertEquals(8, new PdfActBinaryReader(ByteBuffer.wrap(result)).getNumPages());
+  }
+
+  /**
+   * Tests if a request whose processing throws an error (not an exception) is answered with an
+   * error response for its id.
+   */
+  @Test
+  public void testError() throws IOException {
+    PdfActEngine engine = new PdfActEngine() {
+      @Override
+      public Document parse(Path pdfPath) throws PdfActException {
+        throw new OutOfMemoryError("Java heap space");
+      }
+    };
+    String requests = "{\"id\": 1, \"path\": \"" + PDF_PATH + "\"}\n";
+    JSONObject response = run(engine, requests).get(1);
+
+    Assert.assertEquals("error", response.getString("status"));
+    Assert.assertEquals(PdfActWorker.INTERNAL_ERROR_CODE, response.getInt("code"));
+    Assert.assertEquals("Java heap space", response.getString("error"));
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Runs a worker with two threads on the given requests.
+   *
+   * @param engine   The engine processing the PDF files.
+   * @param requests The requests, one per line.
+   *
+   * @return The responses, by their ids (the responses may be written in any order).
+   */
+  protected static Map<Object, JSONObject> run(PdfActEngine engine, String requests)
+      throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new PdfActWorker(engine, 2).run(
+        new ByteArrayInputStream(requests.getBytes(StandardCharsets.UTF_8)), out);
+
+    Map<Object, JSONObject> responses = new HashMap<>();
+    for (String line : new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n")) {
+      JSONObject response = new JSONObject(line);
+      responses.put(response.get("id"), response);
+    }
+    return responses;
+  }
+}
@@ -0,0 +1,129 @@
+package pdfact.cli.util.batch;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Assert;
+import org.junit.Test;
+import pdfact.cli.util.batch.PdfCostEstimator.Estimate;
+
+/**
+ * A class that tests the {@link BatchScheduler}.
+ */
+public class BatchSchedulerTest {
+  /**
+   * Tests if the files in process never exceed the heap budget and if a file whose estimate
+   * exceeds the budget is processed alone.
+   */
+  @Test
+  public void testHeapBudget() throws InterruptedException {
+    List<Estimate> estimates = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      estimates.add(new Estimate(Paths.get(i + ".pdf"), 0, 1, (i % 4 + 1) * 10));
+    }
+    // A file whose estimated heap exceeds the budget is processed alone (its estimate is capped
+    // to the budget).
+    estimates.add(new Estimate(Paths.get("large.pdf"), 0, 1, 1000));
+
+    AtomicLong used = new AtomicLong();
+    AtomicLong peak = new AtomicLong();
+    BatchScheduler scheduler = new BatchScheduler(4, 50, false);
+    scheduler.run(estimates, estimate -> {
+      long current = used.addAndGet(estimate.getHeapBytes());
+      peak.accumulateAndGet(current, Math::max);
+      try {
+        Thread.sleep(5);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      used.addAndGet(-estimate.getHeapBytes());
+    });
+
+    Assert.assertEquals(1000, peak.get());
+    Assert.assertEquals(50, scheduler.getPeakUsedHeapBudget());
+
+    peak.set(0);
+    scheduler = new BatchScheduler(4, 50, false);
+    scheduler.run(estimates.subList(0, 20), estimate -> {
+      long current = used.addAndGet(estimate.getHeapBytes());
+      peak.accumulateAndGet(current, Math::max);
+      used.addAndGet(-estimate.getHeapBytes());
+    });
+    Assert.assertTrue(peak.get() <= 50);
+  }
+
+  /**
+   * Tests if a file that doesn't fit into the remaining budget doesn't block the smaller files
+   * behind it.
+   */
+  @Test
+  public void testNoHeadOfLineBlocking() throws InterruptedException {
+    List<Estimate> estimates = Arrays.asList(
+        new Estimate(Paths.get("large1.pdf"), 0, 1, 60),
+        new Estimate(Paths.get("large2.pdf"), 0, 1, 60),
+        new Estimate(Paths.get("small1.pdf"), 0, 1, 10),
+        new Estimate(Paths.get("small2.pdf"), 0, 1, 10));
+
+    // The second large file doesn't fit next to the first one, but the small files behind it do,
+    // so they must be processed while the first large file is still in process.
+    CountDownLatch smallFinished = new CountDownLatch(2);
+    AtomicBoolean isBlocked = new AtomicBoolean();
+    new BatchScheduler(2, 100, false).run(estimates, e -> {
+      String name = e.getPdfPath().toString();
+      if (name.equals("large1.pdf")) {
+        try {
+          isBlocked.set(!smallFinished.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+        }
+      } else if (name.startsWith("small")) {
+        smallFinished.countDown();
+      }
+    });
+    Assert.assertFalse(isBlocked.get());
+  }
+
+  /**
+   * Tests if the files are processed in the order of their estimated times if shortest job first
+   * is enabled, and in the given order otherwise.
+   */
+  @Test
+  public void testShortestJobFirst() throws InterruptedException {
+    List<Estimate> estimates = Arrays.asList(
+        new Estimate(Paths.get("c.pdf"), 0, 30, 30),
+        new Estimate(Paths.get("a.pdf"), 0, 10, 10),
+        new Estimate(Paths.get("b.pdf"), 0, 20, 20));
+
+    List<Path> order = Collections.synchronizedList(new ArrayList<>());
+    new BatchScheduler(1, 100, true).run(estimates, e -> order.add(e.getPdfPath()));
+    Assert.assertEquals(Arrays.asList(Paths.get("a.pdf"), Paths.get("b.pdf"),
+        Paths.get("c.pdf")), order);
+
+    order.clear();
+    new BatchScheduler(1, 100, false).run(estimates, e -> order.add(e.getPdfPath()));
+    Assert.assertEquals(Arrays.asList(Paths.get("c.pdf"), Paths.get("a.pdf"),
+        Paths.get("b.pdf")), order);
+  }
+
+  /**
+   * Tests if the pages of a PDF file are counted and if the estimated heap is computed from the
+   * number of pages.
+   */
+  @Test
+  public void testPageCounter() throws IOException {
+    Path pdfPath = Paths.get("src/test/resources/ACL_2004.pdf");
+    Assert.assertEquals(8, new PdfPageCounter().count(pdfPath));
+
+    Estimate estimate = new PdfCostEstimator(100, 10, 0).estimate(pdfPath);
+    Assert.assertEquals(8, estimate.getNumPages());
+    Assert.assertEquals(180, estimate.getHeapBytes());
+  }
+}
@@ -0,0 +1,76 @@
+package pdfact.cli.util.batch;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import pdfact.cli.util.batch.PdfCostEstimator.Estimate;
+
+/**
+ * A class that tests the {@link CoordinatedBatch}.
+ */
+public class CoordinatedBatchTest {
+  /**
+   * The temporary shared directory (deleted after each test).
+   */
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  /**
+   * Tests if a PDF file whose processing throws an exception or returns a non-zero status code is
+   * marked as failed (instead of being retried forever), while the other PDF files are committed.
+   */
+  @Test
+  public void testFailedFilesAreFinished() throws Exception {
+    Path dir = this.folder.getRoot().toPath();
+    List<Estimate> estimates = new ArrayList<>();
+    for (String name : Arrays.asList("a.pdf", "b.pdf", "throws.pdf", "status.pdf")) {
+      estimates.add(new Estimate(Files.createFile(dir.resolve(name)), 0, 1, 1));
+    }
+
+    AtomicInteger numThrown = new AtomicInteger();
+    List<Path> done = Collections.synchronizedList(new ArrayList<>());
+    FileLeaseCoordinator coordinator = new FileLeaseCoordinator(dir, 1000, 100);
+    CoordinatedBatch batch = new CoordinatedBatch(new BatchScheduler(2, 100, false), coordinator);
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    Future<List<Path>> failed = executor.submit(() -> batch.run(estimates, (pdfPath, outPath) -> {
+      String name = pdfPath.getFileName().toString();
+      if (name.equals("throws.pdf")) {
+        numThrown.incrementAndGet();
+        throw new IllegalStateException("Malformed PDF.");
+      }
+      if (name.equals("status.pdf")) {
+        return 2;
+      }
+      Files.write(outPath, name.getBytes());
+      return 0;
+    }, estimate -> done.add(estimate.getPdfPath())));
+    try {
+      Assert.assertEquals(2, failed.get(30, TimeUnit.SECONDS).size());
+    } finally {
+      executor.shutdownNow();
+      coordinator.close();
+    }
+
+    Assert.assertEquals(1, numThrown.get());
+    Assert.assertEquals(4, done.size());
+    for (Estimate estimate : estimates) {
+      Assert.assertTrue(coordinator.isDone(CoordinatedBatch.getName(estimate),
+          CoordinatedBatch.getOutputPath(estimate)));
+    }
+    Assert.assertTrue(Files.exists(dir.resolve("a.pdf.json")));
+    Assert.assertFalse(Files.exists(dir.resolve("throws.pdf.json")));
+  }
+}
@@ -0,0 +1,238 @@
+package pdfact.cli.util.batch;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import pdfact.cli.util.batch.FileLeaseCoordinator.Lease;
+
+/**
+ * A class that tests the {@link FileLeaseCoordinator}.
+ */
+public class FileLeaseCoordinatorTest {
+  /**
+   * The temporary directory with the PDF files and the leases (deleted after each test).
+   */
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  /**
+   * Tests if each file is processed exactly once when multiple coordinators with multiple threads
+   * each drain the same directory.
+   */
+  @Test
+  public void testEachFileIsProcessedOnce() throws Exception {
+    Path dir = folder.getRoot().toPath();
+    ConcurrentHashMap<String, AtomicInteger> numProcessed = new ConcurrentHashMap<>();
+    for (int i = 0; i < 50; i++) {
+      numProcessed.put(i + ".pdf", new AtomicInteger());
+    }
+
+    // Four "processes" with two threads each drain the directory.
+    List<FileLeaseCoordinator> coordinators = new ArrayList<>();
+    ExecutorService threads = Executors.newFixedThreadPool(8);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      FileLeaseCoordinator coordinator = new FileLeaseCoordinator(dir, 10000);
+      coordinators.add(coordinator);
+      for (int j = 0; j < 2; j++) {
+        futures.add(threads.submit(() -> {
+          for (String name : numProcessed.keySet()) {
+            Path outputPath = dir.resolve(name + ".json");
+            Lease lease = coordinator.tryClaim(name, outputPath);
+            if (lease != null) {
+              numProcessed.get(name).incrementAndGet();
+              Files.write(lease.getTempOutputPath(), name.getBytes());
+              Assert.assertTrue(lease.commit(lease.getTempOutputPath(), outputPath));
+            }
+          }
+          return null;
+        }));
+      }
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    threads.shutdown();
+    threads.awaitTermination(10, TimeUnit.SECONDS);
+
+    for (String name : numProcessed.keySet()) {
+      Assert.assertEquals(1, numProcessed.get(name).get());
+      Assert.assertTrue(coordinators.get(0).isDone(name, dir.resolve(name + ".json")));
+    }
+    for (FileLeaseCoordinator coordinator : coordinators) {
+      coordinator.close();
+    }
+  }
+
+  /**
+   * Tests if a lease is kept while it is renewed, if an expired lease is stolen, if the output of
+   * the former owner is discarded and if a file that couldn't be processed is done.
+   */
+  @Test
+  public void testExpiredLeaseIsStolen() throws IOException, InterruptedException {
+    Path dir = folder.getRoot().toPath();
+    Path outputPath = dir.resolve("a.pdf.json");
+    FileLeaseCoordinator coordinator1 = new FileLeaseCoordinator(dir, 300, 50);
+    FileLeaseCoordinator coordinator2 = new FileLeaseCoordinator(dir, 300, 50);
+
+    Lease lease1 = coordinator1.tryClaim("a.pdf", outputPath);
+    Assert.assertNotNull(lease1);
+    // The lease is renewed by the heartbeat and can't be stolen.
+    Thread.sleep(600);
+    Assert.assertNull(coordinator2.tryClaim("a.pdf", outputPath));
+    Assert.assertTrue(lease1.isHeld());
+
+    // Simulate a crash of the first process.
+    coordinator1.heartbeat.shutdownNow();
+    Thread.sleep(600);
+    Lease lease2 = coordinator2.tryClaim("a.pdf", outputPath);
+    Assert.assertNotNull(lease2);
+    Assert.assertFalse(lease1.isHeld());
+
+    // The output of the first process is discarded.
+    Files.write(lease1.getTempOutputPath(), "1".getBytes());
+    Assert.assertFalse(lease1.commit(lease1.getTempOutputPath(), outputPath));
+    Files.write(lease2.getTempOutputPath(), "2".getBytes());
+    Assert.assertTrue(lease2.commit(lease2.getTempOutputPath(), outputPath));
+    Assert.assertEquals("2", new String(Files.readAllBytes(outputPath)));
+    Assert.assertNull(coordinator1.tryClaim("a.pdf", outputPath));
+
+    // A file that couldn't be processed is done, too.
+    Lease lease3 = coordinator1.tryClaim("b.pdf", dir.resolve("b.pdf.json"));
+    lease3.fail("error");
+    Assert.assertTrue(coordinator2.isDone("b.pdf", dir.resolve("b.pdf.json")));
+
+    coordinator1.close();
+    coordinator2.close();
+  }
+
+  /**
+   * Tests if each file is committed exactly once when multiple JVMs drain the same directory, one
+   * of which crashes while holding a lease, and if no lease files are left.
+   */
+  @Test
+  public void testMultipleProcesses() throws Exception {
+    Path dir = folder.newFolder("pdfs").toPath();
+    Path commitsDir = folder.newFolder("commits").toPath();
+    List<String> names = new ArrayList<>();
+    for (int i = 0; i < 40; i++) {
+      names.add(i + ".pdf");
+      Files.createFile(dir.resolve(i + ".pdf"));
+    }
+
+    // A process that crashes while holding a lease (which must be stolen by the others).
+    Process crashed = startWorker(dir, commitsDir, "crash");
+    Assert.assertTrue(crashed.waitFor(60, TimeUnit.SECONDS));
+    Assert.assertEquals(3, crashed.exitValue());
+
+    List<Process> workers = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      workers.add(startWorker(dir, commitsDir, "run"));
+    }
+    for (Process worker : workers) {
+      Assert.assertTrue(worker.waitFor(60, TimeUnit.SECONDS));
+      Assert.assertEquals(0, worker.exitValue());
+    }
+
+    // Each file is committed exactly once.
+    for (String name : names) {
+      Assert.assertTrue(Files.exists(dir.resolve(name + ".json")));
+      int numCommits = 0;
+      try (DirectoryStream<Path> commits = Files.newDirectoryStream(commitsDir, name + ".*")) {
+        for (Path commit : commits) {
+          numCommits++;
+        }
+      }
+      Assert.assertEquals(name, 1, numCommits);
+    }
+    // No lease files are left.
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(
+        dir.resolve(FileLeaseCoordinator.LEASE_DIR_NAME))) {
+      for (Path file : files) {
+        Assert.fail("Unexpected file: " + file);
+      }
+    }
+  }
+
+  /**
+   * Starts a child JVM that drains the given directory (see {@link #main(String[])}).
+   *
+   * @param dir        The directory with the PDF files.
+   * @param commitsDir The directory to record the committed outputs in.
+   * @param mode       "run" to drain the directory, or "crash" to halt after the first claim.
+   *
+   * @return The started process.
+   */
+  protected Process startWorker(Path dir, Path commitsDir, String mode) throws IOException {
+    String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+    File log = folder.newFile();
+    return new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+        FileLeaseCoordinatorTest.class.getName(), dir.toString(), commitsDir.toString(), mode)
+        .redirectErrorStream(true)
+        .redirectOutput(log)
+        .start();
+  }
+
+  /**
+   * The main method of the child JVMs started by {@link #testMultipleProcesses()}. Drains the
+   * PDF files of the directory given as first argument, and records each committed output in the
+   * directory given as second argument. With "crash" as third argument, the JVM halts (without
+   * releasing its leases) after claiming its first file.
+   *
+   * @param args The directory with the PDF files, the directory to record the committed outputs
+   *             in and the mode.
+   */
+  public static void main(String[] args) throws Exception {
+    Path dir = Paths.get(args[0]);
+    Path commitsDir = Paths.get(args[1]);
+    boolean isCrash = args[2].equals("crash");
+
+    List<String> remaining = new ArrayList<>();
+    try (DirectoryStream<Path> pdfs = Files.newDirectoryStream(dir, "*.pdf")) {
+      for (Path pdf : pdfs) {
+        remaining.add(pdf.getFileName().toString());
+      }
+    }
+    try (FileLeaseCoordinator coordinator = new FileLeaseCoordinator(dir, 1000, 100)) {
+      while (!remaining.isEmpty()) {
+        List<String> notDone = new ArrayList<>();
+        for (String name : remaining) {
+          Path outputPath = dir.resolve(name + ".json");
+          Lease lease = coordinator.tryClaim(name, outputPath);
+          if (lease != null) {
+            if (isCrash) {
+              Runtime.getRuntime().halt(3);
+            }
+            Files.write(lease.getTempOutputPath(), name.getBytes());
+            Thread.sleep(10);
+            if (lease.commit(lease.getTempOutputPath(), outputPath)) {
+              Files.createFile(commitsDir.resolve(name + "." + coordinator.getOwnerId()));
+            }
+          }
+          if (!coordinator.isDone(name, outputPath)) {
+            notDone.add(name);
+          }
+        }
+        if (!notDone.isEmpty()) {
+          Thread.sleep(50);
+        }
+        remaining = notDone;
+      }
+    }
+  }
+}
@@ -0,0 +1,30 @@
+package pdfact.cli.util.cache;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * A class that tests the {@link BuildFingerprint}.
+ */
+public class BuildFingerprintTest {
+  /**
+   * Tests if the fingerprint is known for the code under test and is stable.
+   */
+  @Test
+  public void testFingerprint() throws Exception {
+    String fingerprint = BuildFingerprint.get();
+    Assert.assertNotNull(fingerprint);
+    Assert.assertTrue(fingerprint.matches("[0-9a-f]{64}"));
+    Assert.assertEquals(fingerprint, BuildFingerprint.compute());
+    Assert.assertSame(fingerprint, BuildFingerprint.get());
+  }
+
+  /**
+   * Tests if the code source of an unknown class is unknown.
+   */
+  @Test
+  public void testUnknownCodeSource() {
+    Assert.assertNull(BuildFingerprint.getCodeSource("pdfact.NoSuchClass"));
+    Assert.assertNotNull(BuildFingerprint.getCodeSource("pdfact.cli.PdfAct"));
+  }
+}
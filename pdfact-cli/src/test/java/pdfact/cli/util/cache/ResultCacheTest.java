@@ -0,0 +1,93 @@
+package pdfact.cli.util.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * A class that tests the {@link ResultCache}.
+ */
+public class ResultCacheTest {
+  /**
+   * The temporary directory of the cache (deleted after each test).
+   */
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  /**
+   * Tests if the keys depend on the content of the PDF file and the configuration, if only
+   * committed entries are served and if the statistics are recorded.
+   */
+  @Test
+  public void testHitsAndMisses() throws IOException {
+    Path dir = this.folder.getRoot().toPath();
+    Path pdf1 = Files.write(dir.resolve("1.pdf"), "%PDF-1".getBytes(StandardCharsets.UTF_8));
+    Path pdf2 = Files.write(dir.resolve("2.pdf"), "%PDF-1".getBytes(StandardCharsets.UTF_8));
+    ResultCache cache = new ResultCache(dir.resolve("cache"));
+
+    // Files with the same bytes have the same key; other configurations have other keys.
+    String key = cache.computeKey(pdf1, "format=json");
+    Assert.assertEquals(key, cache.computeKey(pdf2, "format=json"));
+    Assert.assertNotEquals(key, cache.computeKey(pdf1, "format=xml"));
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    Assert.assertFalse(cache.get(key, out));
+
+    // An entry which is not committed is discarded.
+    try (ResultCache.Entry entry = cache.put(key)) {
+      entry.write("partial".getBytes(StandardCharsets.UTF_8));
+    }
+    Assert.assertFalse(cache.get(key, out));
+
+    try (ResultCache.Entry entry = cache.put(key)) {
+      entry.write("result".getBytes(StandardCharsets.UTF_8));
+      entry.commit();
+    }
+    Assert.assertTrue(cache.get(key, out));
+    Assert.assertEquals("result", new String(out.toByteArray(), StandardCharsets.UTF_8));
+
+    Assert.assertEquals(1, cache.getNumHits());
+    Assert.assertEquals(2, cache.getNumMisses());
+    Assert.assertEquals(1, cache.getNumPuts());
+    Assert.assertEquals(1 / 3.0, cache.getHitRate(), 1e-9);
+  }
+
+  /**
+   * Tests if the least recently used entries are evicted when the cache exceeds its maximum size.
+   */
+  @Test
+  public void testEviction() throws IOException {
+    Path dir = this.folder.getRoot().toPath();
+    ResultCache cache = new ResultCache(dir, 10);
+
+    for (String key : new String[] { "a", "b" }) {
+      try (ResultCache.Entry entry = cache.put(key)) {
+        entry.write("12345".getBytes(StandardCharsets.UTF_8));
+        entry.commit();
+      }
+      // Make sure that the entries have different access times.
+      Files.setLastModifiedTime(dir.resolve(key + ".entry"),
+          FileTime.fromMillis(key.equals("a") ? 1000 : 2000));
+    }
+    Assert.assertEquals(0, cache.getNumEvictions());
+
+    // Access "a", so that "b" is the least recently used entry.
+    Assert.assertTrue(cache.get("a", new ByteArrayOutputStream()));
+
+    try (ResultCache.Entry entry = cache.put("c")) {
+      entry.write("12345".getBytes(StandardCharsets.UTF_8));
+      entry.commit();
+    }
+    Assert.assertEquals(1, cache.getNumEvictions());
+    Assert.assertTrue(cache.get("a", new ByteArrayOutputStream()));
+    Assert.assertFalse(cache.get("b", new ByteArrayOutputStream()));
+    Assert.assertTrue(cache.get("c", new ByteArrayOutputStream()));
+  }
+}
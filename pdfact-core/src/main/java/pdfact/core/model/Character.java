@@ -2,6 +2,7 @@ package pdfact.core.model;
 
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
+import pdfact.core.util.lexicon.CharacterLexicon;
 
 /**
  * A single character in a document.
@@ -14,6 +15,12 @@ public class Character extends Element implements HasText, HasPosition, HasFontF
    */
   protected String text;
 
+  /**
+   * The bitmask of the character classes of this character (see {@link CharacterLexicon}),
+   * updated on setting the text.
+   */
+  protected int characterClasses = CharacterLexicon.getClasses(null);
+
   /**
    * The position of this character in the document.
    */
@@ -42,6 +49,17 @@ public class Character extends Element implements HasText, HasPosition, HasFontF
 
   public void setText(String text) {
     this.text = text;
+    this.characterClasses = CharacterLexicon.getClasses(text);
+  }
+
+  /**
+   * Returns the bitmask of the character classes of this character, as defined in
+   * {@link CharacterLexicon}.
+   * 
+   * @return The bitmask of the character classes of this character.
+   */
+  public int getCharacterClasses() {
+    return this.characterClasses;
   }
 
   // ==============================================================================================
@@ -1,7 +1,7 @@
 package pdfact.core.model;
 
-import pdfact.core.util.counter.FloatCounter;
-import pdfact.core.util.counter.ObjectCounter;
+import pdfact.core.util.counter.ObjectHistogram;
+import pdfact.core.util.counter.QuantizedFloatHistogram;
 
 /**
  * A statistic about a collection of characters.
@@ -12,27 +12,27 @@ public class CharacterStatistic {
   /**
    * The height frequencies.
    */
-  protected FloatCounter heightFrequencies;
+  protected QuantizedFloatHistogram heightFrequencies;
 
   /**
    * The width frequencies.
    */
-  protected FloatCounter widthFrequencies;
+  protected QuantizedFloatHistogram widthFrequencies;
 
   /**
    * The font face frequencies.
    */
-  protected ObjectCounter<FontFace> fontFaceFrequencies;
+  protected ObjectHistogram<FontFace> fontFaceFrequencies;
 
   /**
    * The font size frequencies.
    */
-  protected FloatCounter fontsizeFrequencies;
+  protected QuantizedFloatHistogram fontsizeFrequencies;
 
   /**
    * The color frequencies.
    */
-  protected ObjectCounter<Color> colorFrequencies;
+  protected ObjectHistogram<Color> colorFrequencies;
 
   /**
    * The smallest minX value.
@@ -61,7 +61,7 @@ public class CharacterStatistic {
    * 
    * @return The height frequencies of the characters.
    */
-  public FloatCounter getHeightFrequencies() {
+  public QuantizedFloatHistogram getHeightFrequencies() {
     return this.heightFrequencies;
   }
 
@@ -70,7 +70,7 @@ public class CharacterStatistic {
    * 
    * @param freqs The height frequencies of the characters.
    */
-  public void setHeightFrequencies(FloatCounter freqs) {
+  public void setHeightFrequencies(QuantizedFloatHistogram freqs) {
     this.heightFrequencies = freqs;
   }
 
@@ -107,7 +107,7 @@ public class CharacterStatistic {
    * 
    * @return The width frequencies of the characters.
    */
-  public FloatCounter getWidthFrequencies() {
+  public QuantizedFloatHistogram getWidthFrequencies() {
     return this.widthFrequencies;
   }
 
@@ -116,7 +116,7 @@ public class CharacterStatistic {
    * 
    * @param freqs The width frequencies of the characters.
    */
-  public void setWidthFrequencies(FloatCounter freqs) {
+  public void setWidthFrequencies(QuantizedFloatHistogram freqs) {
     this.widthFrequencies = freqs;
   }
 
@@ -153,7 +153,7 @@ public class CharacterStatistic {
    * 
    * @return The font face frequencies of the characters.
    */
-  public ObjectCounter<FontFace> getFontFaceFrequencies() {
+  public ObjectHistogram<FontFace> getFontFaceFrequencies() {
     return this.fontFaceFrequencies;
   }
 
@@ -162,7 +162,7 @@ public class CharacterStatistic {
    * 
    * @param freqs The font face frequencies of the characters.
    */
-  public void setFontFaceFrequencies(ObjectCounter<FontFace> freqs) {
+  public void setFontFaceFrequencies(ObjectHistogram<FontFace> freqs) {
     this.fontFaceFrequencies = freqs;
   }
 
@@ -187,7 +187,7 @@ public class CharacterStatistic {
    * 
    * @return The font size frequencies of the characters.
    */
-  public FloatCounter getFontSizeFrequencies() {
+  public QuantizedFloatHistogram getFontSizeFrequencies() {
     return this.fontsizeFrequencies;
   }
 
@@ -196,7 +196,7 @@ public class CharacterStatistic {
    * 
    * @param freqs The font size frequencies of the characters.
    */
-  public void setFontSizeFrequencies(FloatCounter freqs) {
+  public void setFontSizeFrequencies(QuantizedFloatHistogram freqs) {
     this.fontsizeFrequencies = freqs;
   }
 
@@ -221,7 +221,7 @@ public class CharacterStatistic {
    * 
    * @return The color frequencies of the characters.
    */
-  public ObjectCounter<Color> getColorFrequencies() {
+  public ObjectHistogram<Color> getColorFrequencies() {
     return this.colorFrequencies;
   }
 
@@ -230,7 +230,7 @@ public class CharacterStatistic {
    * 
    * @param freqs The color frequencies of the characters.
    */
-  public void setColorFrequencies(ObjectCounter<Color> freqs) {
+  public void setColorFrequencies(ObjectHistogram<Color> freqs) {
     this.colorFrequencies = freqs;
   }
   // ==============================================================================================
@@ -4,10 +4,19 @@ import java.io.File;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import pdfact.core.util.list.ElementList;
+import pdfact.core.util.list.PlainElementList;
+import pdfact.core.util.trace.Log4jTraceSink;
+import pdfact.core.util.trace.TraceChannel;
+import pdfact.core.util.trace.TraceSink;
+import pdfact.core.util.trace.Tracer;
 
 /**
  * A document.
@@ -40,6 +49,21 @@ public class Document implements HasParagraphs {
    */
   protected TextLineStatistic textLineStatistic;
 
+  /**
+   * The channels on which debug info should be traced while processing this document.
+   */
+  protected Set<TraceChannel> traceChannels;
+
+  /**
+   * The sink to which the debug info about this document should be written.
+   */
+  protected TraceSink traceSink;
+
+  /**
+   * The tracers of this document, indexed by the ordinals of their channels.
+   */
+  protected Tracer[] tracers;
+
   // ==============================================================================================
 
   /**
@@ -67,8 +91,10 @@ public class Document implements HasParagraphs {
    */
   public Document(Path path) {
     this.pages = new ArrayList<>();
-    this.paragraphs = new ElementList<>();
+    this.paragraphs = new PlainElementList<>();
     this.path = path;
+    this.traceChannels = EnumSet.noneOf(TraceChannel.class);
+    this.traceSink = Log4jTraceSink.getInstance();
   }
 
   // ==============================================================================================
@@ -122,6 +148,27 @@ public class Document implements HasParagraphs {
     return this.pages;
   }
 
+  /**
+   * Returns the number of character statistics of the elements of the pages of this document
+   * (words, text lines, text areas, text blocks and paragraphs) that were materialized on first
+   * access so far, per type of element.
+   *
+   * @return A map with the simple names of the element types as keys and the number of
+   *         materialized statistics as values, sorted by the names.
+   */
+  public Map<String, Integer> getNumMaterializedCharacterStatistics() {
+    Map<String, Integer> result = new TreeMap<>();
+    if (this.pages != null) {
+      for (Page page : this.pages) {
+        Map<String, Integer> counts = page.getNumMaterializedCharacterStatistics();
+        if (counts != null) {
+          counts.forEach((type, num) -> result.merge(type, num, Integer::sum));
+        }
+      }
+    }
+    return result;
+  }
+
   /**
    * Returns the first page of this document.
    * 
@@ -228,6 +275,69 @@ public class Document implements HasParagraphs {
 
   // ==============================================================================================
 
+  /**
+   * Returns the tracer to use for tracing debug info on the given channel while processing this
+   * document. The returned tracer is disabled if the channel is not enabled for this document.
+   * 
+   * @param channel The channel.
+   * 
+   * @return The tracer for the given channel.
+   */
+  public Tracer getTracer(TraceChannel channel) {
+    if (this.tracers == null) {
+      Tracer[] tracers = new Tracer[TraceChannel.values().length];
+      for (TraceChannel c : TraceChannel.values()) {
+        boolean isEnabled = this.traceChannels.contains(c);
+        tracers[c.ordinal()] = isEnabled ? new Tracer(c, this.traceSink, true) : Tracer.DISABLED;
+      }
+      this.tracers = tracers;
+    }
+    return this.tracers[channel.ordinal()];
+  }
+
+  /**
+   * Returns the channels on which debug info is traced while processing this document.
+   * 
+   * @return The channels on which debug info is traced.
+   */
+  public Set<TraceChannel> getTraceChannels() {
+    return this.traceChannels;
+  }
+
+  /**
+   * Sets the channels on which debug info should be traced while processing this document.
+   * 
+   * @param channels The channels on which debug info should be traced.
+   */
+  public void setTraceChannels(Set<TraceChannel> channels) {
+    this.traceChannels = EnumSet.noneOf(TraceChannel.class);
+    if (channels != null) {
+      this.traceChannels.addAll(channels);
+    }
+    this.tracers = null;
+  }
+
+  /**
+   * Returns the sink to which the debug info about this document is written.
+   * 
+   * @return The sink to which the debug info about this document is written.
+   */
+  public TraceSink getTraceSink() {
+    return this.traceSink;
+  }
+
+  /**
+   * Sets the sink to which the debug info about this document should be written.
+   * 
+   * @param sink The sink to which the debug info about this document should be written.
+   */
+  public void setTraceSink(TraceSink sink) {
+    this.traceSink = sink;
+    this.tracers = null;
+  }
+
+  // ==============================================================================================
+
   @Override
   public String toString() {
     return "PdfDocument(" + this.path + ")";
@@ -20,4 +20,15 @@ public interface HasText {
    * @param text The text of this element.
    */
   void setText(String text);
+
+  /**
+   * Returns the text of this element as a character sequence, which may be a view on the text of
+   * the page (see {@link pdfact.core.util.text.TextView}) that is not materialized as a string
+   * until it is needed. By default, this is the same as {@link #getText()}.
+   *
+   * @return The text of this element.
+   */
+  default CharSequence getTextView() {
+    return getText();
+  }
 }
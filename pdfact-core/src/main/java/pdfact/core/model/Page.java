@@ -1,9 +1,16 @@
 package pdfact.core.model;
 
+import java.util.Map;
+import java.util.TreeMap;
+
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 
+import pdfact.core.util.index.GridSpatialIndex;
+import pdfact.core.util.index.SpatialIndex;
 import pdfact.core.util.list.ElementList;
+import pdfact.core.util.list.PlainElementList;
+import pdfact.core.util.text.TextBuffer;
 
 /**
  * A page in a document.
@@ -68,6 +75,49 @@ public class Page implements HasCharacters, HasFigures, HasShapes, HasTextAreas,
    */
   protected TextLineStatistic textLineStatistic;
 
+  /**
+   * The spatial index over the characters of this page (built on demand).
+   */
+  protected SpatialIndex<Character> characterIndex;
+
+  /**
+   * The modification count of the characters at the time the spatial index over the characters
+   * was built.
+   */
+  protected int characterIndexModificationCount;
+
+  /**
+   * The spatial index over the figures of this page (built on demand).
+   */
+  protected SpatialIndex<Figure> figureIndex;
+
+  /**
+   * The modification count of the figures at the time the spatial index over the figures was built.
+   */
+  protected int figureIndexModificationCount;
+
+  /**
+   * The spatial index over the shapes of this page (built on demand).
+   */
+  protected SpatialIndex<Shape> shapeIndex;
+
+  /**
+   * The modification count of the shapes at the time the spatial index over the shapes was built.
+   */
+  protected int shapeIndexModificationCount;
+
+  /**
+   * The buffer that holds the text of the words of this page (created on demand).
+   */
+  protected TextBuffer textBuffer;
+
+  /**
+   * The number of character statistics of the elements of this page (words, text lines, text
+   * areas, text blocks and paragraphs) that were materialized on first access, per type of
+   * element (created on demand).
+   */
+  protected Map<String, Integer> numMaterializedCharacterStatistics;
+
   // ==============================================================================================
 
   /**
@@ -83,12 +133,12 @@ public class Page implements HasCharacters, HasFigures, HasShapes, HasTextAreas,
    * @param pageNumber The number of this page in the document.
    */
   public Page(int pageNumber) {
-    this.characters = new ElementList<>();
-    this.figures = new ElementList<>();
-    this.shapes = new ElementList<>();
-    this.textAreas = new ElementList<>();
-    this.textLines = new ElementList<>();
-    this.textBlocks = new ElementList<>();
+    this.characters = new PlainElementList<>();
+    this.figures = new PlainElementList<>();
+    this.shapes = new PlainElementList<>();
+    this.textAreas = new PlainElementList<>();
+    this.textLines = new PlainElementList<>();
+    this.textBlocks = new PlainElementList<>();
     this.pageNumber = pageNumber;
   }
 
@@ -112,6 +162,7 @@ public class Page implements HasCharacters, HasFigures, HasShapes, HasTextAreas,
   @Override
   public void setCharacters(ElementList<Character> characters) {
     this.characters = characters;
+    this.characterIndex = null;
   }
 
   @Override
@@ -124,6 +175,23 @@ public class Page implements HasCharacters, HasFigures, HasShapes, HasTextAreas,
     this.characters.add(character);
   }
 
+  /**
+   * Returns a spatial index over the characters of this page, for example to get the characters
+   * inside of a given rectangle without scanning all characters of the page. The index is built
+   * on the first call and rebuilt if the characters were modified since (added, removed,
+   * replaced or reordered, see {@link ElementList#getModificationCount()}).
+   *
+   * @return The spatial index over the characters of this page.
+   */
+  public SpatialIndex<Character> getCharacterIndex() {
+    int modificationCount = this.characters.getModificationCount();
+    if (this.characterIndex == null || this.characterIndexModificationCount != modificationCount) {
+      this.characterIndex = new GridSpatialIndex<>(this.characters);
+      this.characterIndexModificationCount = modificationCount;
+    }
+    return this.characterIndex;
+  }
+
   // ==============================================================================================
 
   @Override
@@ -144,6 +212,7 @@ public class Page implements HasCharacters, HasFigures, HasShapes, HasTextAreas,
   @Override
   public void setFigures(ElementList<Figure> figures) {
     this.figures = figures;
+    this.figureIndex = null;
   }
 
   @Override
@@ -156,6 +225,23 @@ public class Page implements HasCharacters, HasFigures, HasShapes, HasTextAreas,
     this.figures.add(figure);
   }
 
+  /**
+   * Returns a spatial index over the figures of this page, for example to get the figures
+   * inside of a given rectangle without scanning all figures of the page. The index is built
+   * on the first call and rebuilt if the figures were modified since (added, removed,
+   * replaced or reordered, see {@link ElementList#getModificationCount()}).
+   *
+   * @return The spatial index over the figures of this page.
+   */
+  public SpatialIndex<Figure> getFigureIndex() {
+    int modificationCount = this.figures.getModificationCount();
+    if (this.figureIndex == null || this.figureIndexModificationCount != modificationCount) {
+      this.figureIndex = new GridSpatialIndex<>(this.figures);
+      this.figureIndexModificationCount = modificationCount;
+    }
+    return this.figureIndex;
+  }
+
   // ==============================================================================================
 
   @Override
@@ -176,6 +262,7 @@ public class Page implements HasCharacters, HasFigures, HasShapes, HasTextAreas,
   @Override
   public void setShapes(ElementList<Shape> shapes) {
     this.shapes = shapes;
+    this.shapeIndex = null;
   }
 
   @Override
@@ -188,6 +275,23 @@ public class Page implements HasCharacters, HasFigures, HasShapes, HasTextAreas,
     this.shapes.add(shape);
   }
 
+  /**
+   * Returns a spatial index over the shapes of this page, for example to get the shapes
+   * inside of a given rectangle without scanning all shapes of the page. The index is built
+   * on the first call and rebuilt if the shapes were modified since (added, removed,
+   * replaced or reordered, see {@link ElementList#getModificationCount()}).
+   *
+   * @return The spatial index over the shapes of this page.
+   */
+  public SpatialIndex<Shape> getShapeIndex() {
+    int modificationCount = this.shapes.getModificationCount();
+    if (this.shapeIndex == null || this.shapeIndexModificationCount != modificationCount) {
+      this.shapeIndex = new GridSpatialIndex<>(this.shapes);
+      this.shapeIndexModificationCount = modificationCount;
+    }
+    return this.shapeIndex;
+  }
+
   // ==============================================================================================
 
   @Override
@@ -370,6 +474,47 @@ public class Page implements HasCharacters, HasFigures, HasShapes, HasTextAreas,
 
   // ==============================================================================================
 
+  /**
+   * Returns the buffer that holds the text of the words of this page, to which the texts of the
+   * words, text lines and text blocks are views. The buffer is created on the first call.
+   *
+   * @return The buffer that holds the text of this page.
+   */
+  public TextBuffer getTextBuffer() {
+    if (this.textBuffer == null) {
+      this.textBuffer = new TextBuffer();
+    }
+    return this.textBuffer;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Counts a character statistic of an element of this page that was materialized on first
+   * access.
+   *
+   * @param type The type of the element.
+   */
+  public void countMaterializedCharacterStatistic(Class<? extends HasCharacterStatistic> type) {
+    if (this.numMaterializedCharacterStatistics == null) {
+      this.numMaterializedCharacterStatistics = new TreeMap<>();
+    }
+    this.numMaterializedCharacterStatistics.merge(type.getSimpleName(), 1, Integer::sum);
+  }
+
+  /**
+   * Returns the number of character statistics of the elements of this page that were
+   * materialized on first access so far, per type of element.
+   *
+   * @return A map with the simple names of the element types as keys and the number of
+   *         materialized statistics as values (null if no statistic was materialized).
+   */
+  public Map<String, Integer> getNumMaterializedCharacterStatistics() {
+    return this.numMaterializedCharacterStatistics;
+  }
+
+  // ==============================================================================================
+
   @Override
   public String toString() {
     return "Page(" + this.pageNumber + ")";
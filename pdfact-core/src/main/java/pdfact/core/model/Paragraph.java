@@ -6,6 +6,8 @@ import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 
 import pdfact.core.util.list.ElementList;
+import pdfact.core.util.list.PlainElementList;
+import pdfact.core.util.statistician.CharacterStatistician;
 
 /**
  * A text paragraph in a document.
@@ -19,9 +21,10 @@ public class Paragraph extends Element implements HasWords, HasText, HasPosition
   protected ElementList<Word> words;
 
   /**
-   * The text of this paragraph.
+   * The text of this paragraph (a string or a view on the text of the page, which is
+   * materialized as a string only when {@link #getText()} is called).
    */
-  protected String text;
+  protected CharSequence text;
 
   /**
    * The positions of this paragraph.
@@ -38,8 +41,15 @@ public class Paragraph extends Element implements HasWords, HasText, HasPosition
    */
   protected SemanticRole secondaryRole;
 
+  /**
+   * The statistician to compute the character statistic on demand.
+   */
+  protected static final CharacterStatistician STATISTICIAN = new CharacterStatistician();
+
   /**
    * The statistics about the characters in this paragraph.
+   * Computed on first access (by {@link #getCharacterStatistic()}) and
+   * discarded when the words of this paragraph are changed.
    */
   protected CharacterStatistic characterStatistic;
 
@@ -49,7 +59,7 @@ public class Paragraph extends Element implements HasWords, HasText, HasPosition
    * Creates a new paragraph.
    */
   public Paragraph() {
-    this.words = new ElementList<>();
+    this.words = new PlainElementList<>();
   }
 
   // ==============================================================================================
@@ -78,23 +88,26 @@ public class Paragraph extends Element implements HasWords, HasText, HasPosition
   @Override
   public void setWords(ElementList<Word> words) {
     this.words = words;
+    this.characterStatistic = null;
   }
 
   @Override
   public void addWords(ElementList<Word> words) {
     this.words.addAll(words);
+    this.characterStatistic = null;
   }
 
   @Override
   public void addWord(Word word) {
     this.words.add(word);
+    this.characterStatistic = null;
   }
 
   // ==============================================================================================
 
   @Override
   public String getText() {
-    return this.text;
+    return this.text != null ? this.text.toString() : null;
   }
 
   @Override
@@ -102,6 +115,21 @@ public class Paragraph extends Element implements HasWords, HasText, HasPosition
     this.text = text;
   }
 
+  @Override
+  public CharSequence getTextView() {
+    return this.text;
+  }
+
+  /**
+   * Sets the text of this paragraph as a character sequence (for example, a view on the text
+   * of the page), which is materialized as a string only when {@link #getText()} is called.
+   *
+   * @param text The text of this paragraph.
+   */
+  public void setTextView(CharSequence text) {
+    this.text = text;
+  }
+
   // ==============================================================================================
 
   @Override
@@ -166,6 +194,13 @@ public class Paragraph extends Element implements HasWords, HasText, HasPosition
 
   @Override
   public CharacterStatistic getCharacterStatistic() {
+    if (this.characterStatistic == null && this.words != null) {
+      this.characterStatistic = STATISTICIAN.aggregate(this.words);
+      Position position = getFirstPosition();
+      if (position != null && position.getPage() != null) {
+        position.getPage().countMaterializedCharacterStatistic(Paragraph.class);
+      }
+    }
     return this.characterStatistic;
   }
 
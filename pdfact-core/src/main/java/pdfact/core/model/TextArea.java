@@ -1,6 +1,8 @@
 package pdfact.core.model;
 
 import pdfact.core.util.list.ElementList;
+import pdfact.core.util.list.PlainElementList;
+import pdfact.core.util.statistician.CharacterStatistician;
 
 /**
  * A text area in a document. A text area has no strict definition. Mainly,
@@ -20,8 +22,15 @@ public class TextArea extends Element implements HasCharacters, HasPosition {
    */
   protected Position position;
 
+  /**
+   * The statistician to compute the character statistic on demand.
+   */
+  protected static final CharacterStatistician STATISTICIAN = new CharacterStatistician();
+
   /**
    * The statistic about the characters in this area.
+   * Computed on first access (by {@link #getCharacterStatistic()}) and
+   * discarded when the characters of this text area are changed.
    */
   protected CharacterStatistic characterStatistic;
 
@@ -29,7 +38,7 @@ public class TextArea extends Element implements HasCharacters, HasPosition {
    * The default constructor.
    */
   public TextArea() {
-    this.characters = new ElementList<>();
+    this.characters = new PlainElementList<>();
   }
 
   // ==============================================================================================
@@ -58,22 +67,32 @@ public class TextArea extends Element implements HasCharacters, HasPosition {
   @Override
   public void setCharacters(ElementList<Character> characters) {
     this.characters = characters;
+    this.characterStatistic = null;
   }
 
   @Override
   public void addCharacters(ElementList<Character> characters) {
     this.characters.addAll(characters);
+    this.characterStatistic = null;
   }
 
   @Override
   public void addCharacter(Character character) {
     this.characters.add(character);
+    this.characterStatistic = null;
   }
 
   // ==============================================================================================
 
   @Override
   public CharacterStatistic getCharacterStatistic() {
+    if (this.characterStatistic == null && this.characters != null) {
+      this.characterStatistic = STATISTICIAN.compute(this.characters);
+      Position position = getPosition();
+      if (position != null && position.getPage() != null) {
+        position.getPage().countMaterializedCharacterStatistic(TextArea.class);
+      }
+    }
     return this.characterStatistic;
   }
 
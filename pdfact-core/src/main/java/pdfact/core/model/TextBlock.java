@@ -4,6 +4,8 @@ import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 
 import pdfact.core.util.list.ElementList;
+import pdfact.core.util.list.PlainElementList;
+import pdfact.core.util.statistician.CharacterStatistician;
 
 /**
  * A text block in a page of a document. In principal, a text block is equal to
@@ -20,9 +22,10 @@ public class TextBlock extends Element implements HasTextLines, HasText, HasPosi
   protected ElementList<TextLine> textLines;
 
   /**
-   * The text of this text block.
+   * The text of this text block (a string or a view on the text of the page, which is
+   * materialized as a string only when {@link #getText()} is called).
    */
-  protected String text;
+  protected CharSequence text;
 
   /**
    * The position of this text block.
@@ -39,8 +42,15 @@ public class TextBlock extends Element implements HasTextLines, HasText, HasPosi
    */
   protected SemanticRole secondaryRole;
 
+  /**
+   * The statistician to compute the character statistic on demand.
+   */
+  protected static final CharacterStatistician STATISTICIAN = new CharacterStatistician();
+
   /**
    * The statistics about the characters in this text block.
+   * Computed on first access (by {@link #getCharacterStatistic()}) and
+   * discarded when the text lines of this text block are changed.
    */
   protected CharacterStatistic characterStatistic;
 
@@ -53,7 +63,7 @@ public class TextBlock extends Element implements HasTextLines, HasText, HasPosi
    * Creates a new text block.
    */
   public TextBlock() {
-    this.textLines = new ElementList<>();
+    this.textLines = new PlainElementList<>();
   }
 
   // ==============================================================================================
@@ -82,23 +92,26 @@ public class TextBlock extends Element implements HasTextLines, HasText, HasPosi
   @Override
   public void setTextLines(ElementList<TextLine> textLines) {
     this.textLines = textLines;
+    this.characterStatistic = null;
   }
 
   @Override
   public void addTextLines(ElementList<TextLine> textLines) {
     this.textLines.addAll(textLines);
+    this.characterStatistic = null;
   }
 
   @Override
   public void addTextLine(TextLine word) {
     this.textLines.add(word);
+    this.characterStatistic = null;
   }
 
   // ==============================================================================================
 
   @Override
   public String getText() {
-    return this.text;
+    return this.text != null ? this.text.toString() : null;
   }
 
   @Override
@@ -106,6 +119,21 @@ public class TextBlock extends Element implements HasTextLines, HasText, HasPosi
     this.text = text;
   }
 
+  @Override
+  public CharSequence getTextView() {
+    return this.text;
+  }
+
+  /**
+   * Sets the text of this text block as a character sequence (for example, a view on the text
+   * of the page), which is materialized as a string only when {@link #getText()} is called.
+   *
+   * @param text The text of this text block.
+   */
+  public void setTextView(CharSequence text) {
+    this.text = text;
+  }
+
   // ==============================================================================================
 
   @Override
@@ -122,6 +150,13 @@ public class TextBlock extends Element implements HasTextLines, HasText, HasPosi
 
   @Override
   public CharacterStatistic getCharacterStatistic() {
+    if (this.characterStatistic == null && this.textLines != null) {
+      this.characterStatistic = STATISTICIAN.aggregate(this.textLines);
+      Position position = getPosition();
+      if (position != null && position.getPage() != null) {
+        position.getPage().countMaterializedCharacterStatistic(TextBlock.class);
+      }
+    }
     return this.characterStatistic;
   }
 
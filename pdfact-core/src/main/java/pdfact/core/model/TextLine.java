@@ -1,6 +1,8 @@
 package pdfact.core.model;
 
 import pdfact.core.util.list.ElementList;
+import pdfact.core.util.list.PlainElementList;
+import pdfact.core.util.statistician.CharacterStatistician;
 
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
@@ -22,9 +24,10 @@ public class TextLine extends Element implements HasCharacters, HasWords, HasTex
   protected ElementList<Word> words;
 
   /**
-   * The text of this text line.
+   * The text of this text line (a string or a view on the text of the page, which is
+   * materialized as a string only when {@link #getText()} is called).
    */
-  protected String text;
+  protected CharSequence text;
 
   /**
    * The position of this text line.
@@ -36,8 +39,15 @@ public class TextLine extends Element implements HasCharacters, HasWords, HasTex
    */
   protected Line baseLine;
 
+  /**
+   * The statistician to compute the character statistic on demand.
+   */
+  protected static final CharacterStatistician STATISTICIAN = new CharacterStatistician();
+
   /**
    * The statistics about the characters in this text line.
+   * Computed on first access (by {@link #getCharacterStatistic()}) and
+   * discarded when the characters of this text line are changed.
    */
   protected CharacterStatistic characterStatistic;
 
@@ -47,8 +57,8 @@ public class TextLine extends Element implements HasCharacters, HasWords, HasTex
    * Creates a new text line.
    */
   public TextLine() {
-    this.characters = new ElementList<>();
-    this.words = new ElementList<>();
+    this.characters = new PlainElementList<>();
+    this.words = new PlainElementList<>();
   }
 
   // ==============================================================================================
@@ -77,16 +87,19 @@ public class TextLine extends Element implements HasCharacters, HasWords, HasTex
   @Override
   public void setCharacters(ElementList<Character> characters) {
     this.characters = characters;
+    this.characterStatistic = null;
   }
 
   @Override
   public void addCharacters(ElementList<Character> characters) {
     this.characters.addAll(characters);
+    this.characterStatistic = null;
   }
 
   @Override
   public void addCharacter(Character character) {
     this.characters.add(character);
+    this.characterStatistic = null;
   }
 
   // ==============================================================================================
@@ -131,7 +144,7 @@ public class TextLine extends Element implements HasCharacters, HasWords, HasTex
 
   @Override
   public String getText() {
-    return this.text;
+    return this.text != null ? this.text.toString() : null;
   }
 
   @Override
@@ -139,6 +152,21 @@ public class TextLine extends Element implements HasCharacters, HasWords, HasTex
     this.text = text;
   }
 
+  @Override
+  public CharSequence getTextView() {
+    return this.text;
+  }
+
+  /**
+   * Sets the text of this text line as a character sequence (for example, a view on the text
+   * of the page), which is materialized as a string only when {@link #getText()} is called.
+   *
+   * @param text The text of this text line.
+   */
+  public void setTextView(CharSequence text) {
+    this.text = text;
+  }
+
   // ==============================================================================================
 
   @Override
@@ -176,6 +204,13 @@ public class TextLine extends Element implements HasCharacters, HasWords, HasTex
 
   @Override
   public CharacterStatistic getCharacterStatistic() {
+    if (this.characterStatistic == null && this.characters != null) {
+      this.characterStatistic = STATISTICIAN.compute(this.characters);
+      Position position = getPosition();
+      if (position != null && position.getPage() != null) {
+        position.getPage().countMaterializedCharacterStatistic(TextLine.class);
+      }
+    }
     return this.characterStatistic;
   }
 
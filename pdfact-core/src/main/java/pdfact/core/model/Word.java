@@ -4,6 +4,8 @@ import java.util.List;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import pdfact.core.util.list.ElementList;
+import pdfact.core.util.list.PlainElementList;
+import pdfact.core.util.statistician.CharacterStatistician;
 
 /**
  * A word in a document.
@@ -17,9 +19,10 @@ public class Word extends Element implements HasCharacters, HasText, HasPosition
   protected ElementList<Character> characters;
 
   /**
-   * The text of this word.
+   * The text of this word (a string or a view on the text of the page, which is
+   * materialized as a string only when {@link #getText()} is called).
    */
-  protected String text;
+  protected CharSequence text;
 
   /**
    * The positions of this word.
@@ -42,8 +45,15 @@ public class Word extends Element implements HasCharacters, HasText, HasPosition
    */
   protected boolean isHyphenMandatory;
 
+  /**
+   * The statistician to compute the character statistic on demand.
+   */
+  protected static final CharacterStatistician STATISTICIAN = new CharacterStatistician();
+
   /**
    * The statistic about the characters.
+   * Computed on first access (by {@link #getCharacterStatistic()}) and
+   * discarded when the characters of this word are changed.
    */
   protected CharacterStatistic characterStatistic;
 
@@ -53,7 +63,7 @@ public class Word extends Element implements HasCharacters, HasText, HasPosition
    * Creates a new word.
    */
   public Word() {
-    this.characters = new ElementList<>();
+    this.characters = new PlainElementList<>();
   }
 
   // ==============================================================================================
@@ -82,23 +92,26 @@ public class Word extends Element implements HasCharacters, HasText, HasPosition
   @Override
   public void setCharacters(ElementList<Character> characters) {
     this.characters = characters;
+    this.characterStatistic = null;
   }
 
   @Override
   public void addCharacters(ElementList<Character> characters) {
     this.characters.addAll(characters);
+    this.characterStatistic = null;
   }
 
   @Override
   public void addCharacter(Character character) {
     this.characters.add(character);
+    this.characterStatistic = null;
   }
 
   // ==============================================================================================
 
   @Override
   public String getText() {
-    return this.text;
+    return this.text != null ? this.text.toString() : null;
   }
 
   @Override
@@ -106,6 +119,21 @@ public class Word extends Element implements HasCharacters, HasText, HasPosition
     this.text = text;
   }
 
+  @Override
+  public CharSequence getTextView() {
+    return this.text;
+  }
+
+  /**
+   * Sets the text of this word as a character sequence (for example, a view on the text
+   * of the page), which is materialized as a string only when {@link #getText()} is called.
+   *
+   * @param text The text of this word.
+   */
+  public void setTextView(CharSequence text) {
+    this.text = text;
+  }
+
   // ==============================================================================================
 
   @Override
@@ -211,6 +239,13 @@ public class Word extends Element implements HasCharacters, HasText, HasPosition
 
   @Override
   public CharacterStatistic getCharacterStatistic() {
+    if (this.characterStatistic == null && this.characters != null) {
+      this.characterStatistic = STATISTICIAN.compute(this.characters);
+      Position position = getFirstPosition();
+      if (position != null && position.getPage() != null) {
+        position.getPage().countMaterializedCharacterStatistic(Word.class);
+      }
+    }
     return this.characterStatistic;
   }
 
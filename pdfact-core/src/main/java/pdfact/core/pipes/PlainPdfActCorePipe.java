@@ -1,23 +1,26 @@
 package pdfact.core.pipes;
 
+import java.nio.file.Path;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import pdfact.core.model.Document;
+import pdfact.core.pipes.checkpoint.PlainWriteCheckpointPipe;
 import pdfact.core.pipes.dehyphenate.PlainDehyphenateWordsPipe;
-import pdfact.core.pipes.filter.characters.PlainFilterCharactersPipe;
 import pdfact.core.pipes.filter.figures.PlainFilterFiguresPipe;
 import pdfact.core.pipes.filter.shapes.PlainFilterShapesPipe;
+import pdfact.core.pipes.parse.CheckpointParseDocumentPipe;
 import pdfact.core.pipes.parse.PlainParseDocumentPipe;
-import pdfact.core.pipes.semanticize.PlainDetectSemanticsPipe;
+import pdfact.core.pipes.semanticize.FusedDetectSemanticsPipe;
 import pdfact.core.pipes.tokenize.areas.XYCutTokenizeToTextAreasPipe;
 import pdfact.core.pipes.tokenize.blocks.PlainTokenizeToTextBlocksPipe;
 import pdfact.core.pipes.tokenize.lines.PlainTokenizeToTextLinesPipe;
 import pdfact.core.pipes.tokenize.paragraphs.PlainTokenizeToParagraphsPipe;
+import pdfact.core.pipes.tokenize.words.TokenizeToWordsPipe;
 import pdfact.core.pipes.tokenize.words.XYCutTokenizeToWordsPipe;
-import pdfact.core.pipes.translate.characters.PlainStandardizeCharactersPipe;
-import pdfact.core.pipes.translate.diacritics.PlainMergeDiacriticsPipe;
-import pdfact.core.pipes.translate.ligatures.PlainSplitLigaturesPipe;
+import pdfact.core.pipes.translate.characters.PlainNormalizeCharactersPipe;
 import pdfact.core.pipes.validate.PlainValidatePdfPathPipe;
+import pdfact.core.util.cache.PageCache;
+import pdfact.core.util.checkpoint.DocumentCheckpoint;
 import pdfact.core.util.exception.PdfActException;
 import pdfact.core.util.pipeline.Pipeline;
 import pdfact.core.util.pipeline.PlainPipeline;
@@ -33,10 +36,108 @@ public class PlainPdfActCorePipe implements PdfActCorePipe {
    */
   protected static Logger log = LogManager.getLogger(PlainPdfActCorePipe.class);
 
+  /**
+   * The pipe to tokenize the text lines into words.
+   */
+  protected TokenizeToWordsPipe tokenizeToWordsPipe;
+
+  /**
+   * The path to the file to which a checkpoint of the parsed document should be written (null if
+   * no checkpoint should be written).
+   */
+  protected Path checkpointPath;
+
+  /**
+   * The cache of already parsed pages (null if pages should not be cached).
+   */
+  protected PageCache pageCache;
+
+  // ==============================================================================================
+
+  /**
+   * Creates a new core pipe, which tokenizes the text lines into words by XYCut.
+   */
+  public PlainPdfActCorePipe() {
+    this(new XYCutTokenizeToWordsPipe());
+  }
+
+  /**
+   * Creates a new core pipe, which tokenizes the text lines into words by the given pipe.
+   * 
+   * @param tokenizeToWordsPipe
+   *        The pipe to tokenize the text lines into words.
+   */
+  public PlainPdfActCorePipe(TokenizeToWordsPipe tokenizeToWordsPipe) {
+    this.tokenizeToWordsPipe = tokenizeToWordsPipe;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the pipe to tokenize the text lines into words.
+   * 
+   * @return The pipe to tokenize the text lines into words.
+   */
+  public TokenizeToWordsPipe getTokenizeToWordsPipe() {
+    return this.tokenizeToWordsPipe;
+  }
+
+  /**
+   * Sets the pipe to tokenize the text lines into words.
+   * 
+   * @param tokenizeToWordsPipe
+   *        The pipe to tokenize the text lines into words.
+   */
+  public void setTokenizeToWordsPipe(TokenizeToWordsPipe tokenizeToWordsPipe) {
+    this.tokenizeToWordsPipe = tokenizeToWordsPipe;
+  }
+
+  /**
+   * Returns the path to the file to which a checkpoint of the parsed document should be written.
+   * 
+   * @return The path to the checkpoint file, or null if no checkpoint should be written.
+   */
+  public Path getCheckpointPath() {
+    return this.checkpointPath;
+  }
+
+  /**
+   * Sets the path to the file to which a checkpoint of the parsed document should be written.
+   * 
+   * @param checkpointPath
+   *        The path to the checkpoint file, or null if no checkpoint should be written.
+   */
+  public void setCheckpointPath(Path checkpointPath) {
+    this.checkpointPath = checkpointPath;
+  }
+
+  /**
+   * Returns the cache of already parsed pages.
+   * 
+   * @return The page cache, or null if pages are not cached.
+   */
+  public PageCache getPageCache() {
+    return this.pageCache;
+  }
+
+  /**
+   * Sets the cache of already parsed pages. Pages with the same content streams and resources as
+   * a page in the cache (e.g., license pages or cover pages shared by many documents) are not
+   * parsed again, but loaded from the cache.
+   * 
+   * @param pageCache
+   *        The page cache, or null if pages should not be cached.
+   */
+  public void setPageCache(PageCache pageCache) {
+    this.pageCache = pageCache;
+  }
+
   // ==============================================================================================
 
   /**
-   * Processes the given PDF document.
+   * Processes the given PDF document. If the path of the document points to a checkpoint (see
+   * {@link DocumentCheckpoint}) instead of a PDF file, the parsed document is loaded from the
+   * checkpoint and the PDF file is not parsed.
    * 
    * @param pdf
    *        The PDF document to process.
@@ -56,16 +157,19 @@ public class PlainPdfActCorePipe implements PdfActCorePipe {
 
     // Validate the path to the PDF file.
     pipeline.addPipe(new PlainValidatePdfPathPipe());
-    // Extract the characters, shapes and figures.
-    pipeline.addPipe(new PlainParseDocumentPipe());
-    // Merge the diacritics.
-    pipeline.addPipe(new PlainMergeDiacriticsPipe());
-    // Split the ligatures.
-    pipeline.addPipe(new PlainSplitLigaturesPipe());
-    // Standardize characters.
-    pipeline.addPipe(new PlainStandardizeCharactersPipe());
-    // Filter the characters.
-    pipeline.addPipe(new PlainFilterCharactersPipe());
+    if (pdf != null && DocumentCheckpoint.isCheckpoint(pdf.getPath())) {
+      // Load the characters, shapes and figures from the checkpoint.
+      pipeline.addPipe(new CheckpointParseDocumentPipe());
+    } else {
+      // Extract the characters, shapes and figures.
+      pipeline.addPipe(new PlainParseDocumentPipe(this.pageCache));
+    }
+    // Write a checkpoint of the parsed document, if requested.
+    if (this.checkpointPath != null) {
+      pipeline.addPipe(new PlainWriteCheckpointPipe(this.checkpointPath));
+    }
+    // Merge the diacritics, split the ligatures, standardize and filter the characters.
+    pipeline.addPipe(new PlainNormalizeCharactersPipe());
     // Filter the figures.
     pipeline.addPipe(new PlainFilterFiguresPipe());
     // Filter the shapes.
@@ -75,11 +179,11 @@ public class PlainPdfActCorePipe implements PdfActCorePipe {
     // Tokenize the text areas into text lines.
     pipeline.addPipe(new PlainTokenizeToTextLinesPipe());
     // Tokenize the text lines into words.
-    pipeline.addPipe(new XYCutTokenizeToWordsPipe());
+    pipeline.addPipe(this.tokenizeToWordsPipe);
     // Tokenize the text lines into text blocks.
     pipeline.addPipe(new PlainTokenizeToTextBlocksPipe());
     // Identify the roles of the text blocks.
-    pipeline.addPipe(new PlainDetectSemanticsPipe());
+    pipeline.addPipe(new FusedDetectSemanticsPipe());
     // Tokenize the text blocks into paragraphs.
     pipeline.addPipe(new PlainTokenizeToParagraphsPipe());
     // Dehyphenate the words.
@@ -93,6 +197,8 @@ public class PlainPdfActCorePipe implements PdfActCorePipe {
 
     log.debug("Processing the core pipeline done.");
     log.debug("Time needed to process the core pipeline: " + length + "ms.");
+    log.debug("# character statistics materialized: "
+        + pdf.getNumMaterializedCharacterStatistics());
 
     log.debug("End of pipe: " + getClass().getSimpleName() + ".");
     return pdf;
@@ -0,0 +1,78 @@
+package pdfact.core.pipes.checkpoint;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pdfact.core.model.Document;
+import pdfact.core.util.checkpoint.DocumentCheckpointWriter;
+import pdfact.core.util.exception.PdfActCheckpointException;
+import pdfact.core.util.exception.PdfActException;
+
+/**
+ * A plain implementation of {@link WriteCheckpointPipe}.
+ * 
+ * @author Claudius Korzen
+ */
+public class PlainWriteCheckpointPipe implements WriteCheckpointPipe {
+  /**
+   * The logger.
+   */
+  protected static Logger log = LogManager.getLogger(PlainWriteCheckpointPipe.class);
+
+  /**
+   * The path to the file to which the checkpoint should be written.
+   */
+  protected Path checkpointPath;
+
+  // ==============================================================================================
+
+  /**
+   * Creates a new pipe that writes a checkpoint to the given file.
+   * 
+   * @param checkpointPath
+   *        The path to the file to which the checkpoint should be written.
+   */
+  public PlainWriteCheckpointPipe(Path checkpointPath) {
+    this.checkpointPath = checkpointPath;
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public Document execute(Document pdf) throws PdfActException {
+    log.debug("Start of pipe: " + getClass().getSimpleName() + ".");
+
+    log.debug("Process: Writing the checkpoint to " + this.checkpointPath + ".");
+    try {
+      new DocumentCheckpointWriter().write(pdf, this.checkpointPath);
+    } catch (IOException e) {
+      throw new PdfActCheckpointException("Couldn't write the checkpoint.", e);
+    }
+    log.debug("Writing the checkpoint done.");
+
+    log.debug("End of pipe: " + getClass().getSimpleName() + ".");
+    return pdf;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the path to the file to which the checkpoint should be written.
+   * 
+   * @return The path to the file to which the checkpoint should be written.
+   */
+  public Path getCheckpointPath() {
+    return this.checkpointPath;
+  }
+
+  /**
+   * Sets the path to the file to which the checkpoint should be written.
+   * 
+   * @param checkpointPath
+   *        The path to the file to which the checkpoint should be written.
+   */
+  public void setCheckpointPath(Path checkpointPath) {
+    this.checkpointPath = checkpointPath;
+  }
+}
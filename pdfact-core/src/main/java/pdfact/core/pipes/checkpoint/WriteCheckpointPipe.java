@@ -0,0 +1,13 @@
+package pdfact.core.pipes.checkpoint;
+
+import pdfact.core.util.pipeline.Pipe;
+
+/**
+ * A pipe that writes a checkpoint of a parsed PDF document, from which the document can be
+ * loaded later without parsing the PDF file again.
+ * 
+ * @author Claudius Korzen
+ */
+public interface WriteCheckpointPipe extends Pipe {
+
+}
@@ -5,8 +5,6 @@ import static pdfact.core.util.lexicon.CharacterLexicon.LETTERS;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
 import gnu.trove.iterator.TIntIterator;
 import gnu.trove.list.TIntList;
 import pdfact.core.model.Character;
@@ -20,7 +18,11 @@ import pdfact.core.util.PdfActUtils;
 import pdfact.core.util.counter.ObjectCounter;
 import pdfact.core.util.exception.PdfActException;
 import pdfact.core.util.list.ElementList;
+import pdfact.core.util.list.PlainElementList;
 import pdfact.core.util.normalize.WordNormalizer;
+import pdfact.core.util.text.TextView;
+import pdfact.core.util.trace.TraceChannel;
+import pdfact.core.util.trace.Tracer;
 
 /**
  * A plain implementation of {@link DehyphenateWordsPipe}.
@@ -29,9 +31,9 @@ import pdfact.core.util.normalize.WordNormalizer;
  */
 public class PlainDehyphenateWordsPipe implements DehyphenateWordsPipe {
   /**
-   * The logger.
+   * The tracer to trace debug info about the dehyphenation of words.
    */
-  protected static Logger log = LogManager.getFormatterLogger("word-dehyphenation");
+  protected Tracer trace = Tracer.DISABLED;
 
   /**
    * The word normalizer.
@@ -96,6 +98,8 @@ public class PlainDehyphenateWordsPipe implements DehyphenateWordsPipe {
 
   @Override
   public Document execute(Document pdf) throws PdfActException {
+    this.trace = pdf.getTracer(TraceChannel.WORD_DEHYPHENATION);
+
     countWords(pdf);
     dehyphenateWordsInParagraphs(pdf);
     return pdf;
@@ -209,7 +213,7 @@ public class PlainDehyphenateWordsPipe implements DehyphenateWordsPipe {
       }
 
       Iterator<Word> wordItr = words.iterator();
-      ElementList<Word> dehyphWords = new ElementList<>(words.size());
+      ElementList<Word> dehyphWords = new PlainElementList<>(words.size());
 
       while (wordItr.hasNext()) {
         Word word = wordItr.next();
@@ -235,7 +239,7 @@ public class PlainDehyphenateWordsPipe implements DehyphenateWordsPipe {
       }
 
       paragraph.setWords(dehyphWords);
-      paragraph.setText(PdfActUtils.join(dehyphWords, " "));
+      paragraph.setTextView(TextView.join(dehyphWords, ' '));
     }
   }
 
@@ -277,7 +281,7 @@ public class PlainDehyphenateWordsPipe implements DehyphenateWordsPipe {
         }
 
         Iterator<Word> wordItr = words.iterator();
-        ElementList<Word> dehyphWords = new ElementList<>(words.size());
+        ElementList<Word> dehyphWords = new PlainElementList<>(words.size());
 
         while (wordItr.hasNext()) {
           Word word = wordItr.next();
@@ -301,7 +305,7 @@ public class PlainDehyphenateWordsPipe implements DehyphenateWordsPipe {
             dehyphWords.add(word);
           }
         }
-        block.setText(PdfActUtils.join(dehyphWords, " "));
+        block.setTextView(TextView.join(dehyphWords, ' '));
       }
     }
   }
@@ -327,7 +331,7 @@ public class PlainDehyphenateWordsPipe implements DehyphenateWordsPipe {
 
     ElementList<Character> chars1 = word1.getCharacters();
     ElementList<Character> chars2 = word2.getCharacters();
-    ElementList<Character> mergedChars = new ElementList<>();
+    ElementList<Character> mergedChars = new PlainElementList<>();
 
     boolean isHyphenMandatory = isHyphenMandatory(word1, word2);
     if (isHyphenMandatory) {
@@ -366,8 +370,10 @@ public class PlainDehyphenateWordsPipe implements DehyphenateWordsPipe {
     String word1Str = this.wordNormalizer.normalize(word1);
     String word2Str = this.wordNormalizer.normalize(word2);
 
-    log.debug("-------------------------------------------");
-    log.debug("Merging words \"%s\" and \"%s\" ...", word1Str, word2Str);
+    if (this.trace.isEnabled()) {
+      this.trace.trace("-------------------------------------------");
+      this.trace.trace("Merging words \"%s\" and \"%s\" ...", word1Str, word2Str);
+    }
 
     // TODO: Use the word normalizer.
     String prefix = word1Str.replaceAll("[-]$", "");
@@ -378,33 +384,38 @@ public class PlainDehyphenateWordsPipe implements DehyphenateWordsPipe {
     int compoundWordFreq = this.compoundWordsIndex.getFrequency(withHyphen);
     int compoundWordPrefixFreq = this.prefixesIndex.getFrequency(prefix);
 
-    log.debug("... frequency of combined word without hyphen: %d", singleWordFreq);
-    log.debug("... frequency of combined word with hyphen:    %d", compoundWordFreq);
-    log.debug("... frequency of prefix with hyphen:           %d", compoundWordPrefixFreq);
+    if (this.trace.isEnabled()) {
+      this.trace.trace("... frequency of combined word without hyphen: %d", singleWordFreq);
+      this.trace.trace("... frequency of combined word with hyphen:    %d", compoundWordFreq);
+      this.trace.trace("... frequency of prefix with hyphen:           %d",
+          compoundWordPrefixFreq);
+    }
 
     if (compoundWordFreq != singleWordFreq) {
       if (compoundWordFreq > singleWordFreq) {
-        log.debug("... hyphen is mandatory:                       true");
-        log.debug("... reason:                                    freq(\"%s\") > freq(\"%s\")",
-            withHyphen, withoutHyphen);
+        this.trace.trace("... hyphen is mandatory:                       true");
+        this.trace.trace("... reason:                                    "
+            + "freq(\"%s\") > freq(\"%s\")", withHyphen, withoutHyphen);
         return true;
       } else {
-        log.debug("... hyphen is mandatory:                       false");
-        log.debug("... reason:                                    freq(\"%s\") < freq(\"%s\")",
-            withHyphen, withoutHyphen);
+        this.trace.trace("... hyphen is mandatory:                       false");
+        this.trace.trace("... reason:                                    "
+            + "freq(\"%s\") < freq(\"%s\")", withHyphen, withoutHyphen);
         return false;
       }
     }
 
     if (compoundWordPrefixFreq > 0) {
-      log.debug("... hyphen is mandatory:                       true");
-      log.debug("... reason:                                    freq(\"%s\") == freq(\"%s\") and "
-         + "freq(\"%s\") > 0.", withHyphen, withoutHyphen, prefix);
+      this.trace.trace("... hyphen is mandatory:                       true");
+      this.trace.trace("... reason:                                    "
+          + "freq(\"%s\") == freq(\"%s\") and freq(\"%s\") > 0.",
+          withHyphen, withoutHyphen, prefix);
       return true;
     } else {
-      log.debug("... hyphen is mandatory:                       false");
-      log.debug("... reason:                                    freq(\"%s\") == freq(\"%s\") and "
-        + "freq(\"%s\") < 0.", withHyphen, withoutHyphen, prefix);
+      this.trace.trace("... hyphen is mandatory:                       false");
+      this.trace.trace("... reason:                                    "
+          + "freq(\"%s\") == freq(\"%s\") and freq(\"%s\") < 0.",
+          withHyphen, withoutHyphen, prefix);
       return false;
     }
   }
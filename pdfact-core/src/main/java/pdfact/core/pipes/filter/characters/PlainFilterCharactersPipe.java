@@ -8,6 +8,7 @@ import pdfact.core.model.Document;
 import pdfact.core.model.Page;
 import pdfact.core.util.exception.PdfActException;
 import pdfact.core.util.list.ElementList;
+import pdfact.core.util.list.PlainElementList;
 
 /**
  * A plain implementation of {@link FilterCharactersPipe}.
@@ -51,7 +52,7 @@ public class PlainFilterCharactersPipe implements FilterCharactersPipe {
       for (Page page : pages) {
         ElementList<Character> before = page.getCharacters();
         // Create a new list of characters which should not be filtered.
-        ElementList<Character> after = new ElementList<>(before.size());
+        ElementList<Character> after = new PlainElementList<>(before.size());
         for (Character character : before) {
           this.numProcessedCharacters++;
 
@@ -8,6 +8,7 @@ import pdfact.core.model.Figure;
 import pdfact.core.model.Page;
 import pdfact.core.util.exception.PdfActException;
 import pdfact.core.util.list.ElementList;
+import pdfact.core.util.list.PlainElementList;
 
 /**
  * A plain implementation of {@link FilterFiguresPipe}.
@@ -61,7 +62,7 @@ public class PlainFilterFiguresPipe implements FilterFiguresPipe {
       for (Page page : pages) {
         ElementList<Figure> before = page.getFigures();
         // Create a new list of figures which should not be filtered.
-        ElementList<Figure> after = new ElementList<>(before.size());
+        ElementList<Figure> after = new PlainElementList<>(before.size());
         for (Figure figure : before) {
           this.numProcessedFigures++;
 
@@ -8,6 +8,7 @@ import pdfact.core.model.Page;
 import pdfact.core.model.Shape;
 import pdfact.core.util.exception.PdfActException;
 import pdfact.core.util.list.ElementList;
+import pdfact.core.util.list.PlainElementList;
 
 /**
  * A plain implementation of {@link FilterShapesPipe}.
@@ -62,7 +63,7 @@ public class PlainFilterShapesPipe implements FilterShapesPipe {
       for (Page page : pages) {
         ElementList<Shape> before = page.getShapes();
         // Create a new list of shapes which should not be filtered.
-        ElementList<Shape> after = new ElementList<>(before.size());
+        ElementList<Shape> after = new PlainElementList<>(before.size());
         for (Shape shape : before) {
           this.numProcessedShapes++;
 
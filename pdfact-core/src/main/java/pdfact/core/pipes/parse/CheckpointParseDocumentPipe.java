@@ -0,0 +1,34 @@
+package pdfact.core.pipes.parse;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pdfact.core.model.Document;
+import pdfact.core.util.checkpoint.DocumentCheckpointReader;
+import pdfact.core.util.exception.PdfActException;
+
+/**
+ * An implementation of {@link ParseDocumentPipe} that loads the parsed document from a checkpoint
+ * (see {@link pdfact.core.util.checkpoint.DocumentCheckpoint}) instead of parsing a PDF file.
+ * The path of the document must point to the checkpoint.
+ * 
+ * @author Claudius Korzen
+ */
+public class CheckpointParseDocumentPipe implements ParseDocumentPipe {
+  /**
+   * The logger.
+   */
+  protected static Logger log = LogManager.getLogger(CheckpointParseDocumentPipe.class);
+
+  @Override
+  public Document execute(Document doc) throws PdfActException {
+    log.debug("Start of pipe: " + getClass().getSimpleName() + ".");
+
+    log.debug("Process: Loading the checkpoint " + doc.getPath() + ".");
+    long start = System.currentTimeMillis();
+    new DocumentCheckpointReader().read(doc);
+    log.debug("Loading the checkpoint done in " + (System.currentTimeMillis() - start) + "ms.");
+
+    log.debug("End of pipe: " + getClass().getSimpleName() + ".");
+    return doc;
+  }
+}
@@ -2,6 +2,7 @@ package pdfact.core.pipes.parse;
 
 import pdfact.core.model.Document;
 import pdfact.core.pipes.parse.stream.pdfbox.PdfBoxPdfStreamsParser;
+import pdfact.core.util.cache.PageCache;
 import pdfact.core.util.exception.PdfActException;
 
 /**
@@ -10,6 +11,32 @@ import pdfact.core.util.exception.PdfActException;
  * @author Claudius Korzen
  */
 public class PlainParseDocumentPipe implements ParseDocumentPipe {
+  /**
+   * The cache of already parsed pages (null if pages should not be cached).
+   */
+  protected PageCache pageCache;
+
+  // ==============================================================================================
+
+  /**
+   * Creates a new pipe that parses documents without a page cache.
+   */
+  public PlainParseDocumentPipe() {
+    this(null);
+  }
+
+  /**
+   * Creates a new pipe that parses documents with the given page cache.
+   * 
+   * @param pageCache
+   *        The cache of already parsed pages (null if pages should not be cached).
+   */
+  public PlainParseDocumentPipe(PageCache pageCache) {
+    this.pageCache = pageCache;
+  }
+
+  // ==============================================================================================
+
   @Override
   public Document execute(Document doc) throws PdfActException {
     parseDocument(doc);
@@ -26,6 +53,29 @@ public class PlainParseDocumentPipe implements ParseDocumentPipe {
    *         If something went wrong while parsing the document.
    */
   protected void parseDocument(Document doc) throws PdfActException {
-    new PdfBoxPdfStreamsParser().parse(doc);
+    PdfBoxPdfStreamsParser parser = new PdfBoxPdfStreamsParser();
+    parser.setPageCache(this.pageCache);
+    parser.parse(doc);
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the cache of already parsed pages.
+   * 
+   * @return The page cache (null if pages are not cached).
+   */
+  public PageCache getPageCache() {
+    return this.pageCache;
+  }
+
+  /**
+   * Sets the cache of already parsed pages.
+   * 
+   * @param pageCache
+   *        The page cache (null if pages should not be cached).
+   */
+  public void setPageCache(PageCache pageCache) {
+    this.pageCache = pageCache;
   }
 }
@@ -3,8 +3,14 @@ package pdfact.core.pipes.parse.stream.pdfbox;
 import static pdfact.core.PdfActCoreSettings.FLOATING_NUMBER_PRECISION;
 import java.awt.geom.GeneralPath;
 import java.awt.geom.Point2D;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -26,11 +32,14 @@ import org.apache.pdfbox.util.Matrix;
 import pdfact.core.model.Character;
 import pdfact.core.model.Document;
 import pdfact.core.model.Figure;
+import pdfact.core.model.Font;
 import pdfact.core.model.Page;
 import pdfact.core.model.Point;
 import pdfact.core.model.Rectangle;
 import pdfact.core.model.Shape;
 import pdfact.core.pipes.parse.stream.PdfStreamsParser;
+import pdfact.core.pipes.parse.stream.pdfbox.convert.PDFontConverter;
+import pdfact.core.pipes.parse.stream.pdfbox.utils.PdfBoxPageHasher;
 import pdfact.core.pipes.parse.stream.pdfbox.operators.OperatorProcessor;
 import pdfact.core.pipes.parse.stream.pdfbox.operators.color.SetNonStrokingColor;
 import pdfact.core.pipes.parse.stream.pdfbox.operators.color.SetNonStrokingColorN;
@@ -84,9 +93,15 @@ import pdfact.core.pipes.parse.stream.pdfbox.operators.text.SetWordSpacing;
 import pdfact.core.pipes.parse.stream.pdfbox.operators.text.ShowText;
 import pdfact.core.pipes.parse.stream.pdfbox.operators.text.ShowTextWithIndividualGlyphPositioning;
 import pdfact.core.util.PdfActUtils;
+import pdfact.core.util.cache.PageCache;
+import pdfact.core.util.checkpoint.DocumentCheckpointReader;
+import pdfact.core.util.checkpoint.DocumentCheckpointWriter;
+import pdfact.core.util.color.ColorManager;
 import pdfact.core.util.exception.PdfActException;
 import pdfact.core.util.exception.PdfActParseException;
 import pdfact.core.util.statistician.CharacterStatistician;
+import pdfact.core.util.trace.TraceChannel;
+import pdfact.core.util.trace.Tracer;
 
 // TODO: Refactor all the PDFBox utils (remove unnecessary stuff).
 
@@ -193,6 +208,16 @@ public class PdfBoxPdfStreamsParser implements PdfStreamsParser {
    */
   protected int numShapes;
 
+  /**
+   * The cache of already parsed pages (null if pages should not be cached).
+   */
+  protected PageCache pageCache;
+
+  /**
+   * The hasher to compute the keys of the pages in the page cache.
+   */
+  protected PdfBoxPageHasher pageHasher;
+
   /**
    * Creates a new stream engine.
    */
@@ -272,14 +297,24 @@ public class PdfBoxPdfStreamsParser implements PdfStreamsParser {
   public void parse(Document pdf) throws PdfActException {
     try (PDDocument doc = PDDocument.load(pdf.getFile())) {
       handlePdfFileStart(pdf);
+      Tracer trace = pdf.getTracer(TraceChannel.PDF_PARSING);
+      // Don't use the page cache when tracing, since cached pages wouldn't be traced.
+      boolean isTracing = trace.isEnabled()
+          || pdf.getTracer(TraceChannel.CHAR_EXTRACTION).isEnabled();
+      this.pageHasher = this.pageCache != null && !isTracing ? new PdfBoxPageHasher() : null;
       for (int i = 0; i < doc.getPages().getCount(); i++) {
-        log.debug("==================== Page %d ====================", i + 1);
+        if (trace.isEnabled()) {
+          trace.trace("==================== Page %d ====================", i + 1);
+        }
         processPage(pdf, doc.getPages().get(i), i + 1);
       }
       handlePdfFileEnd(pdf);
     } catch (IOException e) {
       throw new PdfActParseException("Couldn't parse the PDF.", e);
     }
+    if (this.pageHasher != null) {
+      log.debug("%s", this.pageCache);
+    }
   }
 
   /**
@@ -291,6 +326,19 @@ public class PdfBoxPdfStreamsParser implements PdfStreamsParser {
    * @throws IOException If something went wrong while parsing the page.
    */
   protected void processPage(Document pdf, PDPage page, int pageNum) throws IOException {
+    // Load the page from the page cache, if possible.
+    String key = null;
+    if (this.pageHasher != null) {
+      key = this.pageHasher.hash(page);
+      byte[] entry = this.pageCache.get(key);
+      if (entry != null && loadPage(pdf, entry, pageNum)) {
+        return;
+      }
+    }
+    ShowText showText = getShowTextProcessor();
+    int firstRank = showText.getSequenceNumber();
+    int firstFont = showText.getFontConverter().getRegisteredFonts().size();
+
     this.page = page;
     this.graphicsStack.clear();
     this.graphicsStack.push(new PDGraphicsState(page.getCropBox()));
@@ -321,6 +369,161 @@ public class PdfBoxPdfStreamsParser implements PdfStreamsParser {
     handlePdfPageStart(pdf, pdfPage);
     processStream(pdf, pdfPage, page);
     handlePdfPageEnd(pdf, pdfPage);
+
+    // Add the page to the page cache.
+    if (key != null) {
+      this.pageCache.put(key, writePage(pdfPage, firstRank, firstFont));
+    }
+  }
+
+  /**
+   * Writes the given parsed page into an entry of the page cache. The entry consists of the
+   * extraction rank of the first character of the page, the number of extraction ranks assigned on
+   * the page, the fonts registered on parsing the page (in the order of their registration, so
+   * that the fonts get the same ids when the page is loaded from the cache) and a checkpoint of
+   * the page (see {@link DocumentCheckpointWriter}).
+   * 
+   * @param page      The parsed page.
+   * @param firstRank The extraction rank of the first character of the page.
+   * @param firstFont The index of the first font registered on parsing the page.
+   * 
+   * @return The entry.
+   * 
+   * @throws IOException If writing the entry failed.
+   */
+  protected byte[] writePage(Page page, int firstRank, int firstFont) throws IOException {
+    ShowText showText = getShowTextProcessor();
+    List<Font> fonts = showText.getFontConverter().getRegisteredFonts();
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.writeInt(firstRank);
+    out.writeInt(showText.getSequenceNumber() - firstRank);
+    out.writeInt(fonts.size() - firstFont);
+    for (Font font : fonts.subList(firstFont, fonts.size())) {
+      writeNullableString(out, font.getNormalizedName());
+      writeNullableString(out, font.getBaseName());
+      writeNullableString(out, font.getFontFamilyName());
+      out.writeBoolean(font.isBold());
+      out.writeBoolean(font.isItalic());
+      out.writeBoolean(font.isType3Font());
+    }
+
+    Document checkpoint = new Document((Path) null);
+    checkpoint.setPages(Collections.singletonList(page));
+    new DocumentCheckpointWriter().write(checkpoint, out);
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Loads a page from the given entry of the page cache (see
+   * {@link #writePage(Page, int, int)}) and adds it to the given document, as if the page was
+   * parsed. The fonts, font faces and colors of the page are translated to the fonts, font faces
+   * and colors of the document and the extraction ranks of the characters are shifted to the
+   * ranks of the document.
+   * 
+   * @param pdf     The PDF document to which the page belongs to.
+   * @param entry   The entry of the page cache.
+   * @param pageNum The number of the page in the PDF document.
+   * 
+   * @return True, if the page was loaded; false if the entry couldn't be read.
+   */
+  protected boolean loadPage(Document pdf, byte[] entry, int pageNum) {
+    ShowText showText = getShowTextProcessor();
+    PDFontConverter fontConverter = showText.getFontConverter();
+
+    Page pdfPage;
+    int firstRank;
+    int numRanks;
+    try {
+      DataInputStream in = new DataInputStream(new ByteArrayInputStream(entry));
+      firstRank = in.readInt();
+      numRanks = in.readInt();
+      // Register the fonts in the same order as on parsing the page.
+      int numFonts = in.readInt();
+      for (int i = 0; i < numFonts; i++) {
+        Font font = new Font();
+        font.setNormalizedName(readNullableString(in));
+        font.setBasename(readNullableString(in));
+        font.setFontFamilyName(readNullableString(in));
+        font.setIsBold(in.readBoolean());
+        font.setIsItalic(in.readBoolean());
+        font.setIsType3Font(in.readBoolean());
+        fontConverter.register(font);
+      }
+
+      Document checkpoint = new Document((Path) null);
+      new DocumentCheckpointReader().read(checkpoint, in);
+      pdfPage = checkpoint.getPages().get(0);
+    } catch (IOException | PdfActException e) {
+      log.warn("Couldn't load page %d from the page cache: %s", pageNum, e.getMessage());
+      return false;
+    }
+    pdfPage.setPageNumber(pageNum);
+
+    handlePdfPageStart(pdf, pdfPage);
+    int rankOffset = showText.getSequenceNumber() - firstRank;
+    for (Character character : pdfPage.getCharacters()) {
+      character.setExtractionRank(character.getExtractionRank() + rankOffset);
+      if (character.getFontFace() != null) {
+        Font font = fontConverter.register(character.getFontFace().getFont());
+        float fontSize = character.getFontFace().getFontSize();
+        character.setFontFace(showText.getFontFaceConverter().convert(font, fontSize));
+      }
+      if (character.getColor() != null) {
+        character.setColor(ColorManager.getColor(character.getColor().getRGB()));
+      }
+      this.numCharacters++;
+    }
+    for (Shape shape : pdfPage.getShapes()) {
+      if (shape.getColor() != null) {
+        shape.setColor(ColorManager.getColor(shape.getColor().getRGB()));
+      }
+      this.numShapes++;
+    }
+    this.numFigures += pdfPage.getFigures().size();
+    showText.setSequenceNumber(showText.getSequenceNumber() + numRanks);
+    handlePdfPageEnd(pdf, pdfPage);
+    return true;
+  }
+
+  /**
+   * Writes the given string, which may be null.
+   * 
+   * @param out    The output to write to.
+   * @param string The string (may be null).
+   * 
+   * @throws IOException If writing failed.
+   */
+  protected static void writeNullableString(DataOutputStream out, String string)
+      throws IOException {
+    out.writeBoolean(string != null);
+    if (string != null) {
+      out.writeUTF(string);
+    }
+  }
+
+  /**
+   * Reads a string, which may be null.
+   * 
+   * @param in The input to read from.
+   * 
+   * @return The string (may be null).
+   * 
+   * @throws IOException If reading failed.
+   */
+  protected static String readNullableString(DataInputStream in) throws IOException {
+    return in.readBoolean() ? in.readUTF() : null;
+  }
+
+  /**
+   * Returns the processor of the operation "Tj", which registers the fonts and assigns the
+   * extraction ranks of the characters.
+   * 
+   * @return The processor of the operation "Tj".
+   */
+  protected ShowText getShowTextProcessor() {
+    return (ShowText) this.operatorProcessors.get("Tj");
   }
 
   /**
@@ -446,20 +649,25 @@ public class PdfBoxPdfStreamsParser implements PdfStreamsParser {
           throws IOException {
     OperatorProcessor processor = this.operatorProcessors.get(op.getName());
 
-    log.debug("-----------------------------------------------------");
-    log.debug("Operator: %s; Args: %s", op.getName(), args);
-    log.debug("... page: %d", page.getPageNumber());
+    Tracer trace = pdf.getTracer(TraceChannel.PDF_PARSING);
+    if (trace.isEnabled()) {
+      trace.trace("-----------------------------------------------------");
+      trace.trace("Operator: %s; Args: %s", op.getName(), args);
+      trace.trace("... page: %d", page.getPageNumber());
+    }
 
     if (processor != null) {
-      log.debug("... handled by %s.class.", processor.getClass().getSimpleName());
+      if (trace.isEnabled()) {
+        trace.trace("... handled by %s.class.", processor.getClass().getSimpleName());
+      }
       try {
         processor.setStreamEngine(this);
         processor.process(pdf, page, op, args);
       } catch (IOException e) {
         log.warn("... error on handling the operator.", e);
       }
-    } else {
-      log.debug("... not handled.");
+    } else if (trace.isEnabled()) {
+      trace.trace("... not handled.");
     }
   }
 
@@ -809,6 +1017,27 @@ public class PdfBoxPdfStreamsParser implements PdfStreamsParser {
     this.clippingWindingRule = rule;
   }
 
+  // ==============================================================================================
+
+  /**
+   * Returns the cache of already parsed pages.
+   * 
+   * @return The page cache (null if pages are not cached).
+   */
+  public PageCache getPageCache() {
+    return this.pageCache;
+  }
+
+  /**
+   * Sets the cache of already parsed pages. Pages with the same content streams and resources as
+   * a page in the cache are not parsed again, but loaded from the cache.
+   * 
+   * @param pageCache The page cache (null if pages should not be cached).
+   */
+  public void setPageCache(PageCache pageCache) {
+    this.pageCache = pageCache;
+  }
+
   // ==============================================================================================
   // Handler methods.
 
@@ -7,7 +7,9 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -31,6 +33,12 @@ public class PDFontConverter {
    */
   protected Map<String, Font> knownFonts;
 
+  /**
+   * The fonts registered by this converter (not including the well-known fonts read from file), in
+   * the order of their registration.
+   */
+  protected List<Font> registeredFonts = new ArrayList<>();
+
   /**
    * Creates a new font converter.
    */
@@ -71,11 +79,61 @@ public class PDFontConverter {
 
     // Add the new font to the map of known fonts.
     this.knownFonts.put(newFont.getNormalizedName(), newFont);
+    this.registeredFonts.add(newFont);
     log.debug("A new font was registered: " + newFont);
 
     return newFont;
   }
 
+  /**
+   * Returns the known font with the normalized name of the given font, or registers a copy of the
+   * given font (with a new id) if there is no such font. This method is needed to translate the
+   * fonts of pages that were not parsed by this converter, but loaded from a cache.
+   * 
+   * @param font
+   *        The font to translate.
+   * 
+   * @return The translated font.
+   */
+  public Font register(Font font) {
+    if (font == null) {
+      return null;
+    }
+
+    // Check if the font is already known.
+    Font knownFont = this.knownFonts.get(font.getNormalizedName());
+    if (knownFont != null) {
+      return knownFont;
+    }
+
+    // The font is not known. Create a new font.
+    Font newFont = new Font();
+    newFont.setId("font-" + this.knownFonts.size());
+    newFont.setNormalizedName(font.getNormalizedName());
+    newFont.setBasename(font.getBaseName());
+    newFont.setFontFamilyName(font.getFontFamilyName());
+    newFont.setIsBold(font.isBold());
+    newFont.setIsItalic(font.isItalic());
+    newFont.setIsType3Font(font.isType3Font());
+
+    // Add the new font to the map of known fonts.
+    this.knownFonts.put(newFont.getNormalizedName(), newFont);
+    this.registeredFonts.add(newFont);
+    log.debug("A new font was registered: " + newFont);
+
+    return newFont;
+  }
+
+  /**
+   * Returns the fonts registered by this converter (not including the well-known fonts read from
+   * file), in the order of their registration.
+   * 
+   * @return The registered fonts.
+   */
+  public List<Font> getRegisteredFonts() {
+    return this.registeredFonts;
+  }
+
   // ==============================================================================================
 
   /**
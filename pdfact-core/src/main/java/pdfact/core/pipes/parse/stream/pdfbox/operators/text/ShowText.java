@@ -49,6 +49,8 @@ import pdfact.core.pipes.parse.stream.pdfbox.utils.PdfBoxAFMUtils;
 import pdfact.core.pipes.parse.stream.pdfbox.utils.PdfBoxGlyphUtils;
 import pdfact.core.util.PdfActUtils;
 import pdfact.core.util.color.ColorManager;
+import pdfact.core.util.trace.TraceChannel;
+import pdfact.core.util.trace.Tracer;
 
 /**
  * Tj: Show a text string.
@@ -323,43 +325,93 @@ public class ShowText extends OperatorProcessor {
     character.setColor(color);
     character.setPosition(position);
 
-    log.debug("---------------------------------------------");
-    log.debug("Extracted char:   \"%s\"", character.getText());
+    // Obtain the tracer once per glyph; all debug output below is skipped if it is disabled.
+    Tracer trace = pdf.getTracer(TraceChannel.CHAR_EXTRACTION);
+
+    if (trace.isEnabled()) {
+      trace.trace("---------------------------------------------");
+      trace.trace("Extracted char:   \"%s\"", character.getText());
+    }
 
     // Check if we have to normalize the character.
     String normalized = normalizeCharacter(unicode);
     if (normalized != null) {
-      log.debug("... normalized to:   %s", normalized);        
+      if (trace.isEnabled()) {
+        trace.trace("... normalized to:   %s", normalized);
+      }
       character.setText(normalized);
     }
-      
-    log.debug("... page:         %d", character.getPosition().getPageNumber());
-    float minX = character.getPosition().getRectangle().getMinX();
-    float minY = character.getPosition().getRectangle().getMinY();
-    float maxX = character.getPosition().getRectangle().getMaxX();
-    float maxY = character.getPosition().getRectangle().getMaxY();
-    log.debug("... bounding box: [%.1f, %.1f, %.1f, %.1f]", minX, minY, maxX, maxY);
-    log.debug("... font:         %s", character.getFontFace().getFont().getBaseName());
-    log.debug("... fontsize:     %.1fpt", character.getFontFace().getFontSize());
-    log.debug("... is bold:      %s", character.getFontFace().getFont().isBold());
-    log.debug("... is italic:    %s", character.getFontFace().getFont().isItalic());
-    log.debug("... is type3:     %s", character.getFontFace().getFont().isType3Font());
-    log.debug("... RGB color:    %s", Arrays.toString(character.getColor().getRGB()));
-    
+
+    if (trace.isEnabled()) {
+      trace.trace("... page:         %d", character.getPosition().getPageNumber());
+      float minX = character.getPosition().getRectangle().getMinX();
+      float minY = character.getPosition().getRectangle().getMinY();
+      float maxX = character.getPosition().getRectangle().getMaxX();
+      float maxY = character.getPosition().getRectangle().getMaxY();
+      trace.trace("... bounding box: [%.1f, %.1f, %.1f, %.1f]", minX, minY, maxX, maxY);
+      trace.trace("... font:         %s", character.getFontFace().getFont().getBaseName());
+      trace.trace("... fontsize:     %.1fpt", character.getFontFace().getFontSize());
+      trace.trace("... is bold:      %s", character.getFontFace().getFont().isBold());
+      trace.trace("... is italic:    %s", character.getFontFace().getFont().isItalic());
+      trace.trace("... is type3:     %s", character.getFontFace().getFont().isType3Font());
+      trace.trace("... RGB color:    %s", Arrays.toString(character.getColor().getRGB()));
+    }
+
     // Check if we have to ignore the character.
-    if (ignoreCharacter(character)) {
+    if (ignoreCharacter(character, trace)) {
       return;
     }
 
     // Set the extraction rank only for non-ignored characters.
     character.setExtractionRank(this.sequenceNumber++);
-    log.debug("... rank:         %s", character.getExtractionRank());    
+    if (trace.isEnabled()) {
+      trace.trace("... rank:         %s", character.getExtractionRank());
+    }
 
     this.engine.handlePdfCharacter(pdf, page, character);
   }
 
   // ==============================================================================================
 
+  /**
+   * Returns the converter to translate PDFont objects to {@link Font} objects.
+   * 
+   * @return The font converter.
+   */
+  public PDFontConverter getFontConverter() {
+    return this.fontTranslator;
+  }
+
+  /**
+   * Returns the converter to create instances of {@link FontFace}.
+   * 
+   * @return The font face converter.
+   */
+  public PDFontFaceConverter getFontFaceConverter() {
+    return this.fontFaceConverter;
+  }
+
+  /**
+   * Returns the number of already processed characters (the extraction rank of the next
+   * character).
+   * 
+   * @return The number of already processed characters.
+   */
+  public int getSequenceNumber() {
+    return this.sequenceNumber;
+  }
+
+  /**
+   * Sets the number of already processed characters (the extraction rank of the next character).
+   * 
+   * @param sequenceNumber The number of already processed characters.
+   */
+  public void setSequenceNumber(int sequenceNumber) {
+    this.sequenceNumber = sequenceNumber;
+  }
+
+  // ==============================================================================================
+
   /**
    * Computes the bounding box for the given glyph in any font.
    * 
@@ -564,30 +616,33 @@ public class ShowText extends OperatorProcessor {
 
   /**
    * Returns true if the given character should be ignored on further processings; false otherwise.
+   * 
+   * @param character The character to check.
+   * @param trace     The tracer to which the reason of the decision should be written.
    */
-  protected boolean ignoreCharacter(Character character) {
+  protected boolean ignoreCharacter(Character character, Tracer trace) {
     // Ignore the character, if it is null.
     if (character == null) {
-      log.debug("... ignore:       true (because it is null)");
+      trace.trace("... ignore:       true (because it is null)");
       return true;
     }
 
     // Ignore the character, if the width of its bounding box is <= 0.
     if (character.getPosition().getRectangle().getWidth() <= 0) {
-      log.debug("... ignore:       true (because the width of the bounding box is <= 0");
+      trace.trace("... ignore:       true (because the width of the bounding box is <= 0");
       return true;
     }
 
     // Ignore the character, if the height of its bounding box is <= 0.
     if (character.getPosition().getRectangle().getHeight() <= 0) {
-      log.debug("... ignore:       true (because the height of the bounding box is <= 0");
+      trace.trace("... ignore:       true (because the height of the bounding box is <= 0");
       return true;
     }
 
     // Ignore the the character, if it doesn't contain text.
     String text = character.getText();
     if (text == null) {
-      log.debug("... ignore:       true (because it doesn't contain text)");
+      trace.trace("... ignore:       true (because it doesn't contain text)");
       return true;
     }
 
@@ -597,11 +652,11 @@ public class ShowText extends OperatorProcessor {
     // https://stackoverflow.com/questions/28295504/how-to-trim-no-break-space-in-java.
     String trimmed = text.replaceAll("(^\\h*)|(\\h*$)", "");
     if (trimmed.isEmpty()) {
-      log.debug("... ignore:       true (because it doesn't contain text)");
+      trace.trace("... ignore:       true (because it doesn't contain text)");
       return true;
     }
 
-    log.debug("... ignore:       false");
+    trace.trace("... ignore:       false");
     return false;
   }
 
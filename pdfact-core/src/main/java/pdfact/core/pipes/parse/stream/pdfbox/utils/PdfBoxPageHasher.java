@@ -0,0 +1,240 @@
+package pdfact.core.pipes.parse.stream.pdfbox.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSBoolean;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSFloat;
+import org.apache.pdfbox.cos.COSInteger;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSObject;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.cos.COSString;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+
+/**
+ * A hasher that computes a hash of everything that affects the parsing of a page: the content
+ * streams of the page, its resources (fonts, images, forms, color spaces, etc., including all
+ * objects referenced by them) and its boxes and rotation. Two pages with the same hash are parsed
+ * to the same characters, figures and shapes, even if they belong to different documents.
+ *
+ * <p>
+ * The hashes of streams are memorized per hasher, so that the resources shared by the pages of a
+ * document (in particular, embedded font programs) are hashed only once. Hence, a hasher should be
+ * used for a single document only.
+ *
+ * @author Claudius Korzen
+ */
+public class PdfBoxPageHasher {
+  /**
+   * The hashes of the already hashed streams.
+   */
+  protected Map<COSStream, byte[]> streamHashes = new IdentityHashMap<>();
+
+  /**
+   * The buffer to read streams.
+   */
+  protected byte[] buffer = new byte[64 * 1024];
+
+  // ==============================================================================================
+
+  /**
+   * Computes the hash of the given page.
+   *
+   * @param page The page to hash.
+   *
+   * @return The hash, as a hex string.
+   *
+   * @throws IOException If a stream of the page couldn't be read.
+   */
+  public String hash(PDPage page) throws IOException {
+    MessageDigest digest = newDigest();
+    hashRectangle(digest, page.getMediaBox());
+    hashRectangle(digest, page.getCropBox());
+    hashRectangle(digest, page.getTrimBox());
+    hashInt(digest, page.getRotation());
+    hash(digest, page.getCOSObject().getDictionaryObject(COSName.CONTENTS),
+        new IdentityHashMap<>());
+    hash(digest, page.getResources() != null ? page.getResources().getCOSObject() : null,
+        new IdentityHashMap<>());
+
+    StringBuilder sb = new StringBuilder();
+    for (byte b : digest.digest()) {
+      sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+      sb.append(Character.forDigit(b & 0xF, 16));
+    }
+    return sb.toString();
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Adds the given object (and all objects referenced by it) to the given digest.
+   *
+   * @param digest  The digest.
+   * @param object  The object to hash.
+   * @param visited The already visited containers, with their visiting indexes (to hash cyclic
+   *                references without running into endless loops).
+   *
+   * @throws IOException If a stream couldn't be read.
+   */
+  protected void hash(MessageDigest digest, COSBase object, Map<COSBase, Integer> visited)
+      throws IOException {
+    if (object instanceof COSObject) {
+      object = ((COSObject) object).getObject();
+    }
+
+    if (object == null) {
+      digest.update((byte) 'n');
+    } else if (object instanceof COSBoolean) {
+      digest.update((byte) (((COSBoolean) object).getValue() ? 't' : 'f'));
+    } else if (object instanceof COSInteger) {
+      digest.update((byte) 'i');
+      hashLong(digest, ((COSInteger) object).longValue());
+    } else if (object instanceof COSFloat) {
+      digest.update((byte) 'r');
+      hashInt(digest, Float.floatToIntBits(((COSFloat) object).floatValue()));
+    } else if (object instanceof COSName) {
+      digest.update((byte) '/');
+      hashBytes(digest, ((COSName) object).getName().getBytes(StandardCharsets.UTF_8));
+    } else if (object instanceof COSString) {
+      digest.update((byte) 's');
+      hashBytes(digest, ((COSString) object).getBytes());
+    } else if (visited.containsKey(object)) {
+      // The container was already hashed; hash a reference to it.
+      digest.update((byte) '@');
+      hashInt(digest, visited.get(object));
+    } else if (object instanceof COSArray) {
+      visited.put(object, visited.size());
+      COSArray array = (COSArray) object;
+      digest.update((byte) '[');
+      hashInt(digest, array.size());
+      for (int i = 0; i < array.size(); i++) {
+        hash(digest, array.get(i), visited);
+      }
+    } else if (object instanceof COSDictionary) {
+      visited.put(object, visited.size());
+      COSDictionary dict = (COSDictionary) object;
+      // Don't follow the references to the parent objects (e.g., to the page tree).
+      List<COSName> keys = new ArrayList<>(dict.keySet());
+      keys.remove(COSName.PARENT);
+      keys.sort((k1, k2) -> k1.getName().compareTo(k2.getName()));
+      digest.update((byte) '<');
+      hashInt(digest, keys.size());
+      for (COSName key : keys) {
+        hash(digest, key, visited);
+        hash(digest, dict.getItem(key), visited);
+      }
+      if (object instanceof COSStream) {
+        digest.update((byte) '~');
+        digest.update(hashStream((COSStream) object));
+      }
+    } else {
+      digest.update((byte) '?');
+      hashBytes(digest, object.getClass().getName().getBytes(StandardCharsets.UTF_8));
+    }
+  }
+
+  /**
+   * Computes the hash of the (raw, not decoded) data of the given stream.
+   *
+   * @param stream The stream.
+   *
+   * @return The hash.
+   *
+   * @throws IOException If the stream couldn't be read.
+   */
+  protected byte[] hashStream(COSStream stream) throws IOException {
+    byte[] hash = this.streamHashes.get(stream);
+    if (hash == null) {
+      MessageDigest digest = newDigest();
+      try (InputStream is = stream.createRawInputStream()) {
+        int n;
+        while ((n = is.read(this.buffer)) > 0) {
+          digest.update(this.buffer, 0, n);
+        }
+      }
+      hash = digest.digest();
+      this.streamHashes.put(stream, hash);
+    }
+    return hash;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Adds the given rectangle to the given digest.
+   *
+   * @param digest The digest.
+   * @param rect   The rectangle (may be null).
+   */
+  protected static void hashRectangle(MessageDigest digest, PDRectangle rect) {
+    if (rect == null) {
+      digest.update((byte) 'n');
+      return;
+    }
+    hashInt(digest, Float.floatToIntBits(rect.getLowerLeftX()));
+    hashInt(digest, Float.floatToIntBits(rect.getLowerLeftY()));
+    hashInt(digest, Float.floatToIntBits(rect.getUpperRightX()));
+    hashInt(digest, Float.floatToIntBits(rect.getUpperRightY()));
+  }
+
+  /**
+   * Adds the given bytes, prefixed by their length, to the given digest.
+   *
+   * @param digest The digest.
+   * @param bytes  The bytes.
+   */
+  protected static void hashBytes(MessageDigest digest, byte[] bytes) {
+    hashInt(digest, bytes.length);
+    digest.update(bytes);
+  }
+
+  /**
+   * Adds the given value to the given digest.
+   *
+   * @param digest The digest.
+   * @param value  The value.
+   */
+  protected static void hashInt(MessageDigest digest, int value) {
+    digest.update((byte) (value >>> 24));
+    digest.update((byte) (value >>> 16));
+    digest.update((byte) (value >>> 8));
+    digest.update((byte) value);
+  }
+
+  /**
+   * Adds the given value to the given digest.
+   *
+   * @param digest The digest.
+   * @param value  The value.
+   */
+  protected static void hashLong(MessageDigest digest, long value) {
+    hashInt(digest, (int) (value >>> 32));
+    hashInt(digest, (int) value);
+  }
+
+  /**
+   * Creates a new SHA-256 message digest.
+   *
+   * @return The message digest.
+   */
+  protected static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      // Every implementation of the Java platform is required to support SHA-256.
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,640 @@
+package pdfact.core.pipes.semanticize;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import pdfact.core.model.Character;
+import pdfact.core.model.CharacterStatistic;
+import pdfact.core.model.Document;
+import pdfact.core.model.Font;
+import pdfact.core.model.FontFace;
+import pdfact.core.model.Line;
+import pdfact.core.model.Page;
+import pdfact.core.model.Rectangle;
+import pdfact.core.model.SemanticRole;
+import pdfact.core.model.TextBlock;
+import pdfact.core.model.TextLine;
+import pdfact.core.model.Word;
+import pdfact.core.pipes.semanticize.modules.CaptionModule;
+import pdfact.core.pipes.semanticize.modules.HeadingModule;
+import pdfact.core.util.PdfActUtils;
+import pdfact.core.util.comparator.FontFaceComparator;
+import pdfact.core.util.comparator.MinYComparator;
+import pdfact.core.util.counter.ObjectCounter;
+import pdfact.core.util.counter.ObjectHistogram;
+import pdfact.core.util.exception.PdfActException;
+import pdfact.core.util.trace.TraceChannel;
+import pdfact.core.util.trace.Tracer;
+
+/**
+ * An implementation of {@link DetectSemanticsPipe} that applies the rules of the modules of
+ * {@link PlainDetectSemanticsPipe} in a single pass over the text blocks, instead of running the
+ * modules one after another (each walking all text blocks of the document again).
+ *
+ * <p>
+ * The features shared by the rules (the text, the most common font face and the known heading
+ * role of a block) are computed once per block and stored in a table of parallel arrays, in the
+ * order of the blocks in the document. The rules that depend on global facts are evaluated in a
+ * pre-pass over this table: the title (the block with the largest font size on the first page),
+ * the page headers and footers (the topmost and lowest blocks whose texts repeat on at least a
+ * third of the pages) and the font face of section headings. The main pass then applies, per
+ * block, the rules of the heading module, the rules of the section modules (abstract, keywords,
+ * categories, general terms, acknowledgments and references; each a small state machine
+ * switched on by its section heading and off by the next heading) and the rules of the caption,
+ * footnote, body text and "other" modules, in this order. The assigned roles are identical to the
+ * roles assigned by {@link PlainDetectSemanticsPipe}.
+ *
+ * @author Claudius Korzen
+ */
+public class FusedDetectSemanticsPipe implements DetectSemanticsPipe {
+  /**
+   * The secondary roles of the known section headings, per normalized heading text.
+   */
+  protected static final Map<String, SemanticRole> KNOWN_HEADING_ROLES;
+
+  static {
+    KNOWN_HEADING_ROLES = new HashMap<>();
+    for (Map.Entry<SemanticRole, Set<String>> entry : HeadingModule.KNOWN_HEADINGS.entrySet()) {
+      for (String heading : entry.getValue()) {
+        KNOWN_HEADING_ROLES.put(heading, entry.getKey());
+      }
+    }
+  }
+
+  /**
+   * The roles of the sections that start with a section heading of the same secondary role and
+   * end with the next heading, in the order in which the modules of
+   * {@link PlainDetectSemanticsPipe} assign them.
+   */
+  protected static final SemanticRole[] SECTION_ROLES = { SemanticRole.ABSTRACT,
+      SemanticRole.KEYWORDS, SemanticRole.CATEGORIES, SemanticRole.GENERAL_TERMS,
+      SemanticRole.ACKNOWLEDGMENTS, SemanticRole.REFERENCE };
+
+  /**
+   * The comparator to find the lowest and topmost text blocks of a page.
+   */
+  protected MinYComparator minYComparator;
+
+  /**
+   * The comparator to compare the font faces of text blocks.
+   */
+  protected FontFaceComparator fontFaceComparator;
+
+  // ==============================================================================================
+
+  /**
+   * The default constructor.
+   */
+  public FusedDetectSemanticsPipe() {
+    this.minYComparator = new MinYComparator();
+    this.fontFaceComparator = new FontFaceComparator();
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public Document execute(Document pdf) throws PdfActException {
+    detectSemantics(pdf);
+    return pdf;
+  }
+
+  /**
+   * Detects the semantics of the text blocks in the given PDF document.
+   *
+   * @param pdf
+   *        The PDF document to process.
+   *
+   * @return The processed PDF document.
+   */
+  protected Document detectSemantics(Document pdf) {
+    Tracer trace = pdf != null ? pdf.getTracer(TraceChannel.ROLE_DETECTION) : Tracer.DISABLED;
+
+    trace.trace("=====================================================");
+    trace.trace("Detecting the semantic roles of the text blocks ...");
+    trace.trace("=====================================================");
+
+    if (pdf == null) {
+      return pdf;
+    }
+
+    List<Page> pages = pdf.getPages();
+    if (pages == null || pages.isEmpty()) {
+      return pdf;
+    }
+
+    FeatureTable table = computeFeatures(pages, trace);
+
+    // The pre-pass, for the rules that depend on global facts.
+    detectTitle(table);
+    detectPageFootersAndHeaders(table, pages.size());
+    FontFace headingFontFace = computeSectionHeadingFontFace(table, pdf);
+
+    // The main pass.
+    CharacterStatistic pdfCharStats = pdf.getCharacterStatistic();
+    FontFace pdfFontFace = pdfCharStats != null ? pdfCharStats.getMostCommonFontFace() : null;
+    boolean[] isInSection = new boolean[SECTION_ROLES.length];
+    for (int i = 0; i < table.numBlocks; i++) {
+      detectHeading(table, i, headingFontFace);
+      detectSections(table, i, isInSection);
+      if (table.roles[i] == null) {
+        detectOtherRoles(table, i, pdfFontFace);
+      }
+    }
+
+    // Write the roles to the text blocks.
+    for (int i = 0; i < table.numBlocks; i++) {
+      TextBlock block = table.blocks[i];
+      if (block.getSemanticRole() != table.roles[i]) {
+        block.setSemanticRole(table.roles[i]);
+      }
+      if (block.getSecondarySemanticRole() != table.secondaryRoles[i]) {
+        block.setSecondarySemanticRole(table.secondaryRoles[i]);
+      }
+    }
+
+    return pdf;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Computes the feature table of the text blocks of the given pages.
+   *
+   * @param pages
+   *        The pages of the PDF document to process.
+   * @param trace
+   *        The tracer to trace debug info about the detection of semantic roles.
+   *
+   * @return The feature table.
+   */
+  protected FeatureTable computeFeatures(List<Page> pages, Tracer trace) {
+    int capacity = 0;
+    for (Page page : pages) {
+      if (page != null && page.getTextBlocks() != null) {
+        capacity += page.getTextBlocks().size();
+      }
+    }
+
+    FeatureTable table = new FeatureTable();
+    table.trace = trace;
+    table.numBlocks = 0;
+    table.blockOffsets = new int[pages.size() + 1];
+    table.blocks = new TextBlock[capacity];
+    table.texts = new String[capacity];
+    table.fontFaces = new FontFace[capacity];
+    table.knownHeadingRoles = new SemanticRole[capacity];
+    table.roles = new SemanticRole[capacity];
+    table.secondaryRoles = new SemanticRole[capacity];
+
+    for (int p = 0; p < pages.size(); p++) {
+      table.blockOffsets[p] = table.numBlocks;
+      Page page = pages.get(p);
+      if (page == null || page.getTextBlocks() == null) {
+        continue;
+      }
+
+      for (TextBlock block : page.getTextBlocks()) {
+        if (block == null) {
+          continue;
+        }
+        int i = table.numBlocks++;
+        String text = block.getText();
+        table.blocks[i] = block;
+        table.texts[i] = text;
+        table.fontFaces[i] = block.getCharacterStatistic().getMostCommonFontFace();
+        table.knownHeadingRoles[i] = text != null ? KNOWN_HEADING_ROLES.get(toLetters(text)) : null;
+        table.roles[i] = block.getSemanticRole();
+        table.secondaryRoles[i] = block.getSecondarySemanticRole();
+      }
+    }
+    table.blockOffsets[pages.size()] = table.numBlocks;
+    return table;
+  }
+
+  // ==============================================================================================
+  // The pre-pass.
+
+  /**
+   * Assigns the role "title" to the block with the largest font size on the first page (if its
+   * text is longer than three characters).
+   *
+   * @param table
+   *        The feature table of the document.
+   */
+  protected void detectTitle(FeatureTable table) {
+    float largestFontsize = -Float.MAX_VALUE;
+    int title = -1;
+    for (int i = table.blockOffsets[0]; i < table.blockOffsets[1]; i++) {
+      float fontsize = table.fontFaces[i].getFontSize();
+      if (fontsize > largestFontsize) {
+        largestFontsize = fontsize;
+        title = i;
+      }
+    }
+
+    if (title >= 0 && table.texts[title] != null && table.texts[title].length() > 3) {
+      assignRole(table, title, SemanticRole.TITLE, "the block exhibits the largest font size.");
+    }
+  }
+
+  /**
+   * Assigns the roles "page footer" and "page header" to the lowest and topmost blocks of the
+   * pages whose texts (ignoring digits) occur on at least a third of the pages.
+   *
+   * @param table
+   *        The feature table of the document.
+   * @param numPages
+   *        The number of pages in the PDF document.
+   */
+  protected void detectPageFootersAndHeaders(FeatureTable table, int numPages) {
+    int[] lowest = new int[numPages];
+    int[] topmost = new int[numPages];
+    int numBoundaryBlocks = 0;
+    for (int p = 0; p < numPages; p++) {
+      int from = table.blockOffsets[p];
+      int to = table.blockOffsets[p + 1];
+      if (from == to) {
+        continue;
+      }
+      // The first of the lowest blocks and the last of the topmost blocks, like a stable sort.
+      int low = from;
+      int top = from;
+      for (int i = from + 1; i < to; i++) {
+        if (this.minYComparator.compare(table.blocks[i], table.blocks[low]) < 0) {
+          low = i;
+        }
+        if (this.minYComparator.compare(table.blocks[i], table.blocks[top]) >= 0) {
+          top = i;
+        }
+      }
+      lowest[numBoundaryBlocks] = low;
+      topmost[numBoundaryBlocks] = top;
+      numBoundaryBlocks++;
+    }
+
+    detectRepeatingBlocks(table, lowest, numBoundaryBlocks, SemanticRole.PAGE_FOOTER);
+    detectRepeatingBlocks(table, topmost, numBoundaryBlocks, SemanticRole.PAGE_HEADER);
+  }
+
+  /**
+   * Assigns the given role to each of the given blocks whose text (ignoring digits) occurs in at
+   * least a third of the given blocks.
+   *
+   * @param table
+   *        The feature table of the document.
+   * @param indexes
+   *        The indexes of the blocks in the feature table.
+   * @param numIndexes
+   *        The number of indexes.
+   * @param role
+   *        The role to assign.
+   */
+  protected void detectRepeatingBlocks(FeatureTable table, int[] indexes, int numIndexes,
+      SemanticRole role) {
+    String[] normalizedTexts = new String[numIndexes];
+    ObjectCounter<String> textCounter = new ObjectCounter<>();
+    for (int k = 0; k < numIndexes; k++) {
+      String text = table.texts[indexes[k]];
+      normalizedTexts[k] = text != null ? withoutDigits(text) : null;
+      textCounter.add(normalizedTexts[k]);
+    }
+
+    for (int k = 0; k < numIndexes; k++) {
+      if (textCounter.getFrequency(normalizedTexts[k]) >= numIndexes / 3) {
+        assignRole(table, indexes[k], role, "the text occurs on more than a third of the pages.");
+      }
+    }
+  }
+
+  /**
+   * Computes the font face of section headings: the most common font face of the characters of
+   * the blocks with known section heading texts that are more than 1pt larger than the most
+   * common font size in the document.
+   *
+   * @param table
+   *        The feature table of the document.
+   * @param pdf
+   *        The PDF document to process.
+   *
+   * @return The font face of section headings.
+   */
+  protected FontFace computeSectionHeadingFontFace(FeatureTable table, Document pdf) {
+    CharacterStatistic pdfCharStats = pdf.getCharacterStatistic();
+    FontFace pdfFontFace = pdfCharStats.getMostCommonFontFace();
+    if (pdfFontFace == null) {
+      return null;
+    }
+
+    ObjectHistogram<FontFace> headingFontFaces = new ObjectHistogram<>();
+    for (int i = 0; i < table.numBlocks; i++) {
+      FontFace fontFace = table.fontFaces[i];
+      if (table.knownHeadingRoles[i] == null || fontFace == null) {
+        continue;
+      }
+      if (fontFace.getFontSize() - pdfFontFace.getFontSize() > 1) {
+        for (TextLine line : table.blocks[i].getTextLines()) {
+          for (Word word : line.getWords()) {
+            for (Character character : word.getCharacters()) {
+              headingFontFaces.add(character.getFontFace());
+            }
+          }
+        }
+      }
+    }
+    return headingFontFaces.getMostCommonObject();
+  }
+
+  // ==============================================================================================
+  // The main pass.
+
+  /**
+   * Assigns the role "heading" to the given block if it has no role yet and exhibits the font
+   * face of section headings. If its text is a known section heading, the related secondary role
+   * is assigned as well.
+   *
+   * @param table
+   *        The feature table of the document.
+   * @param i
+   *        The index of the block in the feature table.
+   * @param headingFontFace
+   *        The font face of section headings.
+   */
+  protected void detectHeading(FeatureTable table, int i, FontFace headingFontFace) {
+    if (table.roles[i] != null || table.fontFaces[i] != headingFontFace) {
+      return;
+    }
+    assignRole(table, i, SemanticRole.HEADING, "the block exhibits the detected heading font face");
+    if (table.knownHeadingRoles[i] != null) {
+      table.secondaryRoles[i] = table.knownHeadingRoles[i];
+    }
+  }
+
+  /**
+   * Assigns the role of each section the given block is located in (the last one wins), and
+   * updates the states of the sections: a section ends at the next heading and starts after a
+   * heading with the secondary role of the section.
+   *
+   * @param table
+   *        The feature table of the document.
+   * @param i
+   *        The index of the block in the feature table.
+   * @param isInSection
+   *        The states of the sections in {@link #SECTION_ROLES}.
+   */
+  protected void detectSections(FeatureTable table, int i, boolean[] isInSection) {
+    boolean isHeading = table.roles[i] == SemanticRole.HEADING;
+    for (int k = 0; k < SECTION_ROLES.length; k++) {
+      if (isInSection[k] && isHeading) {
+        isInSection[k] = false;
+      }
+      if (isInSection[k]) {
+        assignRole(table, i, SECTION_ROLES[k], "the block is located between the detected "
+            + "start/end of the %s section", SECTION_ROLES[k]);
+      }
+      if (isHeading && table.secondaryRoles[i] == SECTION_ROLES[k]) {
+        isInSection[k] = true;
+      }
+    }
+  }
+
+  /**
+   * Assigns the role "caption", "footnote", "body text", "heading" or "other" to the given
+   * block, which has no role yet (the first matching rule wins).
+   *
+   * @param table
+   *        The feature table of the document.
+   * @param i
+   *        The index of the block in the feature table.
+   * @param pdfFontFace
+   *        The most common font face in the PDF document.
+   */
+  protected void detectOtherRoles(FeatureTable table, int i, FontFace pdfFontFace) {
+    // The block is a caption if its text matches one of the caption patterns.
+    String text = table.texts[i];
+    if (text != null) {
+      for (Map.Entry<SemanticRole, Pattern> entry : CaptionModule.CAPTION_PATTERNS.entrySet()) {
+        if (entry.getValue().matcher(text).find()) {
+          assignRole(table, i, SemanticRole.CAPTION, "the text matches the regex '%s'",
+              entry.getValue());
+          table.secondaryRoles[i] = entry.getKey();
+          return;
+        }
+      }
+    }
+
+    // The block is a footnote if its first character is raised and doesn't exhibit the most
+    // common font face of the block.
+    if (isFootnote(table, i)) {
+      assignRole(table, i, SemanticRole.FOOTNOTE, "the first character is raised compared to "
+          + "the first text line and doesn't exhibit the font most commonly used in the text "
+          + "block");
+      return;
+    }
+
+    // The block is a member of the body text if it exhibits the most common font face.
+    FontFace fontFace = table.fontFaces[i];
+    if (pdfFontFace != null && fontFace != null) {
+      Font pdfFont = pdfFontFace.getFont();
+      float pdfFontSize = pdfFontFace.getFontSize();
+      if (pdfFont == fontFace.getFont()
+          && Math.abs(pdfFontSize - fontFace.getFontSize()) <= 0.05 * pdfFontSize) {
+        assignRole(table, i, SemanticRole.BODY_TEXT,
+            "the block exhibits the most common font face");
+        return;
+      }
+    }
+
+    if (this.fontFaceComparator.compare(pdfFontFace, fontFace) < 0) {
+      assignRole(table, i, SemanticRole.HEADING, "the block wasn't assigned to any role yet and "
+          + "its font face is larger than the most common font face).");
+    } else {
+      assignRole(table, i, SemanticRole.OTHER, "the block wasn't assigned to any other role yet.");
+    }
+  }
+
+  /**
+   * Checks if the given block is a footnote, that is: if the first character of the block is
+   * raised compared to the baseline of the first text line and doesn't exhibit the most common
+   * font face of the block.
+   *
+   * @param table
+   *        The feature table of the document.
+   * @param i
+   *        The index of the block in the feature table.
+   *
+   * @return True if the given block is a footnote; false otherwise.
+   */
+  protected boolean isFootnote(FeatureTable table, int i) {
+    TextLine firstTextLine = table.blocks[i].getFirstTextLine();
+    if (firstTextLine == null) {
+      return false;
+    }
+
+    Line firstBaseLine = firstTextLine.getBaseline();
+    if (firstBaseLine == null) {
+      return false;
+    }
+
+    Character firstChar = firstTextLine.getFirstWord().getFirstCharacter();
+    Rectangle firstCharBox = firstChar.getPosition().getRectangle();
+    if (PdfActUtils.isSmallerOrEqual(firstCharBox.getMinY(), firstBaseLine.getStartY(), 1)) {
+      return false;
+    }
+
+    return firstChar.getFontFace() != table.fontFaces[i];
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Assigns the given role to the given block.
+   *
+   * @param table
+   *        The feature table of the document.
+   * @param i
+   *        The index of the block in the feature table.
+   * @param role
+   *        The role to assign.
+   * @param reason
+   *        The reason for the role, for tracing.
+   */
+  protected void assignRole(FeatureTable table, int i, SemanticRole role, String reason) {
+    assignRole(table, i, role, reason, null);
+  }
+
+  /**
+   * Assigns the given role to the given block. The reason is given as a format string with a
+   * single argument, which is formatted only if tracing is enabled.
+   *
+   * @param table
+   *        The feature table of the document.
+   * @param i
+   *        The index of the block in the feature table.
+   * @param role
+   *        The role to assign.
+   * @param reason
+   *        The reason for the role, for tracing (a format string with a single "%s").
+   * @param reasonArg
+   *        The argument of the reason.
+   */
+  protected void assignRole(FeatureTable table, int i, SemanticRole role, String reason,
+      Object reasonArg) {
+    table.roles[i] = role;
+
+    if (!table.trace.isEnabled()) {
+      return;
+    }
+    table.trace.trace("-----------------------------------------------------");
+    table.trace.trace("Text block: \"%s\" ...", table.texts[i]);
+    table.trace.trace("... page:          %d", table.blocks[i].getPosition().getPageNumber());
+    table.trace.trace("... font face:     %s", table.fontFaces[i]);
+    table.trace.trace("... assigned role: %s", role);
+    table.trace.trace("... role reason:   %s",
+        reasonArg != null ? String.format(reason, reasonArg) : reason);
+  }
+
+  /**
+   * Returns the letters of the given text, in lowercase (equal to the normalized text of
+   * {@link HeadingModule}).
+   *
+   * @param text
+   *        The text to process.
+   *
+   * @return The letters of the given text, in lowercase.
+   */
+  protected static String toLetters(String text) {
+    StringBuilder sb = new StringBuilder(text.length());
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (c >= 'a' && c <= 'z') {
+        sb.append(c);
+      } else if (c >= 'A' && c <= 'Z') {
+        sb.append((char) (c + ('a' - 'A')));
+      }
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Returns the given text without digits (equal to the normalized text of the module to detect
+   * page headers and footers).
+   *
+   * @param text
+   *        The text to process.
+   *
+   * @return The given text without digits.
+   */
+  protected static String withoutDigits(String text) {
+    StringBuilder sb = null;
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (c >= '0' && c <= '9') {
+        if (sb == null) {
+          sb = new StringBuilder(text.length());
+          sb.append(text, 0, i);
+        }
+      } else if (sb != null) {
+        sb.append(c);
+      }
+    }
+    return sb != null ? sb.toString() : text;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * The features of the text blocks of a document, computed once per call of
+   * {@link #detectSemantics(Document)} (so that a pipe can process multiple documents, also
+   * concurrently).
+   */
+  protected static class FeatureTable {
+    /**
+     * The tracer to trace debug info about the detection of semantic roles.
+     */
+    protected Tracer trace = Tracer.DISABLED;
+
+    /**
+     * The number of text blocks in the document.
+     */
+    protected int numBlocks;
+
+    /**
+     * The offsets of the pages in the table: the blocks of the i-th page are stored at the indexes
+     * blockOffsets[i] (inclusive) to blockOffsets[i + 1] (exclusive).
+     */
+    protected int[] blockOffsets;
+
+    /**
+     * The text blocks.
+     */
+    protected TextBlock[] blocks;
+
+    /**
+     * The texts of the text blocks.
+     */
+    protected String[] texts;
+
+    /**
+     * The most common font faces of the text blocks.
+     */
+    protected FontFace[] fontFaces;
+
+    /**
+     * The secondary roles of the text blocks whose texts are known section headings (null for all
+     * other blocks).
+     */
+    protected SemanticRole[] knownHeadingRoles;
+
+    /**
+     * The roles assigned to the text blocks so far.
+     */
+    protected SemanticRole[] roles;
+
+    /**
+     * The secondary roles assigned to the text blocks so far.
+     */
+    protected SemanticRole[] secondaryRoles;
+  }
+}
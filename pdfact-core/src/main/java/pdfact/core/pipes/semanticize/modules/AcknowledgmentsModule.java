@@ -1,12 +1,12 @@
 package pdfact.core.pipes.semanticize.modules;
 
 import java.util.List;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
 import pdfact.core.model.Document;
 import pdfact.core.model.Page;
 import pdfact.core.model.SemanticRole;
 import pdfact.core.model.TextBlock;
+import pdfact.core.util.trace.TraceChannel;
+import pdfact.core.util.trace.Tracer;
 
 /**
  * A module that identifies the text blocks with the semantic role "acknowledgments".
@@ -15,9 +15,9 @@ import pdfact.core.model.TextBlock;
  */
 public class AcknowledgmentsModule implements PdfTextSemanticizerModule {
   /**
-   * The logger.
+   * The tracer to trace debug info about the detection of semantic roles.
    */
-  protected static Logger log = LogManager.getFormatterLogger("role-detection");
+  protected Tracer trace = Tracer.DISABLED;
 
   /**
    * A boolean flag that indicates whether the current text block is a member of the Acknowledgments
@@ -27,9 +27,12 @@ public class AcknowledgmentsModule implements PdfTextSemanticizerModule {
 
   @Override
   public void semanticize(Document pdf) {
-    log.debug("=====================================================");
-    log.debug("Detecting text blocks of semantic role '%s' ...", SemanticRole.ACKNOWLEDGMENTS);
-    log.debug("=====================================================");
+    this.trace = pdf != null ? pdf.getTracer(TraceChannel.ROLE_DETECTION) : Tracer.DISABLED;
+
+    this.trace.trace("=====================================================");
+    this.trace.trace("Detecting text blocks of semantic role '%s' ...",
+        SemanticRole.ACKNOWLEDGMENTS);
+    this.trace.trace("=====================================================");
     
     if (pdf == null) {
       return;
@@ -60,11 +63,11 @@ public class AcknowledgmentsModule implements PdfTextSemanticizerModule {
         }
 
         if (this.isAcknowledgments) {
-          log.debug("-----------------------------------------------------");
-          log.debug("Text block: \"%s\" ...", block.getText());
-          log.debug("... page:          %d", block.getPosition().getPageNumber());
-          log.debug("... assigned role: %s", SemanticRole.ACKNOWLEDGMENTS);
-          log.debug("... role reason:   the block is located between the detected " 
+          this.trace.trace("-----------------------------------------------------");
+          this.trace.trace("Text block: \"%s\" ...", block.getText());
+          this.trace.trace("... page:          %d", block.getPosition().getPageNumber());
+          this.trace.trace("... assigned role: %s", SemanticRole.ACKNOWLEDGMENTS);
+          this.trace.trace("... role reason:   the block is located between the detected " 
               + "start/end of the Acknowledgments section");
           block.setSemanticRole(SemanticRole.ACKNOWLEDGMENTS);
         }
@@ -2,8 +2,6 @@ package pdfact.core.pipes.semanticize.modules;
 
 import java.util.List;
 
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
 
 import pdfact.core.model.CharacterStatistic;
 import pdfact.core.model.Document;
@@ -12,6 +10,8 @@ import pdfact.core.model.FontFace;
 import pdfact.core.model.Page;
 import pdfact.core.model.SemanticRole;
 import pdfact.core.model.TextBlock;
+import pdfact.core.util.trace.TraceChannel;
+import pdfact.core.util.trace.Tracer;
 
 /**
  * A module that identifies the text blocks with the semantic role "body".
@@ -20,15 +20,17 @@ import pdfact.core.model.TextBlock;
  */
 public class BodyTextModule implements PdfTextSemanticizerModule {
   /**
-   * The logger.
+   * The tracer to trace debug info about the detection of semantic roles.
    */
-  protected static Logger log = LogManager.getFormatterLogger("role-detection");
+  protected Tracer trace = Tracer.DISABLED;
 
   @Override
   public void semanticize(Document pdf) {
-    log.debug("=====================================================");
-    log.debug("Detecting text blocks of semantic role '%s' ...", SemanticRole.BODY_TEXT);
-    log.debug("=====================================================");
+    this.trace = pdf != null ? pdf.getTracer(TraceChannel.ROLE_DETECTION) : Tracer.DISABLED;
+
+    this.trace.trace("=====================================================");
+    this.trace.trace("Detecting text blocks of semantic role '%s' ...", SemanticRole.BODY_TEXT);
+    this.trace.trace("=====================================================");
 
     if (pdf == null) {
       return;
@@ -74,12 +76,13 @@ public class BodyTextModule implements PdfTextSemanticizerModule {
           continue;
         }
 
-        log.debug("-----------------------------------------------------");
-        log.debug("Text block: \"%s\" ...", block.getText());
-        log.debug("... page:          %d", block.getPosition().getPageNumber());
-        log.debug("... font face:     %s", block.getCharacterStatistic().getMostCommonFontFace());
-        log.debug("... assigned role: %s", SemanticRole.BODY_TEXT);
-        log.debug("... role reason:   the block exhibits the most common font face");
+        this.trace.trace("-----------------------------------------------------");
+        this.trace.trace("Text block: \"%s\" ...", block.getText());
+        this.trace.trace("... page:          %d", block.getPosition().getPageNumber());
+        this.trace.trace("... font face:     %s",
+            block.getCharacterStatistic().getMostCommonFontFace());
+        this.trace.trace("... assigned role: %s", SemanticRole.BODY_TEXT);
+        this.trace.trace("... role reason:   the block exhibits the most common font face");
         block.setSemanticRole(SemanticRole.BODY_TEXT);
       }
     }
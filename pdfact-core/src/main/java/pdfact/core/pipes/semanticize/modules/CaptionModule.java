@@ -5,12 +5,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
 import pdfact.core.model.Document;
 import pdfact.core.model.Page;
 import pdfact.core.model.SemanticRole;
 import pdfact.core.model.TextBlock;
+import pdfact.core.util.trace.TraceChannel;
+import pdfact.core.util.trace.Tracer;
 
 /**
  * A module that identifies the text blocks with the semantic role "caption".
@@ -19,14 +19,14 @@ import pdfact.core.model.TextBlock;
  */
 public class CaptionModule implements PdfTextSemanticizerModule {
   /**
-   * The logger.
+   * The tracer to trace debug info about the detection of semantic roles.
    */
-  protected static Logger log = LogManager.getFormatterLogger("role-detection");
+  protected Tracer trace = Tracer.DISABLED;
   
   /**
    * The patterns to identify caption, per *secondary* role.
    */
-  protected static final Map<SemanticRole, Pattern> CAPTION_PATTERNS;
+  public static final Map<SemanticRole, Pattern> CAPTION_PATTERNS;
 
   static {
     CAPTION_PATTERNS = new HashMap<>();
@@ -44,9 +44,11 @@ public class CaptionModule implements PdfTextSemanticizerModule {
 
   @Override
   public void semanticize(Document pdf) {
-    log.debug("=====================================================");
-    log.debug("Detecting text blocks of semantic role '%s' ...", SemanticRole.CAPTION);
-    log.debug("=====================================================");
+    this.trace = pdf != null ? pdf.getTracer(TraceChannel.ROLE_DETECTION) : Tracer.DISABLED;
+
+    this.trace.trace("=====================================================");
+    this.trace.trace("Detecting text blocks of semantic role '%s' ...", SemanticRole.CAPTION);
+    this.trace.trace("=====================================================");
     
     if (pdf == null) {
       return;
@@ -77,11 +79,11 @@ public class CaptionModule implements PdfTextSemanticizerModule {
           Pattern captionPattern = CAPTION_PATTERNS.get(role);
           Matcher captionMatcher = captionPattern.matcher(block.getText());
           if (captionMatcher.find()) {
-            log.debug("-----------------------------------------------------");
-            log.debug("Text block: \"%s\" ...", block.getText());
-            log.debug("... page:          %d", block.getPosition().getPageNumber());
-            log.debug("... assigned role: %s", SemanticRole.CAPTION);
-            log.debug("... role reason:   the text matches the regex '%s'", captionPattern);
+            this.trace.trace("-----------------------------------------------------");
+            this.trace.trace("Text block: \"%s\" ...", block.getText());
+            this.trace.trace("... page:          %d", block.getPosition().getPageNumber());
+            this.trace.trace("... assigned role: %s", SemanticRole.CAPTION);
+            this.trace.trace("... role reason:   the text matches the regex '%s'", captionPattern);
             block.setSemanticRole(SemanticRole.CAPTION);
             // Set also the secondary role, e.g. "figure" for a figures
             // caption.
@@ -1,8 +1,6 @@
 package pdfact.core.pipes.semanticize.modules;
 
 import java.util.List;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
 import pdfact.core.model.Character;
 import pdfact.core.model.CharacterStatistic;
 import pdfact.core.model.Document;
@@ -14,6 +12,8 @@ import pdfact.core.model.SemanticRole;
 import pdfact.core.model.TextBlock;
 import pdfact.core.model.TextLine;
 import pdfact.core.util.PdfActUtils;
+import pdfact.core.util.trace.TraceChannel;
+import pdfact.core.util.trace.Tracer;
 
 /**
  * A module that identifies the text blocks with the semantic role "footnote".
@@ -22,15 +22,17 @@ import pdfact.core.util.PdfActUtils;
  */
 public class FootnoteModule implements PdfTextSemanticizerModule {
    /**
-   * The logger.
+   * The tracer to trace debug info about the detection of semantic roles.
    */
-  protected static Logger log = LogManager.getFormatterLogger("role-detection");
+  protected Tracer trace = Tracer.DISABLED;
   
   @Override
   public void semanticize(Document pdf) {
-    log.debug("=====================================================");
-    log.debug("Detecting text blocks of semantic role '%s' ...", SemanticRole.FOOTNOTE);
-    log.debug("=====================================================");
+    this.trace = pdf != null ? pdf.getTracer(TraceChannel.ROLE_DETECTION) : Tracer.DISABLED;
+
+    this.trace.trace("=====================================================");
+    this.trace.trace("Detecting text blocks of semantic role '%s' ...", SemanticRole.FOOTNOTE);
+    this.trace.trace("=====================================================");
     
     if (pdf == null) {
       return;
@@ -87,16 +89,17 @@ public class FootnoteModule implements PdfTextSemanticizerModule {
           continue;
         }
 
-        log.debug("-----------------------------------------------------");
-        log.debug("Text block: \"%s\" ...", block.getText());
-        log.debug("... page:                       %d", block.getPosition().getPageNumber());
-        log.debug("... font face:                  %s", blockFontFace);
-        log.debug("... min-y of 1st character:     %.1f", firstCharMinY);
-        log.debug("... min-y of 1st text line:     %.1f", lineBaseLineY);
-        log.debug("... font face of 1st character: %s", firstCharFontFace);
-        log.debug("... assigned role:              %s", SemanticRole.FOOTNOTE);
-        log.debug("... role reason:                the first character is raised compared to the "
-          + "first text line and doesn't exhibit the font most commonly used in the text block");
+        this.trace.trace("-----------------------------------------------------");
+        this.trace.trace("Text block: \"%s\" ...", block.getText());
+        this.trace.trace("... page:                       %d", block.getPosition().getPageNumber());
+        this.trace.trace("... font face:                  %s", blockFontFace);
+        this.trace.trace("... min-y of 1st character:     %.1f", firstCharMinY);
+        this.trace.trace("... min-y of 1st text line:     %.1f", lineBaseLineY);
+        this.trace.trace("... font face of 1st character: %s", firstCharFontFace);
+        this.trace.trace("... assigned role:              %s", SemanticRole.FOOTNOTE);
+        this.trace.trace("... role reason:                the first character is raised compared "
+          + "to the first text line and doesn't exhibit the font most commonly used in the text "
+          + "block");
         block.setSemanticRole(SemanticRole.FOOTNOTE);
       }
     }
@@ -5,8 +5,6 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
 import pdfact.core.model.Character;
 import pdfact.core.model.CharacterStatistic;
 import pdfact.core.model.Document;
@@ -17,7 +15,10 @@ import pdfact.core.model.TextBlock;
 import pdfact.core.model.TextLine;
 import pdfact.core.model.Word;
 import pdfact.core.util.list.ElementList;
+import pdfact.core.util.list.PlainElementList;
 import pdfact.core.util.statistician.CharacterStatistician;
+import pdfact.core.util.trace.TraceChannel;
+import pdfact.core.util.trace.Tracer;
 
 /**
  * A module that identifies the text blocks with the semantic role "heading".
@@ -26,9 +27,9 @@ import pdfact.core.util.statistician.CharacterStatistician;
  */
 public class HeadingModule implements PdfTextSemanticizerModule {
   /**
-   * The logger.
+   * The tracer to trace debug info about the detection of semantic roles.
    */
-  protected static Logger log = LogManager.getFormatterLogger("role-detection");
+  protected Tracer trace = Tracer.DISABLED;
 
   /**
    * The character statistician.
@@ -38,7 +39,7 @@ public class HeadingModule implements PdfTextSemanticizerModule {
   /**
    * The texts of known headings, per *secondary* role.
    */
-  protected static final Map<SemanticRole, Set<String>> KNOWN_HEADINGS;
+  public static final Map<SemanticRole, Set<String>> KNOWN_HEADINGS;
 
   static {
     KNOWN_HEADINGS = new HashMap<>();
@@ -110,9 +111,11 @@ public class HeadingModule implements PdfTextSemanticizerModule {
 
   @Override
   public void semanticize(Document pdf) {
-    log.debug("=====================================================");
-    log.debug("Detecting text blocks of semantic role '%s' ...", SemanticRole.HEADING);
-    log.debug("=====================================================");
+    this.trace = pdf != null ? pdf.getTracer(TraceChannel.ROLE_DETECTION) : Tracer.DISABLED;
+
+    this.trace.trace("=====================================================");
+    this.trace.trace("Detecting text blocks of semantic role '%s' ...", SemanticRole.HEADING);
+    this.trace.trace("=====================================================");
     
     if (pdf == null) {
       return;
@@ -148,12 +151,13 @@ public class HeadingModule implements PdfTextSemanticizerModule {
         // The text block is a heading if its font face is equal to the
         // computed section heading font face.
         if (headingFontFace == fontFace) {
-          log.debug("-----------------------------------------------------");
-          log.debug("Text block: \"%s\" ...", block.getText());
-          log.debug("... page:          %d", block.getPosition().getPageNumber());
-          log.debug("... font face:     %s", block.getCharacterStatistic().getMostCommonFontFace());
-          log.debug("... assigned role: %s", SemanticRole.HEADING);
-          log.debug("... role reason:   the block exhibits the detected heading font face");
+          this.trace.trace("-----------------------------------------------------");
+          this.trace.trace("Text block: \"%s\" ...", block.getText());
+          this.trace.trace("... page:          %d", block.getPosition().getPageNumber());
+          this.trace.trace("... font face:     %s",
+              block.getCharacterStatistic().getMostCommonFontFace());
+          this.trace.trace("... assigned role: %s", SemanticRole.HEADING);
+          this.trace.trace("... role reason:   the block exhibits the detected heading font face");
           block.setSemanticRole(SemanticRole.HEADING);
           // Iterate through the known headings to obtain the secondary role.
           for (SemanticRole role : KNOWN_HEADINGS.keySet()) {
@@ -190,7 +194,7 @@ public class HeadingModule implements PdfTextSemanticizerModule {
     }
 
     // The characters of all known section headings.
-    ElementList<Character> headingChars = new ElementList<>();
+    ElementList<Character> headingChars = new PlainElementList<>();
 
     for (Page page : pdf.getPages()) {
       for (TextBlock block : page.getTextBlocks()) {
@@ -1,14 +1,14 @@
 package pdfact.core.pipes.semanticize.modules;
 
 import java.util.List;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
 import pdfact.core.model.Document;
 import pdfact.core.model.FontFace;
 import pdfact.core.model.Page;
 import pdfact.core.model.SemanticRole;
 import pdfact.core.model.TextBlock;
 import pdfact.core.util.comparator.FontFaceComparator;
+import pdfact.core.util.trace.TraceChannel;
+import pdfact.core.util.trace.Tracer;
 
 /**
  * A module that identifies the role "OTHER" to all text blocks to which no semantic role was
@@ -18,9 +18,9 @@ import pdfact.core.util.comparator.FontFaceComparator;
  */
 public class OtherRoleModule implements PdfTextSemanticizerModule {
   /**
-   * The logger.
+   * The tracer to trace debug info about the detection of semantic roles.
    */
-  protected static Logger log = LogManager.getFormatterLogger("role-detection");
+  protected Tracer trace = Tracer.DISABLED;
 
   /**
    * A comparator to compare font faces.
@@ -36,9 +36,11 @@ public class OtherRoleModule implements PdfTextSemanticizerModule {
 
   @Override
   public void semanticize(Document pdf) {
-    log.debug("=====================================================");
-    log.debug("Detecting text blocks of semantic role '%s' ...", SemanticRole.OTHER);
-    log.debug("=====================================================");
+    this.trace = pdf != null ? pdf.getTracer(TraceChannel.ROLE_DETECTION) : Tracer.DISABLED;
+
+    this.trace.trace("=====================================================");
+    this.trace.trace("Detecting text blocks of semantic role '%s' ...", SemanticRole.OTHER);
+    this.trace.trace("=====================================================");
     
     if (pdf == null) {
       return;
@@ -66,19 +68,19 @@ public class OtherRoleModule implements PdfTextSemanticizerModule {
         FontFace blockFontFace = block.getCharacterStatistic().getMostCommonFontFace();
         FontFace pdfFontFace = pdf.getCharacterStatistic().getMostCommonFontFace();
 
-        log.debug("-----------------------------------------------------");
-        log.debug("Text block: \"%s\" ...", block.getText());
-        log.debug("... page:          %d", block.getPosition().getPageNumber());
+        this.trace.trace("-----------------------------------------------------");
+        this.trace.trace("Text block: \"%s\" ...", block.getText());
+        this.trace.trace("... page:          %d", block.getPosition().getPageNumber());
 
         if (this.fontFaceComparator.compare(pdfFontFace, blockFontFace) < 0) {
-          log.debug("... assigned role: %s", SemanticRole.HEADING);
-          log.debug("... role reason:   the block wasn't assigned to any role yet and its font "
-                  + "face is larger than the most common font face).");
+          this.trace.trace("... assigned role: %s", SemanticRole.HEADING);
+          this.trace.trace("... role reason:   the block wasn't assigned to any role yet and its "
+                  + "font face is larger than the most common font face).");
           // The font face of the block is "larger" than the most common font face in the document.
           block.setSemanticRole(SemanticRole.HEADING);
         } else {
-          log.debug("... assigned role: %s", SemanticRole.OTHER);
-          log.debug("... role reason:   the block wasn't assigned to any other role yet.");
+          this.trace.trace("... assigned role: %s", SemanticRole.OTHER);
+          this.trace.trace("... role reason:   the block wasn't assigned to any other role yet.");
           block.setSemanticRole(SemanticRole.OTHER);
         }
       }
@@ -3,14 +3,14 @@ package pdfact.core.pipes.semanticize.modules;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
 import pdfact.core.model.Document;
 import pdfact.core.model.Page;
 import pdfact.core.model.SemanticRole;
 import pdfact.core.model.TextBlock;
 import pdfact.core.util.comparator.MinYComparator;
 import pdfact.core.util.counter.ObjectCounter;
+import pdfact.core.util.trace.TraceChannel;
+import pdfact.core.util.trace.Tracer;
 
 /**
  * A module that identifies the text blocks with the semantic role "page header"
@@ -20,12 +20,14 @@ import pdfact.core.util.counter.ObjectCounter;
  */
 public class PageHeaderFooterModule implements PdfTextSemanticizerModule {
   /**
-   * The logger.
+   * The tracer to trace debug info about the detection of semantic roles.
    */
-  protected static Logger log = LogManager.getFormatterLogger("role-detection");
+  protected Tracer trace = Tracer.DISABLED;
 
   @Override
   public void semanticize(Document pdf) {
+    this.trace = pdf != null ? pdf.getTracer(TraceChannel.ROLE_DETECTION) : Tracer.DISABLED;
+
     if (pdf == null) {
       return;
     }
@@ -74,9 +76,9 @@ public class PageHeaderFooterModule implements PdfTextSemanticizerModule {
    *        The semantic role to assign to the related text blocks.
    */
   protected void semanticizeBlocks(List<TextBlock> blocks, SemanticRole role) {
-    log.debug("=====================================================");
-    log.debug("Detecting text blocks of semantic role '%s' ...", role);
-    log.debug("=====================================================");
+    this.trace.trace("=====================================================");
+    this.trace.trace("Detecting text blocks of semantic role '%s' ...", role);
+    this.trace.trace("=====================================================");
     
     if (blocks == null || blocks.isEmpty()) {
       return;
@@ -91,11 +93,11 @@ public class PageHeaderFooterModule implements PdfTextSemanticizerModule {
     for (TextBlock block : blocks) {
       String normalizedText = getNormalizedText(block);
       if (textCounter.getFrequency(normalizedText) >= blocks.size() / 3) {
-        log.debug("-----------------------------------------------------");
-        log.debug("Text block: \"%s\" ...", block.getText());
-        log.debug("... page:          %d", block.getPosition().getPageNumber());
-        log.debug("... assigned role: %s", role);
-        log.debug("... role reason:   the text occurs on more than a third of the pages.");
+        this.trace.trace("-----------------------------------------------------");
+        this.trace.trace("Text block: \"%s\" ...", block.getText());
+        this.trace.trace("... page:          %d", block.getPosition().getPageNumber());
+        this.trace.trace("... assigned role: %s", role);
+        this.trace.trace("... role reason:   the text occurs on more than a third of the pages.");
         block.setSemanticRole(role);
       }
     }
@@ -2,8 +2,6 @@ package pdfact.core.pipes.semanticize.modules;
 
 import java.util.List;
 
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
 
 import pdfact.core.model.CharacterStatistic;
 import pdfact.core.model.Document;
@@ -11,6 +9,8 @@ import pdfact.core.model.FontFace;
 import pdfact.core.model.Page;
 import pdfact.core.model.SemanticRole;
 import pdfact.core.model.TextBlock;
+import pdfact.core.util.trace.TraceChannel;
+import pdfact.core.util.trace.Tracer;
 
 /**
  * A module that identifies the text blocks with the semantic role "title".
@@ -19,15 +19,17 @@ import pdfact.core.model.TextBlock;
  */
 public class TitleModule implements PdfTextSemanticizerModule {
   /**
-   * The logger.
+   * The tracer to trace debug info about the detection of semantic roles.
    */
-  protected static Logger log = LogManager.getFormatterLogger("role-detection");
+  protected Tracer trace = Tracer.DISABLED;
 
   @Override
   public void semanticize(Document pdf) {
-    log.debug("=====================================================");
-    log.debug("Detecting text blocks of semantic role '%s' ...", SemanticRole.TITLE);
-    log.debug("=====================================================");
+    this.trace = pdf != null ? pdf.getTracer(TraceChannel.ROLE_DETECTION) : Tracer.DISABLED;
+
+    this.trace.trace("=====================================================");
+    this.trace.trace("Detecting text blocks of semantic role '%s' ...", SemanticRole.TITLE);
+    this.trace.trace("=====================================================");
 
     if (pdf == null) {
       return;
@@ -67,13 +69,13 @@ public class TitleModule implements PdfTextSemanticizerModule {
     }
 
     if (largestFontSizeBlock != null && largestFontSizeBlock.getText().length() > 3) {
-      log.debug("-----------------------------------------------------");
-      log.debug("Text block: \"%s\" ...", largestFontSizeBlock.getText());
-      log.debug("... page:          %d", largestFontSizeBlock.getPosition().getPageNumber());
+      this.trace.trace("-----------------------------------------------------");
+      this.trace.trace("Text block: \"%s\" ...", largestFontSizeBlock.getText());
+      this.trace.trace("... page:          %d", largestFontSizeBlock.getPosition().getPageNumber());
       float fs = largestFontSizeBlock.getCharacterStatistic().getMostCommonFontFace().getFontSize();
-      log.debug("... fontsize:      %.1f", fs);
-      log.debug("... assigned role: %s ", SemanticRole.TITLE);
-      log.debug("... role reason:   the block exhibits the largest font size.");
+      this.trace.trace("... fontsize:      %.1f", fs);
+      this.trace.trace("... assigned role: %s ", SemanticRole.TITLE);
+      this.trace.trace("... role reason:   the block exhibits the largest font size.");
       largestFontSizeBlock.setSemanticRole(SemanticRole.TITLE);
     }
   }
@@ -1,8 +1,9 @@
 package pdfact.core.pipes.tokenize.areas;
 
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import pdfact.core.model.Character;
@@ -15,8 +16,10 @@ import pdfact.core.model.TextArea;
 import pdfact.core.util.PdfActUtils;
 import pdfact.core.util.exception.PdfActException;
 import pdfact.core.util.list.ElementList;
+import pdfact.core.util.list.PlainElementList;
 import pdfact.core.util.statistician.CharacterStatistician;
 import pdfact.core.util.xycut.XYCut;
+import pdfact.core.util.xycut.XYCutSweep;
 
 /**
  * An implementation of {@link TokenizeToTextAreasPipe} based on XYCut.
@@ -119,7 +122,7 @@ public class XYCutTokenizeToTextAreasPipe extends XYCut implements TokenizeToTex
    */
   protected ElementList<TextArea> tokenizeToTextAreas(Document pdf,
       Page page) throws PdfActException {
-    ElementList<TextArea> result = new ElementList<>();
+    ElementList<TextArea> result = new PlainElementList<>();
 
     ElementList<Character> characters = page.getCharacters();
     List<ElementList<Character>> areaCharsList = cut(pdf, page, characters);
@@ -128,7 +131,6 @@ public class XYCutTokenizeToTextAreasPipe extends XYCut implements TokenizeToTex
         TextArea area = new TextArea();
         area.setCharacters(areaChars);
         area.setPosition(computePosition(pdf, page, area));
-        area.setCharacterStatistic(computeCharacterStatistic(pdf, page, area));
         result.add(area);
       }
     }
@@ -154,23 +156,6 @@ public class XYCutTokenizeToTextAreasPipe extends XYCut implements TokenizeToTex
     return new Position(page, r);
   }
 
-  /**
-   * Computes the statistic about the given characters.
-   * 
-   * @param pdf
-   *        The PDF document to which the given text area belongs to.
-   * @param page
-   *        The PDF page to which the given text area belongs to.
-   * @param area
-   *        The text area to process.
-   * 
-   * @return The computed statistic.
-   */
-  protected CharacterStatistic computeCharacterStatistic(Document pdf,
-      Page page, TextArea area) {
-    return this.characterStatistician.compute(area.getCharacters());
-  }
-
   // ==============================================================================================
 
   @Override
@@ -216,6 +201,44 @@ public class XYCutTokenizeToTextAreasPipe extends XYCut implements TokenizeToTex
     return laneWidth;
   }
 
+  @Override
+  protected float assessVerticalCut(Document pdf, Page page, XYCutSweep sweep, int index) {
+    // Compute the (fictive) lane between the left and right half from the extrema of the sweep.
+    float laneMinX = sweep.getHeadLargestMaxX(index);
+    float laneMaxX = sweep.getTailSmallestMinX(index);
+    float laneWidth = laneMaxX - laneMinX;
+
+    CharacterStatistic pdfCharStats = pdf.getCharacterStatistic();
+    CharacterStatistic pageCharStats = page.getCharacterStatistic();
+    float pdfCharWidth = pdfCharStats.getMostCommonWidth();
+    float pageCharWidth = pageCharStats.getMostCommonWidth();
+
+    // Don't allow the lane, if it is too narrow. This rejects the vast majority of the candidate
+    // cuts, without cutting the characters and without computing statistics about the halves.
+    if (laneWidth < Math.max(pdfCharWidth, pageCharWidth)) {
+      return -1;
+    }
+
+    // Don't allow the lane, if the resulting areas are too low. The heights of the areas are given
+    // by the sweep, but the most common heights need the statistics about the halves.
+    List<ElementList<Character>> halves = sweep.cut(index);
+    ElementList<Character> left = halves.get(0);
+    CharacterStatistic leftStats = this.characterStatistician.compute(left);
+    ElementList<Character> right = halves.get(1);
+    CharacterStatistic rightStats = this.characterStatistician.compute(right);
+    if (sweep.getHeadHeight(index) < 2 * leftStats.getMostCommonHeight()
+        || sweep.getTailHeight(index) < 2 * rightStats.getMostCommonHeight()) {
+      return -1;
+    }
+
+    // Don't allow the lane, if it separates consecutive chars.
+    if (separatesConsecutiveCharacters(left, leftStats, right, rightStats)) {
+      return -1;
+    }
+
+    return laneWidth;
+  }
+
   // ==============================================================================================
 
   @Override
@@ -250,6 +273,29 @@ public class XYCutTokenizeToTextAreasPipe extends XYCut implements TokenizeToTex
     return laneHeight;
   }
 
+  @Override
+  protected float assessHorizontalCut(Document pdf, Page page, XYCutSweep sweep, int index) {
+    // Compute the (fictive) lane between the lower and upper half from the extrema of the sweep.
+    float laneMinY = sweep.getTailLargestMaxY(index);
+    float laneMaxY = sweep.getHeadSmallestMinY(index);
+    float laneHeight = laneMaxY - laneMinY;
+
+    // Don't allow lanes with negative heights.
+    if (laneHeight < 0) {
+      return -1;
+    }
+
+    float pdfCharHeight = pdf.getCharacterStatistic().getMostCommonHeight();
+    float pageCharHeight = page.getCharacterStatistic().getMostCommonHeight();
+
+    // Don't allow the lane, if it is too shallow.
+    if (laneHeight < Math.min(pdfCharHeight, pageCharHeight)) {
+      return -1;
+    }
+
+    return laneHeight;
+  }
+
   // ==============================================================================================
   // Utility methods.
 
@@ -272,42 +318,44 @@ public class XYCutTokenizeToTextAreasPipe extends XYCut implements TokenizeToTex
   protected boolean separatesConsecutiveCharacters(ElementList<Character> left,
       CharacterStatistic leftStats, ElementList<Character> right,
       CharacterStatistic rightStats) {
+    // Index the characters in the left half that are close to the cut by their extraction rank,
+    // so that each character in the right half can look up its predecessor in constant time.
     float largestMaxX = leftStats.getLargestMaxX();
-    Set<Character> leftChars = new HashSet<>();
-    for (Character c : left) {
+    float leftTolerance = 3 * leftStats.getMostCommonWidth();
+    Map<Integer, List<Rectangle>> leftChars = new HashMap<>();
+    for (int i = 0; i < left.size(); i++) {
+      Character c = left.get(i);
       Rectangle rect = c.getPosition().getRectangle();
-      if (PdfActUtils.isEqual(rect.getMaxX(), largestMaxX, 3 * leftStats.getMostCommonWidth())) {
-        leftChars.add(c);
+      if (PdfActUtils.isEqual(rect.getMaxX(), largestMaxX, leftTolerance)) {
+        leftChars.computeIfAbsent(c.getExtractionRank(), k -> new ArrayList<>(1)).add(rect);
       }
     }
 
+    if (leftChars.isEmpty()) {
+      return false;
+    }
+
     float smallestMinX = rightStats.getSmallestMinX();
-    Set<Character> rightChars = new HashSet<>();
-    for (Character c : right) {
+    float rightTolerance = 3 * rightStats.getMostCommonWidth();
+    for (int i = 0; i < right.size(); i++) {
+      Character c = right.get(i);
       Rectangle rect = c.getPosition().getRectangle();
-      if (PdfActUtils.isEqual(rect.getMinX(), smallestMinX, 3 * rightStats.getMostCommonWidth())) {
-        rightChars.add(c);
+      if (!PdfActUtils.isEqual(rect.getMinX(), smallestMinX, rightTolerance)) {
+        continue;
       }
-    }
-
-    for (Character leftChar : leftChars) {
-      int leftCharNum = leftChar.getExtractionRank();
-      Rectangle leftCharBox = leftChar.getPosition().getRectangle();
-      for (Character rightChar : rightChars) {
-        int rightCharNum = rightChar.getExtractionRank();
-        Rectangle rightCharNox = rightChar.getPosition().getRectangle();
-
-        // Check if the characters are consecutive.
-        if (rightCharNum != leftCharNum + 1) {
-          continue;
-        }
-        // Check if the characters overlap.
-        if (!leftCharBox.overlapsVertically(rightCharNox)) {
-          continue;
+      // Check if there is a consecutive character in the left half.
+      List<Rectangle> leftCharBoxes = leftChars.get(c.getExtractionRank() - 1);
+      if (leftCharBoxes == null) {
+        continue;
+      }
+      // Check if the characters overlap.
+      for (Rectangle leftCharBox : leftCharBoxes) {
+        if (leftCharBox.overlapsVertically(rect)) {
+          return true;
         }
-        return true;
       }
     }
     return false;
   }
+
 }
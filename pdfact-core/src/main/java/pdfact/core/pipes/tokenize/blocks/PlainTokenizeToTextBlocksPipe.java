@@ -4,9 +4,6 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.regex.Pattern;
 
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
-
 import pdfact.core.model.CharacterStatistic;
 import pdfact.core.model.Color;
 import pdfact.core.model.Document;
@@ -19,11 +16,13 @@ import pdfact.core.model.Rectangle;
 import pdfact.core.model.TextBlock;
 import pdfact.core.model.TextLine;
 import pdfact.core.model.TextLineStatistic;
-import pdfact.core.util.PdfActUtils;
 import pdfact.core.util.exception.PdfActException;
 import pdfact.core.util.list.ElementList;
-import pdfact.core.util.statistician.CharacterStatistician;
+import pdfact.core.util.list.PlainElementList;
 import pdfact.core.util.statistician.TextLineStatistician;
+import pdfact.core.util.text.TextView;
+import pdfact.core.util.trace.TraceChannel;
+import pdfact.core.util.trace.Tracer;
 
 /**
  * A plain implementation of {@link TokenizeToTextBlocksPipe}.
@@ -32,14 +31,9 @@ import pdfact.core.util.statistician.TextLineStatistician;
  */
 public class PlainTokenizeToTextBlocksPipe implements TokenizeToTextBlocksPipe {
   /**
-   * The logger.
+   * The tracer to trace debug info about the detection of text blocks.
    */
-  protected static Logger log = LogManager.getFormatterLogger("block-detection");
-
-  /**
-   * The statistician to compute statistics about characters.
-   */
-  protected CharacterStatistician characterStatistician;
+  protected Tracer trace = Tracer.DISABLED;
 
   /**
    * The statistician to compute statistics about text lines.
@@ -56,11 +50,27 @@ public class PlainTokenizeToTextBlocksPipe implements TokenizeToTextBlocksPipe {
    */
   protected int numTokenizedTextBlocks;
 
+  /**
+   * The text block whose bounding box is stored in {@link #textBlockBox}.
+   */
+  protected TextBlock boxedTextBlock;
+
+  /**
+   * The bounding box of the first {@link #numBoxedTextLines} text lines of
+   * {@link #boxedTextBlock}. It is extended incrementally while lines are added to the text block,
+   * instead of being recomputed from all lines of the block for each line.
+   */
+  protected Rectangle textBlockBox;
+
+  /**
+   * The number of text lines covered by {@link #textBlockBox}.
+   */
+  protected int numBoxedTextLines;
+
   /**
    * The default constructor.
    */
   public PlainTokenizeToTextBlocksPipe() {
-    this.characterStatistician = new CharacterStatistician();
     this.textLineStatistician = new TextLineStatistician();
   }
 
@@ -68,32 +78,34 @@ public class PlainTokenizeToTextBlocksPipe implements TokenizeToTextBlocksPipe {
 
   @Override
   public Document execute(Document doc) throws PdfActException {
+    this.trace = doc.getTracer(TraceChannel.BLOCK_DETECTION);
+
     tokenizeToTextBlocks(doc);
 
     // Print the debug info for line detection here (and not in PlainTokenizeToTextLines.class),
     // because the text of text lines is only known after words were detected.
-    if (log.isDebugEnabled()) {
+    if (this.trace.isEnabled()) {
       for (Page page : doc.getPages()) {
-        log.debug("==================== Page %d ====================", page.getPageNumber());
+        this.trace.trace("==================== Page %d ====================", page.getPageNumber());
         for (TextBlock block : page.getTextBlocks()) {
-          log.debug("-------------------------------------------");
-          log.debug("Detected text block: \"%s\"", block.getText());
-          log.debug("... page:            %d", block.getPosition().getPageNumber());
+          this.trace.trace("-------------------------------------------");
+          this.trace.trace("Detected text block: \"%s\"", block.getText());
+          this.trace.trace("... page:            %d", block.getPosition().getPageNumber());
           float x1 = block.getPosition().getRectangle().getMinX();
           float y1 = block.getPosition().getRectangle().getMinY();
           float x2 = block.getPosition().getRectangle().getMaxX();
           float y2 = block.getPosition().getRectangle().getMaxY();
-          log.debug("... bounding box:    [%.1f, %.1f, %.1f, %.1f]", x1, y1, x2, y2);
+          this.trace.trace("... bounding box:    [%.1f, %.1f, %.1f, %.1f]", x1, y1, x2, y2);
           FontFace fontFace = block.getCharacterStatistic().getMostCommonFontFace();
-          log.debug("... main font:       %s", fontFace.getFont().getBaseName());
-          log.debug("... main fontsize:   %.1fpt", fontFace.getFontSize());
+          this.trace.trace("... main font:       %s", fontFace.getFont().getBaseName());
+          this.trace.trace("... main fontsize:   %.1fpt", fontFace.getFontSize());
           float avgFontsize = block.getCharacterStatistic().getAverageFontsize();
-          log.debug("... avg. fontsize:   %.1fpt", avgFontsize);
-          log.debug("... mainly bold:     %s", fontFace.getFont().isBold());
-          log.debug("... mainly italic:   %s", fontFace.getFont().isItalic());
-          log.debug("... mainly type3:    %s", fontFace.getFont().isType3Font());
+          this.trace.trace("... avg. fontsize:   %.1fpt", avgFontsize);
+          this.trace.trace("... mainly bold:     %s", fontFace.getFont().isBold());
+          this.trace.trace("... mainly italic:   %s", fontFace.getFont().isItalic());
+          this.trace.trace("... mainly type3:    %s", fontFace.getFont().isType3Font());
           Color color = block.getCharacterStatistic().getMostCommonColor();
-          log.debug("... main RGB color:  %s", Arrays.toString(color.getRGB()));
+          this.trace.trace("... main RGB color:  %s", Arrays.toString(color.getRGB()));
         }
       }
     }
@@ -125,7 +137,10 @@ public class PlainTokenizeToTextBlocksPipe implements TokenizeToTextBlocksPipe {
         continue;
       }
 
-      log.debug("====================== Page %d ======================", page.getPageNumber());
+      if (this.trace.isEnabled()) {
+        this.trace.trace("====================== Page %d ======================",
+            page.getPageNumber());
+      }
       page.setTextBlocks(tokenizeToTextBlocks(pdf, page));
     }
   }
@@ -144,7 +159,7 @@ public class PlainTokenizeToTextBlocksPipe implements TokenizeToTextBlocksPipe {
    */
   protected ElementList<TextBlock> tokenizeToTextBlocks(Document pdf, Page page)
           throws PdfActException {
-    ElementList<TextBlock> textBlocks = new ElementList<>();
+    ElementList<TextBlock> textBlocks = new PlainElementList<>();
     TextBlock textBlock = new TextBlock();
 
     ElementList<TextLine> lines = page.getTextLines();
@@ -173,10 +188,9 @@ public class PlainTokenizeToTextBlocksPipe implements TokenizeToTextBlocksPipe {
 
     // Iterate through the text blocks in order to compute their properties.
     for (TextBlock block : textBlocks) {
-      block.setCharacterStatistic(computeCharacterStatistic(block));
       block.setTextLineStatistic(computeTextLineStatistic(block));
       block.setPosition(computePosition(page, block));
-      block.setText(computeText(block));
+      block.setTextView(computeText(block));
     }
 
     this.numTokenizedTextBlocks += textBlocks.size();
@@ -186,17 +200,6 @@ public class PlainTokenizeToTextBlocksPipe implements TokenizeToTextBlocksPipe {
 
   // ==============================================================================================
 
-  /**
-   * Computes the character statistic for the given text block.
-   *
-   * @param block The text block to process.
-   *
-   * @return The character statistic for the given text block.
-   */
-  protected CharacterStatistic computeCharacterStatistic(TextBlock block) {
-    return this.characterStatistician.aggregate(block.getTextLines());
-  }
-
   /**
    * Computes the text line statistic for the given text block.
    *
@@ -222,13 +225,14 @@ public class PlainTokenizeToTextBlocksPipe implements TokenizeToTextBlocksPipe {
   }
 
   /**
-   * Computes the text for the given text block.
+   * Computes the text for the given text block. If the texts of the text lines are consecutive
+   * views on the text of the page, the text is a view on the same characters.
    *
    * @param block The text block to process.
    * @return The text for the given text block.
    */
-  protected String computeText(TextBlock block) {
-    return PdfActUtils.join(block.getTextLines(), " ");
+  protected CharSequence computeText(TextBlock block) {
+    return TextView.join(block.getTextLines(), ' ');
   }
 
   // ==============================================================================================
@@ -252,88 +256,92 @@ public class PlainTokenizeToTextBlocksPipe implements TokenizeToTextBlocksPipe {
       return false;
     }
 
-    log.debug("-----------------------------------------------------");
-    log.debug("Text line: \"%s\" ...", line.getText());
-    log.debug("... page: %d", page.getPageNumber());
+    this.trace.trace("-----------------------------------------------------");
+    if (this.trace.isEnabled()) {
+      this.trace.trace("Text line: \"%s\" ...", line.getText());
+      this.trace.trace("... page: %d", page.getPageNumber());
+    }
 
     // The line introduces a text block, if there is no previous line.
     if (prevLine == null) {
-      log.debug("The line introduces a new text block because no previous line exists.");
+      this.trace.trace("The line introduces a new text block because no previous line exists.");
       return true;
     }
 
     // The line introduces a text block, if there is no current text block.
     if (currentTextBlock == null) {
-      log.debug("The line introduces a new text block because there is no current text block.");
+      this.trace.trace("The line introduces a new text block because there is no current "
+          + "text block.");
       return true;
     }
 
     // The line does *not* introduce a text block, if the current text block is
     // empty.
     if (currentTextBlock.getTextLines().isEmpty()) {
-      log.debug("The line introduces *no* new text block because the current text block is empty.");
+      this.trace.trace("The line introduces *no* new text block because the current text "
+          + "block is empty.");
       return false;
     }
 
     // The line introduces a text block, if it doesn't overlap the text block horizontally.
-    log.debug("Has the line a horizontal overlap with the current text block?");
+    this.trace.trace("Has the line a horizontal overlap with the current text block?");
     if (!overlapsHorizontally(currentTextBlock, line)) {
-      log.debug("--> no; the line introduces a new text block.");
+      this.trace.trace("--> no; the line introduces a new text block.");
       return true;
     } else {
-      log.debug("--> yes.");
+      this.trace.trace("--> yes.");
     }
 
     // The line introduces a new text block, if the line pitch between the
     // line and the previous line is larger than expected.
-    log.debug("Is the line pitch to the previous line larger than expected?");
+    this.trace.trace("Is the line pitch to the previous line larger than expected?");
     if (isLinepitchLargerThanExpected(pdf, page, prevLine, line)) {
-      log.debug("--> yes; the line introduces a new text block.");
+      this.trace.trace("--> yes; the line introduces a new text block.");
       return true;
     } else {
-      log.debug("--> no.");
+      this.trace.trace("--> no.");
     }
 
     // The line introduces a new text block, if the line pitch between the
     // line and the previous line is larger than the line pitch between the
     // line and the next line.
-    log.debug("Is the line pitch to the previous line larger than to the next line?");
+    this.trace.trace("Is the line pitch to the previous line larger than to the next line?");
     if (isLinePitchLargerThanNextLinePitch(prevLine, line, nextLine)) {
-      log.debug("--> yes; the line introduces a new text block.");
+      this.trace.trace("--> yes; the line introduces a new text block.");
       return true;
     } else {
-      log.debug("--> no.");
+      this.trace.trace("--> no.");
     }
 
     // The line introduces a text block, if it is indented compared to the
     // previous and the next line.
-    log.debug("Is the line indented?");
+    this.trace.trace("Is the line indented?");
     if (isIndented(prevLine, line, nextLine)) {
-      log.debug("--> yes; the line introduces a new text block.");
+      this.trace.trace("--> yes; the line introduces a new text block.");
       return true;
     } else {
-      log.debug("--> no.");
+      this.trace.trace("--> no.");
     }
 
     // The line introduces a text block, if it has a special font face.
-    log.debug("Has the line a different font face than the previous line?");
+    this.trace.trace("Has the line a different font face than the previous line?");
     if (hasSignificantDifferentFontFace(prevLine, line)) {
-      log.debug("--> yes; the line introduces a new text block");
+      this.trace.trace("--> yes; the line introduces a new text block");
       return true;
     } else {
-      log.debug("--> no");
+      this.trace.trace("--> no");
     }
 
     // The line introduces a text block, if it is the start of a reference.
-    log.debug("Is the line a start of a reference?");
+    this.trace.trace("Is the line a start of a reference?");
     if (isProbablyReferenceStart(prevLine, line, nextLine)) {
-      log.debug("--> yes; the line introduces a new text block");
+      this.trace.trace("--> yes; the line introduces a new text block");
       return true;
     } else {
-      log.debug("--> no");
+      this.trace.trace("--> no");
     }
 
-    log.debug("The line introduces *no* new text block because no rule applied.");
+    this.trace.trace("The line introduces *no* new text block because no rule applied.");
     return false;
   }
 
@@ -349,19 +357,46 @@ public class PlainTokenizeToTextBlocksPipe implements TokenizeToTextBlocksPipe {
       return false;
     }
 
-    ElementList<TextLine> lines = block.getTextLines();
-    Rectangle blockBox = Rectangle.fromHasPositionElements(lines);
+    Rectangle blockBox = computeBoundingBox(block);
     Rectangle lineBox = line.getPosition().getRectangle();
     if (blockBox == null || lineBox == null) {
       return false;
     }
 
-    log.debug("... x-interval of text block: [%.1f, %.1f]", blockBox.getMinX(), blockBox.getMaxX());
-    log.debug("... x-interval of text line:  [%.1f, %.1f]", lineBox.getMinX(), lineBox.getMaxX());
+    if (this.trace.isEnabled()) {
+      this.trace.trace("... x-interval of text block: [%.1f, %.1f]",
+          blockBox.getMinX(), blockBox.getMaxX());
+      this.trace.trace("... x-interval of text line:  [%.1f, %.1f]",
+          lineBox.getMinX(), lineBox.getMaxX());
+    }
 
     return blockBox.overlapsHorizontally(lineBox);
   }
 
+  /**
+   * Computes the bounding box of the given text block. If the text block is the same as in the
+   * previous call and lines were only appended since, the previous bounding box is extended by
+   * the appended lines.
+   *
+   * @param block The text block to process.
+   *
+   * @return The bounding box of the given text block.
+   */
+  protected Rectangle computeBoundingBox(TextBlock block) {
+    ElementList<TextLine> lines = block.getTextLines();
+    if (block != this.boxedTextBlock || lines.size() < this.numBoxedTextLines) {
+      this.boxedTextBlock = block;
+      this.textBlockBox = Rectangle.fromHasPositionElements(lines);
+      this.numBoxedTextLines = lines.size();
+      return this.textBlockBox;
+    }
+    for (int i = this.numBoxedTextLines; i < lines.size(); i++) {
+      this.textBlockBox.extend(lines.get(i).getPosition().getRectangle());
+    }
+    this.numBoxedTextLines = lines.size();
+    return this.textBlockBox;
+  }
+
   /**
    * Checks if the line pitch between the given line and the given previous line is larger than
    * expected (larger than the most common line pitch for the font / font size pair of the given
@@ -374,7 +409,7 @@ public class PlainTokenizeToTextBlocksPipe implements TokenizeToTextBlocksPipe {
    * @return True, if the line pitch between the given text line and the given previous text line is
    *         larger than usual; False otherwise.
    */
-  protected static boolean isLinepitchLargerThanExpected(Document pdf, Page page, TextLine prevLine,
+  protected boolean isLinepitchLargerThanExpected(Document pdf, Page page, TextLine prevLine,
           TextLine line) {
     if (pdf == null) {
       return false;
@@ -388,8 +423,10 @@ public class PlainTokenizeToTextBlocksPipe implements TokenizeToTextBlocksPipe {
     float expectedLinePitch = textLineStats.getMostCommonLinePitch(fontFace);
     float actualLinePitch = computeLinePitch(prevLine, line);
 
-    log.debug("... actual line pitch:   %.1fpt", actualLinePitch);
-    log.debug("... expected line pitch: %.1fpt", expectedLinePitch);
+    if (this.trace.isEnabled()) {
+      this.trace.trace("... actual line pitch:   %.1fpt", actualLinePitch);
+      this.trace.trace("... expected line pitch: %.1fpt", expectedLinePitch);
+    }
 
 
     if (actualLinePitch - expectedLinePitch > 1.5f) {
@@ -409,13 +446,15 @@ public class PlainTokenizeToTextBlocksPipe implements TokenizeToTextBlocksPipe {
    * @return True, if the line pitch between the given line and its previous line is larger than the
    *         line pitch between the given line and its next line, flase otherwise.
    */
-  protected static boolean isLinePitchLargerThanNextLinePitch(TextLine prevLine, TextLine line,
+  protected boolean isLinePitchLargerThanNextLinePitch(TextLine prevLine, TextLine line,
           TextLine nextLine) {
     float linePitch = computeLinePitch(prevLine, line);
     float nextLinePitch = computeLinePitch(line, nextLine);
 
-    log.debug("... line pitch to previous line: %.1f", linePitch);
-    log.debug("... line pitch to next line:     %.1f", nextLinePitch);
+    if (this.trace.isEnabled()) {
+      this.trace.trace("... line pitch to previous line: %.1f", linePitch);
+      this.trace.trace("... line pitch to next line:     %.1f", nextLinePitch);
+    }
 
     return linePitch - nextLinePitch > 1;
   }
@@ -454,16 +493,18 @@ public class PlainTokenizeToTextBlocksPipe implements TokenizeToTextBlocksPipe {
     float prevMinX = prevLine.getPosition().getRectangle().getMinX();
     float minX = line.getPosition().getRectangle().getMinX();
     float nextMinX = nextLine.getPosition().getRectangle().getMinX();
-    log.debug("... minX of previous line: %.1f", prevMinX);
-    log.debug("... minX of current line:  %.1f", minX);
-    log.debug("... minX of next line:     %.1f", nextMinX);
+    if (this.trace.isEnabled()) {
+      this.trace.trace("... minX of previous line: %.1f", prevMinX);
+      this.trace.trace("... minX of current line:  %.1f", minX);
+      this.trace.trace("... minX of next line:     %.1f", nextMinX);
+    }
 
     if (isMinXEqual) {
       if (isIndentedToPrevLine) {
-        log.debug("... (current line is indented compared to the previous line).");
+        this.trace.trace("... (current line is indented compared to the previous line).");
       }
       if (isIndentedToNextLine) {
-        log.debug("... (current line is indented compared to the next line).");
+        this.trace.trace("... (current line is indented compared to the next line).");
       }
     }
 
@@ -520,7 +561,7 @@ public class PlainTokenizeToTextBlocksPipe implements TokenizeToTextBlocksPipe {
    * @param line     The line to process.
    * @return True, if the given line has a special font face, False otherwise.
    */
-  protected static boolean hasSignificantDifferentFontFace(TextLine prevLine, TextLine line) {
+  protected boolean hasSignificantDifferentFontFace(TextLine prevLine, TextLine line) {
     if (prevLine == null || line == null) {
       return false;
     }
@@ -545,8 +586,10 @@ public class PlainTokenizeToTextBlocksPipe implements TokenizeToTextBlocksPipe {
       return false;
     }
 
-    log.debug("... font face of previous line: %s", prevLineFontFace);
-    log.debug("... font face of current line:  %s", lineFontFace);
+    if (this.trace.isEnabled()) {
+      this.trace.trace("... font face of previous line: %s", prevLineFontFace);
+      this.trace.trace("... font face of current line:  %s", lineFontFace);
+    }
 
     String prevLineFontFamilyName = prevLineFont.getFontFamilyName();
     String lineFontFamilyName = lineFont.getFontFamilyName();
@@ -637,7 +680,7 @@ public class PlainTokenizeToTextBlocksPipe implements TokenizeToTextBlocksPipe {
       return false;
     }
 
-    String text = line.getText();
+    CharSequence text = line.getTextView();
     if (text == null) {
       return false;
     }
@@ -1,6 +1,5 @@
 package pdfact.core.pipes.tokenize.lines;
 
-import java.util.Collections;
 import java.util.List;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -13,14 +12,16 @@ import pdfact.core.model.Position;
 import pdfact.core.model.Rectangle;
 import pdfact.core.model.TextArea;
 import pdfact.core.model.TextLine;
-import pdfact.core.util.comparator.MinXComparator;
 import pdfact.core.util.counter.FloatCounter;
 import pdfact.core.util.exception.PdfActException;
 import pdfact.core.util.lexicon.CharacterLexicon;
 import pdfact.core.util.list.ElementList;
+import pdfact.core.util.list.PlainElementList;
+import pdfact.core.util.sort.PositionSorter;
 import pdfact.core.util.statistician.CharacterStatistician;
 import pdfact.core.util.statistician.TextLineStatistician;
 import pdfact.core.util.xycut.XYCut;
+import pdfact.core.util.xycut.XYCutSweep;
 
 /**
  * A plain implementation of {@link TokenizeToTextLinesPipe}.
@@ -113,7 +114,7 @@ public class PlainTokenizeToTextLinesPipe extends XYCut implements TokenizeToTex
    */
   protected ElementList<TextLine> tokenizeToTextLines(Document pdf, Page page)
           throws PdfActException {
-    ElementList<TextLine> result = new ElementList<>();
+    ElementList<TextLine> result = new PlainElementList<>();
 
     for (TextArea area : page.getTextAreas()) {
       ElementList<Character> characters = area.getCharacters();
@@ -126,7 +127,6 @@ public class PlainTokenizeToTextLinesPipe extends XYCut implements TokenizeToTex
         TextLine textLine = new TextLine();
         textLine.setCharacters(charList);
         textLine.setBaseline(computeBaseline(charList));
-        textLine.setCharacterStatistic(computeCharacterStatistic(charList));
         textLine.setPosition(computePosition(page, charList));
         result.add(textLine);
       }
@@ -150,7 +150,7 @@ public class PlainTokenizeToTextLinesPipe extends XYCut implements TokenizeToTex
     FloatCounter minYCounter = new FloatCounter();
 
     if (characters != null && !characters.isEmpty()) {
-      Collections.sort(characters, new MinXComparator());
+      PositionSorter.sortByMinX(characters);
 
       float minX = Float.MAX_VALUE;
       float maxX = -Float.MAX_VALUE;
@@ -172,16 +172,6 @@ public class PlainTokenizeToTextLinesPipe extends XYCut implements TokenizeToTex
     return baseLine;
   }
 
-  /**
-   * Computes the character statistics for the given text line.
-   * 
-   * @param chars The characters to process.
-   * @return The character statistics for the given text line.
-   */
-  protected CharacterStatistic computeCharacterStatistic(ElementList<Character> chars) {
-    return this.characterStatistician.compute(chars);
-  }
-
   /**
    * Computes the position for the given text line.
    * 
@@ -201,6 +191,11 @@ public class PlainTokenizeToTextLinesPipe extends XYCut implements TokenizeToTex
     return -1;
   }
 
+  @Override
+  protected float assessVerticalCut(Document pdf, Page page, XYCutSweep sweep, int index) {
+    return -1;
+  }
+
   // ==============================================================================================
 
   @Override
@@ -215,4 +210,13 @@ public class PlainTokenizeToTextLinesPipe extends XYCut implements TokenizeToTex
 
     return upperMinY - lowerMaxY;
   }
+
+  @Override
+  protected float assessHorizontalCut(Document pdf, Page page, XYCutSweep sweep, int index) {
+    // Same as above, but with the extrema of the halves looked up from the sweep.
+    float upperMinY = sweep.getHeadSmallestMinY(index);
+    float lowerMaxY = sweep.getTailLargestMaxY(index);
+
+    return upperMinY - lowerMaxY;
+  }
 }
@@ -3,12 +3,9 @@ package pdfact.core.pipes.tokenize.paragraphs;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
 import gnu.trove.set.TIntSet;
 import gnu.trove.set.hash.TIntHashSet;
 import pdfact.core.model.Character;
-import pdfact.core.model.CharacterStatistic;
 import pdfact.core.model.Color;
 import pdfact.core.model.Document;
 import pdfact.core.model.FontFace;
@@ -19,12 +16,14 @@ import pdfact.core.model.SemanticRole;
 import pdfact.core.model.TextBlock;
 import pdfact.core.model.TextLine;
 import pdfact.core.model.Word;
-import pdfact.core.util.PdfActUtils;
 import pdfact.core.util.exception.PdfActException;
 import pdfact.core.util.lexicon.CharacterLexicon;
 import pdfact.core.util.list.ElementList;
-import pdfact.core.util.statistician.CharacterStatistician;
+import pdfact.core.util.list.PlainElementList;
 import pdfact.core.util.statistician.TextLineStatistician;
+import pdfact.core.util.text.TextView;
+import pdfact.core.util.trace.TraceChannel;
+import pdfact.core.util.trace.Tracer;
 
 /**
  * A plain implementation of {@link TokenizeToParagraphsPipe}.
@@ -33,14 +32,9 @@ import pdfact.core.util.statistician.TextLineStatistician;
  */
 public class PlainTokenizeToParagraphsPipe implements TokenizeToParagraphsPipe {
   /**
-   * The logger.
+   * The tracer to trace debug info about the detection of paragraphs.
    */
-  protected static Logger log = LogManager.getFormatterLogger("paragraph-detection");
-
-  /**
-   * The statistician to compute statistics about characters.
-   */
-  protected CharacterStatistician characterStatistician;
+  protected Tracer trace = Tracer.DISABLED;
 
   /**
    * The statistician to compute statistics about text lines.
@@ -61,39 +55,40 @@ public class PlainTokenizeToParagraphsPipe implements TokenizeToParagraphsPipe {
    * Creates a new pipe that tokenizes the text blocks of a PDF document into paragraphs.
    */
   public PlainTokenizeToParagraphsPipe() {
-    this.characterStatistician = new CharacterStatistician();
     this.textLineStatistician = new TextLineStatistician();
   }
 
   @Override
   public Document execute(Document pdf) throws PdfActException {
+    this.trace = pdf.getTracer(TraceChannel.PARAGRAPH_DETECTION);
+
     tokenizeToParagraphs(pdf);
 
-    if (log.isDebugEnabled()) {
+    if (this.trace.isEnabled()) {
       for (Paragraph paragraph : pdf.getParagraphs()) {
-        log.debug("-------------------------------------------");
-        log.debug("Detected paragraph: \"%s\"", paragraph.getText());
+        this.trace.trace("-------------------------------------------");
+        this.trace.trace("Detected paragraph: \"%s\"", paragraph.getText());
         for (int i = 0; i < paragraph.getPositions().size(); i++) {
           Position pos = paragraph.getPositions().get(i);
-          log.debug("... page[%d]:         %d", i, pos.getPageNumber());
+          this.trace.trace("... page[%d]:         %d", i, pos.getPageNumber());
           float x1 = pos.getRectangle().getMinX();
           float y1 = pos.getRectangle().getMinY();
           float x2 = pos.getRectangle().getMaxX();
           float y2 = pos.getRectangle().getMaxY();
-          log.debug("... bounding box[%d]: [%.1f, %.1f, %.1f, %.1f]", i, x1, y1, x2, y2);
+          this.trace.trace("... bounding box[%d]: [%.1f, %.1f, %.1f, %.1f]", i, x1, y1, x2, y2);
         }
         
         FontFace fontFace = paragraph.getCharacterStatistic().getMostCommonFontFace();
-        log.debug("... main font:       %s", fontFace.getFont().getBaseName());
-        log.debug("... main fontsize:   %.1fpt", fontFace.getFontSize());
+        this.trace.trace("... main font:       %s", fontFace.getFont().getBaseName());
+        this.trace.trace("... main fontsize:   %.1fpt", fontFace.getFontSize());
         float avgFontsize = paragraph.getCharacterStatistic().getAverageFontsize();
-        log.debug("... avg. fontsize:   %.1fpt", avgFontsize);
-        log.debug("... mainly bold:     %s", fontFace.getFont().isBold());
-        log.debug("... mainly italic:   %s", fontFace.getFont().isItalic());
-        log.debug("... mainly type3:    %s", fontFace.getFont().isType3Font());
+        this.trace.trace("... avg. fontsize:   %.1fpt", avgFontsize);
+        this.trace.trace("... mainly bold:     %s", fontFace.getFont().isBold());
+        this.trace.trace("... mainly italic:   %s", fontFace.getFont().isItalic());
+        this.trace.trace("... mainly type3:    %s", fontFace.getFont().isType3Font());
         Color color = paragraph.getCharacterStatistic().getMostCommonColor();
-        log.debug("... main RGB color:  %s", Arrays.toString(color.getRGB()));
-        log.debug("... role:            %s", paragraph.getSemanticRole());
+        this.trace.trace("... main RGB color:  %s", Arrays.toString(color.getRGB()));
+        this.trace.trace("... role:            %s", paragraph.getSemanticRole());
       }
     }
     
@@ -109,7 +104,7 @@ public class PlainTokenizeToParagraphsPipe implements TokenizeToParagraphsPipe {
    *        The PDF document to process.
    */
   protected void tokenizeToParagraphs(Document pdf) {
-    ElementList<Paragraph> paragraphs = new ElementList<>();
+    ElementList<Paragraph> paragraphs = new PlainElementList<>();
 
     // Segment the PDF document into paragraphs.
     List<List<TextBlock>> segments = segmentIntoParagraphs(pdf);
@@ -122,10 +117,9 @@ public class PlainTokenizeToParagraphsPipe implements TokenizeToParagraphsPipe {
           paragraph.addWords(line.getWords());
         }
       }
-      paragraph.setText(computeText(paragraph));
+      paragraph.setTextView(computeText(paragraph));
       paragraph.setPositions(computePositions(segment));
       paragraph.setSemanticRole(computeRole(segment));
-      paragraph.setCharacterStatistic(computeCharacterStatistic(paragraph));
       paragraphs.add(paragraph);
     }
 
@@ -141,8 +135,8 @@ public class PlainTokenizeToParagraphsPipe implements TokenizeToParagraphsPipe {
    *        The paragraph to process.
    * @return The text for the given paragraph.
    */
-  protected String computeText(Paragraph p) {
-    return PdfActUtils.join(p.getWords(), " ");
+  protected CharSequence computeText(Paragraph p) {
+    return TextView.join(p.getWords(), ' ');
   }
 
   /**
@@ -177,18 +171,6 @@ public class PlainTokenizeToParagraphsPipe implements TokenizeToParagraphsPipe {
     return blocks.get(0).getSemanticRole();
   }
 
-  /**
-   * Computes the statistic about the characters of the given paragraph.
-   * 
-   * @param paragraph
-   *        The paragraph to process.
-   * 
-   * @return The statistic.
-   */
-  protected CharacterStatistic computeCharacterStatistic(Paragraph paragraph) {
-    return this.characterStatistician.aggregate(paragraph.getWords());
-  }
-
   // ==============================================================================================
 
   /**
@@ -269,25 +251,32 @@ public class PlainTokenizeToParagraphsPipe implements TokenizeToParagraphsPipe {
       return false;
     } 
     
-    log.debug("-----------------------------------------------------");
-    log.debug("Text block: \"%s\" ...", block.getText());
+    if (this.trace.isEnabled()) {
+      this.trace.trace("-----------------------------------------------------");
+      this.trace.trace("Text block: \"%s\" ...", block.getText());
+    }
 
     if (paraBlocks == null || paraBlocks.isEmpty()) {
-      log.debug("... does *not* belong to the prev. paragraph because there is no prev. paragraph");
+      this.trace.trace("... does *not* belong to the prev. paragraph because there is no prev. "
+          + "paragraph");
       return false;
     }
 
     TextBlock lastParaBlock = paraBlocks.get(paraBlocks.size() - 1);
-    log.debug("... page:                          %s", block.getPosition().getPageNumber());
-    log.debug("... bounding box:                  %s", block.getPosition().getRectangle());
-    log.debug("... last block of prev. paragraph: %s", lastParaBlock.getText());
+    if (this.trace.isEnabled()) {
+      this.trace.trace("... page:                          %s",
+          block.getPosition().getPageNumber());
+      this.trace.trace("... bounding box:                  %s",
+          block.getPosition().getRectangle());
+      this.trace.trace("... last block of prev. paragraph: %s", lastParaBlock.getText());
+    }
 
     // The block belongs to the paragraph, if the paragraph doesn't end with a terminating 
     // punctuation mark.
     Word word = lastParaBlock.getLastTextLine().getLastWord();
     Character lastChar = word != null ? word.getLastCharacter() : null;
     if (!CharacterLexicon.isTerminatingPunctuationMark(lastChar)) {
-      log.debug("... belongs to prev. paragraph:    true (the prev. paragraph doesn't end "
+      this.trace.trace("... belongs to prev. paragraph:    true (the prev. paragraph doesn't end "
          + "with a terminating punctuation mark).");
       return true;
     }
@@ -296,11 +285,11 @@ public class PlainTokenizeToParagraphsPipe implements TokenizeToParagraphsPipe {
     // lowercased letter.
     Word firstWord = block.getFirstTextLine().getFirstWord();
     if (CharacterLexicon.isLowercase(firstWord.getFirstCharacter())) {
-      log.debug("... belongs to prev. paragraph:    true (the block starts lowercased).");
+      this.trace.trace("... belongs to prev. paragraph:    true (the block starts lowercased).");
       return true;
     }
 
-    log.debug("... belongs to prev. paragraph:    false (no rule applied).");
+    this.trace.trace("... belongs to prev. paragraph:    false (no rule applied).");
 
     return false;
   }
@@ -0,0 +1,199 @@
+package pdfact.core.pipes.tokenize.words;
+
+import java.util.ArrayList;
+import java.util.List;
+import pdfact.core.model.Character;
+import pdfact.core.model.CharacterStatistic;
+import pdfact.core.model.Document;
+import pdfact.core.model.FontFace;
+import pdfact.core.model.Page;
+import pdfact.core.model.Rectangle;
+import pdfact.core.model.TextLine;
+import pdfact.core.util.exception.PdfActException;
+import pdfact.core.util.list.ElementList;
+import pdfact.core.util.sort.PositionSorter;
+
+/**
+ * An implementation of {@link TokenizeToWordsPipe} that segments each text line into words in a
+ * single pass over its characters, sorted by minX, instead of cutting the line recursively by
+ * XYCut (the words are packed the same way as in {@link XYCutTokenizeToWordsPipe}).
+ *
+ * <p>
+ * In the sorted order, the smallest minX of all characters right to a position is the minX of the
+ * character at this position, so the gap of a cut is the difference between this minX and the
+ * running maximum of the maxX values. A word boundary is assumed at each gap that is at least as
+ * wide as the gap threshold of the line. With a threshold of 1pt for all lines, this yields the
+ * same words as XYCut; the threshold used here is adapted to the font size of the line and to the
+ * typical width of a word space in the document: half of the most common word space (relative to
+ * the font size, estimated from all lines of the document), but at least 1pt.
+ *
+ * @author Claudius Korzen
+ */
+public class LinearTokenizeToWordsPipe extends XYCutTokenizeToWordsPipe {
+  /**
+   * The minimum width of a gap between two words, in pt.
+   */
+  protected static final float MIN_GAP_WIDTH = 1f;
+
+  /**
+   * The smallest gap (relative to the font size) considered as a candidate for a word space on
+   * estimating the most common word space.
+   */
+  protected static final float MIN_WORD_SPACE = 0.15f;
+
+  /**
+   * The largest gap (relative to the font size) considered as a candidate for a word space on
+   * estimating the most common word space.
+   */
+  protected static final float MAX_WORD_SPACE = 0.6f;
+
+  /**
+   * The word space (relative to the font size) to assume if there are no candidates for word
+   * spaces in the document.
+   */
+  protected static final float DEFAULT_WORD_SPACE = 0.25f;
+
+  /**
+   * The resolution of the histogram of the word space candidates (relative to the font size).
+   */
+  protected static final float WORD_SPACE_RESOLUTION = 0.01f;
+
+  /**
+   * The ratio of the gap threshold to the most common word space.
+   */
+  protected static final float GAP_THRESHOLD_RATIO = 0.5f;
+
+  // ==============================================================================================
+
+  @Override
+  protected void tokenizeToWords(Document pdf) throws PdfActException {
+    if (pdf == null) {
+      return;
+    }
+
+    // Estimate the word space once per document (instead of once per text line).
+    float wordSpace = computeMostCommonWordSpace(pdf);
+    for (Page page : pdf.getPages()) {
+      for (TextLine line : page.getTextLines()) {
+        setWords(line, toWords(page, segment(line, line.getCharacters(), wordSpace)));
+      }
+    }
+  }
+
+  /**
+   * Segments the characters of the given text line into the characters of the words. As the most
+   * common word space is estimated from the whole document on each call, use
+   * {@link #execute(Document)} to tokenize all text lines of a document.
+   */
+  @Override
+  protected List<ElementList<Character>> segment(Document pdf, Page page, TextLine line,
+      ElementList<Character> characters) {
+    return segment(line, characters, computeMostCommonWordSpace(pdf));
+  }
+
+  /**
+   * Segments the characters of the given text line into the characters of the words.
+   *
+   * @param line       The text line to process.
+   * @param characters The characters of the text line.
+   * @param wordSpace  The most common word space in the document, relative to the font size.
+   *
+   * @return The characters of the words, in reading order.
+   */
+  protected List<ElementList<Character>> segment(TextLine line,
+      ElementList<Character> characters, float wordSpace) {
+    List<ElementList<Character>> result = new ArrayList<>();
+    if (characters == null || characters.isEmpty()) {
+      return result;
+    }
+
+    PositionSorter.sortByMinX(characters);
+
+    float threshold = computeGapThreshold(line, wordSpace);
+    int wordStart = 0;
+    float maxX = characters.get(0).getPosition().getRectangle().getMaxX();
+    for (int i = 1; i < characters.size(); i++) {
+      Rectangle rect = characters.get(i).getPosition().getRectangle();
+      if (rect.getMinX() - maxX >= threshold) {
+        result.add(characters.subList(wordStart, i));
+        wordStart = i;
+      }
+      maxX = Math.max(maxX, rect.getMaxX());
+    }
+    result.add(characters.subList(wordStart, characters.size()));
+
+    return result;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Computes the threshold for the gaps between the words of the given text line.
+   *
+   * @param line      The text line to process.
+   * @param wordSpace The most common word space in the document, relative to the font size.
+   *
+   * @return The threshold, in pt.
+   */
+  protected float computeGapThreshold(TextLine line, float wordSpace) {
+    float fontSize = getFontSize(line);
+    return Math.max(MIN_GAP_WIDTH, GAP_THRESHOLD_RATIO * wordSpace * fontSize);
+  }
+
+  /**
+   * Estimates the most common word space (relative to the font size) in the given document, from
+   * a histogram of the gaps between the characters of all text lines.
+   *
+   * @param pdf The PDF document to process.
+   *
+   * @return The most common word space, relative to the font size.
+   */
+  protected float computeMostCommonWordSpace(Document pdf) {
+    int minBin = Math.round(MIN_WORD_SPACE / WORD_SPACE_RESOLUTION);
+    int maxBin = Math.round(MAX_WORD_SPACE / WORD_SPACE_RESOLUTION);
+    int[] histogram = new int[maxBin + 1];
+
+    for (Page page : pdf.getPages()) {
+      for (TextLine line : page.getTextLines()) {
+        float fontSize = getFontSize(line);
+        ElementList<Character> characters = line.getCharacters();
+        if (fontSize <= 0 || characters == null || characters.size() < 2) {
+          continue;
+        }
+
+        PositionSorter.sortByMinX(characters);
+
+        float maxX = characters.get(0).getPosition().getRectangle().getMaxX();
+        for (int i = 1; i < characters.size(); i++) {
+          Rectangle rect = characters.get(i).getPosition().getRectangle();
+          int bin = Math.round((rect.getMinX() - maxX) / fontSize / WORD_SPACE_RESOLUTION);
+          if (bin >= minBin && bin <= maxBin) {
+            histogram[bin]++;
+          }
+          maxX = Math.max(maxX, rect.getMaxX());
+        }
+      }
+    }
+
+    int mostCommonBin = -1;
+    for (int bin = minBin; bin <= maxBin; bin++) {
+      if (histogram[bin] > 0 && (mostCommonBin < 0 || histogram[bin] > histogram[mostCommonBin])) {
+        mostCommonBin = bin;
+      }
+    }
+    return mostCommonBin < 0 ? DEFAULT_WORD_SPACE : mostCommonBin * WORD_SPACE_RESOLUTION;
+  }
+
+  /**
+   * Returns the most common font size of the given text line.
+   *
+   * @param line The text line to process.
+   *
+   * @return The most common font size of the given text line, or 0 if it is unknown.
+   */
+  protected float getFontSize(TextLine line) {
+    CharacterStatistic stats = line.getCharacterStatistic();
+    FontFace fontFace = stats != null ? stats.getMostCommonFontFace() : null;
+    return fontFace != null ? fontFace.getFontSize() : 0;
+  }
+}
@@ -2,10 +2,7 @@ package pdfact.core.pipes.tokenize.words;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
 import pdfact.core.model.Character;
 import pdfact.core.model.CharacterStatistic;
 import pdfact.core.model.Color;
@@ -16,13 +13,18 @@ import pdfact.core.model.Position;
 import pdfact.core.model.Rectangle;
 import pdfact.core.model.TextLine;
 import pdfact.core.model.Word;
-import pdfact.core.util.PdfActUtils;
-import pdfact.core.util.comparator.MinXComparator;
 import pdfact.core.util.exception.PdfActException;
 import pdfact.core.util.lexicon.CharacterLexicon;
 import pdfact.core.util.list.ElementList;
+import pdfact.core.util.list.PlainElementList;
+import pdfact.core.util.sort.PositionSorter;
 import pdfact.core.util.statistician.CharacterStatistician;
+import pdfact.core.util.text.TextBuffer;
+import pdfact.core.util.text.TextView;
+import pdfact.core.util.trace.TraceChannel;
+import pdfact.core.util.trace.Tracer;
 import pdfact.core.util.xycut.XYCut;
+import pdfact.core.util.xycut.XYCutSweep;
 
 /**
  * An implementation of {@link TokenizeToWordsPipe} based on XYCut.
@@ -30,12 +32,6 @@ import pdfact.core.util.xycut.XYCut;
  * @author Claudius Korzen
  */
 public class XYCutTokenizeToWordsPipe extends XYCut implements TokenizeToWordsPipe {
-  /**
-   * The loggers.
-   */
-  protected static Logger llog = LogManager.getFormatterLogger("line-detection");
-  protected static Logger wlog = LogManager.getFormatterLogger("word-detection");
-
   /**
    * The statistician to compute statistics about characters.
    */
@@ -64,59 +60,62 @@ public class XYCutTokenizeToWordsPipe extends XYCut implements TokenizeToWordsPi
   public Document execute(Document doc) throws PdfActException {
     tokenizeToWords(doc);
 
+    Tracer lineTrace = doc.getTracer(TraceChannel.LINE_DETECTION);
+    Tracer wordTrace = doc.getTracer(TraceChannel.WORD_DETECTION);
+
     // Print the debug info for line detection here (and not in PlainTokenizeToTextLines.class),
     // because the text of text lines is only known after words were detected.
-    if (llog.isDebugEnabled()) {
+    if (lineTrace.isEnabled()) {
       for (Page page : doc.getPages()) {
-        llog.debug("==================== Page %d ====================", page.getPageNumber());
+        lineTrace.trace("==================== Page %d ====================", page.getPageNumber());
         for (TextLine line : page.getTextLines()) {
-          llog.debug("-------------------------------------------");
-          llog.debug("Detected text line:  \"%s\"", line.getText());
-          llog.debug("... page:            %d", line.getPosition().getPageNumber());
+          lineTrace.trace("-------------------------------------------");
+          lineTrace.trace("Detected text line:  \"%s\"", line.getText());
+          lineTrace.trace("... page:            %d", line.getPosition().getPageNumber());
           float x1 = line.getPosition().getRectangle().getMinX();
           float y1 = line.getPosition().getRectangle().getMinY();
           float x2 = line.getPosition().getRectangle().getMaxX();
           float y2 = line.getPosition().getRectangle().getMaxY();
-          llog.debug("... bounding box:    [%.1f, %.1f, %.1f, %.1f]", x1, y1, x2, y2);
+          lineTrace.trace("... bounding box:    [%.1f, %.1f, %.1f, %.1f]", x1, y1, x2, y2);
           FontFace fontFace = line.getCharacterStatistic().getMostCommonFontFace();
-          llog.debug("... main font:       %s", fontFace.getFont().getBaseName());
-          llog.debug("... main fontsize:   %.1fpt", fontFace.getFontSize());
+          lineTrace.trace("... main font:       %s", fontFace.getFont().getBaseName());
+          lineTrace.trace("... main fontsize:   %.1fpt", fontFace.getFontSize());
           float avgFontsize = line.getCharacterStatistic().getAverageFontsize();
-          llog.debug("... avg. fontsize:   %.1fpt", avgFontsize);
-          llog.debug("... mainly bold:     %s", fontFace.getFont().isBold());
-          llog.debug("... mainly italic:   %s", fontFace.getFont().isItalic());
-          llog.debug("... mainly type3:    %s", fontFace.getFont().isType3Font());
+          lineTrace.trace("... avg. fontsize:   %.1fpt", avgFontsize);
+          lineTrace.trace("... mainly bold:     %s", fontFace.getFont().isBold());
+          lineTrace.trace("... mainly italic:   %s", fontFace.getFont().isItalic());
+          lineTrace.trace("... mainly type3:    %s", fontFace.getFont().isType3Font());
           Color color = line.getCharacterStatistic().getMostCommonColor();
-          llog.debug("... main RGB color:  %s", Arrays.toString(color.getRGB()));
-          llog.debug("... baseline:        %s", line.getBaseline());
+          lineTrace.trace("... main RGB color:  %s", Arrays.toString(color.getRGB()));
+          lineTrace.trace("... baseline:        %s", line.getBaseline());
         }
       }
     }
 
-    if (wlog.isDebugEnabled()) {
+    if (wordTrace.isEnabled()) {
       for (Page page : doc.getPages()) {
-        wlog.debug("==================== Page %d ====================", page.getPageNumber());
+        wordTrace.trace("==================== Page %d ====================", page.getPageNumber());
         for (TextLine line : page.getTextLines()) {
           for (Word word : line.getWords()) {
-            wlog.debug("-------------------------------------------");
-            wlog.debug("Detected word:      \"%s\"", word.getText());
-            wlog.debug("... page:           %d", word.getFirstPosition().getPageNumber());
+            wordTrace.trace("-------------------------------------------");
+            wordTrace.trace("Detected word:      \"%s\"", word.getText());
+            wordTrace.trace("... page:           %d", word.getFirstPosition().getPageNumber());
             float x1 = word.getFirstPosition().getRectangle().getMinX();
             float y1 = word.getFirstPosition().getRectangle().getMinY();
             float x2 = word.getFirstPosition().getRectangle().getMaxX();
             float y2 = word.getFirstPosition().getRectangle().getMaxY();
-            wlog.debug("... bounding box:   [%.1f, %.1f, %.1f, %.1f]", x1, y1, x2, y2);        
+            wordTrace.trace("... bounding box:   [%.1f, %.1f, %.1f, %.1f]", x1, y1, x2, y2);        
             FontFace fontFace = word.getCharacterStatistic().getMostCommonFontFace();
-            wlog.debug("... main font:      %s", fontFace.getFont().getBaseName());
-            wlog.debug("... main fontsize:  %.1fpt", fontFace.getFontSize());
+            wordTrace.trace("... main font:      %s", fontFace.getFont().getBaseName());
+            wordTrace.trace("... main fontsize:  %.1fpt", fontFace.getFontSize());
             float avgFontsize = word.getCharacterStatistic().getAverageFontsize();
-            wlog.debug("... avg. fontsize:  %.1fpt", avgFontsize);
-            wlog.debug("... mainly bold:    %s", fontFace.getFont().isBold());
-            wlog.debug("... mainly italic:  %s", fontFace.getFont().isItalic());
-            wlog.debug("... mainly type3:   %s", fontFace.getFont().isType3Font());
+            wordTrace.trace("... avg. fontsize:  %.1fpt", avgFontsize);
+            wordTrace.trace("... mainly bold:    %s", fontFace.getFont().isBold());
+            wordTrace.trace("... mainly italic:  %s", fontFace.getFont().isItalic());
+            wordTrace.trace("... mainly type3:   %s", fontFace.getFont().isType3Font());
             Color color = word.getCharacterStatistic().getMostCommonColor();
-            wlog.debug("... main RGB color: %s", Arrays.toString(color.getRGB()));
-            wlog.debug("... hyphenated:     %s", word.isHyphenated());
+            wordTrace.trace("... main RGB color: %s", Arrays.toString(color.getRGB()));
+            wordTrace.trace("... hyphenated:     %s", word.isHyphenated());
           }
         }
       }
@@ -143,16 +142,27 @@ public class XYCutTokenizeToWordsPipe extends XYCut implements TokenizeToWordsPi
 
     for (Page page : pdf.getPages()) {
       for (TextLine line : page.getTextLines()) {
-        ElementList<Word> words = tokenizeToWords(pdf, page, line);
-        line.setWords(words);
-        line.setText(PdfActUtils.join(words, " "));
-
-        this.numProcessedTextLines++;
-        this.numTokenizedWords += words.size();
+        setWords(line, tokenizeToWords(pdf, page, line));
       }
     }
   }
 
+  /**
+   * Sets the given words as the words of the given text line.
+   * 
+   * @param line
+   *        The text line to process.
+   * @param words
+   *        The words of the text line.
+   */
+  protected void setWords(TextLine line, ElementList<Word> words) {
+    line.setWords(words);
+    line.setTextView(TextView.join(words, ' '));
+
+    this.numProcessedTextLines++;
+    this.numTokenizedWords += words.size();
+  }
+
   /**
    * Tokenizes the given text line into words.
    * 
@@ -170,17 +180,28 @@ public class XYCutTokenizeToWordsPipe extends XYCut implements TokenizeToWordsPi
    */
   public ElementList<Word> tokenizeToWords(Document pdf, Page page,
       TextLine line) throws PdfActException {
-    ElementList<Word> result = new ElementList<>();
+    return toWords(page, segment(pdf, page, line, line.getCharacters()));
+  }
+
+  /**
+   * Creates the words from the given characters of the words.
+   * 
+   * @param page
+   *        The PDF page to which the characters belong to.
+   * @param charLists
+   *        The characters of the words, in reading order.
+   * 
+   * @return The words.
+   */
+  protected ElementList<Word> toWords(Page page, List<ElementList<Character>> charLists) {
+    ElementList<Word> result = new PlainElementList<>();
 
-    ElementList<Character> characters = line.getCharacters();
-    List<ElementList<Character>> charLists = cut(pdf, page, characters);
     Word word = null;
     for (ElementList<Character> charList : charLists) {
       word = new Word();
       word.setCharacters(charList);
-      word.setText(computeText(word));
+      word.setTextView(computeText(page, word));
       word.setPositions(computePositions(page, word));
-      word.setCharacterStatistic(computeCharStatistics(word));
       result.add(word);
     }
 
@@ -192,6 +213,25 @@ public class XYCutTokenizeToWordsPipe extends XYCut implements TokenizeToWordsPi
     return result;
   }
 
+  /**
+   * Segments the characters of the given text line into the characters of the words.
+   * 
+   * @param pdf
+   *        The PDF document to which the given text line belongs to.
+   * @param page
+   *        The PDF page to which the given text line belongs to.
+   * @param line
+   *        The text line to process.
+   * @param characters
+   *        The characters of the text line.
+   * 
+   * @return The characters of the words, in reading order.
+   */
+  protected List<ElementList<Character>> segment(Document pdf, Page page, TextLine line,
+      ElementList<Character> characters) {
+    return cut(pdf, page, characters);
+  }
+
   // ==============================================================================================
 
   @Override
@@ -212,6 +252,19 @@ public class XYCutTokenizeToWordsPipe extends XYCut implements TokenizeToWordsPi
     return width;
   }
 
+  @Override
+  protected float assessVerticalCut(Document pdf, Page page, XYCutSweep sweep, int index) {
+    // Same as above, but with the extrema of the halves looked up from the sweep.
+    float leftMaxX = sweep.getHeadLargestMaxX(index);
+    float rightMinX = sweep.getTailSmallestMinX(index);
+
+    float width = rightMinX - leftMaxX;
+    if (width < 1f) {
+      return -1;
+    }
+    return width;
+  }
+
   // ==============================================================================================
 
   @Override
@@ -220,19 +273,13 @@ public class XYCutTokenizeToWordsPipe extends XYCut implements TokenizeToWordsPi
     return -1;
   }
 
-  // ==============================================================================================
-
-  /**
-   * Computes the character statistics for the given word.
-   * 
-   * @param word
-   *        The word to process.
-   * @return The character statistics for the given word.
-   */
-  protected CharacterStatistic computeCharStatistics(Word word) {
-    return this.charStatistician.compute(word.getCharacters());
+  @Override
+  protected float assessHorizontalCut(Document pdf, Page page, XYCutSweep sweep, int index) {
+    return -1;
   }
 
+  // ==============================================================================================
+
   /**
    * Computes the position for the given word.
    * 
@@ -252,15 +299,28 @@ public class XYCutTokenizeToWordsPipe extends XYCut implements TokenizeToWordsPi
   }
 
   /**
-   * Computes the text for the given word.
+   * Computes the text for the given word. The text is appended to the text buffer of the page
+   * (separated from the text of the previous word by a whitespace, so that the text of a text
+   * line is a view on the same characters) and returned as a view on the buffer.
    * 
+   * @param page
+   *        The PDF page to which the given word belongs to.
    * @param word
    *        The word to process.
    * @return The text for the given word.
    */
-  protected String computeText(Word word) {
-    Collections.sort(word.getCharacters(), new MinXComparator());
-    return PdfActUtils.join(word.getCharacters(), "");
+  protected CharSequence computeText(Page page, Word word) {
+    PositionSorter.sortByMinX(word.getCharacters());
+
+    TextBuffer buffer = page.getTextBuffer();
+    if (buffer.length() > 0) {
+      buffer.append(' ');
+    }
+    int start = buffer.length();
+    for (Character character : word.getCharacters()) {
+      buffer.append(character != null ? character.getText() : null);
+    }
+    return buffer.view(start, buffer.length());
   }
 
   /**
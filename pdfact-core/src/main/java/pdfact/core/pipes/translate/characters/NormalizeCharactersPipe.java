@@ -0,0 +1,14 @@
+package pdfact.core.pipes.translate.characters;
+
+import pdfact.core.util.pipeline.Pipe;
+
+/**
+ * A pipe that normalizes the characters of a PDF document: it merges the diacritics with their
+ * base characters, splits the ligatures, standardizes the characters and filters those characters
+ * that should not be considered.
+ * 
+ * @author Claudius Korzen
+ */
+public interface NormalizeCharactersPipe extends Pipe {
+
+}
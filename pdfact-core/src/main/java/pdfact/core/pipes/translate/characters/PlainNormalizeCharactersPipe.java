@@ -0,0 +1,154 @@
+package pdfact.core.pipes.translate.characters;
+
+import java.util.List;
+import pdfact.core.model.Character;
+import pdfact.core.model.Document;
+import pdfact.core.model.Page;
+import pdfact.core.pipes.filter.characters.PlainFilterCharactersPipe;
+import pdfact.core.pipes.translate.diacritics.PlainMergeDiacriticsPipe;
+import pdfact.core.pipes.translate.ligatures.PlainSplitLigaturesPipe;
+import pdfact.core.util.exception.PdfActException;
+import pdfact.core.util.list.ElementList;
+import pdfact.core.util.list.PlainElementList;
+import pdfact.core.util.trace.TraceChannel;
+import pdfact.core.util.trace.Tracer;
+
+/**
+ * A plain implementation of {@link NormalizeCharactersPipe}, which does the work of
+ * {@link PlainMergeDiacriticsPipe}, {@link PlainSplitLigaturesPipe},
+ * {@link PlainStandardizeCharactersPipe} and {@link PlainFilterCharactersPipe} in a single pass
+ * over the characters of each page, with a single output list per page (instead of four passes
+ * and up to three copies of the list).
+ *
+ * <p>
+ * A diacritic is merged with the character to its left or to its right (in the original order of
+ * the characters), so the text of a character is final as soon as its right neighbor was
+ * processed. Each character that is not a diacritic is therefore held back by one position; then
+ * its ligature is split, it is standardized and, unless it is filtered, added to the output list.
+ * The result is the same as running the four pipes one after another.
+ *
+ * @author Claudius Korzen
+ */
+public class PlainNormalizeCharactersPipe implements NormalizeCharactersPipe {
+  /**
+   * The pipe that merges the diacritics with their base characters.
+   */
+  protected PlainMergeDiacriticsPipe mergeDiacriticsPipe;
+
+  /**
+   * The pipe that splits the ligatures.
+   */
+  protected PlainSplitLigaturesPipe splitLigaturesPipe;
+
+  /**
+   * The pipe that standardizes the characters.
+   */
+  protected PlainStandardizeCharactersPipe standardizeCharactersPipe;
+
+  // ==============================================================================================
+
+  /**
+   * The default constructor.
+   */
+  public PlainNormalizeCharactersPipe() {
+    this.mergeDiacriticsPipe = new PlainMergeDiacriticsPipe();
+    this.splitLigaturesPipe = new PlainSplitLigaturesPipe();
+    this.standardizeCharactersPipe = new PlainStandardizeCharactersPipe();
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public Document execute(Document pdf) throws PdfActException {
+    normalizeCharacters(pdf);
+    return pdf;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Normalizes the characters of the given PDF document.
+   *
+   * @param pdf The PDF document to process.
+   */
+  protected void normalizeCharacters(Document pdf) {
+    if (pdf != null) {
+      List<Page> pages = pdf.getPages();
+      if (pages != null) {
+        Tracer mergeTrace = pdf.getTracer(TraceChannel.MERGING_DIACRITICS);
+        Tracer splitTrace = pdf.getTracer(TraceChannel.SPLITTING_LIGATURES);
+        for (Page page : pages) {
+          normalizeCharacters(page, mergeTrace, splitTrace);
+        }
+      }
+    }
+  }
+
+  /**
+   * Normalizes the characters of the given page.
+   *
+   * @param page       The page to process.
+   * @param mergeTrace The tracer to trace debug info about the merging of diacritics.
+   * @param splitTrace The tracer to trace debug info about the splitting of ligatures.
+   */
+  protected void normalizeCharacters(Page page, Tracer mergeTrace, Tracer splitTrace) {
+    if (page == null) {
+      return;
+    }
+
+    ElementList<Character> before = page.getCharacters();
+    if (before == null) {
+      return;
+    }
+
+    ElementList<Character> after = new PlainElementList<>(before.size());
+    // The character that is held back until its right neighbor was processed.
+    Character pending = null;
+    boolean hasPending = false;
+    for (int i = 0; i < before.size(); i++) {
+      Character prev = i > 0 ? before.get(i - 1) : null;
+      Character character = before.get(i);
+      Character next = i < before.size() - 1 ? before.get(i + 1) : null;
+
+      boolean isDiacritic = PlainMergeDiacriticsPipe.isDiacritic(character);
+      if (isDiacritic) {
+        this.mergeDiacriticsPipe.mergeDiacritic(prev, character, next, mergeTrace);
+      }
+
+      if (hasPending) {
+        finishCharacter(pending, after, splitTrace);
+        hasPending = false;
+      }
+
+      if (!isDiacritic) {
+        pending = character;
+        hasPending = true;
+      }
+    }
+
+    if (hasPending) {
+      finishCharacter(pending, after, splitTrace);
+    }
+
+    page.setCharacters(after);
+  }
+
+  /**
+   * Splits the given character if it is a ligature, standardizes it and adds it to the given
+   * list, unless it should be filtered.
+   *
+   * @param character  The character to process, whose text is final w.r.t. diacritics.
+   * @param result     The list to which the character is added.
+   * @param splitTrace The tracer to trace debug info about the splitting of ligatures.
+   */
+  protected void finishCharacter(Character character, ElementList<Character> result,
+      Tracer splitTrace) {
+    this.splitLigaturesPipe.splitLigature(character, splitTrace);
+    this.standardizeCharactersPipe.standardizeCharacter(character);
+
+    if (PlainFilterCharactersPipe.isFilterCharacter(character)) {
+      return;
+    }
+    result.add(character);
+  }
+}
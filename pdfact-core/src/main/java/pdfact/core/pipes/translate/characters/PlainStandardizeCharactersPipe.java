@@ -1,6 +1,5 @@
 package pdfact.core.pipes.translate.characters;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import org.apache.logging.log4j.LogManager;
@@ -9,6 +8,7 @@ import pdfact.core.model.Character;
 import pdfact.core.model.Document;
 import pdfact.core.model.Page;
 import pdfact.core.util.exception.PdfActException;
+import pdfact.core.util.lexicon.CharacterLexicon;
 
 /**
  * A plain implementation of {@link StandardizeCharactersPipe}.
@@ -26,7 +26,8 @@ public class PlainStandardizeCharactersPipe
    * A map that maps some characters to a character with the same semantic
    * meaning.
    */
-  protected static final Map<String, String> CHARACTER_SYNONYMS;
+  protected static final Map<String, String> CHARACTER_SYNONYMS =
+      CharacterLexicon.CHARACTER_SYNONYMS;
 
   /**
    * The number of processed characters.
@@ -38,21 +39,6 @@ public class PlainStandardizeCharactersPipe
    */
   protected int numStandardizedCharacters;
 
-  // TODO: Move this to character lexicon.
-  static {
-    CHARACTER_SYNONYMS = new HashMap<String, String>();
-    CHARACTER_SYNONYMS.put("\u2018", "'"); // ‘
-    CHARACTER_SYNONYMS.put("\u2019", "'"); // ’
-    CHARACTER_SYNONYMS.put("\u201b", "'"); // ‛
-    CHARACTER_SYNONYMS.put("\u201c", "\""); // “
-    CHARACTER_SYNONYMS.put("\u201d", "\""); // ”
-    CHARACTER_SYNONYMS.put("\u201f", "\""); // ‟
-    CHARACTER_SYNONYMS.put("\u301d", "\""); // 〝
-    CHARACTER_SYNONYMS.put("\u301e", "\""); // 〞
-    CHARACTER_SYNONYMS.put("\uff02", "\""); // ＂
-    CHARACTER_SYNONYMS.put("\uff07", "'"); // ＇
-  }
-
   // ==============================================================================================
 
   @Override
@@ -107,7 +93,7 @@ public class PlainStandardizeCharactersPipe
    * @param ch
    *        The character to process.
    */
-  protected void standardizeCharacter(Character ch) {
+  public void standardizeCharacter(Character ch) {
     if (ch == null) {
       return;
     }
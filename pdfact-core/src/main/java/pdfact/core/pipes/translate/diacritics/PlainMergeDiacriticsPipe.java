@@ -1,18 +1,21 @@
 package pdfact.core.pipes.translate.diacritics;
 
 import java.text.Normalizer;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
 import pdfact.core.model.Character;
 import pdfact.core.model.Document;
 import pdfact.core.model.Page;
 import pdfact.core.model.Position;
 import pdfact.core.model.Rectangle;
 import pdfact.core.util.exception.PdfActException;
+import pdfact.core.util.lexicon.CharacterLexicon;
 import pdfact.core.util.list.ElementList;
+import pdfact.core.util.list.PlainElementList;
+import pdfact.core.util.trace.TraceChannel;
+import pdfact.core.util.trace.Tracer;
 
 /**
  * A plain implementation of {@link MergeDiacriticsPipe}.
@@ -20,11 +23,6 @@ import pdfact.core.util.list.ElementList;
  * @author Claudius Korzen
  */
 public class PlainMergeDiacriticsPipe implements MergeDiacriticsPipe {
-  /**
-   * The logger.
-   */
-  protected final Logger log = LogManager.getFormatterLogger("merging-diacritics");
-
   /**
    * The number of processed characters.
    */
@@ -37,9 +35,34 @@ public class PlainMergeDiacriticsPipe implements MergeDiacriticsPipe {
 
   // ==============================================================================================
 
+  /**
+   * The NFC compositions of the Latin letters (and the dotless i and j) with the combining
+   * diacritical marks (U+0300 to U+036F), precomputed to avoid normalizing the merged text of the
+   * most common base characters. The keys are the char of the base character in the upper 16 bits
+   * and the char of the combining mark in the lower 16 bits.
+   */
+  protected static final TIntObjectMap<String> NFC_COMPOSITIONS;
+
+  static {
+    NFC_COMPOSITIONS = new TIntObjectHashMap<>();
+    StringBuilder bases = new StringBuilder("\u0131\u0237");
+    for (char c = 'A'; c <= 'Z'; c++) {
+      bases.append(c).append(java.lang.Character.toLowerCase(c));
+    }
+    for (int i = 0; i < bases.length(); i++) {
+      char base = bases.charAt(i);
+      for (char mark = '\u0300'; mark <= '\u036F'; mark++) {
+        String merged = String.valueOf(base) + mark;
+        NFC_COMPOSITIONS.put(base << 16 | mark, Normalizer.normalize(merged, Normalizer.Form.NFC));
+      }
+    }
+  }
+
+  // ==============================================================================================
+
   @Override
   public Document execute(Document pdf) throws PdfActException {
-    mergeDiacritics(pdf);
+    mergeDiacritics(pdf, pdf.getTracer(TraceChannel.MERGING_DIACRITICS));
     return pdf;
   }
 
@@ -48,15 +71,16 @@ public class PlainMergeDiacriticsPipe implements MergeDiacriticsPipe {
   /**
    * Merges the diacritical marks in the given PDF document with their related characters.
    * 
-   * @param pdf The PDF document to process.
+   * @param pdf   The PDF document to process.
+   * @param trace The tracer to trace debug info about the merging of diacritics.
    */
-  protected void mergeDiacritics(Document pdf) {
+  protected void mergeDiacritics(Document pdf, Tracer trace) {
     if (pdf != null) {
       List<Page> pages = pdf.getPages();
       if (pages != null) {
         for (Page page : pages) {
           ElementList<Character> before = page.getCharacters();
-          ElementList<Character> after = new ElementList<>(before.size());
+          ElementList<Character> after = new PlainElementList<>(before.size());
           if (before != null) {
             for (int i = 0; i < before.size(); i++) {
               Character prev = i > 0 ? before.get(i - 1) : null;
@@ -65,7 +89,7 @@ public class PlainMergeDiacriticsPipe implements MergeDiacriticsPipe {
 
               // Don't proceed if the character in question is not a diacritic.
               if (isDiacritic(character)) {
-                mergeDiacritic(prev, character, next);
+                mergeDiacritic(prev, character, next, trace);
                 this.numMergedDiacritics++;
               } else {
                 after.add(character);
@@ -87,8 +111,9 @@ public class PlainMergeDiacriticsPipe implements MergeDiacriticsPipe {
    * @param prev      The character to the left of the diacritic.
    * @param diacritic The diacritic.
    * @param next      The character to the right of the diacritic.
+   * @param trace     The tracer to trace debug info about the merging of diacritics.
    */
-  public void mergeDiacritic(Character prev, Character diacritic, Character next) {
+  public void mergeDiacritic(Character prev, Character diacritic, Character next, Tracer trace) {
     if (diacritic == null) {
       return;
     }
@@ -103,19 +128,20 @@ public class PlainMergeDiacriticsPipe implements MergeDiacriticsPipe {
       return;
     }
 
-    if (log.isDebugEnabled()) {
+    if (trace.isEnabled()) {
       Position pos = diacritic.getPosition();
       int pageNum = pos.getPageNumber();
       float minX = pos.getRectangle().getMinX();
       float minY = pos.getRectangle().getMinY();
       float maxX = pos.getRectangle().getMaxX();
       float maxY = pos.getRectangle().getMaxY();
-      log.debug("-----------------------------------------------------");
-      log.debug("Diacritic: '%s'", diacritic.getText());
-      log.debug("... page:                     %s", pageNum);
-      log.debug("... bounding box:             [%.1f, %.1f, %.1f, %.1f]", minX, minY, maxX, maxY);
-      log.debug("... prev. char:               \"%s\"", prev);
-      log.debug("... next char:                \"%s\"", next);
+      trace.trace("-----------------------------------------------------");
+      trace.trace("Diacritic: '%s'", diacritic.getText());
+      trace.trace("... page:                     %s", pageNum);
+      trace.trace("... bounding box:             [%.1f, %.1f, %.1f, %.1f]",
+          minX, minY, maxX, maxY);
+      trace.trace("... prev. char:               \"%s\"", prev);
+      trace.trace("... next char:                \"%s\"", next);
       
     }
 
@@ -127,7 +153,9 @@ public class PlainMergeDiacriticsPipe implements MergeDiacriticsPipe {
       if (prevPosition != null) {
         Rectangle prevRect = prevPosition.getRectangle();
         prevOverlap = diacriticRect.getHorizontalOverlapLength(prevRect);
-        log.debug("... x-overlap with prev. char: %.1fpt", prevOverlap);
+        if (trace.isEnabled()) {
+          trace.trace("... x-overlap with prev. char: %.1fpt", prevOverlap);
+        }
       }
     }
 
@@ -138,7 +166,9 @@ public class PlainMergeDiacriticsPipe implements MergeDiacriticsPipe {
       if (nextPosition != null) {
         Rectangle nextRect = nextPosition.getRectangle();
         nextOverlap = diacriticRect.getHorizontalOverlapLength(nextRect);
-        log.debug("... x-overlap with next char:  %.1fpt", nextOverlap);
+        if (trace.isEnabled()) {
+          trace.trace("... x-overlap with next char:  %.1fpt", nextOverlap);
+        }
       }
     }
 
@@ -146,11 +176,11 @@ public class PlainMergeDiacriticsPipe implements MergeDiacriticsPipe {
     if (prevOverlap > 0 && prevOverlap >= nextOverlap) {
       prev.setText(mergeTexts(prev, diacritic));
       prev.getPosition().setRectangle(mergeRectangles(prev, diacritic));
-      log.debug("Merged with prev. character to '%s'.", prev.getText());
+      trace.trace("Merged with prev. character to '%s'.", prev.getText());
     } else if (nextOverlap > 0 && nextOverlap > prevOverlap) {
       next.setText(mergeTexts(next, diacritic));
       next.getPosition().setRectangle(mergeRectangles(next, diacritic));
-      log.debug("Merged with next character to '%s'.", next.getText());
+      trace.trace("Merged with next character to '%s'.", next.getText());
     }
   }
 
@@ -183,6 +213,12 @@ public class PlainMergeDiacriticsPipe implements MergeDiacriticsPipe {
     }
 
     // Merge the diacritic with the base character.
+    if (baseText.length() == 1 && diacriticText.length() == 1) {
+      String composed = NFC_COMPOSITIONS.get(baseText.charAt(0) << 16 | diacriticText.charAt(0));
+      if (composed != null) {
+        return composed;
+      }
+    }
     String mergedText = baseText + diacriticText;
     return Normalizer.normalize(mergedText, Normalizer.Form.NFC);
   }
@@ -232,66 +268,17 @@ public class PlainMergeDiacriticsPipe implements MergeDiacriticsPipe {
       return false;
     }
 
-    String text = character.getText();
-    if (text == null || text.length() != 1) {
+    if ((character.getCharacterClasses() & CharacterLexicon.DIACRITIC) == 0) {
       return false;
     }
 
-    int type = java.lang.Character.getType(text.charAt(0));
-    return type == java.lang.Character.NON_SPACING_MARK
-            || type == java.lang.Character.MODIFIER_SYMBOL
-            || type == java.lang.Character.MODIFIER_LETTER;
+    String text = character.getText();
+    return text != null && text.length() == 1;
   }
 
   /**
-   * Adds non-decomposing diacritics to the hash with their related combining character. These are
-   * values that the unicode spec claims are equivalent but are not mapped in the form NFKC
-   * normalization method. Determined by going through the Combining Diacritical Marks section of
-   * the Unicode spec and identifying which characters are not mapped to by the normalization. For
-   * example, maps "ACUTE ACCENT" to "COMBINING ACUTE ACCENT".
+   * The combining equivalents of non-combining diacritics (see
+   * {@link CharacterLexicon#COMBINING_DIACRITICS}).
    */
-  static final Map<Integer, String> COMBINING_DIACRITICS;
-
-  // TODO: Move it to character lexicon.
-  static {
-    COMBINING_DIACRITICS = new HashMap<Integer, String>(31);
-    COMBINING_DIACRITICS.put(0x0060, "\u0300");
-    COMBINING_DIACRITICS.put(0x02CB, "\u0300");
-    COMBINING_DIACRITICS.put(0x0027, "\u0301");
-    COMBINING_DIACRITICS.put(0x00B4, "\u0301");
-    COMBINING_DIACRITICS.put(0x02B9, "\u0301");
-    COMBINING_DIACRITICS.put(0x02CA, "\u0301");
-    COMBINING_DIACRITICS.put(0x0384, "\u0301");
-    COMBINING_DIACRITICS.put(0x005E, "\u0302");
-    COMBINING_DIACRITICS.put(0x02C6, "\u0302");
-    COMBINING_DIACRITICS.put(0x007E, "\u0303");
-    COMBINING_DIACRITICS.put(0x02DC, "\u0303");
-    COMBINING_DIACRITICS.put(0x00AF, "\u0304");
-    COMBINING_DIACRITICS.put(0x02C9, "\u0304");
-    COMBINING_DIACRITICS.put(0x00A8, "\u0308");
-    COMBINING_DIACRITICS.put(0x00B0, "\u030A");
-    COMBINING_DIACRITICS.put(0x02DA, "\u030A");
-    COMBINING_DIACRITICS.put(0x0022, "\u030B");
-    COMBINING_DIACRITICS.put(0x02BA, "\u030B");
-    COMBINING_DIACRITICS.put(0x02DD, "\u030B");
-    COMBINING_DIACRITICS.put(0x02C7, "\u030C");
-    COMBINING_DIACRITICS.put(0x02C8, "\u030D");
-    COMBINING_DIACRITICS.put(0x02BB, "\u0312");
-    COMBINING_DIACRITICS.put(0x02BC, "\u0313");
-    COMBINING_DIACRITICS.put(0x0486, "\u0313");
-    COMBINING_DIACRITICS.put(0x055A, "\u0313");
-    COMBINING_DIACRITICS.put(0x02BD, "\u0314");
-    COMBINING_DIACRITICS.put(0x0485, "\u0314");
-    COMBINING_DIACRITICS.put(0x0559, "\u0314");
-    COMBINING_DIACRITICS.put(0x02D4, "\u031D");
-    COMBINING_DIACRITICS.put(0x02D5, "\u031E");
-    COMBINING_DIACRITICS.put(0x02D6, "\u031F");
-    COMBINING_DIACRITICS.put(0x02D7, "\u0320");
-    COMBINING_DIACRITICS.put(0x02B2, "\u0321");
-    COMBINING_DIACRITICS.put(0x02CC, "\u0329");
-    COMBINING_DIACRITICS.put(0x02B7, "\u032B");
-    COMBINING_DIACRITICS.put(0x02CD, "\u0331");
-    COMBINING_DIACRITICS.put(0x005F, "\u0332");
-    COMBINING_DIACRITICS.put(0x204E, "\u0359");
-  }
+  static final Map<Integer, String> COMBINING_DIACRITICS = CharacterLexicon.COMBINING_DIACRITICS;
 }
@@ -1,15 +1,15 @@
 package pdfact.core.pipes.translate.ligatures;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
 import pdfact.core.model.Character;
 import pdfact.core.model.Document;
 import pdfact.core.model.Page;
 import pdfact.core.model.Position;
 import pdfact.core.util.exception.PdfActException;
+import pdfact.core.util.lexicon.CharacterLexicon;
+import pdfact.core.util.trace.TraceChannel;
+import pdfact.core.util.trace.Tracer;
 
 // FIXME: Adjust bounding box.
 
@@ -19,55 +19,16 @@ import pdfact.core.util.exception.PdfActException;
  * @author Claudius Korzen
  */
 public class PlainSplitLigaturesPipe implements SplitLigaturesPipe {
-  /**
-   * The logger.
-   */
-  protected static Logger log = LogManager.getFormatterLogger("splitting-ligatures");
-
   /**
    * A map with the unicodes of ligatures and its individual characters.
    */
-  protected static final Map<String, String> LIGATURES;
-
-  // TODO: Move it to character lexicon.
-  static {
-    // Fill the ligatures.
-    LIGATURES = new HashMap<String, String>();
-    LIGATURES.put("\u00C6", "AE");
-    LIGATURES.put("\u00E6", "ae");
-    LIGATURES.put("\u0152", "OE");
-    LIGATURES.put("\u0153", "oe");
-    LIGATURES.put("\u0132", "IJ");
-    LIGATURES.put("\u0133", "ij");
-    LIGATURES.put("\u1D6B", "ue");
-    LIGATURES.put("\uA728", "TZ");
-    LIGATURES.put("\uA729", "tz");
-    LIGATURES.put("\uA732", "AA");
-    LIGATURES.put("\uA733", "aa");
-    LIGATURES.put("\uA734", "AO");
-    LIGATURES.put("\uA735", "ao");
-    LIGATURES.put("\uA736", "AU");
-    LIGATURES.put("\uA737", "au");
-    LIGATURES.put("\uA738", "AV");
-    LIGATURES.put("\uA739", "av");
-    LIGATURES.put("\uA73C", "AY");
-    LIGATURES.put("\uA73D", "ay");
-    LIGATURES.put("\uA74E", "OO");
-    LIGATURES.put("\uA74F", "oo");
-    LIGATURES.put("\uAB50", "ui");
-    LIGATURES.put("\uFB00", "ff");
-    LIGATURES.put("\uFB01", "fi");
-    LIGATURES.put("\uFB02", "fl");
-    LIGATURES.put("\uFB03", "ffi");
-    LIGATURES.put("\uFB04", "ffl");
-    LIGATURES.put("\uFB06", "st");
-  }
+  protected static final Map<String, String> LIGATURES = CharacterLexicon.LIGATURES;
 
   // ==============================================================================================
 
   @Override
   public Document execute(Document pdf) throws PdfActException {
-    splitLigatures(pdf);
+    splitLigatures(pdf, pdf.getTracer(TraceChannel.SPLITTING_LIGATURES));
     return pdf;
   }
 
@@ -79,8 +40,10 @@ public class PlainSplitLigaturesPipe implements SplitLigaturesPipe {
    * 
    * @param pdf
    *        The PDF document to process.
+   * @param trace
+   *        The tracer to trace debug info about the splitting of ligatures.
    */
-  protected void splitLigatures(Document pdf) {
+  protected void splitLigatures(Document pdf, Tracer trace) {
     if (pdf != null) {
       List<Page> pages = pdf.getPages();
       if (pages != null) {
@@ -88,7 +51,7 @@ public class PlainSplitLigaturesPipe implements SplitLigaturesPipe {
           List<Character> characters = page.getCharacters();
           if (characters != null) {
             for (Character character : characters) {
-              splitLigature(character);
+              splitLigature(character, trace);
             }
           }
         }
@@ -103,23 +66,25 @@ public class PlainSplitLigaturesPipe implements SplitLigaturesPipe {
    * 
    * @param character
    *        The PDF character to process.
+   * @param trace
+   *        The tracer to trace debug info about the splitting of ligatures.
    */
-  protected void splitLigature(Character character) {
+  public void splitLigature(Character character, Tracer trace) {
     if (isLigature(character)) {
       String resolved = getResolvedLigatureText(character);
 
-      if (log.isDebugEnabled()) {
+      if (trace.isEnabled()) {
         Position pos = character.getPosition();
         int pageNum = pos.getPageNumber();
         float minX = pos.getRectangle().getMinX();
         float minY = pos.getRectangle().getMinY();
         float maxX = pos.getRectangle().getMaxX();
         float maxY = pos.getRectangle().getMaxY();
-        log.debug("-----------------------------------------------------");
-        log.debug("Ligature: '%s'", character.getText());
-        log.debug("... page:          %s", pageNum);
-        log.debug("... bounding box:  [%.1f, %.1f, %.1f, %.1f]", minX, minY, maxX, maxY);
-        log.debug("Translated to: \"%s\"", resolved);
+        trace.trace("-----------------------------------------------------");
+        trace.trace("Ligature: '%s'", character.getText());
+        trace.trace("... page:          %s", pageNum);
+        trace.trace("... bounding box:  [%.1f, %.1f, %.1f, %.1f]", minX, minY, maxX, maxY);
+        trace.trace("Translated to: \"%s\"", resolved);
       }
 
       character.setText(resolved);
@@ -135,7 +100,9 @@ public class PlainSplitLigaturesPipe implements SplitLigaturesPipe {
    * @return True if the given character is a ligature; false otherwise.
    */
   protected boolean isLigature(Character character) {
-    return character != null && LIGATURES.containsKey(character.getText());
+    return character != null
+        && (character.getCharacterClasses() & CharacterLexicon.LIGATURE) != 0
+        && LIGATURES.containsKey(character.getText());
   }
 
   /**
@@ -0,0 +1,189 @@
+package pdfact.core.util.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An in-memory cache of parsed pages, keyed by a hash of the content streams and the resources
+ * (fonts, images, forms, etc.) of a page. Pages that are shared by many documents (for example,
+ * license pages, cover pages or blank pages) need to be parsed only once.
+ *
+ * <p>
+ * The entries are stored in a compact binary form. The cache is bounded by the total size of the
+ * entries; if it exceeds the maximum size, the least recently used entries are evicted. The cache
+ * is thread-safe, so that it can be shared by multiple parsers.
+ *
+ * @author Claudius Korzen
+ */
+public class PageCache {
+  /**
+   * The default maximum size of the cache, in bytes.
+   */
+  public static final long DEFAULT_MAX_SIZE = 64L * 1024 * 1024;
+
+  /**
+   * The entries, in the order of their last accesses (the least recently used entry first).
+   */
+  protected LinkedHashMap<String, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+  /**
+   * The maximum size of the cache, in bytes.
+   */
+  protected long maxSize;
+
+  /**
+   * The total size of the entries, in bytes.
+   */
+  protected long size;
+
+  /**
+   * The number of lookups that were served from the cache.
+   */
+  protected long numHits;
+
+  /**
+   * The number of lookups that were not served from the cache.
+   */
+  protected long numMisses;
+
+  /**
+   * The number of entries added to the cache.
+   */
+  protected long numPuts;
+
+  /**
+   * The number of entries evicted from the cache.
+   */
+  protected long numEvictions;
+
+  // ==============================================================================================
+  // Constructors.
+
+  /**
+   * Creates a new page cache with the default maximum size.
+   */
+  public PageCache() {
+    this(DEFAULT_MAX_SIZE);
+  }
+
+  /**
+   * Creates a new page cache.
+   *
+   * @param maxSize The maximum size of the cache, in bytes.
+   */
+  public PageCache(long maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the entry with the given key.
+   *
+   * @param key The key of the entry.
+   *
+   * @return The entry, or null if there is no such entry.
+   */
+  public synchronized byte[] get(String key) {
+    byte[] entry = this.entries.get(key);
+    if (entry != null) {
+      this.numHits++;
+    } else {
+      this.numMisses++;
+    }
+    return entry;
+  }
+
+  /**
+   * Adds the given entry to the cache (replacing an existing entry with the same key) and evicts
+   * the least recently used entries if the cache exceeds its maximum size.
+   *
+   * @param key   The key of the entry.
+   * @param entry The entry.
+   */
+  public synchronized void put(String key, byte[] entry) {
+    if (entry.length > this.maxSize) {
+      return;
+    }
+    byte[] previous = this.entries.put(key, entry);
+    if (previous != null) {
+      this.size -= previous.length;
+    }
+    this.size += entry.length;
+    this.numPuts++;
+
+    Iterator<Map.Entry<String, byte[]>> itr = this.entries.entrySet().iterator();
+    while (this.size > this.maxSize && itr.hasNext()) {
+      this.size -= itr.next().getValue().length;
+      itr.remove();
+      this.numEvictions++;
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the maximum size of the cache, in bytes.
+   */
+  public long getMaxSize() {
+    return this.maxSize;
+  }
+
+  /**
+   * Returns the total size of the entries, in bytes.
+   */
+  public synchronized long getSize() {
+    return this.size;
+  }
+
+  /**
+   * Returns the number of entries.
+   */
+  public synchronized int getNumEntries() {
+    return this.entries.size();
+  }
+
+  /**
+   * Returns the number of lookups that were served from the cache.
+   */
+  public synchronized long getNumHits() {
+    return this.numHits;
+  }
+
+  /**
+   * Returns the number of lookups that were not served from the cache.
+   */
+  public synchronized long getNumMisses() {
+    return this.numMisses;
+  }
+
+  /**
+   * Returns the number of entries added to the cache.
+   */
+  public synchronized long getNumPuts() {
+    return this.numPuts;
+  }
+
+  /**
+   * Returns the number of entries evicted from the cache.
+   */
+  public synchronized long getNumEvictions() {
+    return this.numEvictions;
+  }
+
+  /**
+   * Returns the ratio of the lookups that were served from the cache (0 if there was no lookup).
+   */
+  public synchronized double getHitRate() {
+    long lookups = this.numHits + this.numMisses;
+    return lookups > 0 ? (double) this.numHits / lookups : 0;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return String.format("PageCache(hits: %d, misses: %d, hit rate: %.1f%%, entries: %d, "
+        + "size: %d bytes, evictions: %d)", this.numHits, this.numMisses, 100 * getHitRate(),
+        this.entries.size(), this.size, this.numEvictions);
+  }
+}
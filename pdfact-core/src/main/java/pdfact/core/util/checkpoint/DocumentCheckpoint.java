@@ -0,0 +1,125 @@
+package pdfact.core.util.checkpoint;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The constants and helper methods of the checkpoints of parsed PDF documents.
+ *
+ * <p>
+ * A checkpoint is a compact binary snapshot of a document as it is after parsing (the pages with
+ * their characters, figures and shapes, and the fonts, font faces and colors referenced by them),
+ * so that the later steps of the pipeline can be re-run without parsing the PDF file again. All
+ * numbers are big-endian (as written by {@link java.io.DataOutputStream}); indexes and counts are
+ * stored as varints, coordinates and font sizes as floats (so a checkpoint is lossless). The
+ * statistics of the characters are not stored, but recomputed on loading (they are derived from
+ * the characters).
+ *
+ * <pre>
+ * checkpoint := magic:int32 version:int16 strings fonts colors fontFaces pages
+ * strings    := num:varint utf:string*
+ * fonts      := num:varint (id:str name:str basename:str familyName:str flags:int8)*
+ * colors     := num:varint (id:str name:str numRgb+1:varint rgb:varint*)*
+ * fontFaces  := num:varint (font+1:varint fontSize:float)*
+ * pages      := num:varint (pageNumber:varint width:float height:float)* pageContent*
+ * pageContent:= numChars:varint character* numFigures:varint position* numShapes:varint shape*
+ * character  := text:str fontFace+1:varint color+1:varint rank:varint position
+ * shape      := color+1:varint position
+ * position   := page+1:varint (minX:float minY:float maxX:float maxY:float)?
+ * str        := string+1:varint (0 = null)
+ * </pre>
+ *
+ * @author Claudius Korzen
+ */
+public class DocumentCheckpoint {
+  /**
+   * The magic number at the start of each checkpoint (the bytes "PFAC").
+   */
+  public static final int MAGIC = 0x50464143;
+
+  /**
+   * The version of the checkpoint format. Must be increased on each change of the format or of the
+   * parser output, so that outdated checkpoints are rejected instead of being misread.
+   */
+  public static final int VERSION = 1;
+
+  /**
+   * The flag of a bold font.
+   */
+  static final int FONT_FLAG_BOLD = 1;
+
+  /**
+   * The flag of an italic font.
+   */
+  static final int FONT_FLAG_ITALIC = 2;
+
+  /**
+   * The flag of a type3 font.
+   */
+  static final int FONT_FLAG_TYPE3 = 4;
+
+  // ==============================================================================================
+
+  /**
+   * Checks if the given file is a checkpoint (that is: if it starts with the magic number).
+   *
+   * @param path The path to the file to check.
+   *
+   * @return True, if the given file is a checkpoint; false otherwise.
+   */
+  public static boolean isCheckpoint(Path path) {
+    if (path == null || !Files.isRegularFile(path)) {
+      return false;
+    }
+    try (InputStream is = Files.newInputStream(path)) {
+      return new DataInputStream(is).readInt() == MAGIC;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Writes the given non-negative value as a varint (7 bits per byte, least significant group
+   * first, the highest bit of a byte is set if more bytes follow).
+   *
+   * @param out   The output to write to.
+   * @param value The value to write.
+   *
+   * @throws IOException If writing failed.
+   */
+  static void writeVarInt(DataOutput out, int value) throws IOException {
+    while ((value & ~0x7F) != 0) {
+      out.writeByte((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    out.writeByte(value);
+  }
+
+  /**
+   * Reads a varint.
+   *
+   * @param in The input to read from.
+   *
+   * @return The value.
+   *
+   * @throws IOException If reading failed.
+   */
+  static int readVarInt(DataInput in) throws IOException {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      int b = in.readUnsignedByte();
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IOException("Malformed varint.");
+  }
+}
@@ -0,0 +1,208 @@
+package pdfact.core.util.checkpoint;
+
+import static pdfact.core.util.checkpoint.DocumentCheckpoint.FONT_FLAG_BOLD;
+import static pdfact.core.util.checkpoint.DocumentCheckpoint.FONT_FLAG_ITALIC;
+import static pdfact.core.util.checkpoint.DocumentCheckpoint.FONT_FLAG_TYPE3;
+import static pdfact.core.util.checkpoint.DocumentCheckpoint.MAGIC;
+import static pdfact.core.util.checkpoint.DocumentCheckpoint.VERSION;
+import static pdfact.core.util.checkpoint.DocumentCheckpoint.readVarInt;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import pdfact.core.model.Character;
+import pdfact.core.model.Color;
+import pdfact.core.model.Document;
+import pdfact.core.model.Figure;
+import pdfact.core.model.Font;
+import pdfact.core.model.FontFace;
+import pdfact.core.model.Page;
+import pdfact.core.model.Position;
+import pdfact.core.model.Shape;
+import pdfact.core.util.exception.PdfActCheckpointException;
+import pdfact.core.util.statistician.CharacterStatistician;
+
+/**
+ * A reader that loads a checkpoint of a parsed document (see {@link DocumentCheckpoint}). After
+ * loading, the document is in the same state as after parsing the PDF file from which the
+ * checkpoint was created.
+ *
+ * @author Claudius Korzen
+ */
+public class DocumentCheckpointReader {
+  /**
+   * The statistician to recompute the statistics of the characters.
+   */
+  protected CharacterStatistician statistician = new CharacterStatistician();
+
+  /**
+   * The stored strings.
+   */
+  protected String[] strings;
+
+  // ==============================================================================================
+
+  /**
+   * Loads the checkpoint given by the path of the given document into the document.
+   *
+   * @param pdf The document, with the path to the checkpoint.
+   *
+   * @throws PdfActCheckpointException If the checkpoint couldn't be read or is not valid.
+   */
+  public void read(Document pdf) throws PdfActCheckpointException {
+    try (InputStream is = Files.newInputStream(pdf.getPath())) {
+      read(pdf, is);
+    } catch (IOException e) {
+      throw new PdfActCheckpointException("Couldn't read the checkpoint.", e);
+    }
+  }
+
+  /**
+   * Loads the checkpoint given by the stream into the given document. The stream is not closed.
+   *
+   * @param pdf    The document to load the checkpoint into.
+   * @param stream The stream to read the checkpoint from.
+   *
+   * @throws PdfActCheckpointException If the checkpoint couldn't be read or is not valid.
+   */
+  public void read(Document pdf, InputStream stream) throws PdfActCheckpointException {
+    DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+    try {
+      if (in.readInt() != MAGIC) {
+        throw new PdfActCheckpointException("The file is not a checkpoint.");
+      }
+      int version = in.readUnsignedShort();
+      if (version != VERSION) {
+        throw new PdfActCheckpointException(String.format("The checkpoint has version %d, but "
+            + "only version %d is supported. Parse the PDF file again.", version, VERSION));
+      }
+
+      this.strings = new String[readVarInt(in)];
+      for (int i = 0; i < this.strings.length; i++) {
+        this.strings[i] = in.readUTF();
+      }
+
+      Font[] fonts = new Font[readVarInt(in)];
+      for (int i = 0; i < fonts.length; i++) {
+        Font font = new Font();
+        font.setId(readString(in));
+        font.setNormalizedName(readString(in));
+        font.setBasename(readString(in));
+        font.setFontFamilyName(readString(in));
+        int flags = in.readUnsignedByte();
+        font.setIsBold((flags & FONT_FLAG_BOLD) != 0);
+        font.setIsItalic((flags & FONT_FLAG_ITALIC) != 0);
+        font.setIsType3Font((flags & FONT_FLAG_TYPE3) != 0);
+        fonts[i] = font;
+      }
+
+      Color[] colors = new Color[readVarInt(in)];
+      for (int i = 0; i < colors.length; i++) {
+        String id = readString(in);
+        String name = readString(in);
+        int[] rgb = null;
+        int numRgb = readVarInt(in) - 1;
+        if (numRgb >= 0) {
+          rgb = new int[numRgb];
+          for (int j = 0; j < numRgb; j++) {
+            rgb[j] = readVarInt(in);
+          }
+        }
+        Color color = new Color(rgb);
+        color.setId(id);
+        color.setName(name);
+        colors[i] = color;
+      }
+
+      FontFace[] fontFaces = new FontFace[readVarInt(in)];
+      for (int i = 0; i < fontFaces.length; i++) {
+        int font = readVarInt(in) - 1;
+        fontFaces[i] = new FontFace(font >= 0 ? fonts[font] : null, in.readFloat());
+      }
+
+      List<Page> pages = new ArrayList<>();
+      int numPages = readVarInt(in);
+      for (int i = 0; i < numPages; i++) {
+        Page page = new Page(readVarInt(in));
+        page.setWidth(in.readFloat());
+        page.setHeight(in.readFloat());
+        pages.add(page);
+      }
+      pdf.setPages(pages);
+
+      for (Page page : pages) {
+        int numCharacters = readVarInt(in);
+        for (int i = 0; i < numCharacters; i++) {
+          Character character = new Character();
+          character.setText(readString(in));
+          int fontFace = readVarInt(in) - 1;
+          character.setFontFace(fontFace >= 0 ? fontFaces[fontFace] : null);
+          int color = readVarInt(in) - 1;
+          character.setColor(color >= 0 ? colors[color] : null);
+          character.setExtractionRank(readVarInt(in));
+          character.setPosition(readPosition(in, pages));
+          page.addCharacter(character);
+        }
+        int numFigures = readVarInt(in);
+        for (int i = 0; i < numFigures; i++) {
+          Figure figure = new Figure();
+          figure.setPosition(readPosition(in, pages));
+          page.addFigure(figure);
+        }
+        int numShapes = readVarInt(in);
+        for (int i = 0; i < numShapes; i++) {
+          Shape shape = new Shape();
+          int color = readVarInt(in) - 1;
+          shape.setColor(color >= 0 ? colors[color] : null);
+          shape.setPosition(readPosition(in, pages));
+          page.addShape(shape);
+        }
+        // Compute the character statistics for the page (like the parser does).
+        page.setCharacterStatistic(this.statistician.compute(page));
+      }
+      // Compute the character statistics for the whole document.
+      pdf.setCharacterStatistic(this.statistician.aggregate(pages));
+    } catch (IOException | IndexOutOfBoundsException e) {
+      throw new PdfActCheckpointException("The checkpoint is corrupted.", e);
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Reads a reference to a stored string.
+   *
+   * @param in The input to read from.
+   *
+   * @return The string or null.
+   *
+   * @throws IOException If reading failed.
+   */
+  protected String readString(DataInputStream in) throws IOException {
+    int index = readVarInt(in) - 1;
+    return index >= 0 ? this.strings[index] : null;
+  }
+
+  /**
+   * Reads a position.
+   *
+   * @param in    The input to read from.
+   * @param pages The pages of the document.
+   *
+   * @return The position or null.
+   *
+   * @throws IOException If reading failed.
+   */
+  protected Position readPosition(DataInputStream in, List<Page> pages) throws IOException {
+    int page = readVarInt(in) - 1;
+    if (page < 0) {
+      return null;
+    }
+    return new Position(pages.get(page), in.readFloat(), in.readFloat(), in.readFloat(),
+        in.readFloat());
+  }
+}
@@ -0,0 +1,316 @@
+package pdfact.core.util.checkpoint;
+
+import static pdfact.core.util.checkpoint.DocumentCheckpoint.FONT_FLAG_BOLD;
+import static pdfact.core.util.checkpoint.DocumentCheckpoint.FONT_FLAG_ITALIC;
+import static pdfact.core.util.checkpoint.DocumentCheckpoint.FONT_FLAG_TYPE3;
+import static pdfact.core.util.checkpoint.DocumentCheckpoint.MAGIC;
+import static pdfact.core.util.checkpoint.DocumentCheckpoint.VERSION;
+import static pdfact.core.util.checkpoint.DocumentCheckpoint.writeVarInt;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import pdfact.core.model.Character;
+import pdfact.core.model.Color;
+import pdfact.core.model.Document;
+import pdfact.core.model.Figure;
+import pdfact.core.model.Font;
+import pdfact.core.model.FontFace;
+import pdfact.core.model.Page;
+import pdfact.core.model.Position;
+import pdfact.core.model.Rectangle;
+import pdfact.core.model.Shape;
+
+/**
+ * A writer that writes a checkpoint of a parsed document (see {@link DocumentCheckpoint}).
+ *
+ * <p>
+ * Fonts, colors and font faces are stored once and referenced by index, so that the objects that
+ * are shared by the characters after parsing are shared after loading as well.
+ *
+ * @author Claudius Korzen
+ */
+public class DocumentCheckpointWriter {
+  /**
+   * The indexes of the strings to store.
+   */
+  protected Map<String, Integer> strings = new HashMap<>();
+
+  /**
+   * The strings to store, in the order of their indexes.
+   */
+  protected List<String> stringList = new ArrayList<>();
+
+  /**
+   * The indexes of the fonts to store.
+   */
+  protected Map<Font, Integer> fonts = new IdentityHashMap<>();
+
+  /**
+   * The indexes of the colors to store.
+   */
+  protected Map<Color, Integer> colors = new IdentityHashMap<>();
+
+  /**
+   * The indexes of the font faces to store.
+   */
+  protected Map<FontFace, Integer> fontFaces = new IdentityHashMap<>();
+
+  /**
+   * The indexes of the pages of the document to store.
+   */
+  protected Map<Page, Integer> pages = new IdentityHashMap<>();
+
+  // ==============================================================================================
+
+  /**
+   * Writes a checkpoint of the given document to the given file. The checkpoint is written to a
+   * temporary file first, which is then moved to the given file, so that the given file never
+   * contains a partial checkpoint.
+   *
+   * @param pdf  The document to write.
+   * @param path The path to the file to write to.
+   *
+   * @throws IOException If writing failed.
+   */
+  public void write(Document pdf, Path path) throws IOException {
+    Path dir = path.toAbsolutePath().getParent();
+    Path tmp = Files.createTempFile(dir, path.getFileName().toString(), ".tmp");
+    try {
+      try (OutputStream os = Files.newOutputStream(tmp)) {
+        write(pdf, os);
+      }
+      Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+  }
+
+  /**
+   * Writes a checkpoint of the given document to the given stream. The stream is flushed, but not
+   * closed.
+   *
+   * @param pdf    The document to write.
+   * @param stream The stream to write to.
+   *
+   * @throws IOException If writing failed.
+   */
+  public void write(Document pdf, OutputStream stream) throws IOException {
+    this.strings.clear();
+    this.stringList.clear();
+    this.fonts.clear();
+    this.colors.clear();
+    this.fontFaces.clear();
+    this.pages.clear();
+
+    List<Page> pdfPages = new ArrayList<>();
+    if (pdf.getPages() != null) {
+      for (Page page : pdf.getPages()) {
+        this.pages.put(page, pdfPages.size());
+        pdfPages.add(page);
+      }
+    }
+
+    // Collect the strings, fonts, colors and font faces to store.
+    for (Page page : pdfPages) {
+      for (Character character : page.getCharacters()) {
+        addString(character.getText());
+        addFontFace(character.getFontFace());
+        addColor(character.getColor());
+      }
+      for (Shape shape : page.getShapes()) {
+        addColor(shape.getColor());
+      }
+    }
+
+    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+    out.writeInt(MAGIC);
+    out.writeShort(VERSION);
+
+    writeVarInt(out, this.stringList.size());
+    for (String string : this.stringList) {
+      out.writeUTF(string);
+    }
+
+    writeVarInt(out, this.fonts.size());
+    for (Font font : sortByIndex(this.fonts)) {
+      writeString(out, font.getId());
+      writeString(out, font.getNormalizedName());
+      writeString(out, font.getBaseName());
+      writeString(out, font.getFontFamilyName());
+      out.writeByte((font.isBold() ? FONT_FLAG_BOLD : 0) | (font.isItalic() ? FONT_FLAG_ITALIC : 0)
+          | (font.isType3Font() ? FONT_FLAG_TYPE3 : 0));
+    }
+
+    writeVarInt(out, this.colors.size());
+    for (Color color : sortByIndex(this.colors)) {
+      writeString(out, color.getId());
+      writeString(out, color.getName());
+      int[] rgb = color.getRGB();
+      writeVarInt(out, rgb != null ? rgb.length + 1 : 0);
+      if (rgb != null) {
+        for (int value : rgb) {
+          writeVarInt(out, value);
+        }
+      }
+    }
+
+    writeVarInt(out, this.fontFaces.size());
+    for (FontFace fontFace : sortByIndex(this.fontFaces)) {
+      writeIndex(out, this.fonts, fontFace.getFont());
+      out.writeFloat(fontFace.getFontSize());
+    }
+
+    writeVarInt(out, pdfPages.size());
+    for (Page page : pdfPages) {
+      writeVarInt(out, page.getPageNumber());
+      out.writeFloat(page.getWidth());
+      out.writeFloat(page.getHeight());
+    }
+    for (Page page : pdfPages) {
+      writeVarInt(out, page.getCharacters().size());
+      for (Character character : page.getCharacters()) {
+        writeString(out, character.getText());
+        writeIndex(out, this.fontFaces, character.getFontFace());
+        writeIndex(out, this.colors, character.getColor());
+        writeVarInt(out, character.getExtractionRank());
+        writePosition(out, character.getPosition());
+      }
+      writeVarInt(out, page.getFigures().size());
+      for (Figure figure : page.getFigures()) {
+        writePosition(out, figure.getPosition());
+      }
+      writeVarInt(out, page.getShapes().size());
+      for (Shape shape : page.getShapes()) {
+        writeIndex(out, this.colors, shape.getColor());
+        writePosition(out, shape.getPosition());
+      }
+    }
+    out.flush();
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Adds the given string to the strings to store.
+   *
+   * @param string The string (may be null).
+   */
+  protected void addString(String string) {
+    if (string != null && !this.strings.containsKey(string)) {
+      this.strings.put(string, this.stringList.size());
+      this.stringList.add(string);
+    }
+  }
+
+  /**
+   * Adds the given font face (and its font) to the font faces to store.
+   *
+   * @param fontFace The font face (may be null).
+   */
+  protected void addFontFace(FontFace fontFace) {
+    if (fontFace != null && !this.fontFaces.containsKey(fontFace)) {
+      this.fontFaces.put(fontFace, this.fontFaces.size());
+      Font font = fontFace.getFont();
+      if (font != null && !this.fonts.containsKey(font)) {
+        this.fonts.put(font, this.fonts.size());
+        addString(font.getId());
+        addString(font.getNormalizedName());
+        addString(font.getBaseName());
+        addString(font.getFontFamilyName());
+      }
+    }
+  }
+
+  /**
+   * Adds the given color to the colors to store.
+   *
+   * @param color The color (may be null).
+   */
+  protected void addColor(Color color) {
+    if (color != null && !this.colors.containsKey(color)) {
+      this.colors.put(color, this.colors.size());
+      addString(color.getId());
+      addString(color.getName());
+    }
+  }
+
+  /**
+   * Returns the keys of the given map, sorted by their values (indexes).
+   *
+   * @param <T>     The type of the keys.
+   * @param indexes The map of the indexes.
+   *
+   * @return The keys, sorted by their indexes.
+   */
+  protected static <T> List<T> sortByIndex(Map<T, Integer> indexes) {
+    List<T> result = new ArrayList<>(indexes.size());
+    for (int i = 0; i < indexes.size(); i++) {
+      result.add(null);
+    }
+    for (Map.Entry<T, Integer> entry : indexes.entrySet()) {
+      result.set(entry.getValue(), entry.getKey());
+    }
+    return result;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Writes a reference to the given string.
+   *
+   * @param out    The output to write to.
+   * @param string The string (may be null).
+   *
+   * @throws IOException If writing failed.
+   */
+  protected void writeString(DataOutputStream out, String string) throws IOException {
+    writeVarInt(out, string != null ? this.strings.get(string) + 1 : 0);
+  }
+
+  /**
+   * Writes a reference to the given object.
+   *
+   * @param <T>     The type of the object.
+   * @param out     The output to write to.
+   * @param indexes The indexes of the objects of the type.
+   * @param object  The object (may be null).
+   *
+   * @throws IOException If writing failed.
+   */
+  protected <T> void writeIndex(DataOutputStream out, Map<T, Integer> indexes, T object)
+      throws IOException {
+    writeVarInt(out, object != null ? indexes.get(object) + 1 : 0);
+  }
+
+  /**
+   * Writes the given position.
+   *
+   * @param out      The output to write to.
+   * @param position The position (may be null).
+   *
+   * @throws IOException If writing failed.
+   */
+  protected void writePosition(DataOutputStream out, Position position) throws IOException {
+    Rectangle rect = position != null ? position.getRectangle() : null;
+    Integer page = position != null ? this.pages.get(position.getPage()) : null;
+    if (rect == null || page == null) {
+      writeVarInt(out, 0);
+      return;
+    }
+    writeVarInt(out, page + 1);
+    out.writeFloat(rect.getMinX());
+    out.writeFloat(rect.getMinY());
+    out.writeFloat(rect.getMaxX());
+    out.writeFloat(rect.getMaxY());
+  }
+}
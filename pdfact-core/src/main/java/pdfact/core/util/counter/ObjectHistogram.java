@@ -0,0 +1,264 @@
+package pdfact.core.util.counter;
+
+import java.util.Arrays;
+
+/**
+ * A histogram of objects that are interned (like font faces and colors, which exist only once per
+ * distinct value), with the distinct objects and their frequencies stored in small arrays, in the
+ * order in which they were added first.
+ *
+ * <p>
+ * Looking up an object compares by identity first (which is the common case for interned objects)
+ * and falls back to equals(). Since the characters of a word, line or block have only a few
+ * distinct font faces and colors, this is cheaper than hashing. Merging and subtracting
+ * histograms takes time linear in the product of the number of distinct objects of both
+ * histograms. The most common object is cached until the histogram is modified.
+ *
+ * @param <T> The type of the objects to count.
+ *
+ * @author Claudius Korzen
+ */
+public class ObjectHistogram<T> {
+  /**
+   * The default initial capacity of this histogram.
+   */
+  protected static final int DEFAULT_INITIAL_CAPACITY = 2;
+
+  /**
+   * The distinct objects (only the first {@link #numObjects} entries are used).
+   */
+  protected Object[] objects;
+
+  /**
+   * The frequencies of the objects.
+   */
+  protected int[] frequencies;
+
+  /**
+   * The number of distinct objects.
+   */
+  protected int numObjects;
+
+  /**
+   * The index of the most common object, or -1 if it must be (re-)computed.
+   */
+  protected int mostCommonIndex = -1;
+
+  // ==============================================================================================
+  // Constructors.
+
+  /**
+   * Creates a new, empty histogram with the default initial capacity.
+   */
+  public ObjectHistogram() {
+    this(DEFAULT_INITIAL_CAPACITY);
+  }
+
+  /**
+   * Creates a new, empty histogram with the given initial capacity.
+   *
+   * @param initialCapacity The initial capacity (the number of distinct objects).
+   */
+  public ObjectHistogram(int initialCapacity) {
+    this.objects = new Object[Math.max(1, initialCapacity)];
+    this.frequencies = new int[this.objects.length];
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Adds the given object to this histogram.
+   *
+   * @param object The object to add.
+   */
+  public void add(T object) {
+    add(object, 1);
+  }
+
+  /**
+   * Adds the given object with the given frequency to this histogram. Objects whose frequency
+   * drops to zero (or below) are removed.
+   *
+   * @param object    The object to add.
+   * @param frequency The frequency of the object (may be negative).
+   */
+  public void add(T object, int frequency) {
+    int index = indexOf(object);
+    if (index < 0) {
+      if (frequency <= 0) {
+        return;
+      }
+      if (this.numObjects == this.objects.length) {
+        this.objects = Arrays.copyOf(this.objects, 2 * this.numObjects);
+        this.frequencies = Arrays.copyOf(this.frequencies, 2 * this.numObjects);
+      }
+      this.objects[this.numObjects] = object;
+      this.frequencies[this.numObjects] = frequency;
+      this.numObjects++;
+    } else {
+      this.frequencies[index] += frequency;
+      if (this.frequencies[index] <= 0) {
+        // Remove the object, preserving the order of the other objects.
+        int numMoved = this.numObjects - index - 1;
+        System.arraycopy(this.objects, index + 1, this.objects, index, numMoved);
+        System.arraycopy(this.frequencies, index + 1, this.frequencies, index, numMoved);
+        this.numObjects--;
+        this.objects[this.numObjects] = null;
+      }
+    }
+    this.mostCommonIndex = -1;
+  }
+
+  /**
+   * Adds the objects of the given histogram to this histogram.
+   *
+   * @param other The histogram to add.
+   */
+  @SuppressWarnings("unchecked")
+  public void add(ObjectHistogram<T> other) {
+    if (other == null) {
+      return;
+    }
+    if (other == this) {
+      // Don't iterate the arrays that are modified.
+      for (int i = 0; i < this.numObjects; i++) {
+        this.frequencies[i] *= 2;
+      }
+      return;
+    }
+    for (int i = 0; i < other.numObjects; i++) {
+      add((T) other.objects[i], other.frequencies[i]);
+    }
+  }
+
+  /**
+   * Removes the objects of the given histogram from this histogram (for example, to compute the
+   * statistic of a sliding window incrementally).
+   *
+   * @param other The histogram to subtract.
+   */
+  @SuppressWarnings("unchecked")
+  public void subtract(ObjectHistogram<T> other) {
+    if (other == null) {
+      return;
+    }
+    if (other == this) {
+      // Don't iterate the arrays that are modified.
+      Arrays.fill(this.objects, 0, this.numObjects, null);
+      this.numObjects = 0;
+      this.mostCommonIndex = -1;
+      return;
+    }
+    for (int i = 0; i < other.numObjects; i++) {
+      add((T) other.objects[i], -other.frequencies[i]);
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the most common object. If there are multiple most common objects, the one added
+   * first is returned.
+   *
+   * @return The most common object or null if this histogram is empty.
+   */
+  @SuppressWarnings("unchecked")
+  public T getMostCommonObject() {
+    int index = getMostCommonIndex();
+    return index < 0 ? null : (T) this.objects[index];
+  }
+
+  /**
+   * Returns the frequency of the most common object.
+   *
+   * @return The frequency of the most common object or 0 if this histogram is empty.
+   */
+  public int getMostCommonObjectFrequency() {
+    int index = getMostCommonIndex();
+    return index < 0 ? 0 : this.frequencies[index];
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the distinct objects in this histogram, in the order in which they were added first.
+   *
+   * @return The distinct objects in this histogram.
+   */
+  public Object[] getObjects() {
+    return Arrays.copyOf(this.objects, this.numObjects);
+  }
+
+  /**
+   * Returns the frequency of the given object in this histogram.
+   *
+   * @param object The object to process.
+   *
+   * @return The frequency of the given object.
+   */
+  public int getFrequency(T object) {
+    int index = indexOf(object);
+    return index < 0 ? 0 : this.frequencies[index];
+  }
+
+  /**
+   * Returns the number of distinct objects in this histogram.
+   *
+   * @return The number of distinct objects in this histogram.
+   */
+  public int size() {
+    return this.numObjects;
+  }
+
+  /**
+   * Returns true if this histogram is empty.
+   *
+   * @return True if this histogram is empty; false otherwise.
+   */
+  public boolean isEmpty() {
+    return this.numObjects == 0;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the index of the given object in {@link #objects}.
+   *
+   * @param object The object to look up.
+   *
+   * @return The index of the given object, or -1 if it is not contained in this histogram.
+   */
+  protected int indexOf(T object) {
+    for (int i = 0; i < this.numObjects; i++) {
+      if (this.objects[i] == object) {
+        return i;
+      }
+    }
+    if (object != null) {
+      for (int i = 0; i < this.numObjects; i++) {
+        if (object.equals(this.objects[i])) {
+          return i;
+        }
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the index of the most common object, (re-)computing it if necessary.
+   *
+   * @return The index of the most common object, or -1 if this histogram is empty.
+   */
+  protected int getMostCommonIndex() {
+    if (this.mostCommonIndex < 0 && this.numObjects > 0) {
+      int index = 0;
+      for (int i = 1; i < this.numObjects; i++) {
+        if (this.frequencies[i] > this.frequencies[index]) {
+          index = i;
+        }
+      }
+      this.mostCommonIndex = index;
+    }
+    return this.mostCommonIndex;
+  }
+}
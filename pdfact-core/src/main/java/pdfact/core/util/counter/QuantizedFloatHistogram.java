@@ -0,0 +1,373 @@
+package pdfact.core.util.counter;
+
+import static pdfact.core.PdfActCoreSettings.FLOATING_NUMBER_PRECISION;
+
+import java.util.Arrays;
+
+/**
+ * A histogram of float values, quantized to the precision of the coordinates and font sizes in
+ * PDF documents ({@link pdfact.core.PdfActCoreSettings#FLOATING_NUMBER_PRECISION} decimal
+ * places). The values are mapped to integer bins (for example, 3.3 to 33), which are stored,
+ * sorted, in a small int array together with their frequencies.
+ *
+ * <p>
+ * Adding a value takes time linear in the number of distinct bins (which is small for the
+ * characters of a word, line or block), merging and subtracting histograms takes time linear in
+ * the number of bins of both histograms. The most common value is cached until the histogram is
+ * modified, the average value is maintained incrementally.
+ *
+ * @author Claudius Korzen
+ */
+public class QuantizedFloatHistogram {
+  /**
+   * The factor to map a value to its bin.
+   */
+  protected static final float SCALE = (float) Math.pow(10, FLOATING_NUMBER_PRECISION);
+
+  /**
+   * The default initial capacity of this histogram.
+   */
+  protected static final int DEFAULT_INITIAL_CAPACITY = 4;
+
+  /**
+   * The bins, in ascending order (only the first {@link #numBins} entries are used).
+   */
+  protected int[] bins;
+
+  /**
+   * The frequencies of the bins.
+   */
+  protected int[] frequencies;
+
+  /**
+   * The number of (non-empty) bins.
+   */
+  protected int numBins;
+
+  /**
+   * The sum of the frequencies.
+   */
+  protected long sumFrequencies;
+
+  /**
+   * The sum of the bins, weighted by their frequencies.
+   */
+  protected long sumWeightedBins;
+
+  /**
+   * The index of the most common bin, or -1 if it must be (re-)computed.
+   */
+  protected int mostCommonIndex = -1;
+
+  // ==============================================================================================
+  // Constructors.
+
+  /**
+   * Creates a new, empty histogram with the default initial capacity.
+   */
+  public QuantizedFloatHistogram() {
+    this(DEFAULT_INITIAL_CAPACITY);
+  }
+
+  /**
+   * Creates a new, empty histogram with the given initial capacity.
+   *
+   * @param initialCapacity The initial capacity (the number of distinct bins).
+   */
+  public QuantizedFloatHistogram(int initialCapacity) {
+    this.bins = new int[Math.max(1, initialCapacity)];
+    this.frequencies = new int[this.bins.length];
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Adds the given value to this histogram.
+   *
+   * @param value The value to add.
+   */
+  public void add(float value) {
+    add(value, 1);
+  }
+
+  /**
+   * Adds the given value with the given frequency to this histogram.
+   *
+   * @param value     The value to add.
+   * @param frequency The frequency of the value.
+   */
+  public void add(float value, int frequency) {
+    int bin = toBin(value);
+    int index = Arrays.binarySearch(this.bins, 0, this.numBins, bin);
+    if (index >= 0) {
+      this.frequencies[index] += frequency;
+    } else {
+      index = -index - 1;
+      ensureCapacity(this.numBins + 1);
+      System.arraycopy(this.bins, index, this.bins, index + 1, this.numBins - index);
+      System.arraycopy(this.frequencies, index, this.frequencies, index + 1,
+          this.numBins - index);
+      this.bins[index] = bin;
+      this.frequencies[index] = frequency;
+      this.numBins++;
+    }
+    this.sumFrequencies += frequency;
+    this.sumWeightedBins += (long) bin * frequency;
+    this.mostCommonIndex = -1;
+  }
+
+  /**
+   * Adds the given values to this histogram at once. This is cheaper than adding the values one
+   * by one if there are many distinct values: the values are mapped to their bins, the bins are
+   * sorted and counted, and the result is merged into this histogram.
+   *
+   * @param values    The values to add (only the first numValues entries are read).
+   * @param numValues The number of values to add.
+   */
+  public void addAll(float[] values, int numValues) {
+    if (numValues <= 0) {
+      return;
+    }
+
+    int[] valueBins = new int[numValues];
+    for (int i = 0; i < numValues; i++) {
+      valueBins[i] = toBin(values[i]);
+    }
+    Arrays.sort(valueBins);
+
+    QuantizedFloatHistogram histogram = new QuantizedFloatHistogram(0);
+    histogram.bins = valueBins;
+    histogram.frequencies = new int[numValues];
+    int n = 0;
+    for (int i = 0; i < numValues; i++) {
+      if (n > 0 && valueBins[n - 1] == valueBins[i]) {
+        histogram.frequencies[n - 1]++;
+      } else {
+        valueBins[n] = valueBins[i];
+        histogram.frequencies[n] = 1;
+        n++;
+      }
+    }
+    histogram.numBins = n;
+
+    if (this.numBins == 0) {
+      // Take over the arrays of the histogram, computing the sums.
+      this.bins = histogram.bins;
+      this.frequencies = histogram.frequencies;
+      this.numBins = n;
+      this.sumFrequencies = 0;
+      this.sumWeightedBins = 0;
+      for (int k = 0; k < n; k++) {
+        this.sumFrequencies += this.frequencies[k];
+        this.sumWeightedBins += (long) this.bins[k] * this.frequencies[k];
+      }
+      this.mostCommonIndex = -1;
+    } else {
+      merge(histogram, 1);
+    }
+  }
+
+  /**
+   * Adds the values of the given histogram to this histogram.
+   *
+   * @param other The histogram to add.
+   */
+  public void add(QuantizedFloatHistogram other) {
+    merge(other, 1);
+  }
+
+  /**
+   * Removes the values of the given histogram from this histogram (for example, to compute the
+   * statistic of a sliding window incrementally). Bins whose frequency drops to zero (or below)
+   * are removed.
+   *
+   * @param other The histogram to subtract.
+   */
+  public void subtract(QuantizedFloatHistogram other) {
+    merge(other, -1);
+  }
+
+  /**
+   * Merges the given histogram into this histogram, with the frequencies of the given histogram
+   * multiplied by the given sign.
+   *
+   * @param other The histogram to merge.
+   * @param sign  1 to add the given histogram, -1 to subtract it.
+   */
+  protected void merge(QuantizedFloatHistogram other, int sign) {
+    if (other == null || other.numBins == 0) {
+      return;
+    }
+
+    int[] newBins = new int[this.numBins + other.numBins];
+    int[] newFrequencies = new int[newBins.length];
+    int n = 0;
+    int i = 0;
+    int j = 0;
+    while (i < this.numBins || j < other.numBins) {
+      int bin;
+      int frequency;
+      if (j >= other.numBins || (i < this.numBins && this.bins[i] < other.bins[j])) {
+        bin = this.bins[i];
+        frequency = this.frequencies[i++];
+      } else if (i >= this.numBins || other.bins[j] < this.bins[i]) {
+        bin = other.bins[j];
+        frequency = sign * other.frequencies[j++];
+      } else {
+        bin = this.bins[i];
+        frequency = this.frequencies[i++] + sign * other.frequencies[j++];
+      }
+      if (frequency > 0) {
+        newBins[n] = bin;
+        newFrequencies[n] = frequency;
+        n++;
+      }
+    }
+
+    this.bins = newBins;
+    this.frequencies = newFrequencies;
+    this.numBins = n;
+    this.sumFrequencies = 0;
+    this.sumWeightedBins = 0;
+    for (int k = 0; k < n; k++) {
+      this.sumFrequencies += newFrequencies[k];
+      this.sumWeightedBins += (long) newBins[k] * newFrequencies[k];
+    }
+    this.mostCommonIndex = -1;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the most common value. If there are multiple most common values, the smallest one is
+   * returned.
+   *
+   * @return The most common value or Float.NaN if this histogram is empty.
+   */
+  public float getMostCommonFloat() {
+    int index = getMostCommonIndex();
+    return index < 0 ? Float.NaN : toValue(this.bins[index]);
+  }
+
+  /**
+   * Returns the frequency of the most common value.
+   *
+   * @return The frequency of the most common value or 0 if this histogram is empty.
+   */
+  public int getMostCommonFloatFrequency() {
+    int index = getMostCommonIndex();
+    return index < 0 ? 0 : this.frequencies[index];
+  }
+
+  /**
+   * Returns the average value.
+   *
+   * @return The average value or 0 if this histogram is empty.
+   */
+  public float getAverageFloat() {
+    if (this.sumFrequencies == 0) {
+      return 0;
+    }
+    return (float) (this.sumWeightedBins / (double) this.sumFrequencies / SCALE);
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the distinct (quantized) values in this histogram, in ascending order.
+   *
+   * @return The distinct values in this histogram.
+   */
+  public float[] getFloats() {
+    float[] values = new float[this.numBins];
+    for (int i = 0; i < this.numBins; i++) {
+      values[i] = toValue(this.bins[i]);
+    }
+    return values;
+  }
+
+  /**
+   * Returns the frequency of the given value in this histogram.
+   *
+   * @param value The value to process.
+   *
+   * @return The frequency of the given value (after quantization).
+   */
+  public int getFrequency(float value) {
+    int index = Arrays.binarySearch(this.bins, 0, this.numBins, toBin(value));
+    return index < 0 ? 0 : this.frequencies[index];
+  }
+
+  /**
+   * Returns the number of distinct (quantized) values in this histogram.
+   *
+   * @return The number of distinct values in this histogram.
+   */
+  public int size() {
+    return this.numBins;
+  }
+
+  /**
+   * Returns true if this histogram is empty.
+   *
+   * @return True if this histogram is empty; false otherwise.
+   */
+  public boolean isEmpty() {
+    return this.numBins == 0;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the index of the most common bin, (re-)computing it if necessary.
+   *
+   * @return The index of the most common bin, or -1 if this histogram is empty.
+   */
+  protected int getMostCommonIndex() {
+    if (this.mostCommonIndex < 0 && this.numBins > 0) {
+      int index = 0;
+      for (int i = 1; i < this.numBins; i++) {
+        if (this.frequencies[i] > this.frequencies[index]) {
+          index = i;
+        }
+      }
+      this.mostCommonIndex = index;
+    }
+    return this.mostCommonIndex;
+  }
+
+  /**
+   * Ensures that the arrays can hold at least the given number of bins.
+   *
+   * @param capacity The required capacity.
+   */
+  protected void ensureCapacity(int capacity) {
+    if (capacity > this.bins.length) {
+      int newCapacity = Math.max(capacity, 2 * this.bins.length);
+      this.bins = Arrays.copyOf(this.bins, newCapacity);
+      this.frequencies = Arrays.copyOf(this.frequencies, newCapacity);
+    }
+  }
+
+  /**
+   * Maps the given value to its bin.
+   *
+   * @param value The value.
+   *
+   * @return The bin of the value.
+   */
+  protected static int toBin(float value) {
+    return Math.round(value * SCALE);
+  }
+
+  /**
+   * Maps the given bin to its value.
+   *
+   * @param bin The bin.
+   *
+   * @return The value of the bin.
+   */
+  protected static float toValue(int bin) {
+    return bin / SCALE;
+  }
+}
@@ -0,0 +1,40 @@
+package pdfact.core.util.exception;
+
+/**
+ * The exception to throw on errors while writing or reading a checkpoint of a parsed PDF file.
+ * 
+ * @author Claudius Korzen
+ */
+public class PdfActCheckpointException extends PdfActException {
+  /**
+   * The serial id.
+   */
+  protected static final long serialVersionUID = 6253079455371920417L;
+
+  /**
+   * The default exit code of this exception.
+   */
+  protected static final int EXIT_CODE = 60;
+
+  /**
+   * Creates a new checkpoint exception.
+   * 
+   * @param message
+   *        The error message to show when the exception was caught.
+   */
+  public PdfActCheckpointException(String message) {
+    super(EXIT_CODE, message);
+  }
+
+  /**
+   * Creates a new checkpoint exception.
+   * 
+   * @param message
+   *        The error message to show when the exception was caught.
+   * @param cause
+   *        The cause of this exception (can be used to trace the error).
+   */
+  public PdfActCheckpointException(String message, Throwable cause) {
+    super(EXIT_CODE, message, cause);
+  }
+}
@@ -0,0 +1,556 @@
+package pdfact.core.util.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import pdfact.core.model.HasPosition;
+import pdfact.core.model.Point;
+import pdfact.core.model.Position;
+import pdfact.core.model.Rectangle;
+
+/**
+ * An implementation of {@link SpatialIndex} based on a uniform grid over the bounding box of the
+ * indexed elements.
+ *
+ * <p>
+ * The grid is sized such that a cell contains about {@link #ELEMENTS_PER_CELL} elements on
+ * average. The cells are stored in packed form: the indexes of the elements of all cells are
+ * stored in a single int array, with a second array holding the start offset of each cell. An
+ * element is registered in each cell it overlaps, except for elements overlapping more than
+ * {@link #MAX_CELLS_PER_ELEMENT} cells (e.g., page-wide rulings or background figures), which are
+ * kept in a separate list that is checked by each query.
+ *
+ * <p>
+ * The coordinates of the elements are copied to primitive arrays on building, so the index
+ * reflects the positions at building time (it must be rebuilt if elements are moved).
+ *
+ * @param <T> The type of the indexed elements.
+ *
+ * @author Claudius Korzen
+ */
+public class GridSpatialIndex<T extends HasPosition> implements SpatialIndex<T> {
+  /**
+   * The targeted average number of elements per cell.
+   */
+  protected static final int ELEMENTS_PER_CELL = 2;
+
+  /**
+   * The maximum number of cells per dimension.
+   */
+  protected static final int MAX_CELLS_PER_DIMENSION = 1024;
+
+  /**
+   * The maximum number of cells an element is registered in. Larger elements are kept in
+   * {@link #oversized}.
+   */
+  protected static final int MAX_CELLS_PER_ELEMENT = 64;
+
+  /**
+   * The elements this index was built from, in the given order.
+   */
+  protected final List<T> elements;
+
+  /**
+   * The minX values of the elements (NaN for elements without a position).
+   */
+  protected final float[] minX;
+
+  /**
+   * The minY values of the elements (NaN for elements without a position).
+   */
+  protected final float[] minY;
+
+  /**
+   * The maxX values of the elements (NaN for elements without a position).
+   */
+  protected final float[] maxX;
+
+  /**
+   * The maxY values of the elements (NaN for elements without a position).
+   */
+  protected final float[] maxY;
+
+  /**
+   * The number of indexed elements (the elements with a position).
+   */
+  protected int numIndexed;
+
+  /**
+   * The x-coordinate of the lower left corner of the grid.
+   */
+  protected float originX;
+
+  /**
+   * The y-coordinate of the lower left corner of the grid.
+   */
+  protected float originY;
+
+  /**
+   * The width of a cell.
+   */
+  protected float cellWidth = 1;
+
+  /**
+   * The height of a cell.
+   */
+  protected float cellHeight = 1;
+
+  /**
+   * The number of columns of the grid.
+   */
+  protected int numColumns = 1;
+
+  /**
+   * The number of rows of the grid.
+   */
+  protected int numRows = 1;
+
+  /**
+   * The start offsets of the cells in {@link #cellEntries}; the entries of the cell with index i
+   * (= row * numColumns + column) are stored between cellStarts[i], inclusive, and
+   * cellStarts[i + 1], exclusive.
+   */
+  protected int[] cellStarts;
+
+  /**
+   * The indexes of the elements registered in the cells.
+   */
+  protected int[] cellEntries;
+
+  /**
+   * The indexes of the elements that are too large to be registered in the cells.
+   */
+  protected int[] oversized;
+
+  // ==============================================================================================
+  // Constructors.
+
+  /**
+   * Creates a new index over the given elements.
+   *
+   * @param elements The elements to index.
+   */
+  public GridSpatialIndex(List<? extends T> elements) {
+    this.elements = elements != null ? new ArrayList<>(elements) : new ArrayList<>();
+
+    int n = this.elements.size();
+    this.minX = new float[n];
+    this.minY = new float[n];
+    this.maxX = new float[n];
+    this.maxY = new float[n];
+
+    readCoordinates();
+    computeGrid();
+    fillCells();
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Reads the coordinates of the elements and computes the bounding box of the grid.
+   */
+  protected void readCoordinates() {
+    float boundsMinX = Float.MAX_VALUE;
+    float boundsMinY = Float.MAX_VALUE;
+    float boundsMaxX = -Float.MAX_VALUE;
+    float boundsMaxY = -Float.MAX_VALUE;
+
+    for (int i = 0; i < this.elements.size(); i++) {
+      T element = this.elements.get(i);
+      Position position = element != null ? element.getPosition() : null;
+      Rectangle rect = position != null ? position.getRectangle() : null;
+      if (rect == null) {
+        this.minX[i] = this.minY[i] = this.maxX[i] = this.maxY[i] = Float.NaN;
+        continue;
+      }
+      this.minX[i] = rect.getMinX();
+      this.minY[i] = rect.getMinY();
+      this.maxX[i] = rect.getMaxX();
+      this.maxY[i] = rect.getMaxY();
+      boundsMinX = Math.min(boundsMinX, this.minX[i]);
+      boundsMinY = Math.min(boundsMinY, this.minY[i]);
+      boundsMaxX = Math.max(boundsMaxX, this.maxX[i]);
+      boundsMaxY = Math.max(boundsMaxY, this.maxY[i]);
+      this.numIndexed++;
+    }
+
+    if (this.numIndexed > 0) {
+      this.originX = boundsMinX;
+      this.originY = boundsMinY;
+      this.cellWidth = boundsMaxX - boundsMinX;
+      this.cellHeight = boundsMaxY - boundsMinY;
+    }
+  }
+
+  /**
+   * Computes the number of columns and rows of the grid and the dimensions of the cells (on
+   * input, the cell dimensions are the dimensions of the whole grid).
+   */
+  protected void computeGrid() {
+    float width = this.cellWidth;
+    float height = this.cellHeight;
+    int numCells = Math.max(1, this.numIndexed / ELEMENTS_PER_CELL);
+
+    if (width > 0 && height > 0) {
+      this.numColumns = (int) Math.round(Math.sqrt(numCells * width / height));
+    } else if (width > 0) {
+      this.numColumns = numCells;
+    } else {
+      this.numColumns = 1;
+    }
+    this.numColumns = Math.max(1, Math.min(this.numColumns, MAX_CELLS_PER_DIMENSION));
+    this.numRows = (numCells + this.numColumns - 1) / this.numColumns;
+    this.numRows = Math.max(1, Math.min(this.numRows, MAX_CELLS_PER_DIMENSION));
+    if (height <= 0) {
+      this.numRows = 1;
+    }
+
+    this.cellWidth = width > 0 ? width / this.numColumns : 1;
+    this.cellHeight = height > 0 ? height / this.numRows : 1;
+  }
+
+  /**
+   * Registers the elements in the cells they overlap.
+   */
+  protected void fillCells() {
+    int numCells = this.numColumns * this.numRows;
+    int n = this.elements.size();
+
+    // Count the entries per cell (and the oversized elements).
+    int[] counts = new int[numCells + 1];
+    int numOversized = 0;
+    for (int i = 0; i < n; i++) {
+      if (Float.isNaN(this.minX[i])) {
+        continue;
+      }
+      int col0 = getColumn(this.minX[i]);
+      int col1 = getColumn(this.maxX[i]);
+      int row0 = getRow(this.minY[i]);
+      int row1 = getRow(this.maxY[i]);
+      if ((col1 - col0 + 1) * (row1 - row0 + 1) > MAX_CELLS_PER_ELEMENT) {
+        numOversized++;
+        continue;
+      }
+      for (int row = row0; row <= row1; row++) {
+        for (int col = col0; col <= col1; col++) {
+          counts[row * this.numColumns + col + 1]++;
+        }
+      }
+    }
+
+    // Compute the start offsets of the cells.
+    for (int i = 1; i <= numCells; i++) {
+      counts[i] += counts[i - 1];
+    }
+    this.cellStarts = counts;
+    this.cellEntries = new int[counts[numCells]];
+    this.oversized = new int[numOversized];
+
+    // Fill the cells (in the order of the elements, so each cell is sorted by element index).
+    int[] offsets = Arrays.copyOf(counts, numCells);
+    numOversized = 0;
+    for (int i = 0; i < n; i++) {
+      if (Float.isNaN(this.minX[i])) {
+        continue;
+      }
+      int col0 = getColumn(this.minX[i]);
+      int col1 = getColumn(this.maxX[i]);
+      int row0 = getRow(this.minY[i]);
+      int row1 = getRow(this.maxY[i]);
+      if ((col1 - col0 + 1) * (row1 - row0 + 1) > MAX_CELLS_PER_ELEMENT) {
+        this.oversized[numOversized++] = i;
+        continue;
+      }
+      for (int row = row0; row <= row1; row++) {
+        for (int col = col0; col <= col1; col++) {
+          this.cellEntries[offsets[row * this.numColumns + col]++] = i;
+        }
+      }
+    }
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public List<T> getOverlapping(Rectangle rect) {
+    return query(rect, false);
+  }
+
+  @Override
+  public List<T> getContained(Rectangle rect) {
+    return query(rect, true);
+  }
+
+  /**
+   * Returns the elements that overlap the given rectangle or are contained in the given
+   * rectangle.
+   *
+   * <p>
+   * An element overlapping multiple cells is reported only in the cell containing the lower left
+   * corner of the intersection between the element and the query rectangle, so each element is
+   * reported at most once, without any bookkeeping of the reported elements.
+   *
+   * @param rect      The query rectangle.
+   * @param contained True to return the elements contained in the rectangle; false to return the
+   *                  elements overlapping the rectangle.
+   *
+   * @return The matching elements, in the order of the elements on building.
+   */
+  protected List<T> query(Rectangle rect, boolean contained) {
+    if (rect == null || this.numIndexed == 0) {
+      return Collections.emptyList();
+    }
+
+    int[] hits = new int[16];
+    int numHits = 0;
+
+    int col0 = getColumn(rect.getMinX());
+    int col1 = getColumn(rect.getMaxX());
+    int row0 = getRow(rect.getMinY());
+    int row1 = getRow(rect.getMaxY());
+    for (int row = row0; row <= row1; row++) {
+      for (int col = col0; col <= col1; col++) {
+        int cell = row * this.numColumns + col;
+        for (int j = this.cellStarts[cell]; j < this.cellStarts[cell + 1]; j++) {
+          int i = this.cellEntries[j];
+          if (!matches(i, rect, contained)) {
+            continue;
+          }
+          // Report the element only in the cell containing the lower left corner of the
+          // intersection.
+          if (getColumn(Math.max(rect.getMinX(), this.minX[i])) != col) {
+            continue;
+          }
+          if (getRow(Math.max(rect.getMinY(), this.minY[i])) != row) {
+            continue;
+          }
+          if (numHits == hits.length) {
+            hits = Arrays.copyOf(hits, 2 * numHits);
+          }
+          hits[numHits++] = i;
+        }
+      }
+    }
+
+    for (int i : this.oversized) {
+      if (matches(i, rect, contained)) {
+        if (numHits == hits.length) {
+          hits = Arrays.copyOf(hits, 2 * numHits);
+        }
+        hits[numHits++] = i;
+      }
+    }
+
+    Arrays.sort(hits, 0, numHits);
+    List<T> result = new ArrayList<>(numHits);
+    for (int i = 0; i < numHits; i++) {
+      result.add(this.elements.get(hits[i]));
+    }
+    return result;
+  }
+
+  /**
+   * Checks if the element with the given index overlaps the given rectangle or is contained in
+   * the given rectangle.
+   *
+   * @param i         The index of the element.
+   * @param rect      The rectangle.
+   * @param contained True to check for containment; false to check for overlap.
+   *
+   * @return True if the element matches; false otherwise.
+   */
+  protected boolean matches(int i, Rectangle rect, boolean contained) {
+    if (contained) {
+      return this.minX[i] >= rect.getMinX() && this.maxX[i] <= rect.getMaxX()
+          && this.minY[i] >= rect.getMinY() && this.maxY[i] <= rect.getMaxY();
+    }
+    return this.maxX[i] >= rect.getMinX() && this.minX[i] <= rect.getMaxX()
+        && this.minY[i] <= rect.getMaxY() && this.maxY[i] >= rect.getMinY();
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public List<T> getNearest(Point point, int k) {
+    if (point == null || k <= 0 || this.numIndexed == 0) {
+      return Collections.emptyList();
+    }
+    float x = point.getX();
+    float y = point.getY();
+
+    // The best candidates so far, sorted by their distances (and indexes, on ties).
+    k = Math.min(k, this.numIndexed);
+    int[] best = new int[k];
+    double[] bestDists = new double[k];
+    int numBest = 0;
+
+    for (int i : this.oversized) {
+      numBest = offer(best, bestDists, numBest, i, getSquaredDistance(i, x, y));
+    }
+
+    // Visit the cells in rings of growing Chebyshev distance around the cell of the point.
+    int col0 = getColumn(x);
+    int row0 = getRow(y);
+    int maxRing = Math.max(Math.max(col0, this.numColumns - 1 - col0),
+        Math.max(row0, this.numRows - 1 - row0));
+    for (int ring = 0; ring <= maxRing; ring++) {
+      int rowStart = Math.max(0, row0 - ring);
+      int rowEnd = Math.min(this.numRows - 1, row0 + ring);
+      for (int row = rowStart; row <= rowEnd; row++) {
+        boolean isOuterRow = Math.abs(row - row0) == ring;
+        int step = isOuterRow || ring == 0 ? 1 : 2 * ring;
+        for (int col = col0 - ring; col <= col0 + ring; col += step) {
+          if (col < 0 || col >= this.numColumns) {
+            continue;
+          }
+          int cell = row * this.numColumns + col;
+          for (int j = this.cellStarts[cell]; j < this.cellStarts[cell + 1]; j++) {
+            int i = this.cellEntries[j];
+            // Consider the element only in its cell closest to the cell of the point, which is
+            // the first visited cell of the element.
+            int ownerCol = clamp(col0, getColumn(this.minX[i]), getColumn(this.maxX[i]));
+            int ownerRow = clamp(row0, getRow(this.minY[i]), getRow(this.maxY[i]));
+            if (ownerCol == col && ownerRow == row) {
+              numBest = offer(best, bestDists, numBest, i, getSquaredDistance(i, x, y));
+            }
+          }
+        }
+      }
+
+      // Stop if no element in the unvisited cells can be closer than the worst candidate.
+      if (numBest == k) {
+        double bound = getDistanceToUnvisitedCells(x, y, col0, row0, ring);
+        if (bestDists[k - 1] < bound * bound) {
+          break;
+        }
+      }
+    }
+
+    List<T> result = new ArrayList<>(numBest);
+    for (int i = 0; i < numBest; i++) {
+      result.add(this.elements.get(best[i]));
+    }
+    return result;
+  }
+
+  /**
+   * Offers the element with the given index as a candidate to the given list of best candidates.
+   *
+   * @param best      The indexes of the best candidates, sorted by distance.
+   * @param bestDists The distances of the best candidates.
+   * @param numBest   The number of best candidates.
+   * @param i         The index of the element to offer.
+   * @param dist      The distance of the element.
+   *
+   * @return The new number of best candidates.
+   */
+  protected static int offer(int[] best, double[] bestDists, int numBest, int i, double dist) {
+    int pos = numBest;
+    while (pos > 0 && (bestDists[pos - 1] > dist
+        || (bestDists[pos - 1] == dist && best[pos - 1] > i))) {
+      pos--;
+    }
+    if (pos >= best.length) {
+      return numBest;
+    }
+    int end = Math.min(numBest, best.length - 1);
+    System.arraycopy(best, pos, best, pos + 1, end - pos);
+    System.arraycopy(bestDists, pos, bestDists, pos + 1, end - pos);
+    best[pos] = i;
+    bestDists[pos] = dist;
+    return end + 1;
+  }
+
+  /**
+   * Computes the squared Euclidean distance between the given point and the nearest point of the
+   * element with the given index.
+   *
+   * @param i The index of the element.
+   * @param x The x-coordinate of the point.
+   * @param y The y-coordinate of the point.
+   *
+   * @return The squared distance.
+   */
+  protected double getSquaredDistance(int i, float x, float y) {
+    double dx = Math.max(0, Math.max(this.minX[i] - x, x - this.maxX[i]));
+    double dy = Math.max(0, Math.max(this.minY[i] - y, y - this.maxY[i]));
+    return dx * dx + dy * dy;
+  }
+
+  /**
+   * Computes a lower bound for the distance between the given point and the cells that were not
+   * visited after visiting the given number of rings around the given cell.
+   *
+   * @param x    The x-coordinate of the point.
+   * @param y    The y-coordinate of the point.
+   * @param col0 The column of the cell of the point.
+   * @param row0 The row of the cell of the point.
+   * @param ring The number of the last visited ring.
+   *
+   * @return The lower bound.
+   */
+  protected double getDistanceToUnvisitedCells(float x, float y, int col0, int row0, int ring) {
+    double bound = Double.MAX_VALUE;
+    if (col0 - ring > 0) {
+      bound = Math.min(bound, x - (this.originX + (col0 - ring) * this.cellWidth));
+    }
+    if (col0 + ring + 1 < this.numColumns) {
+      bound = Math.min(bound, this.originX + (col0 + ring + 1) * this.cellWidth - x);
+    }
+    if (row0 - ring > 0) {
+      bound = Math.min(bound, y - (this.originY + (row0 - ring) * this.cellHeight));
+    }
+    if (row0 + ring + 1 < this.numRows) {
+      bound = Math.min(bound, this.originY + (row0 + ring + 1) * this.cellHeight - y);
+    }
+    // Subtract a small tolerance for the rounding in computing the cells of the elements.
+    bound -= 1e-3 * Math.max(this.cellWidth, this.cellHeight);
+    return Math.max(0, bound);
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public int size() {
+    return this.elements.size();
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the column of the cell containing the given x-coordinate (clamped to the grid).
+   *
+   * @param x The x-coordinate.
+   *
+   * @return The column.
+   */
+  protected int getColumn(float x) {
+    return clamp((int) ((x - this.originX) / this.cellWidth), 0, this.numColumns - 1);
+  }
+
+  /**
+   * Returns the row of the cell containing the given y-coordinate (clamped to the grid).
+   *
+   * @param y The y-coordinate.
+   *
+   * @return The row.
+   */
+  protected int getRow(float y) {
+    return clamp((int) ((y - this.originY) / this.cellHeight), 0, this.numRows - 1);
+  }
+
+  /**
+   * Clamps the given value to the given interval.
+   *
+   * @param value The value to clamp.
+   * @param min   The lower bound of the interval.
+   * @param max   The upper bound of the interval.
+   *
+   * @return The clamped value.
+   */
+  protected static int clamp(int value, int min, int max) {
+    return Math.max(min, Math.min(max, value));
+  }
+}
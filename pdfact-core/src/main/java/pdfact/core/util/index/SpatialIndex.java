@@ -0,0 +1,66 @@
+package pdfact.core.util.index;
+
+import java.util.List;
+
+import pdfact.core.model.HasPosition;
+import pdfact.core.model.Point;
+import pdfact.core.model.Rectangle;
+
+/**
+ * A static index over the positions of a set of elements (for example, the characters of a page),
+ * answering geometric queries without scanning all elements.
+ *
+ * <p>
+ * All queries return the matching elements in the order in which they were given on building the
+ * index (except {@link #getNearest(Point, int)}, which returns the elements sorted by distance), so
+ * a query returns the same result as a linear scan over the elements would. Elements without a
+ * position are not indexed and never returned.
+ *
+ * @param <T> The type of the indexed elements.
+ *
+ * @author Claudius Korzen
+ */
+public interface SpatialIndex<T extends HasPosition> {
+  /**
+   * Returns the elements that overlap the given rectangle (in the sense of
+   * {@link Rectangle#overlaps(Rectangle)}, that is: touching borders count as overlap).
+   *
+   * @param rect The rectangle.
+   *
+   * @return The elements overlapping the given rectangle, or an empty list if there are none.
+   */
+  List<T> getOverlapping(Rectangle rect);
+
+  /**
+   * Returns the elements that are completely contained in the given rectangle (in the sense of
+   * {@link Rectangle#contains(Rectangle)}).
+   *
+   * @param rect The rectangle.
+   *
+   * @return The elements contained in the given rectangle, or an empty list if there are none.
+   */
+  List<T> getContained(Rectangle rect);
+
+  /**
+   * Returns the k elements closest to the given point, sorted by their distance to the point (the
+   * distance between a point and an element is the Euclidean distance between the point and the
+   * nearest point of the element's rectangle; so it is 0 if the element contains the point).
+   * Elements with equal distances are sorted by the order in which they were given on building
+   * the index.
+   *
+   * @param point The point.
+   * @param k     The number of elements to return.
+   *
+   * @return The k elements closest to the given point (fewer if the index contains less than k
+   *         elements).
+   */
+  List<T> getNearest(Point point, int k);
+
+  /**
+   * Returns the number of elements this index was built from (including the elements without a
+   * position, which are not indexed).
+   *
+   * @return The number of elements this index was built from.
+   */
+  int size();
+}
@@ -1,6 +1,8 @@
 package pdfact.core.util.lexicon;
 
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import gnu.trove.set.TCharSet;
 import gnu.trove.set.hash.TCharHashSet;
@@ -440,6 +442,288 @@ public class CharacterLexicon {
     MATH_SYMBOLS.add("Ω");
   }
 
+  // ==============================================================================================
+  // Translations.
+
+  /**
+   * A map with the unicodes of ligatures and its individual characters.
+   */
+  public static final Map<String, String> LIGATURES;
+
+  static {
+    // Fill the ligatures.
+    LIGATURES = new HashMap<String, String>();
+    LIGATURES.put("\u00C6", "AE");
+    LIGATURES.put("\u00E6", "ae");
+    LIGATURES.put("\u0152", "OE");
+    LIGATURES.put("\u0153", "oe");
+    LIGATURES.put("\u0132", "IJ");
+    LIGATURES.put("\u0133", "ij");
+    LIGATURES.put("\u1D6B", "ue");
+    LIGATURES.put("\uA728", "TZ");
+    LIGATURES.put("\uA729", "tz");
+    LIGATURES.put("\uA732", "AA");
+    LIGATURES.put("\uA733", "aa");
+    LIGATURES.put("\uA734", "AO");
+    LIGATURES.put("\uA735", "ao");
+    LIGATURES.put("\uA736", "AU");
+    LIGATURES.put("\uA737", "au");
+    LIGATURES.put("\uA738", "AV");
+    LIGATURES.put("\uA739", "av");
+    LIGATURES.put("\uA73C", "AY");
+    LIGATURES.put("\uA73D", "ay");
+    LIGATURES.put("\uA74E", "OO");
+    LIGATURES.put("\uA74F", "oo");
+    LIGATURES.put("\uAB50", "ui");
+    LIGATURES.put("\uFB00", "ff");
+    LIGATURES.put("\uFB01", "fi");
+    LIGATURES.put("\uFB02", "fl");
+    LIGATURES.put("\uFB03", "ffi");
+    LIGATURES.put("\uFB04", "ffl");
+    LIGATURES.put("\uFB06", "st");
+  }
+
+  /**
+   * A map that maps some characters to a character with the same semantic
+   * meaning.
+   */
+  public static final Map<String, String> CHARACTER_SYNONYMS;
+
+  static {
+    CHARACTER_SYNONYMS = new HashMap<String, String>();
+    CHARACTER_SYNONYMS.put("\u2018", "'"); // ‘
+    CHARACTER_SYNONYMS.put("\u2019", "'"); // ’
+    CHARACTER_SYNONYMS.put("\u201b", "'"); // ‛
+    CHARACTER_SYNONYMS.put("\u201c", "\""); // “
+    CHARACTER_SYNONYMS.put("\u201d", "\""); // ”
+    CHARACTER_SYNONYMS.put("\u201f", "\""); // ‟
+    CHARACTER_SYNONYMS.put("\u301d", "\""); // 〝
+    CHARACTER_SYNONYMS.put("\u301e", "\""); // 〞
+    CHARACTER_SYNONYMS.put("\uff02", "\""); // ＂
+    CHARACTER_SYNONYMS.put("\uff07", "'"); // ＇
+  }
+
+  /**
+   * Adds non-decomposing diacritics to the hash with their related combining character. These are
+   * values that the unicode spec claims are equivalent but are not mapped in the form NFKC
+   * normalization method. Determined by going through the Combining Diacritical Marks section of
+   * the Unicode spec and identifying which characters are not mapped to by the normalization. For
+   * example, maps "ACUTE ACCENT" to "COMBINING ACUTE ACCENT".
+   */
+  public static final Map<Integer, String> COMBINING_DIACRITICS;
+
+  static {
+    COMBINING_DIACRITICS = new HashMap<Integer, String>(31);
+    COMBINING_DIACRITICS.put(0x0060, "\u0300");
+    COMBINING_DIACRITICS.put(0x02CB, "\u0300");
+    COMBINING_DIACRITICS.put(0x0027, "\u0301");
+    COMBINING_DIACRITICS.put(0x00B4, "\u0301");
+    COMBINING_DIACRITICS.put(0x02B9, "\u0301");
+    COMBINING_DIACRITICS.put(0x02CA, "\u0301");
+    COMBINING_DIACRITICS.put(0x0384, "\u0301");
+    COMBINING_DIACRITICS.put(0x005E, "\u0302");
+    COMBINING_DIACRITICS.put(0x02C6, "\u0302");
+    COMBINING_DIACRITICS.put(0x007E, "\u0303");
+    COMBINING_DIACRITICS.put(0x02DC, "\u0303");
+    COMBINING_DIACRITICS.put(0x00AF, "\u0304");
+    COMBINING_DIACRITICS.put(0x02C9, "\u0304");
+    COMBINING_DIACRITICS.put(0x00A8, "\u0308");
+    COMBINING_DIACRITICS.put(0x00B0, "\u030A");
+    COMBINING_DIACRITICS.put(0x02DA, "\u030A");
+    COMBINING_DIACRITICS.put(0x0022, "\u030B");
+    COMBINING_DIACRITICS.put(0x02BA, "\u030B");
+    COMBINING_DIACRITICS.put(0x02DD, "\u030B");
+    COMBINING_DIACRITICS.put(0x02C7, "\u030C");
+    COMBINING_DIACRITICS.put(0x02C8, "\u030D");
+    COMBINING_DIACRITICS.put(0x02BB, "\u0312");
+    COMBINING_DIACRITICS.put(0x02BC, "\u0313");
+    COMBINING_DIACRITICS.put(0x0486, "\u0313");
+    COMBINING_DIACRITICS.put(0x055A, "\u0313");
+    COMBINING_DIACRITICS.put(0x02BD, "\u0314");
+    COMBINING_DIACRITICS.put(0x0485, "\u0314");
+    COMBINING_DIACRITICS.put(0x0559, "\u0314");
+    COMBINING_DIACRITICS.put(0x02D4, "\u031D");
+    COMBINING_DIACRITICS.put(0x02D5, "\u031E");
+    COMBINING_DIACRITICS.put(0x02D6, "\u031F");
+    COMBINING_DIACRITICS.put(0x02D7, "\u0320");
+    COMBINING_DIACRITICS.put(0x02B2, "\u0321");
+    COMBINING_DIACRITICS.put(0x02CC, "\u0329");
+    COMBINING_DIACRITICS.put(0x02B7, "\u032B");
+    COMBINING_DIACRITICS.put(0x02CD, "\u0331");
+    COMBINING_DIACRITICS.put(0x005F, "\u0332");
+    COMBINING_DIACRITICS.put(0x204E, "\u0359");
+  }
+
+  // ==============================================================================================
+  // Character classes.
+
+  /**
+   * The class of letters (as defined by {@link java.lang.Character#isLetter(char)}).
+   */
+  public static final int LETTER = 1;
+
+  /**
+   * The class of digits (as defined by {@link java.lang.Character#isDigit(char)}).
+   */
+  public static final int DIGIT = 1 << 1;
+
+  /**
+   * The class of Latin letters (A-Z and a-z).
+   */
+  public static final int LATIN_LETTER = 1 << 2;
+
+  /**
+   * The class of upper-cased characters.
+   */
+  public static final int UPPERCASE = 1 << 3;
+
+  /**
+   * The class of lower-cased characters.
+   */
+  public static final int LOWERCASE = 1 << 4;
+
+  /**
+   * The class of the characters in {@link #ASCENDERS}, upper-cased characters and digits.
+   */
+  public static final int ASCENDER = 1 << 5;
+
+  /**
+   * The class of the characters in {@link #DESCENDERS}.
+   */
+  public static final int DESCENDER = 1 << 6;
+
+  /**
+   * The class of the characters in {@link #BASELINE_CHARACTERS}.
+   */
+  public static final int BASELINE_CHARACTER = 1 << 7;
+
+  /**
+   * The class of the characters in {@link #MEANLINE_CHARACTERS}.
+   */
+  public static final int MEANLINE_CHARACTER = 1 << 8;
+
+  /**
+   * The class of the characters in {@link #BASELINE_PUNCTUATION_MARKS}.
+   */
+  public static final int BASELINE_PUNCTUATION_MARK = 1 << 9;
+
+  /**
+   * The class of the characters in {@link #MEANLINE_PUNCTUATION_MARKS}.
+   */
+  public static final int MEANLINE_PUNCTUATION_MARK = 1 << 10;
+
+  /**
+   * The class of the characters in {@link #TERMINATING_PUNCTUATION_MARKS}.
+   */
+  public static final int TERMINATING_PUNCTUATION_MARK = 1 << 11;
+
+  /**
+   * The class of the characters in {@link #HYPHENS}.
+   */
+  public static final int HYPHEN = 1 << 12;
+
+  /**
+   * The class of diacritics (non-spacing marks, modifier symbols and modifier letters).
+   */
+  public static final int DIACRITIC = 1 << 13;
+
+  /**
+   * The class of the ligatures in {@link #LIGATURES}.
+   */
+  public static final int LIGATURE = 1 << 14;
+
+  /**
+   * The classes of all chars of the Basic Multilingual Plane, as bitmasks of the classes above,
+   * indexed by the char. The table is built once from the sets above (so changes to the sets
+   * after initializing this class are not reflected in the classes).
+   */
+  protected static final short[] CLASSES = new short[java.lang.Character.MAX_VALUE + 1];
+
+  static {
+    for (int i = 0; i < CLASSES.length; i++) {
+      CLASSES[i] = (short) computeClasses((char) i);
+    }
+  }
+
+  /**
+   * Computes the bitmask of the classes of the given char.
+   * 
+   * @param ch
+   *        The char to process.
+   * 
+   * @return The bitmask of the classes of the given char.
+   */
+  protected static int computeClasses(char ch) {
+    int classes = 0;
+    if (java.lang.Character.isLetter(ch)) {
+      classes |= LETTER;
+    }
+    if (java.lang.Character.isDigit(ch)) {
+      classes |= DIGIT;
+    }
+    if ((ch >= 'A' && ch <= 'Z') || (ch >= 'a' && ch <= 'z')) {
+      classes |= LATIN_LETTER;
+    }
+    if (java.lang.Character.isUpperCase(ch)) {
+      classes |= UPPERCASE;
+    }
+    if (java.lang.Character.isLowerCase(ch)) {
+      classes |= LOWERCASE;
+    }
+    if (java.lang.Character.isUpperCase(ch) || java.lang.Character.isDigit(ch)
+        || ASCENDERS.contains(ch)) {
+      classes |= ASCENDER;
+    }
+    if (DESCENDERS.contains(ch)) {
+      classes |= DESCENDER;
+    }
+    if (BASELINE_CHARACTERS.contains(ch)) {
+      classes |= BASELINE_CHARACTER;
+    }
+    if (MEANLINE_CHARACTERS.contains(ch)) {
+      classes |= MEANLINE_CHARACTER;
+    }
+    if (BASELINE_PUNCTUATION_MARKS.contains(ch)) {
+      classes |= BASELINE_PUNCTUATION_MARK;
+    }
+    if (MEANLINE_PUNCTUATION_MARKS.contains(ch)) {
+      classes |= MEANLINE_PUNCTUATION_MARK;
+    }
+    if (TERMINATING_PUNCTUATION_MARKS.contains(ch)) {
+      classes |= TERMINATING_PUNCTUATION_MARK;
+    }
+    if (HYPHENS.contains(ch)) {
+      classes |= HYPHEN;
+    }
+    int type = java.lang.Character.getType(ch);
+    if (type == java.lang.Character.NON_SPACING_MARK
+        || type == java.lang.Character.MODIFIER_SYMBOL
+        || type == java.lang.Character.MODIFIER_LETTER) {
+      classes |= DIACRITIC;
+    }
+    if (LIGATURES.containsKey(String.valueOf(ch))) {
+      classes |= LIGATURE;
+    }
+    return classes;
+  }
+
+  /**
+   * Returns the bitmask of the classes of the given text, that is: the classes of its first char
+   * (the classes of {@link #NULL} if the text is null or empty). This is the value stored in
+   * each {@link Character} on setting its text.
+   * 
+   * @param text
+   *        The text to process.
+   * 
+   * @return The bitmask of the classes of the given text.
+   */
+  public static int getClasses(String text) {
+    if (text == null || text.isEmpty()) {
+      return CLASSES[NULL];
+    }
+    return CLASSES[text.charAt(0)];
+  }
+
   // ==============================================================================================
 
   /**
@@ -451,7 +735,7 @@ public class CharacterLexicon {
    * @return True if the given character is a letter; false otherwise.
    */
   public static boolean isLetter(Character character) {
-    return java.lang.Character.isLetter(toChar(character));
+    return hasAnyClass(character, LETTER);
   }
 
   /**
@@ -463,7 +747,7 @@ public class CharacterLexicon {
    * @return True if the given character is a digit; false otherwise.
    */
   public static boolean isDigit(Character character) {
-    return java.lang.Character.isDigit(toChar(character));
+    return hasAnyClass(character, DIGIT);
   }
 
   /**
@@ -475,8 +759,7 @@ public class CharacterLexicon {
    * @return True if the given character is a latin letter; false otherwise.
    */
   public static boolean isLatinLetter(Character character) {
-    char ch = toChar(character);
-    return (ch >= 'A' && ch <= 'Z') || (ch >= 'a' && ch <= 'z');
+    return hasAnyClass(character, LATIN_LETTER);
   }
 
   /**
@@ -489,7 +772,7 @@ public class CharacterLexicon {
    *         otherwise.
    */
   public static boolean isLetterOrDigit(Character character) {
-    return java.lang.Character.isLetterOrDigit(toChar(character));
+    return hasAnyClass(character, LETTER | DIGIT);
   }
 
   /**
@@ -502,7 +785,7 @@ public class CharacterLexicon {
    *         otherwise.
    */
   public static boolean isLatinLetterOrDigit(Character character) {
-    return isLatinLetter(character) || isDigit(character);
+    return hasAnyClass(character, LATIN_LETTER | DIGIT);
   }
 
   /**
@@ -514,9 +797,7 @@ public class CharacterLexicon {
    * @return True if the given character is a punctuation mark; false otherwise.
    */
   public static boolean isPunctuationMark(Character character) {
-    char ch = toChar(character);
-    return BASELINE_PUNCTUATION_MARKS.contains(ch)
-        || MEANLINE_PUNCTUATION_MARKS.contains(ch);
+    return hasAnyClass(character, BASELINE_PUNCTUATION_MARK | MEANLINE_PUNCTUATION_MARK);
   }
 
   /**
@@ -529,8 +810,7 @@ public class CharacterLexicon {
    * @return True if the given character is a terminating punctuation mark; false otherwise.
    */
   public static boolean isTerminatingPunctuationMark(Character character) {
-    char ch = toChar(character);
-    return TERMINATING_PUNCTUATION_MARKS.contains(ch);
+    return hasAnyClass(character, TERMINATING_PUNCTUATION_MARK);
   }
 
   /**
@@ -544,7 +824,7 @@ public class CharacterLexicon {
    *         mean line; false otherwise.
    */
   public static boolean isMeanlinePunctuationMark(Character character) {
-    return MEANLINE_PUNCTUATION_MARKS.contains(toChar(character));
+    return hasAnyClass(character, MEANLINE_PUNCTUATION_MARK);
   }
 
   /**
@@ -558,7 +838,7 @@ public class CharacterLexicon {
    *         base line; false otherwise.
    */
   public static boolean isBaselinePunctuationMark(Character character) {
-    return BASELINE_PUNCTUATION_MARKS.contains(toChar(character));
+    return hasAnyClass(character, BASELINE_PUNCTUATION_MARK);
   }
 
   /**
@@ -571,7 +851,7 @@ public class CharacterLexicon {
    *         otherwise.
    */
   public static boolean isAscenderOrDescender(Character character) {
-    return isAscender(character) || isDescender(character);
+    return hasAnyClass(character, ASCENDER | DESCENDER);
   }
 
   /**
@@ -583,7 +863,7 @@ public class CharacterLexicon {
    * @return True if the given character is a descender.
    */
   public static boolean isDescender(Character character) {
-    return DESCENDERS.contains(toChar(character));
+    return hasAnyClass(character, DESCENDER);
   }
 
   /**
@@ -595,10 +875,7 @@ public class CharacterLexicon {
    * @return True if the given character is an ascender; false otherwise
    */
   public static boolean isAscender(Character character) {
-    char ch = toChar(character);
-    return java.lang.Character.isUpperCase(ch)
-        || java.lang.Character.isDigit(ch)
-        || ASCENDERS.contains(ch);
+    return hasAnyClass(character, ASCENDER);
   }
 
   /**
@@ -611,7 +888,7 @@ public class CharacterLexicon {
    *         otherwise.
    */
   public static boolean isMeanlineCharacter(Character character) {
-    return MEANLINE_CHARACTERS.contains(toChar(character));
+    return hasAnyClass(character, MEANLINE_CHARACTER);
   }
 
   /**
@@ -624,7 +901,7 @@ public class CharacterLexicon {
    *         otherwise.
    */
   public static boolean isBaselineCharacter(Character character) {
-    return BASELINE_CHARACTERS.contains(toChar(character));
+    return hasAnyClass(character, BASELINE_CHARACTER);
   }
 
   /**
@@ -637,7 +914,7 @@ public class CharacterLexicon {
    *         otherwise.
    */
   public static boolean isUppercase(Character character) {
-    return java.lang.Character.isUpperCase(toChar(character));
+    return hasAnyClass(character, UPPERCASE);
   }
 
   /**
@@ -650,7 +927,7 @@ public class CharacterLexicon {
    *         otherwise.
    */
   public static boolean isLowercase(Character character) {
-    return java.lang.Character.isLowerCase(toChar(character));
+    return hasAnyClass(character, LOWERCASE);
   }
 
   /**
@@ -677,30 +954,26 @@ public class CharacterLexicon {
    * @return True if the given character is a hyphen; false otherwise.
    */
   public static boolean isHyphen(Character character) {
-    return HYPHENS.contains(toChar(character));
+    return hasAnyClass(character, HYPHEN);
   }
 
   // ==============================================================================================
 
   /**
-   * Translates the given {@link Character} object to a primitive char value.
+   * Returns true if the given character is a member of any of the given classes.
    * 
    * @param character
-   *        The character to translate.
+   *        The character to process.
+   * @param classes
+   *        The bitmask of the classes.
    * 
-   * @return The primitive char value, or CharacterUtils.NULL if the given
-   *         character is null or empty.
+   * @return True if the given character is a member of any of the given classes; false
+   *         otherwise.
    */
-  protected static char toChar(Character character) {
+  protected static boolean hasAnyClass(Character character, int classes) {
     if (character == null) {
-      return NULL;
-    }
-
-    String text = character.getText();
-    if (text == null || text.isEmpty()) {
-      return NULL;
+      return (CLASSES[NULL] & classes) != 0;
     }
-
-    return text.charAt(0);
+    return (character.getCharacterClasses() & classes) != 0;
   }
 }
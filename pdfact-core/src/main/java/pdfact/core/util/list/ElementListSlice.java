@@ -0,0 +1,381 @@
+package pdfact.core.util.list;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+
+import pdfact.core.model.Element;
+
+/**
+ * A lightweight view of a portion of a {@link PlainElementList}, given by the parent list and the
+ * boundaries of the portion in the parent list. A slice doesn't own any elements and allocates
+ * nothing but itself, so it is cheap to create even in large numbers (for example, two per
+ * candidate cut in XYCut). Slices of slices refer directly to the parent list.
+ *
+ * <p>
+ * A slice can't be modified structurally (elements can't be added, removed or replaced). The
+ * elements can be reordered however (by {@link #swap(int, int)}, {@link #permute(int[])} and
+ * {@link #sort(java.util.Comparator)}), which reorders the related portion of the parent list.
+ *
+ * @param <T> The type of the PDF elements in this list.
+ *
+ * @author Claudius Korzen
+ */
+public class ElementListSlice<T extends Element> implements ElementList<T> {
+  /**
+   * The parent list.
+   */
+  protected final PlainElementList<T> parent;
+
+  /**
+   * The left boundary of this slice in the parent list (inclusive).
+   */
+  protected final int from;
+
+  /**
+   * The right boundary of this slice in the parent list (exclusive).
+   */
+  protected final int to;
+
+  // ==============================================================================================
+  // Constructors.
+
+  /**
+   * Creates a new slice of the given parent list.
+   *
+   * @param parent    The parent list.
+   * @param fromIndex The start index in the parent list (inclusive).
+   * @param toIndex   The end index in the parent list (exclusive).
+   */
+  ElementListSlice(PlainElementList<T> parent, int fromIndex, int toIndex) {
+    if (fromIndex < 0 || toIndex > parent.size() || fromIndex > toIndex) {
+      throw new IndexOutOfBoundsException("from: " + fromIndex + ", to: " + toIndex);
+    }
+    this.parent = parent;
+    this.from = fromIndex;
+    this.to = toIndex;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the parent list of this slice.
+   *
+   * @return The parent list of this slice.
+   */
+  public PlainElementList<T> getParent() {
+    return this.parent;
+  }
+
+  /**
+   * Returns the start index of this slice in the parent list (inclusive).
+   *
+   * @return The start index of this slice in the parent list.
+   */
+  public int getFromIndex() {
+    return this.from;
+  }
+
+  /**
+   * Returns the end index of this slice in the parent list (exclusive).
+   *
+   * @return The end index of this slice in the parent list.
+   */
+  public int getToIndex() {
+    return this.to;
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public T get(int index) {
+    if (index < 0 || index >= this.to - this.from) {
+      throw new IndexOutOfBoundsException("index: " + index + ", size: " + size());
+    }
+    return this.parent.get(this.from + index);
+  }
+
+  @Override
+  public T set(int index, T element) {
+    // Don't allow to change the content of the list.
+    throw new UnsupportedOperationException();
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public void swap(int i, int j) {
+    this.parent.swap(this.from + i, this.from + j);
+  }
+
+  @Override
+  public void permute(int[] permutation) {
+    this.parent.permute(this.from, permutation);
+  }
+
+  @Override
+  public int getModificationCount() {
+    return this.parent.getModificationCount();
+  }
+
+  @Override
+  public List<ElementList<T>> cut(int index) {
+    int cut = this.from + index;
+    ElementListSlice<T> left = new ElementListSlice<>(this.parent, this.from, cut);
+    ElementListSlice<T> right = new ElementListSlice<>(this.parent, cut, this.to);
+    return Arrays.asList(left, right);
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public boolean contains(Object o) {
+    return indexOf(o) >= 0;
+  }
+
+  @Override
+  public boolean containsAll(Collection<?> c) {
+    for (Object o : c) {
+      if (!contains(o)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int indexOf(Object o) {
+    for (int i = this.from; i < this.to; i++) {
+      if (o == null ? this.parent.get(i) == null : o.equals(this.parent.get(i))) {
+        return i - this.from;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public int lastIndexOf(Object o) {
+    for (int i = this.to - 1; i >= this.from; i--) {
+      if (o == null ? this.parent.get(i) == null : o.equals(this.parent.get(i))) {
+        return i - this.from;
+      }
+    }
+    return -1;
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public boolean add(T e) {
+    // Don't allow to change the content of the list.
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void add(int index, T element) {
+    // Don't allow to change the content of the list.
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean addAll(Collection<? extends T> c) {
+    // Don't allow to change the content of the list.
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean addAll(int index, Collection<? extends T> c) {
+    // Don't allow to change the content of the list.
+    throw new UnsupportedOperationException();
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public boolean remove(Object o) {
+    // Don't allow to change the content of the list.
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public T remove(int index) {
+    // Don't allow to change the content of the list.
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean removeAll(Collection<?> c) {
+    // Don't allow to change the content of the list.
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean retainAll(Collection<?> c) {
+    // Don't allow to change the content of the list.
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void clear() {
+    // Don't allow to change the content of the list.
+    throw new UnsupportedOperationException();
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public int size() {
+    return this.to - this.from;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.to == this.from;
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public Object[] toArray() {
+    Object[] array = new Object[size()];
+    for (int i = this.from; i < this.to; i++) {
+      array[i - this.from] = this.parent.get(i);
+    }
+    return array;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <X> X[] toArray(X[] a) {
+    int size = size();
+    if (a.length < size) {
+      a = (X[]) java.lang.reflect.Array.newInstance(a.getClass().getComponentType(), size);
+    }
+    for (int i = this.from; i < this.to; i++) {
+      a[i - this.from] = (X) this.parent.get(i);
+    }
+    if (a.length > size) {
+      a[size] = null;
+    }
+    return a;
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public Iterator<T> iterator() {
+    return listIterator(0);
+  }
+
+  @Override
+  public ListIterator<T> listIterator() {
+    return listIterator(0);
+  }
+
+  @Override
+  public ListIterator<T> listIterator(int index) {
+    if (index < 0 || index > size()) {
+      throw new IndexOutOfBoundsException("index: " + index + ", size: " + size());
+    }
+
+    return new ListIterator<T>() {
+      int cursor = ElementListSlice.this.from + index;
+
+      @Override
+      public boolean hasNext() {
+        return this.cursor < ElementListSlice.this.to;
+      }
+
+      @Override
+      public T next() {
+        if (this.cursor >= ElementListSlice.this.to) {
+          throw new NoSuchElementException();
+        }
+        return ElementListSlice.this.parent.get(this.cursor++);
+      }
+
+      @Override
+      public boolean hasPrevious() {
+        return this.cursor > ElementListSlice.this.from;
+      }
+
+      @Override
+      public T previous() {
+        if (this.cursor <= ElementListSlice.this.from) {
+          throw new NoSuchElementException();
+        }
+        return ElementListSlice.this.parent.get(--this.cursor);
+      }
+
+      @Override
+      public int nextIndex() {
+        return this.cursor - ElementListSlice.this.from;
+      }
+
+      @Override
+      public int previousIndex() {
+        return this.cursor - ElementListSlice.this.from - 1;
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public void set(T e) {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public void add(T e) {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public ElementList<T> subList(int fromIndex, int toIndex) {
+    if (fromIndex < 0 || toIndex > size() || fromIndex > toIndex) {
+      throw new IndexOutOfBoundsException("from: " + fromIndex + ", to: " + toIndex);
+    }
+    return new ElementListSlice<>(this.parent, this.from + fromIndex, this.from + toIndex);
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public boolean equals(Object other) {
+    if (other == this) {
+      return true;
+    }
+    if (!(other instanceof List)) {
+      return false;
+    }
+    ListIterator<T> e1 = listIterator();
+    ListIterator<?> e2 = ((List<?>) other).listIterator();
+    while (e1.hasNext() && e2.hasNext()) {
+      T o1 = e1.next();
+      Object o2 = e2.next();
+      if (!(o1 == null ? o2 == null : o1.equals(o2))) {
+        return false;
+      }
+    }
+    return !(e1.hasNext() || e2.hasNext());
+  }
+
+  @Override
+  public int hashCode() {
+    int hashCode = 1;
+    for (int i = this.from; i < this.to; i++) {
+      T e = this.parent.get(i);
+      hashCode = 31 * hashCode + (e == null ? 0 : e.hashCode());
+    }
+    return hashCode;
+  }
+}
@@ -0,0 +1,300 @@
+package pdfact.core.util.list;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+
+import pdfact.core.model.Element;
+
+/**
+ * A plain implementation of {@link ElementList}, which owns its elements (stored in an underlying
+ * array list).
+ *
+ * @param <T> The type of the PDF elements.
+ *
+ * @author Claudius Korzen
+ */
+public class PlainElementList<T extends Element> implements ElementList<T> {
+  /**
+   * The underlying list.
+   */
+  protected final ArrayList<T> list;
+
+  /**
+   * The number of modifications of this list so far.
+   */
+  protected int modificationCount;
+
+  /**
+   * Creates an empty list.
+   */
+  public PlainElementList() {
+    this.list = new ArrayList<>();
+  }
+
+  /**
+   * Creates an empty list with the given initial capacity.
+   *
+   * @param initialCapacity The initial capacity of the list
+   */
+  public PlainElementList(int initialCapacity) {
+    this.list = new ArrayList<>(initialCapacity);
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public T get(int index) {
+    return this.list.get(index);
+  }
+
+  @Override
+  public T set(int index, T element) {
+    this.modificationCount++;
+    return this.list.set(index, element);
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public void swap(int i, int j) {
+    T first = this.list.get(i);
+    T second = this.list.get(j);
+    this.modificationCount++;
+    this.list.set(i, second);
+    this.list.set(j, first);
+  }
+
+  @Override
+  public void permute(int[] permutation) {
+    permute(0, permutation);
+  }
+
+  /**
+   * Reorders the elements in the portion of this list that starts at the given offset according
+   * to the given permutation, such that the element at index offset + i is the element that was
+   * at index offset + permutation[i] before.
+   *
+   * @param offset      The start index of the portion to reorder.
+   * @param permutation The permutation of the indexes of the portion, relative to the offset.
+   */
+  @SuppressWarnings("unchecked")
+  protected void permute(int offset, int[] permutation) {
+    this.modificationCount++;
+    Object[] elements = new Object[permutation.length];
+    for (int i = 0; i < permutation.length; i++) {
+      elements[i] = this.list.get(offset + permutation[i]);
+    }
+    for (int i = 0; i < elements.length; i++) {
+      this.list.set(offset + i, (T) elements[i]);
+    }
+  }
+
+  @Override
+  public List<ElementList<T>> cut(int index) {
+    ElementListSlice<T> left = new ElementListSlice<>(this, 0, index);
+    ElementListSlice<T> right = new ElementListSlice<>(this, index, this.size());
+    return Arrays.asList(left, right);
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public boolean contains(Object o) {
+    return this.list.contains(o);
+  }
+
+  @Override
+  public boolean containsAll(Collection<?> c) {
+    return this.list.containsAll(c);
+  }
+
+  @Override
+  public int indexOf(Object o) {
+    return this.list.indexOf(o);
+  }
+
+  @Override
+  public int lastIndexOf(Object o) {
+    return this.list.lastIndexOf(o);
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public boolean add(T e) {
+    this.modificationCount++;
+    return this.list.add(e);
+  }
+
+  @Override
+  public void add(int index, T element) {
+    this.modificationCount++;
+    this.list.add(index, element);
+  }
+
+  @Override
+  public boolean addAll(Collection<? extends T> c) {
+    this.modificationCount++;
+    return this.list.addAll(c);
+  }
+
+  @Override
+  public boolean addAll(int index, Collection<? extends T> c) {
+    this.modificationCount++;
+    return this.list.addAll(index, c);
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public boolean remove(Object o) {
+    this.modificationCount++;
+    return this.list.remove(o);
+  }
+
+  @Override
+  public T remove(int index) {
+    this.modificationCount++;
+    return this.list.remove(index);
+  }
+
+  @Override
+  public boolean removeAll(Collection<?> c) {
+    this.modificationCount++;
+    return this.list.removeAll(c);
+  }
+
+  @Override
+  public boolean retainAll(Collection<?> c) {
+    this.modificationCount++;
+    return this.list.retainAll(c);
+  }
+
+  @Override
+  public void clear() {
+    this.modificationCount++;
+    this.list.clear();
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public int size() {
+    return this.list.size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.list.isEmpty();
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public Object[] toArray() {
+    return this.list.toArray();
+  }
+
+  @Override
+  public <X> X[] toArray(X[] a) {
+    return this.list.toArray(a);
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public Iterator<T> iterator() {
+    return listIterator(0);
+  }
+
+  @Override
+  public ListIterator<T> listIterator() {
+    return listIterator(0);
+  }
+
+  @Override
+  public ListIterator<T> listIterator(int index) {
+    ListIterator<T> iterator = this.list.listIterator(index);
+
+    // Count the modifications done through the iterator.
+    return new ListIterator<T>() {
+      @Override
+      public boolean hasNext() {
+        return iterator.hasNext();
+      }
+
+      @Override
+      public T next() {
+        return iterator.next();
+      }
+
+      @Override
+      public boolean hasPrevious() {
+        return iterator.hasPrevious();
+      }
+
+      @Override
+      public T previous() {
+        return iterator.previous();
+      }
+
+      @Override
+      public int nextIndex() {
+        return iterator.nextIndex();
+      }
+
+      @Override
+      public int previousIndex() {
+        return iterator.previousIndex();
+      }
+
+      @Override
+      public void remove() {
+        PlainElementList.this.modificationCount++;
+        iterator.remove();
+      }
+
+      @Override
+      public void set(T e) {
+        PlainElementList.this.modificationCount++;
+        iterator.set(e);
+      }
+
+      @Override
+      public void add(T e) {
+        PlainElementList.this.modificationCount++;
+        iterator.add(e);
+      }
+    };
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public int getModificationCount() {
+    return this.modificationCount;
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public ElementList<T> subList(int fromIndex, int toIndex) {
+    return new ElementListSlice<>(this, fromIndex, toIndex);
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public boolean equals(Object other) {
+    return this.list.equals(other);
+  }
+
+  @Override
+  public int hashCode() {
+    return this.list.hashCode();
+  }
+}
@@ -0,0 +1,185 @@
+package pdfact.core.util.sort;
+
+import java.util.Arrays;
+
+/**
+ * A class that sorts index permutations by primitive float keys. Instead of sorting objects with a
+ * comparator (which dereferences the compared objects on each comparison), the keys are extracted
+ * once into a float array and the sort is done on primitive values only.
+ *
+ * <p>
+ * Each key is mapped to an int that preserves the order of {@link Float#compare(float, float)}
+ * and is packed together with a tie-breaker into a single long. Sorting the longs sorts the indexes
+ * by their keys, where indexes with equal keys are ordered by the tie-breaker: by their original
+ * order (that is, the sort is stable) or by a given previous order. Sorting by several keys is done
+ * by sorting by the least significant key first and passing the result as the previous order to
+ * the sort by the next key.
+ *
+ * @author Claudius Korzen
+ */
+public class IndexSorter {
+  /**
+   * Returns the permutation of the indexes of the given keys that sorts the keys in ascending
+   * order. The i-th element of the permutation is the index of the i-th smallest key.
+   *
+   * @param keys The keys to sort.
+   *
+   * @return The permutation that sorts the keys in ascending order.
+   */
+  public static int[] sortAscending(float[] keys) {
+    long[] packed = new long[keys.length];
+    for (int i = 0; i < keys.length; i++) {
+      packed[i] = pack(toSortableInt(keys[i]), i);
+    }
+    return unpack(packed, null);
+  }
+
+  /**
+   * Returns the permutation of the indexes of the given keys that sorts the keys in ascending
+   * order, where indexes with equal keys keep the order given by the given permutation.
+   *
+   * @param keys  The keys to sort.
+   * @param order The permutation of the indexes that defines the order of equal keys.
+   *
+   * @return The permutation that sorts the keys in ascending order.
+   */
+  public static int[] sortAscending(float[] keys, int[] order) {
+    long[] packed = new long[order.length];
+    for (int i = 0; i < order.length; i++) {
+      packed[i] = pack(toSortableInt(keys[order[i]]), i);
+    }
+    return unpack(packed, order);
+  }
+
+  /**
+   * Returns the permutation of the indexes of the given keys that sorts the keys in ascending
+   * order. The i-th element of the permutation is the index of the i-th smallest key.
+   *
+   * @param keys The keys to sort.
+   *
+   * @return The permutation that sorts the keys in ascending order.
+   */
+  public static int[] sortAscending(int[] keys) {
+    long[] packed = new long[keys.length];
+    for (int i = 0; i < keys.length; i++) {
+      packed[i] = pack(keys[i], i);
+    }
+    return unpack(packed, null);
+  }
+
+  /**
+   * Returns the permutation of the indexes of the given keys that sorts the keys in descending
+   * order. The i-th element of the permutation is the index of the i-th largest key.
+   *
+   * @param keys The keys to sort.
+   *
+   * @return The permutation that sorts the keys in descending order.
+   */
+  public static int[] sortDescending(float[] keys) {
+    long[] packed = new long[keys.length];
+    for (int i = 0; i < keys.length; i++) {
+      // The bitwise complement reverses the order of the (signed) ints.
+      packed[i] = pack(~toSortableInt(keys[i]), i);
+    }
+    return unpack(packed, null);
+  }
+
+  /**
+   * Returns the permutation of the indexes of the given keys that sorts the keys in descending
+   * order, where indexes with equal keys keep the order given by the given permutation.
+   *
+   * @param keys  The keys to sort.
+   * @param order The permutation of the indexes that defines the order of equal keys.
+   *
+   * @return The permutation that sorts the keys in descending order.
+   */
+  public static int[] sortDescending(float[] keys, int[] order) {
+    long[] packed = new long[order.length];
+    for (int i = 0; i < order.length; i++) {
+      packed[i] = pack(~toSortableInt(keys[order[i]]), i);
+    }
+    return unpack(packed, order);
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Checks if the given keys are sorted in ascending order.
+   *
+   * @param keys The keys to check.
+   *
+   * @return True, if the keys are sorted in ascending order; false otherwise.
+   */
+  public static boolean isSortedAscending(float[] keys) {
+    for (int i = 1; i < keys.length; i++) {
+      if (Float.compare(keys[i - 1], keys[i]) > 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Checks if the given keys are sorted in descending order.
+   *
+   * @param keys The keys to check.
+   *
+   * @return True, if the keys are sorted in descending order; false otherwise.
+   */
+  public static boolean isSortedDescending(float[] keys) {
+    for (int i = 1; i < keys.length; i++) {
+      if (Float.compare(keys[i - 1], keys[i]) < 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Maps the given float to an int, such that the (signed) order of the ints is equal to the order
+   * of the floats as defined by {@link Float#compare(float, float)}.
+   *
+   * @param f The float to map.
+   *
+   * @return The mapped int.
+   */
+  protected static int toSortableInt(float f) {
+    int bits = Float.floatToIntBits(f);
+    // Flip all bits except the sign bit of negative floats, to reverse their order.
+    return bits ^ ((bits >> 31) & 0x7fffffff);
+  }
+
+  /**
+   * Packs the given key and the given index into a single long, such that the order of the longs
+   * is given by the keys first and by the indexes second.
+   *
+   * @param key   The key.
+   * @param index The index.
+   *
+   * @return The packed long.
+   */
+  protected static long pack(int key, int index) {
+    return ((long) key << 32) | index;
+  }
+
+  /**
+   * Sorts the given packed longs and returns the indexes in the resulting order.
+   *
+   * @param packed The packed longs.
+   * @param order  The permutation to which the packed indexes refer (null if the packed indexes
+   *               are the indexes of the keys).
+   *
+   * @return The indexes in sorted order.
+   */
+  protected static int[] unpack(long[] packed, int[] order) {
+    Arrays.sort(packed);
+    int[] permutation = new int[packed.length];
+    for (int i = 0; i < packed.length; i++) {
+      int index = (int) packed[i];
+      permutation[i] = order != null ? order[index] : index;
+    }
+    return permutation;
+  }
+}
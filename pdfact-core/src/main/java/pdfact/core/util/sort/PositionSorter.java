@@ -0,0 +1,121 @@
+package pdfact.core.util.sort;
+
+import java.util.List;
+import pdfact.core.model.Character;
+import pdfact.core.model.Rectangle;
+import pdfact.core.util.list.ElementList;
+
+/**
+ * A class that sorts lists of characters by the coordinates of their positions, using the
+ * primitive index sort of {@link IndexSorter}. The coordinates are read only once per sort, and
+ * lists that are already in the requested order (for example, because they were sorted in a
+ * previous step) are detected in linear time and left untouched.
+ *
+ * <p>
+ * The orders are total: characters with equal coordinates are ordered by further keys, ending
+ * with their extraction ranks (that is, by the order in which they were drawn). Hence, the order
+ * of a list of characters doesn't depend on the order in which the characters were passed, and
+ * any subset of a sorted list is sorted as well. The latter allows to sort a list only once and to
+ * reuse the order for all its parts (see {@link pdfact.core.util.xycut.XYCut}).
+ *
+ * <p>
+ * All characters are expected to have a position and to be located on the same page (which is
+ * the case for the characters processed by the tokenizers).
+ *
+ * @author Claudius Korzen
+ */
+public class PositionSorter {
+  /**
+   * Sorts the given characters by the minX values of their positions in ascending order.
+   * Characters with equal minX values are ordered by their extraction ranks.
+   *
+   * @param characters The characters to sort.
+   */
+  public static void sortByMinX(ElementList<Character> characters) {
+    if (characters == null || characters.size() < 2 || isSortedByMinX(characters)) {
+      return;
+    }
+    characters.permute(getMinXOrder(characters));
+  }
+
+  /**
+   * Sorts the given characters by the maxY values of their positions in descending order.
+   * Characters with equal maxY values are ordered by their minX values and then by their
+   * extraction ranks.
+   *
+   * @param characters The characters to sort.
+   */
+  public static void sortByMaxYDescending(ElementList<Character> characters) {
+    if (characters == null || characters.size() < 2) {
+      return;
+    }
+    characters.permute(getMaxYDescendingOrder(characters));
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the permutation of the indexes of the given characters that sorts the characters by
+   * the minX values of their positions in ascending order (and by their extraction ranks on equal
+   * minX values).
+   *
+   * @param characters The characters.
+   *
+   * @return The permutation, with the index of the i-th character in sorted order at index i.
+   */
+  public static int[] getMinXOrder(List<Character> characters) {
+    int n = characters.size();
+    float[] minX = new float[n];
+    int[] ranks = new int[n];
+    for (int i = 0; i < n; i++) {
+      Character character = characters.get(i);
+      minX[i] = character.getPosition().getRectangle().getMinX();
+      ranks[i] = character.getExtractionRank();
+    }
+    return IndexSorter.sortAscending(minX, IndexSorter.sortAscending(ranks));
+  }
+
+  /**
+   * Returns the permutation of the indexes of the given characters that sorts the characters by
+   * the maxY values of their positions in descending order (and by their minX values and their
+   * extraction ranks on equal maxY values).
+   *
+   * @param characters The characters.
+   *
+   * @return The permutation, with the index of the i-th character in sorted order at index i.
+   */
+  public static int[] getMaxYDescendingOrder(List<Character> characters) {
+    int n = characters.size();
+    float[] maxY = new float[n];
+    for (int i = 0; i < n; i++) {
+      maxY[i] = characters.get(i).getPosition().getRectangle().getMaxY();
+    }
+    return IndexSorter.sortDescending(maxY, getMinXOrder(characters));
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Checks if the given characters are sorted by their minX values (and their extraction ranks on
+   * equal minX values).
+   *
+   * @param characters The characters to check.
+   *
+   * @return True, if the characters are sorted; false otherwise.
+   */
+  protected static boolean isSortedByMinX(List<Character> characters) {
+    Character prev = characters.get(0);
+    float prevMinX = prev.getPosition().getRectangle().getMinX();
+    for (int i = 1; i < characters.size(); i++) {
+      Character character = characters.get(i);
+      Rectangle rect = character.getPosition().getRectangle();
+      int cmp = Float.compare(prevMinX, rect.getMinX());
+      if (cmp > 0 || (cmp == 0 && prev.getExtractionRank() > character.getExtractionRank())) {
+        return false;
+      }
+      prev = character;
+      prevMinX = rect.getMinX();
+    }
+    return true;
+  }
+}
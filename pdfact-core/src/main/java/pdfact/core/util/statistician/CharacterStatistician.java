@@ -10,8 +10,8 @@ import pdfact.core.model.HasCharacterStatistic;
 import pdfact.core.model.HasCharacters;
 import pdfact.core.model.Position;
 import pdfact.core.model.Rectangle;
-import pdfact.core.util.counter.FloatCounter;
-import pdfact.core.util.counter.ObjectCounter;
+import pdfact.core.util.counter.ObjectHistogram;
+import pdfact.core.util.counter.QuantizedFloatHistogram;
 import pdfact.core.util.list.ElementList;
 
 /**
@@ -44,23 +44,25 @@ public class CharacterStatistician {
     // Create a new statistic object.
     CharacterStatistic statistic = new CharacterStatistic();
 
-    // Initialize counters for the heights, widths and font sizes.
-    FloatCounter heightsFrequencies = new FloatCounter();
-    FloatCounter widthsFrequencies = new FloatCounter();
-    FloatCounter fontsizeFrequencies = new FloatCounter();
+    // Collect the heights, widths and font sizes, to add them to the histograms at once.
+    int numCharacters = characters.size();
+    float[] heights = new float[numCharacters];
+    float[] widths = new float[numCharacters];
+    float[] fontsizes = new float[numCharacters];
 
-    // Initialize counters for the colors and font faces.
-    ObjectCounter<Color> colorFreqs = new ObjectCounter<>();
-    ObjectCounter<FontFace> fontFreqs = new ObjectCounter<>();
+    // Initialize histograms for the colors and font faces.
+    ObjectHistogram<Color> colorFreqs = new ObjectHistogram<>();
+    ObjectHistogram<FontFace> fontFreqs = new ObjectHistogram<>();
 
-    for (Character character : characters) {
+    for (int i = 0; i < numCharacters; i++) {
+      Character character = characters.get(i);
       Position position = character.getPosition();
       Rectangle rectangle = position.getRectangle();
 
-      heightsFrequencies.add(rectangle.getHeight());
-      widthsFrequencies.add(rectangle.getWidth());
+      heights[i] = rectangle.getHeight();
+      widths[i] = rectangle.getWidth();
       fontFreqs.add(character.getFontFace());
-      fontsizeFrequencies.add(character.getFontFace().getFontSize());
+      fontsizes[i] = character.getFontFace().getFontSize();
       colorFreqs.add(character.getColor());
 
       if (rectangle.getMinX() < statistic.getSmallestMinX()) {
@@ -80,6 +82,13 @@ public class CharacterStatistician {
       }
     }
 
+    QuantizedFloatHistogram heightsFrequencies = new QuantizedFloatHistogram();
+    heightsFrequencies.addAll(heights, numCharacters);
+    QuantizedFloatHistogram widthsFrequencies = new QuantizedFloatHistogram();
+    widthsFrequencies.addAll(widths, numCharacters);
+    QuantizedFloatHistogram fontsizeFrequencies = new QuantizedFloatHistogram();
+    fontsizeFrequencies.addAll(fontsizes, numCharacters);
+
     // Fill the statistic object.
     statistic.setHeightFrequencies(heightsFrequencies);
     statistic.setWidthFrequencies(widthsFrequencies);
@@ -103,14 +112,14 @@ public class CharacterStatistician {
     // Create new statistic object.
     CharacterStatistic statistic = new CharacterStatistic();
 
-    // Initialize counters for the heights, widths and font sizes.
-    FloatCounter heightsFrequencies = new FloatCounter();
-    FloatCounter widthsFrequencies = new FloatCounter();
-    FloatCounter fontsizeFrequencies = new FloatCounter();
+    // Initialize histograms for the heights, widths and font sizes.
+    QuantizedFloatHistogram heightsFrequencies = new QuantizedFloatHistogram();
+    QuantizedFloatHistogram widthsFrequencies = new QuantizedFloatHistogram();
+    QuantizedFloatHistogram fontsizeFrequencies = new QuantizedFloatHistogram();
 
-    // Initialize counters for the colors and font faces.
-    ObjectCounter<Color> colorFreqs = new ObjectCounter<>();
-    ObjectCounter<FontFace> fontFreqs = new ObjectCounter<>();
+    // Initialize histograms for the colors and font faces.
+    ObjectHistogram<Color> colorFreqs = new ObjectHistogram<>();
+    ObjectHistogram<FontFace> fontFreqs = new ObjectHistogram<>();
 
     // Aggregate the given statistics.
     for (HasCharacterStatistic s : stats) {
@@ -0,0 +1,116 @@
+package pdfact.core.util.text;
+
+import java.util.Arrays;
+
+/**
+ * An append-only buffer of characters that holds the text of a page (for example, the text of all
+ * words of the page, separated by whitespaces). The text of an element is stored in this buffer
+ * only once and referenced by a {@link TextView}, given by a start and an end offset, so the text
+ * of an element that consists of consecutive elements (like a text line, which consists of
+ * consecutive words) is a view on the same characters, without copying them.
+ *
+ * <p>
+ * Characters are only appended to this buffer, never changed or removed, so the text of a view
+ * never changes.
+ *
+ * @author Claudius Korzen
+ */
+public class TextBuffer {
+  /**
+   * The default initial capacity of this buffer.
+   */
+  protected static final int DEFAULT_INITIAL_CAPACITY = 1024;
+
+  /**
+   * The characters of this buffer (only the first {@link #length} entries are used).
+   */
+  protected char[] chars;
+
+  /**
+   * The number of characters in this buffer.
+   */
+  protected int length;
+
+  // ==============================================================================================
+  // Constructors.
+
+  /**
+   * Creates a new, empty buffer with the default initial capacity.
+   */
+  public TextBuffer() {
+    this(DEFAULT_INITIAL_CAPACITY);
+  }
+
+  /**
+   * Creates a new, empty buffer with the given initial capacity.
+   *
+   * @param initialCapacity The initial capacity (the number of characters).
+   */
+  public TextBuffer(int initialCapacity) {
+    this.chars = new char[Math.max(1, initialCapacity)];
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Appends the given string to this buffer. Like {@link StringBuilder#append(String)}, the
+   * string "null" is appended if the given string is null.
+   *
+   * @param str The string to append.
+   */
+  public void append(String str) {
+    String s = str != null ? str : "null";
+    int len = s.length();
+    ensureCapacity(this.length + len);
+    s.getChars(0, len, this.chars, this.length);
+    this.length += len;
+  }
+
+  /**
+   * Appends the given character to this buffer.
+   *
+   * @param c The character to append.
+   */
+  public void append(char c) {
+    ensureCapacity(this.length + 1);
+    this.chars[this.length++] = c;
+  }
+
+  /**
+   * Returns a view on the characters of this buffer in the given range.
+   *
+   * @param start The start offset (inclusive).
+   * @param end   The end offset (exclusive).
+   *
+   * @return The view on the characters in the given range.
+   */
+  public TextView view(int start, int end) {
+    if (start < 0 || start > end || end > this.length) {
+      throw new IndexOutOfBoundsException("[" + start + ", " + end + ") of " + this.length);
+    }
+    return new TextView(this, start, end);
+  }
+
+  /**
+   * Returns the number of characters in this buffer.
+   *
+   * @return The number of characters in this buffer.
+   */
+  public int length() {
+    return this.length;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Ensures that this buffer can hold at least the given number of characters.
+   *
+   * @param capacity The required capacity.
+   */
+  protected void ensureCapacity(int capacity) {
+    if (capacity > this.chars.length) {
+      int newCapacity = Math.max(capacity, 2 * this.chars.length);
+      this.chars = Arrays.copyOf(this.chars, newCapacity);
+    }
+  }
+}
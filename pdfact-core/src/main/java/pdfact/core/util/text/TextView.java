@@ -0,0 +1,201 @@
+package pdfact.core.util.text;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import pdfact.core.model.HasText;
+
+/**
+ * A view on a range of the characters of a {@link TextBuffer}. The text is materialized as a
+ * string only when {@link #toString()} is called (and cached afterwards).
+ *
+ * @author Claudius Korzen
+ */
+public class TextView implements CharSequence {
+  /**
+   * The buffer that holds the characters of this view.
+   */
+  protected final TextBuffer buffer;
+
+  /**
+   * The start offset of this view in the buffer (inclusive).
+   */
+  protected final int start;
+
+  /**
+   * The end offset of this view in the buffer (exclusive).
+   */
+  protected final int end;
+
+  /**
+   * The text of this view as a string (computed on first access).
+   */
+  protected String string;
+
+  // ==============================================================================================
+  // Constructors.
+
+  /**
+   * Creates a new view on the given range of the given buffer.
+   *
+   * @param buffer The buffer.
+   * @param start  The start offset (inclusive).
+   * @param end    The end offset (exclusive).
+   */
+  protected TextView(TextBuffer buffer, int start, int end) {
+    this.buffer = buffer;
+    this.start = start;
+    this.end = end;
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public int length() {
+    return this.end - this.start;
+  }
+
+  @Override
+  public char charAt(int index) {
+    if (index < 0 || index >= length()) {
+      throw new IndexOutOfBoundsException(String.valueOf(index));
+    }
+    return this.buffer.chars[this.start + index];
+  }
+
+  @Override
+  public CharSequence subSequence(int start, int end) {
+    if (start < 0 || start > end || end > length()) {
+      throw new IndexOutOfBoundsException("[" + start + ", " + end + ") of " + length());
+    }
+    return new TextView(this.buffer, this.start + start, this.start + end);
+  }
+
+  /**
+   * Appends the text of this view to the given builder, without materializing it as a string.
+   *
+   * @param builder The builder to which the text should be appended.
+   */
+  public void appendTo(StringBuilder builder) {
+    if (this.string != null) {
+      builder.append(this.string);
+    } else {
+      builder.append(this.buffer.chars, this.start, length());
+    }
+  }
+
+  /**
+   * Writes the text of this view to the given writer, without materializing it as a string.
+   *
+   * @param writer The writer to which the text should be written.
+   *
+   * @throws IOException If writing failed.
+   */
+  public void writeTo(Writer writer) throws IOException {
+    if (this.string != null) {
+      writer.write(this.string);
+    } else {
+      writer.write(this.buffer.chars, this.start, length());
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the buffer of this view.
+   *
+   * @return The buffer of this view.
+   */
+  public TextBuffer getBuffer() {
+    return this.buffer;
+  }
+
+  /**
+   * Returns the start offset of this view in the buffer (inclusive).
+   *
+   * @return The start offset of this view.
+   */
+  public int getStart() {
+    return this.start;
+  }
+
+  /**
+   * Returns the end offset of this view in the buffer (exclusive).
+   *
+   * @return The end offset of this view.
+   */
+  public int getEnd() {
+    return this.end;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Joins the texts of the given elements with the given delimiter (like
+   * {@link pdfact.core.util.PdfActUtils#join(List, String)}). If the texts of the elements are
+   * views on consecutive ranges of the same buffer, separated by the delimiter, the result is a
+   * single view on the covering range (no characters are copied). Otherwise, the texts are
+   * appended to a single builder (the texts of views are appended without being materialized).
+   *
+   * @param elements The elements to join.
+   * @param delim    The delimiter.
+   *
+   * @return The joined texts or null if the given list is null.
+   */
+  public static CharSequence join(List<? extends HasText> elements, char delim) {
+    if (elements == null) {
+      return null;
+    }
+    if (elements.isEmpty()) {
+      return "";
+    }
+
+    TextView first = null;
+    TextView prev = null;
+    boolean isConsecutive = true;
+    for (HasText element : elements) {
+      CharSequence text = element != null ? element.getTextView() : null;
+      if (!(text instanceof TextView)) {
+        isConsecutive = false;
+        break;
+      }
+      TextView view = (TextView) text;
+      if (prev == null) {
+        first = view;
+      } else if (view.buffer != prev.buffer || view.start != prev.end + 1
+          || view.buffer.chars[prev.end] != delim) {
+        isConsecutive = false;
+        break;
+      }
+      prev = view;
+    }
+    if (isConsecutive) {
+      return first == prev ? first : new TextView(first.buffer, first.start, prev.end);
+    }
+
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < elements.size(); i++) {
+      if (i > 0) {
+        builder.append(delim);
+      }
+      HasText element = elements.get(i);
+      CharSequence text = element != null ? element.getTextView() : null;
+      if (text instanceof TextView) {
+        ((TextView) text).appendTo(builder);
+      } else {
+        builder.append(text);
+      }
+    }
+    return builder.toString();
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public String toString() {
+    if (this.string == null) {
+      this.string = new String(this.buffer.chars, this.start, length());
+    }
+    return this.string;
+  }
+}
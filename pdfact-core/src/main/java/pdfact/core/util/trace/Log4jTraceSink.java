@@ -0,0 +1,57 @@
+package pdfact.core.util.trace;
+
+import java.util.EnumMap;
+import java.util.Map;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A {@link TraceSink} that writes the traced messages to log4j, with one logger per channel.
+ * The loggers are named "pdfact.trace.[channel-name]" and are configured in log4j2.properties to
+ * let pass all debug messages, since the decision whether or not a message should be written was
+ * already made by the {@link Tracer} of the processed document.
+ * 
+ * @author Claudius Korzen
+ */
+public class Log4jTraceSink implements TraceSink {
+  /**
+   * The prefix of the names of the loggers.
+   */
+  public static final String LOGGER_NAME_PREFIX = "pdfact.trace.";
+
+  /**
+   * The shared instance of this sink.
+   */
+  protected static final Log4jTraceSink INSTANCE = new Log4jTraceSink();
+
+  /**
+   * The loggers per channel.
+   */
+  protected final Map<TraceChannel, Logger> loggers;
+
+  /**
+   * Creates a new sink that writes to log4j.
+   */
+  protected Log4jTraceSink() {
+    this.loggers = new EnumMap<>(TraceChannel.class);
+    for (TraceChannel channel : TraceChannel.values()) {
+      this.loggers.put(channel, LogManager.getLogger(LOGGER_NAME_PREFIX + channel.getName()));
+    }
+  }
+
+  /**
+   * Returns the shared instance of this sink.
+   * 
+   * @return The shared instance of this sink.
+   */
+  public static Log4jTraceSink getInstance() {
+    return INSTANCE;
+  }
+
+  // ==============================================================================================
+
+  @Override
+  public void write(TraceChannel channel, String message) {
+    this.loggers.get(channel).debug(message);
+  }
+}
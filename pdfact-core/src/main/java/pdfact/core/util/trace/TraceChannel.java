@@ -0,0 +1,120 @@
+package pdfact.core.util.trace;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An enumeration of all channels on which debug info about the single extraction steps can be
+ * traced.
+ * 
+ * @author Claudius Korzen
+ */
+public enum TraceChannel {
+  /**
+   * The channel for debug info about the PDF parsing step.
+   */
+  PDF_PARSING("pdf-parsing"),
+
+  /**
+   * The channel for debug info about the extracted characters.
+   */
+  CHAR_EXTRACTION("char-extraction"),
+
+  /**
+   * The channel for debug info about splitting ligatures.
+   */
+  SPLITTING_LIGATURES("splitting-ligatures"),
+
+  /**
+   * The channel for debug info about merging diacritics.
+   */
+  MERGING_DIACRITICS("merging-diacritics"),
+
+  /**
+   * The channel for debug info about the text line detection.
+   */
+  LINE_DETECTION("line-detection"),
+
+  /**
+   * The channel for debug info about the word detection.
+   */
+  WORD_DETECTION("word-detection"),
+
+  /**
+   * The channel for debug info about the text block detection.
+   */
+  BLOCK_DETECTION("block-detection"),
+
+  /**
+   * The channel for debug info about the semantic roles detection.
+   */
+  ROLE_DETECTION("role-detection"),
+
+  /**
+   * The channel for debug info about the paragraphs detection.
+   */
+  PARAGRAPH_DETECTION("paragraph-detection"),
+
+  /**
+   * The channel for debug info about the word dehyphenation.
+   */
+  WORD_DEHYPHENATION("word-dehyphenation");
+
+  // ==============================================================================================
+
+  /**
+   * The name of this channel.
+   */
+  protected String name;
+
+  /**
+   * The channels per names.
+   */
+  protected static final Map<String, TraceChannel> CHANNELS;
+
+  static {
+    CHANNELS = new HashMap<>();
+
+    // Fill the map of channels per name.
+    for (TraceChannel channel : values()) {
+      CHANNELS.put(channel.getName(), channel);
+    }
+  }
+
+  /**
+   * Creates a new trace channel.
+   * 
+   * @param name The name of the channel.
+   */
+  TraceChannel(String name) {
+    this.name = name;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the name of this channel.
+   * 
+   * @return The name of this channel.
+   */
+  public String getName() {
+    return this.name;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the channel that is associated with the given name.
+   * 
+   * @param name The name of the channel to fetch.
+   * 
+   * @return The channel that is associated with the given name or null if there is no such
+   *         channel.
+   */
+  public static TraceChannel fromString(String name) {
+    if (name == null) {
+      return null;
+    }
+    return CHANNELS.get(name.toLowerCase());
+  }
+}
@@ -0,0 +1,16 @@
+package pdfact.core.util.trace;
+
+/**
+ * A target to which the debug info traced by a {@link Tracer} is written.
+ * 
+ * @author Claudius Korzen
+ */
+public interface TraceSink {
+  /**
+   * Writes the given (already formatted) message.
+   * 
+   * @param channel The channel on which the message was traced.
+   * @param message The message to write.
+   */
+  void write(TraceChannel channel, String message);
+}
@@ -0,0 +1,98 @@
+package pdfact.core.util.trace;
+
+/**
+ * A tracer that writes debug info about a single extraction step of a single document to a
+ * {@link TraceSink}. Whether or not a tracer is enabled is defined per document (see
+ * {@link pdfact.core.model.Document#getTracer(TraceChannel)}), so that one document can be traced
+ * while other documents are processed concurrently without any tracing.
+ * 
+ * <p>
+ * Messages are only formatted if the tracer is enabled. Hot paths (e.g., code that is executed
+ * per glyph or per operator) should nevertheless check {@link #isEnabled()} before calling
+ * {@link #trace(String, Object...)}, so that neither the varargs array is allocated nor any
+ * primitive arguments are boxed when tracing is disabled.
+ * 
+ * @author Claudius Korzen
+ */
+public class Tracer {
+  /**
+   * A tracer that is disabled and hence never writes anything.
+   */
+  public static final Tracer DISABLED = new Tracer(null, null, false);
+
+  /**
+   * The channel of this tracer.
+   */
+  protected final TraceChannel channel;
+
+  /**
+   * The sink to which this tracer writes.
+   */
+  protected final TraceSink sink;
+
+  /**
+   * A boolean flag indicating whether or not this tracer is enabled.
+   */
+  protected final boolean enabled;
+
+  // ==============================================================================================
+
+  /**
+   * Creates a new tracer.
+   * 
+   * @param channel The channel of this tracer.
+   * @param sink    The sink to which this tracer should write.
+   * @param enabled A boolean flag indicating whether or not this tracer is enabled.
+   */
+  public Tracer(TraceChannel channel, TraceSink sink, boolean enabled) {
+    this.channel = channel;
+    this.sink = sink;
+    this.enabled = enabled && sink != null;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns true if this tracer is enabled, false otherwise.
+   * 
+   * @return True if this tracer is enabled, false otherwise.
+   */
+  public boolean isEnabled() {
+    return this.enabled;
+  }
+
+  /**
+   * Returns the channel of this tracer.
+   * 
+   * @return The channel of this tracer.
+   */
+  public TraceChannel getChannel() {
+    return this.channel;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Writes the given message to the sink, if this tracer is enabled.
+   * 
+   * @param message The message to write.
+   */
+  public void trace(String message) {
+    if (this.enabled) {
+      this.sink.write(this.channel, message);
+    }
+  }
+
+  /**
+   * Formats the given message by {@link String#format(String, Object...)} and writes it to the
+   * sink, if this tracer is enabled.
+   * 
+   * @param format The format string of the message.
+   * @param args   The arguments referenced by the format specifiers in the format string.
+   */
+  public void trace(String format, Object... args) {
+    if (this.enabled) {
+      this.sink.write(this.channel, String.format(format, args));
+    }
+  }
+}
@@ -2,14 +2,13 @@ package pdfact.core.util.xycut;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 import pdfact.core.model.Character;
 import pdfact.core.model.Document;
 import pdfact.core.model.Page;
-import pdfact.core.util.comparator.MaxYComparator;
-import pdfact.core.util.comparator.MinXComparator;
 import pdfact.core.util.list.ElementList;
+import pdfact.core.util.list.PlainElementList;
+import pdfact.core.util.sort.PositionSorter;
 
 /**
  * A class that cuts a list of characters horizontally and vertically into
@@ -21,6 +20,14 @@ public abstract class XYCut {
   /**
    * Cuts the given characters into blocks of type T.
    * 
+   * <p>
+   * The characters are sorted only once in x direction and once in y direction (see
+   * {@link PositionSorter}). The orders of the blocks resulting from a cut are derived from these
+   * orders by partitioning them in linear time, instead of sorting the characters of each block
+   * again. On return, the given list is reordered such that the characters of each block are
+   * stored consecutively (sorted by their maxY values in descending order) and the resulting
+   * blocks are slices of the given list.
+   * 
    * @param pdf
    *        The PDF document to which the characters belong to.
    * @param page
@@ -33,42 +40,54 @@ public abstract class XYCut {
   public List<ElementList<Character>> cut(Document pdf, Page page,
       ElementList<Character> characters) {
     List<ElementList<Character>> target = new ArrayList<>();
-    cut(pdf, page, characters, target);
+    if (characters == null || characters.isEmpty()) {
+      return target;
+    }
+
+    XYCutOrders orders = new XYCutOrders(characters);
+    cut(pdf, page, orders, PositionSorter.getMinXOrder(characters),
+        PositionSorter.getMaxYDescendingOrder(characters));
+
+    // Store the characters of each block consecutively and slice the blocks.
+    characters.permute(orders.blockOrder);
+    int from = 0;
+    for (int i = 0; i < orders.numBlocks; i++) {
+      int to = orders.blockEnds[i];
+      target.add(characters.subList(from, to));
+      from = to;
+    }
     return target;
   }
 
   /**
-   * Cuts the given characters into blocks of type T and adds them to the given
-   * result list.
+   * Cuts the given characters into blocks and appends them to the blocks of the given orders.
    * 
    * @param pdf
    *        The PDF document to which the characters belong to.
    * @param page
    *        The page in which the characters are located.
-   * @param origin
-   *        The characters to be cut.
-   * @param target
-   *        The list of blocks to fill.
+   * @param orders
+   *        The characters to cut and the resulting blocks.
+   * @param xs
+   *        The indexes of the characters to be cut, sorted in x direction.
+   * @param ys
+   *        The indexes of the characters to be cut, sorted in y direction.
    */
-  protected void cut(Document pdf, Page page, ElementList<Character> origin,
-      List<ElementList<Character>> target) {
+  protected void cut(Document pdf, Page page, XYCutOrders orders, int[] xs, int[] ys) {
     // Cut the characters vertically (x-cut).
-    List<ElementList<Character>> xBlocks = xCut(pdf, page, origin);
+    int[][] xBlocks = xCut(pdf, page, orders, xs, ys);
 
-    for (ElementList<Character> xBlock : xBlocks) {
+    for (int i = 0; i < xBlocks.length; i += 2) {
       // Cut the characters horizontally (y-cut).
-      List<ElementList<Character>> yBlocks = yCut(pdf, page, xBlock);
-      if (xBlocks.size() == 1 && yBlocks.size() == 1) {
+      int[][] yBlocks = yCut(pdf, page, orders, xBlocks[i], xBlocks[i + 1]);
+      if (xBlocks.length == 2 && yBlocks.length == 2) {
         // Both cuts results in a single blocks. So, the characters could *not*
-        // be cut. Pack them and add them to the result list.
-        ElementList<Character> block = yBlocks.get(0);
-        if (block != null && !block.isEmpty()) {
-          target.add(block);
-        }
+        // be cut. Add them to the result list.
+        orders.addBlock(yBlocks[1]);
       } else {
         // The characters could be cut. Cut the resulted blocks recursively.
-        for (ElementList<Character> yBlock : yBlocks) {
-          cut(pdf, page, yBlock, target);
+        for (int j = 0; j < yBlocks.length; j += 2) {
+          cut(pdf, page, orders, yBlocks[j], yBlocks[j + 1]);
         }
       }
     }
@@ -83,55 +102,54 @@ public abstract class XYCut {
    *        The PDF document to which the characters belong to.
    * @param page
    *        The page in which the characters are located.
-   * @param chars
+   * @param orders
    *        The characters to cut.
-   * @return A list of list of characters. In case of the characters could be
-   *         cut, this list has two inner lists representing the characters of
-   *         the two halves. In case of the characters could *not* be cut, the
-   *         list consists only of a single list, which is the original list of
-   *         characters.
+   * @param xs
+   *        The indexes of the characters to cut, sorted in x direction.
+   * @param ys
+   *        The indexes of the characters to cut, sorted in y direction.
+   * @return The indexes of the characters of the resulting blocks, in both directions: {xs, ys}
+   *         if the characters could *not* be cut; {leftXs, leftYs, rightXs, rightYs} otherwise.
    */
-  protected List<ElementList<Character>> xCut(Document pdf, Page page,
-      ElementList<Character> chars) {
-    if (chars != null && !chars.isEmpty()) {
-      // Sort the characters by minX in order to sweep them in x direction.
-      Collections.sort(chars, new MinXComparator());
-
-      // The score of the best cut found so far.
-      float bestCutScore = 0;
-      // The index of the best cut found so far.
-      int bestCutIndex = -1;
-      // The current position in the list of characters.
-      float currentPos = chars.get(0).getPosition().getRectangle().getMaxX();
-
-      for (int index = 1; index < chars.size(); index++) {
-        Character character = chars.get(index);
-
-        if (character.getPosition().getRectangle().getMinX() > currentPos) {
-          List<ElementList<Character>> halves = chars.cut(index);
-          // Find the position of the "best" cut.
-          while (index < chars.size()) {
-            // The score of the current cut.
-            float cutScore = assessVerticalCut(pdf, page, halves);
-
-            if (cutScore < 0) {
-              break;
-            } else if (cutScore > bestCutScore) {
-              bestCutScore = cutScore;
-              bestCutIndex = index;
-            }
-            halves = chars.cut(++index);
+  protected int[][] xCut(Document pdf, Page page, XYCutOrders orders, int[] xs, int[] ys) {
+    // The characters, sorted by minX in order to sweep them in x direction.
+    ElementList<Character> chars = orders.getCharacters(xs);
+    // Precompute the extrema of the halves of all possible cuts.
+    XYCutSweep sweep = new XYCutSweep(chars);
+
+    // The score of the best cut found so far.
+    float bestCutScore = 0;
+    // The index of the best cut found so far.
+    int bestCutIndex = -1;
+    // The current position in the list of characters.
+    float currentPos = chars.get(0).getPosition().getRectangle().getMaxX();
+
+    for (int index = 1; index < chars.size(); index++) {
+      Character character = chars.get(index);
+
+      if (character.getPosition().getRectangle().getMinX() > currentPos) {
+        // Find the position of the "best" cut.
+        while (index < chars.size()) {
+          // The score of the current cut.
+          float cutScore = assessVerticalCut(pdf, page, sweep, index);
+
+          if (cutScore < 0) {
+            break;
+          } else if (cutScore > bestCutScore) {
+            bestCutScore = cutScore;
+            bestCutIndex = index;
           }
+          index++;
         }
-        currentPos = character.getPosition().getRectangle().getMaxX();
       }
+      currentPos = character.getPosition().getRectangle().getMaxX();
+    }
 
-      if (bestCutIndex > -1) {
-        // A cut was found. Return the resulting halves.
-        return chars.cut(bestCutIndex);
-      }
+    if (bestCutIndex > -1) {
+      // A cut was found. Return the resulting halves.
+      return orders.split(xs, bestCutIndex, ys, true);
     }
-    return Arrays.asList(chars);
+    return new int[][] { xs, ys };
   }
 
   /**
@@ -144,54 +162,106 @@ public abstract class XYCut {
    *        The PDF document to which the characters belong to.
    * @param page
    *        The page in which the characters are located.
-   * @param chars
+   * @param orders
    *        The characters to cut.
-   * @return A list of set of characters. In case of the characters could be
-   *         cut, this list consists of two inner sets, containing the
-   *         characters of the two halves. In case of the characters could not
-   *         be cut, the list consists only of a single set, representing a copy
-   *         of the original set of characters.
+   * @param xs
+   *        The indexes of the characters to cut, sorted in x direction.
+   * @param ys
+   *        The indexes of the characters to cut, sorted in y direction.
+   * @return The indexes of the characters of the resulting blocks, in both directions: {xs, ys}
+   *         if the characters could *not* be cut; {upperXs, upperYs, lowerXs, lowerYs} otherwise.
    */
-  protected List<ElementList<Character>> yCut(Document pdf, Page page,
-      ElementList<Character> chars) {
-    if (chars != null && !chars.isEmpty()) {
-      // Sort the characters by minX in order to sweep them in x direction.
-      Collections.sort(chars, Collections.reverseOrder(new MaxYComparator()));
-
-      // The score of the best cut found so far.
-      float bestCutScore = 0;
-      // The index of the best cut found so far.
-      int bestCutIndex = -1;
-      // The current position in the list of characters.
-      float currentPos = chars.get(0).getPosition().getRectangle().getMinY();
-
-      for (int index = 1; index < chars.size(); index++) {
-        Character character = chars.get(index);
-
-        if (character.getPosition().getRectangle().getMaxY() < currentPos) {
-          List<ElementList<Character>> halves = chars.cut(index);
-          // Find the position of the "best" cut.
-          while (index < chars.size()) {
-            float cutScore = assessHorizontalCut(pdf, page, halves);
-
-            if (cutScore < 0) {
-              break;
-            } else if (cutScore > bestCutScore) {
-              bestCutScore = cutScore;
-              bestCutIndex = index;
-            }
-            halves = chars.cut(++index);
+  protected int[][] yCut(Document pdf, Page page, XYCutOrders orders, int[] xs, int[] ys) {
+    // The characters, sorted by maxY in order to sweep them in y direction.
+    ElementList<Character> chars = orders.getCharacters(ys);
+    // Precompute the extrema of the halves of all possible cuts.
+    XYCutSweep sweep = new XYCutSweep(chars);
+
+    // The score of the best cut found so far.
+    float bestCutScore = 0;
+    // The index of the best cut found so far.
+    int bestCutIndex = -1;
+    // The current position in the list of characters.
+    float currentPos = chars.get(0).getPosition().getRectangle().getMinY();
+
+    for (int index = 1; index < chars.size(); index++) {
+      Character character = chars.get(index);
+
+      if (character.getPosition().getRectangle().getMaxY() < currentPos) {
+        // Find the position of the "best" cut.
+        while (index < chars.size()) {
+          float cutScore = assessHorizontalCut(pdf, page, sweep, index);
+
+          if (cutScore < 0) {
+            break;
+          } else if (cutScore > bestCutScore) {
+            bestCutScore = cutScore;
+            bestCutIndex = index;
           }
+          index++;
         }
-        currentPos = character.getPosition().getRectangle().getMinY();
       }
+      currentPos = character.getPosition().getRectangle().getMinY();
+    }
 
-      if (bestCutIndex > -1) {
-        // A cut was found. Return the resulting halves.
-        return chars.cut(bestCutIndex);
-      }
+    if (bestCutIndex > -1) {
+      // A cut was found. Return the resulting halves.
+      return orders.split(ys, bestCutIndex, xs, false);
     }
-    return Arrays.asList(chars);
+    return new int[][] { xs, ys };
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Assesses the vertical cut at the given index of the given sweep. Returns a positive score, if
+   * the cut is valid and a negative score if the cut is invalid. The better the cut, the higher the
+   * returned score.
+   * 
+   * <p>
+   * This method is called for each candidate cut while sweeping the characters in x direction.
+   * The default implementation cuts the characters and delegates to
+   * {@link #assessVerticalCut(Document, Page, List)}. Subclasses should override this method to
+   * assess the cut by the precomputed extrema of the sweep where possible, in order to avoid
+   * cutting the characters and computing statistics about the halves for each candidate cut.
+   * 
+   * @param pdf
+   *        The PDF document to which the characters belong to.
+   * @param page
+   *        The page in which the characters are located.
+   * @param sweep
+   *        The sweep over the characters, sorted by their minX values.
+   * @param index
+   *        The index of the cut.
+   * @return A score that assesses the given cut.
+   */
+  protected float assessVerticalCut(Document pdf, Page page, XYCutSweep sweep, int index) {
+    return assessVerticalCut(pdf, page, sweep.cut(index));
+  }
+
+  /**
+   * Assesses the horizontal cut at the given index of the given sweep. Returns a positive score, if
+   * the cut is valid and a negative score if the cut is invalid. The better the cut, the higher the
+   * returned score.
+   * 
+   * <p>
+   * This method is called for each candidate cut while sweeping the characters in y direction.
+   * The default implementation cuts the characters and delegates to
+   * {@link #assessHorizontalCut(Document, Page, List)}. Subclasses should override this method to
+   * assess the cut by the precomputed extrema of the sweep where possible.
+   * 
+   * @param pdf
+   *        The PDF document to which the characters belong to.
+   * @param page
+   *        The page in which the characters are located.
+   * @param sweep
+   *        The sweep over the characters, sorted by their maxY values in descending order.
+   * @param index
+   *        The index of the cut.
+   * @return A score that assesses the given cut.
+   */
+  protected float assessHorizontalCut(Document pdf, Page page, XYCutSweep sweep, int index) {
+    return assessHorizontalCut(pdf, page, sweep.cut(index));
   }
 
   // ==============================================================================================
@@ -229,6 +299,127 @@ public abstract class XYCut {
   public abstract float assessHorizontalCut(Document pdf, Page page,
       List<ElementList<Character>> halves);
 
+  // ==============================================================================================
+
+  /**
+   * The characters to cut, together with the blocks resulting from the cuts. The characters are
+   * referred to by their indexes in the list of characters to cut.
+   */
+  protected static class XYCutOrders {
+    /**
+     * The characters to cut.
+     */
+    protected ElementList<Character> characters;
+
+    /**
+     * A mark per character, used to partition the characters in linear time.
+     */
+    protected boolean[] marks;
+
+    /**
+     * The indexes of the characters, in the order of the resulting blocks.
+     */
+    protected int[] blockOrder;
+
+    /**
+     * The end index (exclusive) of each resulting block in the block order.
+     */
+    protected int[] blockEnds;
+
+    /**
+     * The number of the resulting blocks.
+     */
+    protected int numBlocks;
+
+    /**
+     * The number of characters in the resulting blocks.
+     */
+    protected int numBlockCharacters;
+
+    /**
+     * Creates a new object for cutting the given characters.
+     * 
+     * @param characters
+     *        The characters to cut.
+     */
+    protected XYCutOrders(ElementList<Character> characters) {
+      this.characters = characters;
+      this.marks = new boolean[characters.size()];
+      this.blockOrder = new int[characters.size()];
+      this.blockEnds = new int[characters.size()];
+    }
+
+    /**
+     * Returns the characters with the given indexes, in the given order.
+     * 
+     * @param indexes
+     *        The indexes of the characters.
+     * @return The characters.
+     */
+    protected ElementList<Character> getCharacters(int[] indexes) {
+      ElementList<Character> chars = new PlainElementList<>(indexes.length);
+      for (int index : indexes) {
+        chars.add(this.characters.get(index));
+      }
+      return chars;
+    }
+
+    /**
+     * Splits the given characters at the given index of the order in cut direction and
+     * partitions the order in the other direction accordingly (preserving the order).
+     * 
+     * @param cutOrder
+     *        The indexes of the characters, sorted in cut direction.
+     * @param cutIndex
+     *        The index in the cut order at which to split the characters.
+     * @param otherOrder
+     *        The indexes of the same characters, sorted in the other direction.
+     * @param isXCut
+     *        True, if the cut direction is x; false if it is y.
+     * @return The indexes of the characters of the two halves, in both directions: {xs, ys} of
+     *         the first half, followed by {xs, ys} of the second half.
+     */
+    protected int[][] split(int[] cutOrder, int cutIndex, int[] otherOrder, boolean isXCut) {
+      int[] cutHead = Arrays.copyOfRange(cutOrder, 0, cutIndex);
+      int[] cutTail = Arrays.copyOfRange(cutOrder, cutIndex, cutOrder.length);
+
+      for (int index : cutHead) {
+        this.marks[index] = true;
+      }
+      int[] otherHead = new int[cutHead.length];
+      int[] otherTail = new int[cutTail.length];
+      int numHead = 0;
+      int numTail = 0;
+      for (int index : otherOrder) {
+        if (this.marks[index]) {
+          otherHead[numHead++] = index;
+        } else {
+          otherTail[numTail++] = index;
+        }
+      }
+      for (int index : cutHead) {
+        this.marks[index] = false;
+      }
+
+      if (isXCut) {
+        return new int[][] { cutHead, otherHead, cutTail, otherTail };
+      }
+      return new int[][] { otherHead, cutHead, otherTail, cutTail };
+    }
+
+    /**
+     * Appends a resulting block.
+     * 
+     * @param indexes
+     *        The indexes of the characters of the block, in the order to store them.
+     */
+    protected void addBlock(int[] indexes) {
+      System.arraycopy(indexes, 0, this.blockOrder, this.numBlockCharacters, indexes.length);
+      this.numBlockCharacters += indexes.length;
+      this.blockEnds[this.numBlocks++] = this.numBlockCharacters;
+    }
+  }
+
   // /**
   // * Packs the given characters into the target type.
   // *
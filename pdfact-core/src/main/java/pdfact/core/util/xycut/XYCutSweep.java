@@ -0,0 +1,280 @@
+package pdfact.core.util.xycut;
+
+import java.util.List;
+import pdfact.core.model.Character;
+import pdfact.core.model.Rectangle;
+import pdfact.core.util.list.ElementList;
+
+/**
+ * The extrema of the characters in front of and behind each possible cut position in a sorted list
+ * of characters, as used by {@link XYCut} to assess all possible cuts along an axis in a single
+ * sweep. The extrema are precomputed in linear time, so the extrema of the two halves resulting
+ * from a cut can be looked up in constant time, without actually cutting the list and without
+ * iterating the characters of the halves.
+ *
+ * <p>
+ * The "head" of a cut at index i are the characters at the indexes 0, ..., i - 1, the "tail" of a
+ * cut at index i are the characters at the indexes i, ..., n - 1 (where n is the number of
+ * characters).
+ *
+ * @author Claudius Korzen
+ */
+public class XYCutSweep {
+  /**
+   * The (sorted) characters to sweep.
+   */
+  protected ElementList<Character> characters;
+
+  /**
+   * The smallest minX of the characters in the head of each cut.
+   */
+  protected float[] headMinX;
+
+  /**
+   * The smallest minY of the characters in the head of each cut.
+   */
+  protected float[] headMinY;
+
+  /**
+   * The largest maxX of the characters in the head of each cut.
+   */
+  protected float[] headMaxX;
+
+  /**
+   * The largest maxY of the characters in the head of each cut.
+   */
+  protected float[] headMaxY;
+
+  /**
+   * The smallest minX of the characters in the tail of each cut.
+   */
+  protected float[] tailMinX;
+
+  /**
+   * The smallest minY of the characters in the tail of each cut.
+   */
+  protected float[] tailMinY;
+
+  /**
+   * The largest maxX of the characters in the tail of each cut.
+   */
+  protected float[] tailMaxX;
+
+  /**
+   * The largest maxY of the characters in the tail of each cut.
+   */
+  protected float[] tailMaxY;
+
+  // ==============================================================================================
+
+  /**
+   * Creates a new sweep over the given characters. The characters are expected to be sorted in
+   * sweep direction.
+   *
+   * @param characters
+   *        The (sorted) characters to sweep.
+   */
+  public XYCutSweep(ElementList<Character> characters) {
+    this.characters = characters;
+
+    int n = characters.size();
+    this.headMinX = new float[n + 1];
+    this.headMinY = new float[n + 1];
+    this.headMaxX = new float[n + 1];
+    this.headMaxY = new float[n + 1];
+    this.tailMinX = new float[n + 1];
+    this.tailMinY = new float[n + 1];
+    this.tailMaxX = new float[n + 1];
+    this.tailMaxY = new float[n + 1];
+
+    // Use the same initial values and comparisons as the character statistician (and the
+    // rectangle), such that the extrema are identical to the extrema computed by them.
+    this.headMinX[0] = Float.MAX_VALUE;
+    this.headMinY[0] = Float.MAX_VALUE;
+    this.headMaxX[0] = -Float.MAX_VALUE;
+    this.headMaxY[0] = -Float.MAX_VALUE;
+    for (int i = 0; i < n; i++) {
+      Rectangle rect = characters.get(i).getPosition().getRectangle();
+      float minX = this.headMinX[i];
+      float minY = this.headMinY[i];
+      float maxX = this.headMaxX[i];
+      float maxY = this.headMaxY[i];
+      this.headMinX[i + 1] = rect.getMinX() < minX ? rect.getMinX() : minX;
+      this.headMinY[i + 1] = rect.getMinY() < minY ? rect.getMinY() : minY;
+      this.headMaxX[i + 1] = rect.getMaxX() > maxX ? rect.getMaxX() : maxX;
+      this.headMaxY[i + 1] = rect.getMaxY() > maxY ? rect.getMaxY() : maxY;
+    }
+
+    this.tailMinX[n] = Float.MAX_VALUE;
+    this.tailMinY[n] = Float.MAX_VALUE;
+    this.tailMaxX[n] = -Float.MAX_VALUE;
+    this.tailMaxY[n] = -Float.MAX_VALUE;
+    for (int i = n - 1; i >= 0; i--) {
+      Rectangle rect = characters.get(i).getPosition().getRectangle();
+      float minX = this.tailMinX[i + 1];
+      float minY = this.tailMinY[i + 1];
+      float maxX = this.tailMaxX[i + 1];
+      float maxY = this.tailMaxY[i + 1];
+      this.tailMinX[i] = rect.getMinX() < minX ? rect.getMinX() : minX;
+      this.tailMinY[i] = rect.getMinY() < minY ? rect.getMinY() : minY;
+      this.tailMaxX[i] = rect.getMaxX() > maxX ? rect.getMaxX() : maxX;
+      this.tailMaxY[i] = rect.getMaxY() > maxY ? rect.getMaxY() : maxY;
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the (sorted) characters of this sweep.
+   *
+   * @return The (sorted) characters of this sweep.
+   */
+  public ElementList<Character> getCharacters() {
+    return this.characters;
+  }
+
+  /**
+   * Returns the number of characters of this sweep.
+   *
+   * @return The number of characters of this sweep.
+   */
+  public int size() {
+    return this.characters.size();
+  }
+
+  /**
+   * Cuts the characters of this sweep at the given index.
+   *
+   * @param index
+   *        The index of the cut.
+   *
+   * @return A list with two elements: the head and the tail of the cut.
+   */
+  public List<ElementList<Character>> cut(int index) {
+    return this.characters.cut(index);
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the smallest minX of the characters in front of the given index.
+   *
+   * @param index
+   *        The index of the cut.
+   *
+   * @return The smallest minX of the characters in front of the given index.
+   */
+  public float getHeadSmallestMinX(int index) {
+    return this.headMinX[index];
+  }
+
+  /**
+   * Returns the smallest minY of the characters in front of the given index.
+   *
+   * @param index
+   *        The index of the cut.
+   *
+   * @return The smallest minY of the characters in front of the given index.
+   */
+  public float getHeadSmallestMinY(int index) {
+    return this.headMinY[index];
+  }
+
+  /**
+   * Returns the largest maxX of the characters in front of the given index.
+   *
+   * @param index
+   *        The index of the cut.
+   *
+   * @return The largest maxX of the characters in front of the given index.
+   */
+  public float getHeadLargestMaxX(int index) {
+    return this.headMaxX[index];
+  }
+
+  /**
+   * Returns the largest maxY of the characters in front of the given index.
+   *
+   * @param index
+   *        The index of the cut.
+   *
+   * @return The largest maxY of the characters in front of the given index.
+   */
+  public float getHeadLargestMaxY(int index) {
+    return this.headMaxY[index];
+  }
+
+  /**
+   * Returns the height of the bounding box around the characters in front of the given index.
+   *
+   * @param index
+   *        The index of the cut.
+   *
+   * @return The height of the bounding box around the characters in front of the given index.
+   */
+  public float getHeadHeight(int index) {
+    return this.headMaxY[index] - this.headMinY[index];
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the smallest minX of the characters at and behind the given index.
+   *
+   * @param index
+   *        The index of the cut.
+   *
+   * @return The smallest minX of the characters at and behind the given index.
+   */
+  public float getTailSmallestMinX(int index) {
+    return this.tailMinX[index];
+  }
+
+  /**
+   * Returns the smallest minY of the characters at and behind the given index.
+   *
+   * @param index
+   *        The index of the cut.
+   *
+   * @return The smallest minY of the characters at and behind the given index.
+   */
+  public float getTailSmallestMinY(int index) {
+    return this.tailMinY[index];
+  }
+
+  /**
+   * Returns the largest maxX of the characters at and behind the given index.
+   *
+   * @param index
+   *        The index of the cut.
+   *
+   * @return The largest maxX of the characters at and behind the given index.
+   */
+  public float getTailLargestMaxX(int index) {
+    return this.tailMaxX[index];
+  }
+
+  /**
+   * Returns the largest maxY of the characters at and behind the given index.
+   *
+   * @param index
+   *        The index of the cut.
+   *
+   * @return The largest maxY of the characters at and behind the given index.
+   */
+  public float getTailLargestMaxY(int index) {
+    return this.tailMaxY[index];
+  }
+
+  /**
+   * Returns the height of the bounding box around the characters at and behind the given index.
+   *
+   * @param index
+   *        The index of the cut.
+   *
+   * @return The height of the bounding box around the characters at and behind the given index.
+   */
+  public float getTailHeight(int index) {
+    return this.tailMaxY[index] - this.tailMinY[index];
+  }
+}
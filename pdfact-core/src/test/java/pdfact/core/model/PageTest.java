@@ -0,0 +1,59 @@
+package pdfact.core.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import org.junit.Test;
+import pdfact.core.util.index.SpatialIndex;
+
+/**
+ * A class that tests the {@link Page}.
+ */
+public class PageTest {
+  /**
+   * Tests if the spatial index over the characters is rebuilt after the characters were modified,
+   * including modifications that don't change the number of characters.
+   */
+  @Test
+  public void testCharacterIndex() {
+    Page page = new Page(1);
+    Character a = createCharacter(page, "a", 0);
+    Character b = createCharacter(page, "b", 10);
+    Character c = createCharacter(page, "c", 20);
+    page.addCharacter(a);
+    page.addCharacter(b);
+
+    SpatialIndex<Character> index = page.getCharacterIndex();
+    assertSame(index, page.getCharacterIndex());
+    Point point = new Point(0f, 0f);
+    assertEquals(Arrays.asList(a, b), index.getNearest(point, 2));
+
+    // Reorder the characters.
+    page.getCharacters().permute(new int[] { 1, 0 });
+    index = page.getCharacterIndex();
+    assertEquals(Arrays.asList(b, a), index.getOverlapping(new Rectangle(0f, 0f, 20f, 20f)));
+
+    // Replace a character.
+    page.getCharacters().set(0, c);
+    assertNotSame(index, page.getCharacterIndex());
+    assertEquals(Arrays.asList(a, c), page.getCharacterIndex().getNearest(point, 2));
+  }
+
+  /**
+   * Creates a character with the given text at the given x-coordinate.
+   *
+   * @param page The page of the character.
+   * @param text The text of the character.
+   * @param minX The minX value of the character.
+   *
+   * @return The created character.
+   */
+  protected static Character createCharacter(Page page, String text, float minX) {
+    Character character = new Character();
+    character.setText(text);
+    character.setPosition(new Position(page, minX, 0, minX + 5, 5));
+    return character;
+  }
+}
@@ -0,0 +1,158 @@
+package pdfact.core.pipes.semanticize;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import pdfact.core.model.Document;
+import pdfact.core.model.Page;
+import pdfact.core.model.TextBlock;
+import pdfact.core.pipes.PlainPdfActCorePipe;
+import pdfact.core.util.exception.PdfActException;
+import pdfact.core.util.pipeline.Pipe;
+
+/**
+ * Compares the semantic roles assigned by {@link FusedDetectSemanticsPipe} with the roles
+ * assigned by {@link PlainDetectSemanticsPipe} on a corpus of PDF files, and the time needed by
+ * both pipes. Run it via its main method (it is not a unit test); the arguments are the PDF files
+ * or directories of PDF files to process.
+ *
+ * <p>
+ * Each PDF file is processed once by the core pipeline. Then the roles of the text blocks are
+ * reset and detected by both pipes in turn (repeated a couple of times, to measure the time of
+ * warmed-up runs). For each PDF file, it prints the number of text blocks, the number of text
+ * blocks with different (primary or secondary) roles and the time needed by both pipes.
+ */
+public class DetectSemanticsComparison {
+  /**
+   * The number of runs of each pipe per PDF file.
+   */
+  protected static final int NUM_RUNS = 10;
+
+  /**
+   * Runs the comparison.
+   *
+   * @param args The PDF files or directories of PDF files to process.
+   *
+   * @throws PdfActException If processing a PDF file failed.
+   */
+  public static void main(String[] args) throws PdfActException {
+    List<File> files = new ArrayList<>();
+    for (String arg : args) {
+      collectPdfFiles(new File(arg), files);
+    }
+
+    System.out.println(String.format("%-40s %8s %8s %10s %10s", "file", "#blocks", "#diff",
+        "plain(ms)", "fused(ms)"));
+
+    long sumBlocks = 0;
+    long sumDiffs = 0;
+    for (File file : files) {
+      Document pdf = new PlainPdfActCorePipe().execute(new Document(file.getAbsolutePath()));
+
+      long plainNanos = 0;
+      long fusedNanos = 0;
+      List<String> plainRoles = null;
+      List<String> fusedRoles = null;
+      for (int i = 0; i < NUM_RUNS; i++) {
+        plainNanos += run(new PlainDetectSemanticsPipe(), pdf);
+        plainRoles = getRoles(pdf);
+        fusedNanos += run(new FusedDetectSemanticsPipe(), pdf);
+        fusedRoles = getRoles(pdf);
+      }
+
+      int numDiffs = 0;
+      for (int i = 0; i < plainRoles.size(); i++) {
+        if (!plainRoles.get(i).equals(fusedRoles.get(i))) {
+          System.out.println("  plain: " + plainRoles.get(i));
+          System.out.println("  fused: " + fusedRoles.get(i));
+          numDiffs++;
+        }
+      }
+
+      System.out.println(String.format("%-40s %8d %8d %10.2f %10.2f",
+          abbreviate(file.getName(), 40), plainRoles.size(), numDiffs,
+          plainNanos / 1e6 / NUM_RUNS, fusedNanos / 1e6 / NUM_RUNS));
+
+      sumBlocks += plainRoles.size();
+      sumDiffs += numDiffs;
+    }
+
+    System.out.println(String.format("%-40s %8d %8d", "TOTAL", sumBlocks, sumDiffs));
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Resets the roles of the text blocks of the given PDF document and detects them by the given
+   * pipe.
+   *
+   * @param pipe The pipe to detect the roles.
+   * @param pdf  The PDF document to process.
+   *
+   * @return The time needed by the pipe, in nanoseconds.
+   *
+   * @throws PdfActException If detecting the roles failed.
+   */
+  protected static long run(Pipe pipe, Document pdf) throws PdfActException {
+    for (Page page : pdf.getPages()) {
+      for (TextBlock block : page.getTextBlocks()) {
+        block.setSemanticRole(null);
+        block.setSecondarySemanticRole(null);
+      }
+    }
+    long start = System.nanoTime();
+    pipe.execute(pdf);
+    return System.nanoTime() - start;
+  }
+
+  /**
+   * Returns the roles of the text blocks of the given PDF document, each given by the role, the
+   * secondary role and the text of the block.
+   *
+   * @param pdf The PDF document.
+   *
+   * @return The roles of the text blocks of the given PDF document.
+   */
+  protected static List<String> getRoles(Document pdf) {
+    List<String> result = new ArrayList<>();
+    for (Page page : pdf.getPages()) {
+      for (TextBlock block : page.getTextBlocks()) {
+        result.add(block.getSemanticRole() + " " + block.getSecondarySemanticRole() + " "
+            + abbreviate(String.valueOf(block.getText()), 60));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Collects the PDF files in the given file or directory (recursively).
+   *
+   * @param file   The file or directory.
+   * @param result The list to which the PDF files are added.
+   */
+  protected static void collectPdfFiles(File file, List<File> result) {
+    if (file.isDirectory()) {
+      File[] children = file.listFiles();
+      if (children != null) {
+        java.util.Arrays.sort(children);
+        for (File child : children) {
+          collectPdfFiles(child, result);
+        }
+      }
+    } else if (file.getName().toLowerCase().endsWith(".pdf")) {
+      result.add(file);
+    }
+  }
+
+  /**
+   * Abbreviates the given string to the given length.
+   *
+   * @param str       The string to abbreviate.
+   * @param maxLength The maximum length.
+   *
+   * @return The abbreviated string.
+   */
+  protected static String abbreviate(String str, int maxLength) {
+    return str.length() <= maxLength ? str : str.substring(0, maxLength - 3) + "...";
+  }
+}
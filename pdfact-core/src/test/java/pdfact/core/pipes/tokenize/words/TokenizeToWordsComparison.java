@@ -0,0 +1,223 @@
+package pdfact.core.pipes.tokenize.words;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import pdfact.core.model.Document;
+import pdfact.core.model.Page;
+import pdfact.core.model.Rectangle;
+import pdfact.core.model.TextLine;
+import pdfact.core.model.Word;
+import pdfact.core.pipes.PlainPdfActCorePipe;
+import pdfact.core.util.exception.PdfActException;
+
+/**
+ * Compares the words computed by {@link LinearTokenizeToWordsPipe} with the words computed by
+ * {@link XYCutTokenizeToWordsPipe} on a corpus of PDF files, and the time needed by both pipes.
+ * Run it via its main method (it is not a unit test); the arguments are the PDF files or
+ * directories of PDF files to process.
+ *
+ * <p>
+ * For each PDF file, it prints the number of words computed by XYCut, the number of words
+ * computed by the linear segmentation, the number of words computed by both (words with the same
+ * text and bounding box in the same line), the number of lines with different words, and the
+ * time needed by both pipes.
+ */
+public class TokenizeToWordsComparison {
+  /**
+   * Runs the comparison.
+   *
+   * @param args The PDF files or directories of PDF files to process.
+   *
+   * @throws PdfActException If processing a PDF file failed.
+   */
+  public static void main(String[] args) throws PdfActException {
+    List<File> files = new ArrayList<>();
+    for (String arg : args) {
+      collectPdfFiles(new File(arg), files);
+    }
+
+    System.out.println(String.format("%-40s %8s %8s %8s %8s %10s %10s", "file", "#xycut",
+        "#linear", "#common", "#diffLn", "xycut(ms)", "linear(ms)"));
+
+    long sumXYCut = 0;
+    long sumLinear = 0;
+    long sumCommon = 0;
+    long sumXYCutTime = 0;
+    long sumLinearTime = 0;
+    for (File file : files) {
+      TimedTokenizeToWordsPipe xycutPipe = new TimedTokenizeToWordsPipe(
+          new XYCutTokenizeToWordsPipe());
+      TimedTokenizeToWordsPipe linearPipe = new TimedTokenizeToWordsPipe(
+          new LinearTokenizeToWordsPipe());
+      List<List<String>> xycutWords = getWordsPerLine(process(file, xycutPipe));
+      List<List<String>> linearWords = getWordsPerLine(process(file, linearPipe));
+
+      int numXYCut = 0;
+      int numLinear = 0;
+      int numCommon = 0;
+      int numDifferentLines = 0;
+      for (int i = 0; i < Math.max(xycutWords.size(), linearWords.size()); i++) {
+        List<String> words1 = i < xycutWords.size() ? xycutWords.get(i) : new ArrayList<>();
+        List<String> words2 = i < linearWords.size() ? linearWords.get(i) : new ArrayList<>();
+        numXYCut += words1.size();
+        numLinear += words2.size();
+        numCommon += countCommon(words1, words2);
+        if (!words1.equals(words2)) {
+          numDifferentLines++;
+        }
+      }
+
+      System.out.println(String.format("%-40s %8d %8d %8d %8d %10.1f %10.1f",
+          abbreviate(file.getName(), 40), numXYCut, numLinear, numCommon, numDifferentLines,
+          xycutPipe.nanos / 1e6, linearPipe.nanos / 1e6));
+
+      sumXYCut += numXYCut;
+      sumLinear += numLinear;
+      sumCommon += numCommon;
+      sumXYCutTime += xycutPipe.nanos;
+      sumLinearTime += linearPipe.nanos;
+    }
+
+    System.out.println(String.format("%-40s %8d %8d %8d %8s %10.1f %10.1f", "TOTAL", sumXYCut,
+        sumLinear, sumCommon, "", sumXYCutTime / 1e6, sumLinearTime / 1e6));
+    if (sumXYCut > 0 && sumLinear > 0) {
+      System.out.println(String.format("precision: %.4f, recall: %.4f (w.r.t. XYCut)",
+          sumCommon / (double) sumLinear, sumCommon / (double) sumXYCut));
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Processes the given PDF file by the core pipeline, with the given pipe to tokenize the text
+   * lines into words.
+   *
+   * @param file      The PDF file to process.
+   * @param wordsPipe The pipe to tokenize the text lines into words.
+   *
+   * @return The processed PDF document.
+   *
+   * @throws PdfActException If processing the PDF file failed.
+   */
+  protected static Document process(File file, TokenizeToWordsPipe wordsPipe)
+      throws PdfActException {
+    Document pdf = new Document(file.getAbsolutePath());
+    return new PlainPdfActCorePipe(wordsPipe).execute(pdf);
+  }
+
+  /**
+   * Returns the words of the given PDF document, per text line. Each word is given by its text
+   * and bounding box.
+   *
+   * @param pdf The PDF document.
+   *
+   * @return The words of the given PDF document, per text line.
+   */
+  protected static List<List<String>> getWordsPerLine(Document pdf) {
+    List<List<String>> result = new ArrayList<>();
+    for (Page page : pdf.getPages()) {
+      for (TextLine line : page.getTextLines()) {
+        List<String> words = new ArrayList<>();
+        for (Word word : line.getWords()) {
+          Rectangle rect = word.getFirstPosition().getRectangle();
+          words.add(word.getText() + " " + rect);
+        }
+        result.add(words);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Counts the words contained in both given lists of words (respecting multiplicities).
+   *
+   * @param words1 The first list of words.
+   * @param words2 The second list of words.
+   *
+   * @return The number of words contained in both lists.
+   */
+  protected static int countCommon(List<String> words1, List<String> words2) {
+    Map<String, Integer> counts = new HashMap<>();
+    for (String word : words1) {
+      counts.merge(word, 1, Integer::sum);
+    }
+    int numCommon = 0;
+    for (String word : words2) {
+      Integer count = counts.get(word);
+      if (count != null && count > 0) {
+        counts.put(word, count - 1);
+        numCommon++;
+      }
+    }
+    return numCommon;
+  }
+
+  /**
+   * Collects the PDF files in the given file or directory (recursively).
+   *
+   * @param file   The file or directory.
+   * @param result The list to which the PDF files are added.
+   */
+  protected static void collectPdfFiles(File file, List<File> result) {
+    if (file.isDirectory()) {
+      File[] children = file.listFiles();
+      if (children != null) {
+        java.util.Arrays.sort(children);
+        for (File child : children) {
+          collectPdfFiles(child, result);
+        }
+      }
+    } else if (file.getName().toLowerCase().endsWith(".pdf")) {
+      result.add(file);
+    }
+  }
+
+  /**
+   * Abbreviates the given string to the given length.
+   *
+   * @param str       The string to abbreviate.
+   * @param maxLength The maximum length.
+   *
+   * @return The abbreviated string.
+   */
+  protected static String abbreviate(String str, int maxLength) {
+    return str.length() <= maxLength ? str : str.substring(0, maxLength - 3) + "...";
+  }
+
+  // ==============================================================================================
+
+  /**
+   * A pipe that measures the time needed by another pipe to tokenize text lines into words.
+   */
+  protected static class TimedTokenizeToWordsPipe implements TokenizeToWordsPipe {
+    /**
+     * The measured pipe.
+     */
+    protected TokenizeToWordsPipe pipe;
+
+    /**
+     * The time needed by the measured pipe, in nanoseconds.
+     */
+    protected long nanos;
+
+    /**
+     * Creates a new pipe that measures the time needed by the given pipe.
+     *
+     * @param pipe The pipe to measure.
+     */
+    public TimedTokenizeToWordsPipe(TokenizeToWordsPipe pipe) {
+      this.pipe = pipe;
+    }
+
+    @Override
+    public Document execute(Document pdf) throws PdfActException {
+      long start = System.nanoTime();
+      Document result = this.pipe.execute(pdf);
+      this.nanos += System.nanoTime() - start;
+      return result;
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package pdfact.core.util.cache;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+/**
+ * A class that tests the {@link PageCache}.
+ */
+public class PageCacheTest {
+  /**
+   * Tests if the least recently used entries are evicted and the statistics are recorded.
+   */
+  @Test
+  public void testEviction() {
+    PageCache cache = new PageCache(10);
+    cache.put("a", new byte[4]);
+    cache.put("b", new byte[4]);
+    // Access "a", so that "b" is the least recently used entry.
+    assertArrayEquals(new byte[4], cache.get("a"));
+
+    cache.put("c", new byte[4]);
+    assertNull(cache.get("b"));
+    assertArrayEquals(new byte[4], cache.get("c"));
+    assertEquals(8, cache.getSize());
+    assertEquals(2, cache.getNumEntries());
+    assertEquals(1, cache.getNumEvictions());
+    assertEquals(2, cache.getNumHits());
+    assertEquals(1, cache.getNumMisses());
+
+    // Entries larger than the cache are not cached.
+    cache.put("d", new byte[11]);
+    assertNull(cache.get("d"));
+    assertEquals(2, cache.getNumEntries());
+  }
+}
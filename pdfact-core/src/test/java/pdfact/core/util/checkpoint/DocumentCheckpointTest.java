@@ -0,0 +1,116 @@
+package pdfact.core.util.checkpoint;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import pdfact.core.model.Character;
+import pdfact.core.model.Color;
+import pdfact.core.model.Document;
+import pdfact.core.model.Font;
+import pdfact.core.model.FontFace;
+import pdfact.core.model.Page;
+import pdfact.core.model.Position;
+import pdfact.core.model.Shape;
+import pdfact.core.util.exception.PdfActCheckpointException;
+
+/**
+ * A class that tests the writing and loading of checkpoints.
+ */
+public class DocumentCheckpointTest {
+  /**
+   * Tests if a document is the same after writing and loading it.
+   */
+  @Test
+  public void testRoundTrip() throws IOException, PdfActCheckpointException {
+    Font font = new Font();
+    font.setId("font-0");
+    font.setNormalizedName("times");
+    font.setIsBold(true);
+    FontFace fontFace = new FontFace(font, 9.5f);
+    Color color = new Color(0, 0, 255);
+    color.setId("color-0");
+    color.setName("blue");
+
+    Page page = new Page(1);
+    page.setWidth(612f);
+    page.setHeight(792f);
+    for (int i = 0; i < 3; i++) {
+      Character character = new Character();
+      character.setText(String.valueOf((char) ('a' + i)));
+      character.setFontFace(fontFace);
+      character.setColor(color);
+      character.setExtractionRank(i);
+      character.setPosition(new Position(page, 10.25f * i, 20f, 10.25f * i + 5.5f, 29.5f));
+      page.addCharacter(character);
+    }
+    Shape shape = new Shape();
+    shape.setColor(color);
+    shape.setPosition(new Position(page, 1f, 2f, 3f, 4f));
+    page.addShape(shape);
+
+    List<Page> pages = new ArrayList<>();
+    pages.add(page);
+    Document pdf = new Document("test.pdf");
+    pdf.setPages(pages);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new DocumentCheckpointWriter().write(pdf, out);
+    Document loaded = new Document("test.pdf");
+    new DocumentCheckpointReader().read(loaded, new ByteArrayInputStream(out.toByteArray()));
+
+    assertEquals(1, loaded.getPages().size());
+    Page loadedPage = loaded.getPages().get(0);
+    assertEquals(1, loadedPage.getPageNumber());
+    assertEquals(612f, loadedPage.getWidth(), 0);
+    assertEquals(3, loadedPage.getCharacters().size());
+    for (int i = 0; i < 3; i++) {
+      Character expected = page.getCharacters().get(i);
+      Character actual = loadedPage.getCharacters().get(i);
+      assertEquals(expected.getText(), actual.getText());
+      assertEquals(expected.getExtractionRank(), actual.getExtractionRank());
+      assertEquals(expected.getPosition().getRectangle(), actual.getPosition().getRectangle());
+      assertSame(loadedPage, actual.getPosition().getPage());
+      assertEquals("font-0", actual.getFontFace().getFont().getId());
+      assertEquals(true, actual.getFontFace().getFont().isBold());
+      assertEquals(9.5f, actual.getFontFace().getFontSize(), 0);
+      assertEquals("blue", actual.getColor().getName());
+      // The font faces and colors must be shared after loading, like after parsing.
+      assertSame(loadedPage.getCharacters().get(0).getFontFace(), actual.getFontFace());
+      assertSame(loadedPage.getCharacters().get(0).getColor(), actual.getColor());
+    }
+    assertEquals(1, loadedPage.getShapes().size());
+    assertSame(loadedPage.getCharacters().get(0).getColor(),
+        loadedPage.getShapes().get(0).getColor());
+    // The statistics of the characters must be recomputed on loading.
+    assertEquals(9.5f, loadedPage.getCharacterStatistic().getAverageFontsize(), 0);
+    assertEquals(9.5f, loaded.getCharacterStatistic().getAverageFontsize(), 0);
+  }
+
+  /**
+   * Tests if a checkpoint of another version is rejected.
+   */
+  @Test
+  public void testVersionMismatch() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    Document pdf = new Document("test.pdf");
+    pdf.setPages(new ArrayList<>());
+    new DocumentCheckpointWriter().write(pdf, out);
+    byte[] bytes = out.toByteArray();
+    bytes[5] = (byte) (DocumentCheckpoint.VERSION + 1);
+
+    try {
+      new DocumentCheckpointReader().read(new Document("test.pdf"),
+          new ByteArrayInputStream(bytes));
+      fail("A checkpoint of another version was loaded.");
+    } catch (PdfActCheckpointException e) {
+      // Expected.
+    }
+  }
+}
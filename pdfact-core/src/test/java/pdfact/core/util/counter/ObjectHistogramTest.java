@@ -0,0 +1,82 @@
+package pdfact.core.util.counter;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * A class that tests the {@link ObjectHistogram}.
+ */
+public class ObjectHistogramTest {
+  /**
+   * Tests if the object added first is returned as the most common object on ties, and if equal
+   * (but not identical) objects are counted together.
+   */
+  @Test
+  public void testMostCommonTieBreak() {
+    ObjectHistogram<String> histogram = new ObjectHistogram<>();
+    assertNull(histogram.getMostCommonObject());
+    assertEquals(0, histogram.getMostCommonObjectFrequency());
+
+    histogram.add("b");
+    histogram.add("a");
+    histogram.add(new String("a"));
+    histogram.add("b");
+    assertArrayEquals(new Object[] { "b", "a" }, histogram.getObjects());
+    assertEquals("b", histogram.getMostCommonObject());
+    assertEquals(2, histogram.getMostCommonObjectFrequency());
+
+    histogram.add("a");
+    assertEquals("a", histogram.getMostCommonObject());
+    assertEquals(3, histogram.getMostCommonObjectFrequency());
+  }
+
+  /**
+   * Tests merging and subtracting histograms, including the removal of objects whose frequencies
+   * drop to zero.
+   */
+  @Test
+  public void testMergeAndSubtract() {
+    ObjectHistogram<String> histogram = new ObjectHistogram<>();
+    histogram.add("a", 2);
+    histogram.add("b", 1);
+
+    ObjectHistogram<String> other = new ObjectHistogram<>();
+    other.add("b", 1);
+    other.add("c", 4);
+
+    histogram.add(other);
+    assertArrayEquals(new Object[] { "a", "b", "c" }, histogram.getObjects());
+    assertEquals(2, histogram.getFrequency("b"));
+    assertEquals("c", histogram.getMostCommonObject());
+
+    histogram.subtract(other);
+    assertArrayEquals(new Object[] { "a", "b" }, histogram.getObjects());
+    assertEquals(1, histogram.getFrequency("b"));
+    assertEquals(0, histogram.getFrequency("c"));
+    assertEquals("a", histogram.getMostCommonObject());
+
+    // Removing an object preserves the order of the other objects.
+    histogram.add("c");
+    histogram.add("a", -2);
+    assertArrayEquals(new Object[] { "b", "c" }, histogram.getObjects());
+    assertEquals("b", histogram.getMostCommonObject());
+
+    // Subtracting objects that are not contained has no effect.
+    ObjectHistogram<String> unknown = new ObjectHistogram<>();
+    unknown.add("d");
+    histogram.subtract(unknown);
+    assertEquals(2, histogram.size());
+
+    // Adding and subtracting a histogram to and from itself.
+    histogram.add(histogram);
+    assertEquals(2, histogram.getFrequency("b"));
+    assertEquals(2, histogram.getFrequency("c"));
+    histogram.subtract(histogram);
+    assertTrue(histogram.isEmpty());
+    assertNull(histogram.getMostCommonObject());
+  }
+}
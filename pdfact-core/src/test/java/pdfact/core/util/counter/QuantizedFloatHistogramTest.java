@@ -0,0 +1,119 @@
+package pdfact.core.util.counter;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * A class that tests the {@link QuantizedFloatHistogram}.
+ */
+public class QuantizedFloatHistogramTest {
+  /**
+   * Tests if the values are quantized to the precision given by FLOATING_NUMBER_PRECISION (that
+   * is, to one decimal place).
+   */
+  @Test
+  public void testQuantization() {
+    QuantizedFloatHistogram histogram = new QuantizedFloatHistogram();
+    histogram.add(3.26f);
+    histogram.add(3.3f);
+    histogram.add(3.34f);
+    histogram.add(3.46f);
+
+    assertArrayEquals(new float[] { 3.3f, 3.5f }, histogram.getFloats(), 0);
+    assertEquals(3, histogram.getFrequency(3.31f));
+    assertEquals(1, histogram.getFrequency(3.5f));
+    assertEquals(0, histogram.getFrequency(3.4f));
+    assertEquals(3.35f, histogram.getAverageFloat(), 1e-6);
+  }
+
+  /**
+   * Tests if the smallest value is returned as the most common value on ties.
+   */
+  @Test
+  public void testMostCommonTieBreak() {
+    QuantizedFloatHistogram histogram = new QuantizedFloatHistogram();
+    assertTrue(Float.isNaN(histogram.getMostCommonFloat()));
+    assertEquals(0, histogram.getMostCommonFloatFrequency());
+
+    histogram.add(9f, 2);
+    histogram.add(4f, 2);
+    histogram.add(7f, 1);
+    assertEquals(4f, histogram.getMostCommonFloat(), 0);
+    assertEquals(2, histogram.getMostCommonFloatFrequency());
+
+    // The cached most common value must be updated on modifications.
+    histogram.add(9f);
+    assertEquals(9f, histogram.getMostCommonFloat(), 0);
+    assertEquals(3, histogram.getMostCommonFloatFrequency());
+  }
+
+  /**
+   * Tests merging and subtracting histograms, including the removal of bins whose frequencies
+   * drop to zero.
+   */
+  @Test
+  public void testMergeAndSubtract() {
+    QuantizedFloatHistogram histogram = new QuantizedFloatHistogram();
+    histogram.add(1f, 2);
+    histogram.add(2f, 1);
+
+    QuantizedFloatHistogram other = new QuantizedFloatHistogram();
+    other.add(2f, 1);
+    other.add(3f, 4);
+
+    histogram.add(other);
+    assertArrayEquals(new float[] { 1f, 2f, 3f }, histogram.getFloats(), 0);
+    assertEquals(2, histogram.getFrequency(2f));
+    assertEquals(3f, histogram.getMostCommonFloat(), 0);
+    assertEquals(2.25f, histogram.getAverageFloat(), 1e-6);
+
+    histogram.subtract(other);
+    assertArrayEquals(new float[] { 1f, 2f }, histogram.getFloats(), 0);
+    assertEquals(1, histogram.getFrequency(2f));
+    assertEquals(0, histogram.getFrequency(3f));
+    assertEquals(1f, histogram.getMostCommonFloat(), 0);
+    assertEquals(4f / 3, histogram.getAverageFloat(), 1e-6);
+
+    // Subtracting everything leaves an empty histogram.
+    QuantizedFloatHistogram copy = new QuantizedFloatHistogram();
+    copy.add(histogram);
+    histogram.subtract(copy);
+    assertTrue(histogram.isEmpty());
+    assertEquals(0, histogram.getAverageFloat(), 0);
+    assertTrue(Float.isNaN(histogram.getMostCommonFloat()));
+  }
+
+  /**
+   * Tests adding values at once, to an empty and to a non-empty histogram.
+   */
+  @Test
+  public void testAddAll() {
+    float[] values = { 5f, 1.04f, 5f, 0.96f, 7f, -1f };
+
+    QuantizedFloatHistogram histogram = new QuantizedFloatHistogram();
+    histogram.addAll(values, 5);
+    assertArrayEquals(new float[] { 1f, 5f, 7f }, histogram.getFloats(), 0);
+    assertEquals(2, histogram.getFrequency(1f));
+    assertEquals(2, histogram.getFrequency(5f));
+    assertEquals(1f, histogram.getMostCommonFloat(), 0);
+
+    histogram.addAll(new float[] { 7f, 7f, 2f }, 3);
+    assertArrayEquals(new float[] { 1f, 2f, 5f, 7f }, histogram.getFloats(), 0);
+    assertEquals(3, histogram.getFrequency(7f));
+    assertEquals(7f, histogram.getMostCommonFloat(), 0);
+    assertEquals(4.375f, histogram.getAverageFloat(), 1e-6);
+
+    // The result is the same as adding the values one by one.
+    QuantizedFloatHistogram expected = new QuantizedFloatHistogram();
+    for (float value : new float[] { 5f, 1.04f, 5f, 0.96f, 7f, 7f, 7f, 2f }) {
+      expected.add(value);
+    }
+    assertArrayEquals(expected.getFloats(), histogram.getFloats(), 0);
+    for (float value : expected.getFloats()) {
+      assertEquals(expected.getFrequency(value), histogram.getFrequency(value));
+    }
+  }
+}
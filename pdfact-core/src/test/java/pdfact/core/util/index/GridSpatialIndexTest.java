@@ -0,0 +1,169 @@
+package pdfact.core.util.index;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import pdfact.core.model.Character;
+import pdfact.core.model.Page;
+import pdfact.core.model.Point;
+import pdfact.core.model.Position;
+import pdfact.core.model.Rectangle;
+
+/**
+ * A class that tests the {@link GridSpatialIndex}.
+ */
+public class GridSpatialIndexTest {
+  /**
+   * The page of the elements.
+   */
+  protected static final Page PAGE = new Page(1);
+
+  /**
+   * Tests the range queries on a small set of elements, including elements that cross the
+   * boundaries of cells, touching borders and an element without a position.
+   */
+  @Test
+  public void testRangeQueries() {
+    Character a = createCharacter("a", 0, 0, 10, 10);
+    Character b = createCharacter("b", 90, 90, 100, 100);
+    // An element crossing the whole grid (and hence, the boundaries of all cells).
+    Character c = createCharacter("c", 0, 45, 100, 55);
+    Character d = createCharacter("d", 40, 40, 60, 60);
+    Character e = new Character();
+    e.setText("e");
+    List<Character> elements = Arrays.asList(a, b, c, d, e);
+    GridSpatialIndex<Character> index = new GridSpatialIndex<>(elements);
+
+    assertEquals(5, index.size());
+    // The elements are returned in the given order.
+    assertEquals(Arrays.asList(a, b, c, d),
+        index.getOverlapping(new Rectangle(0f, 0f, 100f, 100f)));
+    assertEquals(Arrays.asList(a, b, c, d), index.getContained(new Rectangle(0f, 0f, 100f, 100f)));
+    // Touching borders count as overlap, but not as containment of other elements.
+    assertEquals(Arrays.asList(a), index.getOverlapping(new Rectangle(10f, 10f, 20f, 20f)));
+    assertEquals(Arrays.asList(c, d), index.getOverlapping(new Rectangle(45f, 50f, 46f, 51f)));
+    assertEquals(Arrays.asList(d), index.getContained(new Rectangle(30f, 30f, 70f, 70f)));
+    assertEquals(Arrays.asList(c), index.getOverlapping(new Rectangle(80f, 50f, 85f, 51f)));
+    // Queries in empty regions, outside of the grid and without a rectangle.
+    assertTrue(index.getOverlapping(new Rectangle(70f, 10f, 80f, 20f)).isEmpty());
+    assertTrue(index.getOverlapping(new Rectangle(200f, 200f, 300f, 300f)).isEmpty());
+    assertTrue(index.getOverlapping(null).isEmpty());
+  }
+
+  /**
+   * Tests the queries on an empty index.
+   */
+  @Test
+  public void testEmptyIndex() {
+    GridSpatialIndex<Character> index = new GridSpatialIndex<>(Collections.emptyList());
+    assertEquals(0, index.size());
+    assertTrue(index.getOverlapping(new Rectangle(0f, 0f, 10f, 10f)).isEmpty());
+    assertTrue(index.getContained(new Rectangle(0f, 0f, 10f, 10f)).isEmpty());
+    assertTrue(index.getNearest(new Point(0f, 0f), 3).isEmpty());
+  }
+
+  /**
+   * Tests all queries on random elements (of various sizes, including elements that are
+   * registered in many cells and elements that are too large to be registered in cells) against
+   * linear scans over the elements.
+   */
+  @Test
+  public void testAgainstLinearScan() {
+    Random random = new Random(42);
+    List<Character> elements = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      float minX = random.nextFloat() * 600;
+      float minY = random.nextFloat() * 800;
+      float size = i % 50 == 0 ? 400 : (i % 10 == 0 ? 40 : 5);
+      float width = random.nextFloat() * size;
+      float height = random.nextFloat() * size;
+      elements.add(createCharacter("c" + i, minX, minY, minX + width, minY + height));
+    }
+    GridSpatialIndex<Character> index = new GridSpatialIndex<>(elements);
+
+    for (int i = 0; i < 200; i++) {
+      float minX = random.nextFloat() * 700 - 50;
+      float minY = random.nextFloat() * 900 - 50;
+      float size = i % 2 == 0 ? 20 : 200;
+      Rectangle rect = new Rectangle(minX, minY, minX + random.nextFloat() * size,
+          minY + random.nextFloat() * size);
+
+      List<Character> overlapping = new ArrayList<>();
+      List<Character> contained = new ArrayList<>();
+      for (Character element : elements) {
+        Rectangle r = element.getPosition().getRectangle();
+        if (r.getMaxX() >= rect.getMinX() && r.getMinX() <= rect.getMaxX()
+            && r.getMinY() <= rect.getMaxY() && r.getMaxY() >= rect.getMinY()) {
+          overlapping.add(element);
+        }
+        if (r.getMinX() >= rect.getMinX() && r.getMaxX() <= rect.getMaxX()
+            && r.getMinY() >= rect.getMinY() && r.getMaxY() <= rect.getMaxY()) {
+          contained.add(element);
+        }
+      }
+      assertEquals(overlapping, index.getOverlapping(rect));
+      assertEquals(contained, index.getContained(rect));
+
+      Point point = new Point(minX, minY);
+      int k = 1 + random.nextInt(10);
+      assertEquals(getNearest(elements, point, k), index.getNearest(point, k));
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the k elements closest to the given point, by sorting all elements by their distances
+   * to the point (and by their indexes, on equal distances).
+   *
+   * @param elements The elements.
+   * @param point    The point.
+   * @param k        The number of elements to return.
+   *
+   * @return The k elements closest to the given point.
+   */
+  protected static List<Character> getNearest(List<Character> elements, Point point, int k) {
+    Integer[] indexes = new Integer[elements.size()];
+    double[] dists = new double[elements.size()];
+    for (int i = 0; i < elements.size(); i++) {
+      Rectangle r = elements.get(i).getPosition().getRectangle();
+      double dx = Math.max(0, Math.max(r.getMinX() - point.getX(), point.getX() - r.getMaxX()));
+      double dy = Math.max(0, Math.max(r.getMinY() - point.getY(), point.getY() - r.getMaxY()));
+      dists[i] = dx * dx + dy * dy;
+      indexes[i] = i;
+    }
+    Arrays.sort(indexes, Comparator.<Integer>comparingDouble(i -> dists[i]).thenComparing(i -> i));
+
+    List<Character> result = new ArrayList<>();
+    for (int i = 0; i < Math.min(k, indexes.length); i++) {
+      result.add(elements.get(indexes[i]));
+    }
+    return result;
+  }
+
+  /**
+   * Creates a character with the given text and the given position.
+   *
+   * @param text The text of the character.
+   * @param minX The minX value of the character.
+   * @param minY The minY value of the character.
+   * @param maxX The maxX value of the character.
+   * @param maxY The maxY value of the character.
+   *
+   * @return The created character.
+   */
+  protected static Character createCharacter(String text, float minX, float minY, float maxX,
+      float maxY) {
+    Character character = new Character();
+    character.setText(text);
+    character.setPosition(new Position(PAGE, minX, minY, maxX, maxY));
+    return character;
+  }
+}
@@ -0,0 +1,165 @@
+package pdfact.core.util.list;
+
+import java.util.List;
+import java.util.Random;
+import pdfact.core.model.Character;
+import pdfact.core.model.Page;
+import pdfact.core.model.Position;
+import pdfact.core.model.Rectangle;
+
+/**
+ * A micro benchmark for the access patterns of XYCut on element lists: cutting a list at each
+ * candidate index into two slices and iterating the slices, both by index and by iterator. Run it
+ * via its main method (it is not a unit test); the arguments are the number of characters per list
+ * (default: 2000) and the number of rounds (default: 20).
+ */
+public class ElementListBenchmark {
+  /**
+   * Runs the benchmark.
+   *
+   * @param args The number of characters per list and the number of rounds (both optional).
+   */
+  public static void main(String[] args) {
+    int numChars = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+    int numRounds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+    ElementList<Character> chars = createCharacters(numChars);
+
+    // Warm up.
+    for (int i = 0; i < 5; i++) {
+      cutAndIterateByIndex(chars);
+      cutAndIterateByIterator(chars);
+      cutSlicesOfSlices(chars);
+    }
+
+    float checksum = 0;
+    long start = System.nanoTime();
+    for (int i = 0; i < numRounds; i++) {
+      checksum += cutAndIterateByIndex(chars);
+    }
+    report("cut + iterate by index", start, numRounds, numChars);
+
+    start = System.nanoTime();
+    for (int i = 0; i < numRounds; i++) {
+      checksum += cutAndIterateByIterator(chars);
+    }
+    report("cut + iterate by iterator", start, numRounds, numChars);
+
+    start = System.nanoTime();
+    for (int i = 0; i < numRounds; i++) {
+      checksum += cutSlicesOfSlices(chars);
+    }
+    report("cut slices of slices", start, numRounds, numChars);
+
+    System.out.println("(checksum: " + checksum + ")");
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Cuts the given list at each index and computes the largest maxX of the left slice and the
+   * smallest minX of the right slice by iterating the slices by index (the pattern of the
+   * statistics computed on both halves of each candidate cut).
+   *
+   * @param chars The characters to cut.
+   *
+   * @return A checksum, to prevent the JIT from eliminating the loop.
+   */
+  protected static float cutAndIterateByIndex(ElementList<Character> chars) {
+    float checksum = 0;
+    for (int index = 1; index < chars.size(); index++) {
+      List<ElementList<Character>> halves = chars.cut(index);
+      ElementList<Character> left = halves.get(0);
+      ElementList<Character> right = halves.get(1);
+
+      float maxX = -Float.MAX_VALUE;
+      for (int i = 0; i < left.size(); i++) {
+        maxX = Math.max(maxX, left.get(i).getPosition().getRectangle().getMaxX());
+      }
+      float minX = Float.MAX_VALUE;
+      for (int i = 0; i < right.size(); i++) {
+        minX = Math.min(minX, right.get(i).getPosition().getRectangle().getMinX());
+      }
+      checksum += minX - maxX;
+    }
+    return checksum;
+  }
+
+  /**
+   * Same as {@link #cutAndIterateByIndex(ElementList)}, but iterates the slices by iterator.
+   *
+   * @param chars The characters to cut.
+   *
+   * @return A checksum, to prevent the JIT from eliminating the loop.
+   */
+  protected static float cutAndIterateByIterator(ElementList<Character> chars) {
+    float checksum = 0;
+    for (int index = 1; index < chars.size(); index++) {
+      List<ElementList<Character>> halves = chars.cut(index);
+
+      float maxX = -Float.MAX_VALUE;
+      for (Character c : halves.get(0)) {
+        maxX = Math.max(maxX, c.getPosition().getRectangle().getMaxX());
+      }
+      float minX = Float.MAX_VALUE;
+      for (Character c : halves.get(1)) {
+        minX = Math.min(minX, c.getPosition().getRectangle().getMinX());
+      }
+      checksum += minX - maxX;
+    }
+    return checksum;
+  }
+
+  /**
+   * Cuts the given list recursively in halves (the pattern of the recursion of XYCut, where each
+   * block is a slice of a slice), down to single elements.
+   *
+   * @param chars The characters to cut.
+   *
+   * @return A checksum, to prevent the JIT from eliminating the recursion.
+   */
+  protected static float cutSlicesOfSlices(ElementList<Character> chars) {
+    if (chars.size() < 2) {
+      return chars.isEmpty() ? 0 : chars.get(0).getPosition().getRectangle().getMinX();
+    }
+    List<ElementList<Character>> halves = chars.cut(chars.size() / 2);
+    return cutSlicesOfSlices(halves.get(0)) + cutSlicesOfSlices(halves.get(1));
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Creates a list of the given number of characters with random positions.
+   *
+   * @param numChars The number of characters to create.
+   *
+   * @return The list of characters.
+   */
+  protected static ElementList<Character> createCharacters(int numChars) {
+    Random random = new Random(42);
+    Page page = new Page(1);
+    ElementList<Character> chars = new PlainElementList<>(numChars);
+    for (int i = 0; i < numChars; i++) {
+      float minX = random.nextFloat() * 500;
+      float minY = random.nextFloat() * 700;
+      Character character = new Character();
+      character.setText("x");
+      character.setPosition(new Position(page, new Rectangle(minX, minY, minX + 5, minY + 10)));
+      chars.add(character);
+    }
+    return chars;
+  }
+
+  /**
+   * Prints the average time needed per round.
+   *
+   * @param name      The name of the benchmarked pattern.
+   * @param start     The start time, in nanoseconds.
+   * @param numRounds The number of rounds.
+   * @param numChars  The number of characters per list.
+   */
+  protected static void report(String name, long start, int numRounds, int numChars) {
+    double ms = (System.nanoTime() - start) / 1e6 / numRounds;
+    System.out.println(String.format("%-28s %d chars: %8.2f ms/round", name, numChars, ms));
+  }
+}
@@ -0,0 +1,102 @@
+package pdfact.core.util.sort;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import pdfact.core.model.Character;
+import pdfact.core.model.Page;
+import pdfact.core.model.Position;
+import pdfact.core.util.list.ElementList;
+import pdfact.core.util.list.PlainElementList;
+
+/**
+ * A class that tests the {@link PositionSorter}.
+ */
+public class PositionSorterTest {
+  /**
+   * Tests if characters with equal minX values are ordered by their extraction ranks, regardless
+   * of the order in which they are passed.
+   */
+  @Test
+  public void testSortByMinX() {
+    Page page = new Page(1);
+    Character a = createCharacter(page, "a", 10, 5, 1);
+    Character b = createCharacter(page, "b", 10, 8, 2);
+    Character c = createCharacter(page, "c", 10, 2, 3);
+    Character d = createCharacter(page, "d", 5, 1, 4);
+
+    for (List<Character> input : Arrays.asList(Arrays.asList(a, b, c, d),
+        Arrays.asList(c, b, a, d), Arrays.asList(b, d, c, a))) {
+      ElementList<Character> characters = new PlainElementList<>();
+      characters.addAll(input);
+      PositionSorter.sortByMinX(characters);
+      assertEquals(Arrays.asList(d, a, b, c), characters);
+    }
+  }
+
+  /**
+   * Tests if characters with equal maxY values are ordered by their minX values and then by their
+   * extraction ranks.
+   */
+  @Test
+  public void testSortByMaxYDescending() {
+    Page page = new Page(1);
+    Character a = createCharacter(page, "a", 10, 5, 3);
+    Character b = createCharacter(page, "b", 10, 5, 1);
+    Character c = createCharacter(page, "c", 2, 5, 2);
+    Character d = createCharacter(page, "d", 20, 9, 4);
+
+    ElementList<Character> characters = new PlainElementList<>();
+    characters.addAll(Arrays.asList(a, b, c, d));
+    PositionSorter.sortByMaxYDescending(characters);
+    assertEquals(Arrays.asList(d, c, b, a), characters);
+  }
+
+  /**
+   * Tests if the orders of a subset of the characters can be derived from the orders of all
+   * characters, which is what the XY-cut relies on.
+   */
+  @Test
+  public void testOrderOfSubset() {
+    Page page = new Page(1);
+    Character a = createCharacter(page, "a", 3, 5, 4);
+    Character b = createCharacter(page, "b", 3, 7, 2);
+    Character c = createCharacter(page, "c", 1, 7, 3);
+    Character d = createCharacter(page, "d", 3, 5, 1);
+    List<Character> all = Arrays.asList(a, b, c, d);
+    List<Character> subset = Arrays.asList(a, b, d);
+
+    int[] minXOrder = PositionSorter.getMinXOrder(all);
+    assertArrayEquals(new int[] { 2, 3, 1, 0 }, minXOrder);
+    assertArrayEquals(new int[] { 2, 1, 0 }, PositionSorter.getMinXOrder(subset));
+
+    int[] maxYOrder = PositionSorter.getMaxYDescendingOrder(all);
+    assertArrayEquals(new int[] { 2, 1, 3, 0 }, maxYOrder);
+    assertArrayEquals(new int[] { 1, 2, 0 }, PositionSorter.getMaxYDescendingOrder(subset));
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Creates a character with the given text, position and extraction rank.
+   *
+   * @param page The page of the character.
+   * @param text The text of the character.
+   * @param minX The minX value of the character.
+   * @param maxY The maxY value of the character.
+   * @param rank The extraction rank of the character.
+   *
+   * @return The created character.
+   */
+  protected static Character createCharacter(Page page, String text, float minX, float maxY,
+      int rank) {
+    Character character = new Character();
+    character.setText(text);
+    character.setPosition(new Position(page, minX, maxY - 1, minX + 1, maxY));
+    character.setExtractionRank(rank);
+    return character;
+  }
+}
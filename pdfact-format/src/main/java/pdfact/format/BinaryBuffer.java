@@ -0,0 +1,186 @@
+package pdfact.format;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * A growable byte buffer to encode the parts of a binary file (fixed-size little-endian integers,
+ * varints and zigzag-encoded signed varints).
+ *
+ * @author Claudius Korzen
+ */
+public class BinaryBuffer {
+  /**
+   * The bytes of this buffer (only the first {@link #length} entries are used).
+   */
+  protected byte[] bytes;
+
+  /**
+   * The number of bytes in this buffer.
+   */
+  protected int length;
+
+  // ==============================================================================================
+  // Constructors.
+
+  /**
+   * Creates a new, empty buffer.
+   */
+  public BinaryBuffer() {
+    this(64);
+  }
+
+  /**
+   * Creates a new, empty buffer with the given initial capacity.
+   *
+   * @param initialCapacity The initial capacity (the number of bytes).
+   */
+  public BinaryBuffer(int initialCapacity) {
+    this.bytes = new byte[Math.max(1, initialCapacity)];
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Appends the given byte.
+   *
+   * @param b The byte to append (only the lowest 8 bits are used).
+   */
+  public void writeByte(int b) {
+    ensureCapacity(this.length + 1);
+    this.bytes[this.length++] = (byte) b;
+  }
+
+  /**
+   * Appends the given value as a little-endian 16-bit integer.
+   *
+   * @param value The value to append (only the lowest 16 bits are used).
+   */
+  public void writeShort(int value) {
+    ensureCapacity(this.length + 2);
+    this.bytes[this.length++] = (byte) value;
+    this.bytes[this.length++] = (byte) (value >>> 8);
+  }
+
+  /**
+   * Appends the given value as a little-endian 32-bit integer.
+   *
+   * @param value The value to append.
+   */
+  public void writeInt(int value) {
+    ensureCapacity(this.length + 4);
+    this.bytes[this.length++] = (byte) value;
+    this.bytes[this.length++] = (byte) (value >>> 8);
+    this.bytes[this.length++] = (byte) (value >>> 16);
+    this.bytes[this.length++] = (byte) (value >>> 24);
+  }
+
+  /**
+   * Appends the given value as an unsigned varint (7 bits per byte, least significant group
+   * first, the highest bit of a byte is set if more bytes follow).
+   *
+   * @param value The value to append (interpreted as an unsigned integer).
+   */
+  public void writeVarInt(int value) {
+    ensureCapacity(this.length + 5);
+    while ((value & ~0x7F) != 0) {
+      this.bytes[this.length++] = (byte) ((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    this.bytes[this.length++] = (byte) value;
+  }
+
+  /**
+   * Appends the given signed value as a zigzag-encoded varint (so that values close to zero, both
+   * positive and negative, are encoded in few bytes).
+   *
+   * @param value The value to append.
+   */
+  public void writeSignedVarInt(int value) {
+    writeVarInt((value << 1) ^ (value >> 31));
+  }
+
+  /**
+   * Appends the given bytes.
+   *
+   * @param b The bytes to append.
+   */
+  public void write(byte[] b) {
+    write(b, 0, b.length);
+  }
+
+  /**
+   * Appends the given range of the given bytes.
+   *
+   * @param b      The bytes.
+   * @param offset The start of the range.
+   * @param len    The length of the range.
+   */
+  public void write(byte[] b, int offset, int len) {
+    ensureCapacity(this.length + len);
+    System.arraycopy(b, offset, this.bytes, this.length, len);
+    this.length += len;
+  }
+
+  /**
+   * Appends the content of the given buffer.
+   *
+   * @param buffer The buffer to append.
+   */
+  public void write(BinaryBuffer buffer) {
+    write(buffer.bytes, 0, buffer.length);
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the number of bytes in this buffer.
+   *
+   * @return The number of bytes in this buffer.
+   */
+  public int length() {
+    return this.length;
+  }
+
+  /**
+   * Removes all bytes from this buffer (the capacity is kept).
+   */
+  public void clear() {
+    this.length = 0;
+  }
+
+  /**
+   * Writes the content of this buffer to the given stream.
+   *
+   * @param stream The stream to write to.
+   *
+   * @throws IOException If writing failed.
+   */
+  public void writeTo(OutputStream stream) throws IOException {
+    stream.write(this.bytes, 0, this.length);
+  }
+
+  /**
+   * Returns a copy of the content of this buffer.
+   *
+   * @return A copy of the content of this buffer.
+   */
+  public byte[] toByteArray() {
+    return Arrays.copyOf(this.bytes, this.length);
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Ensures that this buffer can hold at least the given number of bytes.
+   *
+   * @param capacity The required capacity.
+   */
+  protected void ensureCapacity(int capacity) {
+    if (capacity > this.bytes.length) {
+      int newCapacity = Math.max(capacity, 2 * this.bytes.length);
+      this.bytes = Arrays.copyOf(this.bytes, newCapacity);
+    }
+  }
+}
@@ -0,0 +1,94 @@
+package pdfact.format;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A decoder that reads the values encoded by a {@link BinaryBuffer} from a byte buffer, starting
+ * at a given position (the byte buffer is accessed by absolute positions only, so several decoders
+ * can share the same byte buffer).
+ *
+ * @author Claudius Korzen
+ */
+public class BinaryDecoder {
+  /**
+   * The buffer to read from.
+   */
+  protected final ByteBuffer buffer;
+
+  /**
+   * The position of the next value to read.
+   */
+  protected int position;
+
+  // ==============================================================================================
+  // Constructors.
+
+  /**
+   * Creates a new decoder that reads from the given buffer, starting at the given position.
+   *
+   * @param buffer   The buffer to read from.
+   * @param position The position of the first value to read.
+   */
+  public BinaryDecoder(ByteBuffer buffer, int position) {
+    this.buffer = buffer;
+    this.position = position;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Reads an unsigned byte.
+   *
+   * @return The byte, as a value between 0 and 255.
+   */
+  public int readByte() {
+    return this.buffer.get(this.position++) & 0xFF;
+  }
+
+  /**
+   * Reads an unsigned varint.
+   *
+   * @return The value.
+   */
+  public int readVarInt() {
+    int value = 0;
+    int shift = 0;
+    int b;
+    do {
+      b = this.buffer.get(this.position++);
+      value |= (b & 0x7F) << shift;
+      shift += 7;
+    } while (b < 0);
+    return value;
+  }
+
+  /**
+   * Reads a zigzag-encoded signed varint.
+   *
+   * @return The value.
+   */
+  public int readSignedVarInt() {
+    int value = readVarInt();
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the position of the next value to read.
+   *
+   * @return The position of the next value to read.
+   */
+  public int getPosition() {
+    return this.position;
+  }
+
+  /**
+   * Sets the position of the next value to read.
+   *
+   * @param position The position of the next value to read.
+   */
+  public void setPosition(int position) {
+    this.position = position;
+  }
+}
@@ -0,0 +1,396 @@
+package pdfact.format;
+
+import static pdfact.format.PdfActBinaryFormat.COLUMN_COLOR;
+import static pdfact.format.PdfActBinaryFormat.COLUMN_FONT;
+import static pdfact.format.PdfActBinaryFormat.COLUMN_FONT_SIZE;
+import static pdfact.format.PdfActBinaryFormat.COLUMN_HEIGHT;
+import static pdfact.format.PdfActBinaryFormat.COLUMN_MIN_X;
+import static pdfact.format.PdfActBinaryFormat.COLUMN_MIN_Y;
+import static pdfact.format.PdfActBinaryFormat.COLUMN_NUM_POSITIONS;
+import static pdfact.format.PdfActBinaryFormat.COLUMN_POSITION_PAGE;
+import static pdfact.format.PdfActBinaryFormat.COLUMN_ROLE;
+import static pdfact.format.PdfActBinaryFormat.COLUMN_TEXT;
+import static pdfact.format.PdfActBinaryFormat.COLUMN_WIDTH;
+import static pdfact.format.PdfActBinaryFormat.NUM_COLUMNS;
+
+/**
+ * A cursor over the elements of a unit in a range of pages of a file in the binary format of
+ * PdfAct. The cursor decodes the columns of the sections on the fly; the values of the current
+ * element (and of its current position) are accessed by the getters of the cursor, so iterating
+ * the elements doesn't create any objects:
+ *
+ * <pre>
+ * ElementCursor cursor = reader.elements(PdfActBinaryFormat.UNIT_WORD);
+ * while (cursor.next()) {
+ *   int text = cursor.getTextIndex();
+ *   float minX = cursor.getMinX();
+ *   ...
+ * }
+ * </pre>
+ *
+ * @author Claudius Korzen
+ */
+public class ElementCursor {
+  /**
+   * The reader of the file.
+   */
+  protected final PdfActBinaryReader reader;
+
+  /**
+   * The unit of the elements to iterate.
+   */
+  protected final int unit;
+
+  /**
+   * The index of the last page to iterate (exclusive).
+   */
+  protected final int endPageIndex;
+
+  /**
+   * The index of the current page.
+   */
+  protected int pageIndex;
+
+  /**
+   * The number of the current page.
+   */
+  protected int pageNumber;
+
+  /**
+   * The decoder of the page blocks.
+   */
+  protected final BinaryDecoder pageDecoder;
+
+  /**
+   * The decoders of the columns of the current section.
+   */
+  protected final BinaryDecoder[] columns = new BinaryDecoder[NUM_COLUMNS];
+
+  /**
+   * The number of elements of the current section that were not yet visited.
+   */
+  protected int remainingElements;
+
+  /**
+   * The number of positions of the current element that were not yet visited.
+   */
+  protected int remainingPositions;
+
+  /**
+   * The (scaled) minX value of the previous position in the current section.
+   */
+  protected int prevMinX;
+
+  /**
+   * The (scaled) minY value of the previous position in the current section.
+   */
+  protected int prevMinY;
+
+  // ==============================================================================================
+  // The values of the current element.
+
+  /**
+   * The index of the text of the current element (-1 if it has no text).
+   */
+  protected int textIndex;
+
+  /**
+   * The role code of the current element (0 if it has no role).
+   */
+  protected int roleCode;
+
+  /**
+   * The font index of the current element (-1 if it has no font).
+   */
+  protected int fontIndex;
+
+  /**
+   * The (scaled) font size of the current element (0 if it has no font).
+   */
+  protected int fontSize;
+
+  /**
+   * The color index of the current element (-1 if it has no color).
+   */
+  protected int colorIndex;
+
+  /**
+   * The number of positions of the current element.
+   */
+  protected int numPositions;
+
+  /**
+   * The page number of the current position.
+   */
+  protected int positionPageNumber;
+
+  /**
+   * The (scaled) minX value of the current position.
+   */
+  protected int minX;
+
+  /**
+   * The (scaled) minY value of the current position.
+   */
+  protected int minY;
+
+  /**
+   * The (scaled) maxX value of the current position.
+   */
+  protected int maxX;
+
+  /**
+   * The (scaled) maxY value of the current position.
+   */
+  protected int maxY;
+
+  // ==============================================================================================
+  // Constructors.
+
+  /**
+   * Creates a new cursor over the elements of the given unit in the given range of pages.
+   *
+   * @param reader         The reader of the file.
+   * @param unit           The unit of the elements to iterate.
+   * @param startPageIndex The index of the first page to iterate (inclusive).
+   * @param endPageIndex   The index of the last page to iterate (exclusive).
+   */
+  protected ElementCursor(PdfActBinaryReader reader, int unit, int startPageIndex,
+      int endPageIndex) {
+    this.reader = reader;
+    this.unit = unit;
+    this.pageIndex = startPageIndex - 1;
+    this.endPageIndex = endPageIndex;
+    this.pageDecoder = new BinaryDecoder(reader.buffer, 0);
+    for (int i = 0; i < NUM_COLUMNS; i++) {
+      this.columns[i] = new BinaryDecoder(reader.buffer, 0);
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Moves the cursor to the next element. The current position of the cursor is set to the first
+   * position of the element (if the element has any position).
+   *
+   * @return True if there is a next element; false otherwise.
+   */
+  public boolean next() {
+    // Skip the remaining positions of the current element (they are delta-encoded).
+    while (this.remainingPositions > 0) {
+      nextPosition();
+    }
+
+    while (this.remainingElements == 0) {
+      if (!nextSection()) {
+        return false;
+      }
+    }
+    this.remainingElements--;
+
+    this.textIndex = this.columns[COLUMN_TEXT].readVarInt() - 1;
+    this.roleCode = this.columns[COLUMN_ROLE].readByte();
+    this.fontIndex = this.columns[COLUMN_FONT].readVarInt() - 1;
+    this.fontSize = this.columns[COLUMN_FONT_SIZE].readVarInt();
+    this.colorIndex = this.columns[COLUMN_COLOR].readVarInt() - 1;
+    this.numPositions = this.columns[COLUMN_NUM_POSITIONS].readVarInt();
+    this.remainingPositions = this.numPositions;
+
+    this.positionPageNumber = 0;
+    this.minX = this.minY = this.maxX = this.maxY = 0;
+    nextPosition();
+    return true;
+  }
+
+  /**
+   * Moves the current position of the cursor to the next position of the current element.
+   *
+   * @return True if the current element has a next position; false otherwise.
+   */
+  public boolean nextPosition() {
+    if (this.remainingPositions == 0) {
+      return false;
+    }
+    this.remainingPositions--;
+    this.positionPageNumber = this.pageNumber
+        + this.columns[COLUMN_POSITION_PAGE].readSignedVarInt();
+    this.minX = this.prevMinX + this.columns[COLUMN_MIN_X].readSignedVarInt();
+    this.minY = this.prevMinY + this.columns[COLUMN_MIN_Y].readSignedVarInt();
+    this.maxX = this.minX + this.columns[COLUMN_WIDTH].readSignedVarInt();
+    this.maxY = this.minY + this.columns[COLUMN_HEIGHT].readSignedVarInt();
+    this.prevMinX = this.minX;
+    this.prevMinY = this.minY;
+    return true;
+  }
+
+  /**
+   * Moves the cursor to the section of the unit in the next page.
+   *
+   * @return True if there is a next page; false otherwise.
+   */
+  protected boolean nextSection() {
+    if (this.pageIndex + 1 >= this.endPageIndex) {
+      return false;
+    }
+    this.pageIndex++;
+    this.remainingElements = 0;
+    this.prevMinX = 0;
+    this.prevMinY = 0;
+
+    BinaryDecoder decoder = this.pageDecoder;
+    decoder.setPosition(this.reader.getPageOffset(this.pageIndex));
+    this.pageNumber = decoder.readVarInt();
+    decoder.readVarInt(); // width
+    decoder.readVarInt(); // height
+    int numSections = decoder.readVarInt();
+    for (int i = 0; i < numSections; i++) {
+      int sectionUnit = decoder.readByte();
+      int numElements = decoder.readVarInt();
+      int position = 0;
+      for (int j = 0; j < NUM_COLUMNS; j++) {
+        int length = decoder.readVarInt();
+        this.columns[j].setPosition(position);
+        position += length;
+      }
+      int dataOffset = decoder.getPosition();
+      if (sectionUnit == this.unit) {
+        for (BinaryDecoder column : this.columns) {
+          column.setPosition(dataOffset + column.getPosition());
+        }
+        this.remainingElements = numElements;
+        return true;
+      }
+      decoder.setPosition(dataOffset + position);
+    }
+    return true;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the number of the page whose section contains the current element (the page of the
+   * first position of the element).
+   *
+   * @return The page number.
+   */
+  public int getPageNumber() {
+    return this.pageNumber;
+  }
+
+  /**
+   * Returns the index of the text of the current element in the string table.
+   *
+   * @return The index of the text, or -1 if the element has no text.
+   */
+  public int getTextIndex() {
+    return this.textIndex;
+  }
+
+  /**
+   * Returns the text of the current element (decoded to a string).
+   *
+   * @return The text, or null if the element has no text.
+   */
+  public String getText() {
+    return this.textIndex >= 0 ? this.reader.getString(this.textIndex) : null;
+  }
+
+  /**
+   * Returns the role code of the current element.
+   *
+   * @return The role code, or 0 if the element has no role.
+   */
+  public int getRoleCode() {
+    return this.roleCode;
+  }
+
+  /**
+   * Returns the name of the role of the current element.
+   *
+   * @return The name of the role, or null if the element has no role.
+   */
+  public String getRoleName() {
+    return this.reader.getRoleName(this.roleCode);
+  }
+
+  /**
+   * Returns the index of the font of the current element in the font table.
+   *
+   * @return The index of the font, or -1 if the element has no font.
+   */
+  public int getFontIndex() {
+    return this.fontIndex;
+  }
+
+  /**
+   * Returns the font size of the current element.
+   *
+   * @return The font size, or 0 if the element has no font.
+   */
+  public float getFontSize() {
+    return this.reader.unscale(this.fontSize);
+  }
+
+  /**
+   * Returns the index of the color of the current element in the color table.
+   *
+   * @return The index of the color, or -1 if the element has no color.
+   */
+  public int getColorIndex() {
+    return this.colorIndex;
+  }
+
+  /**
+   * Returns the number of positions of the current element.
+   *
+   * @return The number of positions.
+   */
+  public int getNumPositions() {
+    return this.numPositions;
+  }
+
+  /**
+   * Returns the page number of the current position.
+   *
+   * @return The page number, or 0 if the element has no position.
+   */
+  public int getPositionPageNumber() {
+    return this.positionPageNumber;
+  }
+
+  /**
+   * Returns the minimum x-coordinate of the current position.
+   *
+   * @return The minimum x-coordinate.
+   */
+  public float getMinX() {
+    return this.reader.unscale(this.minX);
+  }
+
+  /**
+   * Returns the minimum y-coordinate of the current position.
+   *
+   * @return The minimum y-coordinate.
+   */
+  public float getMinY() {
+    return this.reader.unscale(this.minY);
+  }
+
+  /**
+   * Returns the maximum x-coordinate of the current position.
+   *
+   * @return The maximum x-coordinate.
+   */
+  public float getMaxX() {
+    return this.reader.unscale(this.maxX);
+  }
+
+  /**
+   * Returns the maximum y-coordinate of the current position.
+   *
+   * @return The maximum y-coordinate.
+   */
+  public float getMaxY() {
+    return this.reader.unscale(this.maxY);
+  }
+}
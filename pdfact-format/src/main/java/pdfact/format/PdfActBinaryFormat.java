@@ -0,0 +1,222 @@
+package pdfact.format;
+
+/**
+ * The constants of the binary columnar output format of PdfAct ("bin").
+ *
+ * <p>
+ * A file consists of a header, the page blocks, a string table, a font table, a color table, a
+ * role table and a page index. All fixed-size integers are little-endian. A "varint" is an
+ * unsigned LEB128-encoded integer; a "svarint" is a zigzag-encoded signed varint. Coordinates
+ * and font sizes are stored as integers, multiplied by the coordinate scale given in the header
+ * (PdfAct rounds coordinates to one decimal place, so a scale of 10 is lossless).
+ *
+ * <pre>
+ * header      := magic:int32 version:int16 scale:int16 numPages:int32 pageIndexOffset:int32
+ *                stringTableOffset:int32 fontTableOffset:int32 colorTableOffset:int32
+ *                roleTableOffset:int32
+ * pageBlock   := pageNumber:varint width:varint height:varint numSections:varint section*
+ * section     := unit:int8 numElements:varint columnLength:varint{NUM_COLUMNS} column*
+ * stringTable := numStrings:varint offset:int32{numStrings + 1} utf8Bytes
+ * fontTable   := numFonts:varint (idString:varint nameString+1:varint flags:int8)*
+ * colorTable  := numColors:varint (idString:varint r:int8 g:int8 b:int8)*
+ * roleTable   := numRoles:varint nameString:varint*
+ * pageIndex   := pageBlockOffset:int32{numPages}
+ * </pre>
+ *
+ * <p>
+ * A section contains the elements of a single unit (e.g., the words) of a page, stored column by
+ * column (in the order of the COLUMN_* constants). Each column has one entry per element, except
+ * the position columns, which have one entry per position (an element can have several positions,
+ * e.g. a paragraph that spans several lines or pages). Absent values (no text, no font, ...) are
+ * stored as 0; indexes into the tables are stored as index + 1. Positions are delta-encoded: the
+ * page as the difference to the number of the page block, minX and minY as the difference to
+ * the previous position in the section, maxX and maxY as the width and height.
+ *
+ * @author Claudius Korzen
+ */
+public class PdfActBinaryFormat {
+  /**
+   * The magic number at the start of each file (the bytes "PFAB").
+   */
+  public static final int MAGIC = 0x42414650;
+
+  /**
+   * The version of the format.
+   */
+  public static final int VERSION = 1;
+
+  /**
+   * The size of the header in bytes.
+   */
+  public static final int HEADER_SIZE = 32;
+
+  /**
+   * The default coordinate scale (the number of units per point).
+   */
+  public static final int DEFAULT_COORDINATE_SCALE = 10;
+
+  // ==============================================================================================
+  // The offsets of the fields in the header.
+
+  /**
+   * The offset of the magic number in the header.
+   */
+  public static final int HEADER_MAGIC = 0;
+
+  /**
+   * The offset of the version in the header.
+   */
+  public static final int HEADER_VERSION = 4;
+
+  /**
+   * The offset of the coordinate scale in the header.
+   */
+  public static final int HEADER_SCALE = 6;
+
+  /**
+   * The offset of the number of pages in the header.
+   */
+  public static final int HEADER_NUM_PAGES = 8;
+
+  /**
+   * The offset of the offset of the page index in the header.
+   */
+  public static final int HEADER_PAGE_INDEX = 12;
+
+  /**
+   * The offset of the offset of the string table in the header.
+   */
+  public static final int HEADER_STRING_TABLE = 16;
+
+  /**
+   * The offset of the offset of the font table in the header.
+   */
+  public static final int HEADER_FONT_TABLE = 20;
+
+  /**
+   * The offset of the offset of the color table in the header.
+   */
+  public static final int HEADER_COLOR_TABLE = 24;
+
+  /**
+   * The offset of the offset of the role table in the header.
+   */
+  public static final int HEADER_ROLE_TABLE = 28;
+
+  // ==============================================================================================
+  // The codes of the units (the names correspond to the section names of the JSON and XML
+  // serializations).
+
+  /**
+   * The code of the unit "characters".
+   */
+  public static final int UNIT_CHARACTER = 1;
+
+  /**
+   * The code of the unit "words".
+   */
+  public static final int UNIT_WORD = 2;
+
+  /**
+   * The code of the unit "paragraphs".
+   */
+  public static final int UNIT_PARAGRAPH = 3;
+
+  /**
+   * The code of the unit "textBlocks".
+   */
+  public static final int UNIT_TEXT_BLOCK = 4;
+
+  /**
+   * The code of the unit "figures".
+   */
+  public static final int UNIT_FIGURE = 5;
+
+  /**
+   * The code of the unit "shapes".
+   */
+  public static final int UNIT_SHAPE = 6;
+
+  // ==============================================================================================
+  // The columns of a section.
+
+  /**
+   * The column with the texts (string index + 1, varint).
+   */
+  public static final int COLUMN_TEXT = 0;
+
+  /**
+   * The column with the semantic roles (role code, int8).
+   */
+  public static final int COLUMN_ROLE = 1;
+
+  /**
+   * The column with the fonts (font index + 1, varint).
+   */
+  public static final int COLUMN_FONT = 2;
+
+  /**
+   * The column with the font sizes (scaled, varint).
+   */
+  public static final int COLUMN_FONT_SIZE = 3;
+
+  /**
+   * The column with the colors (color index + 1, varint).
+   */
+  public static final int COLUMN_COLOR = 4;
+
+  /**
+   * The column with the number of positions of the elements (varint).
+   */
+  public static final int COLUMN_NUM_POSITIONS = 5;
+
+  /**
+   * The column with the pages of the positions (difference to the page block, svarint).
+   */
+  public static final int COLUMN_POSITION_PAGE = 6;
+
+  /**
+   * The column with the minX values of the positions (scaled, difference to the previous
+   * position, svarint).
+   */
+  public static final int COLUMN_MIN_X = 7;
+
+  /**
+   * The column with the minY values of the positions (scaled, difference to the previous
+   * position, svarint).
+   */
+  public static final int COLUMN_MIN_Y = 8;
+
+  /**
+   * The column with the widths of the positions (scaled, svarint).
+   */
+  public static final int COLUMN_WIDTH = 9;
+
+  /**
+   * The column with the heights of the positions (scaled, svarint).
+   */
+  public static final int COLUMN_HEIGHT = 10;
+
+  /**
+   * The number of columns of a section.
+   */
+  public static final int NUM_COLUMNS = 11;
+
+  // ==============================================================================================
+  // The flags of a font.
+
+  /**
+   * The flag of a bold font.
+   */
+  public static final int FONT_FLAG_BOLD = 1;
+
+  /**
+   * The flag of an italic font.
+   */
+  public static final int FONT_FLAG_ITALIC = 2;
+
+  /**
+   * The flag of a type3 font.
+   */
+  public static final int FONT_FLAG_TYPE3 = 4;
+}
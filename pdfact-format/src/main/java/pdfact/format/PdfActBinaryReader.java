@@ -0,0 +1,492 @@
+package pdfact.format;
+
+import static pdfact.format.PdfActBinaryFormat.FONT_FLAG_BOLD;
+import static pdfact.format.PdfActBinaryFormat.FONT_FLAG_ITALIC;
+import static pdfact.format.PdfActBinaryFormat.FONT_FLAG_TYPE3;
+import static pdfact.format.PdfActBinaryFormat.HEADER_COLOR_TABLE;
+import static pdfact.format.PdfActBinaryFormat.HEADER_FONT_TABLE;
+import static pdfact.format.PdfActBinaryFormat.HEADER_MAGIC;
+import static pdfact.format.PdfActBinaryFormat.HEADER_NUM_PAGES;
+import static pdfact.format.PdfActBinaryFormat.HEADER_PAGE_INDEX;
+import static pdfact.format.PdfActBinaryFormat.HEADER_ROLE_TABLE;
+import static pdfact.format.PdfActBinaryFormat.HEADER_SCALE;
+import static pdfact.format.PdfActBinaryFormat.HEADER_SIZE;
+import static pdfact.format.PdfActBinaryFormat.HEADER_STRING_TABLE;
+import static pdfact.format.PdfActBinaryFormat.HEADER_VERSION;
+import static pdfact.format.PdfActBinaryFormat.MAGIC;
+import static pdfact.format.PdfActBinaryFormat.VERSION;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A reader of files in the binary columnar format of PdfAct (see {@link PdfActBinaryFormat}).
+ *
+ * <p>
+ * The reader works directly on the bytes of the file (typically memory-mapped, see
+ * {@link #open(Path)}): on opening, only the header and the (small) font, color and role tables
+ * are decoded. The elements are iterated by an {@link ElementCursor}, which decodes the columns of
+ * the sections on the fly, without creating an object per element. Texts are only decoded to
+ * strings on request; their UTF-8 bytes can be accessed without copying via
+ * {@link #getStringOffset(int)} and {@link #getStringLength(int)}.
+ *
+ * @author Claudius Korzen
+ */
+public class PdfActBinaryReader {
+  /**
+   * The bytes of the file.
+   */
+  protected final ByteBuffer buffer;
+
+  /**
+   * The number of units per point of the stored coordinates.
+   */
+  protected final int coordinateScale;
+
+  /**
+   * The number of pages.
+   */
+  protected final int numPages;
+
+  /**
+   * The offset of the page index.
+   */
+  protected final int pageIndexOffset;
+
+  /**
+   * The number of strings in the string table.
+   */
+  protected final int numStrings;
+
+  /**
+   * The offset of the offsets of the strings in the string table.
+   */
+  protected final int stringOffsetsOffset;
+
+  /**
+   * The offset of the UTF-8 bytes of the strings in the string table.
+   */
+  protected final int stringDataOffset;
+
+  /**
+   * The string indexes of the ids of the fonts.
+   */
+  protected final int[] fontIds;
+
+  /**
+   * The string indexes of the names of the fonts (-1 if a font has no name).
+   */
+  protected final int[] fontNames;
+
+  /**
+   * The flags of the fonts.
+   */
+  protected final int[] fontFlags;
+
+  /**
+   * The string indexes of the ids of the colors.
+   */
+  protected final int[] colorIds;
+
+  /**
+   * The RGB values of the colors (0xRRGGBB).
+   */
+  protected final int[] colorRgbs;
+
+  /**
+   * The names of the roles, per role code.
+   */
+  protected final String[] roleNames;
+
+  // ==============================================================================================
+  // Constructors.
+
+  /**
+   * Creates a new reader that reads the given bytes.
+   *
+   * @param buffer The bytes of the file (from position 0 to the limit of the buffer).
+   *
+   * @throws PdfActFormatException If the bytes are not a valid file in the binary format.
+   */
+  public PdfActBinaryReader(ByteBuffer buffer) throws PdfActFormatException {
+    this.buffer = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+
+    if (this.buffer.limit() < HEADER_SIZE || this.buffer.getInt(HEADER_MAGIC) != MAGIC) {
+      throw new PdfActFormatException("Not a file in the binary format of PdfAct.");
+    }
+    int version = this.buffer.getShort(HEADER_VERSION) & 0xFFFF;
+    if (version != VERSION) {
+      throw new PdfActFormatException("Unsupported version of the binary format: " + version);
+    }
+
+    try {
+      this.coordinateScale = this.buffer.getShort(HEADER_SCALE) & 0xFFFF;
+      this.numPages = this.buffer.getInt(HEADER_NUM_PAGES);
+      this.pageIndexOffset = this.buffer.getInt(HEADER_PAGE_INDEX);
+
+      BinaryDecoder decoder =
+          new BinaryDecoder(this.buffer, this.buffer.getInt(HEADER_STRING_TABLE));
+      this.numStrings = decoder.readVarInt();
+      this.stringOffsetsOffset = decoder.getPosition();
+      this.stringDataOffset = this.stringOffsetsOffset + 4 * (this.numStrings + 1);
+
+      decoder.setPosition(this.buffer.getInt(HEADER_FONT_TABLE));
+      int numFonts = decoder.readVarInt();
+      this.fontIds = new int[numFonts];
+      this.fontNames = new int[numFonts];
+      this.fontFlags = new int[numFonts];
+      for (int i = 0; i < numFonts; i++) {
+        this.fontIds[i] = decoder.readVarInt();
+        this.fontNames[i] = decoder.readVarInt() - 1;
+        this.fontFlags[i] = decoder.readByte();
+      }
+
+      decoder.setPosition(this.buffer.getInt(HEADER_COLOR_TABLE));
+      int numColors = decoder.readVarInt();
+      this.colorIds = new int[numColors];
+      this.colorRgbs = new int[numColors];
+      for (int i = 0; i < numColors; i++) {
+        this.colorIds[i] = decoder.readVarInt();
+        int r = decoder.readByte();
+        int g = decoder.readByte();
+        int b = decoder.readByte();
+        this.colorRgbs[i] = (r << 16) | (g << 8) | b;
+      }
+
+      decoder.setPosition(this.buffer.getInt(HEADER_ROLE_TABLE));
+      int numRoles = decoder.readVarInt();
+      this.roleNames = new String[numRoles + 1];
+      for (int i = 1; i <= numRoles; i++) {
+        this.roleNames[i] = getString(decoder.readVarInt());
+      }
+    } catch (IndexOutOfBoundsException e) {
+      throw new PdfActFormatException("The file in the binary format of PdfAct is truncated.");
+    }
+  }
+
+  /**
+   * Opens the given file by mapping it into memory.
+   *
+   * @param path The path to the file.
+   *
+   * @return The reader of the file.
+   *
+   * @throws IOException If the file couldn't be read or is not a valid file in the binary format.
+   */
+  public static PdfActBinaryReader open(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      return new PdfActBinaryReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Returns the number of units per point of the stored coordinates.
+   *
+   * @return The coordinate scale.
+   */
+  public int getCoordinateScale() {
+    return this.coordinateScale;
+  }
+
+  /**
+   * Returns the bytes of the file (a read-only view, little-endian, positioned at 0).
+   *
+   * @return The bytes of the file.
+   */
+  public ByteBuffer getBuffer() {
+    return this.buffer.asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  // ==============================================================================================
+  // Methods to access the pages.
+
+  /**
+   * Returns the number of pages.
+   *
+   * @return The number of pages.
+   */
+  public int getNumPages() {
+    return this.numPages;
+  }
+
+  /**
+   * Returns the page number of the page with the given index.
+   *
+   * @param pageIndex The index of the page (between 0 and {@link #getNumPages()} - 1).
+   *
+   * @return The page number.
+   */
+  public int getPageNumber(int pageIndex) {
+    return new BinaryDecoder(this.buffer, getPageOffset(pageIndex)).readVarInt();
+  }
+
+  /**
+   * Returns the width of the page with the given index.
+   *
+   * @param pageIndex The index of the page (between 0 and {@link #getNumPages()} - 1).
+   *
+   * @return The width of the page.
+   */
+  public float getPageWidth(int pageIndex) {
+    BinaryDecoder decoder = new BinaryDecoder(this.buffer, getPageOffset(pageIndex));
+    decoder.readVarInt();
+    return unscale(decoder.readVarInt());
+  }
+
+  /**
+   * Returns the height of the page with the given index.
+   *
+   * @param pageIndex The index of the page (between 0 and {@link #getNumPages()} - 1).
+   *
+   * @return The height of the page.
+   */
+  public float getPageHeight(int pageIndex) {
+    BinaryDecoder decoder = new BinaryDecoder(this.buffer, getPageOffset(pageIndex));
+    decoder.readVarInt();
+    decoder.readVarInt();
+    return unscale(decoder.readVarInt());
+  }
+
+  /**
+   * Returns the offset of the block of the page with the given index.
+   *
+   * @param pageIndex The index of the page.
+   *
+   * @return The offset of the page block.
+   */
+  protected int getPageOffset(int pageIndex) {
+    if (pageIndex < 0 || pageIndex >= this.numPages) {
+      throw new IndexOutOfBoundsException("Page index " + pageIndex + " of " + this.numPages);
+    }
+    return this.buffer.getInt(this.pageIndexOffset + 4 * pageIndex);
+  }
+
+  // ==============================================================================================
+  // Methods to iterate the elements.
+
+  /**
+   * Returns a cursor over the elements of the given unit in all pages.
+   *
+   * @param unit The unit (one of the UNIT_* constants of {@link PdfActBinaryFormat}).
+   *
+   * @return The cursor, positioned before the first element.
+   */
+  public ElementCursor elements(int unit) {
+    return new ElementCursor(this, unit, 0, this.numPages);
+  }
+
+  /**
+   * Returns a cursor over the elements of the given unit in the page with the given index.
+   *
+   * @param pageIndex The index of the page (between 0 and {@link #getNumPages()} - 1).
+   * @param unit      The unit (one of the UNIT_* constants of {@link PdfActBinaryFormat}).
+   *
+   * @return The cursor, positioned before the first element.
+   */
+  public ElementCursor elements(int pageIndex, int unit) {
+    getPageOffset(pageIndex);
+    return new ElementCursor(this, unit, pageIndex, pageIndex + 1);
+  }
+
+  // ==============================================================================================
+  // Methods to access the strings.
+
+  /**
+   * Returns the number of strings in the string table.
+   *
+   * @return The number of strings.
+   */
+  public int getNumStrings() {
+    return this.numStrings;
+  }
+
+  /**
+   * Returns the string with the given index (decoded from its UTF-8 bytes).
+   *
+   * @param index The index of the string.
+   *
+   * @return The string.
+   */
+  public String getString(int index) {
+    byte[] bytes = new byte[getStringLength(index)];
+    ByteBuffer duplicate = this.buffer.duplicate();
+    duplicate.position(getStringOffset(index));
+    duplicate.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Returns the offset of the UTF-8 bytes of the string with the given index in the buffer
+   * returned by {@link #getBuffer()}.
+   *
+   * @param index The index of the string.
+   *
+   * @return The offset of the bytes of the string.
+   */
+  public int getStringOffset(int index) {
+    checkStringIndex(index);
+    return this.stringDataOffset + this.buffer.getInt(this.stringOffsetsOffset + 4 * index);
+  }
+
+  /**
+   * Returns the number of UTF-8 bytes of the string with the given index.
+   *
+   * @param index The index of the string.
+   *
+   * @return The number of bytes of the string.
+   */
+  public int getStringLength(int index) {
+    checkStringIndex(index);
+    int offset = this.stringOffsetsOffset + 4 * index;
+    return this.buffer.getInt(offset + 4) - this.buffer.getInt(offset);
+  }
+
+  /**
+   * Checks if the given index is a valid index of the string table.
+   *
+   * @param index The index to check.
+   */
+  protected void checkStringIndex(int index) {
+    if (index < 0 || index >= this.numStrings) {
+      throw new IndexOutOfBoundsException("String index " + index + " of " + this.numStrings);
+    }
+  }
+
+  // ==============================================================================================
+  // Methods to access the fonts, colors and roles.
+
+  /**
+   * Returns the number of fonts in the font table.
+   *
+   * @return The number of fonts.
+   */
+  public int getNumFonts() {
+    return this.fontIds.length;
+  }
+
+  /**
+   * Returns the id of the font with the given index.
+   *
+   * @param index The index of the font.
+   *
+   * @return The id of the font.
+   */
+  public String getFontId(int index) {
+    return getString(this.fontIds[index]);
+  }
+
+  /**
+   * Returns the name of the font with the given index.
+   *
+   * @param index The index of the font.
+   *
+   * @return The name of the font, or null if the font has no name.
+   */
+  public String getFontName(int index) {
+    return this.fontNames[index] >= 0 ? getString(this.fontNames[index]) : null;
+  }
+
+  /**
+   * Returns true if the font with the given index is bold.
+   *
+   * @param index The index of the font.
+   *
+   * @return True if the font is bold.
+   */
+  public boolean isBold(int index) {
+    return (this.fontFlags[index] & FONT_FLAG_BOLD) != 0;
+  }
+
+  /**
+   * Returns true if the font with the given index is italic.
+   *
+   * @param index The index of the font.
+   *
+   * @return True if the font is italic.
+   */
+  public boolean isItalic(int index) {
+    return (this.fontFlags[index] & FONT_FLAG_ITALIC) != 0;
+  }
+
+  /**
+   * Returns true if the font with the given index is a type3 font.
+   *
+   * @param index The index of the font.
+   *
+   * @return True if the font is a type3 font.
+   */
+  public boolean isType3(int index) {
+    return (this.fontFlags[index] & FONT_FLAG_TYPE3) != 0;
+  }
+
+  /**
+   * Returns the number of colors in the color table.
+   *
+   * @return The number of colors.
+   */
+  public int getNumColors() {
+    return this.colorIds.length;
+  }
+
+  /**
+   * Returns the id of the color with the given index.
+   *
+   * @param index The index of the color.
+   *
+   * @return The id of the color.
+   */
+  public String getColorId(int index) {
+    return getString(this.colorIds[index]);
+  }
+
+  /**
+   * Returns the RGB value of the color with the given index.
+   *
+   * @param index The index of the color.
+   *
+   * @return The RGB value of the color, as 0xRRGGBB.
+   */
+  public int getColorRgb(int index) {
+    return this.colorRgbs[index];
+  }
+
+  /**
+   * Returns the number of roles in the role table.
+   *
+   * @return The number of roles (the role codes are 1 to this number).
+   */
+  public int getNumRoles() {
+    return this.roleNames.length - 1;
+  }
+
+  /**
+   * Returns the name of the role with the given code.
+   *
+   * @param code The code of the role.
+   *
+   * @return The name of the role, or null if the code is 0 (no role).
+   */
+  public String getRoleName(int code) {
+    return this.roleNames[code];
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Converts the given scaled coordinate to a coordinate in points.
+   *
+   * @param value The scaled coordinate.
+   *
+   * @return The coordinate in points.
+   */
+  protected float unscale(int value) {
+    return value / (float) this.coordinateScale;
+  }
+}
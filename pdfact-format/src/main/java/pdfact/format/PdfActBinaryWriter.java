@@ -0,0 +1,530 @@
+package pdfact.format;
+
+import static pdfact.format.PdfActBinaryFormat.COLUMN_COLOR;
+import static pdfact.format.PdfActBinaryFormat.COLUMN_FONT;
+import static pdfact.format.PdfActBinaryFormat.COLUMN_FONT_SIZE;
+import static pdfact.format.PdfActBinaryFormat.COLUMN_HEIGHT;
+import static pdfact.format.PdfActBinaryFormat.COLUMN_MIN_X;
+import static pdfact.format.PdfActBinaryFormat.COLUMN_MIN_Y;
+import static pdfact.format.PdfActBinaryFormat.COLUMN_NUM_POSITIONS;
+import static pdfact.format.PdfActBinaryFormat.COLUMN_POSITION_PAGE;
+import static pdfact.format.PdfActBinaryFormat.COLUMN_ROLE;
+import static pdfact.format.PdfActBinaryFormat.COLUMN_TEXT;
+import static pdfact.format.PdfActBinaryFormat.COLUMN_WIDTH;
+import static pdfact.format.PdfActBinaryFormat.FONT_FLAG_BOLD;
+import static pdfact.format.PdfActBinaryFormat.FONT_FLAG_ITALIC;
+import static pdfact.format.PdfActBinaryFormat.FONT_FLAG_TYPE3;
+import static pdfact.format.PdfActBinaryFormat.HEADER_SIZE;
+import static pdfact.format.PdfActBinaryFormat.MAGIC;
+import static pdfact.format.PdfActBinaryFormat.NUM_COLUMNS;
+import static pdfact.format.PdfActBinaryFormat.VERSION;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A writer that creates a file in the binary columnar format of PdfAct (see
+ * {@link PdfActBinaryFormat}). The pages are added one after another, and the elements of a page
+ * are added unit by unit, in sections:
+ *
+ * <pre>
+ * writer.beginPage(1, 595.3f, 841.9f);
+ * writer.beginSection(UNIT_WORD);
+ * writer.addElement("Hello", 0, font, 10f, color);
+ * writer.addPosition(1, 72f, 700f, 96.5f, 710f);
+ * ...
+ * writer.endSection();
+ * writer.endPage();
+ * ...
+ * writer.writeTo(stream);
+ * </pre>
+ *
+ * <p>
+ * Texts, fonts, colors and roles are interned (each distinct value is stored only once in the
+ * respective table).
+ *
+ * @author Claudius Korzen
+ */
+public class PdfActBinaryWriter {
+  /**
+   * The number of units per point of the stored coordinates.
+   */
+  protected final int coordinateScale;
+
+  /**
+   * The indexes of the interned strings.
+   */
+  protected final Map<String, Integer> stringIndexes = new HashMap<>();
+
+  /**
+   * The UTF-8 encoded interned strings.
+   */
+  protected final BinaryBuffer stringData = new BinaryBuffer(4096);
+
+  /**
+   * The end offsets of the interned strings in the string data.
+   */
+  protected final BinaryBuffer stringEnds = new BinaryBuffer(1024);
+
+  /**
+   * The indexes of the interned fonts, per font id.
+   */
+  protected final Map<String, Integer> fontIndexes = new HashMap<>();
+
+  /**
+   * The entries of the font table.
+   */
+  protected final BinaryBuffer fontTable = new BinaryBuffer();
+
+  /**
+   * The indexes of the interned colors, per color id.
+   */
+  protected final Map<String, Integer> colorIndexes = new HashMap<>();
+
+  /**
+   * The entries of the color table.
+   */
+  protected final BinaryBuffer colorTable = new BinaryBuffer();
+
+  /**
+   * The codes of the interned roles, per role name.
+   */
+  protected final Map<String, Integer> roleCodes = new HashMap<>();
+
+  /**
+   * The entries of the role table.
+   */
+  protected final BinaryBuffer roleTable = new BinaryBuffer();
+
+  /**
+   * The page blocks written so far.
+   */
+  protected final BinaryBuffer pages = new BinaryBuffer(4096);
+
+  /**
+   * The offsets of the page blocks, relative to the start of the page blocks.
+   */
+  protected final BinaryBuffer pageOffsets = new BinaryBuffer();
+
+  /**
+   * The number of pages written so far.
+   */
+  protected int numPages;
+
+  // ==============================================================================================
+  // The state of the current page and section.
+
+  /**
+   * The number of the current page (or -1 if there is no current page).
+   */
+  protected int pageNumber = -1;
+
+  /**
+   * The sections of the current page.
+   */
+  protected final BinaryBuffer pageSections = new BinaryBuffer(4096);
+
+  /**
+   * The number of sections of the current page.
+   */
+  protected int numSections;
+
+  /**
+   * The unit of the current section (or 0 if there is no current section).
+   */
+  protected int unit;
+
+  /**
+   * The columns of the current section.
+   */
+  protected final BinaryBuffer[] columns = new BinaryBuffer[NUM_COLUMNS];
+
+  /**
+   * The number of elements of the current section.
+   */
+  protected int numElements;
+
+  /**
+   * The number of positions of the current element.
+   */
+  protected int numPositions;
+
+  /**
+   * The (scaled) minX value of the previous position in the current section.
+   */
+  protected int prevMinX;
+
+  /**
+   * The (scaled) minY value of the previous position in the current section.
+   */
+  protected int prevMinY;
+
+  // ==============================================================================================
+  // Constructors.
+
+  /**
+   * Creates a new writer with the default coordinate scale.
+   */
+  public PdfActBinaryWriter() {
+    this(PdfActBinaryFormat.DEFAULT_COORDINATE_SCALE);
+  }
+
+  /**
+   * Creates a new writer with the given coordinate scale.
+   *
+   * @param coordinateScale The number of units per point of the stored coordinates (coordinates
+   *                        are rounded to the nearest unit).
+   */
+  public PdfActBinaryWriter(int coordinateScale) {
+    if (coordinateScale < 1 || coordinateScale > 0xFFFF) {
+      throw new IllegalArgumentException("Invalid coordinate scale: " + coordinateScale);
+    }
+    this.coordinateScale = coordinateScale;
+    for (int i = 0; i < NUM_COLUMNS; i++) {
+      this.columns[i] = new BinaryBuffer(256);
+    }
+  }
+
+  // ==============================================================================================
+  // Methods to intern strings, fonts, colors and roles.
+
+  /**
+   * Adds the given string to the string table (if it is not already contained).
+   *
+   * @param string The string.
+   *
+   * @return The index of the string in the string table.
+   */
+  public int addString(String string) {
+    Integer index = this.stringIndexes.get(string);
+    if (index == null) {
+      index = this.stringIndexes.size();
+      this.stringIndexes.put(string, index);
+      this.stringData.write(string.getBytes(StandardCharsets.UTF_8));
+      this.stringEnds.writeInt(this.stringData.length());
+    }
+    return index;
+  }
+
+  /**
+   * Adds the given font to the font table (if a font with the same id is not already contained).
+   *
+   * @param id     The id of the font.
+   * @param name   The name of the font (may be null).
+   * @param bold   Whether the font is bold.
+   * @param italic Whether the font is italic.
+   * @param type3  Whether the font is a type3 font.
+   *
+   * @return The index of the font in the font table.
+   */
+  public int addFont(String id, String name, boolean bold, boolean italic, boolean type3) {
+    Integer index = this.fontIndexes.get(id);
+    if (index == null) {
+      index = this.fontIndexes.size();
+      this.fontIndexes.put(id, index);
+      this.fontTable.writeVarInt(addString(id));
+      this.fontTable.writeVarInt(name != null ? addString(name) + 1 : 0);
+      this.fontTable.writeByte((bold ? FONT_FLAG_BOLD : 0) | (italic ? FONT_FLAG_ITALIC : 0)
+          | (type3 ? FONT_FLAG_TYPE3 : 0));
+    }
+    return index;
+  }
+
+  /**
+   * Adds the given color to the color table (if a color with the same id is not already
+   * contained).
+   *
+   * @param id The id of the color.
+   * @param r  The red component (0-255).
+   * @param g  The green component (0-255).
+   * @param b  The blue component (0-255).
+   *
+   * @return The index of the color in the color table.
+   */
+  public int addColor(String id, int r, int g, int b) {
+    Integer index = this.colorIndexes.get(id);
+    if (index == null) {
+      index = this.colorIndexes.size();
+      this.colorIndexes.put(id, index);
+      this.colorTable.writeVarInt(addString(id));
+      this.colorTable.writeByte(r);
+      this.colorTable.writeByte(g);
+      this.colorTable.writeByte(b);
+    }
+    return index;
+  }
+
+  /**
+   * Adds the given role to the role table (if it is not already contained).
+   *
+   * @param name The name of the role.
+   *
+   * @return The code of the role (a value between 1 and 255).
+   */
+  public int addRole(String name) {
+    Integer code = this.roleCodes.get(name);
+    if (code == null) {
+      code = this.roleCodes.size() + 1;
+      if (code > 0xFF) {
+        throw new IllegalStateException("Too many roles.");
+      }
+      this.roleCodes.put(name, code);
+      this.roleTable.writeVarInt(addString(name));
+    }
+    return code;
+  }
+
+  // ==============================================================================================
+  // Methods to write pages, sections and elements.
+
+  /**
+   * Starts a new page.
+   *
+   * @param pageNumber The number of the page.
+   * @param width      The width of the page.
+   * @param height     The height of the page.
+   */
+  public void beginPage(int pageNumber, float width, float height) {
+    if (this.pageNumber >= 0) {
+      throw new IllegalStateException("The previous page was not ended.");
+    }
+    this.pageNumber = pageNumber;
+    this.numSections = 0;
+    this.pageSections.clear();
+    this.pageOffsets.writeInt(this.pages.length());
+    this.pages.writeVarInt(pageNumber);
+    this.pages.writeVarInt(scale(width));
+    this.pages.writeVarInt(scale(height));
+  }
+
+  /**
+   * Starts a new section with the elements of the given unit in the current page.
+   *
+   * @param unit The unit (one of the UNIT_* constants of {@link PdfActBinaryFormat}).
+   */
+  public void beginSection(int unit) {
+    if (this.pageNumber < 0 || this.unit != 0) {
+      throw new IllegalStateException("There is no page or the previous section was not ended.");
+    }
+    this.unit = unit;
+    this.numElements = 0;
+    this.numPositions = 0;
+    this.prevMinX = 0;
+    this.prevMinY = 0;
+    for (BinaryBuffer column : this.columns) {
+      column.clear();
+    }
+  }
+
+  /**
+   * Adds an element to the current section. The positions of the element are added afterwards,
+   * by {@link #addPosition(int, float, float, float, float)}.
+   *
+   * @param text       The text of the element (may be null).
+   * @param roleCode   The code of the role of the element (see {@link #addRole(String)}), or 0.
+   * @param fontIndex  The index of the font of the element (see {@link #addFont}), or -1.
+   * @param fontSize   The font size of the element, or 0.
+   * @param colorIndex The index of the color of the element (see {@link #addColor}), or -1.
+   */
+  public void addElement(String text, int roleCode, int fontIndex, float fontSize,
+      int colorIndex) {
+    if (this.unit == 0) {
+      throw new IllegalStateException("There is no section.");
+    }
+    endElement();
+    this.columns[COLUMN_TEXT].writeVarInt(text != null ? addString(text) + 1 : 0);
+    this.columns[COLUMN_ROLE].writeByte(roleCode);
+    this.columns[COLUMN_FONT].writeVarInt(fontIndex + 1);
+    this.columns[COLUMN_FONT_SIZE].writeVarInt(fontSize > 0 ? scale(fontSize) : 0);
+    this.columns[COLUMN_COLOR].writeVarInt(colorIndex + 1);
+    this.numElements++;
+  }
+
+  /**
+   * Adds a position to the current element.
+   *
+   * @param pageNumber The number of the page of the position.
+   * @param minX       The minimum x-coordinate.
+   * @param minY       The minimum y-coordinate.
+   * @param maxX       The maximum x-coordinate.
+   * @param maxY       The maximum y-coordinate.
+   */
+  public void addPosition(int pageNumber, float minX, float minY, float maxX, float maxY) {
+    if (this.numElements == 0) {
+      throw new IllegalStateException("There is no element.");
+    }
+    int scaledMinX = scale(minX);
+    int scaledMinY = scale(minY);
+    this.columns[COLUMN_POSITION_PAGE].writeSignedVarInt(pageNumber - this.pageNumber);
+    this.columns[COLUMN_MIN_X].writeSignedVarInt(scaledMinX - this.prevMinX);
+    this.columns[COLUMN_MIN_Y].writeSignedVarInt(scaledMinY - this.prevMinY);
+    this.columns[COLUMN_WIDTH].writeSignedVarInt(scale(maxX) - scaledMinX);
+    this.columns[COLUMN_HEIGHT].writeSignedVarInt(scale(maxY) - scaledMinY);
+    this.prevMinX = scaledMinX;
+    this.prevMinY = scaledMinY;
+    this.numPositions++;
+  }
+
+  /**
+   * Ends the current section.
+   */
+  public void endSection() {
+    if (this.unit == 0) {
+      throw new IllegalStateException("There is no section.");
+    }
+    endElement();
+    this.pageSections.writeByte(this.unit);
+    this.pageSections.writeVarInt(this.numElements);
+    for (BinaryBuffer column : this.columns) {
+      this.pageSections.writeVarInt(column.length());
+    }
+    for (BinaryBuffer column : this.columns) {
+      this.pageSections.write(column);
+    }
+    this.numSections++;
+    this.unit = 0;
+    this.numElements = 0;
+  }
+
+  /**
+   * Ends the current page.
+   */
+  public void endPage() {
+    if (this.pageNumber < 0 || this.unit != 0) {
+      throw new IllegalStateException("There is no page or the current section was not ended.");
+    }
+    this.pages.writeVarInt(this.numSections);
+    this.pages.write(this.pageSections);
+    this.numPages++;
+    this.pageNumber = -1;
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Writes the file to the given stream.
+   *
+   * @param stream The stream to write to.
+   *
+   * @throws IOException If writing failed.
+   */
+  public void writeTo(OutputStream stream) throws IOException {
+    if (this.pageNumber >= 0) {
+      throw new IllegalStateException("The current page was not ended.");
+    }
+
+    BinaryBuffer stringTable = new BinaryBuffer(this.stringEnds.length() + 8);
+    stringTable.writeVarInt(this.stringIndexes.size());
+    stringTable.writeInt(0);
+    stringTable.write(this.stringEnds);
+
+    int pagesOffset = HEADER_SIZE;
+    int stringTableOffset = pagesOffset + this.pages.length();
+    int fontTableOffset = stringTableOffset + stringTable.length() + this.stringData.length();
+    int colorTableOffset = fontTableOffset + varIntLength(this.fontIndexes.size())
+        + this.fontTable.length();
+    int roleTableOffset = colorTableOffset + varIntLength(this.colorIndexes.size())
+        + this.colorTable.length();
+    int pageIndexOffset = roleTableOffset + varIntLength(this.roleCodes.size())
+        + this.roleTable.length();
+
+    BinaryBuffer header = new BinaryBuffer(HEADER_SIZE);
+    header.writeInt(MAGIC);
+    header.writeShort(VERSION);
+    header.writeShort(this.coordinateScale);
+    header.writeInt(this.numPages);
+    header.writeInt(pageIndexOffset);
+    header.writeInt(stringTableOffset);
+    header.writeInt(fontTableOffset);
+    header.writeInt(colorTableOffset);
+    header.writeInt(roleTableOffset);
+    header.writeTo(stream);
+
+    this.pages.writeTo(stream);
+    stringTable.writeTo(stream);
+    this.stringData.writeTo(stream);
+    writeTable(this.fontIndexes.size(), this.fontTable, stream);
+    writeTable(this.colorIndexes.size(), this.colorTable, stream);
+    writeTable(this.roleCodes.size(), this.roleTable, stream);
+
+    BinaryBuffer pageIndex = new BinaryBuffer(4 * this.numPages);
+    for (int i = 0; i < this.numPages; i++) {
+      pageIndex.writeInt(pagesOffset + readInt(this.pageOffsets, 4 * i));
+    }
+    pageIndex.writeTo(stream);
+  }
+
+  // ==============================================================================================
+
+  /**
+   * Writes the number of positions of the current element (if there is any) to the respective
+   * column.
+   */
+  protected void endElement() {
+    if (this.numElements > 0) {
+      this.columns[COLUMN_NUM_POSITIONS].writeVarInt(this.numPositions);
+    }
+    this.numPositions = 0;
+  }
+
+  /**
+   * Writes a table with the given number of entries to the given stream.
+   *
+   * @param numEntries The number of entries.
+   * @param entries    The entries.
+   * @param stream     The stream to write to.
+   *
+   * @throws IOException If writing failed.
+   */
+  protected void writeTable(int numEntries, BinaryBuffer entries, OutputStream stream)
+      throws IOException {
+    BinaryBuffer size = new BinaryBuffer(5);
+    size.writeVarInt(numEntries);
+    size.writeTo(stream);
+    entries.writeTo(stream);
+  }
+
+  /**
+   * Scales the given coordinate to an integer.
+   *
+   * @param value The coordinate.
+   *
+   * @return The coordinate, multiplied by the coordinate scale and rounded.
+   */
+  protected int scale(float value) {
+    return Math.round(value * this.coordinateScale);
+  }
+
+  /**
+   * Returns the number of bytes of the given value, encoded as varint.
+   *
+   * @param value The value.
+   *
+   * @return The number of bytes of the encoded value.
+   */
+  protected static int varIntLength(int value) {
+    int length = 1;
+    while ((value & ~0x7F) != 0) {
+      value >>>= 7;
+      length++;
+    }
+    return length;
+  }
+
+  /**
+   * Reads a little-endian 32-bit integer from the given buffer.
+   *
+   * @param buffer The buffer.
+   * @param offset The offset of the integer.
+   *
+   * @return The integer.
+   */
+  protected static int readInt(BinaryBuffer buffer, int offset) {
+    byte[] b = buffer.bytes;
+    return (b[offset] & 0xFF) | (b[offset + 1] & 0xFF) << 8 | (b[offset + 2] & 0xFF) << 16
+        | (b[offset + 3] & 0xFF) << 24;
+  }
+}
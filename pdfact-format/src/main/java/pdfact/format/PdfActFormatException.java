@@ -0,0 +1,24 @@
+package pdfact.format;
+
+import java.io.IOException;
+
+/**
+ * An exception thrown when a file is not a valid file in the binary format of PdfAct.
+ *
+ * @author Claudius Korzen
+ */
+public class PdfActFormatException extends IOException {
+  /**
+   * The serial id.
+   */
+  protected static final long serialVersionUID = 4818406716531872315L;
+
+  /**
+   * Creates a new exception.
+   *
+   * @param message The error message to show.
+   */
+  public PdfActFormatException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,104 @@
+package pdfact.format;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * A class that tests the {@link PdfActBinaryReader}.
+ */
+public class PdfActBinaryReaderTest {
+  /**
+   * Tests if the pages, fonts, colors and elements (with their roles and positions) written by
+   * the {@link PdfActBinaryWriter} are read back, including empty pages and sections, elements
+   * without text, font or color, and elements with positions on multiple pages.
+   */
+  @Test
+  public void testRoundTrip() throws IOException {
+    PdfActBinaryWriter writer = new PdfActBinaryWriter();
+    int title = writer.addRole("title");
+    int font = writer.addFont("font-1", "Times-Bold", true, false, false);
+    int color = writer.addColor("color-1", 255, 0, 128);
+
+    writer.beginPage(1, 612f, 792f);
+    writer.beginSection(PdfActBinaryFormat.UNIT_WORD);
+    writer.addElement("Accurate", title, font, 17.2f, color);
+    writer.addPosition(1, 135f, 697.7f, 207.4f, 711.1f);
+    writer.addElement("Extraction", 0, -1, 0, -1);
+    writer.addPosition(1, 301.3f, 697.7f, 370.6f, 711.1f);
+    writer.addPosition(2, 72f, 60.5f, 90.1f, 70.5f);
+    writer.endSection();
+    writer.beginSection(PdfActBinaryFormat.UNIT_PARAGRAPH);
+    writer.addElement(null, title, -1, 0, -1);
+    writer.endSection();
+    writer.endPage();
+
+    writer.beginPage(2, 612f, 792f);
+    writer.endPage();
+
+    writer.beginPage(3, 595.3f, 841.9f);
+    writer.beginSection(PdfActBinaryFormat.UNIT_WORD);
+    writer.addElement("Accurate", 0, font, 9.5f, -1);
+    writer.addPosition(3, 56.7f, 780.1f, 90.2f, 789.6f);
+    writer.endSection();
+    writer.endPage();
+
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    writer.writeTo(stream);
+    PdfActBinaryReader reader = new PdfActBinaryReader(ByteBuffer.wrap(stream.toByteArray()));
+
+    Assert.assertEquals(3, reader.getNumPages());
+    Assert.assertEquals(3, reader.getPageNumber(2));
+    Assert.assertEquals(595.3f, reader.getPageWidth(2), 0);
+    Assert.assertEquals(841.9f, reader.getPageHeight(2), 0);
+    Assert.assertEquals("Times-Bold", reader.getFontName(0));
+    Assert.assertTrue(reader.isBold(0));
+    Assert.assertFalse(reader.isItalic(0));
+    Assert.assertEquals(0xFF0080, reader.getColorRgb(0));
+
+    ElementCursor words = reader.elements(PdfActBinaryFormat.UNIT_WORD);
+    Assert.assertTrue(words.next());
+    Assert.assertEquals("Accurate", words.getText());
+    Assert.assertEquals("title", words.getRoleName());
+    Assert.assertEquals(font, words.getFontIndex());
+    Assert.assertEquals(17.2f, words.getFontSize(), 0);
+    Assert.assertEquals(color, words.getColorIndex());
+    Assert.assertEquals(135f, words.getMinX(), 0);
+    Assert.assertEquals(711.1f, words.getMaxY(), 0);
+
+    Assert.assertTrue(words.next());
+    Assert.assertEquals("Extraction", words.getText());
+    Assert.assertNull(words.getRoleName());
+    Assert.assertEquals(-1, words.getFontIndex());
+    Assert.assertEquals(-1, words.getColorIndex());
+    Assert.assertEquals(2, words.getNumPositions());
+    Assert.assertEquals(301.3f, words.getMinX(), 0);
+    Assert.assertTrue(words.nextPosition());
+    Assert.assertEquals(2, words.getPositionPageNumber());
+    Assert.assertEquals(60.5f, words.getMinY(), 0);
+    Assert.assertEquals(90.1f, words.getMaxX(), 0);
+    Assert.assertFalse(words.nextPosition());
+
+    Assert.assertTrue(words.next());
+    Assert.assertEquals(3, words.getPageNumber());
+    Assert.assertEquals(56.7f, words.getMinX(), 0);
+    Assert.assertEquals(789.6f, words.getMaxY(), 0);
+    Assert.assertFalse(words.next());
+
+    ElementCursor paragraphs = reader.elements(0, PdfActBinaryFormat.UNIT_PARAGRAPH);
+    Assert.assertTrue(paragraphs.next());
+    Assert.assertNull(paragraphs.getText());
+    Assert.assertEquals(0, paragraphs.getNumPositions());
+    Assert.assertFalse(paragraphs.next());
+  }
+
+  /**
+   * Tests if a buffer that doesn't start with the magic bytes of the format is rejected.
+   */
+  @Test(expected = PdfActFormatException.class)
+  public void testInvalidMagic() throws IOException {
+    new PdfActBinaryReader(ByteBuffer.wrap(new byte[PdfActBinaryFormat.HEADER_SIZE]));
+  }
+}